@@ -0,0 +1,114 @@
+/**
+ * 
+ */
+package net.sci.benchmark;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sci.array.Cursor;
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.ScalarArray2D;
+
+/**
+ * Compares the different ways of iterating over the values of a 2D scalar
+ * array.
+ * 
+ * @author dlegland
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayIterationBenchmark
+{
+    @Param({"256", "1024", "4096"})
+    int size;
+    
+    @Param({"UInt8", "UInt16", "Float32"})
+    String type;
+    
+    ScalarArray2D<?> array;
+    
+    @Setup
+    public void setup()
+    {
+        this.array = BenchmarkArrays.createNoise2d(type, size);
+    }
+    
+    @Benchmark
+    public double indices()
+    {
+        double sum = 0;
+        for (int y = 0; y < size; y++)
+        {
+            for (int x = 0; x < size; x++)
+            {
+                sum += array.getValue(x, y);
+            }
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public double cursor()
+    {
+        double sum = 0;
+        Cursor cursor = array.cursor();
+        while (cursor.hasNext())
+        {
+            cursor.forward();
+            sum += array.getValue(cursor);
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public double positions()
+    {
+        double sum = 0;
+        for (int[] pos : array.positions())
+        {
+            sum += array.getValue(pos);
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public double iterator()
+    {
+        double sum = 0;
+        ScalarArray.Iterator<?> iter = array.iterator();
+        while (iter.hasNext())
+        {
+            sum += iter.nextValue();
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public double valueIterator()
+    {
+        double sum = 0;
+        PrimitiveIterator.OfDouble iter = array.valueIterator();
+        while (iter.hasNext())
+        {
+            sum += iter.nextDouble();
+        }
+        return sum;
+    }
+}
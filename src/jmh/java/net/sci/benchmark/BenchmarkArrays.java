@@ -0,0 +1,161 @@
+/**
+ * 
+ */
+package net.sci.benchmark;
+
+import java.util.Random;
+
+import net.sci.array.binary.BinaryArray3D;
+import net.sci.array.numeric.Float32Array2D;
+import net.sci.array.numeric.Float32Array3D;
+import net.sci.array.numeric.ScalarArray2D;
+import net.sci.array.numeric.ScalarArray3D;
+import net.sci.array.numeric.UInt16Array2D;
+import net.sci.array.numeric.UInt16Array3D;
+import net.sci.array.numeric.UInt8Array2D;
+import net.sci.array.numeric.UInt8Array3D;
+
+/**
+ * Creates the arrays used as input of the benchmarks. The content of the
+ * arrays is generated from a fixed seed, so that successive runs process the
+ * same data.
+ * 
+ * @author dlegland
+ */
+public class BenchmarkArrays
+{
+    /**
+     * The seed used for generating random values.
+     */
+    public static final long SEED = 42;
+    
+    /**
+     * Creates a 2D array with the specified type, containing uniformly
+     * distributed random values between 0 and 255.
+     * 
+     * @param type
+     *            the type of the array: "UInt8", "UInt16" or "Float32"
+     * @param size
+     *            the size of the array along each dimension
+     * @return a new 2D scalar array
+     */
+    public static final ScalarArray2D<?> createNoise2d(String type, int size)
+    {
+        ScalarArray2D<?> array = switch (type)
+        {
+            case "UInt8" -> UInt8Array2D.create(size, size);
+            case "UInt16" -> UInt16Array2D.create(size, size);
+            case "Float32" -> Float32Array2D.create(size, size);
+            default -> throw new IllegalArgumentException("Unknown array type: " + type);
+        };
+        
+        Random random = new Random(SEED);
+        for (int y = 0; y < size; y++)
+        {
+            for (int x = 0; x < size; x++)
+            {
+                array.setValue(x, y, random.nextInt(256));
+            }
+        }
+        return array;
+    }
+    
+    /**
+     * Creates a 3D array with the specified type, containing uniformly
+     * distributed random values between 0 and 255.
+     * 
+     * @param type
+     *            the type of the array: "UInt8", "UInt16" or "Float32"
+     * @param size
+     *            the size of the array along each dimension
+     * @return a new 3D scalar array
+     */
+    public static final ScalarArray3D<?> createNoise3d(String type, int size)
+    {
+        ScalarArray3D<?> array = switch (type)
+        {
+            case "UInt8" -> UInt8Array3D.create(size, size, size);
+            case "UInt16" -> UInt16Array3D.create(size, size, size);
+            case "Float32" -> Float32Array3D.create(size, size, size);
+            default -> throw new IllegalArgumentException("Unknown array type: " + type);
+        };
+        
+        Random random = new Random(SEED);
+        for (int z = 0; z < size; z++)
+        {
+            for (int y = 0; y < size; y++)
+            {
+                for (int x = 0; x < size; x++)
+                {
+                    array.setValue(x, y, z, random.nextInt(256));
+                }
+            }
+        }
+        return array;
+    }
+    
+    /**
+     * Creates a 3D binary array composed of cubic blocks with a side of 8
+     * voxels, each block being set to true with a probability of 0.5. The
+     * result contains many connected components with various shapes.
+     * 
+     * @param size
+     *            the size of the array along each dimension
+     * @return a new 3D binary array
+     */
+    public static final BinaryArray3D createBlocks3d(int size)
+    {
+        int blockSize = 8;
+        int nBlocks = (size + blockSize - 1) / blockSize;
+        boolean[] blocks = new boolean[nBlocks * nBlocks * nBlocks];
+        Random random = new Random(SEED);
+        for (int i = 0; i < blocks.length; i++)
+        {
+            blocks[i] = random.nextBoolean();
+        }
+        
+        BinaryArray3D array = BinaryArray3D.create(size, size, size);
+        for (int z = 0; z < size; z++)
+        {
+            for (int y = 0; y < size; y++)
+            {
+                for (int x = 0; x < size; x++)
+                {
+                    int index = (x / blockSize) + nBlocks * ((y / blockSize) + nBlocks * (z / blockSize));
+                    array.setBoolean(x, y, z, blocks[index]);
+                }
+            }
+        }
+        return array;
+    }
+    
+    /**
+     * Creates a 3D binary array where all voxels are true, except a sparse set
+     * of randomly located background voxels.
+     * 
+     * @param size
+     *            the size of the array along each dimension
+     * @param backgroundCount
+     *            the number of background voxels
+     * @return a new 3D binary array
+     */
+    public static final BinaryArray3D createSparseBackground3d(int size, int backgroundCount)
+    {
+        BinaryArray3D array = BinaryArray3D.create(size, size, size);
+        array.fillBooleans((x, y, z) -> true);
+        
+        Random random = new Random(SEED);
+        for (int i = 0; i < backgroundCount; i++)
+        {
+            array.setBoolean(random.nextInt(size), random.nextInt(size), random.nextInt(size), false);
+        }
+        return array;
+    }
+    
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BenchmarkArrays()
+    {
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * 
+ */
+package net.sci.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.ScalarArray2D;
+import net.sci.image.morphology.filtering.Dilation;
+import net.sci.image.morphology.strel.OctagonStrel;
+import net.sci.image.morphology.strel.SlidingDiskStrel;
+import net.sci.image.morphology.strel.SquareStrel;
+
+/**
+ * Benchmarks of grayscale dilation on 2D arrays, using several types of
+ * structuring elements.
+ * 
+ * @author dlegland
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DilationBenchmark
+{
+    @Param({"256", "1024", "4096"})
+    int size;
+    
+    @Param({"UInt8", "UInt16", "Float32"})
+    String type;
+    
+    @Param({"2", "10", "30"})
+    int radius;
+    
+    ScalarArray2D<?> array;
+    
+    @Setup
+    public void setup()
+    {
+        this.array = BenchmarkArrays.createNoise2d(type, size);
+    }
+    
+    @Benchmark
+    public ScalarArray<?> squareStrel()
+    {
+        return new Dilation(SquareStrel.fromRadius(radius)).processScalar(array);
+    }
+    
+    @Benchmark
+    public ScalarArray<?> octagonStrel()
+    {
+        return new Dilation(OctagonStrel.fromRadius(radius)).processScalar(array);
+    }
+    
+    @Benchmark
+    public ScalarArray<?> slidingDiskStrel()
+    {
+        return new Dilation(new SlidingDiskStrel(radius)).processScalar(array);
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * 
+ */
+package net.sci.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sci.array.binary.BinaryArray3D;
+import net.sci.array.numeric.ScalarArray3D;
+import net.sci.image.binary.distmap.ChamferDistanceTransform3DFloat32;
+import net.sci.image.binary.distmap.ChamferDistanceTransform3DUInt16;
+import net.sci.image.binary.distmap.ChamferMask3D;
+import net.sci.image.binary.distmap.SaitoToriwakiDistanceTransform3D;
+
+/**
+ * Benchmarks of distance transforms of 3D binary arrays.
+ * 
+ * The largest size (1024) requires a heap of several gigabytes, and can be
+ * selected from the command line with the "-p size=1024" option.
+ * 
+ * @author dlegland
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class DistanceTransform3DBenchmark
+{
+    @Param({"128", "256", "512"})
+    int size;
+    
+    BinaryArray3D array;
+    
+    @Setup
+    public void setup()
+    {
+        this.array = BenchmarkArrays.createSparseBackground3d(size, size * size / 4);
+    }
+    
+    @Benchmark
+    public ScalarArray3D<?> saitoToriwaki()
+    {
+        return new SaitoToriwakiDistanceTransform3D().process3d(array);
+    }
+    
+    @Benchmark
+    public ScalarArray3D<?> chamferFloat32()
+    {
+        return new ChamferDistanceTransform3DFloat32(ChamferMask3D.SVENSSON_3_4_5_7).process3d(array);
+    }
+    
+    @Benchmark
+    public ScalarArray3D<?> chamferUInt16()
+    {
+        return new ChamferDistanceTransform3DUInt16(ChamferMask3D.SVENSSON_3_4_5_7).process3d(array);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * 
+ */
+package net.sci.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.ScalarArray2D;
+import net.sci.image.filtering.BoxFilter;
+import net.sci.image.filtering.MedianFilterBoxSliding;
+
+/**
+ * Benchmarks of linear and median filters on 2D arrays.
+ * 
+ * @author dlegland
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilteringBenchmark
+{
+    @Param({"256", "1024", "4096"})
+    int size;
+    
+    @Param({"UInt8", "UInt16", "Float32"})
+    String type;
+    
+    @Param({"5", "15"})
+    int diameter;
+    
+    ScalarArray2D<?> array;
+    
+    @Setup
+    public void setup()
+    {
+        this.array = BenchmarkArrays.createNoise2d(type, size);
+    }
+    
+    @Benchmark
+    public ScalarArray<?> boxFilter()
+    {
+        return new BoxFilter(new int[] {diameter, diameter}).processScalar(array);
+    }
+    
+    @Benchmark
+    public ScalarArray<?> medianFilterBoxSliding()
+    {
+        return new MedianFilterBoxSliding(new int[] {diameter, diameter}).processScalar(array);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * 
+ */
+package net.sci.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sci.image.Image;
+import net.sci.image.io.MetaImageReader;
+import net.sci.image.io.MetaImageWriter;
+import net.sci.image.io.TiffImageReader;
+import net.sci.image.io.TiffImageWriter;
+
+/**
+ * Measures the time needed to read 3D images saved in the TIFF and MetaImage
+ * formats. The files are written into the temporary directory during the
+ * setup of the benchmark.
+ * 
+ * @author dlegland
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ImageReaderBenchmark
+{
+    @Param({"128", "256", "512"})
+    int size;
+    
+    @Param({"UInt8", "UInt16", "Float32"})
+    String type;
+    
+    File tiffFile;
+    
+    File mhdFile;
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        Image image = new Image(BenchmarkArrays.createNoise3d(type, size));
+        
+        this.tiffFile = File.createTempFile("cs4j-bench", ".tif");
+        try (TiffImageWriter writer = new TiffImageWriter(this.tiffFile))
+        {
+            writer.writeImage(image);
+        }
+        
+        this.mhdFile = File.createTempFile("cs4j-bench", ".mhd");
+        new MetaImageWriter(this.mhdFile).writeImage(image);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        this.tiffFile.delete();
+        this.mhdFile.delete();
+        // also remove the data file of the MetaImage
+        String mhdPath = this.mhdFile.getPath();
+        new File(mhdPath.substring(0, mhdPath.length() - 4) + ".raw").delete();
+    }
+    
+    @Benchmark
+    public Image tiffImageReader() throws IOException
+    {
+        return new TiffImageReader(tiffFile).readImage();
+    }
+    
+    @Benchmark
+    public Image metaImageReader() throws IOException
+    {
+        return new MetaImageReader(mhdFile).readImage();
+    }
+}
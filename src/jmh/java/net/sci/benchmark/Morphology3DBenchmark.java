@@ -0,0 +1,87 @@
+/**
+ * 
+ */
+package net.sci.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sci.array.binary.BinaryArray3D;
+import net.sci.array.numeric.IntArray3D;
+import net.sci.array.numeric.ScalarArray3D;
+import net.sci.image.binary.labeling.FloodFillComponentsLabeling3D;
+import net.sci.image.morphology.reconstruction.MorphologicalReconstruction3DHybrid;
+import net.sci.image.morphology.watershed.MarkerBasedWatershed3D;
+
+/**
+ * Benchmarks of 3D morphological reconstruction, watershed and connected
+ * components labeling.
+ * 
+ * @author dlegland
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class Morphology3DBenchmark
+{
+    @Param({"128", "256"})
+    int size;
+    
+    @Param({"UInt8", "UInt16", "Float32"})
+    String type;
+    
+    ScalarArray3D<?> array;
+    
+    ScalarArray3D<?> marker;
+    
+    BinaryArray3D binary;
+    
+    IntArray3D<?> labels;
+    
+    @Setup
+    public void setup()
+    {
+        this.array = BenchmarkArrays.createNoise3d(type, size);
+        
+        // marker for reconstruction by dilation: a single voxel in the center
+        this.marker = ScalarArray3D.wrap(this.array.newInstance(size, size, size));
+        int c = size / 2;
+        this.marker.setValue(c, c, c, this.array.getValue(c, c, c));
+        
+        // binary image and its labels, used as markers for watershed
+        this.binary = BenchmarkArrays.createBlocks3d(size);
+        this.labels = new FloodFillComponentsLabeling3D().processBinary3d(this.binary);
+    }
+    
+    @Benchmark
+    public ScalarArray3D<?> reconstructionHybrid()
+    {
+        return new MorphologicalReconstruction3DHybrid().process(marker, array);
+    }
+    
+    @Benchmark
+    public IntArray3D<?> markerBasedWatershed()
+    {
+        return new MarkerBasedWatershed3D().process(array, labels);
+    }
+    
+    @Benchmark
+    public IntArray3D<?> floodFillLabeling()
+    {
+        return new FloodFillComponentsLabeling3D().processBinary3d(binary);
+    }
+}
@@ -4,10 +4,20 @@
 package net.sci.algo;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 /**
  * A minimal implementation of algorithm for managing progression listeners.
  * 
+ * Also provides a simple parallel execution layer: an execution pool can be
+ * attached to the algorithm, and implementations can split their computation
+ * into tiles of lines processed by the pool (see
+ * {@link #processTiles(int, int, Consumer)}). By default, no pool is attached,
+ * and the tiles are processed sequentially.
+ * 
  * @author David Legland
  */
 public class AlgoStub implements Algo
@@ -17,6 +27,18 @@ public class AlgoStub implements Algo
 	
 	private ArrayList<AlgoListener> algoListeners = new ArrayList<AlgoListener>();
 
+	/**
+	 * The pool used for processing tiles in parallel, or null if the
+	 * algorithm must run sequentially (the default).
+	 */
+	private ForkJoinPool executionPool = null;
+	
+	/**
+	 * The number of tiles created for each thread of the execution pool, to
+	 * balance the load between threads.
+	 */
+	private static final int TILES_PER_THREAD = 4;
+
 
 	// ===================================================================
 	// Management of listeners
@@ -34,6 +56,146 @@ public class AlgoStub implements Algo
 	}
 
 	
+	// ===================================================================
+	// Management of parallel execution
+	
+	/**
+	 * Sets up the pool used for processing tiles in parallel. Setting the pool
+	 * to null results in sequential processing.
+	 * 
+	 * @param pool
+	 *            the pool used for parallel execution, or null
+	 */
+	public void setExecutionPool(ForkJoinPool pool)
+	{
+		this.executionPool = pool;
+	}
+	
+	/**
+	 * @return the pool used for parallel execution, or null if the algorithm
+	 *         runs sequentially
+	 */
+	public ForkJoinPool getExecutionPool()
+	{
+		return this.executionPool;
+	}
+	
+	/**
+	 * Sets up the number of threads used for running this algorithm, by
+	 * creating a new execution pool if necessary.
+	 * 
+	 * @param threadCount
+	 *            the number of threads. A value of 1 (or less) results in
+	 *            sequential processing.
+	 */
+	public void setThreadCount(int threadCount)
+	{
+		this.executionPool = threadCount > 1 ? new ForkJoinPool(threadCount) : null;
+	}
+	
+	/**
+	 * @return the number of threads used for running this algorithm
+	 */
+	public int getThreadCount()
+	{
+		return this.executionPool != null ? this.executionPool.getParallelism() : 1;
+	}
+	
+	/**
+	 * Splits the range of lines [0, size) into tiles, and applies the task on
+	 * each tile. The lines usually correspond to the rows of a 2D array, or to
+	 * the slices of a 3D array.
+	 * 
+	 * If an execution pool is set up, the tiles are processed in parallel, and
+	 * a progress event is fired each time a tile is completed. Otherwise, each
+	 * line is processed as a single tile (or the whole range if the halo is
+	 * not zero), and a progress event is fired before processing each tile.
+	 * When the halo is not zero, the range is split into one tile per thread,
+	 * to limit the number of lines within the halos, that are usually
+	 * processed by several tiles.
+	 * 
+	 * The task must only write the results corresponding to the lines within
+	 * the tile, so that the result does not depend on the way the range is
+	 * split.
+	 * 
+	 * @param size
+	 *            the number of lines to process
+	 * @param halo
+	 *            the number of lines to add before and after each tile, for
+	 *            algorithms that need to read the neighborhood of the tile
+	 * @param task
+	 *            the processing to apply on each tile
+	 */
+	protected void processTiles(int size, int halo, Consumer<Tile> task)
+	{
+		processTiles(size, halo, true, task);
+	}
+	
+	/**
+	 * Splits the range of lines [0, size) into tiles, and applies the task on
+	 * each tile, in parallel only if the <code>parallel</code> flag is set.
+	 * The flag allows to process sequentially the data structures that can
+	 * not be modified by several threads, even at different positions.
+	 * 
+	 * @see #processTiles(int, int, Consumer)
+	 * 
+	 * @param size
+	 *            the number of lines to process
+	 * @param halo
+	 *            the number of lines to add before and after each tile, for
+	 *            algorithms that need to read the neighborhood of the tile
+	 * @param parallel
+	 *            if false, the tiles are processed sequentially, even if an
+	 *            execution pool is set up
+	 * @param task
+	 *            the processing to apply on each tile
+	 */
+	protected void processTiles(int size, int halo, boolean parallel, Consumer<Tile> task)
+	{
+		ForkJoinPool pool = this.executionPool;
+		if (!parallel || pool == null || pool.getParallelism() < 2 || size < 2)
+		{
+			if (halo > 0)
+			{
+				this.fireProgressChanged(this, 0, size);
+				task.accept(new Tile(0, size, 0, size));
+				return;
+			}
+			
+			for (int i = 0; i < size; i++)
+			{
+				this.fireProgressChanged(this, i, size);
+				task.accept(new Tile(i, i + 1, i, i + 1));
+			}
+			return;
+		}
+		
+		// submit the processing of each tile to the pool
+		int tileCount = pool.getParallelism() * (halo > 0 ? 1 : TILES_PER_THREAD);
+		List<Tile> tiles = Tile.split(size, tileCount, halo);
+		int[] done = new int[] {0};
+		ArrayList<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(tiles.size());
+		for (Tile tile : tiles)
+		{
+			tasks.add(pool.submit(() -> 
+			{
+				task.accept(tile);
+				synchronized (done)
+				{
+					done[0] += tile.length();
+					this.fireProgressChanged(this, done[0], size);
+				}
+			}));
+		}
+		
+		// wait for completion (propagates exceptions thrown by tasks)
+		for (ForkJoinTask<?> t : tasks)
+		{
+			t.join();
+		}
+	}
+	
+	
 	// ===================================================================
 	// fire events
 	
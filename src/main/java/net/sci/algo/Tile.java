@@ -0,0 +1,138 @@
+/**
+ *
+ */
+package net.sci.algo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A contiguous range of lines (rows of a 2D array, or slices of a 3D array)
+ * processed as a single unit of work by an algorithm.
+ *
+ * The tile covers the lines from <code>start</code> (inclusive) to
+ * <code>end</code> (exclusive). The halo range extends the tile on each side
+ * by a margin, clamped to the bounds of the array, and indicates the lines
+ * that may be read for computing the results within the tile. Algorithms that
+ * read from an immutable source array and write into a distinct target array
+ * can simply ignore the halo.
+ *
+ * @see AlgoStub#processTiles(int, int, java.util.function.Consumer)
+ *
+ * @author dlegland
+ */
+public final class Tile
+{
+    // ===================================================================
+    // Static factories
+
+    /**
+     * Splits the range [0, size) into a list of contiguous tiles with similar
+     * lengths.
+     *
+     * @param size
+     *            the number of lines to split
+     * @param count
+     *            the number of tiles to create. Can not be greater than the
+     *            number of lines.
+     * @param halo
+     *            the margin to add before and after each tile
+     * @return the list of tiles covering the range
+     */
+    public static final List<Tile> split(int size, int count, int halo)
+    {
+        count = Math.max(Math.min(count, size), 1);
+        ArrayList<Tile> tiles = new ArrayList<Tile>(count);
+        for (int i = 0; i < count; i++)
+        {
+            int start = (int) (((long) size) * i / count);
+            int end = (int) (((long) size) * (i + 1) / count);
+            tiles.add(new Tile(start, end, Math.max(start - halo, 0), Math.min(end + halo, size)));
+        }
+        return tiles;
+    }
+
+
+    // ===================================================================
+    // Class variables
+
+    /** The index of the first line within the tile. */
+    private final int start;
+
+    /** The index of the line after the last line within the tile. */
+    private final int end;
+
+    /** The index of the first line within the halo. */
+    private final int haloStart;
+
+    /** The index of the line after the last line within the halo. */
+    private final int haloEnd;
+
+
+    // ===================================================================
+    // Constructor
+
+    /**
+     * Creates a new tile.
+     *
+     * @param start
+     *            the index of the first line within the tile
+     * @param end
+     *            the index of the line after the last line within the tile
+     * @param haloStart
+     *            the index of the first line within the halo
+     * @param haloEnd
+     *            the index of the line after the last line within the halo
+     */
+    public Tile(int start, int end, int haloStart, int haloEnd)
+    {
+        this.start = start;
+        this.end = end;
+        this.haloStart = haloStart;
+        this.haloEnd = haloEnd;
+    }
+
+
+    // ===================================================================
+    // Accessors
+
+    /**
+     * @return the index of the first line within the tile
+     */
+    public int start()
+    {
+        return start;
+    }
+
+    /**
+     * @return the index of the line after the last line within the tile
+     */
+    public int end()
+    {
+        return end;
+    }
+
+    /**
+     * @return the index of the first line within the halo
+     */
+    public int haloStart()
+    {
+        return haloStart;
+    }
+
+    /**
+     * @return the index of the line after the last line within the halo
+     */
+    public int haloEnd()
+    {
+        return haloEnd;
+    }
+
+    /**
+     * @return the number of lines within the tile, excluding the halo
+     */
+    public int length()
+    {
+        return end - start;
+    }
+}
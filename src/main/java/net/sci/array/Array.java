@@ -146,9 +146,11 @@ public interface Array<T> extends Iterable<T>, Dimensional
     public default Array<T> duplicate()
     {
         Array<T> dup = newInstance(size());
-        for (int[] pos : positions())
+        Cursor cursor = cursor();
+        while (cursor.hasNext())
         {
-            dup.set(pos, get(pos));
+            cursor.forward();
+            dup.set(cursor, get(cursor));
         }
         return dup;
     }
@@ -203,9 +205,11 @@ public interface Array<T> extends Iterable<T>, Dimensional
      */
     public default void fill(Function<int[], T> fun)
     {
-        for (int[] pos : this.positions())
+        Cursor cursor = cursor();
+        while (cursor.hasNext())
         {
-            this.set(pos, fun.apply(pos));
+            cursor.forward();
+            this.set(cursor, fun.apply(cursor.position()));
         }
     }
 
@@ -233,6 +237,42 @@ public interface Array<T> extends Iterable<T>, Dimensional
      */
     public void set(int[] pos, T value);
     
+    /**
+     * Returns the array element at the position of the specified cursor. The
+     * cursor must have been created from an array with the same size.
+     * 
+     * Default implementation uses the coordinates of the cursor. Array
+     * implementations based on a buffer may override this method to directly
+     * use the linear index of the cursor.
+     * 
+     * @see #cursor()
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @return the element at the position of the cursor
+     */
+    public default T get(Cursor cursor)
+    {
+        return get(cursor.position());
+    }
+    
+    /**
+     * Sets the value at the position of the specified cursor (optional
+     * operation). The cursor must have been created from an array with the
+     * same size.
+     * 
+     * @see #cursor()
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @param value
+     *            the new value for the position of the cursor
+     */
+    public default void set(Cursor cursor, T value)
+    {
+        set(cursor.position(), value);
+    }
+    
     /**
      * A utility method indicating whether the array can be modified or not. If
      * the array is not modifiable, it is expected that {@code set(...)} method
@@ -335,6 +375,29 @@ public interface Array<T> extends Iterable<T>, Dimensional
         };
     }
     
+    /**
+     * Returns a cursor for iterating over the positions of this array without
+     * allocating a new array of coordinates for each position.
+     * 
+     * <pre>{@code
+     * Cursor cursor = array.cursor();
+     * while (cursor.hasNext())
+     * {
+     *     cursor.forward();
+     *     doProcessing(array.get(cursor));
+     * }
+     * }</pre>
+     * 
+     * @see #positions()
+     * @see #get(Cursor)
+     * 
+     * @return a new cursor over the positions of this array.
+     */
+    public default Cursor cursor()
+    {
+        return Cursor.of(this);
+    }
+    
     /**
      * Checks whether the specified position is inside the bounds of this array.
      * The number of elements of the position must match that of the array, and
@@ -3,6 +3,7 @@
  */
 package net.sci.array;
 
+import net.sci.array.binary.BinaryArray;
 import net.sci.array.impl.GenericArray;
 
 /**
@@ -76,6 +77,24 @@ public class Arrays
         return array1.dimensionality() == array2.dimensionality();
     }
     
+    /**
+     * Checks whether distinct elements of the specified array can be modified
+     * by several threads at the same time. This is not the case for binary
+     * arrays, whose implementations may pack several elements within the same
+     * memory word, or use run-length encoding. Algorithms that process arrays
+     * by tiles in parallel should process them sequentially when this method
+     * returns false for the output array.
+     * 
+     * @param array
+     *            the array to check
+     * @return true if distinct elements of the array can be modified
+     *         concurrently
+     */
+    public static boolean supportsConcurrentWrites(Array<?> array)
+    {
+        return !(array instanceof BinaryArray);
+    }
+    
     /**
      * Copy the contents of the source array into the target array, with an
      * optional offset. Both array must have same dimensionality, but target
@@ -101,14 +120,16 @@ public class Arrays
         int[] pos2 = new int[nd2];
         System.arraycopy(offset, 0, pos2, 0, nd);
         
-        for (int[] pos : source.positions())
+        Cursor cursor = source.cursor();
+        while (cursor.hasNext())
         {
+            cursor.forward();
             // update the first nd positions
             for (int d = 0; d  < nd; d++)
             {
-                pos2[d] = pos[d] + offset[d];
+                pos2[d] = cursor.get(d) + offset[d];
             }
-            target.set(pos2, source.get(pos));
+            target.set(pos2, source.get(cursor));
         }
     }
     
@@ -0,0 +1,113 @@
+/**
+ * 
+ */
+package net.sci.array;
+
+import net.sci.array.impl.DefaultCursor;
+
+/**
+ * A mutable cursor over the element positions within a multi-dimensional
+ * array. Contrary to the <code>PositionIterator</code>, the cursor does not
+ * allocate a new array of coordinates for each element: both the linear index
+ * and the coordinates are updated in place when the cursor moves forward.
+ *
+ * Positions are visited in the same order as within <code>positions()</code>,
+ * with the first dimension varying the fastest. The linear index therefore
+ * corresponds to the index of the element within the buffer of the "Buffered"
+ * array implementations, that can access their data directly from the index.
+ *
+ * Typical use:
+ * {@snippet lang="java" :
+ * Cursor cursor = array.cursor();
+ * while (cursor.hasNext())
+ * {
+ *     cursor.forward();
+ *     res.setValue(cursor, array.getValue(cursor) * 2);
+ * }
+ * }
+ *
+ * A cursor can be used for accessing the elements of any array with the same
+ * size as the array used for creating the cursor.
+ *
+ * @see Array#cursor()
+ * @see PositionIterator
+ *
+ * @author dlegland
+ */
+public interface Cursor
+{
+    /**
+     * Creates a default cursor for iterating over the positions of the
+     * specified array.
+     *
+     * @param array
+     *            a multi-dimensional array
+     * @return a cursor over the positions within the specified array
+     */
+    public static Cursor of(Array<?> array)
+    {
+        return new DefaultCursor(array.size());
+    }
+
+    /**
+     * Checks whether the cursor can be moved to another position.
+     *
+     * @return true if the cursor is not located at the last position of the
+     *         array
+     */
+    public boolean hasNext();
+
+    /**
+     * Moves this cursor to the next position, by updating the linear index and
+     * the coordinates.
+     */
+    public void forward();
+
+    /**
+     * Moves this cursor before the first position, such that the next call to
+     * <code>forward()</code> will move to the first element of the array.
+     */
+    public void reset();
+
+    /**
+     * Returns the linear index of the current position, computed by
+     * considering that the first dimension varies the fastest.
+     *
+     * @return the linear index of the current position
+     */
+    public long index();
+
+    /**
+     * Returns a specific coordinate from the current position.
+     *
+     * @param dim
+     *            the dimension, between 0 and dimensionality - 1
+     * @return the specified coordinate
+     */
+    public int get(int dim);
+
+    /**
+     * Returns the current position in a pre-allocated array.
+     *
+     * @param pos
+     *            the pre-allocated array for storing current position
+     * @return the current position
+     */
+    public int[] get(int[] pos);
+
+    /**
+     * Returns the array of coordinates of the current position. The returned
+     * array is shared by the cursor and updated each time the cursor moves,
+     * hence it must not be modified nor stored by the caller.
+     *
+     * @return the (shared) array of coordinates of the current position.
+     */
+    public int[] position();
+
+    /**
+     * Returns the dimensionality of the positions visited by this cursor.
+     *
+     * @return the number of coordinates of each position
+     */
+    public int dimensionality();
+}
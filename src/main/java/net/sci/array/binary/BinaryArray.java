@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import net.sci.array.Array;
+import net.sci.array.Cursor;
 import net.sci.array.Arrays;
 import net.sci.array.PositionIterator;
 import net.sci.array.binary.process.BinaryMask;
@@ -332,6 +333,31 @@ public interface BinaryArray extends IntArray<Binary>
     
     public void setBoolean(int[] pos, boolean state);
     
+    /**
+     * Returns the boolean value at the position of the specified cursor.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @return the boolean value at the position of the cursor
+     */
+    public default boolean getBoolean(Cursor cursor)
+    {
+        return getBoolean(cursor.position());
+    }
+    
+    /**
+     * Updates the boolean value at the position of the specified cursor.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @param state
+     *            the new boolean value at the position of the cursor
+     */
+    public default void setBoolean(Cursor cursor, boolean state)
+    {
+        setBoolean(cursor.position(), state);
+    }
+    
     public default long trueElementCount()
     {
         long count = 0;
@@ -413,6 +439,18 @@ public interface BinaryArray extends IntArray<Binary>
     {
         setBoolean(pos, value > 0);
     }
+
+    @Override
+    public default int getInt(Cursor cursor)
+    {
+        return getBoolean(cursor) ? 1 : 0;
+    }
+
+    @Override
+    public default void setInt(Cursor cursor, int value)
+    {
+        setBoolean(cursor, value > 0);
+    }
     
     
     // =============================================================
@@ -445,6 +483,18 @@ public interface BinaryArray extends IntArray<Binary>
     {
         setBoolean(pos, value > 0);
     }
+
+    @Override
+    public default double getValue(Cursor cursor)
+    {
+        return getBoolean(cursor) ? 1 : 0;
+    }
+
+    @Override
+    public default void setValue(Cursor cursor, double value)
+    {
+        setBoolean(cursor, value > 0);
+    }
     
     @Override
     public default Binary typeMin()
@@ -497,6 +547,18 @@ public interface BinaryArray extends IntArray<Binary>
     {
         setBoolean(pos, value.getBoolean());
     }
+
+    @Override
+    public default Binary get(Cursor cursor)
+    {
+        return new Binary(getBoolean(cursor));
+    }
+
+    @Override
+    public default void set(Cursor cursor, Binary value)
+    {
+        setBoolean(cursor, value.getBoolean());
+    }
     
     @Override
     public default BinaryArray duplicate()
@@ -3,6 +3,8 @@
  */
 package net.sci.array.binary;
 
+import net.sci.array.Cursor;
+
 /**
  * Implementation of BinaryArray1D that stores inner data in a linear array of
  * booleans.
@@ -108,6 +110,18 @@ public class BufferedBinaryArray1D extends BinaryArray1D
     {
         buffer[x] = state;
     }
+
+    @Override
+    public boolean getBoolean(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setBoolean(Cursor cursor, boolean state)
+    {
+        this.buffer[(int) cursor.index()] = state;
+    }
     
     
     // =============================================================
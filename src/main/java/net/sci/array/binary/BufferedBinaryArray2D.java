@@ -3,6 +3,8 @@
  */
 package net.sci.array.binary;
 
+import net.sci.array.Cursor;
+
 /**
  * Implementation of BinaryArray2D that stores inner data in a linear array of
  * booleans.
@@ -118,6 +120,18 @@ public class BufferedBinaryArray2D extends BinaryArray2D
         int index = x + y * this.size0;
         buffer[index] = state;
     }
+
+    @Override
+    public boolean getBoolean(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setBoolean(Cursor cursor, boolean state)
+    {
+        this.buffer[(int) cursor.index()] = state;
+    }
     
     
     // =============================================================
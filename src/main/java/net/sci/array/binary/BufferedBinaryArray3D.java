@@ -3,6 +3,7 @@
  */
 package net.sci.array.binary;
 
+import net.sci.array.Cursor;
 import net.sci.util.MathUtils;
 
 /**
@@ -143,6 +144,18 @@ public class BufferedBinaryArray3D extends BinaryArray3D
 	    this.buffer[index] = b;
 	}
 
+    @Override
+    public boolean getBoolean(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setBoolean(Cursor cursor, boolean state)
+    {
+        this.buffer[(int) cursor.index()] = state;
+    }
+
 	
     // =============================================================
     // Implementation of the BinaryArray interface
@@ -4,6 +4,7 @@
 package net.sci.array.binary;
 
 import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
 import net.sci.util.MathUtils;
 
 /**
@@ -99,6 +100,18 @@ public class BufferedBinaryArrayND extends ArrayND<Binary> implements BinaryArra
 		this.buffer[index] = value;	
 	}
 
+    @Override
+    public boolean getBoolean(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setBoolean(Cursor cursor, boolean state)
+    {
+        this.buffer[(int) cursor.index()] = state;
+    }
+
 	// =============================================================
 	// Implementation of the Array interface
 	
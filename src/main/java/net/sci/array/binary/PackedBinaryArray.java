@@ -0,0 +1,144 @@
+/**
+ *
+ */
+package net.sci.array.binary;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A binary array that packs its elements within a linear array of 64-bits
+ * words. The element with linear index <code>i</code> (computed by considering
+ * that the first dimension varies the fastest) is stored as the bit
+ * <code>i % 64</code> of the word <code>i / 64</code>.
+ *
+ * The bits of the last word that do not correspond to any element of the
+ * array are always set to zero. This allows to compute logical operations and
+ * element counts on 64 elements at a time.
+ *
+ * Setting the value of an element modifies the whole word containing it. As a
+ * consequence, packed arrays are not safe for concurrent writes: two threads
+ * that modify distinct elements of the same word may lose one of the
+ * modifications. Algorithms that process arrays in parallel should write into
+ * packed arrays from a single thread.
+ *
+ * @see PackedBinaryArrayFactory
+ * @see net.sci.array.Arrays#supportsConcurrentWrites(net.sci.array.Array)
+ *
+ * @author dlegland
+ */
+public interface PackedBinaryArray extends BinaryArray
+{
+    // =============================================================
+    // Static variables
+
+    /**
+     * The factory used for creating new packed binary arrays.
+     */
+    public static final Factory packedFactory = new PackedBinaryArrayFactory();
+
+
+    // =============================================================
+    // Static methods
+
+    /**
+     * Computes the number of words necessary for storing the specified number
+     * of elements.
+     *
+     * @param elementCount
+     *            the number of elements in the array
+     * @return the number of 64-bits words used for storing the elements
+     */
+    public static int wordCount(long elementCount)
+    {
+        long n = (elementCount + 63) >>> 6;
+        if (n > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalArgumentException("Total element count is larger than maximal size for packed binary arrays");
+        }
+        return (int) n;
+    }
+
+    /**
+     * Computes the mask of the bits used within the last word of an array with
+     * the specified number of elements.
+     *
+     * @param elementCount
+     *            the number of elements in the array
+     * @return the mask of the bits used within the last word
+     */
+    public static long lastWordMask(long elementCount)
+    {
+        int r = (int) (elementCount & 63);
+        return r == 0 ? -1L : (1L << r) - 1;
+    }
+
+
+    // =============================================================
+    // New methods
+
+    /**
+     * Returns the array of words used for storing the elements of this array.
+     * The returned array is not a copy: modifying the words also modifies the
+     * array. The unused bits of the last word must be kept to zero.
+     *
+     * @return the array of words backing this array
+     */
+    public long[] words();
+
+    /**
+     * Calls the specified action for the linear index of each
+     * <code>true</code> element within this array, in increasing order. Words
+     * that do not contain any <code>true</code> element are skipped.
+     *
+     * @param action
+     *            the action to call for each index of <code>true</code>
+     *            element
+     */
+    public default void forEachTrueElementIndex(LongConsumer action)
+    {
+        long[] words = words();
+        for (int i = 0; i < words.length; i++)
+        {
+            long word = words[i];
+            while (word != 0)
+            {
+                action.accept((((long) i) << 6) + Long.numberOfTrailingZeros(word));
+                // clear lowest set bit
+                word &= word - 1;
+            }
+        }
+    }
+
+
+    // =============================================================
+    // Specialization of the BinaryArray interface
+
+    /**
+     * Counts the number of <code>true</code> elements by counting the bits set
+     * within each word.
+     */
+    @Override
+    public default long trueElementCount()
+    {
+        long count = 0;
+        for (long word : words())
+        {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Fills the array by setting all words to the same value.
+     */
+    @Override
+    public default void fill(boolean state)
+    {
+        long[] words = words();
+        java.util.Arrays.fill(words, state ? -1L : 0L);
+        if (state && words.length > 0)
+        {
+            words[words.length - 1] &= lastWordMask(elementCount());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ *
+ */
+package net.sci.array.binary;
+
+import net.sci.array.Cursor;
+
+/**
+ * Implementation of BinaryArray2D that packs the elements within a linear
+ * array of 64-bits words. Requires eight times less memory than the
+ * BufferedBinaryArray2D class. Elements can not be modified concurrently by
+ * several threads.
+ *
+ * @see BufferedBinaryArray2D
+ * @see PackedBinaryArray
+ *
+ * @author dlegland
+ *
+ */
+public class PackedBinaryArray2D extends BinaryArray2D implements PackedBinaryArray
+{
+    // =============================================================
+    // Static methods
+
+    /**
+     * Converts the input array into an instance of the PackedBinaryArray2D
+     * class. May return the input array if it is already an instance of
+     * PackedBinaryArray2D.
+     *
+     * @param array
+     *            the array to convert
+     * @return an instance of PackedBinaryArray2D containing the same values
+     *         as the input array.
+     */
+    public static final PackedBinaryArray2D convert(BinaryArray2D array)
+    {
+        // if array is of correct class, simply use class cast
+        if (array instanceof PackedBinaryArray2D)
+        {
+            return (PackedBinaryArray2D) array;
+        }
+
+        // allocate memory
+        int sizeX = array.size(0);
+        int sizeY = array.size(1);
+        PackedBinaryArray2D res = new PackedBinaryArray2D(sizeX, sizeY);
+
+        // copy values
+        for (int y = 0; y < sizeY; y++)
+        {
+            for (int x = 0; x < sizeX; x++)
+            {
+                res.setBoolean(x, y, array.getBoolean(x, y));
+            }
+        }
+
+        // return converted array
+        return res;
+    }
+
+
+    // =============================================================
+    // Class fields
+
+    /**
+     * The array of words that stores array values.
+     */
+    long[] words;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param size0
+     *            the size of the array in the first dimension
+     * @param size1
+     *            the size of the array in the second dimension
+     */
+    public PackedBinaryArray2D(int size0, int size1)
+    {
+        super(size0, size1);
+        this.words = new long[PackedBinaryArray.wordCount(((long) size0) * size1)];
+    }
+
+    /**
+     * @param size0
+     *            the size of the array in the first dimension
+     * @param size1
+     *            the size of the array in the second dimension
+     * @param words
+     *            the array of words used for storing array data
+     */
+    public PackedBinaryArray2D(int size0, int size1, long[] words)
+    {
+        super(size0, size1);
+        if (words.length != PackedBinaryArray.wordCount(((long) size0) * size1))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.words = words;
+    }
+
+
+    // =============================================================
+    // Implementation of the PackedBinaryArray interface
+
+    @Override
+    public long[] words()
+    {
+        return this.words;
+    }
+
+
+    // =============================================================
+    // Implementation of the BinaryArray2D interface
+
+    @Override
+    public boolean getBoolean(int x, int y)
+    {
+        long index = x + ((long) y) * this.size0;
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setBoolean(int x, int y, boolean state)
+    {
+        long index = x + ((long) y) * this.size0;
+        if (state)
+        {
+            words[(int) (index >>> 6)] |= (1L << index);
+        }
+        else
+        {
+            words[(int) (index >>> 6)] &= ~(1L << index);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Cursor cursor)
+    {
+        long index = cursor.index();
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setBoolean(Cursor cursor, boolean state)
+    {
+        long index = cursor.index();
+        if (state)
+        {
+            words[(int) (index >>> 6)] |= (1L << index);
+        }
+        else
+        {
+            words[(int) (index >>> 6)] &= ~(1L << index);
+        }
+    }
+
+
+    // =============================================================
+    // Specialization of the BinaryArray interface
+
+    /**
+     * Computes the complement by inverting each word.
+     */
+    @Override
+    public PackedBinaryArray2D complement()
+    {
+        int n = this.words.length;
+        long[] words2 = new long[n];
+        for (int i = 0; i < n; i++)
+        {
+            words2[i] = ~this.words[i];
+        }
+        if (n > 0)
+        {
+            words2[n - 1] &= PackedBinaryArray.lastWordMask(elementCount());
+        }
+        return new PackedBinaryArray2D(this.size0, this.size1, words2);
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public BinaryArray newInstance(int... dims)
+    {
+        return PackedBinaryArray.packedFactory.create(dims);
+    }
+
+    @Override
+    public BinaryArray.Factory factory()
+    {
+        return PackedBinaryArray.packedFactory;
+    }
+
+    @Override
+    public PackedBinaryArray2D duplicate()
+    {
+        return new PackedBinaryArray2D(this.size0, this.size1, this.words.clone());
+    }
+
+    @Override
+    public BinaryArray.Iterator iterator()
+    {
+        return new BooleanIterator();
+    }
+
+    private class BooleanIterator implements BinaryArray.Iterator
+    {
+        long index = -1;
+        long indexMax = ((long) size0) * size1 - 1;
+
+        public BooleanIterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public Binary next()
+        {
+            this.index++;
+            return new Binary(getBoolean());
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public boolean getBoolean()
+        {
+            return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+        }
+
+        @Override
+        public void setBoolean(boolean b)
+        {
+            if (b)
+            {
+                words[(int) (index >>> 6)] |= (1L << index);
+            }
+            else
+            {
+                words[(int) (index >>> 6)] &= ~(1L << index);
+            }
+        }
+    }
+}
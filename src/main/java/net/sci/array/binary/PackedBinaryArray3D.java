@@ -0,0 +1,267 @@
+/**
+ *
+ */
+package net.sci.array.binary;
+
+import net.sci.array.Cursor;
+
+/**
+ * Implementation of BinaryArray3D that packs the elements within a linear
+ * array of 64-bits words. Requires eight times less memory than the
+ * BufferedBinaryArray3D class. As the number of elements is not limited by the
+ * maximum size of java arrays, large 3D arrays can be stored without using
+ * slices. Elements can not be modified concurrently by several threads.
+ *
+ * @see BufferedBinaryArray3D
+ * @see PackedBinaryArray
+ *
+ * @author dlegland
+ *
+ */
+public class PackedBinaryArray3D extends BinaryArray3D implements PackedBinaryArray
+{
+    // =============================================================
+    // Static methods
+
+    /**
+     * Converts the input array into an instance of the PackedBinaryArray3D
+     * class. May return the input array if it is already an instance of
+     * PackedBinaryArray3D.
+     *
+     * @param array
+     *            the array to convert
+     * @return an instance of PackedBinaryArray3D containing the same values
+     *         as the input array.
+     */
+    public static final PackedBinaryArray3D convert(BinaryArray3D array)
+    {
+        // if array is of correct class, simply use class cast
+        if (array instanceof PackedBinaryArray3D)
+        {
+            return (PackedBinaryArray3D) array;
+        }
+
+        // allocate memory
+        int sizeX = array.size(0);
+        int sizeY = array.size(1);
+        int sizeZ = array.size(2);
+        PackedBinaryArray3D res = new PackedBinaryArray3D(sizeX, sizeY, sizeZ);
+
+        // copy values
+        for (int z = 0; z < sizeZ; z++)
+        {
+            for (int y = 0; y < sizeY; y++)
+            {
+                for (int x = 0; x < sizeX; x++)
+                {
+                    res.setBoolean(x, y, z, array.getBoolean(x, y, z));
+                }
+            }
+        }
+
+        // return converted array
+        return res;
+    }
+
+
+    // =============================================================
+    // Class fields
+
+    /**
+     * The array of words that stores array values.
+     */
+    long[] words;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param size0
+     *            the size of the array in the first dimension
+     * @param size1
+     *            the size of the array in the second dimension
+     * @param size2
+     *            the size of the array in the third dimension
+     */
+    public PackedBinaryArray3D(int size0, int size1, int size2)
+    {
+        super(size0, size1, size2);
+        this.words = new long[PackedBinaryArray.wordCount(((long) size0) * size1 * size2)];
+    }
+
+    /**
+     * @param size0
+     *            the size of the array in the first dimension
+     * @param size1
+     *            the size of the array in the second dimension
+     * @param size2
+     *            the size of the array in the third dimension
+     * @param words
+     *            the array of words used for storing array data
+     */
+    public PackedBinaryArray3D(int size0, int size1, int size2, long[] words)
+    {
+        super(size0, size1, size2);
+        if (words.length != PackedBinaryArray.wordCount(((long) size0) * size1 * size2))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.words = words;
+    }
+
+
+    // =============================================================
+    // Implementation of the PackedBinaryArray interface
+
+    @Override
+    public long[] words()
+    {
+        return this.words;
+    }
+
+
+    // =============================================================
+    // Implementation of the BinaryArray3D interface
+
+    @Override
+    public boolean getBoolean(int x, int y, int z)
+    {
+        long index = x + this.size0 * (y + ((long) z) * this.size1);
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setBoolean(int x, int y, int z, boolean state)
+    {
+        long index = x + this.size0 * (y + ((long) z) * this.size1);
+        if (state)
+        {
+            words[(int) (index >>> 6)] |= (1L << index);
+        }
+        else
+        {
+            words[(int) (index >>> 6)] &= ~(1L << index);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Cursor cursor)
+    {
+        long index = cursor.index();
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setBoolean(Cursor cursor, boolean state)
+    {
+        long index = cursor.index();
+        if (state)
+        {
+            words[(int) (index >>> 6)] |= (1L << index);
+        }
+        else
+        {
+            words[(int) (index >>> 6)] &= ~(1L << index);
+        }
+    }
+
+
+    // =============================================================
+    // Specialization of the BinaryArray interface
+
+    /**
+     * Computes the complement by inverting each word.
+     */
+    @Override
+    public PackedBinaryArray3D complement()
+    {
+        int n = this.words.length;
+        long[] words2 = new long[n];
+        for (int i = 0; i < n; i++)
+        {
+            words2[i] = ~this.words[i];
+        }
+        if (n > 0)
+        {
+            words2[n - 1] &= PackedBinaryArray.lastWordMask(elementCount());
+        }
+        return new PackedBinaryArray3D(this.size0, this.size1, this.size2, words2);
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public BinaryArray newInstance(int... dims)
+    {
+        return PackedBinaryArray.packedFactory.create(dims);
+    }
+
+    @Override
+    public BinaryArray.Factory factory()
+    {
+        return PackedBinaryArray.packedFactory;
+    }
+
+    @Override
+    public PackedBinaryArray3D duplicate()
+    {
+        return new PackedBinaryArray3D(this.size0, this.size1, this.size2, this.words.clone());
+    }
+
+    @Override
+    public BinaryArray.Iterator iterator()
+    {
+        return new BooleanIterator();
+    }
+
+    private class BooleanIterator implements BinaryArray.Iterator
+    {
+        long index = -1;
+        long indexMax = ((long) size0) * size1 * size2 - 1;
+
+        public BooleanIterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public Binary next()
+        {
+            this.index++;
+            return new Binary(getBoolean());
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public boolean getBoolean()
+        {
+            return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+        }
+
+        @Override
+        public void setBoolean(boolean b)
+        {
+            if (b)
+            {
+                words[(int) (index >>> 6)] |= (1L << index);
+            }
+            else
+            {
+                words[(int) (index >>> 6)] &= ~(1L << index);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ *
+ */
+package net.sci.array.binary;
+
+import net.sci.algo.AlgoStub;
+
+/**
+ * A factory for binary arrays that packs the elements of 2D, 3D and
+ * multi-dimensional arrays within arrays of 64-bits words. The required memory
+ * is proportional to the number of elements within the array, but eight times
+ * smaller than for dense arrays.
+ *
+ * One-dimensional arrays are created as instances of BufferedBinaryArray1D.
+ *
+ * @see PackedBinaryArray
+ * @see DenseBinaryArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class PackedBinaryArrayFactory extends AlgoStub implements BinaryArray.Factory
+{
+    @Override
+    public BinaryArray create(int... dims)
+    {
+        return switch (dims.length)
+        {
+            case 1 -> new BufferedBinaryArray1D(dims[0]);
+            case 2 -> new PackedBinaryArray2D(dims[0], dims[1]);
+            case 3 -> create3d(dims[0], dims[1], dims[2]);
+            default -> new PackedBinaryArrayND(dims);
+        };
+    }
+
+    private BinaryArray3D create3d(int dim0, int dim1, int dim2)
+    {
+        fireStatusChanged(this, "Allocating memory");
+        return new PackedBinaryArray3D(dim0, dim1, dim2);
+    }
+
+    @Override
+    public BinaryArray create(int[] dims, Binary value)
+    {
+        BinaryArray array = create(dims);
+        array.fill(value.getBoolean());
+        return array;
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ *
+ */
+package net.sci.array.binary;
+
+import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of multi-dimensional binary array that packs the elements
+ * within a linear array of 64-bits words. Elements can not be modified
+ * concurrently by several threads.
+ *
+ * @see BufferedBinaryArrayND
+ * @see PackedBinaryArray
+ *
+ * @author dlegland
+ *
+ */
+public class PackedBinaryArrayND extends ArrayND<Binary> implements PackedBinaryArray
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The array of words that stores array values.
+     */
+    long[] words;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     */
+    public PackedBinaryArrayND(int[] sizes)
+    {
+        super(sizes);
+        this.words = new long[PackedBinaryArray.wordCount(MathUtils.prod(sizes))];
+    }
+
+    /**
+     * Initialize a new multidimensional array, using the specified array of
+     * words.
+     *
+     * @param sizes
+     *            the dimensions of the array
+     * @param words
+     *            the array of words used for storing array data
+     */
+    public PackedBinaryArrayND(int[] sizes, long[] words)
+    {
+        super(sizes);
+        if (words.length != PackedBinaryArray.wordCount(MathUtils.prod(sizes)))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.words = words;
+    }
+
+
+    // =============================================================
+    // Private methods
+
+    private long linearIndex(int[] pos)
+    {
+        long index = 0;
+        long offset = 1;
+        for (int d = 0; d < pos.length; d++)
+        {
+            index += pos[d] * offset;
+            offset *= this.sizes[d];
+        }
+        return index;
+    }
+
+
+    // =============================================================
+    // Implementation of the PackedBinaryArray interface
+
+    @Override
+    public long[] words()
+    {
+        return this.words;
+    }
+
+
+    // =============================================================
+    // Implementation of the BinaryArray interface
+
+    @Override
+    public boolean getBoolean(int[] pos)
+    {
+        long index = linearIndex(pos);
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setBoolean(int[] pos, boolean state)
+    {
+        long index = linearIndex(pos);
+        if (state)
+        {
+            words[(int) (index >>> 6)] |= (1L << index);
+        }
+        else
+        {
+            words[(int) (index >>> 6)] &= ~(1L << index);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Cursor cursor)
+    {
+        long index = cursor.index();
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setBoolean(Cursor cursor, boolean state)
+    {
+        long index = cursor.index();
+        if (state)
+        {
+            words[(int) (index >>> 6)] |= (1L << index);
+        }
+        else
+        {
+            words[(int) (index >>> 6)] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Computes the complement by inverting each word.
+     */
+    @Override
+    public PackedBinaryArrayND complement()
+    {
+        int n = this.words.length;
+        long[] words2 = new long[n];
+        for (int i = 0; i < n; i++)
+        {
+            words2[i] = ~this.words[i];
+        }
+        if (n > 0)
+        {
+            words2[n - 1] &= PackedBinaryArray.lastWordMask(elementCount());
+        }
+        return new PackedBinaryArrayND(this.sizes, words2);
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public BinaryArray newInstance(int... dims)
+    {
+        return PackedBinaryArray.packedFactory.create(dims);
+    }
+
+    @Override
+    public BinaryArray.Factory factory()
+    {
+        return PackedBinaryArray.packedFactory;
+    }
+
+    @Override
+    public PackedBinaryArrayND duplicate()
+    {
+        return new PackedBinaryArrayND(this.sizes, this.words.clone());
+    }
+
+    @Override
+    public Binary get(int[] pos)
+    {
+        return new Binary(getBoolean(pos));
+    }
+
+    @Override
+    public void set(int[] pos, Binary value)
+    {
+        setBoolean(pos, value.getBoolean());
+    }
+
+    @Override
+    public BinaryArray.Iterator iterator()
+    {
+        return new BooleanIterator();
+    }
+
+    private class BooleanIterator implements BinaryArray.Iterator
+    {
+        long index = -1;
+        long indexMax = MathUtils.prod(sizes) - 1;
+
+        public BooleanIterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public Binary next()
+        {
+            this.index++;
+            return new Binary(getBoolean());
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public boolean getBoolean()
+        {
+            return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+        }
+
+        @Override
+        public void setBoolean(boolean b)
+        {
+            if (b)
+            {
+                words[(int) (index >>> 6)] |= (1L << index);
+            }
+            else
+            {
+                words[(int) (index >>> 6)] &= ~(1L << index);
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
 import net.sci.array.Arrays;
 import net.sci.array.binary.BinaryArray;
+import net.sci.array.binary.PackedBinaryArray;
 import net.sci.array.impl.ArrayWrapperStub;
 
 /**
@@ -31,6 +32,12 @@ public class BinaryMask extends AlgoStub
             throw new IllegalArgumentException("Both arrays must have same size");
         }
         
+        // for packed masks, iterate only over the true elements
+        if (mask instanceof PackedBinaryArray)
+        {
+            return processPacked(array, (PackedBinaryArray) mask);
+        }
+        
         // dispatch according to array dimensionality
         if (array.dimensionality() == 2)
         {
@@ -124,6 +131,30 @@ public class BinaryMask extends AlgoStub
         return res;
     }
     
+    private <T> Array<T> processPacked(Array<T> array, PackedBinaryArray mask)
+    {
+        // allocate result array
+        int[] dims = array.size();
+        Array<T> res = array.newInstance(dims);
+        
+        // iterate over the indices of true elements, skipping empty words
+        int nd = dims.length;
+        int[] pos = new int[nd];
+        mask.forEachTrueElementIndex(index -> 
+        {
+            // convert linear index to position
+            for (int d = 0; d < nd; d++)
+            {
+                pos[d] = (int) (index % dims[d]);
+                index /= dims[d];
+            }
+            res.set(pos, array.get(pos));
+        });
+        
+        // return result array
+        return res;
+    }
+    
     static class View<T> extends ArrayWrapperStub<T>
     {
         /**
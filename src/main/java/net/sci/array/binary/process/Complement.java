@@ -8,6 +8,7 @@ import net.sci.array.binary.BinaryArray;
 import net.sci.array.binary.BinaryArray2D;
 import net.sci.array.binary.BinaryArray3D;
 import net.sci.array.binary.BinaryRow;
+import net.sci.array.binary.PackedBinaryArray;
 import net.sci.array.binary.Run;
 import net.sci.array.binary.RunLengthBinaryArray2D;
 import net.sci.array.binary.RunLengthBinaryArray3D;
@@ -28,6 +29,12 @@ public class Complement extends AlgoStub
     
     public BinaryArray process(BinaryArray array)
     {
+        // packed arrays can invert 64 elements at a time
+        if (array instanceof PackedBinaryArray)
+        {
+            return array.complement();
+        }
+        
         // Dispatch to specialized methods depending on array dimensionality
         return switch (array.dimensionality())
         {
@@ -13,6 +13,7 @@ import net.sci.array.binary.BinaryArray;
 import net.sci.array.binary.BinaryArray2D;
 import net.sci.array.binary.BinaryArray3D;
 import net.sci.array.binary.BinaryRow;
+import net.sci.array.binary.PackedBinaryArray;
 import net.sci.array.binary.Run;
 import net.sci.array.binary.RunLengthBinaryArray2D;
 import net.sci.array.binary.RunLengthBinaryArray3D;
@@ -201,6 +202,12 @@ public class LogicalBinaryOperator extends AlgoStub
     {
         checkSameSize(array1, array2);
         
+        if (array1 instanceof PackedBinaryArray && array2 instanceof PackedBinaryArray)
+        {
+            PackedBinaryArray res = (PackedBinaryArray) PackedBinaryArray.packedFactory.create(array1.size());
+            return processPacked((PackedBinaryArray) array1, (PackedBinaryArray) array2, res);
+        }
+        
         if (array1.dimensionality() == 2)
         {
             return process2d(BinaryArray2D.wrap(array1), BinaryArray2D.wrap(array2));
@@ -222,6 +229,11 @@ public class LogicalBinaryOperator extends AlgoStub
         checkSameSize(array1, array2);
         checkSameSize(array1, output);
         
+        if (array1 instanceof PackedBinaryArray && array2 instanceof PackedBinaryArray && output instanceof PackedBinaryArray)
+        {
+            return processPacked((PackedBinaryArray) array1, (PackedBinaryArray) array2, (PackedBinaryArray) output);
+        }
+        
         if (array1.dimensionality() == 2)
         {
             return process2d(BinaryArray2D.wrap(array1), BinaryArray2D.wrap(array2), BinaryArray2D.wrap(output));
@@ -237,6 +249,40 @@ public class LogicalBinaryOperator extends AlgoStub
         }
     }
 
+    /**
+     * Processes packed binary arrays 64 elements at a time. The function is
+     * converted into its truth table, and each word of the result is obtained
+     * by combining the words of the input arrays with the masks of the table.
+     */
+    private BinaryArray processPacked(PackedBinaryArray array1, PackedBinaryArray array2, PackedBinaryArray output)
+    {
+        // compute the truth table of the function, as words with all bits set or unset
+        long t00 = fun.apply(false, false) ? -1L : 0L;
+        long t01 = fun.apply(false, true) ? -1L : 0L;
+        long t10 = fun.apply(true, false) ? -1L : 0L;
+        long t11 = fun.apply(true, true) ? -1L : 0L;
+        
+        long[] words1 = array1.words();
+        long[] words2 = array2.words();
+        long[] res = output.words();
+        int n = res.length;
+        for (int i = 0; i < n; i++)
+        {
+            long a = words1[i];
+            long b = words2[i];
+            res[i] = (t11 & a & b) | (t10 & a & ~b) | (t01 & ~a & b) | (t00 & ~a & ~b);
+        }
+        
+        // keep unused bits of the last word set to zero
+        if (n > 0)
+        {
+            res[n - 1] &= PackedBinaryArray.lastWordMask(output.elementCount());
+        }
+        this.fireProgressChanged(this, 1, 1);
+        
+        return output;
+    }
+    
     protected BinaryArray2D process2d(BinaryArray2D array1, BinaryArray2D array2)
     {
         BinaryArray2D res = BinaryArray2D.create(array1.size(0), array1.size(1));
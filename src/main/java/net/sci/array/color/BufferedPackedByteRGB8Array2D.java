@@ -76,9 +76,9 @@ public class BufferedPackedByteRGB8Array2D extends RGB8Array2D
     @Override
     public void setIntCode(int[] pos, int intCode)
     {
-        this.buffer.setInt(pos[0], pos[1], 0, intCode & 0x00FF);
+        this.buffer.setInt(pos[0], pos[1], 0, (intCode >> 16) & 0x00FF);
         this.buffer.setInt(pos[0], pos[1], 1, (intCode >> 8) & 0x00FF);
-        this.buffer.setInt(pos[0], pos[1], 2, (intCode >> 16) & 0x00FF);
+        this.buffer.setInt(pos[0], pos[1], 2, intCode & 0x00FF);
     }
         
     
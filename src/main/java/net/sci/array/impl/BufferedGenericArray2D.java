@@ -5,6 +5,7 @@ package net.sci.array.impl;
 
 import net.sci.array.Array;
 import net.sci.array.Array2D;
+import net.sci.array.Cursor;
 
 /**
  * Concrete implementation of a 2D array containing generic data stored in a
@@ -155,6 +156,19 @@ public class BufferedGenericArray2D<T> extends GenericArray2D<T>
         this.buffer[index] = value;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(Cursor cursor)
+    {
+        return (T) this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void set(Cursor cursor, T value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
+
 
 
     // =============================================================
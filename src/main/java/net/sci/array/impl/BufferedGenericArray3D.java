@@ -8,6 +8,7 @@ import java.util.List;
 
 import net.sci.array.Array;
 import net.sci.array.Array3D;
+import net.sci.array.Cursor;
 import net.sci.util.MathUtils;
 
 /**
@@ -204,6 +205,19 @@ public class BufferedGenericArray3D<T> extends GenericArray3D<T>
         this.buffer[index] = value;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(Cursor cursor)
+    {
+        return (T) this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void set(Cursor cursor, T value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
+
 
     // =============================================================
     // Iterator class
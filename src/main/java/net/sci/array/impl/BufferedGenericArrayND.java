@@ -5,6 +5,7 @@ package net.sci.array.impl;
 
 import net.sci.array.Array;
 import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
 import net.sci.util.MathUtils;
 
 
@@ -126,6 +127,19 @@ public class BufferedGenericArrayND<T> extends ArrayND<T> implements GenericArra
         int index = subsToInd(pos);
         this.buffer[index] = value;
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(Cursor cursor)
+    {
+        return (T) this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void set(Cursor cursor, T value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
     
     @SuppressWarnings("unchecked")
     @Override
@@ -0,0 +1,125 @@
+/**
+ * 
+ */
+package net.sci.array.impl;
+
+import net.sci.array.Cursor;
+
+/**
+ * Default implementation of the Cursor interface, that keeps the linear index
+ * and the coordinates of the current position, and updates them in place.
+ *
+ * @author dlegland
+ *
+ */
+public class DefaultCursor implements Cursor
+{
+    /**
+     * The dimensions of the array
+     */
+    int[] sizes;
+
+    /**
+     * The dimensionality of the array to iterate on.
+     */
+    int nd;
+
+    /**
+     * The linear index of the last position.
+     */
+    long indexMax;
+
+    /**
+     * The linear index of the current position.
+     */
+    long index;
+
+    /**
+     * The coordinates of the current position.
+     */
+    int[] pos;
+
+    /**
+     * Main constructor.
+     *
+     * @param sizes
+     *            the dimensions of the array
+     */
+    public DefaultCursor(int[] sizes)
+    {
+        this.sizes = sizes;
+        this.nd = sizes.length;
+        this.pos = new int[this.nd];
+
+        long count = 1;
+        for (int size : sizes)
+        {
+            count *= size;
+        }
+        this.indexMax = count - 1;
+
+        reset();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return this.index < this.indexMax;
+    }
+
+    @Override
+    public void forward()
+    {
+        this.index++;
+
+        // increment first coordinate, and propagate to next dimensions if necessary
+        if (++this.pos[0] < sizes[0] || nd == 1) return;
+        for (int d = 1; d < nd; d++)
+        {
+            this.pos[d - 1] = 0;
+            if (++this.pos[d] < sizes[d]) return;
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        this.index = -1;
+        this.pos[0] = -1;
+        for (int d = 1; d < this.nd; d++)
+        {
+            this.pos[d] = 0;
+        }
+    }
+
+    @Override
+    public long index()
+    {
+        return this.index;
+    }
+
+    @Override
+    public int get(int dim)
+    {
+        return this.pos[dim];
+    }
+
+    @Override
+    public int[] get(int[] pos)
+    {
+        System.arraycopy(this.pos, 0, pos, 0, this.nd);
+        return pos;
+    }
+
+    @Override
+    public int[] position()
+    {
+        return this.pos;
+    }
+
+    @Override
+    public int dimensionality()
+    {
+        return this.nd;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import net.sci.array.Array;
+import net.sci.array.Cursor;
 import net.sci.array.PositionIterator;
 import net.sci.array.impl.ArrayWrapperStub;
 import net.sci.array.numeric.impl.BufferedFloat32Array2D;
@@ -218,6 +219,33 @@ public interface Float32Array extends ScalarArray<Float32>
      */
     public void setFloat(int[] pos, float value);
 
+    /**
+     * Retrieves the element value at the position of the specified cursor, and
+     * returns the result as a float.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @return the float value at the position of the cursor
+     */
+    public default float getFloat(Cursor cursor)
+    {
+        return getFloat(cursor.position());
+    }
+    
+    /**
+     * Updates the element value at the position of the specified cursor, using
+     * the specified float value.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @param value
+     *            the new float value at the position of the cursor
+     */
+    public default void setFloat(Cursor cursor, float value)
+    {
+        setFloat(cursor.position(), value);
+    }
+
 
     // =============================================================
     // Specialization of ScalarArray interface
@@ -234,6 +262,18 @@ public interface Float32Array extends ScalarArray<Float32>
         setFloat(pos, (float) value);
     }
 
+    @Override
+    public default double getValue(Cursor cursor)
+    {
+        return getFloat(cursor);
+    }
+
+    @Override
+    public default void setValue(Cursor cursor, double value)
+    {
+        setFloat(cursor, (float) value);
+    }
+
     @Override
     public default Float32 typeMin()
     {
@@ -292,6 +332,18 @@ public interface Float32Array extends ScalarArray<Float32>
         setFloat(pos, value.floatValue());
     }
 
+    @Override
+    public default Float32 get(Cursor cursor)
+    {
+        return new Float32(getFloat(cursor));
+    }
+
+    @Override
+    public default void set(Cursor cursor, Float32 value)
+    {
+        setFloat(cursor, value.floatValue());
+    }
+
 	@Override
 	public default Float32Array duplicate()
 	{
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import net.sci.array.Array;
+import net.sci.array.Cursor;
 import net.sci.array.PositionIterator;
 import net.sci.array.impl.ArrayWrapperStub;
 import net.sci.array.numeric.impl.BufferedFloat64Array2D;
@@ -240,6 +241,18 @@ public interface Float64Array extends ScalarArray<Float64>
         setValue(pos, value.value());
     }
 
+    @Override
+    public default Float64 get(Cursor cursor)
+    {
+        return new Float64(getValue(cursor));
+    }
+
+    @Override
+    public default void set(Cursor cursor, Float64 value)
+    {
+        setValue(cursor, value.value());
+    }
+
 	@Override
 	public default Float64Array duplicate()
 	{
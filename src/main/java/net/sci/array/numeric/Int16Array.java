@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import net.sci.array.Array;
+import net.sci.array.Cursor;
 import net.sci.array.PositionIterator;
 import net.sci.array.impl.ArrayWrapperStub;
 import net.sci.array.numeric.impl.BufferedInt16Array2D;
@@ -225,6 +226,33 @@ public interface Int16Array extends IntArray<Int16>
      *            the new short value at the specified position
      */
 	public void setShort(int[] pos, short value);
+
+    /**
+     * Retrieves the element value at the position of the specified cursor, and
+     * returns the result as a short.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @return the short value at the position of the cursor
+     */
+    public default short getShort(Cursor cursor)
+    {
+        return getShort(cursor.position());
+    }
+    
+    /**
+     * Updates the element value at the position of the specified cursor, using
+     * the specified short value.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @param value
+     *            the new short value at the position of the cursor
+     */
+    public default void setShort(Cursor cursor, short value)
+    {
+        setShort(cursor.position(), value);
+    }
 	
 	
 	// =============================================================
@@ -246,6 +274,18 @@ public interface Int16Array extends IntArray<Int16>
 		setShort(pos, (short) Math.min(Math.max(value, Int16.MIN_INT), Int16.MAX_INT));
 	}
 
+    @Override
+    public default int getInt(Cursor cursor)
+    {
+        return getShort(cursor);
+    }
+
+    @Override
+    public default void setInt(Cursor cursor, int value)
+    {
+        setShort(cursor, (short) Math.min(Math.max(value, Int16.MIN_INT), Int16.MAX_INT));
+    }
+
 		
     // =============================================================
     // Specialization of the ScalarArray interface
@@ -308,6 +348,18 @@ public interface Int16Array extends IntArray<Int16>
         setShort(pos, value.getShort());
     }
 
+    @Override
+    public default Int16 get(Cursor cursor)
+    {
+        return new Int16(getShort(cursor));
+    }
+
+    @Override
+    public default void set(Cursor cursor, Int16 value)
+    {
+        setShort(cursor, value.getShort());
+    }
+
 	@Override
 	public default Int16Array duplicate()
 	{
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import net.sci.array.Array;
+import net.sci.array.Cursor;
 import net.sci.array.PositionIterator;
 import net.sci.array.impl.ArrayWrapperStub;
 import net.sci.array.numeric.impl.BufferedInt32Array2D;
@@ -195,6 +196,12 @@ public interface Int32Array extends IntArray<Int32>
         setInt(pos, Int32.convert(value));
     }
 
+    @Override
+    public default void setValue(Cursor cursor, double value)
+    {
+        setInt(cursor, Int32.convert(value));
+    }
+
     @Override
     public default Int32 typeMin()
     {
@@ -253,6 +260,18 @@ public interface Int32Array extends IntArray<Int32>
         setInt(pos, value.intValue());
     }
 
+    @Override
+    public default Int32 get(Cursor cursor)
+    {
+        return new Int32(getInt(cursor));
+    }
+
+    @Override
+    public default void set(Cursor cursor, Int32 value)
+    {
+        setInt(cursor, value.intValue());
+    }
+
 	@Override
 	public default Int32Array duplicate()
 	{
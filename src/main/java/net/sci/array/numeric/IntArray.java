@@ -6,6 +6,7 @@ package net.sci.array.numeric;
 import java.util.function.Function;
 
 import net.sci.array.Array;
+import net.sci.array.Cursor;
 import net.sci.array.PositionIterator;
 import net.sci.array.impl.ArrayWrapperStub;
 
@@ -162,6 +163,31 @@ public interface IntArray<I extends Int<I>> extends ScalarArray<I>
      */
     public void setInt(int[] pos, int value);
 
+    /**
+     * Returns the value at the position of the specified cursor as an integer.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @return the integer value
+     */
+    public default int getInt(Cursor cursor)
+    {
+        return getInt(cursor.position());
+    }
+
+    /**
+     * Sets the value at the position of the specified cursor as an integer.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @param value
+     *            the new integer value
+     */
+    public default void setInt(Cursor cursor, int value)
+    {
+        setInt(cursor.position(), value);
+    }
+
     
     // =============================================================
     // Specialization of the ScalarArray interface
@@ -241,6 +267,18 @@ public interface IntArray<I extends Int<I>> extends ScalarArray<I>
         setInt(pos, (int) value);
     }
 
+    @Override
+    public default double getValue(Cursor cursor)
+    {
+        return getInt(cursor);
+    }
+
+    @Override
+    public default void setValue(Cursor cursor, double value)
+    {
+        setInt(cursor, (int) value);
+    }
+
     @Override
     public IntArray.Factory<I> factory();
 
@@ -3,13 +3,18 @@
  */
 package net.sci.array.numeric;
 
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 import net.sci.array.Array;
 import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.PositionIterator;
 import net.sci.array.impl.ArrayWrapperStub;
+import net.sci.array.numeric.impl.LazyScalarArray;
 
 /**
  * Specialization of the Array interface that contains Scalar values.
@@ -77,8 +82,10 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
     {
         double vMin = Double.POSITIVE_INFINITY;
         double vMax = Double.NEGATIVE_INFINITY;
-        for (double v : values())
+        PrimitiveIterator.OfDouble iter = valueIterator();
+        while (iter.hasNext())
         {
+            double v = iter.nextDouble();
             if (!Double.isNaN(v))
             {
                 vMin = Math.min(vMin, v);
@@ -103,8 +110,10 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
     {
         double vMin = Double.POSITIVE_INFINITY;
         double vMax = Double.NEGATIVE_INFINITY;
-        for (double v : values())
+        PrimitiveIterator.OfDouble iter = valueIterator();
+        while (iter.hasNext())
         {
+            double v = iter.nextDouble();
             if (Double.isFinite(v))
             {
                 vMin = Math.min(vMin, v);
@@ -124,8 +133,10 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
     public default double minValue()
     {
         double vMin = Double.POSITIVE_INFINITY;
-        for (double v : values())
+        PrimitiveIterator.OfDouble iter = valueIterator();
+        while (iter.hasNext())
         {
+            double v = iter.nextDouble();
             if (!Double.isNaN(v))
             {
                 vMin = Math.min(vMin, v);
@@ -144,8 +155,10 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
     public default double maxValue()
     {
         double vMax = Double.NEGATIVE_INFINITY;
-        for (double v : values())
+        PrimitiveIterator.OfDouble iter = valueIterator();
+        while (iter.hasNext())
         {
+            double v = iter.nextDouble();
             if (!Double.isNaN(v))
             {
                 vMax = Math.max(vMax, v);
@@ -183,9 +196,11 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      */
     public default void fillValues(Function<int[], Double> fun)
     {
-        for (int[] pos : this.positions())
+        Cursor cursor = cursor();
+        while (cursor.hasNext())
         {
-            this.setValue(pos, fun.apply(pos));
+            cursor.forward();
+            this.setValue(cursor, fun.apply(cursor.position()));
         }
     }
     
@@ -210,6 +225,39 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      */
     public void setValue(int[] pos, double value);
     
+    /**
+     * Gets the value at the position of the specified cursor as a numeric
+     * double. The cursor must have been created from an array with the same
+     * size.
+     * 
+     * @see net.sci.array.Array#cursor()
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @return the double value at the position of the cursor
+     */
+    public default double getValue(Cursor cursor)
+    {
+        return getValue(cursor.position());
+    }
+    
+    /**
+     * Sets the value at the position of the specified cursor as a numeric
+     * double. The cursor must have been created from an array with the same
+     * size.
+     * 
+     * @see net.sci.array.Array#cursor()
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @param value
+     *            the new value for the position of the cursor
+     */
+    public default void setValue(Cursor cursor, double value)
+    {
+        setValue(cursor.position(), value);
+    }
+    
     /**
      * Returns an <code>Iterable</code> over the (double) values within the
      * array. This allows to query information about the population of values
@@ -223,10 +271,10 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      *     }
      * }
      * 
-     * Default behavior is to wrap a position iterator, and return values
-     * according to the <code>getValue(int...)</code> method.
+     * Default behavior is to wrap the iterator returned by the
+     * <code>valueIterator()</code> method.
      * 
-     * @see #get(int...)
+     * @see #valueIterator()
      * 
      * @return an Iterable over the (double) values within the array.
      */
@@ -237,22 +285,49 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
             @Override
             public java.util.Iterator<Double> iterator()
             {
-                return new java.util.Iterator<Double>()
-                {
-                    PositionIterator iter = PositionIterator.of(ScalarArray.this);
-
-                    @Override
-                    public boolean hasNext()
-                    {
-                        return iter.hasNext();
-                    }
-
-                    @Override
-                    public Double next()
-                    {
-                        return getValue(iter.next());
-                    }
-                };
+                return valueIterator();
+            }
+        };
+    }
+    
+    /**
+     * Returns an iterator over the values within this array, that can return
+     * the values as primitive doubles without boxing them:
+     * 
+     * {@snippet :
+     *     double sum = 0.0;
+     *     PrimitiveIterator.OfDouble iter = array.valueIterator();
+     *     while (iter.hasNext())
+     *     {
+     *         sum += iter.nextDouble();
+     *     }
+     * }
+     * 
+     * Default behavior is to wrap a cursor, and return values according to
+     * the <code>getValue(Cursor)</code> method. Implementations based on a
+     * buffer may iterate directly over the elements of the buffer.
+     * 
+     * @see #values()
+     * 
+     * @return an iterator over the (double) values within the array.
+     */
+    public default PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new PrimitiveIterator.OfDouble()
+        {
+            Cursor cursor = cursor();
+            
+            @Override
+            public boolean hasNext()
+            {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public double nextDouble()
+            {
+                cursor.forward();
+                return getValue(cursor);
             }
         };
     }
@@ -270,6 +345,7 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      *            the function to apply
      * @return the result array
      * @see net.sci.array.numeric.process.ApplyFunction
+     * @see #mapValues(DoubleUnaryOperator)
      */
     public default ScalarArray<S> apply(UnaryOperator<Double> fun)
     {
@@ -290,19 +366,110 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      */
     public default ScalarArray<?> apply(UnaryOperator<Double> fun, ScalarArray<?> output)
     {
+        return mapValues(fun::apply, output);
+    }
+    
+    /**
+     * Applies the given function on primitive double values to each element
+     * of the array, and returns a new array with the same class. Contrary to
+     * the <code>apply</code> method, the values are never boxed.
+     * 
+     * {@snippet :
+     *     ScalarArray<?> res = array.mapValues(Math::sqrt);
+     * }
+     * 
+     * @param fun
+     *            the function to apply
+     * @return the result array
+     * @see net.sci.array.numeric.process.ApplyFunction
+     */
+    public default ScalarArray<S> mapValues(DoubleUnaryOperator fun)
+    {
+        ScalarArray<S> res = newInstance(size());
+        mapValues(fun, res);
+        return res;
+    }
+
+    /**
+     * Applies the given function on primitive double values to each element
+     * of the array, and returns a reference to the output array.
+     * 
+     * @param fun
+     *            the function to apply
+     * @param output
+     *            the array to put the result in
+     * @return the result array
+     */
+    public default ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
+    {
+        if (!Arrays.isSameSize(this, output))
+        {
+            throw new IllegalArgumentException("Output array must have same size as input array");
+        }
+        
+        Cursor cursor = cursor();
+        while (cursor.hasNext())
+        {
+            cursor.forward();
+            output.setValue(cursor, fun.applyAsDouble(this.getValue(cursor)));
+        }
+        return output;
+    }
+    
+    /**
+     * Applies the given binary function on primitive double values to each
+     * pair of elements from this array and the other array, and returns a
+     * reference to the output array. The three arrays must have the same
+     * size.
+     * 
+     * @param other
+     *            the array containing the second argument of the function
+     * @param fun
+     *            the function to apply
+     * @param output
+     *            the array to put the result in
+     * @return the result array
+     * @see net.sci.array.numeric.process.MathBinaryOperator
+     */
+    public default ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
+    {
+        if (!Arrays.isSameSize(this, other))
+        {
+            throw new IllegalArgumentException("Both arrays must have same size");
+        }
         if (!Arrays.isSameSize(this, output))
         {
             throw new IllegalArgumentException("Output array must have same size as input array");
         }
         
-        for (int[] pos : positions())
+        Cursor cursor = cursor();
+        while (cursor.hasNext())
         {
-            output.setValue(pos, fun.apply(this.getValue(pos)));
+            cursor.forward();
+            output.setValue(cursor, fun.applyAsDouble(this.getValue(cursor), other.getValue(cursor)));
         }
         return output;
     }
     
     
+    /**
+     * Returns a lazy view of this array. Element-wise operations applied on
+     * the view are recorded instead of being computed, and the whole chain is
+     * computed in a single pass when the result is materialized.
+     *
+     * {@snippet :
+     *     ScalarArray<?> res = array.lazy().minus(100).times(2.5).min(255).materialize();
+     * }
+     *
+     * @return a lazy view of this array
+     * @see net.sci.array.numeric.impl.LazyScalarArray
+     */
+    public default LazyScalarArray<S> lazy()
+    {
+        return LazyScalarArray.of(this);
+    }
+
+
     // =============================================================
     // Implementation of comparison with scalar
 
@@ -316,9 +483,7 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      */
     public default ScalarArray<S> min(double v)
     {
-        ScalarArray<S> res = newInstance(size());
-        res.fillValues(pos -> Math.min(this.getValue(pos), v));
-        return res;
+        return mapValues(x -> Math.min(x, v));
     }
     
     /**
@@ -331,9 +496,7 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      */
     public default ScalarArray<S> max(double v)
     {
-        ScalarArray<S> res = newInstance(size());
-        res.fillValues(pos -> Math.max(this.getValue(pos), v));
-        return res;
+        return mapValues(x -> Math.max(x, v));
     }
     
 
@@ -350,9 +513,7 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      */
     public default ScalarArray<S> plus(double v)
     {
-        ScalarArray<S> res = newInstance(size());
-        res.fillValues(pos -> this.getValue(pos) + v);
-        return res;
+        return mapValues(x -> x + v);
     }
 
     /**
@@ -366,9 +527,7 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
      */
     public default ScalarArray<S> minus(double v)
     {
-        ScalarArray<S> res = newInstance(size());
-        res.fillValues(pos -> this.getValue(pos) - v);
-        return res;
+        return mapValues(x -> x - v);
     }
     
     /**
@@ -442,17 +601,13 @@ public interface ScalarArray<S extends Scalar<S>> extends NumericArray<S>
     @Override
     public default ScalarArray<S> times(double k)
     {
-        ScalarArray<S> res = newInstance(size());
-        res.fillValues(pos -> this.getValue(pos) * k);
-        return res;
+        return mapValues(x -> x * k);
     }
 
     @Override
     public default ScalarArray<S> divideBy(double k)
     {
-        ScalarArray<S> res = newInstance(size());
-        res.fillValues(pos -> this.getValue(pos) / k);
-        return res;
+        return mapValues(x -> x / k);
     }
 
     
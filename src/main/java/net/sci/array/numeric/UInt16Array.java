@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import net.sci.array.Array;
+import net.sci.array.Cursor;
 import net.sci.array.PositionIterator;
 import net.sci.array.impl.ArrayWrapperStub;
 import net.sci.array.numeric.impl.BufferedUInt16Array2D;
@@ -223,6 +224,33 @@ public interface UInt16Array extends IntArray<UInt16>
      *            the new short value at the specified position
      */
 	public void setShort(int[] pos, short value);
+
+    /**
+     * Retrieves the element value at the position of the specified cursor, and
+     * returns the result as a (signed) short.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @return the short value at the position of the cursor
+     */
+    public default short getShort(Cursor cursor)
+    {
+        return getShort(cursor.position());
+    }
+    
+    /**
+     * Updates the element value at the position of the specified cursor, using
+     * the specified (signed) short value.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @param value
+     *            the new short value at the position of the cursor
+     */
+    public default void setShort(Cursor cursor, short value)
+    {
+        setShort(cursor.position(), value);
+    }
 	
 	
 	// =============================================================
@@ -244,6 +272,18 @@ public interface UInt16Array extends IntArray<UInt16>
 		setShort(pos, (short) Math.min(Math.max(value, 0), UInt16.MAX_INT));
 	}
 
+    @Override
+    public default int getInt(Cursor cursor)
+    {
+        return getShort(cursor) & 0x00FFFF;
+    }
+
+    @Override
+    public default void setInt(Cursor cursor, int value)
+    {
+        setShort(cursor, (short) Math.min(Math.max(value, 0), UInt16.MAX_INT));
+    }
+
 	
     // =============================================================
     // Specialization of the ScalarArray interface
@@ -306,6 +346,18 @@ public interface UInt16Array extends IntArray<UInt16>
         setShort(pos, value.getShort());
     }
 
+    @Override
+    public default UInt16 get(Cursor cursor)
+    {
+        return new UInt16(getShort(cursor));
+    }
+
+    @Override
+    public default void set(Cursor cursor, UInt16 value)
+    {
+        setShort(cursor, value.getShort());
+    }
+
 
     /* (non-Javadoc)
      * @see net.sci.array.data.Array2D#getValue(int, int)
@@ -328,6 +380,18 @@ public interface UInt16Array extends IntArray<UInt16>
         setInt(pos, UInt16.convert(value));
     }
 
+    @Override
+    public default double getValue(Cursor cursor)
+    {
+        return getShort(cursor) & 0x00FFFF;
+    }
+
+    @Override
+    public default void setValue(Cursor cursor, double value)
+    {
+        setInt(cursor, UInt16.convert(value));
+    }
+
     @Override
 	public default UInt16Array duplicate()
 	{
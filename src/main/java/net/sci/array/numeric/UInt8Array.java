@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import net.sci.array.Array;
+import net.sci.array.Cursor;
 import net.sci.array.PositionIterator;
 import net.sci.array.impl.ArrayWrapperStub;
 import net.sci.array.numeric.impl.BufferedUInt8Array2D;
@@ -239,6 +240,33 @@ public interface UInt8Array extends IntArray<UInt8>
      */
     public void setByte(int[] pos, byte value);
     
+    /**
+     * Retrieves the element value at the position of the specified cursor, and
+     * returns the result as a byte.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @return the byte value at the position of the cursor
+     */
+    public default byte getByte(Cursor cursor)
+    {
+        return getByte(cursor.position());
+    }
+    
+    /**
+     * Updates the element value at the position of the specified cursor, using
+     * the specified byte value.
+     * 
+     * @param cursor
+     *            the cursor indicating the position of the element
+     * @param value
+     *            the new byte value at the position of the cursor
+     */
+    public default void setByte(Cursor cursor, byte value)
+    {
+        setByte(cursor.position(), value);
+    }
+    
     
     // =============================================================
     // Specialization of the IntArray interface
@@ -255,6 +283,18 @@ public interface UInt8Array extends IntArray<UInt8>
         setByte(pos, (byte) UInt8.clamp(value));
     }
     
+    @Override
+    public default int getInt(Cursor cursor)
+    {
+        return getByte(cursor) & 0x00FF;
+    }
+    
+    @Override
+    public default void setInt(Cursor cursor, int value)
+    {
+        setByte(cursor, (byte) UInt8.clamp(value));
+    }
+    
     
     // =============================================================
     // Specialization of the ScalarArray interface
@@ -282,6 +322,18 @@ public interface UInt8Array extends IntArray<UInt8>
         setByte(pos, (byte) UInt8.convert(value));
     }
 
+    @Override
+    public default double getValue(Cursor cursor)
+    {
+        return getByte(cursor) & 0x00FF;
+    }
+
+    @Override
+    public default void setValue(Cursor cursor, double value)
+    {
+        setByte(cursor, (byte) UInt8.convert(value));
+    }
+
     @Override
     public default UInt8 typeMin()
     {
@@ -340,6 +392,18 @@ public interface UInt8Array extends IntArray<UInt8>
         setByte(pos, value.getByte());
     }
     
+    @Override
+    public default UInt8 get(Cursor cursor)
+    {
+        return new UInt8(getByte(cursor));
+    }
+
+    @Override
+    public default void set(Cursor cursor, UInt8 value)
+    {
+        setByte(cursor, value.getByte());
+    }
+    
     @Override
     public default UInt8Array duplicate()
     {
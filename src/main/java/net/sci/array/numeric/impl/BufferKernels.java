@@ -0,0 +1,826 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import java.util.function.DoubleBinaryOperator;
+
+import net.sci.array.Array;
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.VectorArray;
+
+/**
+ * Collection of static methods that process the primitive buffers of the
+ * Buffered* array implementations directly.
+ *
+ * Values are processed by blocks: the values of the source buffers are first
+ * converted into a block of doubles, the operation is applied on the block,
+ * and the results are converted into the type of the target buffer. The
+ * conversions are the same as the ones performed by the
+ * <code>setValue()</code> methods of the arrays.
+ *
+ * The operations on blocks are performed by a Kernel. When the
+ * <code>jdk.incubator.vector</code> module is available at runtime (for
+ * example by running the JVM with the
+ * <code>--add-modules jdk.incubator.vector</code> option), a kernel based on
+ * the Vector API is loaded, that processes several values with each SIMD
+ * instruction. Otherwise, the blocks are processed by simple counted loops,
+ * that the JIT compiler may turn into SIMD instructions. Both kernels give
+ * the same results. The sums are always computed sequentially, so that their
+ * rounding does not depend on the kernel.
+ *
+ * The processing classes check that the arrays are supported using the
+ * <code>isBuffered()</code> and <code>isBufferedTarget()</code> methods, and
+ * fall back to the generic iteration over positions otherwise.
+ *
+ * @see net.sci.array.numeric.process.ArrayMath
+ * @see net.sci.array.numeric.process.ArrayStatistics
+ *
+ * @author dlegland
+ */
+public final class BufferKernels
+{
+    // =============================================================
+    // Constants
+
+    /**
+     * The number of values processed within each block.
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    // the types of buffers
+    private static final int UINT8 = 1;
+    private static final int UINT16 = 2;
+    private static final int INT16 = 3;
+    private static final int INT32 = 4;
+    private static final int FLOAT32 = 5;
+    private static final int FLOAT64 = 6;
+
+    /**
+     * The name of the class of the kernel based on the Vector API, that is
+     * compiled separately with the <code>jdk.incubator.vector</code> module.
+     */
+    private static final String VECTOR_KERNEL_CLASS_NAME = "net.sci.array.numeric.impl.VectorKernel";
+
+
+    // =============================================================
+    // Binary operations
+
+    /**
+     * The binary operations with a dedicated kernel. Operations can be used as
+     * any DoubleBinaryOperator, but are processed without calling a function
+     * for each pair of values when the arrays are backed by buffers.
+     */
+    public enum Operation implements DoubleBinaryOperator
+    {
+        /** Adds the two values. */
+        ADD
+        {
+            @Override
+            public double applyAsDouble(double a, double b)
+            {
+                return a + b;
+            }
+        },
+        /** Subtracts the second value from the first one. */
+        SUBTRACT
+        {
+            @Override
+            public double applyAsDouble(double a, double b)
+            {
+                return a - b;
+            }
+        },
+        /** Multiplies the two values. */
+        MULTIPLY
+        {
+            @Override
+            public double applyAsDouble(double a, double b)
+            {
+                return a * b;
+            }
+        },
+        /** Divides the first value by the second one. */
+        DIVIDE
+        {
+            @Override
+            public double applyAsDouble(double a, double b)
+            {
+                return a / b;
+            }
+        },
+        /** Keeps the smallest value. */
+        MIN
+        {
+            @Override
+            public double applyAsDouble(double a, double b)
+            {
+                return Math.min(a, b);
+            }
+        },
+        /** Keeps the largest value. */
+        MAX
+        {
+            @Override
+            public double applyAsDouble(double a, double b)
+            {
+                return Math.max(a, b);
+            }
+        };
+    }
+
+
+    // =============================================================
+    // Kernels
+
+    /**
+     * Applies operations on blocks of double values. The results of the
+     * element-wise operations are stored within the first block.
+     */
+    interface Kernel
+    {
+        /**
+         * Computes <code>values1[i] = op(values1[i], values2[i])</code> for
+         * the first <code>count</code> values.
+         */
+        public void combine(Operation op, double[] values1, double[] values2, int count);
+
+        /**
+         * Computes <code>values[i] = values[i] * a + b</code> for the first
+         * <code>count</code> values.
+         */
+        public void affine(double[] values, int count, double a, double b);
+
+        /**
+         * Computes <code>values[i] = values[i] / value</code> for the first
+         * <code>count</code> values.
+         */
+        public void divide(double[] values, int count, double value);
+
+        /**
+         * Restricts the first <code>count</code> values to the interval
+         * <code>[lower, upper]</code>.
+         */
+        public void clamp(double[] values, int count, double lower, double upper);
+
+        /**
+         * Returns the minimum of <code>min</code> and of the first
+         * <code>count</code> values.
+         */
+        public double min(double[] values, int count, double min);
+
+        /**
+         * Returns the maximum of <code>max</code> and of the first
+         * <code>count</code> values.
+         */
+        public double max(double[] values, int count, double max);
+    }
+
+    /**
+     * The kernel that processes blocks with simple loops, used when the Vector
+     * API is not available.
+     */
+    static final class ScalarKernel implements Kernel
+    {
+        @Override
+        public void combine(Operation op, double[] values1, double[] values2, int count)
+        {
+            switch (op)
+            {
+                case ADD -> { for (int i = 0; i < count; i++) values1[i] = values1[i] + values2[i]; }
+                case SUBTRACT -> { for (int i = 0; i < count; i++) values1[i] = values1[i] - values2[i]; }
+                case MULTIPLY -> { for (int i = 0; i < count; i++) values1[i] = values1[i] * values2[i]; }
+                case DIVIDE -> { for (int i = 0; i < count; i++) values1[i] = values1[i] / values2[i]; }
+                case MIN -> { for (int i = 0; i < count; i++) values1[i] = Math.min(values1[i], values2[i]); }
+                case MAX -> { for (int i = 0; i < count; i++) values1[i] = Math.max(values1[i], values2[i]); }
+            }
+        }
+
+        @Override
+        public void affine(double[] values, int count, double a, double b)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] = values[i] * a + b;
+            }
+        }
+
+        @Override
+        public void divide(double[] values, int count, double value)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] = values[i] / value;
+            }
+        }
+
+        @Override
+        public void clamp(double[] values, int count, double lower, double upper)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                values[i] = Math.min(Math.max(values[i], lower), upper);
+            }
+        }
+
+        @Override
+        public double min(double[] values, int count, double min)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                min = Math.min(min, values[i]);
+            }
+            return min;
+        }
+
+        @Override
+        public double max(double[] values, int count, double max)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+    }
+
+    /**
+     * The kernel based on simple loops.
+     */
+    static final Kernel scalarKernel = new ScalarKernel();
+
+    /**
+     * The kernel used by the methods of this class.
+     */
+    static Kernel kernel = loadKernel();
+
+    /**
+     * Loads the kernel based on the Vector API if the
+     * <code>jdk.incubator.vector</code> module is available, and returns the
+     * scalar kernel otherwise.
+     *
+     * @return the most efficient kernel for the current JVM
+     */
+    static final Kernel loadKernel()
+    {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+        {
+            return scalarKernel;
+        }
+        try
+        {
+            return (Kernel) Class.forName(VECTOR_KERNEL_CLASS_NAME).getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError ex)
+        {
+            // class not packaged, or not compatible with the module
+            return scalarKernel;
+        }
+    }
+
+    /**
+     * @return true if the blocks are processed using the Vector API
+     */
+    public static final boolean isVectorized()
+    {
+        return kernel != scalarKernel;
+    }
+
+
+    // =============================================================
+    // Identification of buffers
+
+    /**
+     * Checks if the specified array is backed by a primitive buffer that can
+     * be read by the methods of this class.
+     *
+     * @param array
+     *            the array to check
+     * @return true if the values of the array can be read from its buffer
+     */
+    public static final boolean isBuffered(Array<?> array)
+    {
+        return typeOf(array) != 0;
+    }
+
+    /**
+     * Checks if the specified array is backed by a primitive buffer that can
+     * be written by the methods of this class.
+     *
+     * @param array
+     *            the array to check
+     * @return true if the values of the array can be written into its buffer
+     */
+    public static final boolean isBufferedTarget(Array<?> array)
+    {
+        int type = typeOf(array);
+        return type == UINT8 || type == UINT16 || type == FLOAT32 || type == FLOAT64;
+    }
+
+    private static final int typeOf(Array<?> array)
+    {
+        if (array instanceof BufferedUInt8Array1D || array instanceof BufferedUInt8Array2D
+                || array instanceof BufferedUInt8Array3D || array instanceof BufferedUInt8ArrayND) return UINT8;
+        if (array instanceof BufferedUInt16Array1D || array instanceof BufferedUInt16Array2D
+                || array instanceof BufferedUInt16Array3D || array instanceof BufferedUInt16ArrayND) return UINT16;
+        if (array instanceof BufferedInt16Array1D || array instanceof BufferedInt16Array2D
+                || array instanceof BufferedInt16Array3D || array instanceof BufferedInt16ArrayND) return INT16;
+        if (array instanceof BufferedInt32Array1D || array instanceof BufferedInt32Array2D
+                || array instanceof BufferedInt32Array3D || array instanceof BufferedInt32ArrayND) return INT32;
+        if (array instanceof BufferedFloat32Array1D || array instanceof BufferedFloat32Array2D
+                || array instanceof BufferedFloat32Array3D || array instanceof BufferedFloat32ArrayND) return FLOAT32;
+        if (array instanceof BufferedFloat64Array1D || array instanceof BufferedFloat64Array2D
+                || array instanceof BufferedFloat64Array3D || array instanceof BufferedFloat64ArrayND) return FLOAT64;
+        return 0;
+    }
+
+    private static final Object bufferOf(Array<?> array)
+    {
+        if (array instanceof BufferedUInt8Array1D a) return a.buffer;
+        if (array instanceof BufferedUInt8Array2D a) return a.buffer;
+        if (array instanceof BufferedUInt8Array3D a) return a.buffer;
+        if (array instanceof BufferedUInt8ArrayND a) return a.buffer;
+        if (array instanceof BufferedUInt16Array1D a) return a.buffer;
+        if (array instanceof BufferedUInt16Array2D a) return a.buffer;
+        if (array instanceof BufferedUInt16Array3D a) return a.buffer;
+        if (array instanceof BufferedUInt16ArrayND a) return a.buffer;
+        if (array instanceof BufferedInt16Array1D a) return a.buffer;
+        if (array instanceof BufferedInt16Array2D a) return a.buffer;
+        if (array instanceof BufferedInt16Array3D a) return a.buffer;
+        if (array instanceof BufferedInt16ArrayND a) return a.buffer;
+        if (array instanceof BufferedInt32Array1D a) return a.buffer;
+        if (array instanceof BufferedInt32Array2D a) return a.buffer;
+        if (array instanceof BufferedInt32Array3D a) return a.buffer;
+        if (array instanceof BufferedInt32ArrayND a) return a.buffer;
+        if (array instanceof BufferedFloat32Array1D a) return a.buffer;
+        if (array instanceof BufferedFloat32Array2D a) return a.buffer;
+        if (array instanceof BufferedFloat32Array3D a) return a.buffer;
+        if (array instanceof BufferedFloat32ArrayND a) return a.buffer;
+        if (array instanceof BufferedFloat64Array1D a) return a.buffer;
+        if (array instanceof BufferedFloat64Array2D a) return a.buffer;
+        if (array instanceof BufferedFloat64Array3D a) return a.buffer;
+        if (array instanceof BufferedFloat64ArrayND a) return a.buffer;
+        throw new IllegalArgumentException("Array is not backed by a primitive buffer: " + array.getClass().getName());
+    }
+
+
+    // =============================================================
+    // Reductions
+
+    /**
+     * Computes the minimum value within a buffered array.
+     *
+     * @param array
+     *            the array to analyze
+     * @return the minimum value within the array
+     */
+    public static final double min(ScalarArray<?> array)
+    {
+        int type = typeOf(array);
+        Object buffer = bufferOf(array);
+        int n = (int) array.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        double min = Double.POSITIVE_INFINITY;
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(buffer, type, offset, block, count);
+            min = kernel.min(block, count, min);
+        }
+        return min;
+    }
+
+    /**
+     * Computes the maximum value within a buffered array.
+     *
+     * @param array
+     *            the array to analyze
+     * @return the maximum value within the array
+     */
+    public static final double max(ScalarArray<?> array)
+    {
+        int type = typeOf(array);
+        Object buffer = bufferOf(array);
+        int n = (int) array.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(buffer, type, offset, block, count);
+            max = kernel.max(block, count, max);
+        }
+        return max;
+    }
+
+    /**
+     * Computes the sum of the values within a buffered array.
+     *
+     * @param array
+     *            the array to analyze
+     * @return the sum of values within the array
+     */
+    public static final double sum(ScalarArray<?> array)
+    {
+        int type = typeOf(array);
+        Object buffer = bufferOf(array);
+        int n = (int) array.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        double sum = 0.0;
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(buffer, type, offset, block, count);
+            for (int i = 0; i < count; i++)
+            {
+                sum += block[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the sum of the squared differences between the values within a
+     * buffered array and the specified value.
+     *
+     * @param array
+     *            the array to analyze
+     * @param mean
+     *            the value to compute the differences with
+     * @return the sum of squared differences
+     */
+    public static final double sumOfSquares(ScalarArray<?> array, double mean)
+    {
+        int type = typeOf(array);
+        Object buffer = bufferOf(array);
+        int n = (int) array.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        double sum = 0.0;
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(buffer, type, offset, block, count);
+            for (int i = 0; i < count; i++)
+            {
+                double v = block[i] - mean;
+                sum += v * v;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Updates the counts of a histogram with regularly spaced bins from the
+     * values within a buffered array. Values outside of the bins are counted
+     * in the first or the last bin.
+     *
+     * @param array
+     *            the array to analyze
+     * @param v0
+     *            the lower bound of the first bin
+     * @param binWidth
+     *            the width of each bin
+     * @param counts
+     *            the array of counts to update
+     */
+    public static final void histogram(ScalarArray<?> array, double v0, double binWidth, int[] counts)
+    {
+        int type = typeOf(array);
+        Object buffer = bufferOf(array);
+        int n = (int) array.elementCount();
+        int lastBin = counts.length - 1;
+        double[] block = new double[BLOCK_SIZE];
+        int[] bins = new int[BLOCK_SIZE];
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(buffer, type, offset, block, count);
+            // compute bin indices within a separate loop, that can be vectorized
+            for (int i = 0; i < count; i++)
+            {
+                bins[i] = (int) Math.min(Math.max(Math.floor((block[i] - v0) / binWidth), 0), lastBin);
+            }
+            for (int i = 0; i < count; i++)
+            {
+                counts[bins[i]]++;
+            }
+        }
+    }
+
+
+    // =============================================================
+    // Element-wise operations
+
+    /**
+     * Computes <code>a * v + b</code> for each value <code>v</code> of the
+     * source array, and stores the result into the target array.
+     *
+     * @param source
+     *            the buffered source array
+     * @param a
+     *            the multiplicative coefficient
+     * @param b
+     *            the additive coefficient
+     * @param target
+     *            the buffered target array, with the same size as the source
+     */
+    public static final void affine(ScalarArray<?> source, double a, double b, ScalarArray<?> target)
+    {
+        int sourceType = typeOf(source);
+        int targetType = typeOf(target);
+        Object sourceBuffer = bufferOf(source);
+        Object targetBuffer = bufferOf(target);
+        int n = (int) source.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(sourceBuffer, sourceType, offset, block, count);
+            kernel.affine(block, count, a, b);
+            write(block, count, targetBuffer, targetType, offset);
+        }
+    }
+
+    /**
+     * Divides each value of the source array by the specified value, and
+     * stores the result into the target array.
+     *
+     * @param source
+     *            the buffered source array
+     * @param value
+     *            the value to divide by
+     * @param target
+     *            the buffered target array, with the same size as the source
+     */
+    public static final void divide(ScalarArray<?> source, double value, ScalarArray<?> target)
+    {
+        int sourceType = typeOf(source);
+        int targetType = typeOf(target);
+        Object sourceBuffer = bufferOf(source);
+        Object targetBuffer = bufferOf(target);
+        int n = (int) source.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(sourceBuffer, sourceType, offset, block, count);
+            kernel.divide(block, count, value);
+            write(block, count, targetBuffer, targetType, offset);
+        }
+    }
+
+    /**
+     * Restricts each value of the source array to the interval
+     * <code>[lower, upper]</code>, and stores the result into the target
+     * array.
+     *
+     * @param source
+     *            the buffered source array
+     * @param lower
+     *            the lower bound of the interval
+     * @param upper
+     *            the upper bound of the interval
+     * @param target
+     *            the buffered target array, with the same size as the source
+     */
+    public static final void clamp(ScalarArray<?> source, double lower, double upper, ScalarArray<?> target)
+    {
+        int sourceType = typeOf(source);
+        int targetType = typeOf(target);
+        Object sourceBuffer = bufferOf(source);
+        Object targetBuffer = bufferOf(target);
+        int n = (int) source.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(sourceBuffer, sourceType, offset, block, count);
+            kernel.clamp(block, count, lower, upper);
+            write(block, count, targetBuffer, targetType, offset);
+        }
+    }
+
+    /**
+     * Combines the values of two buffered arrays with a binary function, for
+     * the elements with a linear index between <code>start</code>
+     * (inclusive) and <code>end</code> (exclusive). If the function is an
+     * Operation, the blocks are processed by the kernel of the operation,
+     * otherwise the function is called for each pair of values.
+     *
+     * @param source1
+     *            the array containing the first argument of the function
+     * @param source2
+     *            the array containing the second argument of the function
+     * @param fun
+     *            the function to apply
+     * @param target
+     *            the array to put the result in
+     * @param start
+     *            the linear index of the first element to process
+     * @param end
+     *            the linear index after the last element to process
+     */
+    public static final void combine(ScalarArray<?> source1, ScalarArray<?> source2, DoubleBinaryOperator fun,
+            ScalarArray<?> target, int start, int end)
+    {
+        int type1 = typeOf(source1);
+        int type2 = typeOf(source2);
+        int targetType = typeOf(target);
+        Object buffer1 = bufferOf(source1);
+        Object buffer2 = bufferOf(source2);
+        Object targetBuffer = bufferOf(target);
+        double[] block1 = new double[BLOCK_SIZE];
+        double[] block2 = new double[BLOCK_SIZE];
+        for (int offset = start; offset < end; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, end - offset);
+            read(buffer1, type1, offset, block1, count);
+            read(buffer2, type2, offset, block2, count);
+            if (fun instanceof Operation op)
+            {
+                kernel.combine(op, block1, block2, count);
+            }
+            else
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    block1[i] = fun.applyAsDouble(block1[i], block2[i]);
+                }
+            }
+            write(block1, count, targetBuffer, targetType, offset);
+        }
+    }
+
+    /**
+     * Converts the values of a buffered array by subtracting a value and
+     * multiplying by a factor, and stores the results into a UInt8 array,
+     * by truncating the values to the [0, 255] interval.
+     *
+     * @param source
+     *            the buffered source array
+     * @param minValue
+     *            the value to subtract
+     * @param k
+     *            the factor to multiply by
+     * @param target
+     *            the buffered UInt8 array, with the same size as the source
+     */
+    public static final void convertToUInt8(ScalarArray<?> source, double minValue, double k, ScalarArray<?> target)
+    {
+        int sourceType = typeOf(source);
+        Object sourceBuffer = bufferOf(source);
+        byte[] targetBuffer = (byte[]) bufferOf(target);
+        int n = (int) source.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            read(sourceBuffer, sourceType, offset, block, count);
+            for (int i = 0; i < count; i++)
+            {
+                // same behavior as UInt8Array.setInt(pos, (int) value)
+                targetBuffer[offset + i] = (byte) Math.min(Math.max((int) ((block[i] - minValue) * k), 0), 255);
+            }
+        }
+    }
+
+    /**
+     * Computes the L2 norm of each vector of a buffered vector array, and
+     * stores the results into a buffered scalar array.
+     *
+     * @param source
+     *            the vector array, as an instance of BufferedFloat32VectorArray
+     *            or BufferedFloat64VectorArray
+     * @param target
+     *            the buffered scalar array, with the same size as the source
+     * @return true if the source array is supported, false otherwise
+     */
+    public static final boolean l2Norm(VectorArray<?,?> source, ScalarArray<?> target)
+    {
+        Object sourceBuffer;
+        if (source instanceof BufferedFloat32VectorArray2D a) sourceBuffer = a.buffer;
+        else if (source instanceof BufferedFloat32VectorArray3D a) sourceBuffer = a.buffer;
+        else if (source instanceof BufferedFloat32VectorArrayND a) sourceBuffer = a.buffer;
+        else if (source instanceof BufferedFloat64VectorArray2D a) sourceBuffer = a.buffer;
+        else if (source instanceof BufferedFloat64VectorArray3D a) sourceBuffer = a.buffer;
+        else if (source instanceof BufferedFloat64VectorArrayND a) sourceBuffer = a.buffer;
+        else return false;
+
+        int nc = source.channelCount();
+        int targetType = typeOf(target);
+        Object targetBuffer = bufferOf(target);
+        int n = (int) source.elementCount();
+        double[] block = new double[BLOCK_SIZE];
+        for (int offset = 0; offset < n; offset += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, n - offset);
+            java.util.Arrays.fill(block, 0, count, 0.0);
+            if (sourceBuffer instanceof float[] floats)
+            {
+                for (int c = 0; c < nc; c++)
+                {
+                    int index = offset * nc + c;
+                    for (int i = 0; i < count; i++, index += nc)
+                    {
+                        double v = floats[index];
+                        block[i] += v * v;
+                    }
+                }
+            }
+            else
+            {
+                double[] doubles = (double[]) sourceBuffer;
+                for (int c = 0; c < nc; c++)
+                {
+                    int index = offset * nc + c;
+                    for (int i = 0; i < count; i++, index += nc)
+                    {
+                        double v = doubles[index];
+                        block[i] += v * v;
+                    }
+                }
+            }
+            for (int i = 0; i < count; i++)
+            {
+                block[i] = Math.sqrt(block[i]);
+            }
+            write(block, count, targetBuffer, targetType, offset);
+        }
+        return true;
+    }
+
+
+    // =============================================================
+    // Conversion between buffers and blocks of double values
+
+    /**
+     * Reads <code>count</code> values from the buffer, starting at
+     * <code>offset</code>, and converts them into double values.
+     */
+    private static final void read(Object buffer, int type, int offset, double[] block, int count)
+    {
+        switch (type)
+        {
+            case UINT8 -> {
+                byte[] data = (byte[]) buffer;
+                for (int i = 0; i < count; i++) block[i] = data[offset + i] & 0x00FF;
+            }
+            case UINT16 -> {
+                short[] data = (short[]) buffer;
+                for (int i = 0; i < count; i++) block[i] = data[offset + i] & 0x00FFFF;
+            }
+            case INT16 -> {
+                short[] data = (short[]) buffer;
+                for (int i = 0; i < count; i++) block[i] = data[offset + i];
+            }
+            case INT32 -> {
+                int[] data = (int[]) buffer;
+                for (int i = 0; i < count; i++) block[i] = data[offset + i];
+            }
+            case FLOAT32 -> {
+                float[] data = (float[]) buffer;
+                for (int i = 0; i < count; i++) block[i] = data[offset + i];
+            }
+            case FLOAT64 -> System.arraycopy((double[]) buffer, offset, block, 0, count);
+            default -> throw new IllegalArgumentException("Unknown buffer type: " + type);
+        }
+    }
+
+    /**
+     * Converts <code>count</code> double values into the type of the buffer,
+     * and writes them into the buffer starting at <code>offset</code>.
+     */
+    private static final void write(double[] block, int count, Object buffer, int type, int offset)
+    {
+        switch (type)
+        {
+            case UINT8 -> {
+                // same conversion as UInt8.convert(double)
+                byte[] data = (byte[]) buffer;
+                for (int i = 0; i < count; i++) data[offset + i] = (byte) (int) Math.min(Math.max(0, block[i] + 0.5), 255);
+            }
+            case UINT16 -> {
+                // same conversion as UInt16.convert(double)
+                short[] data = (short[]) buffer;
+                for (int i = 0; i < count; i++) data[offset + i] = (short) (int) Math.min(Math.max(block[i] + 0.5, 0), 65535);
+            }
+            case FLOAT32 -> {
+                float[] data = (float[]) buffer;
+                for (int i = 0; i < count; i++) data[offset + i] = (float) block[i];
+            }
+            case FLOAT64 -> System.arraycopy(block, 0, (double[]) buffer, offset, count);
+            default -> throw new IllegalArgumentException("Can not write into buffer with type: " + type);
+        }
+    }
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BufferKernels()
+    {
+    }
+}
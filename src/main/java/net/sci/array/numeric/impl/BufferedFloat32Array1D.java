@@ -3,9 +3,15 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float32;
 import net.sci.array.numeric.Float32Array;
 import net.sci.array.numeric.Float32Array1D;
+import net.sci.array.numeric.ScalarArray;
 
 /**
  * Implementation of Float32Array1D that stores inner data in a linear array of
@@ -124,28 +130,64 @@ public class BufferedFloat32Array1D extends Float32Array1D
 	{
 		buffer[pos[0]] = value;
 	}
+
+    @Override
+    public float getFloat(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setFloat(Cursor cursor, float value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
 	
 	
     // =============================================================
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(output instanceof BufferedFloat32Array1D res) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (float) fun.applyAsDouble(this.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(other instanceof BufferedFloat32Array1D array2) || !(output instanceof BufferedFloat32Array1D res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            res.buffer[i] = (float) fun.applyAsDouble(this.buffer[i], array2.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -156,7 +198,7 @@ public class BufferedFloat32Array1D extends Float32Array1D
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) buffer[index];
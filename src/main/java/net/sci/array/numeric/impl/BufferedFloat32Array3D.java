@@ -3,9 +3,15 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float32;
 import net.sci.array.numeric.Float32Array;
 import net.sci.array.numeric.Float32Array3D;
+import net.sci.array.numeric.ScalarArray;
 import net.sci.util.MathUtils;
 
 /**
@@ -149,6 +155,18 @@ public class BufferedFloat32Array3D extends Float32Array3D
         int index = pos[0] + this.size0 * (pos[1] + pos[2] * this.size1);
         this.buffer[index] = value;
     }
+
+    @Override
+    public float getFloat(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setFloat(Cursor cursor, float value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
     
 
     // =============================================================
@@ -173,22 +191,46 @@ public class BufferedFloat32Array3D extends Float32Array3D
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(output instanceof BufferedFloat32Array3D res) || !Arrays.isSameSize(this, res))
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            return super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (float) fun.applyAsDouble(this.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(other instanceof BufferedFloat32Array3D array2) || !(output instanceof BufferedFloat32Array3D res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (float) fun.applyAsDouble(this.buffer[i], array2.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -199,7 +241,7 @@ public class BufferedFloat32Array3D extends Float32Array3D
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) buffer[index];
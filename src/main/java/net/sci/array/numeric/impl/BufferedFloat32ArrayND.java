@@ -3,9 +3,15 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
 import net.sci.array.ArrayND;
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float32;
 import net.sci.array.numeric.Float32Array;
+import net.sci.array.numeric.ScalarArray;
 import net.sci.util.MathUtils;
 
 /**
@@ -82,6 +88,18 @@ public class BufferedFloat32ArrayND extends ArrayND<Float32> implements Float32A
         this.buffer[index] = val;
     }
 
+    @Override
+    public float getFloat(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setFloat(Cursor cursor, float value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
+
     @Override
 	public Float32 get(int[] pos)
 	{
@@ -115,22 +133,46 @@ public class BufferedFloat32ArrayND extends ArrayND<Float32> implements Float32A
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(output instanceof BufferedFloat32ArrayND res) || !Arrays.isSameSize(this, res))
+        {
+            return Float32Array.super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (float) fun.applyAsDouble(this.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(other instanceof BufferedFloat32ArrayND array2) || !(output instanceof BufferedFloat32ArrayND res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            return Float32Array.super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (float) fun.applyAsDouble(this.buffer[i], array2.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -141,7 +183,7 @@ public class BufferedFloat32ArrayND extends ArrayND<Float32> implements Float32A
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) buffer[index];
@@ -3,6 +3,7 @@
  */
 package net.sci.array.numeric.impl;
 
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float32Vector;
 import net.sci.array.numeric.Float32VectorArray;
 import net.sci.array.numeric.Float32VectorArray3D;
@@ -190,6 +191,25 @@ public class BufferedFloat32VectorArray3D extends Float32VectorArray3D
 		return new Float32Vector(getValues(pos));
 	}
 
+    @Override
+    public Float32Vector get(Cursor cursor)
+    {
+        int offset = ((int) cursor.index()) * this.vectorLength;
+        float[] values = new float[this.vectorLength];
+        System.arraycopy(this.buffer, offset, values, 0, this.vectorLength);
+        return new Float32Vector(values);
+    }
+
+    @Override
+    public void set(Cursor cursor, Float32Vector vect)
+    {
+        int offset = ((int) cursor.index()) * this.vectorLength;
+        for (int c = 0; c < this.vectorLength; c++)
+        {
+            this.buffer[offset + c] = (float) vect.getValue(c);
+        }
+    }
+
 	/* (non-Javadoc)
 	 * @see net.sci.array.data.VectorArray#iterator()
 	 */
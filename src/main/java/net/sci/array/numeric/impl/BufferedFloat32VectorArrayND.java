@@ -4,6 +4,7 @@
 package net.sci.array.numeric.impl;
 
 import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float32Array;
 import net.sci.array.numeric.Float32Vector;
 import net.sci.array.numeric.Float32VectorArray;
@@ -182,6 +183,25 @@ public class BufferedFloat32VectorArrayND extends ArrayND<Float32Vector> impleme
         return new Float32Vector(getValues(pos, new double[vectorLength]));
     }
 
+    @Override
+    public Float32Vector get(Cursor cursor)
+    {
+        int offset = ((int) cursor.index()) * this.vectorLength;
+        float[] values = new float[this.vectorLength];
+        System.arraycopy(this.buffer, offset, values, 0, this.vectorLength);
+        return new Float32Vector(values);
+    }
+
+    @Override
+    public void set(Cursor cursor, Float32Vector vect)
+    {
+        int offset = ((int) cursor.index()) * this.vectorLength;
+        for (int c = 0; c < this.vectorLength; c++)
+        {
+            this.buffer[offset + c] = (float) vect.getValue(c);
+        }
+    }
+
     @Override
     public void set(int[] pos, Float32Vector vect)
     {
@@ -3,9 +3,15 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float64;
 import net.sci.array.numeric.Float64Array;
 import net.sci.array.numeric.Float64Array1D;
+import net.sci.array.numeric.ScalarArray;
 
 /**
  * Implementation of Float64Array1D that stores inner data in a linear array of
@@ -118,28 +124,64 @@ public class BufferedFloat64Array1D extends Float64Array1D
 	{
 		buffer[pos[0]] = value;
 	}
+
+    @Override
+    public double getValue(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setValue(Cursor cursor, double value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
 	
 	
     // =============================================================
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(output instanceof BufferedFloat64Array1D res) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = fun.applyAsDouble(this.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(other instanceof BufferedFloat64Array1D array2) || !(output instanceof BufferedFloat64Array1D res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            res.buffer[i] = fun.applyAsDouble(this.buffer[i], array2.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -150,7 +192,7 @@ public class BufferedFloat64Array1D extends Float64Array1D
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) buffer[index];
@@ -3,9 +3,15 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float64;
 import net.sci.array.numeric.Float64Array;
 import net.sci.array.numeric.Float64Array2D;
+import net.sci.array.numeric.ScalarArray;
 
 /**
  * Implementation of Float64Array2D that stores inner data in a linear array of
@@ -123,22 +129,46 @@ public class BufferedFloat64Array2D extends Float64Array2D
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(output instanceof BufferedFloat64Array2D res) || !Arrays.isSameSize(this, res))
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            return super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = fun.applyAsDouble(this.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(other instanceof BufferedFloat64Array2D array2) || !(output instanceof BufferedFloat64Array2D res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = fun.applyAsDouble(this.buffer[i], array2.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -149,7 +179,7 @@ public class BufferedFloat64Array2D extends Float64Array2D
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) buffer[index];
@@ -187,6 +217,18 @@ public class BufferedFloat64Array2D extends Float64Array2D
     	System.arraycopy(this.buffer, 0, buffer2, 0, size0 * size1);
     	return new BufferedFloat64Array2D(size0, size1, buffer2);
     }
+
+    @Override
+    public double getValue(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setValue(Cursor cursor, double value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
 	
     /* (non-Javadoc)
 	 * @see net.sci.array.data.ScalarArray#iterator()
@@ -3,9 +3,15 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
 import net.sci.array.ArrayND;
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float64;
 import net.sci.array.numeric.Float64Array;
+import net.sci.array.numeric.ScalarArray;
 import net.sci.util.MathUtils;
 
 /**
@@ -70,22 +76,46 @@ public class BufferedFloat64ArrayND extends ArrayND<Float64> implements Float64A
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(output instanceof BufferedFloat64ArrayND res) || !Arrays.isSameSize(this, res))
+        {
+            return Float64Array.super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = fun.applyAsDouble(this.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(other instanceof BufferedFloat64ArrayND array2) || !(output instanceof BufferedFloat64ArrayND res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
+        {
+            return Float64Array.super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            res.buffer[i] = fun.applyAsDouble(this.buffer[i], array2.buffer[i]);
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -96,7 +126,7 @@ public class BufferedFloat64ArrayND extends ArrayND<Float64> implements Float64A
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) buffer[index];
@@ -134,6 +164,18 @@ public class BufferedFloat64ArrayND extends ArrayND<Float64> implements Float64A
 		int index = subsToInd(pos);
 		this.buffer[index] = value;
 	}
+
+    @Override
+    public double getValue(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setValue(Cursor cursor, double value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
 	
 	// =============================================================
     // Implementation of the Array interface
@@ -3,6 +3,7 @@
  */
 package net.sci.array.numeric.impl;
 
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float64Vector;
 import net.sci.array.numeric.Float64VectorArray;
 import net.sci.array.numeric.Float64VectorArray3D;
@@ -173,6 +174,25 @@ public class BufferedFloat64VectorArray3D extends Float64VectorArray3D
 		return new Float64Vector(getValues(pos));
 	}
 
+    @Override
+    public Float64Vector get(Cursor cursor)
+    {
+        int offset = ((int) cursor.index()) * this.vectorLength;
+        double[] values = new double[this.vectorLength];
+        System.arraycopy(this.buffer, offset, values, 0, this.vectorLength);
+        return new Float64Vector(values);
+    }
+
+    @Override
+    public void set(Cursor cursor, Float64Vector vect)
+    {
+        int offset = ((int) cursor.index()) * this.vectorLength;
+        for (int c = 0; c < this.vectorLength; c++)
+        {
+            this.buffer[offset + c] = vect.getValue(c);
+        }
+    }
+
 	/* (non-Javadoc)
 	 * @see net.sci.array.data.Array2D#set(int, int, java.lang.Object)
 	 */
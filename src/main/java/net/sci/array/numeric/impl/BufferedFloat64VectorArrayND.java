@@ -4,6 +4,7 @@
 package net.sci.array.numeric.impl;
 
 import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Float64Array;
 import net.sci.array.numeric.Float64Vector;
 import net.sci.array.numeric.Float64VectorArray;
@@ -120,6 +121,25 @@ public class BufferedFloat64VectorArrayND extends ArrayND<Float64Vector> impleme
         this.buffer[index] = value;
     }
 
+    @Override
+    public Float64Vector get(Cursor cursor)
+    {
+        int offset = ((int) cursor.index()) * this.vectorLength;
+        double[] values = new double[this.vectorLength];
+        System.arraycopy(this.buffer, offset, values, 0, this.vectorLength);
+        return new Float64Vector(values);
+    }
+
+    @Override
+    public void set(Cursor cursor, Float64Vector vect)
+    {
+        int offset = ((int) cursor.index()) * this.vectorLength;
+        for (int c = 0; c < this.vectorLength; c++)
+        {
+            this.buffer[offset + c] = vect.getValue(c);
+        }
+    }
+
     // =============================================================
     // Implementation of Float64VectorArray methods
 
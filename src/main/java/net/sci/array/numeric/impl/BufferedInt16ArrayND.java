@@ -3,9 +3,15 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
 import net.sci.array.ArrayND;
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Int16;
 import net.sci.array.numeric.Int16Array;
+import net.sci.array.numeric.ScalarArray;
 import net.sci.util.MathUtils;
 
 /**
@@ -92,6 +98,18 @@ public class BufferedInt16ArrayND extends ArrayND<Int16> implements Int16Array
 		this.buffer[index] = s;	
 	}
 
+    @Override
+    public short getShort(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setShort(Cursor cursor, short value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
+
 	// =============================================================
 	// Implementation of the IntArray interface
 	
@@ -120,22 +138,46 @@ public class BufferedInt16ArrayND extends ArrayND<Int16> implements Int16Array
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(output instanceof BufferedInt16ArrayND res) || !Arrays.isSameSize(this, res))
+        {
+            return Int16Array.super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (short) Int16.convert(fun.applyAsDouble(this.buffer[i]));
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(other instanceof BufferedInt16ArrayND array2) || !(output instanceof BufferedInt16ArrayND res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            return Int16Array.super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (short) Int16.convert(fun.applyAsDouble(this.buffer[i], array2.buffer[i]));
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -146,7 +188,7 @@ public class BufferedInt16ArrayND extends ArrayND<Int16> implements Int16Array
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) buffer[index];
@@ -3,9 +3,15 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
 import net.sci.array.numeric.Int32;
 import net.sci.array.numeric.Int32Array;
 import net.sci.array.numeric.Int32Array1D;
+import net.sci.array.numeric.ScalarArray;
 
 /**
  * Implementation of Int32Array1D that stores inner data in a linear array of
@@ -115,28 +121,64 @@ public class BufferedInt32Array1D extends Int32Array1D
 		buffer[pos[0]] = value;
 	}
 
+    @Override
+    public int getInt(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setInt(Cursor cursor, int value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
+
 
     
     // =============================================================
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(output instanceof BufferedInt32Array1D res) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = Int32.convert(fun.applyAsDouble(this.buffer[i]));
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(other instanceof BufferedInt32Array1D array2) || !(output instanceof BufferedInt32Array1D res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            res.buffer[i] = Int32.convert(fun.applyAsDouble(this.buffer[i], array2.buffer[i]));
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -147,7 +189,7 @@ public class BufferedInt32Array1D extends Int32Array1D
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) buffer[index];
@@ -3,7 +3,13 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
 import net.sci.array.ArrayND;
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
+import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.UInt16;
 import net.sci.array.numeric.UInt16Array;
 import net.sci.util.MathUtils;
@@ -83,6 +89,18 @@ public class BufferedUInt16ArrayND extends ArrayND<UInt16> implements UInt16Arra
 		this.buffer[index] = value;	
 	}
 
+    @Override
+    public short getShort(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setShort(Cursor cursor, short value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
+
 	
 	// =============================================================
 	// Implementation of the IntArray interface
@@ -112,22 +130,46 @@ public class BufferedUInt16ArrayND extends ArrayND<UInt16> implements UInt16Arra
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(output instanceof BufferedUInt16ArrayND res) || !Arrays.isSameSize(this, res))
+        {
+            return UInt16Array.super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (short) UInt16.convert(fun.applyAsDouble(this.buffer[i] & 0x00FFFF));
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(other instanceof BufferedUInt16ArrayND array2) || !(output instanceof BufferedUInt16ArrayND res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            return UInt16Array.super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (short) UInt16.convert(fun.applyAsDouble(this.buffer[i] & 0x00FFFF, array2.buffer[i] & 0x00FFFF));
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -138,7 +180,7 @@ public class BufferedUInt16ArrayND extends ArrayND<UInt16> implements UInt16Arra
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
             return (double) (buffer[index] & 0x00FFFF);
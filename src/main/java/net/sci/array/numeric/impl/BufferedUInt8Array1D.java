@@ -3,6 +3,12 @@
  */
 package net.sci.array.numeric.impl;
 
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
+import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.UInt8;
 import net.sci.array.numeric.UInt8Array;
 import net.sci.array.numeric.UInt8Array1D;
@@ -128,6 +134,18 @@ public class BufferedUInt8Array1D extends UInt8Array1D
     {
         buffer[pos[0]] = value;
     }
+
+    @Override
+    public byte getByte(Cursor cursor)
+    {
+        return this.buffer[(int) cursor.index()];
+    }
+
+    @Override
+    public void setByte(Cursor cursor, byte value)
+    {
+        this.buffer[(int) cursor.index()] = value;
+    }
     
 
     // =============================================================
@@ -150,22 +168,46 @@ public class BufferedUInt8Array1D extends UInt8Array1D
     // Specialization of the ScalarArray interface
     
     @Override
-    public Iterable<Double> values()
+    public ScalarArray<?> mapValues(DoubleUnaryOperator fun, ScalarArray<?> output)
+    {
+        if (!(output instanceof BufferedUInt8Array1D res) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
+        {
+            res.buffer[i] = (byte) UInt8.convert(fun.applyAsDouble(this.buffer[i] & 0x00FF));
+        }
+        return res;
+    }
+    
+    @Override
+    public ScalarArray<?> mapValues(ScalarArray<?> other, DoubleBinaryOperator fun, ScalarArray<?> output)
     {
-        return new Iterable<Double>()
+        if (!(other instanceof BufferedUInt8Array1D array2) || !(output instanceof BufferedUInt8Array1D res)
+                || !Arrays.isSameSize(this, array2) || !Arrays.isSameSize(this, res))
+        {
+            return super.mapValues(other, fun, output);
+        }
+        
+        for (int i = 0; i < this.buffer.length; i++)
         {
-            @Override
-            public java.util.Iterator<Double> iterator()
-            {
-                return new ValueIterator();
-            }
-        };
+            res.buffer[i] = (byte) UInt8.convert(fun.applyAsDouble(this.buffer[i] & 0x00FF, array2.buffer[i] & 0x00FF));
+        }
+        return res;
+    }
+    
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
     }
     
     /**
      * Inner implementation of iterator on double values.
      */
-    private class ValueIterator implements java.util.Iterator<Double>
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
     {
         int index = -1;
         
@@ -176,10 +218,10 @@ public class BufferedUInt8Array1D extends UInt8Array1D
         }
 
         @Override
-        public Double next()
+        public double nextDouble()
         {
             this.index++;
-            return (double) buffer[index];
+            return (double) (buffer[index] & 0x00FF);
         }
     }
     
@@ -0,0 +1,173 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sci.util.MathUtils;
+
+/**
+ * A hyper-rectangular block of an array, processed as a single unit of work.
+ *
+ * The chunk covers the positions between <code>min</code> (inclusive) and
+ * <code>max</code> (exclusive) along each dimension. The halo box extends the
+ * chunk by a margin along each dimension, clamped to the bounds of the array,
+ * and contains the positions that may be read for computing the results
+ * within the chunk.
+ *
+ * @see ChunkedArray
+ *
+ * @author dlegland
+ */
+public final class Chunk
+{
+    // =============================================================
+    // Static factories
+
+    /**
+     * Splits an array into a regular grid of chunks.
+     *
+     * @param sizes
+     *            the size of the array along each dimension
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     * @param halo
+     *            the margin to add to each chunk along each dimension
+     * @return the list of chunks covering the array, with the first dimension
+     *         varying the fastest
+     */
+    public static final List<Chunk> grid(int[] sizes, int[] chunkSizes, int[] halo)
+    {
+        int nd = sizes.length;
+        int[] gridSizes = new int[nd];
+        for (int d = 0; d < nd; d++)
+        {
+            gridSizes[d] = (sizes[d] + chunkSizes[d] - 1) / chunkSizes[d];
+        }
+
+        int chunkCount = (int) MathUtils.prod(gridSizes);
+        ArrayList<Chunk> chunks = new ArrayList<Chunk>(chunkCount);
+        int[] gridPos = new int[nd];
+        for (int i = 0; i < chunkCount; i++)
+        {
+            // convert linear chunk index into grid position
+            int index = i;
+            for (int d = 0; d < nd; d++)
+            {
+                gridPos[d] = index % gridSizes[d];
+                index /= gridSizes[d];
+            }
+
+            int[] min = new int[nd];
+            int[] max = new int[nd];
+            int[] haloMin = new int[nd];
+            int[] haloMax = new int[nd];
+            for (int d = 0; d < nd; d++)
+            {
+                min[d] = gridPos[d] * chunkSizes[d];
+                max[d] = Math.min(min[d] + chunkSizes[d], sizes[d]);
+                haloMin[d] = Math.max(min[d] - halo[d], 0);
+                haloMax[d] = Math.min(max[d] + halo[d], sizes[d]);
+            }
+            chunks.add(new Chunk(min, max, haloMin, haloMax));
+        }
+        return chunks;
+    }
+
+
+    // =============================================================
+    // Class variables
+
+    private final int[] min;
+    private final int[] max;
+    private final int[] haloMin;
+    private final int[] haloMax;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Creates a new chunk.
+     *
+     * @param min
+     *            the first position within the chunk
+     * @param max
+     *            the position after the last position within the chunk
+     * @param haloMin
+     *            the first position within the halo
+     * @param haloMax
+     *            the position after the last position within the halo
+     */
+    public Chunk(int[] min, int[] max, int[] haloMin, int[] haloMax)
+    {
+        this.min = min;
+        this.max = max;
+        this.haloMin = haloMin;
+        this.haloMax = haloMax;
+    }
+
+
+    // =============================================================
+    // Accessors
+
+    /**
+     * @return the first position within the chunk
+     */
+    public int[] min()
+    {
+        return min.clone();
+    }
+
+    /**
+     * @return the position after the last position within the chunk
+     */
+    public int[] max()
+    {
+        return max.clone();
+    }
+
+    /**
+     * @return the first position within the halo
+     */
+    public int[] haloMin()
+    {
+        return haloMin.clone();
+    }
+
+    /**
+     * @return the position after the last position within the halo
+     */
+    public int[] haloMax()
+    {
+        return haloMax.clone();
+    }
+
+    /**
+     * @return the size of the chunk along each dimension, excluding the halo
+     */
+    public int[] size()
+    {
+        int[] size = new int[min.length];
+        for (int d = 0; d < min.length; d++)
+        {
+            size[d] = max[d] - min[d];
+        }
+        return size;
+    }
+
+    /**
+     * @return the size of the halo box along each dimension
+     */
+    public int[] haloSize()
+    {
+        int[] size = new int[min.length];
+        for (int d = 0; d < min.length; d++)
+        {
+            size[d] = haloMax[d] - haloMin[d];
+        }
+        return size;
+    }
+}
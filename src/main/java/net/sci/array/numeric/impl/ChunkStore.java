@@ -0,0 +1,574 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import net.sci.util.MathUtils;
+
+/**
+ * Stores the elements of a multi-dimensional array within a grid of
+ * fixed-size chunks, that are allocated independently.
+ *
+ * Chunks are allocated at the first modification of one of their elements;
+ * elements of chunks that were never modified are read as zero. When a
+ * compression method is specified, the decompressed chunks are kept in memory
+ * as long as their total size does not exceed a byte budget. When the budget
+ * is exceeded, the least recently used chunks are compressed, and their
+ * decompressed data are released. Compressed chunks are decompressed again
+ * when one of their elements is accessed.
+ *
+ * A chunk store can also be backed by a Source, that provides the data of the
+ * chunks that were never allocated, for example by reading them from files.
+ * Chunks read from the source are kept in memory within the byte budget, and
+ * unmodified chunks are simply released when the budget is exceeded. Modified
+ * chunks are never written back to the source.
+ * 
+ * The access methods are synchronized, so that chunked arrays can be read and
+ * written from several threads.
+ *
+ * @see ChunkedArray
+ *
+ * @author dlegland
+ */
+public final class ChunkStore
+{
+    // =============================================================
+    // Inner enumeration
+
+    /**
+     * The compression methods available for the chunks that are not used.
+     */
+    public enum Compression
+    {
+        /** The chunks are kept uncompressed, and are never evicted. */
+        NONE,
+        /** The chunks are compressed with the Deflate algorithm. */
+        DEFLATE;
+    }
+
+
+    // =============================================================
+    // Inner interface
+
+    /**
+     * Provides the data of chunks that are not stored in memory.
+     */
+    public interface Source
+    {
+        /**
+         * Reads the data of a chunk.
+         *
+         * @param index
+         *            the linear index of the chunk, the first dimension
+         *            varying the fastest
+         * @param byteCount
+         *            the number of bytes of the chunk data
+         * @return the data of the chunk, in big-endian byte order, or null if
+         *         all the elements of the chunk are zero
+         * @throws IOException
+         *             if the chunk data could not be read
+         */
+        public byte[] readChunk(int index, int byteCount) throws IOException;
+    }
+
+
+    // =============================================================
+    // Constants
+
+    /**
+     * The default budget for decompressed chunks, in bytes.
+     */
+    public static final long DEFAULT_BYTE_BUDGET = 256L * 1024 * 1024;
+
+
+    // =============================================================
+    // Class variables
+
+    /**
+     * The size of the array along each dimension.
+     */
+    final int[] sizes;
+
+    /**
+     * The size of the chunks along each dimension.
+     */
+    final int[] chunkSizes;
+
+    /**
+     * The number of chunks along each dimension.
+     */
+    final int[] gridSizes;
+
+    /**
+     * The number of bytes used to store an element.
+     */
+    final int elementSize;
+
+    /**
+     * The number of bytes used to store a decompressed chunk.
+     */
+    final int chunkByteCount;
+
+    /**
+     * The compression used for the chunks evicted from memory.
+     */
+    final Compression compression;
+
+    /**
+     * The maximum number of bytes used by decompressed chunks.
+     */
+    long byteBudget;
+
+    /**
+     * The decompressed data of each chunk, or null if the chunk is compressed
+     * or was never allocated.
+     */
+    final ByteBuffer[] chunks;
+
+    /**
+     * The compressed data of each chunk, or null if the chunk was never
+     * compressed.
+     */
+    final byte[][] compressedChunks;
+
+    /**
+     * Indicates whether the decompressed data of each chunk were modified
+     * since the last compression.
+     */
+    final boolean[] dirty;
+
+    /**
+     * The source providing the data of the chunks that were never allocated,
+     * or null if these chunks contain only zeros.
+     */
+    Source source = null;
+
+    /**
+     * Indicates whether the source returned an empty chunk, to avoid reading
+     * it again.
+     */
+    boolean[] emptyInSource = null;
+
+    /**
+     * The indices of decompressed chunks, from the least recently used to the
+     * most recently used.
+     */
+    final LinkedHashMap<Integer, Integer> lruIndices = new LinkedHashMap<Integer, Integer>(16, 0.75f, true);
+
+    /**
+     * The index of the last accessed chunk, used to avoid updating the order
+     * of recently used chunks for consecutive accesses to the same chunk.
+     */
+    int lastIndex = -1;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Creates a new chunk store.
+     *
+     * @param sizes
+     *            the size of the array along each dimension
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     * @param elementSize
+     *            the number of bytes used to store an element (1, 2 or 4)
+     * @param compression
+     *            the compression used for chunks evicted from memory
+     * @param byteBudget
+     *            the maximum number of bytes used by decompressed chunks
+     */
+    public ChunkStore(int[] sizes, int[] chunkSizes, int elementSize, Compression compression, long byteBudget)
+    {
+        if (sizes.length != chunkSizes.length)
+        {
+            throw new IllegalArgumentException("Array size and chunk size must have the same length");
+        }
+        int nd = sizes.length;
+        this.sizes = sizes.clone();
+        this.chunkSizes = chunkSizes.clone();
+        this.gridSizes = new int[nd];
+        for (int d = 0; d < nd; d++)
+        {
+            if (chunkSizes[d] < 1)
+            {
+                throw new IllegalArgumentException("Chunk sizes must be positive");
+            }
+            this.gridSizes[d] = (sizes[d] + chunkSizes[d] - 1) / chunkSizes[d];
+        }
+
+        long byteCount = MathUtils.prod(chunkSizes) * elementSize;
+        if (byteCount > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalArgumentException("Chunk size is larger than maximal size for java arrays");
+        }
+        this.elementSize = elementSize;
+        this.chunkByteCount = (int) byteCount;
+        this.compression = compression;
+        this.byteBudget = byteBudget;
+
+        int chunkCount = (int) MathUtils.prod(this.gridSizes);
+        this.chunks = new ByteBuffer[chunkCount];
+        this.compressedChunks = new byte[chunkCount][];
+        this.dirty = new boolean[chunkCount];
+    }
+
+    /**
+     * Creates a new chunk store whose chunks are read on demand from the
+     * specified source. The chunks read from the source are kept in memory
+     * within the byte budget. When the budget is exceeded, unmodified chunks
+     * are released, and modified chunks are compressed if a compression method
+     * is specified.
+     *
+     * @param sizes
+     *            the size of the array along each dimension
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     * @param elementSize
+     *            the number of bytes used to store an element (1, 2 or 4)
+     * @param compression
+     *            the compression used for modified chunks evicted from memory
+     * @param byteBudget
+     *            the maximum number of bytes used by decompressed chunks
+     * @param source
+     *            the source providing the data of the chunks
+     */
+    public ChunkStore(int[] sizes, int[] chunkSizes, int elementSize, Compression compression, long byteBudget, Source source)
+    {
+        this(sizes, chunkSizes, elementSize, compression, byteBudget);
+        this.source = source;
+        this.emptyInSource = new boolean[this.chunks.length];
+    }
+
+
+    // =============================================================
+    // Accessors
+
+    /**
+     * @return the size of the chunks along each dimension
+     */
+    public int[] chunkSizes()
+    {
+        return this.chunkSizes.clone();
+    }
+
+    /**
+     * @return the number of chunks along each dimension
+     */
+    public int[] gridSizes()
+    {
+        return this.gridSizes.clone();
+    }
+
+    /**
+     * @return the compression used for chunks evicted from memory
+     */
+    public Compression compression()
+    {
+        return this.compression;
+    }
+
+    /**
+     * Changes the maximum number of bytes used by decompressed chunks. Chunks
+     * are evicted if necessary.
+     *
+     * @param byteBudget
+     *            the maximum number of bytes used by decompressed chunks
+     */
+    public synchronized void setByteBudget(long byteBudget)
+    {
+        this.byteBudget = byteBudget;
+        evict(-1);
+    }
+
+    /**
+     * @return the number of bytes currently used by decompressed chunks
+     */
+    public synchronized long decompressedByteCount()
+    {
+        return ((long) this.lruIndices.size()) * this.chunkByteCount;
+    }
+
+
+    /**
+     * Creates a new chunk store with the same settings and the same content
+     * as this store.
+     *
+     * @return a copy of this chunk store
+     */
+    public synchronized ChunkStore duplicate()
+    {
+        ChunkStore res = new ChunkStore(this.sizes, this.chunkSizes, this.elementSize, this.compression, this.byteBudget);
+        if (this.source != null)
+        {
+            res.source = this.source;
+            res.emptyInSource = this.emptyInSource.clone();
+        }
+        for (int i = 0; i < this.chunks.length; i++)
+        {
+            if (this.chunks[i] != null)
+            {
+                res.chunks[i] = ByteBuffer.wrap(this.chunks[i].array().clone());
+                res.lruIndices.put(i, i);
+            }
+            res.compressedChunks[i] = this.compressedChunks[i];
+            res.dirty[i] = this.dirty[i];
+        }
+        return res;
+    }
+
+
+    // =============================================================
+    // Index computation
+
+    /**
+     * Computes the index of the chunk containing the specified position.
+     *
+     * @param pos
+     *            the position within the array
+     * @return the linear index of the chunk containing the position
+     */
+    public int chunkIndex(int[] pos)
+    {
+        int index = 0;
+        int offset = 1;
+        for (int d = 0; d < pos.length; d++)
+        {
+            index += (pos[d] / this.chunkSizes[d]) * offset;
+            offset *= this.gridSizes[d];
+        }
+        return index;
+    }
+
+    /**
+     * Computes the index of the specified position within its chunk.
+     *
+     * @param pos
+     *            the position within the array
+     * @return the linear index of the position within the chunk
+     */
+    public int localIndex(int[] pos)
+    {
+        int index = 0;
+        int offset = 1;
+        for (int d = 0; d < pos.length; d++)
+        {
+            index += (pos[d] % this.chunkSizes[d]) * offset;
+            offset *= this.chunkSizes[d];
+        }
+        return index;
+    }
+
+
+    // =============================================================
+    // Element access
+    // (elements of chunks that were never allocated are read as zero)
+
+    public synchronized byte getByte(int chunkIndex, int localIndex)
+    {
+        ByteBuffer chunk = readChunk(chunkIndex);
+        return chunk != null ? chunk.get(localIndex) : 0;
+    }
+
+    public synchronized void putByte(int chunkIndex, int localIndex, byte value)
+    {
+        writeChunk(chunkIndex).put(localIndex, value);
+    }
+
+    public synchronized short getShort(int chunkIndex, int localIndex)
+    {
+        ByteBuffer chunk = readChunk(chunkIndex);
+        return chunk != null ? chunk.getShort(localIndex << 1) : 0;
+    }
+
+    public synchronized void putShort(int chunkIndex, int localIndex, short value)
+    {
+        writeChunk(chunkIndex).putShort(localIndex << 1, value);
+    }
+
+    public synchronized float getFloat(int chunkIndex, int localIndex)
+    {
+        ByteBuffer chunk = readChunk(chunkIndex);
+        return chunk != null ? chunk.getFloat(localIndex << 2) : 0;
+    }
+
+    public synchronized void putFloat(int chunkIndex, int localIndex, float value)
+    {
+        writeChunk(chunkIndex).putFloat(localIndex << 2, value);
+    }
+
+
+    // =============================================================
+    // Chunk management
+
+    /**
+     * Returns the decompressed data of the chunk, or null if the chunk was
+     * never allocated.
+     */
+    private ByteBuffer readChunk(int index)
+    {
+        ByteBuffer chunk = this.chunks[index];
+        if (chunk != null)
+        {
+            if (index != this.lastIndex)
+            {
+                this.lruIndices.get(index);
+                this.lastIndex = index;
+            }
+            return chunk;
+        }
+        if (this.compressedChunks[index] == null)
+        {
+            return this.source != null ? readSourceChunk(index) : null;
+        }
+        return loadChunk(index);
+    }
+
+    /**
+     * Reads the data of a chunk from the source, or returns null if the chunk
+     * is empty.
+     */
+    private ByteBuffer readSourceChunk(int index)
+    {
+        if (this.emptyInSource[index])
+        {
+            return null;
+        }
+
+        byte[] data;
+        try
+        {
+            data = this.source.readChunk(index, this.chunkByteCount);
+        }
+        catch (IOException ex)
+        {
+            throw new RuntimeException("Could not read data of chunk " + index, ex);
+        }
+        if (data == null)
+        {
+            this.emptyInSource[index] = true;
+            return null;
+        }
+        if (data.length != this.chunkByteCount)
+        {
+            throw new RuntimeException("Data of chunk " + index + " has wrong size: " + data.length);
+        }
+
+        ByteBuffer chunk = ByteBuffer.wrap(data);
+        this.chunks[index] = chunk;
+        this.dirty[index] = false;
+        this.lruIndices.put(index, index);
+        this.lastIndex = index;
+        evict(index);
+        return chunk;
+    }
+
+    /**
+     * Returns the decompressed data of the chunk, allocating it if necessary,
+     * and marks it as modified.
+     */
+    private ByteBuffer writeChunk(int index)
+    {
+        ByteBuffer chunk = readChunk(index);
+        if (chunk == null)
+        {
+            chunk = ByteBuffer.allocate(this.chunkByteCount);
+            this.chunks[index] = chunk;
+            this.lruIndices.put(index, index);
+            evict(index);
+        }
+        this.dirty[index] = true;
+        return chunk;
+    }
+
+    private ByteBuffer loadChunk(int index)
+    {
+        byte[] data = new byte[this.chunkByteCount];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(this.compressedChunks[index]);
+            int n = 0;
+            while (n < data.length && !inflater.finished())
+            {
+                n += inflater.inflate(data, n, data.length - n);
+            }
+        }
+        catch (DataFormatException ex)
+        {
+            throw new RuntimeException("Could not decompress data of chunk " + index, ex);
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        ByteBuffer chunk = ByteBuffer.wrap(data);
+        this.chunks[index] = chunk;
+        this.dirty[index] = false;
+        this.lruIndices.put(index, index);
+        evict(index);
+        return chunk;
+    }
+
+    /**
+     * Compresses the least recently used chunks until the decompressed chunks
+     * fit within the byte budget. The chunk with the specified index is never
+     * evicted.
+     */
+    private void evict(int keptIndex)
+    {
+        if (this.compression == Compression.NONE && this.source == null) return;
+
+        Iterator<Map.Entry<Integer, Integer>> iter = this.lruIndices.entrySet().iterator();
+        while (((long) this.lruIndices.size()) * this.chunkByteCount > this.byteBudget && iter.hasNext())
+        {
+            int index = iter.next().getKey();
+            if (index == keptIndex) continue;
+
+            // unmodified chunks of the source can be read again
+            boolean inSource = this.source != null && !this.dirty[index] && this.compressedChunks[index] == null;
+            if (!inSource && this.compression == Compression.NONE) continue;
+            
+            if (!inSource && (this.dirty[index] || this.compressedChunks[index] == null))
+            {
+                this.compressedChunks[index] = compress(this.chunks[index].array());
+            }
+            this.chunks[index] = null;
+            this.dirty[index] = false;
+            iter.remove();
+        }
+    }
+
+    private static final byte[] compress(byte[] data)
+    {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try
+        {
+            deflater.setInput(data);
+            deflater.finish();
+            java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream(data.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished())
+            {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+}
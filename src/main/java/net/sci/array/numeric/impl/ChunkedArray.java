@@ -0,0 +1,62 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import java.util.List;
+
+import net.sci.array.Array;
+
+/**
+ * An array whose elements are stored within a regular grid of chunks, managed
+ * by a ChunkStore.
+ *
+ * Operators can process chunked arrays one chunk at a time, by iterating over
+ * the list of chunks returned by the <code>chunks()</code> method.
+ *
+ * @see ChunkStore
+ * @see Chunk
+ * @see net.sci.array.numeric.process.ChunkwiseOperator
+ *
+ * @param <T>
+ *            the type of the elements
+ *
+ * @author dlegland
+ */
+public interface ChunkedArray<T> extends Array<T>
+{
+    /**
+     * @return the store containing the chunks of this array
+     */
+    public ChunkStore chunkStore();
+
+    /**
+     * @return the size of the chunks along each dimension
+     */
+    public default int[] chunkSizes()
+    {
+        return chunkStore().chunkSizes();
+    }
+
+    /**
+     * Returns the list of chunks of this array, without halo.
+     *
+     * @return the list of chunks covering this array
+     */
+    public default List<Chunk> chunks()
+    {
+        return chunks(new int[dimensionality()]);
+    }
+
+    /**
+     * Returns the list of chunks of this array, with the specified halo.
+     *
+     * @param halo
+     *            the margin to add to each chunk along each dimension
+     * @return the list of chunks covering this array
+     */
+    public default List<Chunk> chunks(int[] halo)
+    {
+        return Chunk.grid(size(), chunkSizes(), halo);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.numeric.Float32;
+import net.sci.array.numeric.Float32Array3D;
+
+/**
+ * Implementation of Float32Array3D that stores the elements within a grid of
+ * fixed-size chunks, allocated at the first modification and compressed when
+ * they are not used.
+ *
+ * @see ChunkStore
+ * @see ChunkedFloat32ArrayND
+ *
+ * @author dlegland
+ *
+ */
+public class ChunkedFloat32Array3D extends Float32Array3D implements ChunkedArray<Float32>
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The store containing the chunks.
+     */
+    ChunkStore store;
+
+    /**
+     * The size of the chunks along each dimension.
+     */
+    int chunkSize0, chunkSize1, chunkSize2;
+
+    /**
+     * The number of chunks along the first two dimensions.
+     */
+    int gridSize0, gridSize1;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new chunked array, using Deflate compression for the chunks
+     * that are not used, and the default byte budget.
+     *
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     */
+    public ChunkedFloat32Array3D(int size0, int size1, int size2, int[] chunkSizes)
+    {
+        this(size0, size1, size2, chunkSizes, ChunkStore.Compression.DEFLATE, ChunkStore.DEFAULT_BYTE_BUDGET);
+    }
+
+    /**
+     * Creates a new chunked array.
+     *
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     * @param compression
+     *            the compression used for chunks that are not used
+     * @param byteBudget
+     *            the maximum number of bytes used by decompressed chunks
+     */
+    public ChunkedFloat32Array3D(int size0, int size1, int size2, int[] chunkSizes, ChunkStore.Compression compression, long byteBudget)
+    {
+        this(size0, size1, size2, new ChunkStore(new int[] {size0, size1, size2}, chunkSizes, 4, compression, byteBudget));
+    }
+
+    /**
+     * Creates a new chunked array using an existing chunk store, for example a
+     * store whose chunks are read from files.
+     *
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param store
+     *            the store containing the chunks, with 4 byte(s) per element
+     */
+    public ChunkedFloat32Array3D(int size0, int size1, int size2, ChunkStore store)
+    {
+        super(size0, size1, size2);
+        this.store = store;
+        int[] chunkSizes = store.chunkSizes();
+        this.chunkSize0 = chunkSizes[0];
+        this.chunkSize1 = chunkSizes[1];
+        this.chunkSize2 = chunkSizes[2];
+        int[] gridSizes = store.gridSizes();
+        this.gridSize0 = gridSizes[0];
+        this.gridSize1 = gridSizes[1];
+    }
+
+
+    // =============================================================
+    // Implementation of the ChunkedArray interface
+
+    @Override
+    public ChunkStore chunkStore()
+    {
+        return this.store;
+    }
+
+
+    // =============================================================
+    // Implementation of the Float32Array3D class
+
+    @Override
+    public float getFloat(int x, int y, int z)
+    {
+        int cx = x / chunkSize0, cy = y / chunkSize1, cz = z / chunkSize2;
+        int chunkIndex = cx + gridSize0 * (cy + gridSize1 * cz);
+        int localIndex = (x - cx * chunkSize0) + chunkSize0 * ((y - cy * chunkSize1) + chunkSize1 * (z - cz * chunkSize2));
+        return this.store.getFloat(chunkIndex, localIndex);
+    }
+
+    @Override
+    public void setFloat(int x, int y, int z, float value)
+    {
+        int cx = x / chunkSize0, cy = y / chunkSize1, cz = z / chunkSize2;
+        int chunkIndex = cx + gridSize0 * (cy + gridSize1 * cz);
+        int localIndex = (x - cx * chunkSize0) + chunkSize0 * ((y - cy * chunkSize1) + chunkSize1 * (z - cz * chunkSize2));
+        this.store.putFloat(chunkIndex, localIndex, value);
+    }
+
+
+    // =============================================================
+    // Specialization of the Array interface
+
+    @Override
+    public ChunkedFloat32Array3D duplicate()
+    {
+        return new ChunkedFloat32Array3D(size0, size1, size2, this.store.duplicate());
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.ArrayND;
+import net.sci.array.numeric.Float32;
+import net.sci.array.numeric.Float32Array;
+
+/**
+ * Implementation of multi-dimensional Float32Array that stores the elements
+ * within a grid of fixed-size chunks, allocated at the first modification and
+ * compressed when they are not used.
+ *
+ * @see ChunkStore
+ * @see ChunkedFloat32Array3D
+ *
+ * @author dlegland
+ *
+ */
+public class ChunkedFloat32ArrayND extends ArrayND<Float32> implements Float32Array, ChunkedArray<Float32>
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The store containing the chunks.
+     */
+    ChunkStore store;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new chunked array, using Deflate compression for the chunks
+     * that are not used, and the default byte budget.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     */
+    public ChunkedFloat32ArrayND(int[] sizes, int[] chunkSizes)
+    {
+        this(sizes, chunkSizes, ChunkStore.Compression.DEFLATE, ChunkStore.DEFAULT_BYTE_BUDGET);
+    }
+
+    /**
+     * Creates a new chunked array.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     * @param compression
+     *            the compression used for chunks that are not used
+     * @param byteBudget
+     *            the maximum number of bytes used by decompressed chunks
+     */
+    public ChunkedFloat32ArrayND(int[] sizes, int[] chunkSizes, ChunkStore.Compression compression, long byteBudget)
+    {
+        this(sizes, new ChunkStore(sizes, chunkSizes, 4, compression, byteBudget));
+    }
+
+    /**
+     * Creates a new chunked array using an existing chunk store, for example a
+     * store whose chunks are read from files.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param store
+     *            the store containing the chunks, with 4 byte(s) per element
+     */
+    public ChunkedFloat32ArrayND(int[] sizes, ChunkStore store)
+    {
+        super(sizes);
+        this.store = store;
+    }
+
+
+    // =============================================================
+    // Implementation of the ChunkedArray interface
+
+    @Override
+    public ChunkStore chunkStore()
+    {
+        return this.store;
+    }
+
+
+    // =============================================================
+    // Implementation of the Float32Array interface
+
+    @Override
+    public float getFloat(int[] pos)
+    {
+        return this.store.getFloat(this.store.chunkIndex(pos), this.store.localIndex(pos));
+    }
+
+    @Override
+    public void setFloat(int[] pos, float value)
+    {
+        this.store.putFloat(this.store.chunkIndex(pos), this.store.localIndex(pos), value);
+    }
+
+    @Override
+    public Float32 get(int[] pos)
+    {
+        return new Float32(getFloat(pos));
+    }
+
+    @Override
+    public void set(int[] pos, Float32 value)
+    {
+        setFloat(pos, value.floatValue());
+    }
+
+
+    // =============================================================
+    // Specialization of the Array interface
+
+    @Override
+    public ChunkedFloat32ArrayND duplicate()
+    {
+        return new ChunkedFloat32ArrayND(this.sizes, this.store.duplicate());
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.ArrayND;
+import net.sci.array.numeric.UInt16;
+import net.sci.array.numeric.UInt16Array;
+
+/**
+ * Implementation of multi-dimensional UInt16Array that stores the elements
+ * within a grid of fixed-size chunks, allocated at the first modification and
+ * compressed when they are not used.
+ *
+ * @see ChunkStore
+ * @see ChunkedUInt16Array3D
+ *
+ * @author dlegland
+ *
+ */
+public class ChunkedUInt16ArrayND extends ArrayND<UInt16> implements UInt16Array, ChunkedArray<UInt16>
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The store containing the chunks.
+     */
+    ChunkStore store;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new chunked array, using Deflate compression for the chunks
+     * that are not used, and the default byte budget.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     */
+    public ChunkedUInt16ArrayND(int[] sizes, int[] chunkSizes)
+    {
+        this(sizes, chunkSizes, ChunkStore.Compression.DEFLATE, ChunkStore.DEFAULT_BYTE_BUDGET);
+    }
+
+    /**
+     * Creates a new chunked array.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     * @param compression
+     *            the compression used for chunks that are not used
+     * @param byteBudget
+     *            the maximum number of bytes used by decompressed chunks
+     */
+    public ChunkedUInt16ArrayND(int[] sizes, int[] chunkSizes, ChunkStore.Compression compression, long byteBudget)
+    {
+        this(sizes, new ChunkStore(sizes, chunkSizes, 2, compression, byteBudget));
+    }
+
+    /**
+     * Creates a new chunked array using an existing chunk store, for example a
+     * store whose chunks are read from files.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param store
+     *            the store containing the chunks, with 2 byte(s) per element
+     */
+    public ChunkedUInt16ArrayND(int[] sizes, ChunkStore store)
+    {
+        super(sizes);
+        this.store = store;
+    }
+
+
+    // =============================================================
+    // Implementation of the ChunkedArray interface
+
+    @Override
+    public ChunkStore chunkStore()
+    {
+        return this.store;
+    }
+
+
+    // =============================================================
+    // Implementation of the UInt16Array interface
+
+    @Override
+    public short getShort(int[] pos)
+    {
+        return this.store.getShort(this.store.chunkIndex(pos), this.store.localIndex(pos));
+    }
+
+    @Override
+    public void setShort(int[] pos, short value)
+    {
+        this.store.putShort(this.store.chunkIndex(pos), this.store.localIndex(pos), value);
+    }
+
+    @Override
+    public UInt16 get(int[] pos)
+    {
+        return new UInt16(getShort(pos));
+    }
+
+    @Override
+    public void set(int[] pos, UInt16 value)
+    {
+        setShort(pos, value.getShort());
+    }
+
+
+    // =============================================================
+    // Specialization of the Array interface
+
+    @Override
+    public ChunkedUInt16ArrayND duplicate()
+    {
+        return new ChunkedUInt16ArrayND(this.sizes, this.store.duplicate());
+    }
+}
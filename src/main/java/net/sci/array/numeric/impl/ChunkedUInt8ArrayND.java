@@ -0,0 +1,128 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.ArrayND;
+import net.sci.array.numeric.UInt8;
+import net.sci.array.numeric.UInt8Array;
+
+/**
+ * Implementation of multi-dimensional UInt8Array that stores the elements
+ * within a grid of fixed-size chunks, allocated at the first modification and
+ * compressed when they are not used.
+ *
+ * @see ChunkStore
+ * @see ChunkedUInt8Array3D
+ *
+ * @author dlegland
+ *
+ */
+public class ChunkedUInt8ArrayND extends ArrayND<UInt8> implements UInt8Array, ChunkedArray<UInt8>
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The store containing the chunks.
+     */
+    ChunkStore store;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new chunked array, using Deflate compression for the chunks
+     * that are not used, and the default byte budget.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     */
+    public ChunkedUInt8ArrayND(int[] sizes, int[] chunkSizes)
+    {
+        this(sizes, chunkSizes, ChunkStore.Compression.DEFLATE, ChunkStore.DEFAULT_BYTE_BUDGET);
+    }
+
+    /**
+     * Creates a new chunked array.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param chunkSizes
+     *            the size of the chunks along each dimension
+     * @param compression
+     *            the compression used for chunks that are not used
+     * @param byteBudget
+     *            the maximum number of bytes used by decompressed chunks
+     */
+    public ChunkedUInt8ArrayND(int[] sizes, int[] chunkSizes, ChunkStore.Compression compression, long byteBudget)
+    {
+        this(sizes, new ChunkStore(sizes, chunkSizes, 1, compression, byteBudget));
+    }
+
+    /**
+     * Creates a new chunked array using an existing chunk store, for example a
+     * store whose chunks are read from files.
+     *
+     * @param sizes
+     *            the dimensions of this array
+     * @param store
+     *            the store containing the chunks, with 1 byte(s) per element
+     */
+    public ChunkedUInt8ArrayND(int[] sizes, ChunkStore store)
+    {
+        super(sizes);
+        this.store = store;
+    }
+
+
+    // =============================================================
+    // Implementation of the ChunkedArray interface
+
+    @Override
+    public ChunkStore chunkStore()
+    {
+        return this.store;
+    }
+
+
+    // =============================================================
+    // Implementation of the UInt8Array interface
+
+    @Override
+    public byte getByte(int[] pos)
+    {
+        return this.store.getByte(this.store.chunkIndex(pos), this.store.localIndex(pos));
+    }
+
+    @Override
+    public void setByte(int[] pos, byte value)
+    {
+        this.store.putByte(this.store.chunkIndex(pos), this.store.localIndex(pos), value);
+    }
+
+    @Override
+    public UInt8 get(int[] pos)
+    {
+        return new UInt8(getByte(pos));
+    }
+
+    @Override
+    public void set(int[] pos, UInt8 value)
+    {
+        setByte(pos, value.getByte());
+    }
+
+
+    // =============================================================
+    // Specialization of the Array interface
+
+    @Override
+    public ChunkedUInt8ArrayND duplicate()
+    {
+        return new ChunkedUInt8ArrayND(this.sizes, this.store.duplicate());
+    }
+}
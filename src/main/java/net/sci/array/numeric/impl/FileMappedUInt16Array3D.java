@@ -4,28 +4,50 @@
 package net.sci.array.numeric.impl;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.ShortBuffer;
-import java.nio.channels.FileChannel;
 import java.util.Arrays;
 
 import net.sci.array.numeric.UInt16Array2D;
 import net.sci.array.numeric.UInt16Array3D;
 
 /**
- * Map the content of a binary file onto a 3D array of Float32.
+ * Map the content of a binary file onto a 3D array of UInt16.
  * 
- * The data must be contiguous within the file, and not compressed. 
+ * The data must be contiguous within each slice, and not compressed. The
+ * slices are mapped into memory with MappedByteBuffer instances, and the most
+ * recently used slices are kept in a cache, whose capacity can be changed with
+ * the <code>setCacheCapacity()</code> method. When a slice is accessed for the
+ * first time, the next slices are mapped together with it ("read-ahead"), so
+ * that sequential access along the z-axis only requires few mapping
+ * operations.
  * 
- * For convenience, the data for the current slice are cached in a float buffer.
+ * When the array is created in writable mode, the modifications are written
+ * into the file, at the latest when the <code>close()</code> method is called.
  * 
  * @author dlegland
  *
  */
 public class FileMappedUInt16Array3D extends UInt16Array3D
 {
+    // =============================================================
+    // Static methods
+    
+    /**
+     * Computes the offset of each slice, assuming the slices are stored
+     * contiguously within the file.
+     */
+    private static final long[] computeOffsets(long offset, long sliceByteCount, int sliceCount)
+    {
+        long[] offsets = new long[sliceCount];
+        for (int z = 0; z < sliceCount; z++)
+        {
+            offsets[z] = offset + z * sliceByteCount;
+        }
+        return offsets;
+    }
+    
+    
     // =============================================================
     // Class variables
     
@@ -40,27 +62,14 @@ public class FileMappedUInt16Array3D extends UInt16Array3D
     long[] offsets;
     
     /**
-     * The file channel used to read the data from the file.
+     * The cache of slices mapped from the file.
      */
-    FileChannel fileChannel = null;
-    RandomAccessFile raf = null;
+    MappedSliceCache cache;
     
     /**
-     * The buffer of bytes for the current slice. A Float buffer based on this
-     * buffer is created when constructor is invoked.
+     * Specifies whether the data of the file can be modified.
      */
-    ByteBuffer byteBuffer;
-    
-    /**
-     * Index of the current slice (updated when reading data at different z-value).
-     */
-    int currentSliceIndex = -1;
-    
-    /**
-     * The current slice (updated when reading data at different z-value).
-     */
-    UInt16Array2D currentSlice;
-
+    boolean writable;
     
     
     // =============================================================
@@ -73,158 +82,160 @@ public class FileMappedUInt16Array3D extends UInt16Array3D
 
     public FileMappedUInt16Array3D(String filePath, long offset, int size0, int size1, int size2, ByteOrder byteOrder)
     {
-        super(size0, size1, size2);
-        this.filePath = filePath;
-
-        // initialize slice offset, assuming there are fully packed
-        long sliceItemCount = size0 * size1 * 2;
-        this.offsets = new long[size2];
-        for (int z = 0; z < size2; z++)
-        {
-            this.offsets[z] = offset + z * sliceItemCount;
-        }
+        this(filePath, offset, size0, size1, size2, byteOrder, false);
+    }
 
-        initializeSliceData(byteOrder);
+    /**
+     * Maps the content of a file containing contiguous slices.
+     * 
+     * @param filePath
+     *            the name of the file containing the data
+     * @param offset
+     *            the position of the first slice within the file
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param byteOrder
+     *            the order of the bytes within the file
+     * @param writable
+     *            if true, the file is mapped in read-write mode, and the
+     *            modifications of the array are written into the file
+     */
+    public FileMappedUInt16Array3D(String filePath, long offset, int size0, int size1, int size2, ByteOrder byteOrder, boolean writable)
+    {
+        this(filePath, computeOffsets(offset, ((long) size0) * size1 * 2, size2), size0, size1, size2, byteOrder, writable);
     }
 
     public FileMappedUInt16Array3D(String filePath, long[] offsets, int size0, int size1, int size2, ByteOrder byteOrder)
+    {
+        this(filePath, offsets, size0, size1, size2, byteOrder, false);
+    }
+    
+    /**
+     * Maps the content of a file by specifying the position of each slice.
+     * 
+     * @param filePath
+     *            the name of the file containing the data
+     * @param offsets
+     *            the position of each slice within the file
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param byteOrder
+     *            the order of the bytes within the file
+     * @param writable
+     *            if true, the file is mapped in read-write mode, and the
+     *            modifications of the array are written into the file
+     */
+    public FileMappedUInt16Array3D(String filePath, long[] offsets, int size0, int size1, int size2, ByteOrder byteOrder, boolean writable)
     {
         super(size0, size1, size2);
         this.filePath = filePath;
+        this.writable = writable;
         
         // secure copy of offset array
         this.offsets = Arrays.copyOf(offsets, size2);
-
-        initializeSliceData(byteOrder);
-    }
-    
-    private void initializeSliceData(ByteOrder byteOrder)
-    {
-        // initialize a byte buffer for storing current slice data
-        byte[] byteArray = new byte[size0 * size1 * 2];
-        this.byteBuffer = ByteBuffer.wrap(byteArray);
-        this.byteBuffer.order(byteOrder);
         
-        // wrap the byte buffer into an UInt16Array2D
-        ShortBuffer buffer = this.byteBuffer.asShortBuffer();
-        this.currentSlice = new ShortBufferUInt16Array2D(size0, size1, buffer);
+        this.cache = new MappedSliceCache(filePath, this.offsets, size0 * size1 * 2, byteOrder, writable);
     }
     
-    private void ensureCurrentSliceIndex(int index)
-    {
-        if (index != this.currentSliceIndex)
-        {
-            try
-            {
-                setCurrentSliceIndex(index);
-            }
-            catch(IOException ex)
-            {
-                throw new RuntimeException("Problem occured when reading slice index " + index, ex);
-            }
-        }
-    }
-
-    private void setCurrentSliceIndex(int index) throws IOException
+    
+    // =============================================================
+    // Cache management
+    
+    /**
+     * Changes the maximum number of slices kept mapped into memory.
+     * 
+     * @param capacity
+     *            the maximum number of slices within the cache
+     */
+    public void setCacheCapacity(int capacity)
     {
-        if (index < 0 || index > this.size2)
-        {
-            throw new IllegalArgumentException("Slice index must be comprised between 0 and " + this.size2);
-        }
-        this.currentSliceIndex = index;
-        readCurrentSlice();
+        this.cache.setCapacity(capacity);
     }
     
-
-    private void readCurrentSlice()
+    /**
+     * Changes the number of slices mapped together with a slice that is
+     * accessed for the first time. Use zero to map the slices one by one.
+     * 
+     * @param sliceCount
+     *            the number of slices to map after a missing slice
+     */
+    public void setReadAhead(int sliceCount)
     {
-        try
-        {
-            ensureFileChannelIsOpen();
-
-            // reset position of inner byte buffer
-            this.byteBuffer.position(0);
-
-            // read data
-            this.fileChannel.read(this.byteBuffer, this.offsets[currentSliceIndex]);
-        }
-        catch(IOException ex)
-        {
-            throw new RuntimeException("Problem occured when reading slice index " + currentSliceIndex, ex);
-        }
+        this.cache.setReadAhead(sliceCount);
     }
     
-    private void ensureFileChannelIsOpen() throws IOException
+    /**
+     * Writes the modifications of the array into the file. Does nothing if
+     * the array is not writable.
+     */
+    public void flush()
     {
-        if (this.fileChannel == null)
-        {
-            this.raf = new RandomAccessFile(this.filePath, "r");
-            this.fileChannel = raf.getChannel();
-        }
+        this.cache.flush();
     }
     
     /**
-     * Closes the underlying input stream.
+     * Writes the modifications of the array into the file if the array is
+     * writable, and closes the underlying file channel.
      * 
      * @throws IOException
+     *             if an I/O error occurs
      */
     public void close() throws IOException
     {
-        if (this.fileChannel != null)
-        {
-            this.fileChannel.close();
-        }
-        if (this.raf != null)
-        {
-            this.raf.close();
-            this.raf = null;
-        }
+        this.cache.close();
     }
     
+    
     // =============================================================
     // Implementation of the UInt16Array3D interface
     
     /**
-     * Updates the cache data with that of the selected slice index, and returns
-     * the array corresponding to the slice data.
-     * 
-     * Note that data will become invalid at the next call to this function. The
-     * use of the duplicate() method is encouraged to ensure validity of slice
-     * data.
+     * Returns a 2D view on the data of the selected slice. The view remains
+     * valid after the slice has been removed from the cache.
      */
     public UInt16Array2D slice(int sliceIndex)
     {
-        ensureCurrentSliceIndex(sliceIndex);
-        return this.currentSlice;
+        ShortBuffer buffer = this.cache.buffer(sliceIndex).asShortBuffer();
+        return new ShortBufferUInt16Array2D(size0, size1, buffer);
     }
     
     @Override
     public short getShort(int x, int y, int z)
     {
-        ensureCurrentSliceIndex(z);
-        return this.currentSlice.getShort(x, y);
+        return this.cache.buffer(z).getShort((x + y * this.size0) * 2);
     }
 
     @Override
-    public void setShort(int x, int y, int z, short f)
+    public void setShort(int x, int y, int z, short value)
     {
-        throw new RuntimeException("Modification of data in FileMappedUInt16Array3D is not available");
+        if (!this.writable)
+        {
+            throw new RuntimeException("Modification of data in FileMappedUInt16Array3D requires writable mode");
+        }
+        this.cache.buffer(z).putShort((x + y * this.size0) * 2, value);
     }
     
     /**
-     * Returns false, as the view can not be modified.
+     * Returns true if the array was created in writable mode.
      * 
-     * @return false
+     * @return true if the array can be modified
      */
     public boolean isModifiable()
     {
-        return false;
+        return this.writable;
     }
     
     @Override
     public double getValue(int[] pos)
     {
-        ensureCurrentSliceIndex(pos[2]);
-        return this.currentSlice.getShort(pos[0], pos[1]);
+        return (getShort(pos[0], pos[1], pos[2]) & 0x00FFFF);
     }
 }
@@ -4,26 +4,48 @@
 package net.sci.array.numeric.impl;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
-import net.sci.array.numeric.UInt8Array2D;
 import net.sci.array.numeric.UInt8Array3D;
 
 /**
  * Map the content of a binary file onto a 3D array of UInt8.
  * 
- * The data must be contiguous within the file, and not compressed. 
+ * The data must be contiguous within each slice, and not compressed. The
+ * slices are mapped into memory with MappedByteBuffer instances, and the most
+ * recently used slices are kept in a cache, whose capacity can be changed with
+ * the <code>setCacheCapacity()</code> method. When a slice is accessed for the
+ * first time, the next slices are mapped together with it ("read-ahead"), so
+ * that sequential access along the z-axis only requires few mapping
+ * operations.
  * 
- * For convenience, the data for the current slice are cached in a byte array.
+ * When the array is created in writable mode, the modifications are written
+ * into the file, at the latest when the <code>close()</code> method is called.
  * 
  * @author dlegland
  *
  */
 public class FileMappedUInt8Array3D extends UInt8Array3D
 {
+    // =============================================================
+    // Static methods
+    
+    /**
+     * Computes the offset of each slice, assuming the slices are stored
+     * contiguously within the file.
+     */
+    private static final long[] computeOffsets(long offset, long sliceByteCount, int sliceCount)
+    {
+        long[] offsets = new long[sliceCount];
+        for (int z = 0; z < sliceCount; z++)
+        {
+            offsets[z] = offset + z * sliceByteCount;
+        }
+        return offsets;
+    }
+    
+    
     // =============================================================
     // Class variables
     
@@ -38,25 +60,14 @@ public class FileMappedUInt8Array3D extends UInt8Array3D
     long[] offsets;
     
     /**
-     * The file channel used to read the data from the file.
+     * The cache of slices mapped from the file.
      */
-    FileChannel fileChannel = null;
-    RandomAccessFile raf = null;
+    MappedSliceCache cache;
     
     /**
-     * The array of byte for the current slice.
+     * Specifies whether the data of the file can be modified.
      */
-    byte[] byteArray;
-    
-    /**
-     * Index of the current slice (updated when reading data at different z-value).
-     */
-    int currentSliceIndex = -1;
-    
-    /**
-     * The current slice (updated when reading data at different z-value).
-     */
-    UInt8Array2D currentSlice;
+    boolean writable;
     
     
     // =============================================================
@@ -64,140 +75,140 @@ public class FileMappedUInt8Array3D extends UInt8Array3D
     
     public FileMappedUInt8Array3D(String filePath, long offset, int size0, int size1, int size2)
     {
-        super(size0, size1, size2);
-        this.filePath = filePath;
-        // use a long to avoid negative result when computing offset
-        long sliceItemCount = size0 * size1;
-        
-        // initialize slice offset, assuming there are fully packed
-        this.offsets = new long[size2];
-        for (int z = 0; z < size2; z++)
-        {
-            this.offsets[z] = offset + z * sliceItemCount;
-        }
+        this(filePath, offset, size0, size1, size2, false);
+    }
 
-        // initialize current cached slice
-        this.byteArray = new byte[(int) sliceItemCount];
-        this.currentSlice = UInt8Array2D.wrap(this.byteArray, size0, size1);
+    /**
+     * Maps the content of a file containing contiguous slices.
+     * 
+     * @param filePath
+     *            the name of the file containing the data
+     * @param offset
+     *            the position of the first slice within the file
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param writable
+     *            if true, the file is mapped in read-write mode, and the
+     *            modifications of the array are written into the file
+     */
+    public FileMappedUInt8Array3D(String filePath, long offset, int size0, int size1, int size2, boolean writable)
+    {
+        this(filePath, computeOffsets(offset, ((long) size0) * size1, size2), size0, size1, size2, writable);
     }
 
     public FileMappedUInt8Array3D(String filePath, long[] offsets, int size0, int size1, int size2)
+    {
+        this(filePath, offsets, size0, size1, size2, false);
+    }
+
+    /**
+     * Maps the content of a file by specifying the position of each slice.
+     * 
+     * @param filePath
+     *            the name of the file containing the data
+     * @param offsets
+     *            the position of each slice within the file
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param writable
+     *            if true, the file is mapped in read-write mode, and the
+     *            modifications of the array are written into the file
+     */
+    public FileMappedUInt8Array3D(String filePath, long[] offsets, int size0, int size1, int size2, boolean writable)
     {
         super(size0, size1, size2);
         this.filePath = filePath;
+        this.writable = writable;
         
         // secure copy of offset array
         this.offsets = Arrays.copyOf(offsets, size2);
-
-        // initialize current cached slice
-        this.byteArray = new byte[size0 * size1];
-        this.currentSlice = UInt8Array2D.wrap(this.byteArray, size0, size1);
-    }
-
-    private void ensureCurrentSliceIndex(int index)
-    {
-        if (index != this.currentSliceIndex)
-        {
-            try
-            {
-                setCurrentSliceIndex(index);
-            }
-            catch(IOException ex)
-            {
-                throw new RuntimeException("Problem occured when reading slice index " + index, ex);
-            }
-        }
+        
+        this.cache = new MappedSliceCache(filePath, this.offsets, size0 * size1, ByteOrder.nativeOrder(), writable);
     }
-
-    private void setCurrentSliceIndex(int index) throws IOException
+    
+    
+    // =============================================================
+    // Cache management
+    
+    /**
+     * Changes the maximum number of slices kept mapped into memory.
+     * 
+     * @param capacity
+     *            the maximum number of slices within the cache
+     */
+    public void setCacheCapacity(int capacity)
     {
-        if (index < 0 || index > this.size2)
-        {
-            throw new IllegalArgumentException("Slice index must be comprised between 0 and " + this.size2);
-        }
-        this.currentSliceIndex = index;
-        readCurrentSlice();
+        this.cache.setCapacity(capacity);
     }
     
-
-    private void readCurrentSlice()
+    /**
+     * Changes the number of slices mapped together with a slice that is
+     * accessed for the first time. Use zero to map the slices one by one.
+     * 
+     * @param sliceCount
+     *            the number of slices to map after a missing slice
+     */
+    public void setReadAhead(int sliceCount)
     {
-        ByteBuffer buffer = ByteBuffer.wrap(this.byteArray);
-        try
-        {
-            ensureFileChannelIsOpen();
-            this.fileChannel.read(buffer, this.offsets[currentSliceIndex]);
-        }
-        catch(IOException ex)
-        {
-            throw new RuntimeException("Problem occured when reading slice index " + currentSliceIndex, ex);
-        }
+        this.cache.setReadAhead(sliceCount);
     }
     
-    private void ensureFileChannelIsOpen() throws IOException
+    /**
+     * Writes the modifications of the array into the file. Does nothing if
+     * the array is not writable.
+     */
+    public void flush()
     {
-        if (this.fileChannel == null)
-        {
-            this.raf = new RandomAccessFile(this.filePath, "r");
-            this.fileChannel = raf.getChannel();
-        }
+        this.cache.flush();
     }
     
     /**
-     * Closes the underlying input stream.
+     * Writes the modifications of the array into the file if the array is
+     * writable, and closes the underlying file channel.
      * 
      * @throws IOException
+     *             if an I/O error occurs
      */
     public void close() throws IOException
     {
-        if (this.fileChannel != null)
-        {
-            this.fileChannel.close();
-        }
-        if (this.raf != null)
-        {
-            this.raf.close();
-            this.raf = null;
-        }
+        this.cache.close();
     }
     
+    
     // =============================================================
     // Implementation of the UInt8Array3D interface
     
-    /**
-     * Updates the cache data with that of the selected slice index, and returns
-     * the array corresponding to the slice data.
-     * 
-     * Note that data will become invalid at the next call to this function. The
-     * use of the duplicate() method is encouraged to ensure validity of slice
-     * data.
-     */
-    public UInt8Array2D slice(int sliceIndex)
-    {
-        ensureCurrentSliceIndex(sliceIndex);
-        return this.currentSlice;
-    }
-    
     @Override
     public byte getByte(int x, int y, int z)
     {
-        ensureCurrentSliceIndex(z);
-        return this.currentSlice.getByte(x, y);
+        return this.cache.buffer(z).get(x + y * this.size0);
     }
 
     @Override
-    public void setByte(int x, int y, int z, byte b)
+    public void setByte(int x, int y, int z, byte value)
     {
-        throw new RuntimeException("Modification of data in FileMappedUInt8Array3D is not available");
+        if (!this.writable)
+        {
+            throw new RuntimeException("Modification of data in FileMappedUInt8Array3D requires writable mode");
+        }
+        this.cache.buffer(z).put(x + y * this.size0, value);
     }
     
     /**
-     * Returns false, as the view can not be modified.
+     * Returns true if the array was created in writable mode.
      * 
-     * @return false
+     * @return true if the array can be modified
      */
     public boolean isModifiable()
     {
-        return false;
-    }    
+        return this.writable;
+    }
 }
@@ -0,0 +1,412 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
+import net.sci.array.numeric.Scalar;
+import net.sci.array.numeric.ScalarArray;
+
+/**
+ * Virtual scalar array whose values are computed from an expression tree of
+ * element-wise operations.
+ *
+ * The operations applied on a lazy array (plus, times, min, mapValues...) do
+ * not compute any value, but return a new lazy array that records the
+ * operation. Consecutive unary operations are fused into a single function.
+ * The values are computed when they are requested, or when the whole array is
+ * materialized with the <code>materialize()</code> or the
+ * <code>writeTo()</code> methods, in a single pass over the source arrays.
+ *
+ * Intermediate values are computed in double precision. The conversion to the
+ * type of the source array (for example the clamping to [0, 255] for UInt8
+ * arrays) is applied only once, when the values are written into a concrete
+ * array.
+ *
+ * {@snippet lang="java" :
+ * UInt16Array3D array = ...;
+ * // no intermediate array is created
+ * ScalarArray<?> res = array.lazy().minus(100).times(2.5).max(0).min(4095).materialize();
+ * }
+ *
+ * @see ScalarArray#lazy()
+ * @see FunctionViewUInt8Array
+ *
+ * @param <S>
+ *            the type of scalar contained within the source array
+ *
+ * @author dlegland
+ */
+public abstract class LazyScalarArray<S extends Scalar<S>> implements ScalarArray<S>
+{
+    // =============================================================
+    // Static factory
+
+    /**
+     * Creates a lazy view of the specified array. The view has the same values
+     * as the array, and can be used as the root of a chain of lazy operations.
+     *
+     * @param <S>
+     *            the type of scalar contained within the array
+     * @param array
+     *            the array to wrap
+     * @return a lazy view of the array
+     */
+    public static final <S extends Scalar<S>> LazyScalarArray<S> of(ScalarArray<S> array)
+    {
+        if (array instanceof LazyScalarArray)
+        {
+            return (LazyScalarArray<S>) array;
+        }
+        return new Source<S>(array);
+    }
+
+
+    // =============================================================
+    // Class members
+
+    /**
+     * The array that determines the size and the type of this array.
+     */
+    ScalarArray<S> base;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Initializes the base array of this lazy array.
+     *
+     * @param base
+     *            the array that determines the size and the type of this array
+     */
+    protected LazyScalarArray(ScalarArray<S> base)
+    {
+        this.base = base;
+    }
+
+
+    // =============================================================
+    // Materialization methods
+
+    /**
+     * Computes the values of this lazy array, and returns them within a new
+     * array with the same type as the source array.
+     *
+     * @return a new array containing the values of this lazy array
+     */
+    public ScalarArray<S> materialize()
+    {
+        ScalarArray<S> res = this.base.newInstance(this.base.size());
+        writeTo(res);
+        return res;
+    }
+
+    /**
+     * Computes the values of this lazy array, and writes them into the
+     * specified array, in a single pass.
+     *
+     * @param target
+     *            the array to put the result in. Must have the same size as
+     *            this array.
+     * @return the reference to the target array
+     */
+    public ScalarArray<?> writeTo(ScalarArray<?> target)
+    {
+        if (!Arrays.isSameSize(this, target))
+        {
+            throw new IllegalArgumentException("Target array must have same size as input array");
+        }
+
+        Cursor cursor = cursor();
+        while (cursor.hasNext())
+        {
+            cursor.forward();
+            target.setValue(cursor, getValue(cursor));
+        }
+        return target;
+    }
+
+
+    // =============================================================
+    // Lazy operations
+
+    /**
+     * Returns a lazy array that combines the values of this array with the
+     * values of another array, using the specified function.
+     *
+     * @param other
+     *            the array containing the second argument of the function.
+     *            Must have the same size as this array.
+     * @param fun
+     *            the function used to combine the values
+     * @return a lazy array recording the operation
+     */
+    public LazyScalarArray<S> combine(ScalarArray<?> other, DoubleBinaryOperator fun)
+    {
+        if (!Arrays.isSameSize(this, other))
+        {
+            throw new IllegalArgumentException("Both arrays must have same size");
+        }
+        return new Binary<S>(this, other, fun);
+    }
+
+    /**
+     * Returns a lazy array whose values are obtained by applying the specified
+     * function on the values of this array.
+     *
+     * @param fun
+     *            the function to apply
+     * @return a lazy array recording the operation
+     */
+    @Override
+    public LazyScalarArray<S> mapValues(DoubleUnaryOperator fun)
+    {
+        return new Unary<S>(this, fun);
+    }
+
+    @Override
+    public LazyScalarArray<S> plus(double v)
+    {
+        return mapValues(x -> x + v);
+    }
+
+    @Override
+    public LazyScalarArray<S> minus(double v)
+    {
+        return mapValues(x -> x - v);
+    }
+
+    @Override
+    public LazyScalarArray<S> times(double k)
+    {
+        return mapValues(x -> x * k);
+    }
+
+    @Override
+    public LazyScalarArray<S> divideBy(double k)
+    {
+        return mapValues(x -> x / k);
+    }
+
+    @Override
+    public LazyScalarArray<S> min(double v)
+    {
+        return mapValues(x -> Math.min(x, v));
+    }
+
+    @Override
+    public LazyScalarArray<S> max(double v)
+    {
+        return mapValues(x -> Math.max(x, v));
+    }
+
+    /**
+     * Returns this array, as it is already lazy.
+     *
+     * @return this array
+     */
+    @Override
+    public LazyScalarArray<S> lazy()
+    {
+        return this;
+    }
+
+
+    // =============================================================
+    // Implementation of the ScalarArray interface
+
+    @Override
+    public void setValue(int[] pos, double value)
+    {
+        throw new RuntimeException("Can not modify a lazy array.");
+    }
+
+    @Override
+    public S createElement(double value)
+    {
+        return this.base.createElement(value);
+    }
+
+    @Override
+    public ScalarArray<S> newInstance(int... dims)
+    {
+        return this.base.newInstance(dims);
+    }
+
+    @Override
+    public ScalarArray.Factory<S> factory()
+    {
+        return this.base.factory();
+    }
+
+    /**
+     * Returns a new array containing the values of this lazy array.
+     *
+     * @see #materialize()
+     */
+    @Override
+    public ScalarArray<S> duplicate()
+    {
+        return materialize();
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public S get(int[] pos)
+    {
+        return createElement(getValue(pos));
+    }
+
+    @Override
+    public void set(int[] pos, S value)
+    {
+        throw new RuntimeException("Can not modify a lazy array.");
+    }
+
+    /**
+     * Returns false, as a lazy array can not be modified.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isModifiable()
+    {
+        return false;
+    }
+
+    @Override
+    public Class<S> elementClass()
+    {
+        return this.base.elementClass();
+    }
+
+    @Override
+    public int dimensionality()
+    {
+        return this.base.dimensionality();
+    }
+
+    @Override
+    public int[] size()
+    {
+        return this.base.size();
+    }
+
+    @Override
+    public int size(int dim)
+    {
+        return this.base.size(dim);
+    }
+
+
+    // =============================================================
+    // Implementation of the nodes of the expression tree
+
+    /**
+     * The leaf of the expression tree, that returns the values of a concrete
+     * array.
+     */
+    static class Source<S extends Scalar<S>> extends LazyScalarArray<S>
+    {
+        Source(ScalarArray<S> array)
+        {
+            super(array);
+        }
+
+        @Override
+        public LazyScalarArray<S> mapValues(DoubleUnaryOperator fun)
+        {
+            return new Unary<S>(this.base, fun);
+        }
+
+        @Override
+        public double getValue(int[] pos)
+        {
+            return this.base.getValue(pos);
+        }
+
+        @Override
+        public double getValue(Cursor cursor)
+        {
+            return this.base.getValue(cursor);
+        }
+    }
+
+    /**
+     * Applies a function on the values of another array. Consecutive unary
+     * nodes are fused by composing their functions.
+     */
+    static class Unary<S extends Scalar<S>> extends LazyScalarArray<S>
+    {
+        ScalarArray<?> operand;
+        DoubleUnaryOperator fun;
+
+        Unary(ScalarArray<S> operand, DoubleUnaryOperator fun)
+        {
+            this(operand, operand, fun);
+        }
+
+        private Unary(ScalarArray<S> base, ScalarArray<?> operand, DoubleUnaryOperator fun)
+        {
+            super(base);
+            this.operand = operand;
+            this.fun = fun;
+        }
+
+        @Override
+        public LazyScalarArray<S> mapValues(DoubleUnaryOperator fun)
+        {
+            return new Unary<S>(this.base, this.operand, this.fun.andThen(fun));
+        }
+
+        @Override
+        public double getValue(int[] pos)
+        {
+            return this.fun.applyAsDouble(this.operand.getValue(pos));
+        }
+
+        @Override
+        public double getValue(Cursor cursor)
+        {
+            return this.fun.applyAsDouble(this.operand.getValue(cursor));
+        }
+    }
+
+    /**
+     * Combines the values of two arrays using a binary function.
+     */
+    static class Binary<S extends Scalar<S>> extends LazyScalarArray<S>
+    {
+        ScalarArray<S> left;
+        ScalarArray<?> right;
+        DoubleBinaryOperator fun;
+
+        Binary(LazyScalarArray<S> left, ScalarArray<?> right, DoubleBinaryOperator fun)
+        {
+            super(left.base);
+            this.left = left instanceof Source ? left.base : left;
+            this.right = right instanceof Source ? ((Source<?>) right).base : right;
+            this.fun = fun;
+        }
+
+        @Override
+        public double getValue(int[] pos)
+        {
+            return this.fun.applyAsDouble(this.left.getValue(pos), this.right.getValue(pos));
+        }
+
+        @Override
+        public double getValue(Cursor cursor)
+        {
+            return this.fun.applyAsDouble(this.left.getValue(cursor), this.right.getValue(cursor));
+        }
+    }
+}
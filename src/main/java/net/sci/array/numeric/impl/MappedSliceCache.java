@@ -0,0 +1,331 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Maps the slices of a 3D array stored within a binary file into memory, and
+ * keeps the most recently used slices in a cache.
+ *
+ * Each slice is mapped with a MappedByteBuffer, so that the data are read
+ * (and written) by the operating system when they are accessed. When a slice
+ * is not within the cache, the following slices are mapped within the same
+ * region ("read-ahead"), provided they are contiguous within the file. When
+ * the number of cached slices exceeds the capacity of the cache, the least
+ * recently used slices are removed from the cache.
+ *
+ * The retrieval of an already cached slice does not require synchronization,
+ * making it possible to read the data from several threads.
+ *
+ * @see FileMappedUInt8Array3D
+ * @see FileMappedUInt16Array3D
+ * @see FileMappedInt16Array3D
+ * @see FileMappedFloat32Array3D
+ *
+ * @author dlegland
+ */
+class MappedSliceCache
+{
+    // =============================================================
+    // Constants
+
+    /**
+     * The default number of slices kept in the cache.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The default number of slices mapped after a slice that is not within
+     * the cache.
+     */
+    public static final int DEFAULT_READ_AHEAD = 4;
+
+
+    // =============================================================
+    // Class variables
+
+    /**
+     * The name of the file containing the data.
+     */
+    String filePath;
+
+    /**
+     * The position in the file corresponding to the beginning of each slice.
+     */
+    long[] offsets;
+
+    /**
+     * The number of bytes used to store a slice.
+     */
+    int sliceByteCount;
+
+    /**
+     * The byte order of the mapped buffers.
+     */
+    ByteOrder byteOrder;
+
+    /**
+     * Specifies whether the file is mapped in read-write mode.
+     */
+    boolean writable;
+
+    /**
+     * The maximum number of slices kept in the cache.
+     */
+    int capacity = DEFAULT_CAPACITY;
+
+    /**
+     * The number of slices to map after a slice that is not within the cache.
+     */
+    int readAhead = DEFAULT_READ_AHEAD;
+
+    /**
+     * The mapped buffers of the cached slices, indexed by slice index, or null
+     * if the slice is not within the cache.
+     */
+    AtomicReferenceArray<ByteBuffer> buffers;
+
+    /**
+     * The time of last access to each slice, used to identify the least
+     * recently used slices. Updated without synchronization, as an approximate
+     * access order is sufficient.
+     */
+    long[] accessTimes;
+
+    /**
+     * The counter used to generate access times.
+     */
+    long clock = 0;
+
+    /**
+     * The number of slices within the cache.
+     */
+    int cachedCount = 0;
+
+    /**
+     * The file channel used to map the data from the file.
+     */
+    FileChannel fileChannel = null;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Creates a new cache of mapped slices.
+     *
+     * @param filePath
+     *            the name of the file containing the data
+     * @param offsets
+     *            the position in the file of the beginning of each slice
+     * @param sliceByteCount
+     *            the number of bytes used to store a slice
+     * @param byteOrder
+     *            the byte order of the data within the file
+     * @param writable
+     *            true if the file must be mapped in read-write mode
+     */
+    public MappedSliceCache(String filePath, long[] offsets, int sliceByteCount, ByteOrder byteOrder, boolean writable)
+    {
+        this.filePath = filePath;
+        this.offsets = offsets;
+        this.sliceByteCount = sliceByteCount;
+        this.byteOrder = byteOrder;
+        this.writable = writable;
+        this.buffers = new AtomicReferenceArray<ByteBuffer>(offsets.length);
+        this.accessTimes = new long[offsets.length];
+    }
+
+
+    // =============================================================
+    // Settings
+
+    /**
+     * Changes the maximum number of slices kept in the cache.
+     *
+     * @param capacity
+     *            the maximum number of slices kept in the cache
+     */
+    public synchronized void setCapacity(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Cache capacity must be at least one");
+        }
+        this.capacity = capacity;
+        evict();
+    }
+
+    /**
+     * Changes the number of slices mapped after a slice that is not within
+     * the cache. A value of zero disables read-ahead.
+     *
+     * @param readAhead
+     *            the number of slices to map after a missing slice
+     */
+    public synchronized void setReadAhead(int readAhead)
+    {
+        if (readAhead < 0)
+        {
+            throw new IllegalArgumentException("Read-ahead must be positive or zero");
+        }
+        this.readAhead = readAhead;
+    }
+
+
+    // =============================================================
+    // Methods
+
+    /**
+     * Returns the buffer containing the data of the specified slice, mapping
+     * the slice if necessary. The returned buffer should be accessed only with
+     * absolute get and put methods.
+     *
+     * @param index
+     *            the index of the slice
+     * @return the buffer containing the data of the slice.
+     */
+    public ByteBuffer buffer(int index)
+    {
+        ByteBuffer buffer = this.buffers.get(index);
+        if (buffer == null)
+        {
+            return mapSlice(index);
+        }
+        this.accessTimes[index] = ++this.clock;
+        return buffer;
+    }
+
+    private synchronized ByteBuffer mapSlice(int index)
+    {
+        // check if another thread has mapped the slice in the mean time
+        if (this.buffers.get(index) != null)
+        {
+            return this.buffers.get(index);
+        }
+
+        try
+        {
+            ensureFileChannelIsOpen();
+
+            // identify the number of contiguous slices that can be mapped together
+            long fileSize = this.writable ? Long.MAX_VALUE : this.fileChannel.size();
+            int maxCount = Math.min(this.readAhead + 1, this.capacity);
+            int count = 1;
+            while (count < maxCount && index + count < this.offsets.length)
+            {
+                long offset = this.offsets[index + count];
+                if (offset != this.offsets[index] + ((long) count) * this.sliceByteCount) break;
+                if (offset + this.sliceByteCount > fileSize) break;
+                if (this.buffers.get(index + count) != null) break;
+                count++;
+            }
+
+            // map the whole region, and split into slices
+            FileChannel.MapMode mode = this.writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            MappedByteBuffer region = this.fileChannel.map(mode, this.offsets[index], ((long) count) * this.sliceByteCount);
+            for (int i = count - 1; i >= 0; i--)
+            {
+                ByteBuffer slice = region.slice(i * this.sliceByteCount, this.sliceByteCount).order(this.byteOrder);
+                this.buffers.set(index + i, slice);
+                this.accessTimes[index + i] = ++this.clock;
+                this.cachedCount++;
+            }
+        }
+        catch (IOException ex)
+        {
+            throw new RuntimeException("Problem occured when mapping slice index " + index, ex);
+        }
+
+        evict();
+        return this.buffers.get(index);
+    }
+
+    /**
+     * Removes the least recently used slices until the number of cached
+     * slices is within the capacity.
+     */
+    private void evict()
+    {
+        while (this.cachedCount > this.capacity)
+        {
+            // find the least recently used slice
+            int lruIndex = -1;
+            long minTime = Long.MAX_VALUE;
+            for (int i = 0; i < this.offsets.length; i++)
+            {
+                if (this.buffers.get(i) != null && this.accessTimes[i] < minTime)
+                {
+                    lruIndex = i;
+                    minTime = this.accessTimes[i];
+                }
+            }
+
+            // remove it from the cache
+            if (this.writable)
+            {
+                ((MappedByteBuffer) this.buffers.get(lruIndex)).force();
+            }
+            this.buffers.set(lruIndex, null);
+            this.cachedCount--;
+        }
+    }
+
+    private void ensureFileChannelIsOpen() throws IOException
+    {
+        if (this.fileChannel == null)
+        {
+            this.fileChannel = this.writable
+                    ? FileChannel.open(Paths.get(this.filePath), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+                    : FileChannel.open(Paths.get(this.filePath), StandardOpenOption.READ);
+        }
+    }
+
+    /**
+     * Writes the modifications of the cached slices to the file. Does nothing
+     * if the file is mapped in read-only mode.
+     */
+    public synchronized void flush()
+    {
+        if (!this.writable) return;
+        for (int i = 0; i < this.offsets.length; i++)
+        {
+            ByteBuffer buffer = this.buffers.get(i);
+            if (buffer != null)
+            {
+                ((MappedByteBuffer) buffer).force();
+            }
+        }
+    }
+
+    /**
+     * Writes the modifications to the file, empties the cache, and closes the
+     * file channel.
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public synchronized void close() throws IOException
+    {
+        flush();
+        for (int i = 0; i < this.offsets.length; i++)
+        {
+            this.buffers.set(i, null);
+        }
+        this.cachedCount = 0;
+        if (this.fileChannel != null)
+        {
+            this.fileChannel.close();
+            this.fileChannel = null;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A buffer of primitive values allocated outside of the java heap, and
+ * addressed with a long index. The memory is split into several direct byte
+ * buffers ("chunks") of at most 1 GB, making it possible to store more than
+ * 2^31 elements.
+ *
+ * As the chunk size is a multiple of the element size, an element never
+ * spans two chunks. The memory is released when the buffer is garbage
+ * collected. The total amount of memory that can be allocated is limited by
+ * the <code>-XX:MaxDirectMemorySize</code> option of the virtual machine.
+ *
+ * @see OffHeapUInt8ArrayFactory
+ * @see OffHeapUInt16ArrayFactory
+ * @see OffHeapFloat32ArrayFactory
+ * @see OffHeapFloat64ArrayFactory
+ *
+ * @author dlegland
+ */
+public final class OffHeapBuffer
+{
+    // =============================================================
+    // Constants
+
+    /**
+     * The binary logarithm of the maximum number of bytes within a chunk.
+     */
+    private static final int CHUNK_SHIFT = 30;
+
+    /**
+     * The mask used to compute the byte offset within a chunk.
+     */
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+
+    // =============================================================
+    // Class fields
+
+    /**
+     * The number of elements within this buffer.
+     */
+    private final long elementCount;
+
+    /**
+     * The binary logarithm of the number of bytes used to store an element.
+     */
+    private final int elementShift;
+
+    /**
+     * The direct byte buffers storing the data.
+     */
+    private final ByteBuffer[] chunks;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Allocates a new off-heap buffer. The elements are initialized to zero.
+     *
+     * @param elementCount
+     *            the number of elements to store
+     * @param elementSize
+     *            the number of bytes used to store an element. Must be either
+     *            1, 2, 4 or 8.
+     */
+    public OffHeapBuffer(long elementCount, int elementSize)
+    {
+        if (elementCount < 0)
+        {
+            throw new IllegalArgumentException("Element count must be positive");
+        }
+        if (Integer.bitCount(elementSize) != 1 || elementSize > 8)
+        {
+            throw new IllegalArgumentException("Element size must be either 1, 2, 4 or 8, not: " + elementSize);
+        }
+        this.elementCount = elementCount;
+        this.elementShift = Integer.numberOfTrailingZeros(elementSize);
+
+        long byteCount = elementCount << this.elementShift;
+        int nChunks = (int) ((byteCount + CHUNK_MASK) >>> CHUNK_SHIFT);
+        this.chunks = new ByteBuffer[nChunks];
+        for (int i = 0; i < nChunks; i++)
+        {
+            int chunkSize = (int) Math.min(byteCount - (((long) i) << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+            this.chunks[i] = ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.nativeOrder());
+        }
+    }
+
+
+    // =============================================================
+    // General methods
+
+    /**
+     * @return the number of elements within this buffer
+     */
+    public long elementCount()
+    {
+        return this.elementCount;
+    }
+
+    /**
+     * Creates a new buffer with the same content as this buffer.
+     *
+     * @return a copy of this buffer.
+     */
+    public OffHeapBuffer duplicate()
+    {
+        OffHeapBuffer res = new OffHeapBuffer(this.elementCount, 1 << this.elementShift);
+        for (int i = 0; i < this.chunks.length; i++)
+        {
+            res.chunks[i].put(0, this.chunks[i], 0, this.chunks[i].capacity());
+        }
+        return res;
+    }
+
+
+    // =============================================================
+    // Accessors
+
+    /**
+     * Returns the byte value at the specified element index.
+     *
+     * @param index
+     *            the index of the element
+     * @return the byte value at the specified index
+     */
+    public byte getByte(long index)
+    {
+        return this.chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    }
+
+    /**
+     * Changes the byte value at the specified element index.
+     *
+     * @param index
+     *            the index of the element
+     * @param value
+     *            the new value
+     */
+    public void putByte(long index, byte value)
+    {
+        this.chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    }
+
+    /**
+     * Returns the short value at the specified element index.
+     *
+     * @param index
+     *            the index of the element
+     * @return the short value at the specified index
+     */
+    public short getShort(long index)
+    {
+        long offset = index << 1;
+        return this.chunks[(int) (offset >>> CHUNK_SHIFT)].getShort((int) (offset & CHUNK_MASK));
+    }
+
+    /**
+     * Changes the short value at the specified element index.
+     *
+     * @param index
+     *            the index of the element
+     * @param value
+     *            the new value
+     */
+    public void putShort(long index, short value)
+    {
+        long offset = index << 1;
+        this.chunks[(int) (offset >>> CHUNK_SHIFT)].putShort((int) (offset & CHUNK_MASK), value);
+    }
+
+    /**
+     * Returns the float value at the specified element index.
+     *
+     * @param index
+     *            the index of the element
+     * @return the float value at the specified index
+     */
+    public float getFloat(long index)
+    {
+        long offset = index << 2;
+        return this.chunks[(int) (offset >>> CHUNK_SHIFT)].getFloat((int) (offset & CHUNK_MASK));
+    }
+
+    /**
+     * Changes the float value at the specified element index.
+     *
+     * @param index
+     *            the index of the element
+     * @param value
+     *            the new value
+     */
+    public void putFloat(long index, float value)
+    {
+        long offset = index << 2;
+        this.chunks[(int) (offset >>> CHUNK_SHIFT)].putFloat((int) (offset & CHUNK_MASK), value);
+    }
+
+    /**
+     * Returns the double value at the specified element index.
+     *
+     * @param index
+     *            the index of the element
+     * @return the double value at the specified index
+     */
+    public double getDouble(long index)
+    {
+        long offset = index << 3;
+        return this.chunks[(int) (offset >>> CHUNK_SHIFT)].getDouble((int) (offset & CHUNK_MASK));
+    }
+
+    /**
+     * Changes the double value at the specified element index.
+     *
+     * @param index
+     *            the index of the element
+     * @param value
+     *            the new value
+     */
+    public void putDouble(long index, double value)
+    {
+        long offset = index << 3;
+        this.chunks[(int) (offset >>> CHUNK_SHIFT)].putDouble((int) (offset & CHUNK_MASK), value);
+    }
+}
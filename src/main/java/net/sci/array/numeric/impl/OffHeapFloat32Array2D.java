@@ -0,0 +1,195 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.Cursor;
+import net.sci.array.numeric.Float32;
+import net.sci.array.numeric.Float32Array;
+import net.sci.array.numeric.Float32Array2D;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of Float32Array2D that stores inner data in an off-heap
+ * buffer of floats.
+ *
+ * @see BufferedFloat32Array2D
+ * @see OffHeapBuffer
+ * @see OffHeapFloat32ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapFloat32Array2D extends Float32Array2D
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     */
+    public OffHeapFloat32Array2D(int size0, int size1)
+    {
+        super(size0, size1);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(size0, size1), 4);
+    }
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapFloat32Array2D(int size0, int size1, OffHeapBuffer buffer)
+    {
+        super(size0, size1);
+        if (buffer.elementCount() < MathUtils.prod(size0, size1))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Implementation of the Float32Array2D class
+
+    @Override
+    public float getFloat(int x, int y)
+    {
+        return this.buffer.getFloat(x + ((long) y) * this.size0);
+    }
+
+    @Override
+    public void setFloat(int x, int y, float value)
+    {
+        this.buffer.putFloat(x + ((long) y) * this.size0, value);
+    }
+
+    @Override
+    public float getFloat(Cursor cursor)
+    {
+        return this.buffer.getFloat(cursor.index());
+    }
+
+    @Override
+    public void setFloat(Cursor cursor, float value)
+    {
+        this.buffer.putFloat(cursor.index(), value);
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return buffer.getFloat(index);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public Float32Array newInstance(int... dims)
+    {
+        return OffHeapFloat32ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public Float32Array.Factory factory()
+    {
+        return OffHeapFloat32ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapFloat32Array2D duplicate()
+    {
+        return new OffHeapFloat32Array2D(this.size0, this.size1, this.buffer.duplicate());
+    }
+
+    @Override
+    public Float32Array.Iterator iterator()
+    {
+        return new Float32Iterator();
+    }
+
+    private class Float32Iterator implements Float32Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public Float32Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public Float32 next()
+        {
+            this.index++;
+            return new Float32(buffer.getFloat(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public float getFloat()
+        {
+            return buffer.getFloat(index);
+        }
+
+        @Override
+        public void setFloat(float value)
+        {
+            buffer.putFloat(index, value);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.numeric.Float32;
+import net.sci.array.numeric.Float32Array;
+
+/**
+ * A factory for Float32 arrays that allocates the array values outside of the java
+ * heap. The number of elements within the created arrays is not limited by
+ * the maximum size of java arrays, making it possible to process arrays with
+ * more than 2^31 elements.
+ *
+ * One-dimensional arrays are created as instances of OffHeapFloat32ArrayND.
+ *
+ * Example:
+ * <pre>{@code
+ * BoxFilter filter = new BoxFilter(new int[] {3, 3, 3});
+ * filter.setFactory(new OffHeapFloat32ArrayFactory());
+ * }</pre>
+ *
+ * @see OffHeapBuffer
+ * @see DenseFloat32ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapFloat32ArrayFactory extends AlgoStub implements Float32Array.Factory
+{
+    /**
+     * The factory returned by the off-heap Float32 arrays.
+     */
+    public static final OffHeapFloat32ArrayFactory offHeapFactory = new OffHeapFloat32ArrayFactory();
+
+    @Override
+    public Float32Array create(int... dims)
+    {
+        fireStatusChanged(this, "Allocating memory");
+        return switch (dims.length)
+        {
+            case 2 -> new OffHeapFloat32Array2D(dims[0], dims[1]);
+            case 3 -> new OffHeapFloat32Array3D(dims[0], dims[1], dims[2]);
+            default -> new OffHeapFloat32ArrayND(dims);
+        };
+    }
+
+    @Override
+    public Float32Array create(int[] dims, Float32 value)
+    {
+        Float32Array array = create(dims);
+        fireStatusChanged(this, "Fill default value");
+        array.fillValue(value.value());
+        return array;
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
+import net.sci.array.numeric.Float32;
+import net.sci.array.numeric.Float32Array;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of Float32Array with arbitrary dimensionality that stores
+ * inner data in an off-heap buffer of floats.
+ *
+ * @see BufferedFloat32ArrayND
+ * @see OffHeapBuffer
+ * @see OffHeapFloat32ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapFloat32ArrayND extends ArrayND<Float32> implements Float32Array
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     */
+    public OffHeapFloat32ArrayND(int[] sizes)
+    {
+        super(sizes);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(sizes), 4);
+    }
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapFloat32ArrayND(int[] sizes, OffHeapBuffer buffer)
+    {
+        super(sizes);
+        if (buffer.elementCount() < MathUtils.prod(sizes))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Private methods
+
+    private long linearIndex(int[] pos)
+    {
+        long index = 0;
+        long offset = 1;
+        for (int d = 0; d < pos.length; d++)
+        {
+            index += pos[d] * offset;
+            offset *= this.sizes[d];
+        }
+        return index;
+    }
+
+
+    // =============================================================
+    // Implementation of the Float32Array interface
+
+    @Override
+    public float getFloat(int[] pos)
+    {
+        return this.buffer.getFloat(linearIndex(pos));
+    }
+
+    @Override
+    public void setFloat(int[] pos, float value)
+    {
+        this.buffer.putFloat(linearIndex(pos), value);
+    }
+
+    @Override
+    public float getFloat(Cursor cursor)
+    {
+        return this.buffer.getFloat(cursor.index());
+    }
+
+    @Override
+    public void setFloat(Cursor cursor, float value)
+    {
+        this.buffer.putFloat(cursor.index(), value);
+    }
+
+    @Override
+    public Float32 get(int[] pos)
+    {
+        return new Float32(this.buffer.getFloat(linearIndex(pos)));
+    }
+
+    @Override
+    public void set(int[] pos, Float32 value)
+    {
+        this.buffer.putFloat(linearIndex(pos), value.floatValue());
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return buffer.getFloat(index);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public Float32Array newInstance(int... dims)
+    {
+        return OffHeapFloat32ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public Float32Array.Factory factory()
+    {
+        return OffHeapFloat32ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapFloat32ArrayND duplicate()
+    {
+        return new OffHeapFloat32ArrayND(this.sizes, this.buffer.duplicate());
+    }
+
+    @Override
+    public Float32Array.Iterator iterator()
+    {
+        return new Float32Iterator();
+    }
+
+    private class Float32Iterator implements Float32Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public Float32Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public Float32 next()
+        {
+            this.index++;
+            return new Float32(buffer.getFloat(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public float getFloat()
+        {
+            return buffer.getFloat(index);
+        }
+
+        @Override
+        public void setFloat(float value)
+        {
+            buffer.putFloat(index, value);
+        }
+    }
+}
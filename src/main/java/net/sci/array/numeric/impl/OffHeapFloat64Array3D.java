@@ -0,0 +1,200 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.Cursor;
+import net.sci.array.numeric.Float64;
+import net.sci.array.numeric.Float64Array;
+import net.sci.array.numeric.Float64Array3D;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of Float64Array3D that stores inner data in an off-heap
+ * buffer of doubles. As each value requires eight bytes, the buffer may
+ * contain more than 2^31 bytes even for moderately large volumes.
+ *
+ * @see BufferedFloat64Array3D
+ * @see OffHeapBuffer
+ * @see OffHeapFloat64ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapFloat64Array3D extends Float64Array3D
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     */
+    public OffHeapFloat64Array3D(int size0, int size1, int size2)
+    {
+        super(size0, size1, size2);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(size0, size1, size2), 8);
+    }
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapFloat64Array3D(int size0, int size1, int size2, OffHeapBuffer buffer)
+    {
+        super(size0, size1, size2);
+        if (buffer.elementCount() < MathUtils.prod(size0, size1, size2))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Implementation of the Float64Array3D class
+
+    @Override
+    public double getValue(int x, int y, int z)
+    {
+        return this.buffer.getDouble(x + this.size0 * (y + ((long) z) * this.size1));
+    }
+
+    @Override
+    public void setValue(int x, int y, int z, double value)
+    {
+        this.buffer.putDouble(x + this.size0 * (y + ((long) z) * this.size1), value);
+    }
+
+    @Override
+    public double getValue(Cursor cursor)
+    {
+        return this.buffer.getDouble(cursor.index());
+    }
+
+    @Override
+    public void setValue(Cursor cursor, double value)
+    {
+        this.buffer.putDouble(cursor.index(), value);
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return buffer.getDouble(index);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public Float64Array newInstance(int... dims)
+    {
+        return OffHeapFloat64ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public Float64Array.Factory factory()
+    {
+        return OffHeapFloat64ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapFloat64Array3D duplicate()
+    {
+        return new OffHeapFloat64Array3D(this.size0, this.size1, this.size2, this.buffer.duplicate());
+    }
+
+    @Override
+    public Float64Array.Iterator iterator()
+    {
+        return new Float64Iterator();
+    }
+
+    private class Float64Iterator implements Float64Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public Float64Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public Float64 next()
+        {
+            this.index++;
+            return new Float64(buffer.getDouble(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public double getValue()
+        {
+            return buffer.getDouble(index);
+        }
+
+        @Override
+        public void setValue(double value)
+        {
+            buffer.putDouble(index, value);
+        }
+    }
+}
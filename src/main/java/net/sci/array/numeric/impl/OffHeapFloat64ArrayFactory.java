@@ -0,0 +1,57 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.numeric.Float64;
+import net.sci.array.numeric.Float64Array;
+
+/**
+ * A factory for Float64 arrays that allocates the array values outside of the java
+ * heap. The number of elements within the created arrays is not limited by
+ * the maximum size of java arrays, making it possible to process arrays with
+ * more than 2^31 elements.
+ *
+ * One-dimensional arrays are created as instances of OffHeapFloat64ArrayND.
+ *
+ * Example:
+ * <pre>{@code
+ * BoxFilter filter = new BoxFilter(new int[] {3, 3, 3});
+ * filter.setFactory(new OffHeapFloat64ArrayFactory());
+ * }</pre>
+ *
+ * @see OffHeapBuffer
+ * @see DenseFloat64ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapFloat64ArrayFactory extends AlgoStub implements Float64Array.Factory
+{
+    /**
+     * The factory returned by the off-heap Float64 arrays.
+     */
+    public static final OffHeapFloat64ArrayFactory offHeapFactory = new OffHeapFloat64ArrayFactory();
+
+    @Override
+    public Float64Array create(int... dims)
+    {
+        fireStatusChanged(this, "Allocating memory");
+        return switch (dims.length)
+        {
+            case 2 -> new OffHeapFloat64Array2D(dims[0], dims[1]);
+            case 3 -> new OffHeapFloat64Array3D(dims[0], dims[1], dims[2]);
+            default -> new OffHeapFloat64ArrayND(dims);
+        };
+    }
+
+    @Override
+    public Float64Array create(int[] dims, Float64 value)
+    {
+        Float64Array array = create(dims);
+        fireStatusChanged(this, "Fill default value");
+        array.fillValue(value.value());
+        return array;
+    }
+}
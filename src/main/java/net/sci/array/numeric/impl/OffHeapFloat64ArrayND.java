@@ -0,0 +1,219 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
+import net.sci.array.numeric.Float64;
+import net.sci.array.numeric.Float64Array;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of Float64Array with arbitrary dimensionality that stores
+ * inner data in an off-heap buffer of doubles.
+ *
+ * @see BufferedFloat64ArrayND
+ * @see OffHeapBuffer
+ * @see OffHeapFloat64ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapFloat64ArrayND extends ArrayND<Float64> implements Float64Array
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     */
+    public OffHeapFloat64ArrayND(int[] sizes)
+    {
+        super(sizes);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(sizes), 8);
+    }
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapFloat64ArrayND(int[] sizes, OffHeapBuffer buffer)
+    {
+        super(sizes);
+        if (buffer.elementCount() < MathUtils.prod(sizes))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Private methods
+
+    private long linearIndex(int[] pos)
+    {
+        long index = 0;
+        long offset = 1;
+        for (int d = 0; d < pos.length; d++)
+        {
+            index += pos[d] * offset;
+            offset *= this.sizes[d];
+        }
+        return index;
+    }
+
+
+    // =============================================================
+    // Implementation of the Float64Array interface
+
+    @Override
+    public double getValue(int[] pos)
+    {
+        return this.buffer.getDouble(linearIndex(pos));
+    }
+
+    @Override
+    public void setValue(int[] pos, double value)
+    {
+        this.buffer.putDouble(linearIndex(pos), value);
+    }
+
+    @Override
+    public double getValue(Cursor cursor)
+    {
+        return this.buffer.getDouble(cursor.index());
+    }
+
+    @Override
+    public void setValue(Cursor cursor, double value)
+    {
+        this.buffer.putDouble(cursor.index(), value);
+    }
+
+    @Override
+    public Float64 get(int[] pos)
+    {
+        return new Float64(this.buffer.getDouble(linearIndex(pos)));
+    }
+
+    @Override
+    public void set(int[] pos, Float64 value)
+    {
+        this.buffer.putDouble(linearIndex(pos), value.value());
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return buffer.getDouble(index);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public Float64Array newInstance(int... dims)
+    {
+        return OffHeapFloat64ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public Float64Array.Factory factory()
+    {
+        return OffHeapFloat64ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapFloat64ArrayND duplicate()
+    {
+        return new OffHeapFloat64ArrayND(this.sizes, this.buffer.duplicate());
+    }
+
+    @Override
+    public Float64Array.Iterator iterator()
+    {
+        return new Float64Iterator();
+    }
+
+    private class Float64Iterator implements Float64Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public Float64Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public Float64 next()
+        {
+            this.index++;
+            return new Float64(buffer.getDouble(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public double getValue()
+        {
+            return buffer.getDouble(index);
+        }
+
+        @Override
+        public void setValue(double value)
+        {
+            buffer.putDouble(index, value);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.Cursor;
+import net.sci.array.numeric.UInt16;
+import net.sci.array.numeric.UInt16Array;
+import net.sci.array.numeric.UInt16Array2D;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of UInt16Array2D that stores inner data in an off-heap
+ * buffer, using two bytes for each value.
+ *
+ * @see BufferedUInt16Array2D
+ * @see OffHeapBuffer
+ * @see OffHeapUInt16ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapUInt16Array2D extends UInt16Array2D
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     */
+    public OffHeapUInt16Array2D(int size0, int size1)
+    {
+        super(size0, size1);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(size0, size1), 2);
+    }
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapUInt16Array2D(int size0, int size1, OffHeapBuffer buffer)
+    {
+        super(size0, size1);
+        if (buffer.elementCount() < MathUtils.prod(size0, size1))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Implementation of the UInt16Array2D class
+
+    @Override
+    public short getShort(int x, int y)
+    {
+        return this.buffer.getShort(x + ((long) y) * this.size0);
+    }
+
+    @Override
+    public void setShort(int x, int y, short value)
+    {
+        this.buffer.putShort(x + ((long) y) * this.size0, value);
+    }
+
+    @Override
+    public short getShort(Cursor cursor)
+    {
+        return this.buffer.getShort(cursor.index());
+    }
+
+    @Override
+    public void setShort(Cursor cursor, short value)
+    {
+        this.buffer.putShort(cursor.index(), value);
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return (buffer.getShort(index) & 0x00FFFF);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public UInt16Array newInstance(int... dims)
+    {
+        return OffHeapUInt16ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public UInt16Array.Factory factory()
+    {
+        return OffHeapUInt16ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapUInt16Array2D duplicate()
+    {
+        return new OffHeapUInt16Array2D(this.size0, this.size1, this.buffer.duplicate());
+    }
+
+    @Override
+    public UInt16Array.Iterator iterator()
+    {
+        return new UInt16Iterator();
+    }
+
+    private class UInt16Iterator implements UInt16Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public UInt16Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public UInt16 next()
+        {
+            this.index++;
+            return new UInt16(buffer.getShort(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public short getShort()
+        {
+            return buffer.getShort(index);
+        }
+
+        @Override
+        public void setShort(short value)
+        {
+            buffer.putShort(index, value);
+        }
+    }
+}
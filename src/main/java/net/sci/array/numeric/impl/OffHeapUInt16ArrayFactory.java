@@ -0,0 +1,57 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.numeric.UInt16;
+import net.sci.array.numeric.UInt16Array;
+
+/**
+ * A factory for UInt16 arrays that allocates the array values outside of the java
+ * heap. The number of elements within the created arrays is not limited by
+ * the maximum size of java arrays, making it possible to process arrays with
+ * more than 2^31 elements.
+ *
+ * One-dimensional arrays are created as instances of OffHeapUInt16ArrayND.
+ *
+ * Example:
+ * <pre>{@code
+ * BoxFilter filter = new BoxFilter(new int[] {3, 3, 3});
+ * filter.setFactory(new OffHeapUInt16ArrayFactory());
+ * }</pre>
+ *
+ * @see OffHeapBuffer
+ * @see DenseUInt16ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapUInt16ArrayFactory extends AlgoStub implements UInt16Array.Factory
+{
+    /**
+     * The factory returned by the off-heap UInt16 arrays.
+     */
+    public static final OffHeapUInt16ArrayFactory offHeapFactory = new OffHeapUInt16ArrayFactory();
+
+    @Override
+    public UInt16Array create(int... dims)
+    {
+        fireStatusChanged(this, "Allocating memory");
+        return switch (dims.length)
+        {
+            case 2 -> new OffHeapUInt16Array2D(dims[0], dims[1]);
+            case 3 -> new OffHeapUInt16Array3D(dims[0], dims[1], dims[2]);
+            default -> new OffHeapUInt16ArrayND(dims);
+        };
+    }
+
+    @Override
+    public UInt16Array create(int[] dims, UInt16 value)
+    {
+        UInt16Array array = create(dims);
+        fireStatusChanged(this, "Fill default value");
+        array.fillInt(value.intValue());
+        return array;
+    }
+}
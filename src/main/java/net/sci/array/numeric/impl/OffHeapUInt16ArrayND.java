@@ -0,0 +1,219 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
+import net.sci.array.numeric.UInt16;
+import net.sci.array.numeric.UInt16Array;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of UInt16Array with arbitrary dimensionality that stores
+ * inner data in an off-heap buffer of shorts.
+ *
+ * @see BufferedUInt16ArrayND
+ * @see OffHeapBuffer
+ * @see OffHeapUInt16ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapUInt16ArrayND extends ArrayND<UInt16> implements UInt16Array
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     */
+    public OffHeapUInt16ArrayND(int[] sizes)
+    {
+        super(sizes);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(sizes), 2);
+    }
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapUInt16ArrayND(int[] sizes, OffHeapBuffer buffer)
+    {
+        super(sizes);
+        if (buffer.elementCount() < MathUtils.prod(sizes))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Private methods
+
+    private long linearIndex(int[] pos)
+    {
+        long index = 0;
+        long offset = 1;
+        for (int d = 0; d < pos.length; d++)
+        {
+            index += pos[d] * offset;
+            offset *= this.sizes[d];
+        }
+        return index;
+    }
+
+
+    // =============================================================
+    // Implementation of the UInt16Array interface
+
+    @Override
+    public short getShort(int[] pos)
+    {
+        return this.buffer.getShort(linearIndex(pos));
+    }
+
+    @Override
+    public void setShort(int[] pos, short value)
+    {
+        this.buffer.putShort(linearIndex(pos), value);
+    }
+
+    @Override
+    public short getShort(Cursor cursor)
+    {
+        return this.buffer.getShort(cursor.index());
+    }
+
+    @Override
+    public void setShort(Cursor cursor, short value)
+    {
+        this.buffer.putShort(cursor.index(), value);
+    }
+
+    @Override
+    public UInt16 get(int[] pos)
+    {
+        return new UInt16(this.buffer.getShort(linearIndex(pos)));
+    }
+
+    @Override
+    public void set(int[] pos, UInt16 value)
+    {
+        this.buffer.putShort(linearIndex(pos), value.getShort());
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return (buffer.getShort(index) & 0x00FFFF);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public UInt16Array newInstance(int... dims)
+    {
+        return OffHeapUInt16ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public UInt16Array.Factory factory()
+    {
+        return OffHeapUInt16ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapUInt16ArrayND duplicate()
+    {
+        return new OffHeapUInt16ArrayND(this.sizes, this.buffer.duplicate());
+    }
+
+    @Override
+    public UInt16Array.Iterator iterator()
+    {
+        return new UInt16Iterator();
+    }
+
+    private class UInt16Iterator implements UInt16Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public UInt16Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public UInt16 next()
+        {
+            this.index++;
+            return new UInt16(buffer.getShort(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public short getShort()
+        {
+            return buffer.getShort(index);
+        }
+
+        @Override
+        public void setShort(short value)
+        {
+            buffer.putShort(index, value);
+        }
+    }
+}
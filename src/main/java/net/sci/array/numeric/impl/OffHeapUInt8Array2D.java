@@ -0,0 +1,195 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.Cursor;
+import net.sci.array.numeric.UInt8;
+import net.sci.array.numeric.UInt8Array;
+import net.sci.array.numeric.UInt8Array2D;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of UInt8Array2D that stores inner data in an off-heap
+ * buffer of bytes.
+ *
+ * @see BufferedUInt8Array2D
+ * @see OffHeapBuffer
+ * @see OffHeapUInt8ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapUInt8Array2D extends UInt8Array2D
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     */
+    public OffHeapUInt8Array2D(int size0, int size1)
+    {
+        super(size0, size1);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(size0, size1), 1);
+    }
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapUInt8Array2D(int size0, int size1, OffHeapBuffer buffer)
+    {
+        super(size0, size1);
+        if (buffer.elementCount() < MathUtils.prod(size0, size1))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Implementation of the UInt8Array2D class
+
+    @Override
+    public byte getByte(int x, int y)
+    {
+        return this.buffer.getByte(x + ((long) y) * this.size0);
+    }
+
+    @Override
+    public void setByte(int x, int y, byte value)
+    {
+        this.buffer.putByte(x + ((long) y) * this.size0, value);
+    }
+
+    @Override
+    public byte getByte(Cursor cursor)
+    {
+        return this.buffer.getByte(cursor.index());
+    }
+
+    @Override
+    public void setByte(Cursor cursor, byte value)
+    {
+        this.buffer.putByte(cursor.index(), value);
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return (buffer.getByte(index) & 0x00FF);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public UInt8Array newInstance(int... dims)
+    {
+        return OffHeapUInt8ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public UInt8Array.Factory factory()
+    {
+        return OffHeapUInt8ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapUInt8Array2D duplicate()
+    {
+        return new OffHeapUInt8Array2D(this.size0, this.size1, this.buffer.duplicate());
+    }
+
+    @Override
+    public UInt8Array.Iterator iterator()
+    {
+        return new UInt8Iterator();
+    }
+
+    private class UInt8Iterator implements UInt8Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public UInt8Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public UInt8 next()
+        {
+            this.index++;
+            return new UInt8(buffer.getByte(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public byte getByte()
+        {
+            return buffer.getByte(index);
+        }
+
+        @Override
+        public void setByte(byte value)
+        {
+            buffer.putByte(index, value);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.Cursor;
+import net.sci.array.numeric.UInt8;
+import net.sci.array.numeric.UInt8Array;
+import net.sci.array.numeric.UInt8Array3D;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of UInt8Array3D that stores inner data in an off-heap
+ * buffer of bytes, making it possible to work with volumes containing more
+ * than 2^31 voxels.
+ *
+ * @see BufferedUInt8Array3D
+ * @see OffHeapBuffer
+ * @see OffHeapUInt8ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapUInt8Array3D extends UInt8Array3D
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     */
+    public OffHeapUInt8Array3D(int size0, int size1, int size2)
+    {
+        super(size0, size1, size2);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(size0, size1, size2), 1);
+    }
+
+    /**
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapUInt8Array3D(int size0, int size1, int size2, OffHeapBuffer buffer)
+    {
+        super(size0, size1, size2);
+        if (buffer.elementCount() < MathUtils.prod(size0, size1, size2))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Implementation of the UInt8Array3D class
+
+    @Override
+    public byte getByte(int x, int y, int z)
+    {
+        return this.buffer.getByte(x + this.size0 * (y + ((long) z) * this.size1));
+    }
+
+    @Override
+    public void setByte(int x, int y, int z, byte value)
+    {
+        this.buffer.putByte(x + this.size0 * (y + ((long) z) * this.size1), value);
+    }
+
+    @Override
+    public byte getByte(Cursor cursor)
+    {
+        return this.buffer.getByte(cursor.index());
+    }
+
+    @Override
+    public void setByte(Cursor cursor, byte value)
+    {
+        this.buffer.putByte(cursor.index(), value);
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return (buffer.getByte(index) & 0x00FF);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public UInt8Array newInstance(int... dims)
+    {
+        return OffHeapUInt8ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public UInt8Array.Factory factory()
+    {
+        return OffHeapUInt8ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapUInt8Array3D duplicate()
+    {
+        return new OffHeapUInt8Array3D(this.size0, this.size1, this.size2, this.buffer.duplicate());
+    }
+
+    @Override
+    public UInt8Array.Iterator iterator()
+    {
+        return new UInt8Iterator();
+    }
+
+    private class UInt8Iterator implements UInt8Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public UInt8Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public UInt8 next()
+        {
+            this.index++;
+            return new UInt8(buffer.getByte(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public byte getByte()
+        {
+            return buffer.getByte(index);
+        }
+
+        @Override
+        public void setByte(byte value)
+        {
+            buffer.putByte(index, value);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.numeric.UInt8;
+import net.sci.array.numeric.UInt8Array;
+
+/**
+ * A factory for UInt8 arrays that allocates the array values outside of the java
+ * heap. The number of elements within the created arrays is not limited by
+ * the maximum size of java arrays, making it possible to process arrays with
+ * more than 2^31 elements.
+ *
+ * One-dimensional arrays are created as instances of OffHeapUInt8ArrayND.
+ *
+ * Example:
+ * <pre>{@code
+ * BoxFilter filter = new BoxFilter(new int[] {3, 3, 3});
+ * filter.setFactory(new OffHeapUInt8ArrayFactory());
+ * }</pre>
+ *
+ * @see OffHeapBuffer
+ * @see DenseUInt8ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapUInt8ArrayFactory extends AlgoStub implements UInt8Array.Factory
+{
+    /**
+     * The factory returned by the off-heap UInt8 arrays.
+     */
+    public static final OffHeapUInt8ArrayFactory offHeapFactory = new OffHeapUInt8ArrayFactory();
+
+    @Override
+    public UInt8Array create(int... dims)
+    {
+        fireStatusChanged(this, "Allocating memory");
+        return switch (dims.length)
+        {
+            case 2 -> new OffHeapUInt8Array2D(dims[0], dims[1]);
+            case 3 -> new OffHeapUInt8Array3D(dims[0], dims[1], dims[2]);
+            default -> new OffHeapUInt8ArrayND(dims);
+        };
+    }
+
+    @Override
+    public UInt8Array create(int[] dims, UInt8 value)
+    {
+        UInt8Array array = create(dims);
+        fireStatusChanged(this, "Fill default value");
+        array.fillInt(value.intValue());
+        return array;
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.ArrayND;
+import net.sci.array.Cursor;
+import net.sci.array.numeric.UInt8;
+import net.sci.array.numeric.UInt8Array;
+import net.sci.util.MathUtils;
+
+/**
+ * Implementation of UInt8Array with arbitrary dimensionality that stores
+ * inner data in an off-heap buffer of bytes. Also used for one-dimensional
+ * off-heap arrays.
+ *
+ * @see BufferedUInt8ArrayND
+ * @see OffHeapBuffer
+ * @see OffHeapUInt8ArrayFactory
+ *
+ * @author dlegland
+ *
+ */
+public class OffHeapUInt8ArrayND extends ArrayND<UInt8> implements UInt8Array
+{
+    // =============================================================
+    // Class fields
+
+    /**
+     * The off-heap buffer that stores array values.
+     */
+    OffHeapBuffer buffer;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     */
+    public OffHeapUInt8ArrayND(int[] sizes)
+    {
+        super(sizes);
+        this.buffer = new OffHeapBuffer(MathUtils.prod(sizes), 1);
+    }
+
+    /**
+     * @param sizes
+     *            the dimensions of this array
+     * @param buffer
+     *            the buffer containing the values
+     */
+    public OffHeapUInt8ArrayND(int[] sizes, OffHeapBuffer buffer)
+    {
+        super(sizes);
+        if (buffer.elementCount() < MathUtils.prod(sizes))
+        {
+            throw new IllegalArgumentException("Buffer size does not match array dimensions");
+        }
+        this.buffer = buffer;
+    }
+
+
+    // =============================================================
+    // Private methods
+
+    private long linearIndex(int[] pos)
+    {
+        long index = 0;
+        long offset = 1;
+        for (int d = 0; d < pos.length; d++)
+        {
+            index += pos[d] * offset;
+            offset *= this.sizes[d];
+        }
+        return index;
+    }
+
+
+    // =============================================================
+    // Implementation of the UInt8Array interface
+
+    @Override
+    public byte getByte(int[] pos)
+    {
+        return this.buffer.getByte(linearIndex(pos));
+    }
+
+    @Override
+    public void setByte(int[] pos, byte value)
+    {
+        this.buffer.putByte(linearIndex(pos), value);
+    }
+
+    @Override
+    public byte getByte(Cursor cursor)
+    {
+        return this.buffer.getByte(cursor.index());
+    }
+
+    @Override
+    public void setByte(Cursor cursor, byte value)
+    {
+        this.buffer.putByte(cursor.index(), value);
+    }
+
+    @Override
+    public UInt8 get(int[] pos)
+    {
+        return new UInt8(this.buffer.getByte(linearIndex(pos)));
+    }
+
+    @Override
+    public void set(int[] pos, UInt8 value)
+    {
+        this.buffer.putByte(linearIndex(pos), value.getByte());
+    }
+
+
+    // =============================================================
+    // Specialization of the ScalarArray interface
+
+    @Override
+    public java.util.PrimitiveIterator.OfDouble valueIterator()
+    {
+        return new ValueIterator();
+    }
+
+    /**
+     * Inner implementation of iterator on double values.
+     */
+    private class ValueIterator implements java.util.PrimitiveIterator.OfDouble
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public double nextDouble()
+        {
+            this.index++;
+            return (buffer.getByte(index) & 0x00FF);
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the Array interface
+
+    @Override
+    public UInt8Array newInstance(int... dims)
+    {
+        return OffHeapUInt8ArrayFactory.offHeapFactory.create(dims);
+    }
+
+    @Override
+    public UInt8Array.Factory factory()
+    {
+        return OffHeapUInt8ArrayFactory.offHeapFactory;
+    }
+
+    @Override
+    public OffHeapUInt8ArrayND duplicate()
+    {
+        return new OffHeapUInt8ArrayND(this.sizes, this.buffer.duplicate());
+    }
+
+    @Override
+    public UInt8Array.Iterator iterator()
+    {
+        return new UInt8Iterator();
+    }
+
+    private class UInt8Iterator implements UInt8Array.Iterator
+    {
+        long index = -1;
+        long indexMax = buffer.elementCount() - 1;
+
+        public UInt8Iterator()
+        {
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.index < this.indexMax;
+        }
+
+        @Override
+        public UInt8 next()
+        {
+            this.index++;
+            return new UInt8(buffer.getByte(index));
+        }
+
+        @Override
+        public void forward()
+        {
+            this.index++;
+        }
+
+        @Override
+        public byte getByte()
+        {
+            return buffer.getByte(index);
+        }
+
+        @Override
+        public void setByte(byte value)
+        {
+            buffer.putByte(index, value);
+        }
+    }
+}
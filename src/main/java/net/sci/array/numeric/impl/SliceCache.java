@@ -0,0 +1,599 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recently used slices of a virtual 3D array in memory, and
+ * reads the other slices on demand using a Loader.
+ *
+ * The number of slices kept in the cache is bounded, so that arrays larger than
+ * the available memory can be accessed. The default capacity is computed from
+ * a byte budget and the number of bytes of each slice. When the number of
+ * cached slices exceeds the capacity, the least recently used slices are
+ * removed from the cache.
+ *
+ * The retrieval of an already cached slice does not require synchronization.
+ * Slices are loaded outside of any lock, so that several threads can load
+ * different slices at the same time. Slices can also be loaded in advance by a
+ * background executor using the <code>prefetch()</code> method; a thread
+ * requesting a slice that is being prefetched waits for the end of the
+ * loading instead of reading the slice a second time.
+ *
+ * When a prefetch window is specified, the <code>getAndPrefetch()</code>
+ * method starts the loading of the next slices in the direction of the last
+ * accesses, making it possible to sweep through the slices without waiting
+ * for the reading of each slice.
+ *
+ * @see MappedSliceCache
+ * @see VirtualUInt8Array3D
+ * @see VirtualFloat32Array3D
+ *
+ * @param <S>
+ *            the type of the slices
+ *
+ * @author dlegland
+ */
+public class SliceCache<S>
+{
+    // =============================================================
+    // Inner interface
+
+    /**
+     * Reads the data of a slice.
+     *
+     * @param <S>
+     *            the type of the slices
+     */
+    @FunctionalInterface
+    public interface Loader<S>
+    {
+        /**
+         * Reads the slice with the specified index.
+         *
+         * @param index
+         *            the index of the slice
+         * @return the data of the slice
+         * @throws IOException
+         *             if the data could not be read
+         */
+        public S load(int index) throws IOException;
+    }
+
+
+    // =============================================================
+    // Constants
+
+    /**
+     * The default budget for the slices kept in memory, in bytes.
+     */
+    public static final long DEFAULT_BYTE_BUDGET = 256L * 1024 * 1024;
+
+    /**
+     * The minimum number of slices kept in the cache.
+     */
+    public static final int MIN_CAPACITY = 2;
+
+
+    // =============================================================
+    // Class variables
+
+    /**
+     * The object used to read the slices that are not within the cache.
+     */
+    Loader<? extends S> loader;
+
+    /**
+     * The maximum number of slices kept in the cache.
+     */
+    int capacity;
+
+    /**
+     * The cached slices, indexed by slice index, or null if the slice is not
+     * within the cache.
+     */
+    AtomicReferenceArray<S> slices;
+
+    /**
+     * The time of last access to each slice, used to identify the least
+     * recently used slices. Updated without synchronization, as an approximate
+     * access order is sufficient.
+     */
+    long[] accessTimes;
+
+    /**
+     * The counter used to generate access times.
+     */
+    long clock = 0;
+
+    /**
+     * The number of slices within the cache.
+     */
+    int cachedCount = 0;
+
+    /**
+     * The slices currently loaded by a background task, indexed by slice
+     * index.
+     */
+    ConcurrentHashMap<Integer, CompletableFuture<S>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The number of slices loaded in advance by the
+     * <code>getAndPrefetch()</code> method. Default is zero (no prefetching).
+     */
+    volatile int prefetchWindow = 0;
+
+    /**
+     * The executor used for loading slices in the background, or null for
+     * using the common pool.
+     */
+    volatile Executor executor = null;
+
+    /**
+     * The index of the last slice accessed with the
+     * <code>getAndPrefetch()</code> method, or -1.
+     */
+    AtomicInteger lastIndex = new AtomicInteger(-1);
+
+    /**
+     * The direction of the last slice accesses, either +1 or -1. When several
+     * threads access the slices, the direction corresponds to the most recent
+     * accesses, and only changes which slices are prefetched.
+     */
+    volatile int direction = 1;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new slice cache, whose capacity is computed from the default
+     * byte budget.
+     *
+     * @param sliceCount
+     *            the number of slices of the array
+     * @param sliceByteCount
+     *            the number of bytes used by each slice in memory
+     * @param loader
+     *            the object used to read the slices
+     */
+    public SliceCache(int sliceCount, long sliceByteCount, Loader<? extends S> loader)
+    {
+        this(sliceCount, capacityFromBudget(DEFAULT_BYTE_BUDGET, sliceByteCount), loader);
+    }
+
+    /**
+     * Creates a new slice cache with the specified capacity.
+     *
+     * @param sliceCount
+     *            the number of slices of the array
+     * @param capacity
+     *            the maximum number of slices kept in the cache
+     * @param loader
+     *            the object used to read the slices
+     */
+    public SliceCache(int sliceCount, int capacity, Loader<? extends S> loader)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Cache capacity must be at least one");
+        }
+        this.loader = loader;
+        this.capacity = capacity;
+        this.slices = new AtomicReferenceArray<S>(sliceCount);
+        this.accessTimes = new long[sliceCount];
+    }
+
+    /**
+     * Computes the number of slices that can be kept within a byte budget.
+     *
+     * @param byteBudget
+     *            the maximum number of bytes used by the cached slices
+     * @param sliceByteCount
+     *            the number of bytes used by each slice
+     * @return the number of slices within the budget, at least MIN_CAPACITY
+     */
+    public static final int capacityFromBudget(long byteBudget, long sliceByteCount)
+    {
+        long count = byteBudget / Math.max(sliceByteCount, 1);
+        return (int) Math.max(Math.min(count, Integer.MAX_VALUE), MIN_CAPACITY);
+    }
+
+
+    // =============================================================
+    // Settings
+
+    /**
+     * @return the maximum number of slices kept in the cache
+     */
+    public int capacity()
+    {
+        return this.capacity;
+    }
+
+    /**
+     * Changes the maximum number of slices kept in the cache.
+     *
+     * @param capacity
+     *            the maximum number of slices kept in the cache
+     */
+    public synchronized void setCapacity(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Cache capacity must be at least one");
+        }
+        this.capacity = capacity;
+        evict();
+    }
+
+    /**
+     * Changes the number of slices loaded in advance by the
+     * <code>getAndPrefetch()</code> method. The capacity of the cache is
+     * increased if necessary, so that the prefetched slices are not removed
+     * before being used.
+     *
+     * @param window
+     *            the number of slices to load in advance, or zero for
+     *            disabling prefetching
+     */
+    public synchronized void setPrefetchWindow(int window)
+    {
+        if (window < 0)
+        {
+            throw new IllegalArgumentException("Prefetch window must be positive or zero");
+        }
+        this.prefetchWindow = window;
+        if (this.capacity < window + 1)
+        {
+            this.capacity = window + 1;
+        }
+    }
+
+    /**
+     * @return the number of slices loaded in advance by the
+     *         <code>getAndPrefetch()</code> method
+     */
+    public int getPrefetchWindow()
+    {
+        return this.prefetchWindow;
+    }
+
+    /**
+     * Sets up the executor used for loading slices in the background, and for
+     * loading all slices.
+     *
+     * @param executor
+     *            the executor used for loading slices, or null for using the
+     *            common pool
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    private Executor executor()
+    {
+        Executor executor = this.executor;
+        return executor != null ? executor : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * @return the number of slices managed by this cache
+     */
+    public int sliceCount()
+    {
+        return this.slices.length();
+    }
+
+
+    // =============================================================
+    // Methods
+
+    /**
+     * Returns the slice with the specified index, loading it if necessary.
+     *
+     * @param index
+     *            the index of the slice
+     * @return the data of the slice
+     * @throws RuntimeException
+     *             if the slice could not be loaded
+     */
+    public S get(int index)
+    {
+        S slice = this.slices.get(index);
+        if (slice == null)
+        {
+            CompletableFuture<S> future = this.pending.get(index);
+            if (future != null)
+            {
+                return waitFor(future, index);
+            }
+            // the slice may have been prefetched in the mean time
+            slice = this.slices.get(index);
+            if (slice == null)
+            {
+                return load(index);
+            }
+        }
+        this.accessTimes[index] = ++this.clock;
+        return slice;
+    }
+
+    /**
+     * Returns the slice with the specified index, after having started the
+     * loading of the next slices if the index differs from the index of the
+     * previous call. The slices are prefetched in the direction of the last
+     * two accesses, within the limit of the prefetch window.
+     *
+     * @param index
+     *            the index of the slice
+     * @return the data of the slice
+     * @throws RuntimeException
+     *             if the slice could not be loaded
+     */
+    public S getAndPrefetch(int index)
+    {
+        int window = this.prefetchWindow;
+        if (window > 0)
+        {
+            int previous = this.lastIndex.getAndSet(index);
+            if (previous != index)
+            {
+                int dir = this.direction;
+                if (previous >= 0)
+                {
+                    dir = index > previous ? 1 : -1;
+                    this.direction = dir;
+                }
+
+                window = Math.min(window, this.capacity - 1);
+                Executor executor = executor();
+                for (int i = 1; i <= window; i++)
+                {
+                    prefetch(index + i * dir, executor);
+                }
+            }
+        }
+        return get(index);
+    }
+
+    /**
+     * Loads all the slices in parallel using the executor of this cache, and
+     * returns them in a new list. The slices that are already within the cache
+     * are not loaded again, and the loaded slices are not added to the cache.
+     *
+     * @return the list of all slices
+     * @throws IOException
+     *             if a slice could not be loaded
+     */
+    public List<S> loadAll() throws IOException
+    {
+        Executor executor = executor();
+        int n = this.slices.length();
+        ArrayList<CompletableFuture<S>> futures = new ArrayList<CompletableFuture<S>>(n);
+        for (int i = 0; i < n; i++)
+        {
+            final int index = i;
+            futures.add(CompletableFuture.supplyAsync(() -> isCached(index) ? get(index) : read(index), executor));
+        }
+
+        ArrayList<S> res = new ArrayList<S>(n);
+        for (CompletableFuture<S> future : futures)
+        {
+            res.add(waitFor(future));
+        }
+        return res;
+    }
+
+    private S read(int index)
+    {
+        try
+        {
+            return this.loader.load(index);
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final <S> S waitFor(CompletableFuture<S> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading slices");
+        }
+        catch (ExecutionException ex)
+        {
+            if (ex.getCause() instanceof UncheckedIOException uioe)
+            {
+                throw uioe.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException rex)
+            {
+                throw rex;
+            }
+            throw new IOException("Error while loading slices", ex.getCause());
+        }
+    }
+
+    /**
+     * Starts the loading of the specified slice using the specified executor,
+     * unless the slice is already within the cache or is being loaded. Errors
+     * occurring during prefetching are ignored, and will be raised again when
+     * the slice is requested.
+     *
+     * @param index
+     *            the index of the slice
+     * @param executor
+     *            the executor used to load the slice
+     * @return true if a new loading task was submitted
+     */
+    public boolean prefetch(int index, Executor executor)
+    {
+        if (index < 0 || index >= this.slices.length() || this.slices.get(index) != null)
+        {
+            return false;
+        }
+
+        // register the future before starting the task, so that the task
+        // can always remove it
+        CompletableFuture<S> future = new CompletableFuture<S>();
+        if (this.pending.putIfAbsent(index, future) != null)
+        {
+            return false;
+        }
+        executor.execute(() -> {
+            try
+            {
+                future.complete(load(index));
+            }
+            catch (Throwable ex)
+            {
+                future.completeExceptionally(ex);
+            }
+            finally
+            {
+                this.pending.remove(index, future);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Checks whether the specified slice is currently loaded by a background
+     * task.
+     *
+     * @param index
+     *            the index of the slice
+     * @return true if the slice is being prefetched
+     */
+    public boolean isPending(int index)
+    {
+        return this.pending.containsKey(index);
+    }
+
+    /**
+     * Checks whether the specified slice is currently within the cache.
+     *
+     * @param index
+     *            the index of the slice
+     * @return true if the slice is within the cache
+     */
+    public boolean isCached(int index)
+    {
+        return this.slices.get(index) != null;
+    }
+
+    private S load(int index)
+    {
+        S slice;
+        try
+        {
+            slice = this.loader.load(index);
+        }
+        catch (IOException ex)
+        {
+            throw new RuntimeException("Problem occured when reading slice index " + index, ex);
+        }
+        return put(index, slice);
+    }
+
+    private S waitFor(CompletableFuture<S> future, int index)
+    {
+        try
+        {
+            S slice = future.join();
+            this.accessTimes[index] = ++this.clock;
+            return slice;
+        }
+        catch (CompletionException ex)
+        {
+            if (ex.getCause() instanceof RuntimeException rex)
+            {
+                throw rex;
+            }
+            throw new RuntimeException("Problem occured when reading slice index " + index, ex.getCause());
+        }
+    }
+
+    /**
+     * Adds a slice to the cache, and returns the cached slice. If another
+     * thread has loaded the same slice in the mean time, the slice of the
+     * other thread is kept.
+     *
+     * @param index
+     *            the index of the slice
+     * @param slice
+     *            the data of the slice
+     * @return the slice within the cache
+     */
+    protected synchronized S put(int index, S slice)
+    {
+        S current = this.slices.get(index);
+        if (current != null)
+        {
+            return current;
+        }
+        this.slices.set(index, slice);
+        this.accessTimes[index] = ++this.clock;
+        this.cachedCount++;
+        evict();
+        return slice;
+    }
+
+    /**
+     * Removes the least recently used slices until the number of cached
+     * slices is within the capacity.
+     */
+    private void evict()
+    {
+        while (this.cachedCount > this.capacity)
+        {
+            int lruIndex = -1;
+            long minTime = Long.MAX_VALUE;
+            for (int i = 0; i < this.accessTimes.length; i++)
+            {
+                if (this.slices.get(i) != null && this.accessTimes[i] < minTime)
+                {
+                    lruIndex = i;
+                    minTime = this.accessTimes[i];
+                }
+            }
+            this.slices.set(lruIndex, null);
+            this.cachedCount--;
+        }
+    }
+
+    /**
+     * Removes all the slices from the cache.
+     */
+    public synchronized void clear()
+    {
+        for (int i = 0; i < this.slices.length(); i++)
+        {
+            this.slices.set(i, null);
+        }
+        this.cachedCount = 0;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import net.sci.array.numeric.Float64Array2D;
+import net.sci.array.numeric.Float64Array3D;
+
+/**
+ * A read-only 3D array of Float64 whose slices are read on demand, and kept in
+ * memory within a SliceCache. Makes it possible to open very large stacks
+ * with bounded memory usage.
+ *
+ * The slices returned by the <code>slice()</code> method are the slices
+ * stored within the cache: they should not be modified.
+ *
+ * @see SliceCache
+ * @see VirtualUInt8Array3D
+ *
+ * @author dlegland
+ *
+ */
+public class VirtualFloat64Array3D extends Float64Array3D
+{
+    // =============================================================
+    // Class variables
+
+    /**
+     * The cache containing the slices.
+     */
+    SliceCache<Float64Array2D> cache;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new virtual array whose slices are read with the specified
+     * loader, using the default byte budget for the cache.
+     *
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension (the number
+     *            of slices)
+     * @param loader
+     *            the object used to read the slices
+     */
+    public VirtualFloat64Array3D(int size0, int size1, int size2, SliceCache.Loader<? extends Float64Array2D> loader)
+    {
+        this(size0, size1, size2, new SliceCache<Float64Array2D>(size2, ((long) size0) * size1 * 8, loader));
+    }
+
+    /**
+     * Creates a new virtual array based on a slice cache.
+     *
+     * @param size0
+     *            the size of the array along the first dimension
+     * @param size1
+     *            the size of the array along the second dimension
+     * @param size2
+     *            the size of the array along the third dimension (the number
+     *            of slices)
+     * @param cache
+     *            the cache of slices
+     */
+    public VirtualFloat64Array3D(int size0, int size1, int size2, SliceCache<Float64Array2D> cache)
+    {
+        super(size0, size1, size2);
+        if (cache.sliceCount() != size2)
+        {
+            throw new IllegalArgumentException("Number of slices of cache must match array size");
+        }
+        this.cache = cache;
+    }
+
+
+    // =============================================================
+    // Accessors
+
+    /**
+     * @return the cache containing the slices of this array
+     */
+    public SliceCache<Float64Array2D> cache()
+    {
+        return this.cache;
+    }
+
+
+    // =============================================================
+    // Implementation of the Float64Array3D interface
+
+    /**
+     * Returns the cached data of the selected slice, reading it if necessary.
+     */
+    @Override
+    public Float64Array2D slice(int sliceIndex)
+    {
+        return this.cache.get(sliceIndex);
+    }
+
+    @Override
+    public double getValue(int x, int y, int z)
+    {
+        return this.cache.get(z).getValue(x, y);
+    }
+
+    @Override
+    public void setValue(int x, int y, int z, double value)
+    {
+        throw new RuntimeException("Modification of data in VirtualFloat64Array3D is not available");
+    }
+
+    /**
+     * Returns false, as the data can not be modified.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isModifiable()
+    {
+        return false;
+    }
+}
@@ -3,6 +3,7 @@
  */
 package net.sci.array.numeric.process;
 
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 import net.sci.algo.AlgoStub;
@@ -25,11 +26,27 @@ import net.sci.array.numeric.ScalarArray;
  * UInt8Array2D view = UInt8Array2D.wrap(UInt8Array.wrap(op.createView(array)));
  * }
  * 
- * @see net.sci.array.numeric.ScalarArray#apply(java.util.function.UnaryOperator)
+ * @see net.sci.array.numeric.ScalarArray#mapValues(java.util.function.DoubleUnaryOperator)
  */
 public class ApplyFunction extends AlgoStub implements ArrayOperator, ScalarArrayOperator
 {
-    Function<Double, Double> function;
+    DoubleUnaryOperator function;
+    
+    /**
+     * Creates a new operator based on a function that maps primitive double
+     * values to primitive double values, avoiding the boxing of each array
+     * element.
+     * 
+     * @param function
+     *            the function to apply to array data
+     * @return a new operator applying the function to array data
+     */
+    public static final ApplyFunction ofDouble(DoubleUnaryOperator function)
+    {
+        ApplyFunction op = new ApplyFunction(function::applyAsDouble);
+        op.function = function;
+        return op;
+    }
     
     /**
      * Creates a new operator based on a function that map double values to
@@ -40,7 +57,7 @@ public class ApplyFunction extends AlgoStub implements ArrayOperator, ScalarArra
      */
     public ApplyFunction(Function<Double, Double> function)
     {
-        this.function = function;
+        this.function = function::apply;
     }
  
     /**
@@ -61,12 +78,7 @@ public class ApplyFunction extends AlgoStub implements ArrayOperator, ScalarArra
     @Override
     public ScalarArray<?> processScalar(ScalarArray<?> array)
     {
-        ScalarArray<?> res = array.newInstance(array.size());
-        for (int[] pos : res.positions())
-        {
-            res.setValue(pos, function.apply(array.getValue(pos)));
-        }
-        return res;
+        return array.mapValues(function, array.newInstance(array.size()));
     }
     
     /**
@@ -89,7 +101,7 @@ public class ApplyFunction extends AlgoStub implements ArrayOperator, ScalarArra
         @Override
         public double getValue(int[] pos)
         {
-            return function.apply(array.getValue(pos));
+            return function.applyAsDouble(array.getValue(pos));
         }
 
         @Override
@@ -107,7 +119,7 @@ public class ApplyFunction extends AlgoStub implements ArrayOperator, ScalarArra
         @Override
         public S get(int[] pos)
         {
-            return array.createElement(function.apply(array.getValue(pos)));
+            return array.createElement(function.applyAsDouble(array.getValue(pos)));
         }
 
         @Override
@@ -3,15 +3,29 @@
  */
 package net.sci.array.numeric.process;
 
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
 
 import net.sci.array.Arrays;
 import net.sci.array.numeric.Scalar;
 import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.impl.BufferKernels;
+import net.sci.array.numeric.impl.BufferKernels.Operation;
 
 /**
  * Collection of static methods for math operations on scalar arrays.
  * 
+ * Operations involving two arrays are computed by tiles of rows (or slices for
+ * 3D arrays), processed in parallel using the common fork-join pool. When
+ * the arrays are backed by primitive buffers, the operations iterate directly
+ * over the buffers, and the arithmetic operations between two arrays use the
+ * dedicated kernels of BufferKernels.
+ * 
+ * For chains of element-wise operations, the <code>lazy()</code> method of
+ * ScalarArray avoids the creation of intermediate arrays.
+ * 
+ * @see net.sci.array.numeric.impl.LazyScalarArray
  * @author dlegland
  *
  */
@@ -51,13 +65,15 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> array, double value,
             ScalarArray<? extends Scalar<?>> result)
     {
-        // iterate over elements of each array
-        for (int[] pos : result.positions())
+        // process primitive buffers directly when possible
+        if (isBuffered(array, result))
         {
-            result.setValue(pos, array.getValue(pos) + value);
+            BufferKernels.affine(array, 1.0, value, result);
+            return result;
         }
         
-        // returns the created array
+        // apply the operation on each element, avoiding boxing of values
+        array.mapValues(x -> x + value, result);
         return result;
     }
     
@@ -91,14 +107,16 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> array, double value,
             ScalarArray<? extends Scalar<?>> result)
 	{
-        // iterate over elements of each array
-        for (int[] pos : result.positions())
+        // process primitive buffers directly when possible
+        if (isBuffered(array, result))
         {
-            result.setValue(pos, array.getValue(pos) - value);
+            BufferKernels.affine(array, 1.0, -value, result);
+            return result;
         }
-		
-		// returns the created array
-		return result;
+        
+        // apply the operation on each element, avoiding boxing of values
+        array.mapValues(x -> x - value, result);
+        return result;
 	}
 	
 	/**
@@ -128,13 +146,15 @@ public class ArrayMath
      */
     public static final ScalarArray<? extends Scalar<?>> multiply(ScalarArray<? extends Scalar<?>> array, double value, ScalarArray<? extends Scalar<?>> result)
     {
-        // iterate over elements of each array
-        for (int[] pos : result.positions())
+        // process primitive buffers directly when possible
+        if (isBuffered(array, result))
         {
-            result.setValue(pos, array.getValue(pos) * value);
+            BufferKernels.affine(array, value, 0.0, result);
+            return result;
         }
         
-        // returns the created array
+        // apply the operation on each element, avoiding boxing of values
+        array.mapValues(x -> x * value, result);
         return result;
     }
     
@@ -165,19 +185,20 @@ public class ArrayMath
 	 */
 	public static final ScalarArray<? extends Scalar<?>> divide(ScalarArray<? extends Scalar<?>> array, double value, ScalarArray<? extends Scalar<?>> result)
 	{
-        // iterate over elements of each array
-        for (int[] pos : result.positions())
+        // process primitive buffers directly when possible
+        if (isBuffered(array, result))
         {
-            result.setValue(pos, array.getValue(pos) / value);
+            BufferKernels.divide(array, value, result);
+            return result;
         }
         
-		// returns the created array
-		return result;
+        // apply the operation on each element, avoiding boxing of values
+        array.mapValues(x -> x / value, result);
+        return result;
 	}
 
     /**
-     * Adds the specified value to each element of the input array, and returns
-     * the result in a new array.
+     * Keeps the minimum of each element compared with the given value.
      * 
      * @param array
      *            the input array
@@ -187,7 +208,7 @@ public class ArrayMath
      */
     public static final ScalarArray<? extends Scalar<?>> min(ScalarArray<? extends Scalar<?>> array, double value)
     {
-        return add(array, value, array.newInstance(array.size()));
+        return min(array, value, array.newInstance(array.size()));
     }
     
     /**
@@ -205,13 +226,15 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> array, double value,
             ScalarArray<? extends Scalar<?>> result)
     {
-        // iterate over elements of each array
-        for (int[] pos : result.positions())
+        // process primitive buffers directly when possible
+        if (isBuffered(array, result))
         {
-            result.setValue(pos, java.lang.Math.min(array.getValue(pos), value));
+            BufferKernels.clamp(array, Double.NEGATIVE_INFINITY, value, result);
+            return result;
         }
         
-        // returns the created array
+        // apply the operation on each element, avoiding boxing of values
+        array.mapValues(x -> java.lang.Math.min(x, value), result);
         return result;
     }
     
@@ -244,13 +267,15 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> array, double value,
             ScalarArray<? extends Scalar<?>> result)
     {
-        // iterate over elements of each array
-        for (int[] pos : result.positions())
+        // process primitive buffers directly when possible
+        if (isBuffered(array, result))
         {
-            result.setValue(pos, java.lang.Math.min(array.getValue(pos), value));
+            BufferKernels.clamp(array, value, Double.POSITIVE_INFINITY, result);
+            return result;
         }
         
-        // returns the created array
+        // apply the operation on each element, avoiding boxing of values
+        array.mapValues(x -> java.lang.Math.max(x, value), result);
         return result;
     }
     
@@ -264,7 +289,7 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> output)
     {
         checkArrays(array1, array2, output);
-        MathBinaryOperator op = new MathBinaryOperator((a, b) -> a + b);
+        MathBinaryOperator op = createOperator(Operation.ADD);
         op.processScalar(array1, array2, output);
         return output;
     }
@@ -275,7 +300,7 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> output)
     {
         checkArrays(array1, array2, output);
-        MathBinaryOperator op = new MathBinaryOperator((a, b) -> a - b);
+        MathBinaryOperator op = createOperator(Operation.SUBTRACT);
         op.processScalar(array1, array2, output);
         return output;
     }
@@ -286,7 +311,7 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> output)
     {
         checkArrays(array1, array2, output);
-        MathBinaryOperator op = new MathBinaryOperator((a, b) -> a * b);
+        MathBinaryOperator op = createOperator(Operation.MULTIPLY);
         op.processScalar(array1, array2, output);
         return output;
     }
@@ -297,7 +322,7 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> output)
     {
         checkArrays(array1, array2, output);
-        MathBinaryOperator op = new MathBinaryOperator((a, b) -> a / b);
+        MathBinaryOperator op = createOperator(Operation.DIVIDE);
         op.processScalar(array1, array2, output);
         return output;
     }
@@ -308,7 +333,7 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> output)
     {
         checkArrays(array1, array2, output);
-        MathBinaryOperator op = new MathBinaryOperator((a, b) -> a % b);
+        MathBinaryOperator op = createOperator((a, b) -> a % b);
         op.processScalar(array1, array2, output);
         return output;
     }
@@ -319,7 +344,7 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> output)
     {
         checkArrays(array1, array2, output);
-        MathBinaryOperator op = new MathBinaryOperator(java.lang.Math::min);
+        MathBinaryOperator op = createOperator(Operation.MIN);
         op.processScalar(array1, array2, output);
         return output;
     }
@@ -330,7 +355,7 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> output)
     {
         checkArrays(array1, array2, output);
-        MathBinaryOperator op = new MathBinaryOperator(java.lang.Math::max);
+        MathBinaryOperator op = createOperator(Operation.MAX);
         op.processScalar(array1, array2, output);
         return output;
     }
@@ -355,11 +380,64 @@ public class ArrayMath
             ScalarArray<? extends Scalar<?>> output, BiFunction<Double,Double,Double> fun)
     {
         checkArrays(array1, array2, output);
-        MathBinaryOperator op = new MathBinaryOperator(fun);
+        MathBinaryOperator op = createOperator(fun::apply);
+        op.processScalar(array1, array2, output);
+        return output;
+    }
+    
+    /**
+     * Applies a function working on primitive values to each pair of elements
+     * read from two arrays, and put the result in a third array. The values are
+     * not boxed, making the processing faster than with the
+     * {@link #apply(ScalarArray, ScalarArray, ScalarArray, BiFunction)}
+     * method.
+     * 
+     * @param array1
+     *            the first input array
+     * @param array2
+     *            the second input array
+     * @param output
+     *            the output array
+     * @param fun
+     *            the function to apply
+     * @return the reference to the output array.
+     */
+    public static final ScalarArray<? extends Scalar<?>> applyDouble(
+            ScalarArray<? extends Scalar<?>> array1,
+            ScalarArray<? extends Scalar<?>> array2,
+            ScalarArray<? extends Scalar<?>> output, DoubleBinaryOperator fun)
+    {
+        checkArrays(array1, array2, output);
+        MathBinaryOperator op = createOperator(fun);
         op.processScalar(array1, array2, output);
         return output;
     }
     
+    /**
+     * Creates the operator used for combining the values of two arrays, that
+     * processes the tiles in parallel using the common pool.
+     * 
+     * @param fun
+     *            the function to apply to each pair of values
+     * @return a new operator
+     */
+    private static final MathBinaryOperator createOperator(DoubleBinaryOperator fun)
+    {
+        MathBinaryOperator op = MathBinaryOperator.ofDouble(fun);
+        op.setExecutionPool(ForkJoinPool.commonPool());
+        return op;
+    }
+    
+    /**
+     * Checks if the result of an operation on the array can be computed by
+     * iterating over the primitive buffers of the arrays.
+     */
+    private static final boolean isBuffered(ScalarArray<?> array, ScalarArray<?> result)
+    {
+        return BufferKernels.isBuffered(array) && BufferKernels.isBufferedTarget(result)
+                && Arrays.isSameSize(array, result);
+    }
+    
     private static final void checkArrays(ScalarArray<? extends Scalar<?>> array1,
             ScalarArray<? extends Scalar<?>> array2,
             ScalarArray<? extends Scalar<?>> output)
@@ -5,11 +5,15 @@ package net.sci.array.numeric.process;
 
 import net.sci.array.numeric.Scalar;
 import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.impl.BufferKernels;
 
 /**
  * Collection of static methods for computing descriptive statistics on
  * multidimensional arrays.
  * 
+ * Arrays backed by a primitive buffer are processed by the methods of the
+ * BufferKernels class, that iterate directly over the buffer.
+ * 
  * @author dlegland
  *
  */
@@ -24,6 +28,11 @@ public class ArrayStatistics
      */
     public static final double max(ScalarArray<?> array)
     {
+        if (BufferKernels.isBuffered(array))
+        {
+            return BufferKernels.max(array);
+        }
+        
         double max = Double.NEGATIVE_INFINITY;
         
         // uses ScalarArray.Iterator to avoid creating Scalar instances
@@ -45,6 +54,11 @@ public class ArrayStatistics
      */
     public static final double min(ScalarArray<?> array)
     {
+        if (BufferKernels.isBuffered(array))
+        {
+            return BufferKernels.min(array);
+        }
+        
         double min = Double.POSITIVE_INFINITY;
         
         // uses ScalarArray.Iterator to avoid creating Scalar instances
@@ -67,6 +81,11 @@ public class ArrayStatistics
 	 */
 	public static final double mean(ScalarArray<?> array)
 	{
+        if (BufferKernels.isBuffered(array))
+        {
+            return BufferKernels.sum(array) / array.elementCount();
+        }
+        
 		long count = 0;
 		double sum = 0.0;
 		
@@ -106,6 +125,11 @@ public class ArrayStatistics
 	 */
 	public static final double sum(ScalarArray<?> array)
 	{
+        if (BufferKernels.isBuffered(array))
+        {
+            return BufferKernels.sum(array);
+        }
+        
 		double sum = 0.0;
 		
         // uses ScalarArray.Iterator to avoid creating Scalar instances
@@ -132,6 +156,11 @@ public class ArrayStatistics
     public static final double var(ScalarArray<?> array)
     {
         double mean = mean(array);
+        if (BufferKernels.isBuffered(array))
+        {
+            return BufferKernels.sumOfSquares(array, mean) / (array.elementCount() - 1.0);
+        }
+        
         double sum = 0.0;
         
         // uses ScalarArray.Iterator to avoid creating Scalar instances
@@ -0,0 +1,217 @@
+/**
+ *
+ */
+package net.sci.array.numeric.process;
+
+import java.util.List;
+import java.util.function.Function;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.Arrays;
+import net.sci.array.Cursor;
+import net.sci.array.impl.DefaultCursor;
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.impl.Chunk;
+import net.sci.array.numeric.impl.ChunkedArray;
+
+/**
+ * Applies an operator on a scalar array one chunk at a time, making it
+ * possible to process arrays that do not fit into memory.
+ *
+ * For each chunk, the values of the source array within the chunk extended by
+ * a halo are copied into a (dense) array, the operator is applied on this
+ * array, and the results within the chunk are copied into the target array.
+ * The halo must be at least as large as the radius of the neighborhood used
+ * by the operator to obtain the same results as when processing the whole
+ * array.
+ *
+ * When the target (or the source) array is an instance of ChunkedArray, its
+ * chunks are used. Otherwise, the arrays are split into chunks with the size
+ * specified by the <code>setChunkSize()</code> method.
+ *
+ * {@snippet lang="java":
+ * ChunkedUInt8Array3D array = new ChunkedUInt8Array3D(2000, 2000, 1000, new int[] {128, 128, 128});
+ * // ...
+ * BoxFilter filter = new BoxFilter(new int[] {5, 5, 5});
+ * ChunkwiseOperator op = new ChunkwiseOperator(filter, new int[] {2, 2, 2});
+ * ChunkedUInt8Array3D res = new ChunkedUInt8Array3D(2000, 2000, 1000, new int[] {128, 128, 128});
+ * op.processScalar(array, res);
+ * }
+ *
+ * @see net.sci.array.numeric.impl.ChunkedArray
+ *
+ * @author dlegland
+ */
+public class ChunkwiseOperator extends AlgoStub implements ScalarArrayOperator
+{
+    // =============================================================
+    // Class variables
+
+    /**
+     * The operator applied on each chunk.
+     */
+    Function<ScalarArray<?>, ScalarArray<?>> operator;
+
+    /**
+     * The margin added to each chunk along each dimension.
+     */
+    int[] halo;
+
+    /**
+     * The size of the chunks used when neither array is chunked.
+     */
+    int chunkSize = 64;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new chunk-wise operator from a scalar array operator.
+     *
+     * @param operator
+     *            the operator to apply on each chunk
+     * @param halo
+     *            the margin added to each chunk along each dimension
+     */
+    public ChunkwiseOperator(ScalarArrayOperator operator, int[] halo)
+    {
+        this(operator::processScalar, halo);
+    }
+
+    /**
+     * Creates a new chunk-wise operator from a function that transforms a
+     * scalar array into another scalar array with the same size.
+     *
+     * @param operator
+     *            the function to apply on each chunk
+     * @param halo
+     *            the margin added to each chunk along each dimension
+     */
+    public ChunkwiseOperator(Function<ScalarArray<?>, ScalarArray<?>> operator, int[] halo)
+    {
+        this.operator = operator;
+        this.halo = halo;
+    }
+
+
+    // =============================================================
+    // Settings
+
+    /**
+     * Changes the size of the chunks used when neither the source nor the
+     * target array is an instance of ChunkedArray.
+     *
+     * @param chunkSize
+     *            the size of the chunks along each dimension
+     */
+    public void setChunkSize(int chunkSize)
+    {
+        this.chunkSize = chunkSize;
+    }
+
+
+    // =============================================================
+    // Processing methods
+
+    /**
+     * Applies the operator on each chunk of the source array, and stores the
+     * results into the target array.
+     *
+     * @param source
+     *            the array to process
+     * @param target
+     *            the array that will contain the result
+     * @return the reference to the target array
+     */
+    public ScalarArray<?> processScalar(ScalarArray<?> source, ScalarArray<?> target)
+    {
+        if (!Arrays.isSameSize(source, target))
+        {
+            throw new IllegalArgumentException("Source and target arrays must have the same size");
+        }
+
+        List<Chunk> chunks = chunks(source, target);
+        int nChunks = chunks.size();
+        for (int i = 0; i < nChunks; i++)
+        {
+            this.fireProgressChanged(this, i, nChunks);
+            processChunk(source, target, chunks.get(i));
+        }
+        this.fireProgressChanged(this, 1, 1);
+
+        return target;
+    }
+
+    private List<Chunk> chunks(ScalarArray<?> source, ScalarArray<?> target)
+    {
+        if (target instanceof ChunkedArray)
+        {
+            return ((ChunkedArray<?>) target).chunks(this.halo);
+        }
+        if (source instanceof ChunkedArray)
+        {
+            return ((ChunkedArray<?>) source).chunks(this.halo);
+        }
+        int[] chunkSizes = new int[source.dimensionality()];
+        java.util.Arrays.fill(chunkSizes, this.chunkSize);
+        return Chunk.grid(source.size(), chunkSizes, this.halo);
+    }
+
+    private void processChunk(ScalarArray<?> source, ScalarArray<?> target, Chunk chunk)
+    {
+        int nd = source.dimensionality();
+        int[] min = chunk.min();
+        int[] haloMin = chunk.haloMin();
+        int[] pos = new int[nd];
+
+        // copy the values of the source array within the halo box
+        ScalarArray<?> crop = source.newInstance(chunk.haloSize());
+        Cursor cursor = new DefaultCursor(chunk.haloSize());
+        while (cursor.hasNext())
+        {
+            cursor.forward();
+            int[] cropPos = cursor.position();
+            for (int d = 0; d < nd; d++)
+            {
+                pos[d] = cropPos[d] + haloMin[d];
+            }
+            crop.setValue(cursor, source.getValue(pos));
+        }
+
+        // apply the operator
+        ScalarArray<?> res = this.operator.apply(crop);
+
+        // copy the results within the chunk into the target array
+        int[] resPos = new int[nd];
+        cursor = new DefaultCursor(chunk.size());
+        while (cursor.hasNext())
+        {
+            cursor.forward();
+            int[] chunkPos = cursor.position();
+            for (int d = 0; d < nd; d++)
+            {
+                pos[d] = chunkPos[d] + min[d];
+                resPos[d] = pos[d] - haloMin[d];
+            }
+            target.setValue(pos, res.getValue(resPos));
+        }
+    }
+
+
+    // =============================================================
+    // Implementation of the ScalarArrayOperator interface
+
+    /**
+     * Processes the array and returns the result in a new array created with
+     * the <code>newInstance()</code> method of the input array. To keep the
+     * result within a chunked array, use the
+     * <code>processScalar(source, target)</code> method.
+     */
+    @Override
+    public ScalarArray<?> processScalar(ScalarArray<?> array)
+    {
+        ScalarArray<?> target = array.newInstance(array.size());
+        return processScalar(array, target);
+    }
+}
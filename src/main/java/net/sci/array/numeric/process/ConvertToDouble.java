@@ -9,6 +9,7 @@ import net.sci.array.ArrayOperator;
 import net.sci.array.Arrays;
 import net.sci.array.numeric.Float32Array;
 import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.impl.BufferKernels;
 
 
 /**
@@ -26,6 +27,13 @@ public class ConvertToDouble extends AlgoStub implements ArrayOperator
 	    }
         Float32Array result = Float32Array.create(array.size());
         
+        // copy values directly between primitive buffers when possible
+        if (BufferKernels.isBuffered(array) && BufferKernels.isBufferedTarget(result))
+        {
+            BufferKernels.affine((ScalarArray<?>) array, 1.0, 0.0, result);
+            return result;
+        }
+        
         for(int[] pos : result.positions())
         {
             result.setValue(pos, ((ScalarArray<?>) array).getValue(pos));
@@ -46,6 +54,13 @@ public class ConvertToDouble extends AlgoStub implements ArrayOperator
             throw new IllegalArgumentException("Both arrays must have same dimensions");
         }
         
+        // copy values directly between primitive buffers when possible
+        if (BufferKernels.isBuffered(source) && BufferKernels.isBufferedTarget(target))
+        {
+            BufferKernels.affine(source, 1.0, 0.0, target);
+            return target;
+        }
+        
         // iterate over positions
         for(int[] pos : target.positions())
         {
@@ -17,6 +17,7 @@ import net.sci.array.numeric.UInt8;
 import net.sci.array.numeric.UInt8Array;
 import net.sci.array.numeric.UInt8Array2D;
 import net.sci.array.numeric.UInt8Array3D;
+import net.sci.array.numeric.impl.BufferKernels;
 
 /**
  * Converts an array into a UInt8Array the same size.
@@ -89,6 +90,19 @@ public class ConvertToUInt8 extends AlgoStub implements ArrayOperator
      */
     public UInt8Array processScalar(ScalarArray<?> array)
     {
+        // convert values directly between primitive buffers when possible
+        if (BufferKernels.isBuffered(array))
+        {
+            UInt8Array result = UInt8Array.create(array.size());
+            if (BufferKernels.isBufferedTarget(result))
+            {
+                this.fireProgressChanged(this, 0, 1);
+                BufferKernels.affine(array, 1.0, 0.0, result);
+                this.fireProgressChanged(this, 1, 1);
+                return result;
+            }
+        }
+        
         // dispatch processing according to dimensionality
         return switch (array.dimensionality())
         {
@@ -168,6 +182,21 @@ public class ConvertToUInt8 extends AlgoStub implements ArrayOperator
      */
     public UInt8Array processScalar(ScalarArray<?> array, double minValue, double maxValue)
     {
+        // convert values directly between primitive buffers when possible
+        if (BufferKernels.isBuffered(array))
+        {
+            UInt8Array result = UInt8Array.create(array.size());
+            if (BufferKernels.isBufferedTarget(result))
+            {
+                int nd = array.dimensionality();
+                double k = (nd == 2 || nd == 3 ? 255.0 : 256.0) / (maxValue - minValue);
+                this.fireProgressChanged(this, 0, 1);
+                BufferKernels.convertToUInt8(array, minValue, k, result);
+                this.fireProgressChanged(this, 1, 1);
+                return result;
+            }
+        }
+        
         // dispatch processing according to dimensionality
         int nd = array.dimensionality();
         if (nd == 2)
@@ -8,6 +8,7 @@ import static java.lang.Math.min;
 
 import net.sci.array.Array;
 import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.impl.BufferKernels;
 
 /**
  * Computes histogram of values within a numeric array. 
@@ -42,6 +43,13 @@ public class Histogram
             // allocate memory for counts
             int[] histo = new int[nBins];
             
+            // arrays backed by primitive buffers are processed by blocks
+            if (BufferKernels.isBuffered(array))
+            {
+                BufferKernels.histogram((ScalarArray<?>) array, v0, binWidth, histo);
+                return new Result(xData, histo);
+            }
+            
             // iterate over samples to update the histogram
             for (double v : ((ScalarArray<?>) array).values())
             {
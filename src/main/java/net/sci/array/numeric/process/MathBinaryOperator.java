@@ -4,6 +4,7 @@
 package net.sci.array.numeric.process;
 
 import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
 
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
@@ -14,6 +15,7 @@ import net.sci.array.numeric.ScalarArray2D;
 import net.sci.array.numeric.ScalarArray3D;
 import net.sci.array.numeric.Vector;
 import net.sci.array.numeric.VectorArray;
+import net.sci.array.numeric.impl.BufferKernels;
 
 /**
  * Base class for operators that combines the values from two scalar arrays the
@@ -21,6 +23,12 @@ import net.sci.array.numeric.VectorArray;
  * 
  * The result scalar array can also be specified. 
  * 
+ * When the three arrays are backed by primitive buffers, the values are
+ * processed by blocks of consecutive elements, directly from the buffers. If
+ * the function is one of the values of BufferKernels.Operation, each block is
+ * processed by a dedicated kernel instead of calling the function for each
+ * pair of values.
+ * 
  * Example
  * <pre>{@code
     // create operator to add values from two arrays 
@@ -43,7 +51,35 @@ public class MathBinaryOperator extends AlgoStub
     /**
      * The function to apply to each pair of values.
      */
-    BiFunction<Double,Double,Double> fun;
+    DoubleBinaryOperator fun;
+    
+    /**
+     * The number of consecutive elements within a block of elements, when
+     * processing arrays backed by primitive buffers.
+     */
+    private static final int BUFFER_TILE_SIZE = 16384;
+    
+    /**
+     * Creates a new operator from a function that associates a primitive
+     * double to a pair of primitive doubles, avoiding the boxing of each array
+     * element.
+     * 
+     * Example:
+     * 
+     * <pre>
+     * {@code MathBinaryOperator op = MathBinaryOperator.ofDouble(Math::max);
+     * }</pre>
+     * 
+     * @param fun
+     *            the function defining this operator.
+     * @return a new operator based on the function
+     */
+    public static final MathBinaryOperator ofDouble(DoubleBinaryOperator fun)
+    {
+        MathBinaryOperator op = new MathBinaryOperator(fun::applyAsDouble);
+        op.fun = fun;
+        return op;
+    }
     
     /**
      * Creates a new operator from a function that associates a double to a pair
@@ -60,7 +96,7 @@ public class MathBinaryOperator extends AlgoStub
      */
     public MathBinaryOperator(BiFunction<Double,Double,Double> fun)
     {
-        this.fun = fun;
+        this.fun = fun::apply;
     }
     
     public Array<?> process(Array<?> array1, Array<?> array2)
@@ -103,11 +139,7 @@ public class MathBinaryOperator extends AlgoStub
                         ScalarArray3D.wrapScalar3d(scalarArray1), 
                         ScalarArray3D.wrapScalar3d(scalarArray2), 
                         ScalarArray3D.wrapScalar3d(res));
-                default -> 
-                {
-                    res.fillValues(pos -> fun.apply(scalarArray1.getValue(pos), scalarArray2.getValue(pos)));
-                    yield res;
-                }
+                default -> processScalarNd(scalarArray1, scalarArray2, res);
             };
             
         }
@@ -155,9 +187,7 @@ public class MathBinaryOperator extends AlgoStub
         }
         else
         {
-            ScalarArray<?> res = array1.newInstance(array1.size());
-            res.fillValues(pos -> fun.apply(array1.getValue(pos), array2.getValue(pos)));
-            return res;
+            return processScalarNd(array1, array2, array1.newInstance(array1.size()));
         }
     }
     
@@ -170,26 +200,42 @@ public class MathBinaryOperator extends AlgoStub
         {
             case 2 -> processScalar2d(ScalarArray2D.wrapScalar2d(array1), ScalarArray2D.wrapScalar2d(array2), ScalarArray2D.wrapScalar2d(output));
             case 3 -> processScalar3d(ScalarArray3D.wrapScalar3d(array1), ScalarArray3D.wrapScalar3d(array2), ScalarArray3D.wrapScalar3d(output));
-            default -> 
-            {
-                output.fillValues(pos -> fun.apply(array1.getValue(pos), array2.getValue(pos)));
-                yield output;
-            }
+            default -> processScalarNd(array1, array2, output);
         };
     }
 
+    private ScalarArray<?> processScalarNd(ScalarArray<?> array1, ScalarArray<?> array2, ScalarArray<?> res)
+    {
+        if (isBuffered(array1, array2, res))
+        {
+            processBuffers(array1, array2, res);
+            return res;
+        }
+        return array1.mapValues(array2, fun, res);
+    }
+    
     private ScalarArray2D<?> processScalar2d(ScalarArray2D<?> array1, ScalarArray2D<?> array2, ScalarArray2D<?> res)
     {
+        if (isBuffered(array1, array2, res))
+        {
+            processBuffers(array1, array2, res);
+            return res;
+        }
+        
         int sizeX = array1.size(0);
         int sizeY = array1.size(1);
-        for (int y = 0; y < sizeY; y++)
+
+        // iterate over tiles of rows
+        processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(res), tile -> 
         {
-            this.fireProgressChanged(this, y, sizeY);
-            for (int x = 0; x < sizeX; x++)
+            for (int y = tile.start(); y < tile.end(); y++)
             {
-                res.setValue(x, y, fun.apply(array1.getValue(x, y), array2.getValue(x, y)));
+                for (int x = 0; x < sizeX; x++)
+                {
+                    res.setValue(x, y, fun.applyAsDouble(array1.getValue(x, y), array2.getValue(x, y)));
+                }
             }
-        }
+        });
         this.fireProgressChanged(this, 1, 1);
                     
         return res;
@@ -197,25 +243,57 @@ public class MathBinaryOperator extends AlgoStub
     
     private ScalarArray3D<?> processScalar3d(ScalarArray3D<?> array1, ScalarArray3D<?> array2, ScalarArray3D<?> res)
     {
+        if (isBuffered(array1, array2, res))
+        {
+            processBuffers(array1, array2, res);
+            return res;
+        }
+        
         int sizeX = array1.size(0);
         int sizeY = array1.size(1);
         int sizeZ = array1.size(2);
-        for (int z = 0; z < sizeZ; z++)
+
+        // iterate over tiles of slices
+        processTiles(sizeZ, 0, Arrays.supportsConcurrentWrites(res), tile -> 
         {
-            this.fireProgressChanged(this, z, sizeZ);
-            for (int y = 0; y < sizeY; y++)
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                for (int x = 0; x < sizeX; x++)
+                for (int y = 0; y < sizeY; y++)
                 {
-                    res.setValue(x, y, z, fun.apply(array1.getValue(x, y, z), array2.getValue(x, y, z)));
+                    for (int x = 0; x < sizeX; x++)
+                    {
+                        res.setValue(x, y, z, fun.applyAsDouble(array1.getValue(x, y, z), array2.getValue(x, y, z)));
+                    }
                 }
             }
-        }
+        });
         this.fireProgressChanged(this, 1, 1);
                     
         return res;
     }
     
+    /**
+     * Processes arrays backed by primitive buffers, by splitting the elements
+     * into tiles of consecutive blocks.
+     */
+    private void processBuffers(ScalarArray<?> array1, ScalarArray<?> array2, ScalarArray<?> res)
+    {
+        int n = (int) array1.elementCount();
+        int nBlocks = (n + BUFFER_TILE_SIZE - 1) / BUFFER_TILE_SIZE;
+        processTiles(nBlocks, 0, tile -> 
+        {
+            int start = tile.start() * BUFFER_TILE_SIZE;
+            int end = Math.min(tile.end() * BUFFER_TILE_SIZE, n);
+            BufferKernels.combine(array1, array2, fun, res, start, end);
+        });
+        this.fireProgressChanged(this, 1, 1);
+    }
+    
+    private static final boolean isBuffered(ScalarArray<?> array1, ScalarArray<?> array2, ScalarArray<?> res)
+    {
+        return BufferKernels.isBuffered(array1) && BufferKernels.isBuffered(array2) && BufferKernels.isBufferedTarget(res);
+    }
+    
     public VectorArray<?,?> processVector(VectorArray<?,?> array1, VectorArray<?,?> array2, VectorArray<?,?> output)
     {
         checkSameSize(array1, array2);
@@ -10,6 +10,7 @@ import net.sci.array.numeric.Float32Array;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.Vector;
 import net.sci.array.numeric.VectorArray;
+import net.sci.array.numeric.impl.BufferKernels;
 
 /**
  * Computes the classical L2 norm (or Euclidean norm) of each vector element of
@@ -36,6 +37,12 @@ public class VectorArrayL2Norm extends AlgoStub implements ArrayOperator
         // allocate memory for result
         ScalarArray<?> result = factory.create(array.size());
 
+        // compute norms directly from primitive buffers when possible
+        if (BufferKernels.isBufferedTarget(result) && BufferKernels.l2Norm(array, result))
+        {
+            return result;
+        }
+        
         // iterate over both arrays in parallel
         double[] buffer = new double[array.channelCount()];
         for(int[] pos : result.positions())
@@ -9,6 +9,7 @@ import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
 import net.sci.array.Array2D;
 import net.sci.array.ArrayOperator;
+import net.sci.array.Cursor;
 
 /**
  * Perform crop on an array.
@@ -193,13 +194,15 @@ public class Crop extends AlgoStub implements ArrayOperator
         
         // iterate over position of result
         int[] pos2 = new int[nd];
-        for (int[] pos : target.positions())
+        Cursor cursor = target.cursor();
+        while (cursor.hasNext())
         {
-            for (int d = 0; d <nd; d++)
+            cursor.forward();
+            for (int d = 0; d < nd; d++)
             {
-                pos2[d] = minIndices[d] + pos[d];
+                pos2[d] = minIndices[d] + cursor.get(d);
             }
-            target.set(pos, source.get(pos2));
+            target.set(cursor, source.get(pos2));
         }
         
         return target;
@@ -10,6 +10,7 @@ import net.sci.array.Array;
 import net.sci.array.Array2D;
 import net.sci.array.Array3D;
 import net.sci.array.ArrayOperator;
+import net.sci.array.Cursor;
 
 /**
  * Flips the content of an array along the specified dimension.
@@ -143,11 +144,13 @@ public class Flip extends AlgoStub implements ArrayOperator
         int[] pos2 = new int[nd];
 
         // iterate over positions of input array
-        for (int[] pos : input.positions())
+        Cursor cursor = input.cursor();
+        while (cursor.hasNext())
         {
-            System.arraycopy(pos, 0, pos2, 0, nd);
-            pos2[dim] = sizeDim - 1 - pos[dim];
-            output.set(pos2, input.get(pos));
+            cursor.forward();
+            cursor.get(pos2);
+            pos2[dim] = sizeDim - 1 - pos2[dim];
+            output.set(pos2, input.get(cursor));
         }
     }
 
@@ -9,6 +9,7 @@ import java.util.List;
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
 import net.sci.array.ArrayOperator;
+import net.sci.array.Cursor;
 import net.sci.array.binary.Binary;
 import net.sci.array.binary.BinaryArray;
 import net.sci.array.numeric.NumericArray;
@@ -288,14 +289,16 @@ public class Padding extends AlgoStub implements ArrayOperator
         Array<T> res = array.newInstance(newDims);
         
         // fill result
-        for(int[] pos : res.positions())
+        int[] pos2 = new int[nd];
+        Cursor cursor = res.cursor();
+        while (cursor.hasNext())
         {
-            int[] pos2 = new int[pos.length];
-            for (int d = 0; d < pos.length; d++)
+            cursor.forward();
+            for (int d = 0; d < nd; d++)
             {
-                pos2[d] = pos[d] - this.padSizes[d][0];
+                pos2[d] = cursor.get(d) - this.padSizes[d][0];
             }
-            res.set(pos, this.mode.get(array, pos2));
+            res.set(cursor, this.mode.get(array, pos2));
         }
         
         return res;
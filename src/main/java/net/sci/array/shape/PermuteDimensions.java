@@ -8,6 +8,7 @@ import java.util.function.Function;
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
 import net.sci.array.ArrayOperator;
+import net.sci.array.Cursor;
 
 /**
  * Permutes the dimensions of the array to process.
@@ -110,13 +111,15 @@ public class PermuteDimensions extends AlgoStub implements ArrayOperator
         
         // iterate over positions of new array
         int[] newPos = new int[nd];
-        for (int[] pos : array.positions())
+        Cursor cursor = array.cursor();
+        while (cursor.hasNext())
         {
+            cursor.forward();
             for (int d = 0; d < nd; d++)
             {
-                newPos[d] = pos[dimOrder[d]];
+                newPos[d] = cursor.get(dimOrder[d]);
             }
-            result.set(newPos, array.get(pos));
+            result.set(newPos, array.get(cursor));
         }
         
         return result;
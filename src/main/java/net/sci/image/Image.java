@@ -24,6 +24,8 @@ import net.sci.array.color.RGB8;
 import net.sci.image.io.ImageIOImageReader;
 import net.sci.image.io.MetaImageReader;
 import net.sci.image.io.TiffImageReader;
+import net.sci.image.io.ZarrImageReader;
+import net.sci.image.io.zarr.ZarrArrayInfo;
 
 /**
  * A multi-dimensional image, represented by a multi-dimensional array together
@@ -59,6 +61,11 @@ public class Image
             MetaImageReader reader = new MetaImageReader(file);
             image = reader.readImage();
         }
+        else if (file.isDirectory() && new File(file, ZarrArrayInfo.METADATA_FILE_NAME).exists())
+        {
+            ZarrImageReader reader = new ZarrImageReader(file);
+            image = reader.readImage();
+        }
         else
         {
             ImageIOImageReader reader = new ImageIOImageReader(file);
@@ -22,6 +22,13 @@ public class SaitoToriwakiDistanceTransform2D extends AlgoStub implements ArrayO
      * The factory to use for creating the result array.
      */
     private ScalarArray.Factory<?> factory = Float32Array.defaultFactory;
+    
+    /**
+     * The maximum distance that needs to be computed exactly. Larger distances
+     * are replaced by a value greater than the maximum distance, avoiding to
+     * scan large neighborhoods. Default is infinite.
+     */
+    private double maxDistance = Double.POSITIVE_INFINITY;
 
     /**
      * Default empty constructor.
@@ -41,6 +48,22 @@ public class SaitoToriwakiDistanceTransform2D extends AlgoStub implements ArrayO
         this.factory = factory;
     }
     
+    /**
+     * Sets the maximum distance that needs to be computed exactly. Distances
+     * larger than the maximum distance are replaced by a value larger than
+     * the maximum distance, reducing computation time when only the small
+     * distances are required, for example for thresholding the distance map.
+     * 
+     * @param maxDistance
+     *            the maximum distance to compute, or
+     *            Double.POSITIVE_INFINITY to compute all distances (the
+     *            default).
+     */
+    public void setMaxDistance(double maxDistance)
+    {
+        this.maxDistance = maxDistance;
+    }
+    
 
     @Override
     public Result computeResult(BinaryArray array)
@@ -79,13 +102,18 @@ public class SaitoToriwakiDistanceTransform2D extends AlgoStub implements ArrayO
         int sizeY = array.size(1);
         double absoluteMaximum = sizeX + sizeY;
         
+        // distances larger than the maximum distance are clamped, ensuring
+        // the size of neighborhoods explored in the next steps remains small
+        double distanceCap = Math.floor(this.maxDistance) + 1;
+        absoluteMaximum = Math.min(absoluteMaximum, distanceCap);
+        
         // forward scan
         for (int y = 0; y < sizeY; y++)
         {
             double df = absoluteMaximum;
             for (int x = 0; x < sizeX; x++)
             {
-                df = array.getBoolean(x, y) ? df + 1 : 0;
+                df = array.getBoolean(x, y) ? Math.min(df + 1, distanceCap) : 0;
                 output.setValue(x, y, df * df);
             }
         }
@@ -96,7 +124,7 @@ public class SaitoToriwakiDistanceTransform2D extends AlgoStub implements ArrayO
             double db = absoluteMaximum;
             for (int x = sizeX - 1; x >= 0; x--)
             {
-                db = array.getBoolean(x, y) ? db + 1 : 0;
+                db = array.getBoolean(x, y) ? Math.min(db + 1, distanceCap) : 0;
                 output.setValue(x, y, Math.min(output.getValue(x, y), db * db));
             }
         }
@@ -22,6 +22,13 @@ public class SaitoToriwakiDistanceTransform3D extends AlgoStub implements ArrayO
      * The factory to use for creating the result array.
      */
     private ScalarArray.Factory<?> factory = Float32Array.defaultFactory;
+    
+    /**
+     * The maximum distance that needs to be computed exactly. Larger distances
+     * are replaced by a value greater than the maximum distance, avoiding to
+     * scan large neighborhoods. Default is infinite.
+     */
+    private double maxDistance = Double.POSITIVE_INFINITY;
 
     /**
      * Default empty constructor.
@@ -41,6 +48,22 @@ public class SaitoToriwakiDistanceTransform3D extends AlgoStub implements ArrayO
         this.factory = factory;
     }
     
+    /**
+     * Sets the maximum distance that needs to be computed exactly. Distances
+     * larger than the maximum distance are replaced by a value larger than
+     * the maximum distance, reducing computation time when only the small
+     * distances are required, for example for thresholding the distance map.
+     * 
+     * @param maxDistance
+     *            the maximum distance to compute, or
+     *            Double.POSITIVE_INFINITY to compute all distances (the
+     *            default).
+     */
+    public void setMaxDistance(double maxDistance)
+    {
+        this.maxDistance = maxDistance;
+    }
+    
 
     @Override
     public Result computeResult(BinaryArray array)
@@ -80,7 +103,12 @@ public class SaitoToriwakiDistanceTransform3D extends AlgoStub implements ArrayO
         int sizeX = array.size(0);
         int sizeY = array.size(1);
         int sizeZ = array.size(2);
-        double absoluteMaximum = sizeX + sizeY;
+        double absoluteMaximum = sizeX + sizeY + sizeZ;
+        
+        // distances larger than the maximum distance are clamped, ensuring
+        // the size of neighborhoods explored in the next steps remains small
+        double distanceCap = Math.floor(this.maxDistance) + 1;
+        absoluteMaximum = Math.min(absoluteMaximum, distanceCap);
         
         // forward scan
         for (int z = 0; z < sizeZ; z++)
@@ -90,7 +118,7 @@ public class SaitoToriwakiDistanceTransform3D extends AlgoStub implements ArrayO
                 double df = absoluteMaximum;
                 for (int x = 0; x < sizeX; x++)
                 {
-                    df = array.getBoolean(x, y, z) ? df + 1 : 0;
+                    df = array.getBoolean(x, y, z) ? Math.min(df + 1, distanceCap) : 0;
                     output.setValue(x, y, z, df * df);
                 }
             }
@@ -104,7 +132,7 @@ public class SaitoToriwakiDistanceTransform3D extends AlgoStub implements ArrayO
                 double db = absoluteMaximum;
                 for (int x = sizeX - 1; x >= 0; x--)
                 {
-                    db = array.getBoolean(x, y, z) ? db + 1 : 0;
+                    db = array.getBoolean(x, y, z) ? Math.min(db + 1, distanceCap) : 0;
                     output.setValue(x, y, z, Math.min(output.getValue(x, y, z), db * db));
                 }
             }
@@ -5,6 +5,7 @@ package net.sci.image.filtering;
 
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
+import net.sci.array.Arrays;
 import net.sci.array.numeric.Numeric;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.ScalarArray2D;
@@ -156,55 +157,58 @@ public final class BoxFilter extends AlgoStub implements ImageArrayOperator, Vec
 
         this.fireStatusChanged(this, "1D box filter in X-direction");
 
-        // Compute 1D filter in the X-direction
-        double[] values = new double[sizeX];
-        double[] padded = new double[sizeX + boxSizeX];
-        for (int y = 0; y < sizeY; y++)
+        // Compute 1D filter in the X-direction, using tiles of rows
+        processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            this.fireProgressChanged(this, y, sizeY);
-            // grab values from array
-            for (int x = 0; x < sizeX; x++)
-            {
-                values[x] = source.getValue(x, y);
-            }
-            
-            // pad and filter (re-use input array for filter result)
-            filterWithPadding(values, padX0, padX1, padded);
-            
-            // put result into array
-            for (int x = 0; x < sizeX; x++)
+            double[] values = new double[sizeX];
+            double[] padded = new double[sizeX + boxSizeX];
+            for (int y = tile.start(); y < tile.end(); y++)
             {
-                target.setValue(x, y, values[x]);
+                // grab values from array
+                for (int x = 0; x < sizeX; x++)
+                {
+                    values[x] = source.getValue(x, y);
+                }
+                
+                // pad and filter (re-use input array for filter result)
+                filterWithPadding(values, padX0, padX1, padded);
+                
+                // put result into array
+                for (int x = 0; x < sizeX; x++)
+                {
+                    target.setValue(x, y, values[x]);
+                }
             }
-        }
+        });
         
         // use same array as source and target
-        // as process is made row by row, this is not a problem (except maybe for numerical accuracy)
-        source = target;
+        // as process is made column by column, this is not a problem (except maybe for numerical accuracy)
         
         this.fireStatusChanged(this, "1D box filter in Y-direction");
         
-        // Compute 1D filter in the Y-direction
-        values = new double[sizeY];
-        padded = new double[sizeY + boxSizeY];
-        for (int x = 0; x < sizeX; x++)
+        // Compute 1D filter in the Y-direction, using tiles of columns
+        processTiles(sizeX, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            this.fireProgressChanged(this, x, sizeX);
-            // grab values from array
-            for (int y = 0; y < sizeY; y++)
+            double[] values = new double[sizeY];
+            double[] padded = new double[sizeY + boxSizeY];
+            for (int x = tile.start(); x < tile.end(); x++)
             {
-                values[y] = source.getValue(x, y);
-            }
-            
-            // pad and filter (re-use input array for filter result)
-            filterWithPadding(values, padY0, padY1, padded);
-            
-            // put result into array
-            for (int y = 0; y < sizeY; y++)
-            {
-                target.setValue(x, y, values[y]);
+                // grab values from array
+                for (int y = 0; y < sizeY; y++)
+                {
+                    values[y] = target.getValue(x, y);
+                }
+                
+                // pad and filter (re-use input array for filter result)
+                filterWithPadding(values, padY0, padY1, padded);
+                
+                // put result into array
+                for (int y = 0; y < sizeY; y++)
+                {
+                    target.setValue(x, y, values[y]);
+                }
             }
-        }
+        });
     }
 
     /**
@@ -293,92 +297,97 @@ public final class BoxFilter extends AlgoStub implements ImageArrayOperator, Vec
         
         this.fireStatusChanged(this, "1D box filter in X-direction");
         
-        // Compute 1D filter in the X-direction
-        double[] values = new double[sizeX];
-        double[] padded = new double[sizeX + boxSizeX];
-        for (int z = 0; z < sizeZ; z++)
+        // Compute 1D filter in the X-direction, using tiles of slices
+        processTiles(sizeZ, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            this.fireProgressChanged(this, z, sizeZ);
-            for (int y = 0; y < sizeY; y++)
+            double[] values = new double[sizeX];
+            double[] padded = new double[sizeX + boxSizeX];
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                // grab values from array
-                for (int x = 0; x < sizeX; x++)
+                for (int y = 0; y < sizeY; y++)
                 {
-                    values[x] = source.getValue(x, y, z);
-                }
+                    // grab values from array
+                    for (int x = 0; x < sizeX; x++)
+                    {
+                        values[x] = source.getValue(x, y, z);
+                    }
 
-                // pad and filter (re-use input array for filter result)
-                filterWithPadding(values, padX0, padX1, padded);
+                    // pad and filter (re-use input array for filter result)
+                    filterWithPadding(values, padX0, padX1, padded);
 
-                // put result into array
-                for (int x = 0; x < sizeX; x++)
-                {
-                    target.setValue(x, y, z, values[x]);
+                    // put result into array
+                    for (int x = 0; x < sizeX; x++)
+                    {
+                        target.setValue(x, y, z, values[x]);
+                    }
                 }
             }
-        }
+        });
         
         // use same array as source and target
-        // as process is made row by row, this is not a problem (except maybe for numerical accuracy)
-        source = target;
+        // as process is made line by line, this is not a problem (except maybe for numerical accuracy)
         
 
         // Compute 1D filter in the Y-direction
         
         this.fireStatusChanged(this, "1D box filter in Y-direction");
 
-        values = new double[sizeY];
-        padded = new double[sizeY + boxSizeY];
-        for (int z = 0; z < sizeZ; z++)
+        processTiles(sizeZ, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            this.fireProgressChanged(this, z, sizeZ);
-            for (int x = 0; x < sizeX; x++)
+            double[] values = new double[sizeY];
+            double[] padded = new double[sizeY + boxSizeY];
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                // grab values from array
-                for (int y = 0; y < sizeY; y++)
+                for (int x = 0; x < sizeX; x++)
                 {
-                    values[y] = source.getValue(x, y, z);
-                }
+                    // grab values from array
+                    for (int y = 0; y < sizeY; y++)
+                    {
+                        values[y] = target.getValue(x, y, z);
+                    }
 
-                // pad and filter (re-use input array for filter result)
-                filterWithPadding(values, padY0, padY1, padded);
+                    // pad and filter (re-use input array for filter result)
+                    filterWithPadding(values, padY0, padY1, padded);
 
-                // put result into array
-                for (int y = 0; y < sizeY; y++)
-                {
-                    target.setValue(x, y, z, values[y]);
+                    // put result into array
+                    for (int y = 0; y < sizeY; y++)
+                    {
+                        target.setValue(x, y, z, values[y]);
+                    }
                 }
             }
-        }
+        });
         
         
         // Compute 1D filter in the Z-direction
         
         this.fireStatusChanged(this, "1D box filter in Z-direction");
         
-        values = new double[sizeZ];
-        padded = new double[sizeZ + boxSizeZ];
-        for (int y = 0; y < sizeY; y++)
+        processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            this.fireProgressChanged(this, y, sizeY);
-            for (int x = 0; x < sizeX; x++)
+            double[] values = new double[sizeZ];
+            double[] padded = new double[sizeZ + boxSizeZ];
+            for (int y = tile.start(); y < tile.end(); y++)
             {
-                // grab values from array
-                for (int z = 0; z < sizeZ; z++)
+                for (int x = 0; x < sizeX; x++)
                 {
-                    values[z] = source.getValue(x, y, z);
-                }
+                    // grab values from array
+                    for (int z = 0; z < sizeZ; z++)
+                    {
+                        values[z] = target.getValue(x, y, z);
+                    }
 
-                // pad and filter (re-use input array for filter result)
-                filterWithPadding(values, padZ0, padZ1, padded);
+                    // pad and filter (re-use input array for filter result)
+                    filterWithPadding(values, padZ0, padZ1, padded);
 
-                // put result into array
-                for (int z = 0; z < sizeZ; z++)
-                {
-                    target.setValue(x, y, z, values[z]);
+                    // put result into array
+                    for (int z = 0; z < sizeZ; z++)
+                    {
+                        target.setValue(x, y, z, values[z]);
+                    }
                 }
             }
-        }
+        });
     }
     
     /**
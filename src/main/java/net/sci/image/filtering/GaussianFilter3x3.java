@@ -4,6 +4,7 @@
 package net.sci.image.filtering;
 
 import net.sci.algo.AlgoStub;
+import net.sci.array.Arrays;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.ScalarArray2D;
 import net.sci.array.numeric.process.ScalarArrayOperator;
@@ -43,51 +44,57 @@ public class GaussianFilter3x3 extends AlgoStub
         int sizeX = array.size(0);
         int sizeY = array.size(1);
         
-        double[] buffer = new double[3];
-
-        // iteration along rows
-        for (int y = 0; y < sizeY; y++)
+        // iteration along rows, using tiles of rows
+        processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(array), tile -> 
         {
-            // init buffer
-            buffer[1] = array.getValue(0, y);
-            buffer[2] = array.getValue(1, y);
-            for (int x = 0; x < sizeX; x++)
+            double[] buffer = new double[3];
+            for (int y = tile.start(); y < tile.end(); y++)
             {
-                // shift buffer
-                buffer[0] = buffer[1];
-                buffer[1] = buffer[2];
-                
-                // update last value in buffer
-                int x2 = Math.min(x + 1, sizeX - 1);
-                buffer[2] = array.getValue(x2, y);
-                
-                // compute weighted sum
-                double sum = buffer[0] + 2 * buffer[1] + buffer[2];
-                array.setValue(x, y, sum / 4);
+                // init buffer
+                buffer[1] = array.getValue(0, y);
+                buffer[2] = array.getValue(1, y);
+                for (int x = 0; x < sizeX; x++)
+                {
+                    // shift buffer
+                    buffer[0] = buffer[1];
+                    buffer[1] = buffer[2];
+                    
+                    // update last value in buffer
+                    int x2 = Math.min(x + 1, sizeX - 1);
+                    buffer[2] = array.getValue(x2, y);
+                    
+                    // compute weighted sum
+                    double sum = buffer[0] + 2 * buffer[1] + buffer[2];
+                    array.setValue(x, y, sum / 4);
+                }
             }
-        }
+        });
         
-        // iteration along columns
-        for (int x = 0; x < sizeX; x++)
+        // iteration along columns, using tiles of columns
+        processTiles(sizeX, 0, Arrays.supportsConcurrentWrites(array), tile -> 
         {
-            // init buffer
-        	buffer[1] = array.getValue(x, 0);
-            buffer[2] = array.getValue(x, 1);
-            
-            for (int y = 0; y < sizeY; y++)
+            double[] buffer = new double[3];
+            for (int x = tile.start(); x < tile.end(); x++)
             {
-                // shift buffer
-                buffer[0] = buffer[1];
-                buffer[1] = buffer[2];
-                
-                // update last value in buffer
-                int y2 = Math.min(y + 1, sizeY - 1);
-                buffer[2] = array.getValue(x, y2);
+                // init buffer
+                buffer[1] = array.getValue(x, 0);
+                buffer[2] = array.getValue(x, 1);
                 
-                // compute weighted sum
-                double sum = buffer[0] + 2 * buffer[1] + buffer[2];
-                array.setValue(x, y, sum / 4);
+                for (int y = 0; y < sizeY; y++)
+                {
+                    // shift buffer
+                    buffer[0] = buffer[1];
+                    buffer[1] = buffer[2];
+                    
+                    // update last value in buffer
+                    int y2 = Math.min(y + 1, sizeY - 1);
+                    buffer[2] = array.getValue(x, y2);
+                    
+                    // compute weighted sum
+                    double sum = buffer[0] + 2 * buffer[1] + buffer[2];
+                    array.setValue(x, y, sum / 4);
+                }
             }
-        }
+        });
     }
 }
@@ -4,6 +4,7 @@
 package net.sci.image.filtering;
 
 import net.sci.algo.AlgoStub;
+import net.sci.array.Arrays;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.ScalarArray2D;
 import net.sci.array.numeric.process.ScalarArrayOperator;
@@ -43,55 +44,61 @@ public class GaussianFilter5x5 extends AlgoStub
         int sizeX = array.size(0);
         int sizeY = array.size(1);
         
-        double[] buffer = new double[5];
-
-        // iteration along rows
-        for (int y = 0; y < sizeY; y++)
+        // iteration along rows, using tiles of rows
+        processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(array), tile -> 
         {
-            // init buffer
-            buffer[1] = buffer[2] = buffer[3] = array.getValue(0, y);
-            buffer[4] = array.getValue(1, y);
-            for (int x = 0; x < sizeX; x++)
+            double[] buffer = new double[5];
+            for (int y = tile.start(); y < tile.end(); y++)
             {
-                // shift buffer
-                for (int i = 0; i < 4; i++)
+                // init buffer
+                buffer[1] = buffer[2] = buffer[3] = array.getValue(0, y);
+                buffer[4] = array.getValue(1, y);
+                for (int x = 0; x < sizeX; x++)
                 {
-                    buffer[i] = buffer[i+1];
+                    // shift buffer
+                    for (int i = 0; i < 4; i++)
+                    {
+                        buffer[i] = buffer[i+1];
+                    }
+                    
+                    // update last value in buffer
+                    int x2 = Math.min(x + 2, sizeX - 1);
+                    buffer[4] = array.getValue(x2, y);
+                    
+                    // compute weighted sum
+                    double sum = buffer[0] + 4*buffer[1] + 6*buffer[2] + 4*buffer[3] + buffer[4];
+                    array.setValue(x, y, sum / 16);
                 }
-                
-                // update last value in buffer
-                int x2 = Math.min(x + 2, sizeX - 1);
-                buffer[4] = array.getValue(x2, y);
-                
-                // compute weighted sum
-                double sum = buffer[0] + 4*buffer[1] + 6*buffer[2] + 4*buffer[3] + buffer[4];
-                array.setValue(x, y, sum / 16);
             }
-        }
+        });
         
-        // iteration along columns
-        for (int x = 0; x < sizeX; x++)
+        // iteration along columns, using tiles of columns
+        processTiles(sizeX, 0, Arrays.supportsConcurrentWrites(array), tile -> 
         {
-            // init buffer
-            buffer[1] = buffer[2] = buffer[3] = array.getValue(x, 0);
-            buffer[4] = array.getValue(x, 1);
-            
-            for (int y = 0; y < sizeY; y++)
+            double[] buffer = new double[5];
+            for (int x = tile.start(); x < tile.end(); x++)
             {
-                // shift buffer
-                for (int i = 0; i < 4; i++)
+                // init buffer
+                buffer[1] = buffer[2] = buffer[3] = array.getValue(x, 0);
+                buffer[4] = array.getValue(x, 1);
+                
+                for (int y = 0; y < sizeY; y++)
                 {
-                    buffer[i] = buffer[i+1];
+                    // shift buffer
+                    for (int i = 0; i < 4; i++)
+                    {
+                        buffer[i] = buffer[i+1];
+                    }
+                    
+                    // update last value in buffer
+                    int y2 = Math.min(y + 2, sizeY - 1);
+                    buffer[4] = array.getValue(x, y2);
+                    
+                    // compute weighted sum
+                    double sum = buffer[0] + 4*buffer[1] + 6*buffer[2] + 4*buffer[3] + buffer[4];
+                    array.setValue(x, y, sum / 16);
                 }
-                
-                // update last value in buffer
-                int y2 = Math.min(y + 2, sizeY - 1);
-                buffer[4] = array.getValue(x, y2);
-                
-                // compute weighted sum
-                double sum = buffer[0] + 4*buffer[1] + 6*buffer[2] + 4*buffer[3] + buffer[4];
-                array.setValue(x, y, sum / 16);
             }
-        }
+        });
     }
 }
@@ -4,6 +4,7 @@
 package net.sci.image.filtering;
 
 import net.sci.algo.AlgoStub;
+import net.sci.array.Arrays;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.ScalarArray2D;
 import net.sci.array.numeric.ScalarArray3D;
@@ -106,44 +107,43 @@ public class MedianFilterBoxSliding extends AlgoStub implements ScalarArrayOpera
         // compute the normalization constant
         int totalCount = (int) MathUtils.prod(diameters);
         
-        // create Local Histogram
-        MedianLocalHistogramUInt8 histo = new MedianLocalHistogramUInt8(totalCount, 0);
-        
-        // iterate over pixel positions
-        for(int y = 0; y < sizeY; y++)
+        // iterate over pixel positions, using tiles of rows
+        processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            this.fireProgressChanged(this, y, sizeY);
-            
-            // clear histogram
-            histo.reset(0);
-            
-            // fill histogram with values around the pixel before the first one
-            for (int y2 = y - ry1; y2 < y + ry2; y2++)
+            MedianLocalHistogramUInt8 histo = new MedianLocalHistogramUInt8(totalCount, 0);
+            for(int y = tile.start(); y < tile.end(); y++)
             {
-                int y2r = clamp(y2, 0, sizeY - 1);
-                for (int x2 = - rx1; x2 < rx2; x2++)
-                {
-                    int x2r = clamp(x2, 0, sizeX - 1);
-                    histo.replace(0, source2.getInt(x2r, y2r));
-                }
-            }
+                // clear histogram
+                histo.reset(0);
             
-            for(int x = 0; x < sizeX; x++)
-            {
-                // iterate over front and back pixels around current pixel
-                // iterate over neighbors of current pixel
+                // fill histogram with values around the pixel before the first one
                 for (int y2 = y - ry1; y2 < y + ry2; y2++)
                 {
                     int y2r = clamp(y2, 0, sizeY - 1);
-                    int x2back = clamp(x - rx1, 0, sizeX - 1);
-                    int x2front = clamp(x + rx2, 0, sizeX - 1);
-                    histo.replace(source2.getInt(x2back, y2r), source2.getInt(x2front, y2r));
+                    for (int x2 = - rx1; x2 < rx2; x2++)
+                    {
+                        int x2r = clamp(x2, 0, sizeX - 1);
+                        histo.replace(0, source2.getInt(x2r, y2r));
+                    }
                 }
+            
+                for(int x = 0; x < sizeX; x++)
+                {
+                    // iterate over front and back pixels around current pixel
+                    // iterate over neighbors of current pixel
+                    for (int y2 = y - ry1; y2 < y + ry2; y2++)
+                    {
+                        int y2r = clamp(y2, 0, sizeY - 1);
+                        int x2back = clamp(x - rx1, 0, sizeX - 1);
+                        int x2front = clamp(x + rx2, 0, sizeX - 1);
+                        histo.replace(source2.getInt(x2back, y2r), source2.getInt(x2front, y2r));
+                    }
                 
-                // retrieve the median value
-                target.setValue(x, y, histo.getMedianInt());
+                    // retrieve the median value
+                    target.setValue(x, y, histo.getMedianInt());
+                }
             }
-        }
+        });
     }
     
     /**
@@ -184,55 +184,54 @@ public class MedianFilterBoxSliding extends AlgoStub implements ScalarArrayOpera
         // compute the normalization constant
         int totalCount = (int) MathUtils.prod(diameters);
         
-        // create Local Histogram
-        MedianLocalHistogramUInt8 histo = new MedianLocalHistogramUInt8(totalCount, 0);
-        
-        // iterate over voxel positions
-        for(int z = 0; z < sizeZ; z++)
+        // iterate over voxel positions, using tiles of slices
+        processTiles(sizeZ, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            this.fireProgressChanged(this, z, sizeZ);
-            
-            for(int y = 0; y < sizeY; y++)
+            MedianLocalHistogramUInt8 histo = new MedianLocalHistogramUInt8(totalCount, 0);
+            for(int z = tile.start(); z < tile.end(); z++)
             {
-                // clear histogram
-                histo.reset(0);
-
-                // fill histogram with values around the pixel before the first one
-                for (int z2 = z - rz1; z2 < z + rz2; z2++)
+                for(int y = 0; y < sizeY; y++)
                 {
-                    int z2r = clamp(z2, 0, sizeZ - 1);
-                    for (int y2 = y - ry1; y2 < y + ry2; y2++)
-                    {
-                        int y2r = clamp(y2, 0, sizeY - 1);
-                        for (int x2 = - rx1; x2 < rx2; x2++)
-                        {
-                            int x2r = clamp(x2, 0, sizeX - 1);
-                            histo.replace(0, source2.getInt(x2r, y2r, z2r));
-                        }
-                    }
-                }
-                    
-                for(int x = 0; x < sizeX; x++)
-                {
-                    // iterate over front and back pixels around current pixel
-                    // iterate over neighbors of current pixel
+                    // clear histogram
+                    histo.reset(0);
+
+                    // fill histogram with values around the pixel before the first one
                     for (int z2 = z - rz1; z2 < z + rz2; z2++)
                     {
                         int z2r = clamp(z2, 0, sizeZ - 1);
                         for (int y2 = y - ry1; y2 < y + ry2; y2++)
                         {
                             int y2r = clamp(y2, 0, sizeY - 1);
-                            int x2back = clamp(x - rx1, 0, sizeX - 1);
-                            int x2front = clamp(x + rx2, 0, sizeX - 1);
-                            histo.replace(source2.getInt(x2back, y2r, z2r), source2.getInt(x2front, y2r, z2r));
+                            for (int x2 = - rx1; x2 < rx2; x2++)
+                            {
+                                int x2r = clamp(x2, 0, sizeX - 1);
+                                histo.replace(0, source2.getInt(x2r, y2r, z2r));
+                            }
                         }
                     }
                     
-                    // retrieve the median value
-                    target.setValue(x, y, z, histo.getMedianInt());
+                    for(int x = 0; x < sizeX; x++)
+                    {
+                        // iterate over front and back pixels around current pixel
+                        // iterate over neighbors of current pixel
+                        for (int z2 = z - rz1; z2 < z + rz2; z2++)
+                        {
+                            int z2r = clamp(z2, 0, sizeZ - 1);
+                            for (int y2 = y - ry1; y2 < y + ry2; y2++)
+                            {
+                                int y2r = clamp(y2, 0, sizeY - 1);
+                                int x2back = clamp(x - rx1, 0, sizeX - 1);
+                                int x2front = clamp(x + rx2, 0, sizeX - 1);
+                                histo.replace(source2.getInt(x2back, y2r, z2r), source2.getInt(x2front, y2r, z2r));
+                            }
+                        }
+                    
+                        // retrieve the median value
+                        target.setValue(x, y, z, histo.getMedianInt());
+                    }
                 }
             }
-        }
+        });
     }
     
     private static final int clamp(int value, int minValue, int maxValue)
@@ -3,8 +3,11 @@
  */
 package net.sci.image.filtering;
 
+import java.util.concurrent.atomic.DoubleAccumulator;
+
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
+import net.sci.array.Arrays;
 import net.sci.array.numeric.Float32VectorArray2D;
 import net.sci.array.numeric.Float32VectorArray3D;
 import net.sci.array.numeric.Scalar;
@@ -70,39 +73,44 @@ public class SobelGradient extends AlgoStub implements ImageArrayOperator
         double[][] gradY = new double[][] { { -1, -2, -1 }, { 0, 0, 0 }, { 1, 2, 1 } };
 
         // for each pixel, compute square of module and keep max value
-        double maxAbsValue = Double.NEGATIVE_INFINITY;
+        DoubleAccumulator maxAbsValue = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
 
-        // Iterate over image pixels
-        for (int y = 0; y < sizeY; y++)
+        // Iterate over image pixels, using tiles of rows
+        processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            for (int x = 0; x < sizeX; x++)
+            double tileMax = Double.NEGATIVE_INFINITY;
+            for (int y = tile.start(); y < tile.end(); y++)
             {
-                // current vector values
-                double[] res = new double[2];
-
-                // iterate over current pixel neighbors
-                for (int iy = 0; iy < 3; iy++)
+                for (int x = 0; x < sizeX; x++)
                 {
-                    int y2 = Math.min(Math.max(y + iy - 1, 0), sizeY - 1);
-                    for (int ix = 0; ix < 3; ix++)
+                    // current vector values
+                    double[] res = new double[2];
+
+                    // iterate over current pixel neighbors
+                    for (int iy = 0; iy < 3; iy++)
                     {
-                        int x2 = Math.min(Math.max(x + ix - 1, 0), sizeX - 1);
-                        double val = source.getValue(x2, y2);
-                        res[0] += val * gradX[iy][ix] / 8;
-                        res[1] += val * gradY[iy][ix] / 8;
+                        int y2 = Math.min(Math.max(y + iy - 1, 0), sizeY - 1);
+                        for (int ix = 0; ix < 3; ix++)
+                        {
+                            int x2 = Math.min(Math.max(x + ix - 1, 0), sizeX - 1);
+                            double val = source.getValue(x2, y2);
+                            res[0] += val * gradX[iy][ix] / 8;
+                            res[1] += val * gradY[iy][ix] / 8;
+                        }
                     }
-                }
 
-                // update gradient array
-                target.setValues(x, y, res);
+                    // update gradient array
+                    target.setValues(x, y, res);
 
-                // update max of absolute value
-                double h2 = Math.max(Math.abs(res[0]), Math.abs(res[1]));
-                if (h2 > maxAbsValue) maxAbsValue = h2;
+                    // update max of absolute value
+                    double h2 = Math.max(Math.abs(res[0]), Math.abs(res[1]));
+                    if (h2 > tileMax) tileMax = h2;
+                }
             }
-        }
+            maxAbsValue.accumulate(tileMax);
+        });
 
-        return maxAbsValue;
+        return maxAbsValue.get();
     }
     
     public double processScalar3d(ScalarArray3D<?> source, VectorArray3D<?,?> target)
@@ -134,49 +142,54 @@ public class SobelGradient extends AlgoStub implements ImageArrayOperator
                 };
 
         // for each voxel, compute square of module and keep max value
-        double maxAbsValue = Double.NEGATIVE_INFINITY;
+        DoubleAccumulator maxAbsValue = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
 
-        // Iterate over image voxels
-        for (int z = 0; z < sizeZ; z++)
+        // Iterate over image voxels, using tiles of slices
+        processTiles(sizeZ, 0, Arrays.supportsConcurrentWrites(target), tile -> 
         {
-            for (int y = 0; y < sizeY; y++)
+            double tileMax = Double.NEGATIVE_INFINITY;
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                for (int x = 0; x < sizeX; x++)
+                for (int y = 0; y < sizeY; y++)
                 {
-                    // current vector values
-                    double[] res = new double[3];
-
-                    // iterate over current pixel neighbors
-                    for (int iz = 0; iz < 3; iz++)
+                    for (int x = 0; x < sizeX; x++)
                     {
-                        int z2 = Math.min(Math.max(z + iz - 1, 0), sizeZ - 1);
-                        for (int iy = 0; iy < 3; iy++)
+                        // current vector values
+                        double[] res = new double[3];
+
+                        // iterate over current pixel neighbors
+                        for (int iz = 0; iz < 3; iz++)
                         {
-                            int y2 = Math.min(Math.max(y + iy - 1, 0), sizeY - 1);
-                            for (int ix = 0; ix < 3; ix++)
+                            int z2 = Math.min(Math.max(z + iz - 1, 0), sizeZ - 1);
+                            for (int iy = 0; iy < 3; iy++)
                             {
-                                int x2 = Math.min(Math.max(x + ix - 1, 0), sizeX - 1);
-                                double val = source.getValue(x2, y2, z2);
-                                res[0] += val * gradX[iz][iy][ix] / 32;
-                                res[1] += val * gradY[iz][iy][ix] / 32;
-                                res[2] += val * gradZ[iz][iy][ix] / 32;
+                                int y2 = Math.min(Math.max(y + iy - 1, 0), sizeY - 1);
+                                for (int ix = 0; ix < 3; ix++)
+                                {
+                                    int x2 = Math.min(Math.max(x + ix - 1, 0), sizeX - 1);
+                                    double val = source.getValue(x2, y2, z2);
+                                    res[0] += val * gradX[iz][iy][ix] / 32;
+                                    res[1] += val * gradY[iz][iy][ix] / 32;
+                                    res[2] += val * gradZ[iz][iy][ix] / 32;
+                                }
                             }
                         }
-                    }
 
-                    // update gradient array
-                    target.setValues(x, y, z, res);
-                    
-                    // update max of absolute value
-                    double h2 = Math.abs(res[0]);
-                    h2 = Math.max(h2, Math.abs(res[1]));
-                    h2 = Math.max(h2, Math.abs(res[2]));
-                    if (h2 > maxAbsValue) maxAbsValue = h2;
+                        // update gradient array
+                        target.setValues(x, y, z, res);
+                        
+                        // update max of absolute value
+                        double h2 = Math.abs(res[0]);
+                        h2 = Math.max(h2, Math.abs(res[1]));
+                        h2 = Math.max(h2, Math.abs(res[2]));
+                        if (h2 > tileMax) tileMax = h2;
+                    }
                 }
             }
-        }
+            maxAbsValue.accumulate(tileMax);
+        });
         
-        return maxAbsValue;
+        return maxAbsValue.get();
     }
     
     /**
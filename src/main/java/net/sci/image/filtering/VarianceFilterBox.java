@@ -4,12 +4,14 @@
 package net.sci.image.filtering;
 
 import net.sci.algo.AlgoStub;
+import net.sci.array.Arrays;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.ScalarArray2D;
 import net.sci.array.numeric.ScalarArray3D;
 import net.sci.array.numeric.process.ScalarArrayOperator;
 import net.sci.array.numeric.process.VectorArrayMarginalOperator;
 import net.sci.image.ImageArrayOperator;
+import net.sci.util.MathUtils;
 
 /**
  * Computes the variance in a box neighborhood around each array element.
@@ -151,37 +153,33 @@ public final class VarianceFilterBox extends AlgoStub implements ImageArrayOpera
 		int ry2 = (int) Math.ceil(diamY / 2.0);
 		
 		// compute the normalization constant
-		int boxSize = 1;
-		for (int d : this.diameters)
-		{
-			boxSize *= d;
-		}
-		
-		double[] values = new double[boxSize];
-		
-		for(int y = 0; y < sizeY; y++)
+		int boxSize = (int) MathUtils.prod(this.diameters);
+
+		processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(target), tile -> 
 		{
-			this.fireProgressChanged(this, y, sizeY);
-			
-			for(int x = 0; x < sizeX; x++)
+			double[] values = new double[boxSize];
+			for(int y = tile.start(); y < tile.end(); y++)
 			{
-				// iterate over neighbors of current pixel
-				int count = 0;
-				// iterate over neighbors
-				for (int y2 = y - ry1; y2 < y + ry2; y2++)
+				for(int x = 0; x < sizeX; x++)
 				{
-					int y2r = Math.min(Math.max(y2, 0), sizeY - 1);
-					for (int x2 = x - rx1; x2 < x + rx2; x2++)
+					// iterate over neighbors of current pixel
+					int count = 0;
+					// iterate over neighbors
+					for (int y2 = y - ry1; y2 < y + ry2; y2++)
 					{
-						int x2r = Math.min(Math.max(x2, 0), sizeX - 1);
-						values[count++] = source.getValue(x2r, y2r); 
+						int y2r = Math.min(Math.max(y2, 0), sizeY - 1);
+						for (int x2 = x - rx1; x2 < x + rx2; x2++)
+						{
+							int x2r = Math.min(Math.max(x2, 0), sizeX - 1);
+							values[count++] = source.getValue(x2r, y2r); 
+						}
 					}
-				}
 				
-				// compute variance value
-				target.setValue(x, y, variance(values));
+					// compute variance value
+					target.setValue(x, y, variance(values));
+				}
 			}
-		}
+		});
 	}
 
 	/**
@@ -216,43 +214,39 @@ public final class VarianceFilterBox extends AlgoStub implements ImageArrayOpera
 		int rz2 = (int) Math.ceil(diamZ / 2.0);
 		
 		// compute the normalization constant
-		int totalCount = 1;
-		for (int r : this.diameters)
-		{
-			totalCount *= (2 * r + 1);
-		}
-		
-		double[] values = new double[totalCount];
-		
-		for(int z = 0; z < sizeZ; z++)
+		int totalCount = (int) MathUtils.prod(this.diameters);
+
+		processTiles(sizeZ, 0, Arrays.supportsConcurrentWrites(target), tile -> 
 		{
-			this.fireProgressChanged(this, z, sizeZ);
-			
-			for(int y = 0; y < sizeY; y++)
+			double[] values = new double[totalCount];
+			for(int z = tile.start(); z < tile.end(); z++)
 			{
-				for(int x = 0; x < sizeX; x++)
+				for(int y = 0; y < sizeY; y++)
 				{
-					// iterate over neighbors of current pixel
-					int count = 0;
-					for (int z2 = z - rz1; z2 < z + rz2; z2++)
+					for(int x = 0; x < sizeX; x++)
 					{
-						int z2r = Math.min(Math.max(z2, 0), sizeZ - 1);
-						for (int y2 = y - ry1; y2 < y + ry2; y2++)
+						// iterate over neighbors of current pixel
+						int count = 0;
+						for (int z2 = z - rz1; z2 < z + rz2; z2++)
 						{
-							int y2r = Math.min(Math.max(y2, 0), sizeY - 1);
-							for (int x2 = x - rx1; x2 < x + rx2; x2++)
+							int z2r = Math.min(Math.max(z2, 0), sizeZ - 1);
+							for (int y2 = y - ry1; y2 < y + ry2; y2++)
 							{
-								int x2r = Math.min(Math.max(x2, 0), sizeX - 1);
-								values[count++] = source.getValue(x2r, y2r, z2r); 
+								int y2r = Math.min(Math.max(y2, 0), sizeY - 1);
+								for (int x2 = x - rx1; x2 < x + rx2; x2++)
+								{
+									int x2r = Math.min(Math.max(x2, 0), sizeX - 1);
+									values[count++] = source.getValue(x2r, y2r, z2r); 
+								}
 							}
 						}
-					}
 					
-					// compute variance value
-					target.setValue(x, y, z, variance(values));
+						// compute variance value
+						target.setValue(x, y, z, variance(values));
+					}
 				}
 			}
-		}
+		});
 	}
 
 	/**
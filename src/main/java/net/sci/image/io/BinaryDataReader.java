@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 
 /**
  * Read data with various formats from a binary file, by taking into account
@@ -26,6 +27,12 @@ import java.nio.ByteOrder;
  * within the file can be changed via the {@code seek(long)} method, that calls
  * the corresponding method of the {@RandomAccessFile}.
  * 
+ * Arrays are read through the {@code FileChannel} of the file, by chunks of
+ * at most {@code BULK_BUFFER_SIZE} bytes that are read into a direct buffer
+ * and converted into the destination array using the byte order of the
+ * reader. This avoids the allocation of an intermediate byte array with the
+ * size of the whole destination array.
+ * 
  * @see java.io.DataInput
  * 
  * @author dlegland
@@ -33,6 +40,22 @@ import java.nio.ByteOrder;
  */
 public class BinaryDataReader implements Closeable
 {
+    // =============================================================
+    // Constants
+
+    /**
+     * The maximum size of the buffer used for reading arrays, in bytes. Chosen
+     * as a multiple of the size of all primitive types.
+     */
+    public static final int BULK_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The minimum number of bytes for reading byte arrays through the file
+     * channel. Smaller arrays are read directly from the file.
+     */
+    private static final int MIN_BULK_READ_SIZE = 8192;
+
+
     // =============================================================
     // Class variables
 
@@ -47,6 +70,11 @@ public class BinaryDataReader implements Closeable
      */
     ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
 
+    /**
+     * The direct buffer used for reading arrays, allocated on demand.
+     */
+    ByteBuffer bulkBuffer = null;
+
     
     // =============================================================
     // Constructors
@@ -120,7 +148,11 @@ public class BinaryDataReader implements Closeable
      */
     public int readByteArray(byte[] b, int off, int len) throws IOException
     {
-        return this.raf.read(b, off, len);
+        if (len < MIN_BULK_READ_SIZE)
+        {
+            return this.raf.read(b, off, len);
+        }
+        return readElements(len, 1, (buffer, pos, count) -> buffer.get(b, off + pos, count));
     }
 
     /**
@@ -137,7 +169,7 @@ public class BinaryDataReader implements Closeable
      */
     public int readByteArray(byte[] buffer) throws IOException
     {
-        return this.raf.read(buffer);
+        return readByteArray(buffer, 0, buffer.length);
     }
 
     /**
@@ -159,14 +191,7 @@ public class BinaryDataReader implements Closeable
      */
     public int readShortArray(short[] shortArray, int offset, int n) throws IOException
     {
-        // read byte array of adequate length
-        byte[] byteArray = new byte[n * 2];
-        int nRead = readByteArray(byteArray) / 2;
-
-        ByteBuffer.wrap(byteArray).order(byteOrder).asShortBuffer().get(shortArray, offset, n);
-
-        // return number of data read
-        return nRead;
+        return readElements(n, 2, (buffer, pos, count) -> buffer.order(byteOrder).asShortBuffer().get(shortArray, offset + pos, count));
     }
 
     /**
@@ -188,14 +213,7 @@ public class BinaryDataReader implements Closeable
      */
     public int readIntArray(int[] intArray, int offset, int n) throws IOException
     {
-        // read byte array of adequate length
-        byte[] byteArray = new byte[n * 4];
-        int nRead = readByteArray(byteArray) / 4;
-
-        ByteBuffer.wrap(byteArray).order(byteOrder).asIntBuffer().get(intArray, offset, n);
-
-        // return number of data read
-        return nRead;
+        return readElements(n, 4, (buffer, pos, count) -> buffer.order(byteOrder).asIntBuffer().get(intArray, offset + pos, count));
     }
 
     /**
@@ -217,14 +235,7 @@ public class BinaryDataReader implements Closeable
      */
     public int readFloatArray(float[] floatArray, int offset, int n) throws IOException
     {
-        // read byte array of adequate length
-        byte[] byteArray = new byte[n * 4];
-        int nRead = readByteArray(byteArray) / 4;
-
-        ByteBuffer.wrap(byteArray).order(byteOrder).asFloatBuffer().get(floatArray, offset, n);
-
-        // return number of data read
-        return nRead;
+        return readElements(n, 4, (buffer, pos, count) -> buffer.order(byteOrder).asFloatBuffer().get(floatArray, offset + pos, count));
     }
 
     /**
@@ -246,14 +257,82 @@ public class BinaryDataReader implements Closeable
      */
     public int readDoubleArray(double[] doubleArray, int offset, int n) throws IOException
     {
-        // read byte array of adequate length
-        byte[] byteArray = new byte[n * 8];
-        int nRead = readByteArray(byteArray) / 8;
+        return readElements(n, 8, (buffer, pos, count) -> buffer.order(byteOrder).asDoubleBuffer().get(doubleArray, offset + pos, count));
+    }
 
-        ByteBuffer.wrap(byteArray).order(byteOrder).asDoubleBuffer().get(doubleArray, offset, n);
+    
+    /**
+     * Copies elements from a buffer into a destination array.
+     */
+    @FunctionalInterface
+    private interface ElementCopier
+    {
+        /**
+         * Copies elements from the buffer into the destination array.
+         * 
+         * @param buffer
+         *            the buffer containing the bytes of the elements
+         * @param pos
+         *            the index of the first element within the elements to
+         *            read
+         * @param count
+         *            the number of elements to copy
+         */
+        public void copy(ByteBuffer buffer, int pos, int count);
+    }
+
+    /**
+     * Reads up to <code>n</code> elements through the file channel, by chunks
+     * that fit within the bulk buffer.
+     * 
+     * @return the number of elements read, or -1 if the end of file was
+     *         reached before reading any element
+     */
+    private int readElements(int n, int bytesPerElement, ElementCopier copier) throws IOException
+    {
+        FileChannel channel = this.raf.getChannel();
+        ByteBuffer buffer = bulkBuffer(((long) n) * bytesPerElement);
+        int chunkSize = buffer.capacity() / bytesPerElement;
+
+        int count = 0;
+        while (count < n)
+        {
+            int chunkBytes = Math.min(chunkSize, n - count) * bytesPerElement;
+            buffer.clear().limit(chunkBytes);
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer) < 0) break;
+            }
+
+            // convert the complete elements within the chunk
+            int nElements = buffer.position() / bytesPerElement;
+            buffer.flip();
+            copier.copy(buffer, count, nElements);
+            count += nElements;
+
+            if (nElements * bytesPerElement < chunkBytes)
+            {
+                // end of file reached
+                return count == 0 ? -1 : count;
+            }
+        }
+        return count;
+    }
 
-        // return number of data read
-        return nRead;
+    /**
+     * Returns the buffer used for reading arrays, (re-)allocating it if it is
+     * smaller than the requested size and than the maximum bulk buffer size.
+     */
+    private ByteBuffer bulkBuffer(long byteCount)
+    {
+        int size = (int) Math.min(byteCount, BULK_BUFFER_SIZE);
+        // round up to a multiple of the size of all primitive types
+        size = Math.max((size + 7) & ~7, 8);
+        if (this.bulkBuffer == null || this.bulkBuffer.capacity() < size)
+        {
+            this.bulkBuffer = ByteBuffer.allocateDirect(size);
+        }
+        return this.bulkBuffer;
     }
 
     
@@ -306,6 +385,23 @@ public class BinaryDataReader implements Closeable
        return ByteBuffer.wrap(byteArray).order(byteOrder).asIntBuffer().get();
    }
 
+   /**
+    * Reads the next 64-bits integer from the stream.
+    * 
+    * @return the next long value within this stream
+    * @throws IOException
+    *             if an error occurs
+    */
+   public long readLong() throws IOException
+   {
+       // read byte array of adequate length
+       byte[] byteArray = new byte[8];
+       readByteArray(byteArray);
+
+       // convert to long by wrapping to a long buffer 
+       return ByteBuffer.wrap(byteArray).order(byteOrder).asLongBuffer().get();
+   }
+
    /**
      * Reads the next floating point value from the stream.
      * 
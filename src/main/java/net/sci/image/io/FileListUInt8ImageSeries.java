@@ -6,22 +6,43 @@ package net.sci.image.io;
 import java.io.File;
 import java.io.IOException;
 import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
 
 import net.sci.array.Array;
 import net.sci.array.numeric.UInt8Array;
 import net.sci.array.numeric.UInt8Array2D;
 import net.sci.array.numeric.UInt8Array3D;
+import net.sci.array.numeric.impl.SliceCache;
+import net.sci.array.numeric.impl.SlicedUInt8Array3D;
 import net.sci.image.Image;
 
 /**
  * An implementation of UInt8Array3D that relies on a series of images stored in
  * files.
  * 
- * The class stores the data corresponding to a single slice. When the current
- * slice is updated, the corresponding file is loaded and the data for current
- * slice are updated.
+ * The slices are read from the files when they are accessed, and the most
+ * recently used slices are kept within a SliceCache, whose capacity is
+ * computed from the default byte budget, and can be changed with the
+ * <code>setCacheCapacity()</code> method.
+ * 
+ * When a prefetch window is specified, each access to a new slice triggers the
+ * reading of the next slices in the direction of the access, using the
+ * execution pool of the series. This allows sweeping through the series
+ * without waiting for the decoding of each file. The whole series can also be
+ * read in parallel using the <code>loadAll()</code> method.
+ * 
+ * Example:
+ * <pre><code>
+    FileListUInt8ImageSeries array = new FileListUInt8ImageSeries(files, 512, 512);
+    array.setPrefetchWindow(8);
+    for (int z = 0; z &lt; array.size(2); z++)
+    {
+        process(array.slice(z));
+    }
+ * </code></pre>
  * 
  * @see FileListUInt16ImageSeries
+ * @see net.sci.array.numeric.impl.SliceCache
  */
 public class FileListUInt8ImageSeries extends UInt8Array3D
 {
@@ -34,14 +55,9 @@ public class FileListUInt8ImageSeries extends UInt8Array3D
     File[] fileList;
     
     /**
-     * Index of the current slice (updated when reading data at different z-value).
+     * The cache containing the most recently used slices.
      */
-    int currentSliceIndex = -1;
-    
-    /**
-     * The current slice (updated when reading data at different z-value).
-     */
-    UInt8Array2D currentSlice;
+    SliceCache<UInt8Array2D> cache;
 
     /**
      * A boolean flag that toggles the display of messages about the reading
@@ -49,7 +65,6 @@ public class FileListUInt8ImageSeries extends UInt8Array3D
      */
     public boolean verbose = false;
     
-
     // =============================================================
     // Constructor
     
@@ -70,52 +85,101 @@ public class FileListUInt8ImageSeries extends UInt8Array3D
         super(sizeX, sizeY, fileList.length);
         
         this.fileList = fileList;
+        this.cache = new SliceCache<UInt8Array2D>(fileList.length, ((long) sizeX) * sizeY * 1, this::readSlice);
     }
 
     
     // =============================================================
-    // local processing methods
+    // Cache management
     
-    private void ensureCurrentSliceIndex(int index)
+    /**
+     * Changes the maximum number of slices kept in memory.
+     * 
+     * @param capacity
+     *            the maximum number of slices within the cache
+     */
+    public void setCacheCapacity(int capacity)
     {
-        if (index != this.currentSliceIndex)
-        {
-            try
-            {
-                setCurrentSliceIndex(index);
-            }
-            catch(IOException ex)
-            {
-                throw new RuntimeException("Problem occured when reading slice index " + index, ex);
-            }
-        }
+        this.cache.setCapacity(capacity);
     }
-
-    private void setCurrentSliceIndex(int index) throws IOException
+    
+    /**
+     * Changes the number of slices read in advance after the access to a new
+     * slice. The capacity of the cache is increased if necessary, so that the
+     * prefetched slices are not removed before being used.
+     * 
+     * @param window
+     *            the number of slices to read in advance, or zero for
+     *            disabling prefetching
+     */
+    public void setPrefetchWindow(int window)
+    {
+        this.cache.setPrefetchWindow(window);
+    }
+    
+    /**
+     * @return the number of slices read in advance after the access to a new
+     *         slice
+     */
+    public int getPrefetchWindow()
     {
-        if (index < 0 || index > this.size2)
+        return this.cache.getPrefetchWindow();
+    }
+    
+    /**
+     * Sets up the pool used for reading slices in the background, and for
+     * reading all slices.
+     * 
+     * @param pool
+     *            the pool used for reading slices, or null for using the
+     *            common pool
+     */
+    public void setExecutionPool(ForkJoinPool pool)
+    {
+        this.cache.setExecutor(pool);
+    }
+    
+    
+    // =============================================================
+    // Global reading
+    
+    /**
+     * Reads all the slices of the series in parallel, and returns a new array
+     * containing the data of all the slices. The slices that are already
+     * within the cache are not read again.
+     * 
+     * @return a new array containing all the slices of the series
+     * @throws IOException
+     *             if a file could not be read
+     */
+    public SlicedUInt8Array3D loadAll() throws IOException
+    {
+        return new SlicedUInt8Array3D(this.cache.loadAll());
+    }
+    
+    
+    // =============================================================
+    // local processing methods
+    
+    private UInt8Array2D readSlice(int index) throws IOException
+    {
+        if (index < 0 || index >= this.size2)
         {
             throw new IllegalArgumentException("Slice index must be comprised between 0 and " + this.size2);
         }
         
-        this.currentSliceIndex = index;
-        readCurrentSlice();
-    }
-
-    private void readCurrentSlice() throws IOException
-    {
         // retrieve current file
-        File file = this.fileList[this.currentSliceIndex];
+        File file = this.fileList[index];
         if (verbose)
         {
-            System.out.printf(Locale.ENGLISH, "Read slice %d, file=%s%n", this.currentSliceIndex, file.getName());
+            System.out.printf(Locale.ENGLISH, "Read slice %d, file=%s%n", index, file.getName());
         }
         
         // check file existence
         if (!file.exists())
         {
             throw new RuntimeException(
-                    String.format("Unable to find file for slice %d (%s)", this.currentSliceIndex, file.getName()));
+                    String.format("Unable to find file for slice %d (%s)", index, file.getName()));
         }
         
         // read image data for current slice
@@ -131,20 +195,33 @@ public class FileListUInt8ImageSeries extends UInt8Array3D
         {
             throw new RuntimeException("Requires an image containing array with dimensionality 2, not " + sliceData.dimensionality());
         }
+        if (sliceData.size(0) != this.size0 || sliceData.size(1) != this.size1)
+        {
+            throw new RuntimeException(String.format("Slice %d has size %dx%d instead of %dx%d", index, 
+                    sliceData.size(0), sliceData.size(1), this.size0, this.size1));
+        }
         
-        // keep data
-        this.currentSlice = UInt8Array2D.wrap((UInt8Array) sliceData);
+        return UInt8Array2D.wrap((UInt8Array) sliceData);
     }
     
     
     // =============================================================
     // Implementation of UInt8Array3D methods
     
+    /**
+     * Returns the data of the selected slice, reading it if necessary. The
+     * slice should not be modified.
+     */
+    @Override
+    public UInt8Array2D slice(int sliceIndex)
+    {
+        return this.cache.getAndPrefetch(sliceIndex);
+    }
+    
     @Override
     public byte getByte(int x, int y, int z)
     {
-        ensureCurrentSliceIndex(z);
-        return this.currentSlice.getByte(x, y);
+        return this.cache.getAndPrefetch(z).getByte(x, y);
     }
 
     @Override
@@ -153,6 +230,12 @@ public class FileListUInt8ImageSeries extends UInt8Array3D
         throw new RuntimeException("Modification of a FileList view is not allowed");
     }
     
+    @Override
+    public boolean isModifiable()
+    {
+        return false;
+    }
+    
     
     // =============================================================
     // Override object methods
@@ -160,6 +243,6 @@ public class FileListUInt8ImageSeries extends UInt8Array3D
     @Override
     public String toString()
     {
-        return(String.format("FileListUInt16ImageSeries with size %dx%dx%d, current slice: %d", this.size0, this.size1, this.size2, this.currentSliceIndex));
+        return(String.format("FileListUInt8ImageSeries with size %dx%dx%d", this.size0, this.size1, this.size2));
     }
 }
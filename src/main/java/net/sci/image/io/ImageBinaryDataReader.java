@@ -46,6 +46,13 @@ import net.sci.array.numeric.impl.SlicedUInt8Array3D;
 /**
  * Read image data with various formats taking into account endianness.
  * 
+ * The data of the arrays are read in chunks through a {@code BinaryDataReader}
+ * directly into the primitive buffers of the resulting arrays, without an
+ * intermediate byte array of the size of the image. The progress of the
+ * reading is reported to the algorithm listeners after each chunk, as the
+ * number of bytes read and the total number of bytes to read.
+ * 
+ * @see BinaryDataReader
  * @see java.io.DataInput
  * 
  * @author dlegland
@@ -103,6 +110,25 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
     }
 
 
+    /**
+     * Reads a range of elements into the buffer of an array.
+     */
+    @FunctionalInterface
+    private interface ChunkReader
+    {
+        public void read(int offset, int count) throws IOException;
+    }
+    
+    
+    // =============================================================
+    // Constants
+    
+    /**
+     * The number of bytes read between two progress events.
+     */
+    private static final int PROGRESS_CHUNK_SIZE = 16 * BinaryDataReader.BULK_BUFFER_SIZE;
+    
+    
     // =============================================================
     // Class variables
     
@@ -110,6 +136,28 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
 
     ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
     
+    /**
+     * The low-level reader, sharing the file and the bulk buffer between the
+     * successive reads.
+     */
+    BinaryDataReader reader = null;
+    
+    /**
+     * The total number of bytes of the current reading operation.
+     */
+    long progressTotal = 0;
+    
+    /**
+     * The number of bytes already read by the current reading operation.
+     */
+    long progressCount = 0;
+    
+    /**
+     * The number of nested reading operations, used to report the progress
+     * of 3D arrays over all their slices.
+     */
+    int readDepth = 0;
+    
     
     // =============================================================
     // Constructors
@@ -165,9 +213,7 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
         int numel = sizeX * sizeY;
         byte[] buffer = new byte[numel];
         
-        @SuppressWarnings("resource")
-        BinaryDataReader reader = new BinaryDataReader(inputStream, byteOrder);
-        reader.readByteArray(buffer);
+        readChunks(numel, 1, (offset, count) -> reader().readByteArray(buffer, offset, count));
         
         return new BufferedUInt8Array2D(sizeX, sizeY, buffer);
     }
@@ -176,12 +222,18 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
     {
         ArrayList<UInt8Array2D> slices = new ArrayList<>(sizeZ);
         
-        for (int z = 0; z < sizeZ; z++)
+        beginRead(((long) sizeX) * sizeY * sizeZ);
+        try
+        {
+            for (int z = 0; z < sizeZ; z++)
+            {
+                slices.add(readUInt8Array2D(sizeX, sizeY));
+            }
+        }
+        finally
         {
-            this.fireProgressChanged(this, z, sizeZ);
-            slices.add(readUInt8Array2D(sizeX, sizeY));
+            endRead();
         }
-        this.fireProgressChanged(this, sizeZ, sizeZ);
         
         return new SlicedUInt8Array3D(slices);
     }
@@ -203,9 +255,7 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
         int numel = sizeX * sizeY;
         short[] buffer = new short[numel];
         
-        @SuppressWarnings("resource")
-        BinaryDataReader reader = new BinaryDataReader(inputStream, byteOrder);
-        reader.readShortArray(buffer, 0, numel);
+        readChunks(numel, 2, (offset, count) -> reader().readShortArray(buffer, offset, count));
         
         return new BufferedUInt16Array2D(sizeX, sizeY, buffer);
     }
@@ -214,9 +264,17 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
     {
         ArrayList<UInt16Array2D> slices = new ArrayList<>(sizeZ);
         
-        for (int z = 0; z < sizeZ; z++)
+        beginRead(((long) sizeX) * sizeY * sizeZ * 2);
+        try
+        {
+            for (int z = 0; z < sizeZ; z++)
+            {
+                slices.add(readUInt16Array2D(sizeX, sizeY));
+            }
+        }
+        finally
         {
-            slices.add(readUInt16Array2D(sizeX, sizeY));
+            endRead();
         }
         
         return new SlicedUInt16Array3D(slices);
@@ -239,9 +297,7 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
         int numel = sizeX * sizeY;
         short[] buffer = new short[numel];
         
-        @SuppressWarnings("resource")
-        BinaryDataReader reader = new BinaryDataReader(inputStream, byteOrder);
-        reader.readShortArray(buffer, 0, numel);
+        readChunks(numel, 2, (offset, count) -> reader().readShortArray(buffer, offset, count));
         
         return new BufferedInt16Array2D(sizeX, sizeY, buffer);
     }
@@ -250,9 +306,17 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
     {
         ArrayList<Int16Array2D> slices = new ArrayList<>(sizeZ);
         
-        for (int z = 0; z < sizeZ; z++)
+        beginRead(((long) sizeX) * sizeY * sizeZ * 2);
+        try
+        {
+            for (int z = 0; z < sizeZ; z++)
+            {
+                slices.add(readInt16Array2D(sizeX, sizeY));
+            }
+        }
+        finally
         {
-            slices.add(readInt16Array2D(sizeX, sizeY));
+            endRead();
         }
         
         return new SlicedInt16Array3D(slices);
@@ -276,9 +340,7 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
         int numel = sizeX * sizeY;
         int[] buffer = new int[numel];
         
-        @SuppressWarnings("resource")
-        BinaryDataReader reader = new BinaryDataReader(inputStream, byteOrder);
-        reader.readIntArray(buffer, 0, numel);
+        readChunks(numel, 4, (offset, count) -> reader().readIntArray(buffer, offset, count));
         
         return new BufferedInt32Array2D(sizeX, sizeY, buffer);
     }
@@ -287,9 +349,17 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
     {
         ArrayList<Int32Array2D> slices = new ArrayList<>(sizeZ);
         
-        for (int z = 0; z < sizeZ; z++)
+        beginRead(((long) sizeX) * sizeY * sizeZ * 4);
+        try
         {
-            slices.add(readInt32Array2D(sizeX, sizeY));
+            for (int z = 0; z < sizeZ; z++)
+            {
+                slices.add(readInt32Array2D(sizeX, sizeY));
+            }
+        }
+        finally
+        {
+            endRead();
         }
         
         return new SlicedInt32Array3D(slices);
@@ -312,9 +382,7 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
         int numel = sizeX * sizeY;
         float[] buffer = new float[numel];
         
-        @SuppressWarnings("resource")
-        BinaryDataReader reader = new BinaryDataReader(inputStream, byteOrder);
-        reader.readFloatArray(buffer, 0, numel);
+        readChunks(numel, 4, (offset, count) -> reader().readFloatArray(buffer, offset, count));
         
         return new BufferedFloat32Array2D(sizeX, sizeY, buffer);
     }
@@ -323,9 +391,17 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
     {
         ArrayList<Float32Array2D> slices = new ArrayList<>(sizeZ);
         
-        for (int z = 0; z < sizeZ; z++)
+        beginRead(((long) sizeX) * sizeY * sizeZ * 4);
+        try
+        {
+            for (int z = 0; z < sizeZ; z++)
+            {
+                slices.add(readFloat32Array2D(sizeX, sizeY));
+            }
+        }
+        finally
         {
-            slices.add(readFloat32Array2D(sizeX, sizeY));
+            endRead();
         }
         
         return new SlicedFloat32Array3D(slices);
@@ -348,9 +424,7 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
         int numel = sizeX * sizeY;
         double[] buffer = new double[numel];
         
-        @SuppressWarnings("resource")
-        BinaryDataReader reader = new BinaryDataReader(inputStream, byteOrder);
-        reader.readDoubleArray(buffer, 0, numel);
+        readChunks(numel, 8, (offset, count) -> reader().readDoubleArray(buffer, offset, count));
         
         return new BufferedFloat64Array2D(sizeX, sizeY, buffer);
     }
@@ -359,9 +433,17 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
     {
         ArrayList<Float64Array2D> slices = new ArrayList<>(sizeZ);
         
-        for (int z = 0; z < sizeZ; z++)
+        beginRead(((long) sizeX) * sizeY * sizeZ * 8);
+        try
         {
-            slices.add(readFloat64Array2D(sizeX, sizeY));
+            for (int z = 0; z < sizeZ; z++)
+            {
+                slices.add(readFloat64Array2D(sizeX, sizeY));
+            }
+        }
+        finally
+        {
+            endRead();
         }
         
         return new SlicedFloat64Array3D(slices);
@@ -369,6 +451,54 @@ public class ImageBinaryDataReader extends AlgoStub implements Closeable
 
     
 
+    /**
+     * Reads the elements of an array by chunks, and reports progress after
+     * each chunk.
+     */
+    private void readChunks(int numel, int bytesPerElement, ChunkReader chunkReader) throws IOException
+    {
+        beginRead(((long) numel) * bytesPerElement);
+        try
+        {
+            int chunkSize = PROGRESS_CHUNK_SIZE / bytesPerElement;
+            for (int offset = 0; offset < numel; offset += chunkSize)
+            {
+                int count = Math.min(chunkSize, numel - offset);
+                chunkReader.read(offset, count);
+                this.progressCount += ((long) count) * bytesPerElement;
+                this.fireProgressChanged(this, this.progressCount, this.progressTotal);
+            }
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+    
+    private void beginRead(long byteCount)
+    {
+        if (this.readDepth++ == 0)
+        {
+            this.progressTotal = byteCount;
+            this.progressCount = 0;
+        }
+    }
+    
+    private void endRead()
+    {
+        this.readDepth--;
+    }
+    
+    private BinaryDataReader reader() throws IOException
+    {
+        if (this.reader == null)
+        {
+            this.reader = new BinaryDataReader(this.inputStream, this.byteOrder);
+        }
+        return this.reader;
+    }
+    
+    
     /**
      * Sets the file-pointer offset, measured from the beginning of this file,
      * at which the next read or write occurs.
@@ -3,14 +3,29 @@
  */
 package net.sci.image.io;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.file.Path;
 
 import net.sci.array.Array;
+import net.sci.array.numeric.Float32Array2D;
+import net.sci.array.numeric.Float64Array2D;
+import net.sci.array.numeric.Int16Array2D;
+import net.sci.array.numeric.Int32Array2D;
+import net.sci.array.numeric.UInt16Array2D;
+import net.sci.array.numeric.UInt8Array2D;
 import net.sci.array.numeric.impl.FileMappedFloat32Array3D;
+import net.sci.array.numeric.impl.FileMappedInt16Array3D;
 import net.sci.array.numeric.impl.FileMappedUInt16Array3D;
 import net.sci.array.numeric.impl.FileMappedUInt8Array3D;
+import net.sci.array.numeric.impl.SliceCache;
+import net.sci.array.numeric.impl.VirtualFloat32Array3D;
+import net.sci.array.numeric.impl.VirtualFloat64Array3D;
+import net.sci.array.numeric.impl.VirtualInt16Array3D;
+import net.sci.array.numeric.impl.VirtualInt32Array3D;
+import net.sci.array.numeric.impl.VirtualUInt16Array3D;
+import net.sci.array.numeric.impl.VirtualUInt8Array3D;
 
 /**
  * A collection of utility methods for Image I/O.
@@ -28,6 +43,10 @@ public class ImageIO
         {
             return new FileMappedUInt16Array3D(filePath, offset, dims[0], dims[1], dims[2], byteOrder);
         }
+        else if (pixelType == PixelType.INT16)
+        {
+            return new FileMappedInt16Array3D(filePath, offset, dims[0], dims[1], dims[2], byteOrder);
+        }
         else if (pixelType == PixelType.FLOAT32)
         {
             return new FileMappedFloat32Array3D(filePath, offset, dims[0], dims[1], dims[2], byteOrder);
@@ -51,7 +70,7 @@ public class ImageIO
         }
         else if (pixelType == PixelType.INT16)
         {
-            return new FileMappedUInt16Array3D(filePath, offsets, dims[0], dims[1], dims[2], byteOrder);
+            return new FileMappedInt16Array3D(filePath, offsets, dims[0], dims[1], dims[2], byteOrder);
         }
         else if (pixelType == PixelType.FLOAT32)
         {
@@ -64,6 +83,174 @@ public class ImageIO
     }
     
 
+    /**
+     * Creates a virtual array on the uncompressed data stored within a file,
+     * starting at the specified offset. The array has at least three
+     * dimensions; the slices are contiguous within the file, and correspond
+     * to the first two dimensions of the array.
+     * 
+     * @see #createVirtualArray(Path, long[], int[], PixelType, ByteOrder)
+     * 
+     * @param path
+     *            the path to the file containing the data
+     * @param offset
+     *            the position of the first slice within the file
+     * @param dims
+     *            the dimensions of the array, at least three
+     * @param pixelType
+     *            the type of the elements within the file
+     * @param byteOrder
+     *            the byte order of the data within the file
+     * @return a virtual array on the data of the file
+     * @throws IOException
+     *             if the pixel type is not supported
+     */
+    public static final Array<?> createVirtualArray(Path path, long offset, int[] dims, PixelType pixelType, ByteOrder byteOrder) throws IOException
+    {
+        if (dims.length < 3)
+        {
+            throw new IllegalArgumentException("Virtual arrays must have at least three dimensions");
+        }
+        
+        // the dimensions after the second one are concatenated into slices
+        int sliceCount = 1;
+        for (int d = 2; d < dims.length; d++)
+        {
+            sliceCount *= dims[d];
+        }
+        long sliceByteCount = ((long) dims[0]) * dims[1] * pixelType.byteCount();
+        long[] offsets = new long[sliceCount];
+        for (int z = 0; z < sliceCount; z++)
+        {
+            offsets[z] = offset + z * sliceByteCount;
+        }
+        
+        Array<?> stack = createVirtualArray(path, offsets, new int[] {dims[0], dims[1], sliceCount}, pixelType, byteOrder);
+        return dims.length == 3 ? stack : reshapeStack(stack, dims);
+    }
+    
+    /**
+     * Creates a virtual 3D array on the uncompressed slices stored within a
+     * file. The slices of UInt8, UInt16, Int16 and Float32 arrays are mapped
+     * into memory, whereas the slices of other scalar types are read when they
+     * are accessed, and kept within a slice cache.
+     * 
+     * @param path
+     *            the path to the file containing the data
+     * @param offsets
+     *            the position of each slice within the file
+     * @param dims
+     *            the dimensions of the 3D array
+     * @param pixelType
+     *            the type of the elements within the file
+     * @param byteOrder
+     *            the byte order of the data within the file
+     * @return a virtual array on the data of the file
+     * @throws IOException
+     *             if the pixel type is not supported
+     */
+    public static final Array<?> createVirtualArray(Path path, long[] offsets, int[] dims, PixelType pixelType, ByteOrder byteOrder) throws IOException
+    {
+        if (pixelType == PixelType.UINT8 || pixelType == PixelType.UINT12 || pixelType == PixelType.UINT16
+                || pixelType == PixelType.INT16 || pixelType == PixelType.FLOAT32)
+        {
+            return createFileMappedArray(path, offsets, dims, pixelType, byteOrder);
+        }
+        
+        if (pixelType != PixelType.INT32 && pixelType != PixelType.FLOAT64)
+        {
+            throw new IOException("Can not create virtual stack with " + pixelType + " pixel type");
+        }
+        
+        // read the slices of other types with a binary data reader
+        File file = path.toFile();
+        int[] sliceDims = new int[] {dims[0], dims[1]};
+        return createVirtualArray(dims, pixelType, index -> {
+            try (ImageBinaryDataReader reader = new ImageBinaryDataReader(file, byteOrder))
+            {
+                reader.seek(offsets[index]);
+                if (pixelType == PixelType.INT32)
+                {
+                    return Int32Array2D.wrap(reader.readInt32Array(sliceDims));
+                }
+                return Float64Array2D.wrap(reader.readFloat64Array(sliceDims));
+            }
+        });
+    }
+    
+    /**
+     * Creates a virtual 3D array whose slices are read on demand by the
+     * specified loader, and kept in memory within a slice cache. The slices
+     * returned by the loader must be 2D arrays consistent with the pixel type.
+     * 
+     * @param dims
+     *            the dimensions of the 3D array
+     * @param pixelType
+     *            the type of the elements of the array
+     * @param loader
+     *            the object used to read the slices
+     * @return a new virtual array
+     * @throws IOException
+     *             if the pixel type is not supported by virtual arrays
+     */
+    public static final Array<?> createVirtualArray(int[] dims, PixelType pixelType, SliceCache.Loader<? extends Array<?>> loader) throws IOException
+    {
+        if (pixelType == PixelType.UINT8)
+        {
+            return new VirtualUInt8Array3D(dims[0], dims[1], dims[2], index -> (UInt8Array2D) loader.load(index));
+        }
+        else if (pixelType == PixelType.UINT12 || pixelType == PixelType.UINT16)
+        {
+            return new VirtualUInt16Array3D(dims[0], dims[1], dims[2], index -> (UInt16Array2D) loader.load(index));
+        }
+        else if (pixelType == PixelType.INT16)
+        {
+            return new VirtualInt16Array3D(dims[0], dims[1], dims[2], index -> (Int16Array2D) loader.load(index));
+        }
+        else if (pixelType == PixelType.INT32)
+        {
+            return new VirtualInt32Array3D(dims[0], dims[1], dims[2], index -> (Int32Array2D) loader.load(index));
+        }
+        else if (pixelType == PixelType.FLOAT32)
+        {
+            return new VirtualFloat32Array3D(dims[0], dims[1], dims[2], index -> (Float32Array2D) loader.load(index));
+        }
+        else if (pixelType == PixelType.FLOAT64)
+        {
+            return new VirtualFloat64Array3D(dims[0], dims[1], dims[2], index -> (Float64Array2D) loader.load(index));
+        }
+        else
+        {
+            throw new IOException("Can not create virtual stack with " + pixelType + " pixel type");
+        }
+    }
+    
+    /**
+     * Creates a view with the specified dimensions on a 3D array whose slices
+     * are the concatenation of the dimensions after the second one, the third
+     * dimension varying the fastest. The view keeps the type of the array, and
+     * does not read the data.
+     * 
+     * @param stack
+     *            the 3D array
+     * @param dims
+     *            the dimensions of the view
+     * @return a view on the 3D array
+     */
+    public static final Array<?> reshapeStack(Array<?> stack, int[] dims)
+    {
+        int nd = dims.length;
+        return stack.reshapeView(dims, pos -> {
+            int index = 0;
+            for (int d = nd - 1; d >= 2; d--)
+            {
+                index = index * dims[d] + pos[d];
+            }
+            return new int[] {pos[0], pos[1], index};
+        });
+    }
+    
+
     /**
      * Private constructor to prevent instantiation. 
      */
@@ -4,6 +4,11 @@
 package net.sci.image.io;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.SampleModel;
 import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.IOException;
@@ -11,15 +16,27 @@ import java.io.IOException;
 import javax.imageio.ImageIO;
 
 import net.sci.array.Array;
+import net.sci.array.color.BufferedPackedByteRGB8Array2D;
 import net.sci.array.color.RGB8;
 import net.sci.array.color.RGB8Array2D;
 import net.sci.array.numeric.IntArray2D;
 import net.sci.array.numeric.UInt8Array2D;
+import net.sci.array.numeric.impl.BufferedUInt16Array2D;
+import net.sci.array.numeric.impl.BufferedUInt8Array2D;
+import net.sci.array.numeric.impl.BufferedUInt8Array3D;
 import net.sci.image.Image;
 
 /**
  * Encapsulate Java ImageIO into ImageReader interface.
  * 
+ * The data of the decoded images are transferred from the data buffer of the
+ * raster when possible: 8-bits gray images are wrapped into UInt8 arrays
+ * without copy, 16-bits gray images are wrapped into UInt16 arrays, and 8-bits
+ * color images are de-interleaved into packed RGB8 arrays. Other rasters are
+ * converted pixel by pixel.
+ * 
+ * @see ImageIOSeriesReader
+ * 
  * @author dlegland
  *
  */
@@ -68,60 +85,256 @@ public class ImageIOImageReader implements ImageReader
 	 */
 	public static final Image convertBufferedImage(BufferedImage bufImg)
 	{
-		// Image dimension
-		int width = bufImg.getWidth();
-		int height = bufImg.getHeight();
+		// create the meta-image
+		Image image = new Image(convertToArray(bufImg));
+		return image;
+	}
 
+	/**
+	 * Converts the raster of a BufferedImage into an array. Gray images are
+	 * converted into UInt8 or UInt16 arrays, color images are converted into
+	 * RGB8 arrays.
+	 * 
+	 * The array may share its data with the BufferedImage, that should not be
+	 * used after the conversion.
+	 * 
+	 * @param bufImg
+	 *            an instance of BufferedImage
+	 * @return the array containing the data of the image
+	 */
+	public static final Array<?> convertToArray(BufferedImage bufImg)
+	{
 		// get the raster, that contains data
 		WritableRaster raster = bufImg.getRaster();
-
 		int nc = raster.getNumBands();
 
-		Array<?> array = null;
 		if (nc == 1)
 		{
-			// Create new intensity image
-			IntArray2D<?> intArray = UInt8Array2D.create(width, height);
+			Array<?> array = convertGrayRaster(raster);
+			return array != null ? array : convertGrayRasterSamples(raster);
+		}
+		else if (nc == 3 || nc == 4)
+		{
+			Array<?> array = convertColorRaster(raster);
+			return array != null ? array : convertColorRasterSamples(raster);
+		}
+		throw new RuntimeException("Can not manage images with number of bands equal to " + nc);
+	}
+
+	/**
+	 * Transfers the data buffer of a single band raster with 8 or 16 bits per
+	 * sample into a UInt8 or UInt16 array, or returns null if the raster does
+	 * not use a component sample model.
+	 */
+	private static final Array<?> convertGrayRaster(WritableRaster raster)
+	{
+		SampleModel sm = raster.getSampleModel();
+		DataBuffer db = raster.getDataBuffer();
+		if (!(sm instanceof ComponentSampleModel csm))
+		{
+			return null;
+		}
+
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+		int pixelStride = csm.getPixelStride();
+		int scanlineStride = csm.getScanlineStride();
+		int bank = csm.getBankIndices()[0];
+		int offset = db.getOffsets()[bank] + csm.getBandOffsets()[0]
+				- raster.getSampleModelTranslateY() * scanlineStride
+				- raster.getSampleModelTranslateX() * pixelStride;
+		boolean contiguous = offset == 0 && pixelStride == 1 && scanlineStride == width;
 
-			// Initialize image data with raster content
+		if (db instanceof DataBufferByte dbb)
+		{
+			byte[] data = dbb.getData(bank);
+			if (contiguous && data.length == width * height)
+			{
+				// no copy
+				return new BufferedUInt8Array2D(width, height, data);
+			}
+			byte[] buffer = new byte[width * height];
 			for (int y = 0; y < height; y++)
 			{
-				for (int x = 0; x < width; x++)
+				int index = offset + y * scanlineStride;
+				for (int x = 0; x < width; x++, index += pixelStride)
+				{
+					buffer[y * width + x] = data[index];
+				}
+			}
+			return new BufferedUInt8Array2D(width, height, buffer);
+		}
+		if (db instanceof DataBufferUShort dbs)
+		{
+			short[] data = dbs.getData(bank);
+			if (contiguous && data.length == width * height)
+			{
+				// no copy
+				return new BufferedUInt16Array2D(width, height, data);
+			}
+			short[] buffer = new short[width * height];
+			for (int y = 0; y < height; y++)
+			{
+				int index = offset + y * scanlineStride;
+				for (int x = 0; x < width; x++, index += pixelStride)
 				{
-					int value = raster.getSample(x, y, 0);
-					intArray.setInt(x, y, value);
+					buffer[y * width + x] = data[index];
 				}
 			}
-			array = intArray;
+			return new BufferedUInt16Array2D(width, height, buffer);
+		}
+		return null;
+	}
 
-		} 
-		else if (nc == 3 || nc == 4)
+	/**
+	 * De-interleaves the first three bands of a raster with 8 bits per sample
+	 * into a packed RGB8 array, or returns null if the raster does not use a
+	 * component sample model on a byte buffer.
+	 */
+	private static final Array<?> convertColorRaster(WritableRaster raster)
+	{
+		SampleModel sm = raster.getSampleModel();
+		if (!(sm instanceof ComponentSampleModel csm) || !(raster.getDataBuffer() instanceof DataBufferByte dbb))
 		{
-			// Create new color image
-			RGB8Array2D rgbArray = RGB8Array2D.create(width, height);
+			return null;
+		}
+
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+		int pixelStride = csm.getPixelStride();
+		int scanlineStride = csm.getScanlineStride();
+		int[] bankIndices = csm.getBankIndices();
+		int[] bandOffsets = csm.getBandOffsets();
+		int translate = raster.getSampleModelTranslateY() * scanlineStride
+				+ raster.getSampleModelTranslateX() * pixelStride;
+
+		// the buffer contains all red values, then green values, then blue values
+		int planeSize = width * height;
+		byte[] buffer = new byte[planeSize * 3];
+		for (int c = 0; c < 3; c++)
+		{
+			byte[] data = dbb.getData(bankIndices[c]);
+			int offset = dbb.getOffsets()[bankIndices[c]] + bandOffsets[c] - translate;
+			int planeOffset = c * planeSize;
+			for (int y = 0; y < height; y++)
+			{
+				int index = offset + y * scanlineStride;
+				int index2 = planeOffset + y * width;
+				for (int x = 0; x < width; x++, index += pixelStride)
+				{
+					buffer[index2 + x] = data[index];
+				}
+			}
+		}
+		return new BufferedPackedByteRGB8Array2D(new BufferedUInt8Array3D(width, height, 3, buffer));
+	}
 
-			// Initialize image data with raster content
+	/**
+	 * Encodes the first three bands of a raster with 8 bits per sample into
+	 * the int codes of RGB8 values, and stores them into the target buffer
+	 * starting at the specified index. Rasters using a component sample model
+	 * on a byte buffer are read directly from their data buffer, other rasters
+	 * are read sample by sample.
+	 * 
+	 * @param raster
+	 *            the raster containing at least three bands
+	 * @param codes
+	 *            the buffer of int codes to fill, in x-first order
+	 * @param offset
+	 *            the index of the code of the first pixel within the buffer
+	 * @see net.sci.array.color.RGB8#intCode()
+	 */
+	static final void convertColorRaster(WritableRaster raster, int[] codes, int offset)
+	{
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+
+		SampleModel sm = raster.getSampleModel();
+		if (!(sm instanceof ComponentSampleModel csm) || !(raster.getDataBuffer() instanceof DataBufferByte dbb))
+		{
 			for (int y = 0; y < height; y++)
 			{
+				int index = offset + y * width;
 				for (int x = 0; x < width; x++)
 				{
-					int r = raster.getSample(x, y, 0);
-					int g = raster.getSample(x, y, 1);
-					int b = raster.getSample(x, y, 2);
-					rgbArray.set(x, y, new RGB8(r, g, b));
+					codes[index + x] = new RGB8(raster.getSample(x, y, 0), raster.getSample(x, y, 1), raster.getSample(x, y, 2)).intCode();
 				}
 			}
-			array = rgbArray;
-		} 
-		else
+			return;
+		}
+
+		int pixelStride = csm.getPixelStride();
+		int scanlineStride = csm.getScanlineStride();
+		int[] bankIndices = csm.getBankIndices();
+		int[] bandOffsets = csm.getBandOffsets();
+		int translate = raster.getSampleModelTranslateY() * scanlineStride
+				+ raster.getSampleModelTranslateX() * pixelStride;
+
+		byte[] red = dbb.getData(bankIndices[0]);
+		byte[] green = dbb.getData(bankIndices[1]);
+		byte[] blue = dbb.getData(bankIndices[2]);
+		int offsetR = dbb.getOffsets()[bankIndices[0]] + bandOffsets[0] - translate;
+		int offsetG = dbb.getOffsets()[bankIndices[1]] + bandOffsets[1] - translate;
+		int offsetB = dbb.getOffsets()[bankIndices[2]] + bandOffsets[2] - translate;
+		for (int y = 0; y < height; y++)
 		{
-			throw new RuntimeException(
-					"Can not manage images with number of bands equal to " + nc);
+			int rowOffset = y * scanlineStride;
+			int index = offset + y * width;
+			for (int x = 0, pos = rowOffset; x < width; x++, pos += pixelStride)
+			{
+				// the red component is stored within the lowest byte
+				codes[index + x] = (blue[offsetB + pos] & 0x00FF) << 16
+						| (green[offsetG + pos] & 0x00FF) << 8
+						| (red[offsetR + pos] & 0x00FF);
+			}
 		}
+	}
 
-		// create the meta-image
-		Image image = new Image(array);
-		return image;
+	/**
+	 * Converts a single band raster by reading each sample.
+	 */
+	private static final Array<?> convertGrayRasterSamples(WritableRaster raster)
+	{
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+
+		// Create new intensity image
+		IntArray2D<?> intArray = UInt8Array2D.create(width, height);
+
+		// Initialize image data with raster content
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				int value = raster.getSample(x, y, 0);
+				intArray.setInt(x, y, value);
+			}
+		}
+		return intArray;
 	}
 
+	/**
+	 * Converts a color raster by reading each sample.
+	 */
+	private static final Array<?> convertColorRasterSamples(WritableRaster raster)
+	{
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+
+		// Create new color image
+		RGB8Array2D rgbArray = RGB8Array2D.create(width, height);
+
+		// Initialize image data with raster content
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				int r = raster.getSample(x, y, 0);
+				int g = raster.getSample(x, y, 1);
+				int b = raster.getSample(x, y, 2);
+				rgbArray.set(x, y, new RGB8(r, g, b));
+			}
+		}
+		return rgbArray;
+	}
 }
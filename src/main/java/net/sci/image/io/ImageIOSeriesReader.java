@@ -0,0 +1,296 @@
+/**
+ *
+ */
+package net.sci.image.io;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.Array;
+import net.sci.array.Array3D;
+import net.sci.array.color.Int32EncodedRGB8Array3D;
+import net.sci.array.numeric.UInt16Array;
+import net.sci.array.numeric.UInt8Array;
+import net.sci.array.numeric.impl.BufferedInt32Array3D;
+import net.sci.array.numeric.impl.SlicedUInt16Array3D;
+import net.sci.array.numeric.impl.SlicedUInt8Array3D;
+import net.sci.image.Image;
+
+/**
+ * Reads a series of 2D images stored in files readable by Java ImageIO (PNG,
+ * JPEG, BMP, GIF...), and returns them as a single 3D image.
+ *
+ * The files are decoded in parallel using the execution pool of the reader,
+ * or the common pool if no pool was specified. All the images must have the
+ * same size and the same type. Gray images result in UInt8 or UInt16 arrays,
+ * and color images result in RGB8 arrays.
+ *
+ * Example:
+ * <pre><code>
+    ImageIOSeriesReader reader = new ImageIOSeriesReader(new File("slices"));
+    Image image = reader.readImage();
+ * </code></pre>
+ *
+ * @see ImageIOImageReader
+ * @see FileListUInt8ImageSeries
+ *
+ * @author dlegland
+ *
+ */
+public class ImageIOSeriesReader extends AlgoStub implements ImageReader
+{
+    // =============================================================
+    // Static methods
+
+    /**
+     * Lists the files within a directory that can be decoded by Java ImageIO,
+     * sorted by name.
+     *
+     * @param directory
+     *            the directory containing the image files
+     * @return the sorted array of image files
+     */
+    public static final File[] listImageFiles(File directory)
+    {
+        String[] suffixes = ImageIO.getReaderFileSuffixes();
+        File[] files = directory.listFiles(file ->
+        {
+            if (!file.isFile()) return false;
+            String name = file.getName().toLowerCase(Locale.ENGLISH);
+            int index = name.lastIndexOf('.');
+            return index >= 0 && Arrays.asList(suffixes).contains(name.substring(index + 1));
+        });
+        if (files == null)
+        {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+
+    // =============================================================
+    // Class variables
+
+    /**
+     * The list of files, one for each slice.
+     */
+    File[] files;
+
+    /**
+     * The directory containing the files, used to name the image, or null.
+     */
+    File directory = null;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new reader for the image files within the specified
+     * directory. The files are sorted by name.
+     *
+     * @param directory
+     *            the directory containing the image files
+     */
+    public ImageIOSeriesReader(File directory)
+    {
+        this(listImageFiles(directory));
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new reader for the specified list of image files.
+     *
+     * @param files
+     *            the list of files, one for each slice
+     */
+    public ImageIOSeriesReader(File[] files)
+    {
+        if (files.length == 0)
+        {
+            throw new IllegalArgumentException("Requires at least one image file");
+        }
+        this.files = files.clone();
+    }
+
+
+    // =============================================================
+    // Methods
+
+    @Override
+    public Image readImage() throws IOException
+    {
+        Image image = new Image(readImageStack());
+        File ref = this.directory != null ? this.directory : this.files[0];
+        image.setNameFromFileName(ref.getName());
+        image.setFilePath(ref.getPath());
+        return image;
+    }
+
+    /**
+     * Decodes all the files in parallel, and returns the slices as a 3D array.
+     *
+     * @return a 3D array containing the data of all the files
+     * @throws IOException
+     *             if a file could not be decoded, or if the images do not have
+     *             the same size and type
+     */
+    public Array3D<?> readImageStack() throws IOException
+    {
+        int nSlices = this.files.length;
+
+        // decode the first image, to determine the type and the size of the result
+        BufferedImage image0 = readBufferedImage(0);
+        int sizeX = image0.getWidth();
+        int sizeY = image0.getHeight();
+
+        // color images are encoded directly within the buffer of the result
+        // by the decoding tasks, gray images are kept as slices
+        boolean color = isColor(image0);
+        if (color && ((long) sizeX) * sizeY * nSlices > Integer.MAX_VALUE)
+        {
+            throw new IOException("Color image series is too large to be stored within a single buffer");
+        }
+        int[] codes = color ? new int[sizeX * sizeY * nSlices] : null;
+        Array<?> slice0 = color ? null : convertGrayImage(image0, 0);
+
+        ForkJoinPool pool = this.getExecutionPool() != null ? this.getExecutionPool() : ForkJoinPool.commonPool();
+        boolean parallel = !ForkJoinTask.inForkJoinPool();
+
+        ArrayList<Future<Array<?>>> futures = new ArrayList<Future<Array<?>>>(nSlices);
+        for (int z = 0; z < nSlices; z++)
+        {
+            final int index = z;
+            if (parallel && z > 0)
+            {
+                futures.add(pool.submit(() -> processSlice(index, null, sizeX, sizeY, slice0, codes)));
+            }
+            else
+            {
+                futures.add(null);
+            }
+        }
+
+        ArrayList<Array<?>> slices = new ArrayList<Array<?>>(nSlices);
+        for (int z = 0; z < nSlices; z++)
+        {
+            Future<Array<?>> future = futures.get(z);
+            slices.add(future != null ? waitFor(future) : processSlice(z, z == 0 ? image0 : null, sizeX, sizeY, slice0, codes));
+            this.fireProgressChanged(this, z + 1, nSlices);
+        }
+
+        if (codes != null)
+        {
+            return new Int32EncodedRGB8Array3D(new BufferedInt32Array3D(sizeX, sizeY, nSlices, codes));
+        }
+        if (slice0 instanceof UInt8Array)
+        {
+            return new SlicedUInt8Array3D(slices.stream().map(slice -> (UInt8Array) slice).toList());
+        }
+        return new SlicedUInt16Array3D(slices.stream().map(slice -> (UInt16Array) slice).toList());
+    }
+
+    /**
+     * Decodes a slice if necessary, and checks its consistency with the first
+     * slice. Color slices are encoded within the buffer of codes, and null is
+     * returned. Gray slices are converted into arrays.
+     */
+    private Array<?> processSlice(int index, BufferedImage image, int sizeX, int sizeY, Array<?> slice0, int[] codes) throws IOException
+    {
+        if (image == null)
+        {
+            image = readBufferedImage(index);
+        }
+        if (image.getWidth() != sizeX || image.getHeight() != sizeY || isColor(image) != (codes != null))
+        {
+            throw new IOException(String.format("Image in file %s does not have the same size or type as the first image",
+                    this.files[index].getName()));
+        }
+
+        if (codes != null)
+        {
+            ImageIOImageReader.convertColorRaster(image.getRaster(), codes, index * sizeX * sizeY);
+            return null;
+        }
+
+        Array<?> slice = index == 0 ? slice0 : convertGrayImage(image, index);
+        boolean sameType = (slice instanceof UInt8Array && slice0 instanceof UInt8Array)
+                || (slice instanceof UInt16Array && slice0 instanceof UInt16Array);
+        if (!sameType)
+        {
+            throw new IOException(String.format("Image in file %s does not have the same size or type as the first image",
+                    this.files[index].getName()));
+        }
+        return slice;
+    }
+
+    private BufferedImage readBufferedImage(int index) throws IOException
+    {
+        File file = this.files[index];
+        BufferedImage bufImg = ImageIO.read(file);
+        if (bufImg == null)
+        {
+            throw new IOException("Could not decode image file " + file.getName());
+        }
+        return bufImg;
+    }
+
+    private static final boolean isColor(BufferedImage image)
+    {
+        int nc = image.getRaster().getNumBands();
+        return nc == 3 || nc == 4;
+    }
+
+    private Array<?> convertGrayImage(BufferedImage image, int index) throws IOException
+    {
+        if (image.getRaster().getNumBands() != 1)
+        {
+            throw new IOException("Can not read series of images with " + image.getRaster().getNumBands()
+                    + " bands, from file " + this.files[index].getName());
+        }
+        Array<?> array = ImageIOImageReader.convertToArray(image);
+        if (!(array instanceof UInt8Array) && !(array instanceof UInt16Array))
+        {
+            throw new IOException("Can not read series of images with type " + array.getClass().getSimpleName());
+        }
+        return array;
+    }
+
+    private static final Array<?> waitFor(Future<Array<?>> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading image series");
+        }
+        catch (ExecutionException ex)
+        {
+            if (ex.getCause() instanceof IOException ioe)
+            {
+                throw ioe;
+            }
+            if (ex.getCause() instanceof RuntimeException rex)
+            {
+                throw rex;
+            }
+            throw new IOException("Error while reading image series", ex.getCause());
+        }
+    }
+}
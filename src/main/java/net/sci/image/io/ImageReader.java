@@ -23,4 +23,24 @@ public interface ImageReader
      *             if there was a problem during image reading.
      */
 	public Image readImage() throws IOException;
+	
+    /**
+     * Reads an image whose data are read from the file only when they are
+     * accessed ("virtual stack"). Depending on the reader, the slices are
+     * either mapped into memory, or read on demand and kept within a cache of
+     * bounded size, so that opening a large file is fast and requires little
+     * memory.
+     * 
+     * The default implementation reads the whole image data by calling the
+     * <code>readImage()</code> method. Readers that can create virtual arrays
+     * should override this method.
+     * 
+     * @return a new Image instance, whose data are read on demand
+     * @throws IOException
+     *             if there was a problem during image reading.
+     */
+    public default Image readVirtualImage() throws IOException
+    {
+        return readImage();
+    }
 }
@@ -0,0 +1,477 @@
+/**
+ *
+ */
+package net.sci.image.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.numeric.Float32Array;
+import net.sci.array.numeric.Float32Array2D;
+import net.sci.array.numeric.Float64Array;
+import net.sci.array.numeric.Float64Array2D;
+import net.sci.array.numeric.Int16Array;
+import net.sci.array.numeric.Int16Array2D;
+import net.sci.array.numeric.Int32Array;
+import net.sci.array.numeric.Int32Array2D;
+import net.sci.array.numeric.UInt16Array;
+import net.sci.array.numeric.UInt16Array2D;
+import net.sci.array.numeric.UInt8Array;
+import net.sci.array.numeric.UInt8Array2D;
+import net.sci.array.numeric.impl.BufferedFloat32Array2D;
+import net.sci.array.numeric.impl.BufferedFloat32ArrayND;
+import net.sci.array.numeric.impl.BufferedFloat64Array2D;
+import net.sci.array.numeric.impl.BufferedFloat64ArrayND;
+import net.sci.array.numeric.impl.BufferedInt16Array2D;
+import net.sci.array.numeric.impl.BufferedInt16ArrayND;
+import net.sci.array.numeric.impl.BufferedInt32Array2D;
+import net.sci.array.numeric.impl.BufferedInt32ArrayND;
+import net.sci.array.numeric.impl.BufferedUInt16Array2D;
+import net.sci.array.numeric.impl.BufferedUInt16ArrayND;
+import net.sci.array.numeric.impl.BufferedUInt8Array2D;
+import net.sci.array.numeric.impl.BufferedUInt8ArrayND;
+import net.sci.array.numeric.impl.SlicedFloat32Array3D;
+import net.sci.array.numeric.impl.SlicedFloat64Array3D;
+import net.sci.array.numeric.impl.SlicedInt16Array3D;
+import net.sci.array.numeric.impl.SlicedInt32Array3D;
+import net.sci.array.numeric.impl.SlicedUInt16Array3D;
+import net.sci.array.numeric.impl.SlicedUInt8Array3D;
+
+/**
+ * Reads image data stored within a file as a zlib stream, as for compressed
+ * MetaImage files.
+ *
+ * The compressed data are read and decoded by small chunks, and the values are
+ * written directly into the buffers of the arrays. The compressed data are
+ * never stored entirely in memory. Three-dimensional arrays are read slice by
+ * slice, as for the ImageBinaryDataReader class.
+ *
+ * @see ImageBinaryDataReader
+ * @see java.util.zip.Inflater
+ *
+ * @author dlegland
+ *
+ */
+public class InflaterDataReader extends AlgoStub implements Closeable
+{
+    // =============================================================
+    // Constants
+
+    /**
+     * The size of the buffer used for reading compressed data from the file,
+     * and for converting uncompressed bytes into values. Must be a multiple of
+     * eight.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+
+    // =============================================================
+    // Class variables
+
+    /**
+     * The decoder used to uncompress the data.
+     */
+    Inflater inflater;
+
+    /**
+     * The stream that decodes the content of the file.
+     */
+    InflaterInputStream inputStream;
+
+    /**
+     * The order of bytes within multi-byte values.
+     */
+    ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+
+    /**
+     * A buffer for converting bytes into multi-byte values, allocated only
+     * when necessary.
+     */
+    ByteBuffer byteBuffer = null;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new reader for the compressed data starting at the specified
+     * position within a file.
+     *
+     * @param file
+     *            the file containing the data
+     * @param offset
+     *            the position of the first byte of compressed data within the
+     *            file
+     * @param order
+     *            the order of bytes within multi-byte values
+     * @throws IOException
+     *             if the file could not be opened
+     */
+    public InflaterDataReader(File file, long offset, ByteOrder order) throws IOException
+    {
+        FileInputStream fis = new FileInputStream(file);
+        try
+        {
+            fis.getChannel().position(offset);
+        }
+        catch (IOException ex)
+        {
+            fis.close();
+            throw ex;
+        }
+        this.inflater = new Inflater();
+        this.inputStream = new InflaterInputStream(fis, this.inflater, BUFFER_SIZE);
+        this.byteOrder = order;
+    }
+
+
+    // =============================================================
+    // Read arrays
+
+    public UInt8Array readUInt8Array(int[] dims) throws IOException
+    {
+        if (dims.length == 2)
+        {
+            return new BufferedUInt8Array2D(dims[0], dims[1], readBytes(dims[0] * dims[1]));
+        }
+        if (dims.length == 3)
+        {
+            ArrayList<UInt8Array2D> slices = new ArrayList<>(dims[2]);
+            for (int z = 0; z < dims[2]; z++)
+            {
+                this.fireProgressChanged(this, z, dims[2]);
+                slices.add(new BufferedUInt8Array2D(dims[0], dims[1], readBytes(dims[0] * dims[1])));
+            }
+            this.fireProgressChanged(this, dims[2], dims[2]);
+            return new SlicedUInt8Array3D(slices);
+        }
+        return new BufferedUInt8ArrayND(dims, readBytes(elementCount(dims)));
+    }
+
+    public UInt16Array readUInt16Array(int[] dims) throws IOException
+    {
+        if (dims.length == 2)
+        {
+            return new BufferedUInt16Array2D(dims[0], dims[1], readShorts(dims[0] * dims[1]));
+        }
+        if (dims.length == 3)
+        {
+            ArrayList<UInt16Array2D> slices = new ArrayList<>(dims[2]);
+            for (int z = 0; z < dims[2]; z++)
+            {
+                this.fireProgressChanged(this, z, dims[2]);
+                slices.add(new BufferedUInt16Array2D(dims[0], dims[1], readShorts(dims[0] * dims[1])));
+            }
+            this.fireProgressChanged(this, dims[2], dims[2]);
+            return new SlicedUInt16Array3D(slices);
+        }
+        return new BufferedUInt16ArrayND(dims, readShorts(elementCount(dims)));
+    }
+
+    public Int16Array readInt16Array(int[] dims) throws IOException
+    {
+        if (dims.length == 2)
+        {
+            return new BufferedInt16Array2D(dims[0], dims[1], readShorts(dims[0] * dims[1]));
+        }
+        if (dims.length == 3)
+        {
+            ArrayList<Int16Array2D> slices = new ArrayList<>(dims[2]);
+            for (int z = 0; z < dims[2]; z++)
+            {
+                this.fireProgressChanged(this, z, dims[2]);
+                slices.add(new BufferedInt16Array2D(dims[0], dims[1], readShorts(dims[0] * dims[1])));
+            }
+            this.fireProgressChanged(this, dims[2], dims[2]);
+            return new SlicedInt16Array3D(slices);
+        }
+        return new BufferedInt16ArrayND(dims, readShorts(elementCount(dims)));
+    }
+
+    public Int32Array readInt32Array(int[] dims) throws IOException
+    {
+        if (dims.length == 2)
+        {
+            return new BufferedInt32Array2D(dims[0], dims[1], readInts(dims[0] * dims[1]));
+        }
+        if (dims.length == 3)
+        {
+            ArrayList<Int32Array2D> slices = new ArrayList<>(dims[2]);
+            for (int z = 0; z < dims[2]; z++)
+            {
+                this.fireProgressChanged(this, z, dims[2]);
+                slices.add(new BufferedInt32Array2D(dims[0], dims[1], readInts(dims[0] * dims[1])));
+            }
+            this.fireProgressChanged(this, dims[2], dims[2]);
+            return new SlicedInt32Array3D(slices);
+        }
+        return new BufferedInt32ArrayND(dims, readInts(elementCount(dims)));
+    }
+
+    public Float32Array readFloat32Array(int[] dims) throws IOException
+    {
+        if (dims.length == 2)
+        {
+            return new BufferedFloat32Array2D(dims[0], dims[1], readFloats(dims[0] * dims[1]));
+        }
+        if (dims.length == 3)
+        {
+            ArrayList<Float32Array2D> slices = new ArrayList<>(dims[2]);
+            for (int z = 0; z < dims[2]; z++)
+            {
+                this.fireProgressChanged(this, z, dims[2]);
+                slices.add(new BufferedFloat32Array2D(dims[0], dims[1], readFloats(dims[0] * dims[1])));
+            }
+            this.fireProgressChanged(this, dims[2], dims[2]);
+            return new SlicedFloat32Array3D(slices);
+        }
+        return new BufferedFloat32ArrayND(dims, readFloats(elementCount(dims)));
+    }
+
+    public Float64Array readFloat64Array(int[] dims) throws IOException
+    {
+        if (dims.length == 2)
+        {
+            return new BufferedFloat64Array2D(dims[0], dims[1], readDoubles(dims[0] * dims[1]));
+        }
+        if (dims.length == 3)
+        {
+            ArrayList<Float64Array2D> slices = new ArrayList<>(dims[2]);
+            for (int z = 0; z < dims[2]; z++)
+            {
+                this.fireProgressChanged(this, z, dims[2]);
+                slices.add(new BufferedFloat64Array2D(dims[0], dims[1], readDoubles(dims[0] * dims[1])));
+            }
+            this.fireProgressChanged(this, dims[2], dims[2]);
+            return new SlicedFloat64Array3D(slices);
+        }
+        return new BufferedFloat64ArrayND(dims, readDoubles(elementCount(dims)));
+    }
+
+    private static final int elementCount(int[] dims)
+    {
+        long count = 1;
+        for (int dim : dims)
+        {
+            count *= dim;
+        }
+        if (count > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Can not read arrays with more than 2^31 elements");
+        }
+        return (int) count;
+    }
+
+    private byte[] readBytes(int n) throws IOException
+    {
+        byte[] buffer = new byte[n];
+        readByteArray(buffer, 0, n);
+        return buffer;
+    }
+
+    private short[] readShorts(int n) throws IOException
+    {
+        short[] buffer = new short[n];
+        readShortArray(buffer, 0, n);
+        return buffer;
+    }
+
+    private int[] readInts(int n) throws IOException
+    {
+        int[] buffer = new int[n];
+        readIntArray(buffer, 0, n);
+        return buffer;
+    }
+
+    private float[] readFloats(int n) throws IOException
+    {
+        float[] buffer = new float[n];
+        readFloatArray(buffer, 0, n);
+        return buffer;
+    }
+
+    private double[] readDoubles(int n) throws IOException
+    {
+        double[] buffer = new double[n];
+        readDoubleArray(buffer, 0, n);
+        return buffer;
+    }
+
+
+    // =============================================================
+    // Read primitive arrays
+
+    /**
+     * Reads exactly <code>len</code> bytes of uncompressed data into the
+     * specified array.
+     *
+     * @param b
+     *            the buffer into which the data is read.
+     * @param off
+     *            the start offset in array b at which the data is written.
+     * @param len
+     *            the number of bytes to read.
+     * @throws EOFException
+     *             if the end of the compressed data is reached before the
+     *             requested number of bytes has been read.
+     * @throws IOException
+     *             if an I/O error occurs, or if the data are not a valid zlib
+     *             stream.
+     */
+    public void readByteArray(byte[] b, int off, int len) throws IOException
+    {
+        while (len > 0)
+        {
+            int nRead = this.inputStream.read(b, off, len);
+            if (nRead < 0)
+            {
+                throw new EOFException("Compressed data stream ended before the end of the array");
+            }
+            off += nRead;
+            len -= nRead;
+        }
+    }
+
+    /**
+     * Reads exactly <code>n</code> short values, and populates the specified
+     * array.
+     *
+     * @param shortArray
+     *            the array that will contain the values (must have length equal
+     *            to at least offset+n).
+     * @param offset
+     *            starting position in the destination array
+     * @param n
+     *            the number of values to read
+     * @throws IOException
+     *             if an I/O error occurs, or if the data are truncated.
+     */
+    public void readShortArray(short[] shortArray, int offset, int n) throws IOException
+    {
+        ByteBuffer bb = byteBuffer();
+        while (n > 0)
+        {
+            int count = Math.min(n, BUFFER_SIZE / 2);
+            readByteArray(bb.array(), 0, count * 2);
+            bb.asShortBuffer().get(shortArray, offset, count);
+            offset += count;
+            n -= count;
+        }
+    }
+
+    /**
+     * Reads exactly <code>n</code> int values, and populates the specified
+     * array.
+     *
+     * @param intArray
+     *            the array that will contain the values (must have length equal
+     *            to at least offset+n).
+     * @param offset
+     *            starting position in the destination array
+     * @param n
+     *            the number of values to read
+     * @throws IOException
+     *             if an I/O error occurs, or if the data are truncated.
+     */
+    public void readIntArray(int[] intArray, int offset, int n) throws IOException
+    {
+        ByteBuffer bb = byteBuffer();
+        while (n > 0)
+        {
+            int count = Math.min(n, BUFFER_SIZE / 4);
+            readByteArray(bb.array(), 0, count * 4);
+            bb.asIntBuffer().get(intArray, offset, count);
+            offset += count;
+            n -= count;
+        }
+    }
+
+    /**
+     * Reads exactly <code>n</code> float values, and populates the specified
+     * array.
+     *
+     * @param floatArray
+     *            the array that will contain the values (must have length equal
+     *            to at least offset+n).
+     * @param offset
+     *            starting position in the destination array
+     * @param n
+     *            the number of values to read
+     * @throws IOException
+     *             if an I/O error occurs, or if the data are truncated.
+     */
+    public void readFloatArray(float[] floatArray, int offset, int n) throws IOException
+    {
+        ByteBuffer bb = byteBuffer();
+        while (n > 0)
+        {
+            int count = Math.min(n, BUFFER_SIZE / 4);
+            readByteArray(bb.array(), 0, count * 4);
+            bb.asFloatBuffer().get(floatArray, offset, count);
+            offset += count;
+            n -= count;
+        }
+    }
+
+    /**
+     * Reads exactly <code>n</code> double values, and populates the specified
+     * array.
+     *
+     * @param doubleArray
+     *            the array that will contain the values (must have length equal
+     *            to at least offset+n).
+     * @param offset
+     *            starting position in the destination array
+     * @param n
+     *            the number of values to read
+     * @throws IOException
+     *             if an I/O error occurs, or if the data are truncated.
+     */
+    public void readDoubleArray(double[] doubleArray, int offset, int n) throws IOException
+    {
+        ByteBuffer bb = byteBuffer();
+        while (n > 0)
+        {
+            int count = Math.min(n, BUFFER_SIZE / 8);
+            readByteArray(bb.array(), 0, count * 8);
+            bb.asDoubleBuffer().get(doubleArray, offset, count);
+            offset += count;
+            n -= count;
+        }
+    }
+
+    private ByteBuffer byteBuffer()
+    {
+        if (this.byteBuffer == null)
+        {
+            this.byteBuffer = ByteBuffer.allocate(BUFFER_SIZE).order(this.byteOrder);
+        }
+        return this.byteBuffer;
+    }
+
+
+    // =============================================================
+    // Implements Closeable
+
+    public void close() throws IOException
+    {
+        try
+        {
+            this.inputStream.close();
+        }
+        finally
+        {
+            // the inflater is not released by the stream, as it was provided
+            this.inflater.end();
+        }
+    }
+}
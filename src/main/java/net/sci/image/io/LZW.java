@@ -0,0 +1,313 @@
+/**
+ *
+ */
+package net.sci.image.io;
+
+import java.util.Arrays;
+
+/**
+ * Utility for LZW compression and decompression, as defined in the TIFF 6.0
+ * specification. Used in TiffImageReader and TiffImageWriter, for instance.
+ *
+ * Codes are read with the most significant bit first, their length varies
+ * from 9 to 12 bits, and the code length is increased one code before the
+ * table is full ("early change"), as required by the TIFF specification.
+ *
+ * The strings of the table are stored as (prefix code, suffix byte) pairs,
+ * and are written directly into the output array, so that no intermediate
+ * array is allocated during decompression.
+ *
+ * @author dlegland
+ *
+ */
+public class LZW
+{
+    /**
+     * The code that resets the string table.
+     */
+    private static final int CLEAR_CODE = 256;
+
+    /**
+     * The code that indicates the end of the data.
+     */
+    private static final int EOI_CODE = 257;
+
+    /**
+     * The maximum number of entries within the string table.
+     */
+    private static final int TABLE_SIZE = 4096;
+
+    /**
+     * The number of slots of the hash table used for compression. Must be a
+     * power of two, larger than the number of entries of the string table.
+     */
+    private static final int HASH_SIZE = 1 << 13;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private LZW()
+    {
+    }
+
+    /**
+     * Uncompress byte array into a pre-allocated result byte array, using LZW
+     * compression.
+     *
+     * @param input
+     *            the input array
+     * @param output
+     *            the pre-allocated output array
+     * @return the length of the buffer after decompression
+     */
+    public static int uncompressLZW(byte[] input, byte[] output)
+    {
+        return uncompressLZW(input, output, 0, output.length);
+    }
+
+    /**
+     * Uncompress byte array into a portion of a pre-allocated result byte
+     * array, using LZW compression.
+     *
+     * @param input
+     *            the input array
+     * @param output
+     *            the pre-allocated output array
+     * @param offset
+     *            the position of the first byte to write in the output array
+     * @param length
+     *            the maximum number of bytes to write in the output array
+     * @return the number of bytes written into the output array
+     */
+    public static int uncompressLZW(byte[] input, byte[] output, int offset, int length)
+    {
+        // the string table, each string being defined by the code of its
+        // prefix string, its last byte, its first byte, and its length
+        short[] prefixes = new short[TABLE_SIZE];
+        byte[] suffixes = new byte[TABLE_SIZE];
+        byte[] firsts = new byte[TABLE_SIZE];
+        int[] lengths = new int[TABLE_SIZE];
+        for (int i = 0; i < 256; i++)
+        {
+            prefixes[i] = -1;
+            suffixes[i] = (byte) i;
+            firsts[i] = (byte) i;
+            lengths[i] = 1;
+        }
+
+        int end = Math.min(output.length, offset + length);
+        int pos = offset;
+
+        // state of the bit reader
+        int inIndex = 0;
+        int bitBuffer = 0;
+        int bitCount = 0;
+
+        // state of the decoder
+        int codeLength = 9;
+        int nextCode = 258;
+        int oldCode = -1;
+
+        while (pos < end)
+        {
+            // read the next code, most significant bits first
+            while (bitCount < codeLength && inIndex < input.length)
+            {
+                bitBuffer = (bitBuffer << 8) | (input[inIndex++] & 0xFF);
+                bitCount += 8;
+            }
+            if (bitCount < codeLength)
+            {
+                break;
+            }
+            int code = (bitBuffer >>> (bitCount - codeLength)) & ((1 << codeLength) - 1);
+            bitCount -= codeLength;
+
+            if (code == EOI_CODE)
+            {
+                break;
+            }
+            if (code == CLEAR_CODE)
+            {
+                codeLength = 9;
+                nextCode = 258;
+                oldCode = -1;
+                continue;
+            }
+
+            if (oldCode == -1)
+            {
+                // first code after a clear code is always a single byte
+                if (code > 255)
+                {
+                    throw new RuntimeException("Invalid LZW code after clear code: " + code);
+                }
+                output[pos++] = (byte) code;
+                oldCode = code;
+                continue;
+            }
+
+            if (code > nextCode)
+            {
+                throw new RuntimeException("Invalid LZW code: " + code);
+            }
+
+            // add a new string to the table, made of the previous string
+            // followed by the first byte of the current one
+            if (nextCode < TABLE_SIZE)
+            {
+                prefixes[nextCode] = (short) oldCode;
+                suffixes[nextCode] = code < nextCode ? firsts[code] : firsts[oldCode];
+                firsts[nextCode] = firsts[oldCode];
+                lengths[nextCode] = lengths[oldCode] + 1;
+                nextCode++;
+                if (nextCode + 1 >= (1 << codeLength) && codeLength < 12)
+                {
+                    codeLength++;
+                }
+            }
+
+            // write the string corresponding to the code, starting from the
+            // last byte, and ignoring the bytes beyond the end of the output
+            int len = lengths[code];
+            int c = code;
+            for (int k = len - 1; k >= 0; k--)
+            {
+                if (pos + k < end)
+                {
+                    output[pos + k] = suffixes[c];
+                }
+                c = prefixes[c];
+            }
+            pos = Math.min(pos + len, end);
+            oldCode = code;
+        }
+
+        return pos - offset;
+    }
+
+    /**
+     * Compresses a portion of a byte array using LZW compression, and returns
+     * the compressed bytes. The compressed data start with a clear code, and
+     * end with an end of information code.
+     *
+     * The strings of the table are retrieved using a hash table indexed by the
+     * code of the prefix string and the suffix byte.
+     *
+     * @param input
+     *            the array containing the bytes to compress
+     * @param offset
+     *            the position of the first byte to compress
+     * @param length
+     *            the number of bytes to compress
+     * @return the compressed data
+     */
+    public static byte[] compressLZW(byte[] input, int offset, int length)
+    {
+        // the hash table, storing (prefix code, suffix byte) keys and codes
+        int[] keys = new int[HASH_SIZE];
+        short[] codes = new short[HASH_SIZE];
+
+        // worst case: one 12-bit code for each byte, plus clear codes
+        BitWriter writer = new BitWriter(length + length / 2 + 16);
+
+        int codeLength = 9;
+        int nextCode = 258;
+        writer.write(CLEAR_CODE, codeLength);
+        if (length == 0)
+        {
+            writer.write(EOI_CODE, codeLength);
+            return writer.toByteArray();
+        }
+
+        int end = offset + length;
+        int prefix = input[offset] & 0xFF;
+        for (int i = offset + 1; i < end; i++)
+        {
+            int suffix = input[i] & 0xFF;
+
+            // search the string made of the prefix followed by the suffix
+            int key = ((prefix << 8) | suffix) + 1;
+            int slot = (key * 0x9E3779B1 >>> 19) & (HASH_SIZE - 1);
+            while (keys[slot] != 0 && keys[slot] != key)
+            {
+                slot = (slot + 1) & (HASH_SIZE - 1);
+            }
+            if (keys[slot] == key)
+            {
+                prefix = codes[slot];
+                continue;
+            }
+
+            // write the code of the prefix, and add the new string to the table
+            writer.write(prefix, codeLength);
+            keys[slot] = key;
+            codes[slot] = (short) nextCode++;
+            if (nextCode == (1 << codeLength) && codeLength < 12)
+            {
+                codeLength++;
+            }
+
+            // reset the table before the decoder needs codes larger than 12 bits
+            if (nextCode == TABLE_SIZE - 2)
+            {
+                writer.write(CLEAR_CODE, codeLength);
+                Arrays.fill(keys, 0);
+                codeLength = 9;
+                nextCode = 258;
+            }
+            prefix = suffix;
+        }
+
+        // write the last string, and the end of information code, taking into
+        // account the code length increase performed by the decoder
+        writer.write(prefix, codeLength);
+        if (nextCode + 1 >= (1 << codeLength) && codeLength < 12)
+        {
+            codeLength++;
+        }
+        writer.write(EOI_CODE, codeLength);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Writes codes with variable length into a growing byte array, most
+     * significant bits first.
+     */
+    private static final class BitWriter
+    {
+        byte[] buffer;
+        int size = 0;
+        int bitBuffer = 0;
+        int bitCount = 0;
+
+        BitWriter(int capacity)
+        {
+            this.buffer = new byte[capacity];
+        }
+
+        void write(int code, int codeLength)
+        {
+            bitBuffer = (bitBuffer << codeLength) | code;
+            bitCount += codeLength;
+            while (bitCount >= 8)
+            {
+                if (size == buffer.length)
+                {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                buffer[size++] = (byte) (bitBuffer >>> (bitCount - 8));
+                bitCount -= 8;
+            }
+        }
+
+        byte[] toByteArray()
+        {
+            if (bitCount > 0)
+            {
+                write(0, 8 - bitCount);
+            }
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+}
@@ -169,7 +169,8 @@ public final class MetaImageInfo
     public boolean binaryData = true;
     public boolean binaryDataByteOrderMSB = false;
     public boolean compressedData = false;
-    public int compressedDataSize = 0;
+    /** the number of bytes of compressed data, or 0 if unknown. */
+    public long compressedDataSize = 0;
     
     /** a three-letters idenifier of the anatomcal orientation */
     public String anatomicalOrientation = "";
@@ -10,10 +10,6 @@ import java.nio.ByteOrder;
 import java.util.Scanner;
 
 import net.sci.array.Array;
-import net.sci.array.numeric.impl.FileMappedFloat32Array3D;
-import net.sci.array.numeric.impl.FileMappedInt16Array3D;
-import net.sci.array.numeric.impl.FileMappedUInt16Array3D;
-import net.sci.array.numeric.impl.FileMappedUInt8Array3D;
 import net.sci.image.Calibration;
 import net.sci.image.Image;
 
@@ -140,7 +136,7 @@ public class MetaImageReader implements ImageReader
             }
             else if (tag.equalsIgnoreCase("CompressedDataSize")) 
             {
-                info.compressedDataSize = Integer.parseInt(valueString);
+                info.compressedDataSize = Long.parseLong(valueString);
             }
 
             else 
@@ -239,7 +235,7 @@ public class MetaImageReader implements ImageReader
                 || info.elementType == MetaImageInfo.ElementType.UINT16
                 || info.elementType == MetaImageInfo.ElementType.INT16
                 || info.elementType == MetaImageInfo.ElementType.FLOAT32;
-        if (info.nDims == 3 && virtualType)
+        if (info.nDims == 3 && virtualType && !info.compressedData)
         {
             data = readVirtualImageData(info);
         }
@@ -248,6 +244,38 @@ public class MetaImageReader implements ImageReader
             data = readImageData(info);
         }
         
+        return createImage(info, data);
+    }
+    
+    /**
+     * Reads the image by creating a virtual array, whose slices are read from
+     * the file only when they are accessed. Images with less than three
+     * dimensions, as well as images with compressed data, are read entirely.
+     * 
+     * @return a new Image, whose data are read on demand
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    @Override
+    public Image readVirtualImage() throws IOException
+    {
+        MetaImageInfo info = readFileInfo(this.file);
+        
+        Array<?> data;
+        if (info.nDims >= 3 && !info.compressedData)
+        {
+            data = readVirtualImageData(info);
+        }
+        else
+        {
+            data = readImageData(info);
+        }
+        
+        return createImage(info, data);
+    }
+    
+    private Image createImage(MetaImageInfo info, Array<?> data)
+    {
         Image image = new Image(data);
         image.setNameFromFileName(file.getName());
         image.setFilePath(file.getPath());
@@ -272,6 +300,11 @@ public class MetaImageReader implements ImageReader
     {
         File dataFile = new File(this.file.getParent(), info.elementDataFile);
         ByteOrder order = info.binaryDataByteOrderMSB ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        if (info.compressedData)
+        {
+            return readCompressedImageData(dataFile, info.headerSize, order, info);
+        }
+        
         ImageBinaryDataReader reader = new ImageBinaryDataReader(dataFile, order);
         reader.seek(info.headerSize);
         
@@ -296,31 +329,64 @@ public class MetaImageReader implements ImageReader
         return array;
     }
     
+    /**
+     * Reads the data of a compressed file. The data are decoded while they are
+     * read from the file, and written directly into the buffers of the arrays.
+     */
+    private Array<?> readCompressedImageData(File dataFile, long offset, ByteOrder order, MetaImageInfo info) throws IOException
+    {
+        try (InflaterDataReader reader = new InflaterDataReader(dataFile, offset, order))
+        {
+            return switch (info.elementType)
+            {
+                case UINT8   -> reader.readUInt8Array(info.dimSize);
+                case UINT16  -> reader.readUInt16Array(info.dimSize);
+                case INT16   -> reader.readInt16Array(info.dimSize);
+                case INT32   -> reader.readInt32Array(info.dimSize);
+                case FLOAT32 -> reader.readFloat32Array(info.dimSize);
+                case FLOAT64 -> reader.readFloat64Array(info.dimSize);
+                default -> throw new RuntimeException("Unable to process files with data type: " + info.elementTypeName);
+            };
+        }
+    }
+    
+    /**
+     * Creates a virtual array on the uncompressed data of the file. The slices
+     * of UInt8, UInt16, Int16 and Float32 arrays are mapped into memory, other
+     * types are read slice by slice when they are accessed.
+     * 
+     * @param info
+     *            the meta-data of the image, with at least three dimensions
+     * @return a virtual array on the data of the file
+     * @throws IOException
+     *             if an I/O error occurred
+     */
     public Array<?> readVirtualImageData(MetaImageInfo info) throws IOException 
     {
         // check data validity
-        if (info.dimSize.length != 3)
+        if (info.dimSize.length < 3)
         {
-            throw new RuntimeException("File-mapped arrays can be only 3D images");
+            throw new RuntimeException("Virtual arrays require at least three dimensions");
+        }
+        if (info.compressedData)
+        {
+            throw new RuntimeException("Virtual arrays can not be created from compressed data");
         }
         
         // retrieve information
         File dataFile = new File(this.file.getParent(), info.elementDataFile);
-        String path = dataFile.getAbsolutePath();
-        long offset = info.headerSize;
-        int size0 = info.dimSize[0];
-        int size1 = info.dimSize[1];
-        int size2 = info.dimSize[2];
         ByteOrder order = info.binaryDataByteOrderMSB ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
-
-        return switch(info.elementType)
+        PixelType pixelType = switch(info.elementType)
         {
-            case UINT8   -> new FileMappedUInt8Array3D(path, offset, size0, size1, size2);
-            case UINT16  -> new FileMappedUInt16Array3D(path, offset, size0, size1, size2, order);
-            case INT16   -> new FileMappedInt16Array3D(path, offset, size0, size1, size2, order);
-            case FLOAT32 -> new FileMappedFloat32Array3D(path, offset, size0, size1, size2, order);
-            
+            case UINT8   -> PixelType.UINT8;
+            case UINT16  -> PixelType.UINT16;
+            case INT16   -> PixelType.INT16;
+            case INT32   -> PixelType.INT32;
+            case FLOAT32 -> PixelType.FLOAT32;
+            case FLOAT64 -> PixelType.FLOAT64;
             default -> throw new RuntimeException("Unable to process files with data type: " + info.elementTypeName);
         };
+        
+        return ImageIO.createVirtualArray(dataFile.getAbsoluteFile().toPath(), info.headerSize, info.dimSize, pixelType, order);
     }
-}
\ No newline at end of file
+}
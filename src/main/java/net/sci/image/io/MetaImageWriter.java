@@ -12,6 +12,8 @@ import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.attribute.FileTime;
 import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
 
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
@@ -47,6 +49,13 @@ import net.sci.image.Image;
         return;
     }
  * </code></pre>
+ * 
+ * Image data can be compressed using the zlib format, by calling the
+ * <code>setCompressed(true)</code> method before writing the image. In that
+ * case, the data are written into a ".zraw" file, and blocks of data are
+ * compressed in parallel using the execution pool of the writer, or the common
+ * pool if no pool was specified.
+ * 
  * References about MetaImage file format:
  * <ul>
  * <li> MetaIO Documentation (<a href="http://www.itk.org/Wiki/MetaIO/Documentation"> http://www.itk.org/Wiki/MetaIO/Documentation</a>) </li>
@@ -66,6 +75,17 @@ public class MetaImageWriter extends AlgoStub implements ImageWriter
      * The meta-data of the array stored within a MetaImageInfo class.
      */
     MetaImageInfo info;
+    
+    /**
+     * Specifies whether image data should be compressed. Default is false.
+     */
+    boolean compressed = false;
+    
+    /**
+     * The compression level, between 0 (no compression) and 9 (best
+     * compression), or -1 for the default level of the Deflater class.
+     */
+    int compressionLevel = Deflater.DEFAULT_COMPRESSION;
 
     /**
      * Creates a new class for writing image data using MetaImage file format.
@@ -78,12 +98,46 @@ public class MetaImageWriter extends AlgoStub implements ImageWriter
         this.headerFile = file;
     }
 
+    /**
+     * Chooses whether image data should be compressed.
+     * 
+     * @param compressed
+     *            if true, image data are compressed using the zlib format.
+     */
+    public void setCompressed(boolean compressed)
+    {
+        this.compressed = compressed;
+    }
+    
+    /**
+     * Chooses the compression level used when image data are compressed.
+     * 
+     * @param level
+     *            the compression level, between 0 (no compression) and 9 (best
+     *            compression), or -1 for the default level.
+     * @see java.util.zip.Deflater
+     */
+    public void setCompressionLevel(int level)
+    {
+        if (level < -1 || level > 9)
+        {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9, not " + level);
+        }
+        this.compressionLevel = level;
+    }
+    
     @Override
     public void writeImage(Image image) throws IOException
     {
         // prepare data
         this.info = computeMetaImageInfo(image);
         info.elementDataFile = computeElementDataFileName(this.headerFile.getName());
+        
+        if (this.compressed)
+        {
+            writeCompressedImage(image);
+            return;
+        }
 
         // print header into header file
         FileOutputStream stream = new FileOutputStream(this.headerFile);
@@ -112,6 +166,35 @@ public class MetaImageWriter extends AlgoStub implements ImageWriter
         }
     }
 
+    /**
+     * Writes the compressed image data into the data file, and the header that
+     * contains the size of the compressed data.
+     */
+    private void writeCompressedImage(Image image) throws IOException
+    {
+        File dataFile = new File(this.headerFile.getParentFile(), info.elementDataFile);
+        ForkJoinPool pool = this.getExecutionPool() != null ? this.getExecutionPool() : ForkJoinPool.commonPool();
+        
+        ParallelDeflaterOutputStream stream = new ParallelDeflaterOutputStream(new FileOutputStream(dataFile),
+                this.compressionLevel, pool, ParallelDeflaterOutputStream.DEFAULT_BLOCK_SIZE);
+        try
+        {
+            writeImageData(stream, image.getData());
+        }
+        finally
+        {
+            stream.close();
+        }
+        info.compressedData = true;
+        info.compressedDataSize = stream.getCompressedSize();
+        
+        // the header is written after the data, as it contains the size of compressed data 
+        try (FileOutputStream headerStream = new FileOutputStream(this.headerFile))
+        {
+            writeHeader(headerStream);
+        }
+    }
+
     /**
      * Computes the meta-data to write into header file from the meta data
      * stored in the image.
@@ -158,7 +241,7 @@ public class MetaImageWriter extends AlgoStub implements ImageWriter
         {
             fileName = fileName.substring(0, baseLength - 4);
         }
-        return fileName + ".raw";
+        return fileName + (this.compressed ? ".zraw" : ".raw");
 	}
 	
 	/**
@@ -197,9 +280,16 @@ public class MetaImageWriter extends AlgoStub implements ImageWriter
             // always use MSB encoding to simplify implementation
             printTag(ps, "BinaryDataByteOrderMSB", "true");
         }
+        
+        if (info.compressedData)
+        {
+            printTag(ps, "CompressedData", "True");
+            printTag(ps, "CompressedDataSize", info.compressedDataSize);
+        }
 
         // this tag should be the last one in the header, according to specification
         printTag(ps, "ElementDataFile", info.elementDataFile);
+        ps.flush();
 
         return info;
     }
@@ -4,7 +4,8 @@
 package net.sci.image.io;
 
 /**
- * Utility for PackBits decompression. Used in TiffImageReader, for instance.
+ * Utility for PackBits compression and decompression. Used in
+ * TiffImageReader and TiffImageWriter, for instance.
  * 
  * @author dlegland
  *
@@ -82,4 +83,68 @@ public class PackBits
 
         return index2 - offset;
     }
+    
+    /**
+     * Compresses a portion of a byte array using PackBits compression. Within
+     * TIFF files, each row of the image must be compressed separately.
+     * 
+     * Sequences of at least three identical bytes are encoded as runs (as well
+     * as pairs found at the beginning of a packet), other bytes are written as
+     * literal packets of at most 128 bytes.
+     * 
+     * @param input
+     *            the array containing the bytes to compress
+     * @param offset
+     *            the position of the first byte to compress
+     * @param length
+     *            the number of bytes to compress
+     * @param output
+     *            the pre-allocated output array, with a length of at least
+     *            {@code length + (length + 127) / 128}
+     * @param outputOffset
+     *            the position of the first byte to write in the output array
+     * @return the number of bytes written into the output array
+     */
+    public static int compressPackBits(byte[] input, int offset, int length, byte[] output, int outputOffset)
+    {
+        int end = offset + length;
+        int index = offset;
+        int index2 = outputOffset;
+        while (index < end)
+        {
+            if (index + 1 < end && input[index] == input[index + 1])
+            {
+                // encode a run of identical bytes
+                byte value = input[index];
+                int count = 2;
+                while (index + count < end && count < 128 && input[index + count] == value)
+                {
+                    count++;
+                }
+                output[index2++] = (byte) (1 - count);
+                output[index2++] = value;
+                index += count;
+            }
+            else
+            {
+                // encode literal bytes, until a run of three identical bytes
+                int count = 1;
+                while (index + count < end && count < 128)
+                {
+                    int i = index + count;
+                    if (i + 2 < end && input[i] == input[i + 1] && input[i] == input[i + 2])
+                    {
+                        break;
+                    }
+                    count++;
+                }
+                output[index2++] = (byte) (count - 1);
+                System.arraycopy(input, index, output, index2, count);
+                index2 += count;
+                index += count;
+            }
+        }
+        
+        return index2 - outputOffset;
+    }
 }
@@ -0,0 +1,368 @@
+/**
+ *
+ */
+package net.sci.image.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+/**
+ * An output stream that compresses data in the zlib format, by splitting the
+ * data into blocks that are compressed independently, possibly in parallel.
+ *
+ * Each block is compressed by its own Deflater, using the last 32 KB of the
+ * previous block as dictionary, and is terminated by a synchronization flush
+ * so that the compressed blocks can simply be concatenated. The result is a
+ * single zlib stream, that can be read by any zlib decoder. The compression
+ * ratio is only slightly lower than for a sequential compression.
+ *
+ * The number of blocks waiting for compression is limited, so that memory
+ * usage does not depend on the size of the data.
+ *
+ * @see java.util.zip.DeflaterOutputStream
+ *
+ * @author dlegland
+ *
+ */
+public class ParallelDeflaterOutputStream extends FilterOutputStream
+{
+    // =============================================================
+    // Constants
+
+    /**
+     * The default number of uncompressed bytes within each block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /**
+     * The size of the window of the deflate algorithm, used as dictionary
+     * between blocks.
+     */
+    private static final int DICTIONARY_SIZE = 1 << 15;
+
+
+    // =============================================================
+    // Class variables
+
+    /**
+     * The compression level, between 0 and 9, or -1 for the default level.
+     */
+    int level;
+
+    /**
+     * The pool used for compressing blocks in parallel, or null for
+     * compressing within the calling thread.
+     */
+    ForkJoinPool pool;
+
+    /**
+     * The maximum number of blocks compressed simultaneously.
+     */
+    int maxPendingBlocks;
+
+    /**
+     * The block that is currently filled.
+     */
+    byte[] block;
+
+    /**
+     * The number of bytes within the current block.
+     */
+    int blockLength = 0;
+
+    /**
+     * The end of the previous block, used as dictionary for the current block.
+     */
+    byte[] dictionary = null;
+
+    /**
+     * The compressed blocks that were not yet written to the output stream, in
+     * the order of the data.
+     */
+    ArrayDeque<Future<byte[]>> pendingBlocks = new ArrayDeque<Future<byte[]>>();
+
+    /**
+     * The checksum of the uncompressed data, written at the end of the zlib
+     * stream.
+     */
+    Adler32 checksum = new Adler32();
+
+    /**
+     * The number of bytes written to the output stream.
+     */
+    long compressedSize = 0;
+
+    boolean closed = false;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new output stream that compresses the data within the calling
+     * thread.
+     *
+     * @param out
+     *            the stream to write the compressed data in
+     * @param level
+     *            the compression level, between 0 and 9, or -1 for the default
+     *            level
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, int level)
+    {
+        this(out, level, null, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a new output stream that compresses blocks of data in parallel.
+     *
+     * @param out
+     *            the stream to write the compressed data in
+     * @param level
+     *            the compression level, between 0 and 9, or -1 for the default
+     *            level
+     * @param pool
+     *            the pool used to compress the blocks, or null for compressing
+     *            within the calling thread
+     * @param blockSize
+     *            the number of uncompressed bytes within each block
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, int level, ForkJoinPool pool, int blockSize)
+    {
+        super(out);
+        if (level < -1 || level > 9)
+        {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9, not " + level);
+        }
+        if (blockSize < DICTIONARY_SIZE)
+        {
+            throw new IllegalArgumentException("Block size must be at least " + DICTIONARY_SIZE);
+        }
+        this.level = level;
+        this.pool = pool;
+        this.maxPendingBlocks = pool != null ? 2 * pool.getParallelism() : 1;
+        this.block = new byte[blockSize];
+    }
+
+
+    // =============================================================
+    // Methods
+
+    /**
+     * @return the number of compressed bytes written to the output stream,
+     *         including zlib header and trailer once the stream is closed.
+     */
+    public long getCompressedSize()
+    {
+        return this.compressedSize;
+    }
+
+    /**
+     * Writes the header of the zlib stream: deflate method with a 32K window,
+     * and a level information consistent with the compression level.
+     */
+    private void writeHeader() throws IOException
+    {
+        int flevel = switch (this.level)
+        {
+            case 0, 1 -> 0;
+            case 2, 3, 4, 5 -> 1;
+            case -1, 6 -> 2;
+            default -> 3;
+        };
+        int cmf = 0x78;
+        int flg = flevel << 6;
+        flg += 31 - ((cmf << 8) + flg) % 31;
+        writeCompressed(new byte[] {(byte) cmf, (byte) flg});
+    }
+
+    /**
+     * Submits the current block for compression, and writes the compressed
+     * blocks that are available.
+     */
+    private void submitBlock(boolean last) throws IOException
+    {
+        if (this.compressedSize == 0)
+        {
+            writeHeader();
+        }
+
+        final byte[] data = this.blockLength == this.block.length ? this.block : Arrays.copyOf(this.block, this.blockLength);
+        final byte[] dict = this.dictionary;
+        this.checksum.update(data, 0, data.length);
+
+        // keep the end of the block as dictionary for the next one (only the
+        // last block may be smaller than the dictionary)
+        if (data.length >= DICTIONARY_SIZE)
+        {
+            this.dictionary = Arrays.copyOfRange(data, data.length - DICTIONARY_SIZE, data.length);
+        }
+
+        if (this.pool != null && !ForkJoinTask.inForkJoinPool())
+        {
+            this.pendingBlocks.add(this.pool.submit(() -> compressBlock(data, dict, this.level, last)));
+            this.block = new byte[this.block.length];
+        }
+        else
+        {
+            this.pendingBlocks.add(CompletableFuture.completedFuture(compressBlock(data, dict, this.level, last)));
+        }
+        this.blockLength = 0;
+
+        // write the compressed blocks, waiting if too many blocks are pending
+        while (!this.pendingBlocks.isEmpty() && (this.pendingBlocks.size() >= this.maxPendingBlocks || this.pendingBlocks.peek().isDone()))
+        {
+            writeCompressed(waitFor(this.pendingBlocks.poll()));
+        }
+    }
+
+    /**
+     * Compresses a block as a sequence of raw deflate blocks, ending with a
+     * synchronization flush, or with the final block.
+     */
+    private static final byte[] compressBlock(byte[] data, byte[] dict, int level, boolean last)
+    {
+        Deflater deflater = new Deflater(level, true);
+        try
+        {
+            if (dict != null)
+            {
+                deflater.setDictionary(dict);
+            }
+            deflater.setInput(data);
+            if (last)
+            {
+                deflater.finish();
+            }
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length / 2 + 64);
+            byte[] buffer = new byte[1 << 16];
+            while (true)
+            {
+                int n = deflater.deflate(buffer, 0, buffer.length, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                baos.write(buffer, 0, n);
+                if (last ? deflater.finished() : n < buffer.length)
+                {
+                    break;
+                }
+            }
+            return baos.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static final byte[] waitFor(Future<byte[]> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing data");
+        }
+        catch (ExecutionException ex)
+        {
+            throw new IOException("Error while compressing data", ex.getCause());
+        }
+    }
+
+    private void writeCompressed(byte[] bytes) throws IOException
+    {
+        this.out.write(bytes);
+        this.compressedSize += bytes.length;
+    }
+
+
+    // =============================================================
+    // Override OutputStream methods
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        this.block[this.blockLength++] = (byte) b;
+        if (this.blockLength == this.block.length)
+        {
+            submitBlock(false);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+        while (len > 0)
+        {
+            int n = Math.min(len, this.block.length - this.blockLength);
+            System.arraycopy(b, off, this.block, this.blockLength, n);
+            this.blockLength += n;
+            off += n;
+            len -= n;
+            if (this.blockLength == this.block.length)
+            {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Flushes the blocks that are already compressed. The data of the current
+     * block are kept, in order to keep the size of the blocks constant.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        while (!this.pendingBlocks.isEmpty() && this.pendingBlocks.peek().isDone())
+        {
+            writeCompressed(waitFor(this.pendingBlocks.poll()));
+        }
+        this.out.flush();
+    }
+
+    /**
+     * Compresses the remaining data, writes the end of the zlib stream, and
+     * closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (this.closed)
+        {
+            return;
+        }
+        this.closed = true;
+
+        try
+        {
+            submitBlock(true);
+            while (!this.pendingBlocks.isEmpty())
+            {
+                writeCompressed(waitFor(this.pendingBlocks.poll()));
+            }
+
+            // adler-32 checksum of uncompressed data, in big-endian order
+            long value = this.checksum.getValue();
+            writeCompressed(new byte[] {(byte) (value >> 24), (byte) (value >> 16), (byte) (value >> 8), (byte) value});
+            this.out.flush();
+        }
+        finally
+        {
+            this.out.close();
+        }
+    }
+}
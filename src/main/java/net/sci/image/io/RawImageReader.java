@@ -131,21 +131,48 @@ public class RawImageReader implements ImageReader
 		return image;
     }
     
-    /* (non-Javadoc)
-     * @see net.sci.image.io.ImageReader#readImage()
+    /**
+     * Reads the image by creating a virtual array, whose slices are read from
+     * the file only when they are accessed. Arrays with less than three
+     * dimensions are read entirely.
+     * 
+     * @return a new Image, whose data are read on demand
+     * @throws IOException
+     *             if an I/O error occurred
      */
-    public Image readVirtualImage3D() throws IOException
+    @Override
+    public Image readVirtualImage() throws IOException
     {
+        if (this.size.length < 3)
+        {
+            return readImage();
+        }
+        
         Image image = new Image(readVirtualImageData());
         image.setNameFromFileName(file.getName());
         image.setFilePath(file.getPath());
         return image;
     }
     
+    /**
+     * Reads the image by creating a virtual 3D array.
+     * 
+     * @deprecated replaced by readVirtualImage()
+     * 
+     * @return a new Image, whose data are read on demand
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    @Deprecated
+    public Image readVirtualImage3D() throws IOException
+    {
+        return readVirtualImage();
+    }
+    
     private Array<?> readVirtualImageData() throws IOException 
     {
         PixelType pixelType = type.getPixelType();
-        return ImageIO.createFileMappedArray(file.toPath(), offset, size, pixelType, byteOrder);
+        return ImageIO.createVirtualArray(file.toPath(), offset, size, pixelType, byteOrder);
     }
     
     public Array<?> readImageData() throws IOException 
@@ -10,6 +10,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -27,7 +28,6 @@ import net.sci.image.io.tiff.BaselineTags;
 import net.sci.image.io.tiff.Entry;
 import net.sci.image.io.tiff.ImageFileDirectory;
 import net.sci.image.io.tiff.ImageFileDirectoryReader;
-import net.sci.image.io.tiff.TiffFileUInt8Array3D;
 import net.sci.image.io.tiff.TiffImageDataReader;
 import net.sci.image.io.tiff.TiffTag;
 
@@ -160,7 +160,7 @@ public class TiffImageReader extends AlgoStub implements ImageReader
             {
                 System.out.println("Found ImageJ description, use special processing");
             }
-            return readImageJImage(ifd, false);
+            return readImageJImage(ifd, false, null, null);
         }
         
         // Read image data
@@ -173,12 +173,20 @@ public class TiffImageReader extends AlgoStub implements ImageReader
         return image;
     }
     
-    /*
-     * (non-Javadoc)
+    /**
+     * Reads the image by creating a virtual array, whose slices are read from
+     * the file only when they are accessed. Uncompressed slices with
+     * contiguous strips are mapped into memory; other slices (compressed,
+     * tiled, or with non contiguous strips) are decoded on demand and kept
+     * within a slice cache of bounded size. Stacks with color or binary
+     * pixels, as well as single images, are read entirely.
      * 
-     * @see jipl.io.ImageReader#readImage()
+     * @return a new Image, whose data are read on demand
+     * @throws IOException
+     *             if an I/O error occurred
      */
-    public Image readVirtualImage3D() throws IOException
+    @Override
+    public Image readVirtualImage() throws IOException
     {
         // Read the set of image information in the file
         if (this.fileDirectories.size() == 0)
@@ -196,27 +204,16 @@ public class TiffImageReader extends AlgoStub implements ImageReader
             {
                 System.out.println("Found ImageJ description, use special processing");
             }
-            return readImageJImage(ifd, true);
-        }
-        
-        // specific case of UInt8Array3D
-        if (ifd.determinePixelType() == PixelType.UINT8)
-        {
-            Array<?> data = TiffFileUInt8Array3D.open(this.path.toString(), this.fileDirectories);
-            // Create new Image
-            Image image = new Image(data);
-            setupImageMetaData(image, ifd);
-            return image;
+            return readImageJImage(ifd, true, null, null);
         }
         
-        int compressionCode = ifd.getValue(BaselineTags.Compression.CODE);
-        if (compressionCode != BaselineTags.Compression.NONE)
+        if (!isStackImage() || !isVirtualPixelType(ifd.determinePixelType()))
         {
-            throw new RuntimeException("Virtual stacks not implemented for TIFF files compressed with compression code " + compressionCode);
+            return readImage();
         }
         
         // Read (virtual) image data
-        Array<?> data = createFileMappedArray(this.path, this.fileDirectories);
+        Array<?> data = createVirtualStack(this.fileDirectories);
         
         // Create new Image
         Image image = new Image(data);
@@ -225,6 +222,93 @@ public class TiffImageReader extends AlgoStub implements ImageReader
         return image;
     }
     
+    /**
+     * Reads the image by creating a virtual 3D array.
+     * 
+     * @deprecated replaced by readVirtualImage(), that manages all scalar
+     *             pixel types and compressed files
+     * 
+     * @return a new Image, whose data are read on demand
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    @Deprecated
+    public Image readVirtualImage3D() throws IOException
+    {
+        return readVirtualImage();
+    }
+    
+    
+    /**
+     * Reads a subset of the channels and of the frames of an hyperstack saved
+     * by the ImageJ software. Only the image file directories of the selected
+     * images are read, and they are decoded in parallel. For other files, the
+     * image is considered as having a single channel and a single frame.
+     * 
+     * Example:
+     * <pre><code>
+    TiffImageReader reader = new TiffImageReader(file);
+    // read the second channel of the ten first frames
+    Image image = reader.readHyperstack(new int[] {1}, IntStream.range(0, 10).toArray());
+     * </code></pre>
+     * 
+     * @param channels
+     *            the indices of the channels to read, or null to read all the
+     *            channels
+     * @param frames
+     *            the indices of the frames to read, or null to read all the
+     *            frames
+     * @return the image containing the selected channels and frames
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    public Image readHyperstack(int[] channels, int[] frames) throws IOException
+    {
+        return readHyperstack(channels, frames, false);
+    }
+    
+    /**
+     * Reads a subset of the channels and of the frames of an hyperstack saved
+     * by the ImageJ software, by creating a virtual array whose images are
+     * read from the file only when they are accessed.
+     * 
+     * @see #readHyperstack(int[], int[])
+     * 
+     * @param channels
+     *            the indices of the channels to read, or null to read all the
+     *            channels
+     * @param frames
+     *            the indices of the frames to read, or null to read all the
+     *            frames
+     * @return the image containing the selected channels and frames, whose
+     *         data are read on demand
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    public Image readVirtualHyperstack(int[] channels, int[] frames) throws IOException
+    {
+        return readHyperstack(channels, frames, true);
+    }
+    
+    private Image readHyperstack(int[] channels, int[] frames, boolean virtual) throws IOException
+    {
+        if (this.fileDirectories.size() == 0)
+        {
+            throw new RuntimeException("Could not read any meta-information from file");
+        }
+        
+        ImageFileDirectory ifd = this.fileDirectories.get(0);
+        if (hasImageJDescription(ifd))
+        {
+            return readImageJImage(ifd, virtual, channels, frames);
+        }
+        
+        // other files contain a single channel and a single frame
+        selectIndices(channels, 1, "channel");
+        selectIndices(frames, 1, "frame");
+        return virtual ? readVirtualImage() : readImage();
+    }
+    
     
     // =============================================================
     // Management of Images saved by the ImageJ software
@@ -254,13 +338,19 @@ public class TiffImageReader extends AlgoStub implements ImageReader
      * 
      * @param ifd
      *            The set of Tiff Tags of the image
-     * @param description
-     *            the content of the tag 270, as a String
+     * @param virtual
+     *            if true, the data of the stack are read on demand
+     * @param channels
+     *            the indices of the channels to read, or null to read all the
+     *            channels
+     * @param frames
+     *            the indices of the frames to read, or null to read all the
+     *            frames
      * @return the Image stored within the file
      * @throws IOException
      *             if an I/O error occurred
      */
-    private Image readImageJImage(ImageFileDirectory ifd, boolean virtual) throws IOException
+    private Image readImageJImage(ImageFileDirectory ifd, boolean virtual, int[] channels, int[] frames) throws IOException
     {
         // Get the description tag, or null if not initialized
         Entry entry = ifd.getEntry(BaselineTags.ImageDescription.CODE);
@@ -302,22 +392,39 @@ public class TiffImageReader extends AlgoStub implements ImageReader
                     "Number of images (%d) does not match image dimensions (%dx%dx%d)", nImages,
                     sizeZ, sizeC, sizeT));
         }
+        
+        // select the images to read, channel index varying the fastest
+        int[] channelIndices = selectIndices(channels, sizeC, "channel");
+        int[] frameIndices = selectIndices(frames, sizeT, "frame");
+        int[] imageIndices = new int[channelIndices.length * sizeZ * frameIndices.length];
+        int i = 0;
+        for (int t : frameIndices)
+        {
+            for (int z = 0; z < sizeZ; z++)
+            {
+                for (int c : channelIndices)
+                {
+                    imageIndices[i++] = c + sizeC * (z + sizeZ * t);
+                }
+            }
+        }
+        sizeC = channelIndices.length;
+        sizeT = frameIndices.length;
 
         Array<?> data;
-        if (nImages == 1)
+        if (imageIndices.length == 1 && (nImages == 1 || this.fileDirectories.size() == nImages))
         {
             // Read image data
-            data = readImageData(ifd);
+            data = readImageData(this.fileDirectories.get(imageIndices[0]));
         }
-        else if (!virtual)
+        else if (imageIndices.length == 1)
         {
-            // Read the totality of image data as a 3D array stored in memory
-            data = readImage3DData(ifd, nImages);
+            // single image within a contiguous stack
+            data = ((Array3D<?>) readImageJStack(ifd, nImages, imageIndices, false)).slice(0);
         }
         else
         {
-            // Read a virtual image by creating a file-mapped array 
-            data = createFileMappedArray(ifd, nImages);
+            data = readImageJStack(ifd, nImages, imageIndices, virtual);
         }
 
         // number of dimensions of final array
@@ -342,7 +449,8 @@ public class TiffImageReader extends AlgoStub implements ImageReader
         // reshape data array if necessary
         if (sizeC > 1 || sizeT > 1)
         {
-            data = new Reshape(dims).process(data);
+            // virtual arrays are reshaped with a view, to avoid reading the data 
+            data = virtual && imageIndices.length > 1 ? ImageIO.reshapeStack(data, dims) : new Reshape(dims).process(data);
         }
 
         // Create new Image
@@ -365,6 +473,115 @@ public class TiffImageReader extends AlgoStub implements ImageReader
         return image;
     }
 
+    /**
+     * Reads the selected images of a stack saved by ImageJ, as a 3D array.
+     * 
+     * When the file contains one directory for each image, the directories of
+     * the selected images are read and decoded in parallel, the other
+     * directories being ignored. Otherwise, the images are assumed to be
+     * stored contiguously after the data of the first directory.
+     * 
+     * @param ifd
+     *            the first image file directory
+     * @param nImages
+     *            the number of images within the file
+     * @param imageIndices
+     *            the indices of the images to read
+     * @param virtual
+     *            if true, the images are read on demand
+     * @return a 3D array containing the selected images
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    private Array<?> readImageJStack(ImageFileDirectory ifd, int nImages, int[] imageIndices, boolean virtual) throws IOException
+    {
+        PixelType pixelType = ifd.determinePixelType();
+        boolean allImages = imageIndices.length == nImages;
+        
+        if (this.fileDirectories.size() == nImages)
+        {
+            List<ImageFileDirectory> ifds = this.fileDirectories;
+            if (!allImages)
+            {
+                ifds = new ArrayList<ImageFileDirectory>(imageIndices.length);
+                for (int index : imageIndices)
+                {
+                    ifds.add(this.fileDirectories.get(index));
+                }
+            }
+            if (virtual && isVirtualPixelType(pixelType))
+            {
+                return createVirtualStack(ifds);
+            }
+            return createImageDataReader(path.toFile(), ifd.getByteOrder()).readImageStack(ifds);
+        }
+        
+        if (ifd.getIntValue(BaselineTags.Compression.CODE, BaselineTags.Compression.NONE) != BaselineTags.Compression.NONE)
+        {
+            throw new IOException("Compressed ImageJ stacks must contain one image file directory for each image");
+        }
+        if (allImages && !virtual)
+        {
+            // Read the totality of image data as a 3D array stored in memory
+            return readImage3DData(ifd, nImages);
+        }
+        
+        // compute the position of each selected image within the file
+        int sizeX = ifd.getValue(BaselineTags.ImageWidth.CODE);
+        int sizeY = ifd.getValue(BaselineTags.ImageLength.CODE);
+        long sliceByteCount = ((long) sizeX) * sizeY * pixelType.byteCount();
+        long offset0 = ifd.getLongArrayValue(BaselineTags.StripOffsets.CODE)[0];
+        long[] offsets = new long[imageIndices.length];
+        for (int i = 0; i < imageIndices.length; i++)
+        {
+            offsets[i] = offset0 + imageIndices[i] * sliceByteCount;
+        }
+        
+        // Read a virtual image by creating a file-mapped array, and copy it
+        // into memory if necessary
+        int[] dims = new int[] {sizeX, sizeY, imageIndices.length};
+        Array<?> data = ImageIO.createVirtualArray(path, offsets, dims, pixelType, ifd.getByteOrder());
+        return virtual ? data : data.duplicate();
+    }
+    
+    /**
+     * Returns the indices of the selected elements along a dimension, after
+     * having checked their validity.
+     * 
+     * @param indices
+     *            the selected indices, or null to select all the indices
+     * @param size
+     *            the size of the dimension
+     * @param name
+     *            the name of the dimension, for error messages
+     * @return the selected indices
+     */
+    private static final int[] selectIndices(int[] indices, int size, String name)
+    {
+        if (indices == null)
+        {
+            int[] res = new int[size];
+            for (int i = 0; i < size; i++)
+            {
+                res[i] = i;
+            }
+            return res;
+        }
+        
+        if (indices.length == 0)
+        {
+            throw new IllegalArgumentException("Requires at least one " + name + " index");
+        }
+        for (int index : indices)
+        {
+            if (index < 0 || index >= size)
+            {
+                throw new IllegalArgumentException(String.format("The %s index %d is not within the range 0-%d", name, index, size - 1));
+            }
+        }
+        return indices.clone();
+    }
+
     /**
      * Creates a new hash map of the tags indexed with their key, and add the
      * map to the metadata of the image with the "tiff-tags" key.
@@ -425,6 +642,72 @@ public class TiffImageReader extends AlgoStub implements ImageReader
         return reader.readImageData(ifd);
     }
     
+    /**
+     * Reads a box-shaped region of the image data, and returns it as a new
+     * image. Only the strips or the tiles that intersect the region are read
+     * from the file and decoded, making it possible to crop very large files.
+     * 
+     * @see #readImageDataRegion(int[], int[])
+     * 
+     * @param origin
+     *            the position of the first pixel of the region, with two or
+     *            three elements
+     * @param size
+     *            the size of the region, with the same number of elements as
+     *            origin
+     * @return a new image containing the data within the region
+     * @throws IOException
+     *             if an error occurs
+     */
+    public Image readImageRegion(int[] origin, int[] size) throws IOException
+    {
+        Array<?> data = readImageDataRegion(origin, size);
+        Image image = new Image(data);
+        setupImageMetaData(image, this.fileDirectories.get(0));
+        return image;
+    }
+    
+    /**
+     * Reads a box-shaped region of the image data. Only the strips or the
+     * tiles that intersect the region are read from the file and decoded.
+     * 
+     * For 2D regions, the data are read from the first image of the file. For
+     * 3D regions, the third coordinate corresponds to the index of the image
+     * within the file, and the result is a 3D array.
+     * 
+     * @param origin
+     *            the position of the first pixel of the region, with two or
+     *            three elements
+     * @param size
+     *            the size of the region, with the same number of elements as
+     *            origin
+     * @return the data array corresponding to the region
+     * @throws IOException
+     *             if an error occurs
+     */
+    public Array<?> readImageDataRegion(int[] origin, int[] size) throws IOException
+    {
+        if (origin.length != size.length || origin.length < 2 || origin.length > 3)
+        {
+            throw new IllegalArgumentException("Origin and size of region must both have two or three elements");
+        }
+        
+        ImageFileDirectory ifd0 = this.fileDirectories.get(0);
+        TiffImageDataReader reader = createImageDataReader(path.toFile(), ifd0.getByteOrder());
+        if (origin.length == 2)
+        {
+            return reader.readImageData(ifd0, origin[0], origin[1], size[0], size[1]);
+        }
+        
+        // select the image file directories within the range along z
+        if (origin[2] < 0 || size[2] < 1 || origin[2] + size[2] > this.fileDirectories.size())
+        {
+            throw new IllegalArgumentException("Range of slices must be contained within the number of images");
+        }
+        List<ImageFileDirectory> ifds = this.fileDirectories.subList(origin[2], origin[2] + size[2]);
+        return reader.readImageStack(ifds, origin[0], origin[1], size[0], size[1]);
+    }
+    
 	/**
      * The function called by the "readImage()" method, that reads the image
      * data and returns either an instance of Array2D or Array3D.
@@ -539,7 +822,7 @@ public class TiffImageReader extends AlgoStub implements ImageReader
             int sizeX = ifd.getValue(BaselineTags.ImageWidth.CODE);
             int sizeY = ifd.getValue(BaselineTags.ImageLength.CODE);
             
-            int[] stripOffsets = ifd.getIntArrayValue(BaselineTags.StripOffsets.CODE, null);
+            long[] stripOffsets = ifd.getLongArrayValue(BaselineTags.StripOffsets.CODE);
             reader.seek(stripOffsets[0]);
 
             PixelType pixelType = ifd.determinePixelType();
@@ -566,36 +849,72 @@ public class TiffImageReader extends AlgoStub implements ImageReader
         }
     }
     
-    private Array<?> createFileMappedArray(ImageFileDirectory ifd, int nImages) throws IOException
-    {
-        long offset = (long) ifd.getIntArrayValue(BaselineTags.StripOffsets.CODE, null)[0];
-        int sizeX = ifd.getValue(BaselineTags.ImageWidth.CODE);
-        int sizeY = ifd.getValue(BaselineTags.ImageLength.CODE);
-        int[] dims = new int[] {sizeX, sizeY, nImages};
-        PixelType pixelType = ifd.determinePixelType();
-        ByteOrder byteOrder = ifd.getByteOrder();
-        
-        return ImageIO.createFileMappedArray(path, offset, dims, pixelType, byteOrder);
-    }
-    
-    private static final Array<?> createFileMappedArray(Path path, ArrayList<ImageFileDirectory> fileDirectories) throws IOException
+    /**
+     * Creates a virtual 3D array from a list of image file directories with
+     * the same size. When the data of each directory are uncompressed and
+     * contiguous, the slices are mapped into memory. Otherwise, the slices are
+     * decoded when they are accessed, and kept within a slice cache.
+     */
+    private Array<?> createVirtualStack(List<ImageFileDirectory> fileDirectories) throws IOException
     {
         ImageFileDirectory ifd0 = fileDirectories.getFirst();
         int nImages = fileDirectories.size();
-        
-        long[] offsets = new long[nImages];
-        for (int z = 0; z < nImages; z++)
-        {
-            offsets[z] = (long) fileDirectories.get(z).getIntArrayValue(BaselineTags.StripOffsets.CODE, null)[0];
-        }
-        
         int sizeX = ifd0.getValue(BaselineTags.ImageWidth.CODE);
         int sizeY = ifd0.getValue(BaselineTags.ImageLength.CODE);
         int[] dims = new int[] {sizeX, sizeY, nImages};
         PixelType pixelType = ifd0.determinePixelType();
         ByteOrder byteOrder = ifd0.getByteOrder();
         
-        return ImageIO.createFileMappedArray(path, offsets, dims, pixelType, byteOrder);
+        long sliceByteCount = ((long) sizeX) * sizeY * pixelType.byteCount();
+        boolean contiguous = pixelType != PixelType.UINT12;
+        long[] offsets = new long[nImages];
+        for (int z = 0; z < nImages && contiguous; z++)
+        {
+            ImageFileDirectory ifd = fileDirectories.get(z);
+            contiguous = hasContiguousData(ifd, sliceByteCount);
+            offsets[z] = contiguous ? ifd.getLongArrayValue(BaselineTags.StripOffsets.CODE)[0] : 0;
+        }
+        if (contiguous)
+        {
+            return ImageIO.createVirtualArray(path, offsets, dims, pixelType, byteOrder);
+        }
+        
+        // decode the slices on demand
+        TiffImageDataReader reader = createImageDataReader(path.toFile(), byteOrder);
+        List<ImageFileDirectory> ifds = new ArrayList<ImageFileDirectory>(fileDirectories);
+        return ImageIO.createVirtualArray(dims, pixelType, index -> reader.readImageData(ifds.get(index)));
+    }
+    
+    /**
+     * Checks if the data of an image file directory are uncompressed, stored
+     * within strips, and contiguous within the file.
+     */
+    private static final boolean hasContiguousData(ImageFileDirectory ifd, long byteCount)
+    {
+        if (ifd.isTiled() || ifd.getIntValue(BaselineTags.Compression.CODE, BaselineTags.Compression.NONE) != BaselineTags.Compression.NONE)
+        {
+            return false;
+        }
+        
+        long[] offsets = ifd.getLongArrayValue(BaselineTags.StripOffsets.CODE);
+        long[] counts = ifd.getLongArrayValue(BaselineTags.StripByteCounts.CODE);
+        long total = 0;
+        for (int i = 0; i < offsets.length; i++)
+        {
+            if (offsets[i] != offsets[0] + total) return false;
+            total += counts[i];
+        }
+        return total >= byteCount;
+    }
+    
+    /**
+     * Checks if virtual arrays can be created for the specified pixel type.
+     */
+    private static final boolean isVirtualPixelType(PixelType pixelType)
+    {
+        return pixelType == PixelType.UINT8 || pixelType == PixelType.UINT12 || pixelType == PixelType.UINT16
+                || pixelType == PixelType.INT16 || pixelType == PixelType.INT32 
+                || pixelType == PixelType.FLOAT32 || pixelType == PixelType.FLOAT64;
     }
     
     /**
@@ -611,6 +930,12 @@ public class TiffImageReader extends AlgoStub implements ImageReader
     {
         TiffImageDataReader reader = new TiffImageDataReader(file, byteOrder);
         
+        // use the pool of this reader for decoding image data, if specified
+        if (this.getExecutionPool() != null)
+        {
+            reader.setExecutionPool(this.getExecutionPool());
+        }
+        
         // add an algo listener that simply propagates the events to the
         // listener(s) of the TiffImageReader class
         reader.addAlgoListener(new AlgoListener()
@@ -4,22 +4,33 @@
 package net.sci.image.io;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
 
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
 import net.sci.array.Array2D;
 import net.sci.array.Array3D;
+import net.sci.array.binary.Binary;
 import net.sci.array.binary.process.BinaryToUInt8;
 import net.sci.array.color.RGB16;
 import net.sci.array.color.RGB16Array;
@@ -85,6 +96,24 @@ import net.sci.image.io.tiff.ImageFileDirectory;
  * <li>write the remaining IFDs, if necessary</li>
  * </ul>
  * 
+ * Images can also be written slice by slice, without keeping the whole image
+ * in memory. In that case, the data of each slice are written immediately,
+ * followed by the IFD of the slice. Strips can be compressed using PackBits,
+ * LZW or Deflate compression; compression of the strips is performed by the
+ * threads of the execution pool while the previous strips are written.
+ * {@snippet lang="java" :
+    try(TiffImageWriter writer = new TiffImageWriter("outputFile.tif"))
+    {
+        writer.setCompression(BaselineTags.Compression.LZW);
+        writer.startStack(image, sizeZ);
+        for (int z = 0; z < sizeZ; z++)
+        {
+            writer.writeSlice(computeSlice(z));
+        }
+        writer.endStack();
+    }
+ * }
+ * 
  * @author dlegland
  *
  */
@@ -110,6 +139,11 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
      */
     static final int MAX_STRIP_SIZE = 8192;
     
+    /**
+     * The largest offset that can be stored within a (non BigTIFF) TIFF file.
+     */
+    static final long MAX_OFFSET = 0xFFFFFFFFL;
+    
     
     // =============================================================
     // Class variables
@@ -130,12 +164,57 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
     /** The output stream, open at creation.*/
     OutputStream out;
     
+    /**
+     * The stream to the file, used to update the offset to the next IFD after
+     * the IFD was written.
+     */
+    FileOutputStream fileStream;
+    
     /**
      * An option for automatically converting binary input images into UInt8
      * arrays.
      */
     boolean convertBinaryToUInt8 = true;
     
+    /**
+     * The compression scheme used for writing image data. Default is no
+     * compression.
+     */
+    int compression = Compression.NONE;
+    
+    /**
+     * The compression level used for Deflate compression.
+     */
+    int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    
+    /**
+     * The Image File Directory used as template for the slices of the stack
+     * being written, or null if no stack is being written.
+     */
+    ImageFileDirectory stackIfd = null;
+    
+    /**
+     * The number of slices announced when the stack was started, or 0 if
+     * unknown.
+     */
+    int stackSliceCount;
+    
+    /**
+     * The number of slices written since the stack was started.
+     */
+    int writtenSliceCount;
+    
+    /**
+     * The number of bytes written into the file when writing a stack.
+     */
+    long streamPosition;
+    
+    /**
+     * The position of the field containing the offset to the next IFD, within
+     * the file header or within the last written IFD.
+     */
+    long nextIfdOffsetPosition;
+    
     
     // =============================================================
     // Constructor
@@ -154,7 +233,8 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
         // Open output stream.
         // Always use BIG_ENDIAN byte order for writing images, to simplify implementation,
         // as Java Outputstream uses only big-endian order
-        this.out = new BufferedOutputStream(new FileOutputStream(this.file));
+        this.fileStream = new FileOutputStream(this.file);
+        this.out = new BufferedOutputStream(this.fileStream);
     }
     
     
@@ -181,6 +261,43 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
         return this;
     }
     
+    /**
+     * Chooses the compression scheme used for writing image data.
+     * 
+     * @param compression
+     *            the compression scheme, one of the constants NONE, PACKBITS,
+     *            LZW or DEFLATE defined in the
+     *            {@code BaselineTags.Compression} class.
+     * @return a reference to this writer
+     */
+    public TiffImageWriter setCompression(int compression)
+    {
+        switch (compression)
+        {
+            case Compression.NONE, Compression.PACKBITS, Compression.LZW, Compression.DEFLATE -> this.compression = compression;
+            default -> throw new IllegalArgumentException("Unsupported compression scheme: " + compression);
+        }
+        return this;
+    }
+    
+    /**
+     * Chooses the compression level used by the Deflate compression.
+     * 
+     * @param level
+     *            the compression level, between 0 and 9, or -1 for the default
+     *            level.
+     * @return a reference to this writer
+     */
+    public TiffImageWriter setCompressionLevel(int level)
+    {
+        if (level < -1 || level > 9)
+        {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9, not " + level);
+        }
+        this.compressionLevel = level;
+        return this;
+    }
+    
     
     // =============================================================
     // General methods
@@ -195,6 +312,13 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
             image = new Image(array2, image);
         }
         
+        // compressed data are written slice by slice, as strip sizes are not known in advance
+        if (this.compression != Compression.NONE)
+        {
+            writeImageAsStack(image);
+            return;
+        }
+        
         // uses three offsets for the IFD, the data of IFD entries, and image data
         long nextIfdOffset = 0L;
         long ifdDataOffset = 0L;
@@ -319,7 +443,329 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
         }
     }
     
+    private void writeImageAsStack(Image image) throws IOException
+    {
+        Array<?> array = image.getData();
+        if (array.dimensionality() == 2)
+        {
+            startStack(image, 1);
+            writeSlice(array);
+        }
+        else if (array.dimensionality() == 3)
+        {
+            Array3D<?> array3d = Array3D.wrap(array);
+            int sizeZ = array.size(2);
+            startStack(image, sizeZ);
+            for (int z = 0; z < sizeZ; z++)
+            {
+                this.fireProgressChanged(this, z, sizeZ);
+                writeSlice(array3d.slice(z));
+            }
+            this.fireProgressChanged(this, 1, 1);
+        }
+        else
+        {
+            throw new RuntimeException("Unable to manage an array with dimensionality: " + array.dimensionality());
+        }
+        endStack();
+    }
+    
+    
+    // =============================================================
+    // Writing of stacks, slice by slice
+    
+    /**
+     * Starts the writing of a stack of images, that will be written slice by
+     * slice using the {@code writeSlice()} method.
+     * 
+     * The image is used only for determining the size and the type of the
+     * slices, as well as spatial calibration. It can be the 3D image to write,
+     * or a 2D image similar to the slices.
+     * 
+     * @param image
+     *            an image containing the meta-data of the slices
+     * @param sliceCount
+     *            the number of slices that will be written, or 0 if unknown.
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    public void startStack(Image image, int sliceCount) throws IOException
+    {
+        if (this.stackIfd != null)
+        {
+            throw new IllegalStateException("A stack is already being written");
+        }
+        if (image.isBinaryImage() && convertBinaryToUInt8)
+        {
+            image = new Image(new BinaryToUInt8.View(image.getData()), image);
+        }
+        
+        ImageFileDirectory ifd = initImageFileDirectory(image, sliceCount);
+        ifd.getEntry(Compression.CODE).setShortValue((short) this.compression);
+        for (Entry entry : customEntries)
+        {
+            if (ifd.getEntry(entry.code) != null)
+            {
+                System.err.println("Duplicate tag with code " + entry.code + ", skipping last entries");
+                continue;
+            }
+            ifd.addEntry(entry);
+        }
+        
+        // the offset to the first IFD is updated when the first slice is written
+        writeHeader();
+        this.stackIfd = ifd;
+        this.stackSliceCount = sliceCount;
+        this.writtenSliceCount = 0;
+        this.streamPosition = HEADER_SIZE;
+        this.nextIfdOffsetPosition = 4;
+    }
+    
+    /**
+     * Writes a slice of the stack started with the {@code startStack()}
+     * method: the strips of image data are compressed by the threads of the
+     * execution pool, and are written as soon as they are available. The
+     * Image File Directory of the slice is written after the image data.
+     * 
+     * @param slice
+     *            the 2D array containing the slice data
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    public void writeSlice(Array<?> slice) throws IOException
+    {
+        if (this.stackIfd == null)
+        {
+            throw new IllegalStateException("The startStack() method must be called before writing slices");
+        }
+        if (this.stackSliceCount > 0 && this.writtenSliceCount >= this.stackSliceCount)
+        {
+            throw new IllegalStateException("All the " + this.stackSliceCount + " slices of the stack have already been written");
+        }
+        int sizeX = this.stackIfd.getValue(BaselineTags.ImageWidth.CODE);
+        int sizeY = this.stackIfd.getValue(BaselineTags.ImageLength.CODE);
+        if (slice.dimensionality() != 2 || slice.size(0) != sizeX || slice.size(1) != sizeY)
+        {
+            throw new IllegalArgumentException(String.format("Slice must be a 2D array with size %d x %d", sizeX, sizeY));
+        }
+        if (slice.elementClass() == Binary.class && convertBinaryToUInt8)
+        {
+            slice = new BinaryToUInt8.View(slice);
+        }
+        
+        // convert slice data into bytes
+        int[] stripLengths = this.stackIfd.getIntArrayValue(BaselineTags.StripByteCounts.CODE);
+        int rowsPerStrip = this.stackIfd.getValue(BaselineTags.RowsPerStrip.CODE);
+        int bytesPerRow = stripLengths[0] / Math.min(rowsPerStrip, sizeY);
+        int sliceByteCount = Arrays.stream(stripLengths).sum();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(sliceByteCount);
+        writeImageData2d(Array2D.wrap(slice), baos);
+        final byte[] data = baos.toByteArray();
+        
+        // submit compression of the strips
+        int nStrips = stripLengths.length;
+        ArrayList<Future<byte[]>> futures = new ArrayList<Future<byte[]>>(nStrips);
+        if (this.compression != Compression.NONE)
+        {
+            ForkJoinPool pool = this.getExecutionPool() != null ? this.getExecutionPool() : ForkJoinPool.commonPool();
+            boolean parallel = pool.getParallelism() > 1 && nStrips > 1 && !ForkJoinTask.inForkJoinPool();
+            int offset = 0;
+            for (int iStrip = 0; iStrip < nStrips; iStrip++)
+            {
+                final int stripOffset = offset;
+                final int stripLength = stripLengths[iStrip];
+                if (parallel)
+                {
+                    futures.add(pool.submit(() -> compressStrip(data, stripOffset, stripLength, bytesPerRow)));
+                }
+                else
+                {
+                    futures.add(CompletableFuture.completedFuture(compressStrip(data, stripOffset, stripLength, bytesPerRow)));
+                }
+                offset += stripLength;
+            }
+        }
+        
+        // write the strips in order, as soon as they are available
+        int[] stripOffsets = new int[nStrips];
+        int[] stripByteCounts = new int[nStrips];
+        int offset = 0;
+        for (int iStrip = 0; iStrip < nStrips; iStrip++)
+        {
+            byte[] buffer = data;
+            int bufferOffset = offset;
+            int length = stripLengths[iStrip];
+            if (this.compression != Compression.NONE)
+            {
+                buffer = waitFor(futures.get(iStrip));
+                bufferOffset = 0;
+                length = buffer.length;
+            }
+            checkOffset(this.streamPosition + length);
+            stripOffsets[iStrip] = (int) this.streamPosition;
+            stripByteCounts[iStrip] = length;
+            this.out.write(buffer, bufferOffset, length);
+            this.streamPosition += length;
+            offset += stripLengths[iStrip];
+        }
+        
+        // IFD must begin on a word boundary
+        if (this.streamPosition % 2 != 0)
+        {
+            this.out.write(0);
+            this.streamPosition++;
+        }
+        
+        // create the IFD of the slice, and write it after image data
+        ImageFileDirectory ifd = new ImageFileDirectory().setByteOrder(this.stackIfd.getByteOrder());
+        for (Entry entry : this.stackIfd.entries())
+        {
+            if (entry.code != BaselineTags.StripOffsets.CODE && entry.code != BaselineTags.StripByteCounts.CODE)
+            {
+                ifd.addEntry(entry);
+            }
+        }
+        ifd.addEntry(new BaselineTags.StripOffsets().newEntry().setValue(stripOffsets));
+        ifd.addEntry(new BaselineTags.StripByteCounts().newEntry().setValue(stripByteCounts));
+        ifd.setOffset(0L);
+        
+        long ifdOffset = this.streamPosition;
+        long ifdEnd = setupEntryOffsets(ifd, ifdOffset + ifd.byteCount());
+        checkOffset(ifdEnd);
+        writeIFD(ifd);
+        for (Entry entry : ifd.entries())
+        {
+            writeEntryContent(entry);
+        }
+        
+        // update the offset within the previous IFD (or within the header)
+        updateNextIfdOffset(ifdOffset);
+        this.nextIfdOffsetPosition = ifdOffset + ifd.byteCount() - 4;
+        this.streamPosition = ifdEnd;
+        this.writtenSliceCount++;
+    }
+    
+    /**
+     * Finishes the writing of the current stack.
+     * 
+     * The number of slices is stored within the image description when the
+     * stack is started. If the number of written slices differs, the file
+     * could not be interpreted correctly by ImageJ, and an exception is thrown
+     * after the data have been flushed.
+     * 
+     * @throws IOException
+     *             if an I/O error occurred, or if the number of written slices
+     *             differs from the number of slices declared when the stack
+     *             was started
+     */
+    public void endStack() throws IOException
+    {
+        if (this.stackIfd == null)
+        {
+            throw new IllegalStateException("No stack is being written");
+        }
+        this.out.flush();
+        this.stackIfd = null;
+        
+        if (this.stackSliceCount > 0 && this.writtenSliceCount != this.stackSliceCount)
+        {
+            throw new IOException(String.format("Stack was declared with %d slices, but %d were written", 
+                    this.stackSliceCount, this.writtenSliceCount));
+        }
+    }
+    
+    /**
+     * Compresses a strip of image data using the compression scheme of this
+     * writer.
+     */
+    private byte[] compressStrip(byte[] data, int offset, int length, int bytesPerRow)
+    {
+        switch (this.compression)
+        {
+            case Compression.PACKBITS -> 
+            {
+                // each row is packed separately
+                byte[] buffer = new byte[length + Math.ceilDiv(length, 128) + Math.ceilDiv(length, bytesPerRow)];
+                int n = 0;
+                for (int pos = offset; pos < offset + length; pos += bytesPerRow)
+                {
+                    n += PackBits.compressPackBits(data, pos, Math.min(bytesPerRow, offset + length - pos), buffer, n);
+                }
+                return Arrays.copyOf(buffer, n);
+            }
+            case Compression.LZW -> 
+            {
+                return LZW.compressLZW(data, offset, length);
+            }
+            case Compression.DEFLATE -> 
+            {
+                Deflater deflater = new Deflater(this.compressionLevel);
+                try
+                {
+                    deflater.setInput(data, offset, length);
+                    deflater.finish();
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream(length / 2 + 64);
+                    byte[] buffer = new byte[Math.max(length / 2, 1024)];
+                    while (!deflater.finished())
+                    {
+                        int n = deflater.deflate(buffer);
+                        baos.write(buffer, 0, n);
+                    }
+                    return baos.toByteArray();
+                }
+                finally
+                {
+                    deflater.end();
+                }
+            }
+            default -> throw new RuntimeException("Unsupported compression scheme: " + this.compression);
+        }
+    }
+    
+    private static final byte[] waitFor(Future<byte[]> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing image data");
+        }
+        catch (ExecutionException ex)
+        {
+            throw new IOException("Error while compressing image data", ex.getCause());
+        }
+    }
+    
+    private static final void checkOffset(long offset) throws IOException
+    {
+        if (offset > MAX_OFFSET)
+        {
+            throw new IOException("Can not write TIFF files larger than 4GB");
+        }
+    }
+    
+    /**
+     * Updates the field containing the offset to the next IFD, within the
+     * header or within the last written IFD.
+     */
+    private void updateNextIfdOffset(long ifdOffset) throws IOException
+    {
+        this.out.flush();
+        ByteBuffer bb = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN).putInt((int) ifdOffset);
+        bb.flip();
+        this.fileStream.getChannel().write(bb, this.nextIfdOffsetPosition);
+    }
+    
     private ImageFileDirectory initImageFileDirectory(Image image)
+    {
+        int sizeZ = image.getDimension() > 2 ? image.getSize(2) : 1;
+        return initImageFileDirectory(image, sizeZ);
+    }
+    
+    private ImageFileDirectory initImageFileDirectory(Image image, int sizeZ)
     {
         int sizeX = image.getSize(0);
         int sizeY = image.getSize(1);
@@ -381,7 +827,7 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
         // create special description string that can be interpreted by ImageJ
         if (useImagejDescription)
         {
-            String description = createImagejDescriptionString(image);
+            String description = createImagejDescriptionString(image, sizeZ);
             ifd.addEntry(new BaselineTags.ImageDescription().newEntry().setValue(description));
         }
         
@@ -405,21 +851,21 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
      * 
      * @param image
      *            the image that need to be saved
+     * @param sizeZ
+     *            the number of slices of the image, or 0 if unknown
      * @return a string instance that will be saved into the "description" entry
      *         of the Tiff file.
      */
-    private String createImagejDescriptionString(Image image) 
+    private String createImagejDescriptionString(Image image, int sizeZ) 
     {
-        int sizeZ = image.getDimension() > 2 ? image.getSize(2) : 1;
-        
         StringBuilder sb = new StringBuilder(100);
         
         // use an arbitrary version of ImageJ
         sb.append("ImageJ=1.54m\n");
         
-        if (image.getDimension() > 2)
+        if (sizeZ > 0 && (image.getDimension() > 2 || sizeZ > 1))
         {
-            sb.append("images=" + image.getSize(2) + "\n");
+            sb.append("images=" + sizeZ + "\n");
         }
         if (sizeZ > 1)
         {
@@ -435,7 +881,7 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
         }
         if (sizeZ > 1) 
         {
-            if (cal.isCalibrated() && cal.getXAxis().getUnitName() != null)
+            if (cal.isCalibrated() && cal.getXAxis().getUnitName() != null && image.getDimension() > 2)
             {
                 sb.append("spacing=" + cal.getZAxis().getSpacing() + "\n");
             }
@@ -724,7 +1170,7 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
     {
         switch (array.dimensionality())
         {
-            case 2 -> writeImageData2d(Array2D.wrap(array));
+            case 2 -> writeImageData2d(Array2D.wrap(array), this.out);
             case 3 -> 
             {
                 // in case of 3D data, iterate over the 2D slices, notifying each new slice 
@@ -733,7 +1179,7 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
                 for (int z = 0; z < sizeZ; z++)
                 {
                     this.fireProgressChanged(this, z, sizeZ);
-                    writeImageData2d(array3d.slice(z));
+                    writeImageData2d(array3d.slice(z), this.out);
                 }
                 this.fireProgressChanged(this, 1, 1);
             }
@@ -753,10 +1199,12 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
      * 
      * @param array
      *            the array to write into the file.
+     * @param out
+     *            the stream to write the data in.
      * @throws IOException
      *             if an I/O Exception occurred
      */
-    private void writeImageData2d(Array2D<?> array) throws IOException
+    private void writeImageData2d(Array2D<?> array, OutputStream out) throws IOException
     {
         // retrieve array size
         int sizeX = array.size(0);
@@ -921,6 +1369,10 @@ public class TiffImageWriter extends AlgoStub implements ImageWriter, AutoClosea
     @Override
     public void close() throws Exception
     {
+        if (this.stackIfd != null)
+        {
+            endStack();
+        }
         this.out.close();
     }
 }
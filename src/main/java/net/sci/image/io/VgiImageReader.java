@@ -21,6 +21,20 @@ public class VgiImageReader implements ImageReader
 {
     File file;
 
+    /**
+     * The file containing the binary data, initialized when the header is
+     * read.
+     */
+    File dataFile = null;
+    
+    int sizeX = 0;
+    int sizeY = 0;
+    int sizeZ = 0;
+    boolean littleEndian = true;
+    
+    double[] resol = new double[3];
+    String unitName = "";
+    
     public VgiImageReader(File file) throws IOException 
     {
         this.file = file;
@@ -32,15 +46,63 @@ public class VgiImageReader implements ImageReader
     @Override
     public Image readImage() throws IOException
     {
+        readHeader();
+        
+        ByteOrder order = littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        ImageBinaryDataReader reader = new ImageBinaryDataReader(dataFile, order);
+        Array<?> array = reader.readUInt16Array(new int[]{sizeX, sizeY, sizeZ});
+
+        reader.close();
+        
+        return createImage(array);
+    }
+    
+    /**
+     * Reads the image by mapping the slices of the data file into memory. The
+     * data are read from the file only when they are accessed.
+     * 
+     * @return a new Image, whose data are read on demand
+     * @throws IOException
+     *             if an I/O error occurred
+     */
+    @Override
+    public Image readVirtualImage() throws IOException
+    {
+        readHeader();
+        
+        ByteOrder order = littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        int[] dims = new int[] {sizeX, sizeY, sizeZ};
+        Array<?> array = ImageIO.createVirtualArray(dataFile.toPath(), 0L, dims, PixelType.UINT16, order);
+        
+        return createImage(array);
+    }
+    
+    private Image createImage(Array<?> array)
+    {
+        // Create new image
+        Image image = new Image(array);
+		image.setNameFromFileName(file.getName());
+		image.setFilePath(file.getPath());
+        
+        // setup spatial resolution
+        image.setCalibration(new Calibration(resol, unitName));
+                
+        return image; 
+    }
+    
+    /**
+     * Reads the header file, and initializes the information necessary to
+     * read the data file.
+     */
+    private void readHeader() throws IOException
+    {
+        if (this.dataFile != null)
+        {
+            return;
+        }
+        
         String dataFileName = null;
-        int sizeX = 0;
-        int sizeY = 0;
-        int sizeZ = 0;
         int bitDepth = 0;
-        boolean littleEndian = true;
-        
-        double[] resol = new double[3];
-        String unitName = "";
         
         try (LineNumberReader reader = new LineNumberReader(new FileReader(file))) 
         { 
@@ -131,24 +193,7 @@ public class VgiImageReader implements ImageReader
 
         // assumes all necessary information have been read
         File dataFile = new File(dataFileName);
-        dataFile = new File(file.getParentFile(), dataFile.getName());
-        System.out.println("read data file: " + dataFile.getAbsolutePath());
-
-        ByteOrder order = littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
-        ImageBinaryDataReader reader = new ImageBinaryDataReader(dataFile, order);
-        Array<?> array = reader.readUInt16Array(new int[]{sizeX, sizeY, sizeZ});
-
-        reader.close();
-        
-        // Create new image
-        Image image = new Image(array);
-		image.setNameFromFileName(file.getName());
-		image.setFilePath(file.getPath());
-        
-        // setup spatial resolution
-        image.setCalibration(new Calibration(resol, unitName));
-                
-        return image; 
+        this.dataFile = new File(file.getParentFile(), dataFile.getName());
+        System.out.println("read data file: " + this.dataFile.getAbsolutePath());
     }
-
 }
@@ -0,0 +1,320 @@
+/**
+ *
+ */
+package net.sci.image.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.Array;
+import net.sci.array.binary.BinaryArray;
+import net.sci.array.numeric.Float32Array;
+import net.sci.array.numeric.Float64Array;
+import net.sci.array.numeric.Int16Array;
+import net.sci.array.numeric.Int32Array;
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.UInt16Array;
+import net.sci.array.numeric.UInt8Array;
+import net.sci.array.numeric.impl.ChunkStore;
+import net.sci.array.numeric.impl.ChunkedFloat32Array3D;
+import net.sci.array.numeric.impl.ChunkedFloat32ArrayND;
+import net.sci.array.numeric.impl.ChunkedUInt16Array3D;
+import net.sci.array.numeric.impl.ChunkedUInt16ArrayND;
+import net.sci.array.numeric.impl.ChunkedUInt8Array3D;
+import net.sci.array.numeric.impl.ChunkedUInt8ArrayND;
+import net.sci.image.Image;
+import net.sci.image.io.zarr.ZarrArrayInfo;
+import net.sci.image.io.zarr.ZarrChunkSource;
+
+/**
+ * Reads an image stored as a Zarr (version 2) array on the local file system.
+ *
+ * Arrays with three or more dimensions and UInt8, UInt16 or Float32 data type
+ * are read lazily: the result is a chunked array whose chunks are read on
+ * demand from the chunk files, and kept in memory within a byte budget. Other
+ * arrays are read entirely in memory, the chunk files being read and
+ * decompressed in parallel.
+ *
+ * Example:
+ * <pre><code>
+    ZarrImageReader reader = new ZarrImageReader(new File("volume.zarr"));
+    Image image = reader.readImage();
+ * </code></pre>
+ *
+ * @see ZarrImageWriter
+ * @see net.sci.image.io.zarr.ZarrArrayInfo
+ *
+ * @author dlegland
+ *
+ */
+public class ZarrImageReader extends AlgoStub implements ImageReader
+{
+    // =============================================================
+    // Class variables
+
+    /**
+     * The directory containing the Zarr array.
+     */
+    File directory;
+
+    /**
+     * The meta-data of the array.
+     */
+    ZarrArrayInfo info;
+
+    /**
+     * The maximum number of bytes used by the chunks of lazily read arrays.
+     */
+    long byteBudget = ChunkStore.DEFAULT_BYTE_BUDGET;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Creates a new reader for the Zarr array stored within the specified
+     * directory.
+     *
+     * @param directory
+     *            the directory containing the ".zarray" file and the chunk
+     *            files
+     * @throws IOException
+     *             if the meta-data of the array could not be read
+     */
+    public ZarrImageReader(File directory) throws IOException
+    {
+        this.directory = directory;
+        this.info = ZarrArrayInfo.read(directory);
+    }
+
+
+    // =============================================================
+    // Methods
+
+    /**
+     * @return the meta-data of the Zarr array
+     */
+    public ZarrArrayInfo getArrayInfo()
+    {
+        return this.info;
+    }
+
+    /**
+     * Changes the maximum number of bytes used by the decompressed chunks of
+     * the arrays that are read lazily.
+     *
+     * @param byteBudget
+     *            the maximum number of bytes used by decompressed chunks
+     */
+    public void setByteBudget(long byteBudget)
+    {
+        this.byteBudget = byteBudget;
+    }
+
+    @Override
+    public Image readImage() throws IOException
+    {
+        Image image = new Image(readImageData());
+        image.setNameFromFileName(this.directory.getName());
+        image.setFilePath(this.directory.getPath());
+        return image;
+    }
+
+    /**
+     * Reads the data of the Zarr array.
+     *
+     * @return the array containing the data
+     * @throws IOException
+     *             if a chunk file could not be read
+     */
+    public Array<?> readImageData() throws IOException
+    {
+        Array<?> array = createChunkedArray();
+        if (array != null)
+        {
+            return array;
+        }
+        return readArrayData();
+    }
+
+    /**
+     * Creates an array whose chunks are read on demand, or returns null if
+     * the data type or the dimensionality are not managed by chunked arrays.
+     */
+    private Array<?> createChunkedArray()
+    {
+        int nd = this.info.dimensionality();
+        if (nd < 3)
+        {
+            return null;
+        }
+
+        int[] sizes = this.info.arraySizes();
+        char kind = this.info.dataKind;
+        int itemSize = this.info.itemSize;
+        boolean uint8 = kind == 'u' && itemSize == 1;
+        boolean uint16 = kind == 'u' && itemSize == 2;
+        boolean float32 = kind == 'f' && itemSize == 4;
+        if (!uint8 && !uint16 && !float32)
+        {
+            return null;
+        }
+
+        ZarrChunkSource source = new ZarrChunkSource(this.directory, this.info);
+        ChunkStore store = new ChunkStore(sizes, this.info.arrayChunkSizes(), itemSize,
+                ChunkStore.Compression.DEFLATE, this.byteBudget, source);
+
+        if (nd == 3)
+        {
+            if (uint8) return new ChunkedUInt8Array3D(sizes[0], sizes[1], sizes[2], store);
+            if (uint16) return new ChunkedUInt16Array3D(sizes[0], sizes[1], sizes[2], store);
+            return new ChunkedFloat32Array3D(sizes[0], sizes[1], sizes[2], store);
+        }
+        if (uint8) return new ChunkedUInt8ArrayND(sizes, store);
+        if (uint16) return new ChunkedUInt16ArrayND(sizes, store);
+        return new ChunkedFloat32ArrayND(sizes, store);
+    }
+
+    /**
+     * Reads all the chunks of the array into a new array. Chunks are read and
+     * decompressed in parallel, and copied into the array in the order of the
+     * chunks.
+     */
+    private ScalarArray<?> readArrayData() throws IOException
+    {
+        int[] sizes = this.info.arraySizes();
+        ScalarArray<?> array = switch (this.info.dataKind)
+        {
+            case 'b' -> BinaryArray.create(sizes);
+            case 'u' -> this.info.itemSize == 1 ? UInt8Array.create(sizes) : UInt16Array.create(sizes);
+            case 'i' -> this.info.itemSize == 2 ? Int16Array.create(sizes) : Int32Array.create(sizes);
+            default -> this.info.itemSize == 4 ? Float32Array.create(sizes) : Float64Array.create(sizes);
+        };
+
+        ZarrChunkSource source = new ZarrChunkSource(this.directory, this.info);
+        int chunkCount = source.chunkCount();
+        int byteCount = source.chunkByteCount();
+
+        ForkJoinPool pool = this.getExecutionPool() != null ? this.getExecutionPool() : ForkJoinPool.commonPool();
+        boolean parallel = !ForkJoinTask.inForkJoinPool();
+        int maxPending = parallel ? 2 * pool.getParallelism() : 1;
+
+        ArrayDeque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+        int nextIndex = 0;
+        for (int index = 0; index < chunkCount; index++)
+        {
+            // submit the reading of the next chunks
+            while (nextIndex < chunkCount && pending.size() < maxPending)
+            {
+                final int chunkIndex = nextIndex++;
+                if (parallel)
+                {
+                    pending.add(pool.submit(() -> source.readChunk(chunkIndex, byteCount)));
+                }
+                else
+                {
+                    pending.add(CompletableFuture.completedFuture(source.readChunk(chunkIndex, byteCount)));
+                }
+            }
+
+            byte[] data = waitFor(pending.poll());
+            if (data != null)
+            {
+                copyChunk(data, source.gridPosition(index), array);
+            }
+            this.fireProgressChanged(this, index + 1, chunkCount);
+        }
+
+        return array;
+    }
+
+    /**
+     * Copies the data of a chunk, in big-endian byte order, into the
+     * corresponding region of the array.
+     */
+    private void copyChunk(byte[] data, int[] gridPos, ScalarArray<?> array)
+    {
+        int[] sizes = array.size();
+        int[] chunkSizes = this.info.arrayChunkSizes();
+        int nd = sizes.length;
+
+        // position of the chunk origin within the array
+        int[] origin = new int[nd];
+        for (int d = 0; d < nd; d++)
+        {
+            origin[d] = gridPos[d] * chunkSizes[d];
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int[] local = new int[nd];
+        int[] pos = origin.clone();
+        int elementCount = data.length / this.info.itemSize;
+        for (int i = 0; i < elementCount; i++)
+        {
+            double value = switch (this.info.dataKind)
+            {
+                case 'b' -> buffer.get() != 0 ? 1.0 : 0.0;
+                case 'u' -> this.info.itemSize == 1 ? buffer.get() & 0x00FF : buffer.getShort() & 0x00FFFF;
+                case 'i' -> this.info.itemSize == 2 ? buffer.getShort() : buffer.getInt();
+                default -> this.info.itemSize == 4 ? buffer.getFloat() : buffer.getDouble();
+            };
+
+            // chunks at the border of the array are padded
+            boolean inside = true;
+            for (int d = 0; d < nd; d++)
+            {
+                if (pos[d] >= sizes[d])
+                {
+                    inside = false;
+                    break;
+                }
+            }
+            if (inside)
+            {
+                array.setValue(pos, value);
+            }
+
+            // increment local position, the first dimension varying the fastest
+            for (int d = 0; d < nd; d++)
+            {
+                if (++local[d] < chunkSizes[d])
+                {
+                    pos[d]++;
+                    break;
+                }
+                local[d] = 0;
+                pos[d] = origin[d];
+            }
+        }
+    }
+
+    private static final byte[] waitFor(Future<byte[]> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading Zarr chunks");
+        }
+        catch (ExecutionException ex)
+        {
+            if (ex.getCause() instanceof IOException ioe)
+            {
+                throw ioe;
+            }
+            throw new IOException("Error while reading Zarr chunks", ex.getCause());
+        }
+    }
+}
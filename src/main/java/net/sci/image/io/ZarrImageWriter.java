@@ -0,0 +1,389 @@
+/**
+ *
+ */
+package net.sci.image.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+import net.sci.algo.AlgoStub;
+import net.sci.array.Array;
+import net.sci.array.binary.BinaryArray;
+import net.sci.array.numeric.Float32Array;
+import net.sci.array.numeric.Float64Array;
+import net.sci.array.numeric.Int16Array;
+import net.sci.array.numeric.Int32Array;
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.UInt16Array;
+import net.sci.array.numeric.UInt8Array;
+import net.sci.image.Image;
+import net.sci.image.io.zarr.ZarrArrayInfo;
+import net.sci.image.io.zarr.ZarrChunkSource;
+
+/**
+ * Writes the data of an image as a Zarr (version 2) array within a directory
+ * of the local file system.
+ *
+ * The array is split into chunks, that are extracted, compressed with zlib (by
+ * default) and written in parallel, using the execution pool of the writer, or
+ * the common pool if no pool was specified. Arrays are written in "C" order,
+ * with little-endian data types, so that the dimensions of the Zarr array are
+ * the reverse of the dimensions of the image.
+ *
+ * Example:
+ * <pre><code>
+    ZarrImageWriter writer = new ZarrImageWriter(new File("volume.zarr"));
+    writer.setChunkSizes(new int[] {64, 64, 64});
+    writer.writeImage(image);
+ * </code></pre>
+ *
+ * @see ZarrImageReader
+ *
+ * @author dlegland
+ *
+ */
+public class ZarrImageWriter extends AlgoStub implements ImageWriter
+{
+    // =============================================================
+    // Class variables
+
+    /**
+     * The directory to write the array in.
+     */
+    File directory;
+
+    /**
+     * The size of the chunks along each dimension of the image, or null for
+     * choosing the chunk sizes from the dimensionality of the image.
+     */
+    int[] chunkSizes = null;
+
+    /**
+     * The identifier of the compressor ("zlib" or "gzip"), or null for writing
+     * raw chunks.
+     */
+    String compressor = "zlib";
+
+    /**
+     * The compression level, between 0 and 9.
+     */
+    int compressionLevel = 1;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Creates a new writer for the specified directory. The directory is
+     * created if it does not exist.
+     *
+     * @param directory
+     *            the directory to write the array in
+     */
+    public ZarrImageWriter(File directory)
+    {
+        this.directory = directory;
+    }
+
+
+    // =============================================================
+    // Settings
+
+    /**
+     * Changes the size of the chunks.
+     *
+     * @param chunkSizes
+     *            the size of the chunks along each dimension of the image, or
+     *            null for using default chunk sizes.
+     * @return this writer
+     */
+    public ZarrImageWriter setChunkSizes(int[] chunkSizes)
+    {
+        this.chunkSizes = chunkSizes != null ? chunkSizes.clone() : null;
+        return this;
+    }
+
+    /**
+     * Chooses the compressor of the chunks.
+     *
+     * @param compressor
+     *            the compressor identifier, either "zlib" or "gzip", or null
+     *            for writing raw chunks
+     * @return this writer
+     */
+    public ZarrImageWriter setCompressor(String compressor)
+    {
+        if (compressor != null && !compressor.equals("zlib") && !compressor.equals("gzip"))
+        {
+            throw new IllegalArgumentException("Unsupported Zarr compressor: " + compressor);
+        }
+        this.compressor = compressor;
+        return this;
+    }
+
+    /**
+     * Chooses the level of the zlib compression.
+     *
+     * @param level
+     *            the compression level, between 0 (no compression) and 9 (best
+     *            compression)
+     * @return this writer
+     */
+    public ZarrImageWriter setCompressionLevel(int level)
+    {
+        if (level < 0 || level > 9)
+        {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9, not " + level);
+        }
+        this.compressionLevel = level;
+        return this;
+    }
+
+
+    // =============================================================
+    // Implementation of the ImageWriter interface
+
+    @Override
+    public void writeImage(Image image) throws IOException
+    {
+        writeArray(image.getData());
+    }
+
+    /**
+     * Writes the specified array as a Zarr array.
+     *
+     * @param array
+     *            the array to write
+     * @throws IOException
+     *             if the array type is not supported, or if a file could not
+     *             be written
+     */
+    public void writeArray(Array<?> array) throws IOException
+    {
+        if (!(array instanceof ScalarArray<?> scalarArray))
+        {
+            throw new IOException("Can not write arrays of class " + array.getClass().getName() + " as Zarr array");
+        }
+
+        ZarrArrayInfo info = computeArrayInfo(scalarArray);
+        Files.createDirectories(this.directory.toPath());
+        info.write(this.directory);
+
+        ZarrChunkSource target = new ZarrChunkSource(this.directory, info);
+        int chunkCount = target.chunkCount();
+
+        ForkJoinPool pool = this.getExecutionPool() != null ? this.getExecutionPool() : ForkJoinPool.commonPool();
+        boolean parallel = !ForkJoinTask.inForkJoinPool();
+        int maxPending = parallel ? 2 * pool.getParallelism() : 1;
+
+        ArrayDeque<Future<?>> pending = new ArrayDeque<Future<?>>();
+        for (int index = 0; index < chunkCount; index++)
+        {
+            final int chunkIndex = index;
+            if (parallel)
+            {
+                pending.add(pool.submit(() -> writeChunk(scalarArray, info, target, chunkIndex)));
+                if (pending.size() >= maxPending)
+                {
+                    waitFor(pending.poll());
+                }
+            }
+            else
+            {
+                writeChunk(scalarArray, info, target, chunkIndex);
+            }
+            this.fireProgressChanged(this, index + 1, chunkCount);
+        }
+        while (!pending.isEmpty())
+        {
+            waitFor(pending.poll());
+        }
+    }
+
+    /**
+     * Computes the meta-data of the Zarr array used to store the specified
+     * array.
+     *
+     * @param array
+     *            the array to write
+     * @return the meta-data of the Zarr array
+     * @throws IOException
+     *             if the array type is not supported
+     */
+    public ZarrArrayInfo computeArrayInfo(ScalarArray<?> array) throws IOException
+    {
+        ZarrArrayInfo info = new ZarrArrayInfo();
+        if (array instanceof BinaryArray)
+        {
+            info.dataKind = 'b';
+            info.itemSize = 1;
+        }
+        else if (array instanceof UInt8Array)
+        {
+            info.dataKind = 'u';
+            info.itemSize = 1;
+        }
+        else if (array instanceof UInt16Array)
+        {
+            info.dataKind = 'u';
+            info.itemSize = 2;
+        }
+        else if (array instanceof Int16Array)
+        {
+            info.dataKind = 'i';
+            info.itemSize = 2;
+        }
+        else if (array instanceof Int32Array)
+        {
+            info.dataKind = 'i';
+            info.itemSize = 4;
+        }
+        else if (array instanceof Float32Array)
+        {
+            info.dataKind = 'f';
+            info.itemSize = 4;
+        }
+        else if (array instanceof Float64Array)
+        {
+            info.dataKind = 'f';
+            info.itemSize = 8;
+        }
+        else
+        {
+            throw new IOException("Can not write arrays of class " + array.getClass().getName() + " as Zarr array");
+        }
+        info.byteOrder = ByteOrder.LITTLE_ENDIAN;
+        info.compressor = this.compressor;
+        info.compressionLevel = this.compressionLevel;
+        info.order = 'C';
+
+        // dimensions are stored in reverse order
+        int[] sizes = array.size();
+        int nd = sizes.length;
+        int[] chunkSizes = this.chunkSizes != null ? this.chunkSizes : defaultChunkSizes(nd);
+        if (chunkSizes.length != nd)
+        {
+            throw new IllegalArgumentException("Chunk sizes must have the same length as array dimension");
+        }
+        info.shape = new int[nd];
+        info.chunks = new int[nd];
+        for (int d = 0; d < nd; d++)
+        {
+            info.shape[d] = sizes[nd - 1 - d];
+            info.chunks[d] = Math.max(Math.min(chunkSizes[nd - 1 - d], sizes[nd - 1 - d]), 1);
+        }
+        return info;
+    }
+
+    private static final int[] defaultChunkSizes(int nd)
+    {
+        int[] res = new int[nd];
+        int size = nd <= 2 ? 512 : 64;
+        for (int d = 0; d < nd; d++)
+        {
+            res[d] = size;
+        }
+        return res;
+    }
+
+    /**
+     * Extracts the data of a chunk from the array, and writes it into the chunk
+     * file. Chunks at the border of the array are padded with zeros.
+     */
+    private static final Void writeChunk(ScalarArray<?> array, ZarrArrayInfo info, ZarrChunkSource target, int index) throws IOException
+    {
+        int[] sizes = array.size();
+        int[] chunkSizes = info.arrayChunkSizes();
+        int nd = sizes.length;
+
+        int[] gridPos = target.gridPosition(index);
+        int[] origin = new int[nd];
+        for (int d = 0; d < nd; d++)
+        {
+            origin[d] = gridPos[d] * chunkSizes[d];
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(target.chunkByteCount());
+        int[] local = new int[nd];
+        int[] pos = origin.clone();
+        int elementCount = buffer.capacity() / info.itemSize;
+        for (int i = 0; i < elementCount; i++)
+        {
+            boolean inside = true;
+            for (int d = 0; d < nd; d++)
+            {
+                if (pos[d] >= sizes[d])
+                {
+                    inside = false;
+                    break;
+                }
+            }
+            double value = inside ? array.getValue(pos) : 0.0;
+
+            switch (info.dataKind)
+            {
+                case 'b' -> buffer.put((byte) (value != 0 ? 1 : 0));
+                case 'u' ->
+                {
+                    if (info.itemSize == 1) buffer.put((byte) value);
+                    else buffer.putShort((short) value);
+                }
+                case 'i' ->
+                {
+                    if (info.itemSize == 2) buffer.putShort((short) value);
+                    else buffer.putInt((int) value);
+                }
+                default ->
+                {
+                    if (info.itemSize == 4) buffer.putFloat((float) value);
+                    else buffer.putDouble(value);
+                }
+            }
+
+            // increment local position, the first dimension varying the fastest
+            for (int d = 0; d < nd; d++)
+            {
+                if (++local[d] < chunkSizes[d])
+                {
+                    pos[d]++;
+                    break;
+                }
+                local[d] = 0;
+                pos[d] = origin[d];
+            }
+        }
+
+        target.writeChunk(index, buffer.array());
+        return null;
+    }
+
+    private static final void waitFor(Future<?> future) throws IOException
+    {
+        try
+        {
+            future.get();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing Zarr chunks");
+        }
+        catch (ExecutionException ex)
+        {
+            if (ex.getCause() instanceof IOException ioe)
+            {
+                throw ioe;
+            }
+            throw new IOException("Error while writing Zarr chunks", ex.getCause());
+        }
+    }
+}
@@ -134,6 +134,9 @@ public class BaselineTags implements TagSet
         
         public static final int NONE = 1;
         public static final int CCITT = 2;
+        public static final int LZW = 5;
+        public static final int DEFLATE = 8;
+        public static final int DEFLATE_OLD = 32946;
         public static final int PACKBITS = 32773;
         
         public Compression()
@@ -284,7 +287,7 @@ public class BaselineTags implements TagSet
         
         public StripOffsets()
         {
-            super(CODE, List.of(Entry.Type.LONG, Entry.Type.SHORT), "StripOffsets", "For each strip, the byte offset of that strip");
+            super(CODE, List.of(Entry.Type.LONG, Entry.Type.SHORT, Entry.Type.LONG8), "StripOffsets", "For each strip, the byte offset of that strip");
         }
     }
     
@@ -337,7 +340,7 @@ public class BaselineTags implements TagSet
         public static final int CODE = 279;
         public StripByteCounts()
         {
-            super(CODE, List.of(Entry.Type.LONG, Entry.Type.SHORT), "StripByteCounts", "For each strip, the number of bytes in the strip after compression");
+            super(CODE, List.of(Entry.Type.LONG, Entry.Type.SHORT, Entry.Type.LONG8), "StripByteCounts", "For each strip, the number of bytes in the strip after compression");
         }
     }
     
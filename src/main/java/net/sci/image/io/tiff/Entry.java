@@ -80,7 +80,23 @@ public class Entry
          * (code 12)
          * @since TIFF 6.0
          */
-        DOUBLE(12, 8);
+        DOUBLE(12, 8),
+        /**
+         * Unsigned 64-bit integer, used by BigTIFF files (code 16)
+         * @since BigTIFF
+         */
+        LONG8(16, 8),
+        /**
+         * Signed 64-bit integer, used by BigTIFF files (code 17)
+         * @since BigTIFF
+         */
+        SLONG8(17, 8),
+        /**
+         * Unsigned 64-bit offset to another IFD, used by BigTIFF files (code
+         * 18)
+         * @since BigTIFF
+         */
+        IFD8(18, 8);
         
         int code;
         int byteCount;
@@ -119,6 +135,9 @@ public class Entry
                 case 10 -> SRATIONAL;
                 case 11 -> FLOAT;
                 case 12 -> DOUBLE;
+                case 16 -> LONG8;
+                case 17 -> SLONG8;
+                case 18 -> IFD8;
                 default -> UNKNOWN;
             };
         }
@@ -411,10 +430,12 @@ public class Entry
         return switch (this.content)
         {
             case Integer i -> Integer.toString(i);
+            case Long l -> Long.toString(l);
             case Double d -> Double.toString(d);
             case byte[] array -> createDesc(array, 5);
             case short[] array -> createDesc(array, 5);
             case int[] array -> createDesc(array, 5);
+            case long[] array -> createDesc(array, 5);
             case double[] array -> createDesc(array, 5);
             case String str -> str;
             default -> "(unknown)";
@@ -475,6 +496,23 @@ public class Entry
         return sb.toString();
     }
     
+    private static final String createDesc(long[] array, int nMax)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        sb.append(Long.toString(array[0]));
+        for (int i = 1; i < Math.min(array.length, nMax); i++)
+        {
+            sb.append(",").append(Long.toString(array[i]));
+        }
+        if (array.length > nMax)
+        {
+            sb.append("...");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+    
     private static final String createDesc(double[] array, int nMax)
     {
         StringBuilder sb = new StringBuilder();
@@ -4,6 +4,7 @@
 package net.sci.image.io.tiff;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import net.sci.image.io.PixelType;
@@ -47,12 +48,68 @@ public class ExtensionTags implements TagSet
     public static final class Predictor extends TiffTag
     {
         public static final int CODE = 317;
+        
+        public static final int NONE = 1;
+        public static final int HORIZONTAL_DIFFERENCING = 2;
+        public static final int FLOATING_POINT = 3;
+        
         public Predictor()
         {
             super(CODE, "Predictor", "A mathematical operator that is applied to the image data before an encoding scheme is applied");
         }
     }
 
+    /**
+     * 322 - The tile width in pixels. This is the number of columns in each
+     * tile.
+     */
+    public static final class TileWidth extends TiffTag
+    {
+        public static final int CODE = 322;
+        public TileWidth()
+        {
+            super(CODE, List.of(Entry.Type.LONG, Entry.Type.SHORT), "TileWidth", "The tile width in pixels");
+        }
+    }
+
+    /**
+     * 323 - The tile length (height) in pixels. This is the number of rows in
+     * each tile.
+     */
+    public static final class TileLength extends TiffTag
+    {
+        public static final int CODE = 323;
+        public TileLength()
+        {
+            super(CODE, List.of(Entry.Type.LONG, Entry.Type.SHORT), "TileLength", "The tile length (height) in pixels");
+        }
+    }
+
+    /**
+     * 324 - For each tile, the byte offset of that tile, as compressed and
+     * stored on disk. Tiles are ordered left-to-right and top-to-bottom.
+     */
+    public static final class TileOffsets extends TiffTag
+    {
+        public static final int CODE = 324;
+        public TileOffsets()
+        {
+            super(CODE, List.of(Entry.Type.LONG, Entry.Type.LONG8), "TileOffsets", "For each tile, the byte offset of that tile");
+        }
+    }
+
+    /**
+     * 325 - For each tile, the number of (compressed) bytes in that tile.
+     */
+    public static final class TileByteCounts extends TiffTag
+    {
+        public static final int CODE = 325;
+        public TileByteCounts()
+        {
+            super(CODE, List.of(Entry.Type.LONG, Entry.Type.SHORT, Entry.Type.LONG8), "TileByteCounts", "For each tile, the number of (compressed) bytes in that tile");
+        }
+    }
+
     /**
      * 339 - Specifies how to interpret each data sample in a pixel.
      */
@@ -92,11 +149,15 @@ public class ExtensionTags implements TagSet
     @Override
     public  Map<Integer, TiffTag> getTags()
     {
-        Map<Integer, TiffTag> tags = new HashMap<Integer, TiffTag>(4);
+        Map<Integer, TiffTag> tags = new HashMap<Integer, TiffTag>(8);
         
         add(tags, new DocumentName()); 
         add(tags, new PageName()); 
         add(tags, new Predictor()); 
+        add(tags, new TileWidth()); 
+        add(tags, new TileLength()); 
+        add(tags, new TileOffsets()); 
+        add(tags, new TileByteCounts()); 
         add(tags, new SampleFormat()); 
        
         return tags;
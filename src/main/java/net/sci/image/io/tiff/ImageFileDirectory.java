@@ -239,6 +239,50 @@ public class ImageFileDirectory
     }
   
 
+    /**
+     * Returns either the value or the content of the tag specified by its code
+     * as an array of long values, throwing an Exception if the tag does not
+     * exist within this directory. Values of entries with types SHORT and LONG
+     * are interpreted as unsigned. This method is typically used for reading
+     * offsets, that may be stored with 64-bits integers in BigTIFF files.
+     * 
+     * @param tagCode
+     *            the code of the tag
+     * @return the value of the tag
+     * @throws RuntimeException
+     *             if the tag does not exist in this directory
+     */
+    public long[] getLongArrayValue(int tagCode)
+    {
+        Entry entry = getEntry(tagCode);
+        if (entry == null) throw new RuntimeException("Could not find entry with tag code: " + tagCode);
+        
+        long mask = entry.type == Entry.Type.SHORT ? 0xFFFFL : 0xFFFFFFFFL;
+        return switch (entry.content)
+        {
+            case long[] array -> array;
+            case Long value -> new long[] {value};
+            case int[] array -> {
+                long[] res = new long[array.length];
+                for (int i = 0; i < array.length; i++)
+                {
+                    res[i] = array[i] & mask;
+                }
+                yield res;
+            }
+            case null, default -> new long[] {entry.value & mask};
+        };
+    }
+    
+    /**
+     * @return true if the image data are organized in tiles, false if the
+     *         image data are organized in strips
+     */
+    public boolean isTiled()
+    {
+        return getEntry(ExtensionTags.TileOffsets.CODE) != null;
+    }
+  
     /**
      * Returns the number of bytes necessary to write this directory.
      * The number of bytes is computed as:
@@ -16,6 +16,9 @@ import net.sci.image.io.BinaryDataReader;
  * Reads all the instances of {@code ImageFileDirectory} from a Tiff File. These
  * file info can later be used to read image data from the same Tiff file.
  * 
+ * Both classic TIFF files (magic number 42, 32-bits offsets) and BigTIFF files
+ * (magic number 43, 64-bits offsets) are supported.
+ * 
  */
 public class ImageFileDirectoryReader
 {
@@ -33,6 +36,12 @@ public class ImageFileDirectoryReader
      */
     BinaryDataReader dataReader;
 
+    /**
+     * Indicates whether the file is a BigTIFF file, that uses 64-bits offsets
+     * and counts. Determined when reading the file header.
+     */
+    boolean bigTiff = false;
+
     
     // =============================================================
     // Constructor
@@ -68,14 +77,30 @@ public class ImageFileDirectoryReader
 
             // check the magic number indicating tiff format
             int magicNumber = dataReader.readShort();
-            if (magicNumber != 42)
+            if (magicNumber != 42 && magicNumber != 43)
             {
-                throw new RuntimeException("Invalid TIFF file: magic number is different from 42");
+                throw new RuntimeException("Invalid TIFF file: magic number is different from 42 or 43");
             }
+            this.bigTiff = magicNumber == 43;
             
             // Read file offset of first IFD
-            long offset = ((long) dataReader.readInt()) & 0xffffffffL;
-            // System.out.println("offset: " + offset);
+            long offset;
+            if (this.bigTiff)
+            {
+                // BigTIFF header contains the byte size of offsets (always 8),
+                // and a reserved value (always 0)
+                int offsetByteSize = dataReader.readShort();
+                dataReader.readShort();
+                if (offsetByteSize != 8)
+                {
+                    throw new RuntimeException("Invalid BigTIFF file: byte size of offsets is different from 8");
+                }
+                offset = dataReader.readLong();
+            }
+            else
+            {
+                offset = ((long) dataReader.readInt()) & 0xffffffffL;
+            }
             
             if (offset < 0L)
             {
@@ -139,7 +164,7 @@ public class ImageFileDirectoryReader
     	dataReader.seek(offset);
     	
         // Read and control the number of entries
-        int nEntries = dataReader.readShort();
+        long nEntries = this.bigTiff ? dataReader.readLong() : dataReader.readShort();
         if (nEntries < 1 || nEntries > 1000)
         {
             throw new RuntimeException("Number of entries is out of range: " + nEntries);
@@ -157,7 +182,6 @@ public class ImageFileDirectoryReader
         for (int i = 0; i < nEntries; i++)
         {
             Entry entry = readEntry();
-            readContent(entry);
             
             // if tag was not found, create a default empty tag
             TiffTag tag = tagMap.get(entry.code);
@@ -177,11 +201,15 @@ public class ImageFileDirectoryReader
         }
 
         // read offset to next IFD
-        ifd.offset = ((long) dataReader.readInt()) & 0xffffffffL;
+        ifd.offset = this.bigTiff ? dataReader.readLong() : ((long) dataReader.readInt()) & 0xffffffffL;
         
         return ifd;
     }
     
+    /**
+     * Reads the next entry from the stream, together with its content. After
+     * reading, the stream is positioned at the beginning of the next entry.
+     */
     private Entry readEntry() throws IOException
     {
         // read tag code
@@ -196,79 +224,93 @@ public class ImageFileDirectoryReader
         }
         
         // reader number of data and value / offset
-        int count = dataReader.readInt();
-        int value = readEntryValue(type, count);
-        
-        return new Entry(tagCode, type, count, value);
-        
+        int count = this.bigTiff ? (int) dataReader.readLong() : dataReader.readInt();
+        
+        // the content is stored within the value field if it fits into it,
+        // otherwise the value field contains the offset to the content
+        int fieldSize = this.bigTiff ? 8 : 4;
+        long fieldPosition = dataReader.getFilePointer();
+        long value = readEntryValue(type, count);
+        boolean inline = (long) count * type.byteCount() <= fieldSize;
+        long contentPosition = inline ? fieldPosition : value;
+        
+        Entry entry = new Entry(tagCode, type, count, (int) value);
+        readContent(entry, value, contentPosition);
+        
+        // move to the beginning of next entry
+        dataReader.seek(fieldPosition + fieldSize);
+        return entry;
     }
 
-    private int readEntryValue(Entry.Type type, int count) throws IOException
+    /**
+     * Reads the value field of an entry. Depending on type and count, the
+     * result is either the value of the entry, or the offset to its content.
+     */
+    private long readEntryValue(Entry.Type type, int count) throws IOException
     {
-        int value;
         if (type == Entry.Type.SHORT && count == 1)
         {
-            value = dataReader.readShort() & 0x00FFFF;
-            dataReader.readShort();
+            return dataReader.readShort() & 0x00FFFF;
         }
-        else
+        if (this.bigTiff)
         {
-            value = dataReader.readInt();
+            if ((type == Entry.Type.LONG || type == Entry.Type.SLONG) && count == 1)
+            {
+                return dataReader.readInt();
+            }
+            return dataReader.readLong();
         }
-        return value;
+        return dataReader.readInt();
     }
     
     /**
      * Initialize the content of the entry from the data reader, given its code
      * and the specified value.
      * 
-     * Note that values with type SHORT are read as integer values.
+     * Note that values with type SHORT are read as integer values, and values
+     * with type LONG8 are read as long values.
      * 
-     * @param dataReader
-     *            the instance of DataReader to read optional information from
+     * @param entry
+     *            the entry to initialize
+     * @param value
+     *            the value read within the value field of the entry
+     * @param position
+     *            the position of the content within the file
      * @throws IOException
      *             if tried to read from the file and problem occurred
      */
-    private void readContent(Entry entry) throws IOException
+    private void readContent(Entry entry, long value, long position) throws IOException
     {
         entry.content = switch (entry.type)
         {
-            case BYTE, SBYTE -> entry.count == 1 ? Integer.valueOf(entry.value) : readByteArray(entry);
-            case SHORT, SSHORT -> entry.count == 1 ? Integer.valueOf(entry.value) : readShortArray(entry);
-            case LONG, SLONG -> entry.count == 1 ? Integer.valueOf(entry.value) : readIntArray(entry);
-            case ASCII -> readAscii(entry); // Automatically convert byte array to String
-            case RATIONAL, SRATIONAL -> readRational(entry); // Assume only one rational is specified
-            case FLOAT -> readFloatArray(entry);
-            case DOUBLE -> readDoubleArray(entry);
+            case BYTE, SBYTE -> entry.count == 1 ? Integer.valueOf(entry.value) : readByteArray(entry, position);
+            case SHORT, SSHORT -> entry.count == 1 ? Integer.valueOf(entry.value) : readShortArray(entry, position);
+            case LONG, SLONG -> entry.count == 1 ? Integer.valueOf(entry.value) : readIntArray(entry, position);
+            case LONG8, SLONG8, IFD8 -> entry.count == 1 ? Long.valueOf(value) : readLongArray(entry, position);
+            case ASCII -> readAscii(entry, position); // Automatically convert byte array to String
+            case RATIONAL, SRATIONAL -> readRational(position); // Assume only one rational is specified
+            case FLOAT -> readFloatArray(entry, position);
+            case DOUBLE -> readDoubleArray(entry, position);
             default -> null;
         };
     }
     
-    private byte[] readByteArray(Entry entry) throws IOException
+    private byte[] readByteArray(Entry entry, long position) throws IOException
     {
         // allocate memory for result
         byte[] res = new byte[entry.count];
         
-        // save pointer location
-        long saveLoc = dataReader.getFilePointer();
-        
-        // convert tag value to long offset
-        long offset = ((long) entry.value) & 0xffffffffL;
-        dataReader.seek(offset);
-        
         // fill up array
+        dataReader.seek(position);
         int nRead = dataReader.readByteArray(res);
         if (nRead != entry.count)
         {
             throw new RuntimeException("Could not read all the required bytes");
         }
-        
-        // restore pointer and return result
-        dataReader.seek(saveLoc);
         return res;
     }
     
-    private String readAscii(Entry entry) throws IOException
+    private String readAscii(Entry entry, long position) throws IOException
     {
         if (entry.count == 0) return "";
         
@@ -276,26 +318,8 @@ public class ImageFileDirectoryReader
         byte[] data = new byte[entry.count - 1];
         
         // read string buffer
-        if (entry.count <= 4)
-        {
-            // unpack integer
-            int value = entry.value;
-            for (int i = 0; i < entry.count - 1; i++)
-            {
-                data[i] = (byte) (value & 0x00FF);
-                value = value >> 8;
-            }
-        }
-        else
-        {
-            // convert state to long offset for reading large buffer
-            long offset = ((long) entry.value) & 0xffffffffL;
-            
-            long pos0 = dataReader.getFilePointer();
-            dataReader.seek(offset);
-            dataReader.readByteArray(data);
-            dataReader.seek(pos0);
-        }
+        dataReader.seek(position);
+        dataReader.readByteArray(data);
         
         return new String(data);
     }
@@ -305,50 +329,48 @@ public class ImageFileDirectoryReader
      * 
      * @param entry
      *            the entry containing content info
+     * @param position
+     *            the position of the content within the file
      * @return the array of integer values corresponding to the entry content
      * @throws IOException
      *             if a problem occurred
      */
-    private int[] readShortArray(Entry entry) throws IOException
+    private int[] readShortArray(Entry entry, long position) throws IOException
     {
-        // convert tag value to long offset for reading large buffer
-        long offset = ((long) entry.value) & 0xffffffffL;
-        
         // allocate memory for result
         int[] res = new int[entry.count];
         
-        // save pointer location
-        long saveLoc = dataReader.getFilePointer();
-        
         // fill up array
-        dataReader.seek(offset);
+        dataReader.seek(position);
         for (int c = 0; c < entry.count; c++)
         {
             res[c] = dataReader.readShort();
         }
-        
-        // restore pointer and return result
-        dataReader.seek(saveLoc);
         return res;
     }
     
-    private int[] readIntArray(Entry entry) throws IOException
+    private int[] readIntArray(Entry entry, long position) throws IOException
     {
-        // convert tag value to long offset for reading large buffer
-        long offset = ((long) entry.value) & 0xffffffffL;
-        
         // allocate memory for result
         int[] res = new int[entry.count];
         
-        // save pointer location
-        long saveLoc = dataReader.getFilePointer();
-        
         // fill up array
-        dataReader.seek(offset);
+        dataReader.seek(position);
         dataReader.readIntArray(res, 0, entry.count);
+        return res;
+    }
+    
+    private long[] readLongArray(Entry entry, long position) throws IOException
+    {
+        // allocate memory for result
+        long[] res = new long[entry.count];
         
-        // restore pointer and return result
-        dataReader.seek(saveLoc);
+        // fill up array
+        dataReader.seek(position);
+        for (int c = 0; c < entry.count; c++)
+        {
+            res[c] = dataReader.readLong();
+        }
         return res;
     }
     
@@ -356,24 +378,18 @@ public class ImageFileDirectoryReader
      * Reads the rational value at the given position, as the ratio of two
      * integers.
      * 
-     * @param dataReader
-     *            the instance of BinaryDataReader to read from
+     * @param position
+     *            the position of the content within the file
      * @return the approximated rational content at the specified position, as a
      *         double
      * @throws IOException
      *             if an I/O Exception occurs
      */
-    private double readRational(Entry entry) throws IOException
+    private double readRational(long position) throws IOException
     {
-        // convert tag value to long offset for reading large buffer
-        long offset = ((long) entry.value) & 0xffffffffL;
-        
-        long saveLoc = dataReader.getFilePointer();
-        dataReader.seek(offset);
-        
+        dataReader.seek(position);
         int numerator = dataReader.readInt();
         int denominator = dataReader.readInt();
-        dataReader.seek(saveLoc);
         
         if (denominator != 0)
             return (double) numerator / denominator;
@@ -381,43 +397,25 @@ public class ImageFileDirectoryReader
             return 0.0;
     }
     
-    private float[] readFloatArray(Entry entry) throws IOException
+    private float[] readFloatArray(Entry entry, long position) throws IOException
     {
-        // convert tag value to long offset for reading large buffer
-        long offset = ((long) entry.value) & 0xffffffffL;
-        
         // allocate memory for result
         float[] res = new float[entry.count];
         
-        // save pointer location
-        long saveLoc = dataReader.getFilePointer();
-        
         // fill up array
-        dataReader.seek(offset);
+        dataReader.seek(position);
         dataReader.readFloatArray(res, 0, entry.count);
-        
-        // restore pointer and return result
-        dataReader.seek(saveLoc);
         return res;
     }
     
-    private double[] readDoubleArray(Entry entry) throws IOException
+    private double[] readDoubleArray(Entry entry, long position) throws IOException
     {
-        // convert tag value to long offset for reading large buffer
-        long offset = ((long) entry.value) & 0xffffffffL;
-        
         // allocate memory for result
         double[] res = new double[entry.count];
         
-        // save pointer location
-        long saveLoc = dataReader.getFilePointer();
-        
         // fill up array
-        dataReader.seek(offset);
+        dataReader.seek(position);
         dataReader.readDoubleArray(res, 0, entry.count);
-        
-        // restore pointer and return result
-        dataReader.seek(saveLoc);
         return res;
     }
     
@@ -0,0 +1,683 @@
+/**
+ *
+ */
+package net.sci.image.io.tiff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import net.sci.image.io.LZW;
+import net.sci.image.io.PackBits;
+
+/**
+ * Reads the strips or the tiles of an Image File Directory into a byte array,
+ * managing the decompression and the predictor. A rectangular region of the
+ * image can also be read, by decoding only the strips or the tiles that
+ * intersect the region.
+ *
+ * Supported compression modes are NONE, PACKBITS, LZW and DEFLATE (both Adobe
+ * and old-style codes). Horizontal differencing and floating point predictors
+ * are supported for LZW and DEFLATE compressions.
+ *
+ * As each strip or tile is compressed independently from the others, they can
+ * be decoded in parallel. The compressed bytes are read using positional
+ * reads on the file channel, that can be shared by several threads.
+ *
+ * @author dlegland
+ *
+ */
+class StripDecoder
+{
+    /**
+     * A task that processes the item with the specified index, and that may
+     * throw an IOException.
+     */
+    interface IndexedTask
+    {
+        public void run(int index) throws IOException;
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StripDecoder()
+    {
+    }
+
+    /**
+     * Reads the data of the specified Image File Directory into a
+     * pre-allocated byte array, and returns the number of bytes read.
+     *
+     * @param channel
+     *            the channel to read the data from
+     * @param ifd
+     *            the Image File Directory describing the data
+     * @param buffer
+     *            the pre-allocated array of bytes, with the size of the
+     *            uncompressed data
+     * @param byteOrder
+     *            the byte order of the file, used by predictors
+     * @param pool
+     *            the pool used for decoding strips in parallel, or null for
+     *            sequential decoding
+     * @return the number of bytes read
+     * @throws IOException
+     *             if an error occurs
+     */
+    static int readByteBuffer(FileChannel channel, ImageFileDirectory ifd, byte[] buffer, ByteOrder byteOrder, ForkJoinPool pool)
+            throws IOException
+    {
+        int compressionCode = ifd.getIntValue(BaselineTags.Compression.CODE, BaselineTags.Compression.NONE);
+        if (compressionCode != BaselineTags.Compression.NONE && !isSupported(compressionCode))
+        {
+            throw new RuntimeException("Unsupported code for compression mode: " + compressionCode);
+        }
+
+        // tiled images are read as a region that covers the whole image
+        if (ifd.isTiled())
+        {
+            int sizeX = ifd.getValue(BaselineTags.ImageWidth.CODE);
+            int sizeY = ifd.getValue(BaselineTags.ImageLength.CODE);
+            readRegion(channel, ifd, 0, 0, sizeX, sizeY, buffer, byteOrder, pool);
+            return buffer.length;
+        }
+        
+        // retrieve strips info
+        long[] stripOffsets = ifd.getLongArrayValue(BaselineTags.StripOffsets.CODE);
+        long[] stripByteCounts = ifd.getLongArrayValue(BaselineTags.StripByteCounts.CODE);
+        if (stripOffsets.length != stripByteCounts.length)
+        {
+            throw new RuntimeException("Strip offsets and strip byte counts arrays must have same length");
+        }
+        int nStrips = stripOffsets.length;
+
+        // uncompressed strips are read directly into the buffer
+        if (compressionCode == BaselineTags.Compression.NONE)
+        {
+            int offset = 0;
+            for (int i = 0; i < nStrips; i++)
+            {
+                int count = (int) Math.min(stripByteCounts[i], buffer.length - offset);
+                offset += readFully(channel, stripOffsets[i], buffer, offset, count);
+            }
+            return offset;
+        }
+
+        // compute the size of the uncompressed strips
+        int sizeY = ifd.getValue(BaselineTags.ImageLength.CODE);
+        int rowsPerStrip = Math.min(ifd.getIntValue(BaselineTags.RowsPerStrip.CODE, sizeY), sizeY);
+        int rowBytes = buffer.length / sizeY;
+        int stripSize = rowsPerStrip * rowBytes;
+
+        // read the compressed bytes of each strip
+        byte[][] strips = new byte[nStrips][];
+        for (int i = 0; i < nStrips; i++)
+        {
+            strips[i] = new byte[(int) stripByteCounts[i]];
+            readFully(channel, stripOffsets[i], strips[i], 0, strips[i].length);
+        }
+
+        // decode each strip, and undo the predictor
+        int sizeX = ifd.getValue(BaselineTags.ImageWidth.CODE);
+        Predictor predictor = Predictor.create(ifd, compressionCode, byteOrder, sizeX);
+        int[] counts = new int[nStrips];
+        forEach(pool, nStrips, i ->
+        {
+            int offset = i * stripSize;
+            int length = Math.max(Math.min(stripSize, buffer.length - offset), 0);
+            counts[i] = decodeStrip(compressionCode, strips[i], buffer, offset, length);
+            if (predictor != null)
+            {
+                predictor.decode(buffer, offset, counts[i]);
+            }
+        });
+
+        int total = 0;
+        for (int count : counts)
+        {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Reads a rectangular region of the image described by the specified Image
+     * File Directory into a pre-allocated byte array. Only the strips or the
+     * tiles that intersect the region are read and decoded. For uncompressed
+     * data, only the bytes within the region are read from the file.
+     *
+     * @param channel
+     *            the channel to read the data from
+     * @param ifd
+     *            the Image File Directory describing the data
+     * @param x0
+     *            the x-coordinate of the upper-left corner of the region
+     * @param y0
+     *            the y-coordinate of the upper-left corner of the region
+     * @param sizeX
+     *            the width of the region
+     * @param sizeY
+     *            the height of the region
+     * @param buffer
+     *            the pre-allocated array of bytes, with the size of the
+     *            uncompressed region
+     * @param byteOrder
+     *            the byte order of the file, used by predictors
+     * @param pool
+     *            the pool used for decoding strips or tiles in parallel, or
+     *            null for sequential decoding
+     * @throws IOException
+     *             if an error occurs
+     */
+    static void readRegion(FileChannel channel, ImageFileDirectory ifd, int x0, int y0, int sizeX, int sizeY,
+            byte[] buffer, ByteOrder byteOrder, ForkJoinPool pool) throws IOException
+    {
+        int compressionCode = ifd.getIntValue(BaselineTags.Compression.CODE, BaselineTags.Compression.NONE);
+        if (!isSupported(compressionCode))
+        {
+            throw new RuntimeException("Unsupported code for compression mode: " + compressionCode);
+        }
+        
+        Layout layout = new Layout(ifd);
+        if (x0 < 0 || y0 < 0 || sizeX < 1 || sizeY < 1 || x0 + sizeX > layout.imageWidth || y0 + sizeY > layout.imageHeight)
+        {
+            throw new IllegalArgumentException("Region must be non empty and contained within image bounds");
+        }
+        
+        int bpp = layout.bytesPerPixel;
+        int segW = layout.segmentWidth;
+        int segH = layout.segmentHeight;
+        Predictor predictor = Predictor.create(ifd, compressionCode, byteOrder, segW);
+        
+        // range of segments intersecting the region
+        int sx0 = x0 / segW;
+        int sy0 = y0 / segH;
+        int nx = (x0 + sizeX - 1) / segW - sx0 + 1;
+        int ny = (y0 + sizeY - 1) / segH - sy0 + 1;
+        
+        forEach(pool, nx * ny, k -> 
+        {
+            int sx = sx0 + k % nx;
+            int sy = sy0 + k / nx;
+            int segIndex = sy * layout.segmentCountX + sx;
+            int segX0 = sx * segW;
+            int segY0 = sy * segH;
+            
+            // bounds of the intersection of the segment with the region
+            int ix0 = Math.max(x0, segX0);
+            int ix1 = Math.min(x0 + sizeX, segX0 + segW);
+            int iy0 = Math.max(y0, segY0);
+            int iy1 = Math.min(y0 + sizeY, segY0 + segH);
+            int rowLength = (ix1 - ix0) * bpp;
+            
+            if (compressionCode == BaselineTags.Compression.NONE)
+            {
+                // read only the bytes within the region, row by row
+                for (int y = iy0; y < iy1; y++)
+                {
+                    long pos = layout.offsets[segIndex] + ((long) (y - segY0) * segW + (ix0 - segX0)) * bpp;
+                    readFully(channel, pos, buffer, ((y - y0) * sizeX + (ix0 - x0)) * bpp, rowLength);
+                }
+                return;
+            }
+            
+            // read and decode the whole segment
+            byte[] compressed = new byte[(int) layout.byteCounts[segIndex]];
+            readFully(channel, layout.offsets[segIndex], compressed, 0, compressed.length);
+            int segRows = layout.tiled ? segH : Math.min(segH, layout.imageHeight - segY0);
+            byte[] segment = new byte[segW * segRows * bpp];
+            int count = decodeStrip(compressionCode, compressed, segment, 0, segment.length);
+            if (predictor != null)
+            {
+                predictor.decode(segment, 0, count);
+            }
+            
+            // copy the rows within the region
+            for (int y = iy0; y < iy1; y++)
+            {
+                int srcPos = ((y - segY0) * segW + (ix0 - segX0)) * bpp;
+                System.arraycopy(segment, srcPos, buffer, ((y - y0) * sizeX + (ix0 - x0)) * bpp, rowLength);
+            }
+        });
+    }
+
+    /**
+     * Checks if the compression mode specified by its code can be decoded.
+     *
+     * @param compressionCode
+     *            the value of the Compression tag
+     * @return true if the compression mode is supported
+     */
+    static boolean isSupported(int compressionCode)
+    {
+        return switch (compressionCode)
+        {
+            case BaselineTags.Compression.NONE,
+                    BaselineTags.Compression.PACKBITS,
+                    BaselineTags.Compression.LZW,
+                    BaselineTags.Compression.DEFLATE,
+                    BaselineTags.Compression.DEFLATE_OLD -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Applies a task on each index between 0 and count-1. If a pool is
+     * specified, and the current thread does not already belong to a
+     * ForkJoinPool, the tasks are processed in parallel.
+     *
+     * @param pool
+     *            the pool used for processing the tasks, or null for
+     *            sequential processing
+     * @param count
+     *            the number of tasks
+     * @param task
+     *            the task to apply on each index
+     * @throws IOException
+     *             if one of the tasks throws an IOException
+     */
+    static void forEach(ForkJoinPool pool, int count, IndexedTask task) throws IOException
+    {
+        if (pool == null || pool.getParallelism() < 2 || count < 2 || ForkJoinTask.inForkJoinPool())
+        {
+            for (int i = 0; i < count; i++)
+            {
+                task.run(i);
+            }
+            return;
+        }
+
+        ArrayList<Future<?>> futures = new ArrayList<Future<?>>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final int index = i;
+            futures.add(pool.submit(() ->
+            {
+                task.run(index);
+                return null;
+            }));
+        }
+
+        // wait for completion, and propagate the exceptions thrown by the tasks
+        try
+        {
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Reading of image data was interrupted", ex);
+        }
+        catch (ExecutionException ex)
+        {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException ioe) throw ioe;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Reads bytes from the channel at the specified position, until the
+     * requested number of bytes is read or the end of file is reached.
+     *
+     * @return the number of bytes read
+     */
+    private static int readFully(FileChannel channel, long position, byte[] array, int offset, int length)
+            throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(array, offset, length);
+        while (buffer.hasRemaining())
+        {
+            int nRead = channel.read(buffer, position + buffer.position() - offset);
+            if (nRead < 0)
+            {
+                break;
+            }
+        }
+        return buffer.position() - offset;
+    }
+
+    /**
+     * Decodes the compressed bytes of a strip into a portion of the output
+     * array.
+     *
+     * @return the number of bytes written into the output array
+     */
+    private static int decodeStrip(int compressionCode, byte[] input, byte[] output, int offset, int length)
+            throws IOException
+    {
+        return switch (compressionCode)
+        {
+            case BaselineTags.Compression.PACKBITS -> PackBits.uncompressPackBits(input, output, offset);
+            case BaselineTags.Compression.LZW -> LZW.uncompressLZW(input, output, offset, length);
+            case BaselineTags.Compression.DEFLATE, BaselineTags.Compression.DEFLATE_OLD -> inflate(input, output, offset, length);
+            default -> throw new RuntimeException("Unsupported code for compression mode: " + compressionCode);
+        };
+    }
+
+    private static int inflate(byte[] input, byte[] output, int offset, int length) throws IOException
+    {
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(input);
+            int count = 0;
+            while (count < length && !inflater.finished())
+            {
+                int n = inflater.inflate(output, offset + count, length - count);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    break;
+                }
+                count += n;
+            }
+            return count;
+        }
+        catch (DataFormatException ex)
+        {
+            throw new IOException("Could not decompress Deflate data", ex);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+
+
+    // =============================================================
+    // Inner class for the organization of image data
+
+    /**
+     * Describes the organization of the image data into segments, that can be
+     * either strips or tiles. Strips are considered as tiles with the width of
+     * the image.
+     */
+    static class Layout
+    {
+        int imageWidth;
+        int imageHeight;
+        int bytesPerPixel;
+
+        boolean tiled;
+        int segmentWidth;
+        int segmentHeight;
+
+        /**
+         * The number of segments along the X direction.
+         */
+        int segmentCountX;
+
+        long[] offsets;
+        long[] byteCounts;
+
+        Layout(ImageFileDirectory ifd)
+        {
+            this.imageWidth = ifd.getValue(BaselineTags.ImageWidth.CODE);
+            this.imageHeight = ifd.getValue(BaselineTags.ImageLength.CODE);
+
+            // compute the number of bytes of each pixel
+            int samplesPerPixel = ifd.getIntValue(BaselineTags.SamplesPerPixel.CODE, 1);
+            int[] bitsPerSample = ifd.getIntArrayValue(BaselineTags.BitsPerSample.CODE, new int[] {1});
+            int bitsPerPixel = 0;
+            for (int c = 0; c < samplesPerPixel; c++)
+            {
+                bitsPerPixel += bitsPerSample[Math.min(c, bitsPerSample.length - 1)];
+            }
+            if (bitsPerPixel % 8 != 0)
+            {
+                throw new RuntimeException("Requires pixels stored on an integer number of bytes, not " + bitsPerPixel + " bits");
+            }
+            this.bytesPerPixel = bitsPerPixel / 8;
+
+            this.tiled = ifd.isTiled();
+            if (this.tiled)
+            {
+                this.segmentWidth = ifd.getValue(ExtensionTags.TileWidth.CODE);
+                this.segmentHeight = ifd.getValue(ExtensionTags.TileLength.CODE);
+                this.offsets = ifd.getLongArrayValue(ExtensionTags.TileOffsets.CODE);
+                this.byteCounts = ifd.getLongArrayValue(ExtensionTags.TileByteCounts.CODE);
+            }
+            else
+            {
+                this.segmentWidth = this.imageWidth;
+                this.segmentHeight = Math.min(ifd.getIntValue(BaselineTags.RowsPerStrip.CODE, this.imageHeight), this.imageHeight);
+                this.offsets = ifd.getLongArrayValue(BaselineTags.StripOffsets.CODE);
+                this.byteCounts = ifd.getLongArrayValue(BaselineTags.StripByteCounts.CODE);
+            }
+            this.segmentCountX = (this.imageWidth + this.segmentWidth - 1) / this.segmentWidth;
+
+            if (this.offsets.length != this.byteCounts.length)
+            {
+                throw new RuntimeException("Offsets and byte counts arrays must have same length");
+            }
+        }
+    }
+
+
+    // =============================================================
+    // Inner class for predictors
+
+    /**
+     * Reverts the predictor applied on the rows of the image before
+     * compression.
+     */
+    static class Predictor
+    {
+        /**
+         * Creates the predictor corresponding to the specified Image File
+         * Directory, or returns null if no predictor needs to be applied.
+         *
+         * @param ifd
+         *            the Image File Directory
+         * @param compressionCode
+         *            the compression mode, as predictors are only used with LZW
+         *            and DEFLATE compressions
+         * @param byteOrder
+         *            the byte order of the file
+         * @param rowWidth
+         *            the number of pixels within a row of a strip or of a tile
+         * @return the predictor, or null
+         */
+        static Predictor create(ImageFileDirectory ifd, int compressionCode, ByteOrder byteOrder, int rowWidth)
+        {
+            if (compressionCode != BaselineTags.Compression.LZW
+                    && compressionCode != BaselineTags.Compression.DEFLATE
+                    && compressionCode != BaselineTags.Compression.DEFLATE_OLD)
+            {
+                return null;
+            }
+
+            int type = ifd.getIntValue(ExtensionTags.Predictor.CODE, ExtensionTags.Predictor.NONE);
+            if (type == ExtensionTags.Predictor.NONE)
+            {
+                return null;
+            }
+            if (type != ExtensionTags.Predictor.HORIZONTAL_DIFFERENCING && type != ExtensionTags.Predictor.FLOATING_POINT)
+            {
+                throw new RuntimeException("Unsupported code for predictor: " + type);
+            }
+
+            int samplesPerPixel = ifd.getIntValue(BaselineTags.SamplesPerPixel.CODE, 1);
+            int[] bitsPerSample = ifd.getIntArrayValue(BaselineTags.BitsPerSample.CODE, new int[] {1});
+            int bytesPerSample = bitsPerSample[0] / 8;
+            if (bitsPerSample[0] % 8 != 0 || !(bytesPerSample == 1 || bytesPerSample == 2 || bytesPerSample == 4 || bytesPerSample == 8))
+            {
+                throw new RuntimeException("Predictor can not be applied on samples with " + bitsPerSample[0] + " bits");
+            }
+
+            return new Predictor(type, rowWidth * samplesPerPixel, samplesPerPixel, bytesPerSample, byteOrder);
+        }
+
+        /**
+         * The type of predictor, either HORIZONTAL_DIFFERENCING or
+         * FLOATING_POINT.
+         */
+        int type;
+
+        /**
+         * The number of samples within a row.
+         */
+        int rowSamples;
+
+        /**
+         * The number of samples per pixel, used as stride for differencing.
+         */
+        int samplesPerPixel;
+
+        int bytesPerSample;
+
+        ByteOrder byteOrder;
+
+        Predictor(int type, int rowSamples, int samplesPerPixel, int bytesPerSample, ByteOrder byteOrder)
+        {
+            this.type = type;
+            this.rowSamples = rowSamples;
+            this.samplesPerPixel = samplesPerPixel;
+            this.bytesPerSample = bytesPerSample;
+            this.byteOrder = byteOrder;
+        }
+
+        /**
+         * Reverts the predictor on the complete rows contained within the
+         * specified portion of the buffer.
+         *
+         * @param buffer
+         *            the buffer containing decompressed data
+         * @param offset
+         *            the position of the first row within the buffer
+         * @param length
+         *            the number of bytes to process
+         */
+        void decode(byte[] buffer, int offset, int length)
+        {
+            int rowBytes = this.rowSamples * this.bytesPerSample;
+            int nRows = length / rowBytes;
+            byte[] tmp = this.type == ExtensionTags.Predictor.FLOATING_POINT ? new byte[rowBytes] : null;
+            for (int r = 0; r < nRows; r++)
+            {
+                int rowOffset = offset + r * rowBytes;
+                if (this.type == ExtensionTags.Predictor.FLOATING_POINT)
+                {
+                    decodeFloatingPointRow(buffer, rowOffset, tmp);
+                }
+                else
+                {
+                    decodeHorizontalRow(buffer, rowOffset);
+                }
+            }
+        }
+
+        private void decodeHorizontalRow(byte[] buffer, int offset)
+        {
+            int stride = this.samplesPerPixel;
+            int n = this.rowSamples;
+            boolean little = this.byteOrder == ByteOrder.LITTLE_ENDIAN;
+            switch (this.bytesPerSample)
+            {
+                case 1 ->
+                {
+                    for (int i = stride; i < n; i++)
+                    {
+                        buffer[offset + i] += buffer[offset + i - stride];
+                    }
+                }
+                case 2 ->
+                {
+                    for (int i = stride; i < n; i++)
+                    {
+                        int pos = offset + 2 * i;
+                        int prev = pos - 2 * stride;
+                        int v = getShort(buffer, pos, little) + getShort(buffer, prev, little);
+                        setShort(buffer, pos, v, little);
+                    }
+                }
+                case 4 ->
+                {
+                    for (int i = stride; i < n; i++)
+                    {
+                        int pos = offset + 4 * i;
+                        int prev = pos - 4 * stride;
+                        int v = getInt(buffer, pos, little) + getInt(buffer, prev, little);
+                        setInt(buffer, pos, v, little);
+                    }
+                }
+                default -> throw new RuntimeException("Horizontal differencing not supported for samples with "
+                        + this.bytesPerSample + " bytes");
+            }
+        }
+
+        /**
+         * Reverts the floating point predictor: bytes are first accumulated
+         * along the row, and then re-ordered, as the encoder stores the bytes
+         * of the samples in separate planes, starting from the most
+         * significant bytes.
+         */
+        private void decodeFloatingPointRow(byte[] buffer, int offset, byte[] tmp)
+        {
+            int stride = this.samplesPerPixel;
+            int n = this.rowSamples;
+            int bps = this.bytesPerSample;
+            int rowBytes = n * bps;
+
+            for (int i = stride; i < rowBytes; i++)
+            {
+                buffer[offset + i] += buffer[offset + i - stride];
+            }
+
+            System.arraycopy(buffer, offset, tmp, 0, rowBytes);
+            boolean little = this.byteOrder == ByteOrder.LITTLE_ENDIAN;
+            for (int i = 0; i < n; i++)
+            {
+                for (int b = 0; b < bps; b++)
+                {
+                    int plane = little ? bps - b - 1 : b;
+                    buffer[offset + bps * i + b] = tmp[plane * n + i];
+                }
+            }
+        }
+
+        private static final int getShort(byte[] buffer, int pos, boolean little)
+        {
+            return little ? (buffer[pos] & 0xFF) | (buffer[pos + 1] & 0xFF) << 8
+                    : (buffer[pos] & 0xFF) << 8 | (buffer[pos + 1] & 0xFF);
+        }
+
+        private static final void setShort(byte[] buffer, int pos, int value, boolean little)
+        {
+            buffer[pos + (little ? 0 : 1)] = (byte) value;
+            buffer[pos + (little ? 1 : 0)] = (byte) (value >> 8);
+        }
+
+        private static final int getInt(byte[] buffer, int pos, boolean little)
+        {
+            int v = 0;
+            for (int b = 0; b < 4; b++)
+            {
+                v |= (buffer[pos + (little ? b : 3 - b)] & 0xFF) << (8 * b);
+            }
+            return v;
+        }
+
+        private static final void setInt(byte[] buffer, int pos, int value, boolean little)
+        {
+            for (int b = 0; b < 4; b++)
+            {
+                buffer[pos + (little ? b : 3 - b)] = (byte) (value >> (8 * b));
+            }
+        }
+    }
+}
@@ -5,14 +5,12 @@ package net.sci.image.io.tiff;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 
 import net.sci.array.numeric.UInt8Array2D;
 import net.sci.array.numeric.UInt8Array3D;
-import net.sci.image.io.PackBits;
 
 /**
  * Map the content of a Tiff file onto a 3D array of UInt8. Should allow for
@@ -147,86 +145,7 @@ public class TiffFileUInt8Array3D extends UInt8Array3D
     
     private static int readByteBuffer(FileChannel fileChannel, ImageFileDirectory ifd, byte[] byteArray) throws IOException
     {
-        int compressionCode = ifd.getIntValue(BaselineTags.Compression.CODE, BaselineTags.Compression.NONE);
-
-        return switch (compressionCode)
-        {
-            case BaselineTags.Compression.NONE -> readByteArrayUncompressed(fileChannel, ifd, byteArray);
-            case BaselineTags.Compression.PACKBITS -> readByteArrayPackBits(fileChannel, ifd, byteArray);
-            default -> throw new RuntimeException(
-                    "Unsupported code for compression mode: " + compressionCode);
-        };
-    }
-    
-    /**
-     * Read an array of bytes into a pre-allocated buffer, by iterating over the
-     * strips, and returns the number of bytes read.
-     */
-    private static final int readByteArrayUncompressed(FileChannel fileChannel, ImageFileDirectory ifd, byte[] byteArray)
-            throws IOException
-    {
-        // retrieve strips info
-        int[] stripOffsets = ifd.getIntArrayValue(BaselineTags.StripOffsets.CODE);
-        int[] stripByteCounts = ifd.getIntArrayValue(BaselineTags.StripByteCounts.CODE);
-        if (stripOffsets.length != stripByteCounts.length)
-        {
-            throw new RuntimeException("Strip offsets and strip byte counts arrays must have same length");
-        }
-        
-        int totalRead = 0;
-        int offset = 0;
-    
-        // read each strip successively
-        for (int i = 0; i < stripOffsets.length; i++)
-        {
-            ByteBuffer buffer = ByteBuffer.wrap(byteArray, offset, stripByteCounts[i]);
-            int nRead = fileChannel.read(buffer, stripOffsets[i] & 0xffffffffL);
-            offset += nRead;
-            totalRead += nRead;
-        }
-    
-        return totalRead;
-    }
-
-    private static final int readByteArrayPackBits(FileChannel fileChannel, ImageFileDirectory ifd,
-            byte[] byteArray) throws IOException
-    {
-        // retrieve strips info
-        int[] stripOffsets = ifd.getIntArrayValue(BaselineTags.StripOffsets.CODE);
-        int[] stripByteCounts = ifd.getIntArrayValue(BaselineTags.StripByteCounts.CODE);
-        if (stripOffsets.length != stripByteCounts.length)
-        {
-            throw new RuntimeException(
-                    "Strip offsets and strip byte counts arrays must have same length");
-        }
-
-        // Number of strips
-        int nStrips = stripOffsets.length;
-
-        // Create a buffer for compressed bytes
-        byte[] compressedBytes = new byte[sum(stripByteCounts)];
-
-        // read each compressed strip
-        int offset = 0;
-        for (int i = 0; i < nStrips; i++)
-        {
-            ByteBuffer buffer = ByteBuffer.wrap(compressedBytes, offset, stripByteCounts[i]);
-            int nRead = fileChannel.read(buffer, stripOffsets[i] & 0xffffffffL);
-            offset += nRead;
-        }
-
-        // uncompress the data into the byte array
-        return PackBits.uncompressPackBits(compressedBytes, byteArray);
-    }
-
-    private static final int sum(int[] values)
-    {
-        int sum = 0;
-        for (int v : values)
-        {
-            sum += v;
-        }
-        return sum;
+        return StripDecoder.readByteBuffer(fileChannel, ifd, byteArray, ifd.getByteOrder(), null);
     }
 
     /**
@@ -11,8 +11,12 @@ import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
@@ -31,6 +35,7 @@ import net.sci.array.numeric.Float32VectorArray2D;
 import net.sci.array.numeric.Float64Array2D;
 import net.sci.array.numeric.Float64VectorArray2D;
 import net.sci.array.numeric.Int32Array;
+import net.sci.array.numeric.Int16Array2D;
 import net.sci.array.numeric.Int32Array2D;
 import net.sci.array.numeric.Int32Array3D;
 import net.sci.array.numeric.UInt16Array;
@@ -43,14 +48,20 @@ import net.sci.array.numeric.impl.SlicedFloat32Array3D;
 import net.sci.array.numeric.impl.SlicedInt32Array3D;
 import net.sci.array.numeric.impl.SlicedUInt16Array3D;
 import net.sci.array.numeric.impl.SlicedUInt8Array3D;
-import net.sci.image.io.PackBits;
 import net.sci.image.io.PixelType;
 
 /**
  * Read the binary data from a TIFF file based on one or several TiffFileInfo
  * instances.
  * 
- * Manages the conversion from byte arrays to arrays of other types.
+ * Manages the decompression of the strips (PackBits, LZW or Deflate, with
+ * optional predictor), and the conversion from byte arrays to arrays of other
+ * types.
+ * 
+ * Decompression is CPU-bound: the strips of an image, and the images of a
+ * stack, are decoded in parallel using the execution pool of the reader. By
+ * default, the common ForkJoinPool is used. Sequential decoding can be
+ * obtained by setting the execution pool to null.
  * 
  * @author David Legland
  *
@@ -79,12 +90,14 @@ public class TiffImageDataReader extends AlgoStub
     public TiffImageDataReader(File file) throws IOException
     {
         this.filePath = file.getPath();
+        setExecutionPool(ForkJoinPool.commonPool());
     }
 
     public TiffImageDataReader(File file, ByteOrder byteOrder) throws IOException
     {
         this.filePath = file.getPath();
         this.byteOrder = byteOrder;
+        setExecutionPool(ForkJoinPool.commonPool());
     }
     
 
@@ -125,9 +138,9 @@ public class TiffImageDataReader extends AlgoStub
         
         // read data from input stream
         int nRead = 0;
-        try (RandomAccessFile stream = new RandomAccessFile(new File(this.filePath), "r"))
+        try (RandomAccessFile raf = new RandomAccessFile(new File(this.filePath), "r"))
         {
-            nRead = readByteBuffer(stream, ifd, byteArray);
+            nRead = readByteBuffer(raf.getChannel(), ifd, byteArray);
         }
 
         // Check all buffer elements have been read
@@ -136,6 +149,45 @@ public class TiffImageDataReader extends AlgoStub
             throw new IOException("Could read only " + nRead + " bytes over the " + nBytes + " expected");
         }
         
+        return createArray(byteArray, pixelType, sizeX, sizeY);
+    }
+    
+    /**
+     * Reads a rectangular region of the image data corresponding to the
+     * specified ImageFileDirectory. Only the strips or the tiles that intersect
+     * the region are read from the file and decoded.
+     * 
+     * @param ifd
+     *            an instance of ImageFileDirectory
+     * @param x0
+     *            the x-coordinate of the upper-left corner of the region
+     * @param y0
+     *            the y-coordinate of the upper-left corner of the region
+     * @param sizeX
+     *            the width of the region
+     * @param sizeY
+     *            the height of the region
+     * @return the data array corresponding to the region
+     * @throws IOException
+     *             if an error occurs
+     */
+    public Array<?> readImageData(ImageFileDirectory ifd, int x0, int y0, int sizeX, int sizeY) throws IOException
+    {
+        PixelType pixelType = ifd.determinePixelType();
+        byte[] byteArray = new byte[sizeX * sizeY * pixelType.byteCount()];
+        try (RandomAccessFile raf = new RandomAccessFile(new File(this.filePath), "r"))
+        {
+            StripDecoder.readRegion(raf.getChannel(), ifd, x0, y0, sizeX, sizeY, byteArray, this.byteOrder, getExecutionPool());
+        }
+        return createArray(byteArray, pixelType, sizeX, sizeY);
+    }
+    
+    /**
+     * Converts the array of bytes read from the file into an array with the
+     * specified pixel type.
+     */
+    private Array<?> createArray(byte[] byteArray, PixelType pixelType, int sizeX, int sizeY)
+    {
         // Transform raw buffer into interpreted buffer
         if (pixelType == PixelType.UINT8)
         {
@@ -147,6 +199,11 @@ public class TiffImageDataReader extends AlgoStub
             short[] shortBuffer = convertToShortArray(byteArray, this.byteOrder);
             return UInt16Array2D.wrap(shortBuffer, sizeX, sizeY);
         }
+        else if (pixelType == PixelType.INT16)
+        {
+            short[] shortBuffer = convertToShortArray(byteArray, this.byteOrder);
+            return Int16Array2D.wrap(shortBuffer, sizeX, sizeY);
+        }
         else if (pixelType == PixelType.INT32)
         {
             int[] intBuffer = convertToIntArray(byteArray, this.byteOrder);
@@ -265,15 +322,56 @@ public class TiffImageDataReader extends AlgoStub
         PixelType pixelType = ifd0.determinePixelType();
         
         // calls a specialized method that uses a "sliced" representation of 3D array
-        if (pixelType == PixelType.UINT8) return readImageStack_Gray8(ifdList);
-        if (pixelType == PixelType.UINT16 || pixelType == PixelType.UINT12) return readImageStack_Gray16(ifdList);
+        if (pixelType == PixelType.UINT8) return readImageStack_Gray8(ifdList, null);
+        if (pixelType == PixelType.UINT16 || pixelType == PixelType.UINT12) return readImageStack_Gray16(ifdList, null);
         if (pixelType == PixelType.BINARY) return readImageStack_Binary(ifdList);
-        if (pixelType == PixelType.INT32) return readImageStack_Int32(ifdList);
-        if (pixelType == PixelType.FLOAT32) return readImageStack_Float32(ifdList);
+        if (pixelType == PixelType.INT32) return readImageStack_Int32(ifdList, null);
+        if (pixelType == PixelType.FLOAT32) return readImageStack_Float32(ifdList, null);
         
         throw new IOException("Can not read stack with data " + pixelType.byteCount() + " bytes per pixels");
     }
     
+    /**
+     * Reads a rectangular region within each image of the list, and returns
+     * the result as a 3D array. Only the strips or the tiles that intersect
+     * the region are read from the file and decoded. All images must have the
+     * same pixel type.
+     * 
+     * @param ifdList
+     *            the list of Image File Directories, one for each slice of the
+     *            result
+     * @param x0
+     *            the x-coordinate of the upper-left corner of the region
+     * @param y0
+     *            the y-coordinate of the upper-left corner of the region
+     * @param sizeX
+     *            the width of the region
+     * @param sizeY
+     *            the height of the region
+     * @return an instance of Array3D containing the data within the region.
+     * @throws IOException
+     *             if an error occurs.
+     */
+    public Array3D<?> readImageStack(Collection<ImageFileDirectory> ifdList, int x0, int y0, int sizeX, int sizeY) throws IOException
+    {
+        if (ifdList.isEmpty())
+        {
+            throw new IllegalArgumentException("File info list must contains at least one element.");
+        }
+        
+        // read data type info
+        ImageFileDirectory ifd0 = ifdList.iterator().next();
+        PixelType pixelType = ifd0.determinePixelType();
+        
+        int[] region = new int[] {x0, y0, sizeX, sizeY};
+        if (pixelType == PixelType.UINT8) return readImageStack_Gray8(ifdList, region);
+        if (pixelType == PixelType.UINT16 || pixelType == PixelType.UINT12) return readImageStack_Gray16(ifdList, region);
+        if (pixelType == PixelType.INT32) return readImageStack_Int32(ifdList, region);
+        if (pixelType == PixelType.FLOAT32) return readImageStack_Float32(ifdList, region);
+        
+        throw new IOException("Can not read region of stack with pixel type " + pixelType);
+    }
+    
     private BinaryArray3D readImageStack_Binary(Collection<ImageFileDirectory> ifdList) throws IOException
     {
         // read data type info
@@ -288,26 +386,16 @@ public class TiffImageDataReader extends AlgoStub
         }
         
         // Compute image size
-        int nSlices = ifdList.size();
-        
-        // create the container
-        ArrayList<BinaryArray2D> arrayList = new ArrayList<>(nSlices);
-        
-        RandomAccessFile stream = new RandomAccessFile(new File(this.filePath), "r");
-    
-        // iterate over slices to create each 2D array
-        int currentSliceIndex = 0;
-        for (ImageFileDirectory ifd : ifdList)
-        {
-            this.fireProgressChanged(this, currentSliceIndex++, nSlices);
-            BinaryArray2D sliceData = readBinaryArray2D(ifd);
-            arrayList.add(sliceData);
-        }
+        int sizeX = ifd0.getValue(BaselineTags.ImageWidth.CODE);
+        int sizeY = ifd0.getValue(BaselineTags.ImageLength.CODE);
         
-        stream.close();
+        // need to adapt scan size
+        int scanLength = (int) Math.ceil(sizeX / 8.0);
+        int nBytes = scanLength * sizeY;
         
-        // create a new instance of 3D array that stores each slice
-        this.fireProgressChanged(this, nSlices, nSlices);
+        // read each slice, and convert into binary array
+        ArrayList<BinaryArray2D> arrayList = readSlices(ifdList, null, nBytes, true,
+                buffer -> convertToBinaryArray2D(buffer, sizeX, sizeY));
         return new SlicedBinaryArray3D(arrayList);
     }
 
@@ -330,7 +418,7 @@ public class TiffImageDataReader extends AlgoStub
         int nRead = 0;
         try (RandomAccessFile raf = new RandomAccessFile(new File(this.filePath), "r");)
         {
-            nRead = readByteBuffer(raf, ifd, buffer);
+            nRead = readByteBuffer(raf.getChannel(), ifd, buffer);
         }
         
         // Check all buffer elements have been read
@@ -339,6 +427,17 @@ public class TiffImageDataReader extends AlgoStub
             throw new IOException(String.format("Could read only %d bytes over the %d expected", nRead, bufferLength));
         }
         
+        return convertToBinaryArray2D(buffer, sizeX, sizeY);
+    }
+
+    /**
+     * Converts a byte buffer containing binary data, with eight pixels per
+     * byte and rows starting at byte boundaries, into a binary array.
+     */
+    private static final BinaryArray2D convertToBinaryArray2D(byte[] buffer, int sizeX, int sizeY)
+    {
+        int scanLength = (int) Math.ceil(sizeX / 8.0);
+        
         // convert byte buffer into boolean buffer
         boolean[] booleanBuffer = new boolean[sizeX * sizeY];
         for (int y = 0; y < sizeY; y++)
@@ -368,7 +467,7 @@ public class TiffImageDataReader extends AlgoStub
         return BinaryArray2D.wrap(booleanBuffer, sizeX, sizeY);
     }
 
-    private UInt8Array3D readImageStack_Gray8(Collection<ImageFileDirectory> ifdList) throws IOException
+    private UInt8Array3D readImageStack_Gray8(Collection<ImageFileDirectory> ifdList, int[] region) throws IOException
     {
         // read data type info
         ImageFileDirectory ifd0 = ifdList.iterator().next();
@@ -381,47 +480,21 @@ public class TiffImageDataReader extends AlgoStub
             throw new RuntimeException("Can only process UInt8 arrays");
         }
         
-        // Compute image size
-        int sizeX = ifd0.getValue(BaselineTags.ImageWidth.CODE);
-        int sizeY = ifd0.getValue(BaselineTags.ImageLength.CODE);
-        int sizeZ = ifdList.size();
+        // Compute image size, using region size if specified
+        int sizeX = region != null ? region[2] : ifd0.getValue(BaselineTags.ImageWidth.CODE);
+        int sizeY = region != null ? region[3] : ifd0.getValue(BaselineTags.ImageLength.CODE);
         
         // Compute size of byte buffer for each plane
         int nPixels = sizeX * sizeY;
         int nBytes  = nPixels;
 
-        // create the container
-        ArrayList<UInt8Array> arrayList = new ArrayList<>(sizeZ);
-        
-        RandomAccessFile stream = new RandomAccessFile(new File(this.filePath), "r");
-
-        // iterate over slices to create each 2D array
-        int nSlices = ifdList.size();
-        int currentSliceIndex = 0;
-        for (ImageFileDirectory ifd : ifdList)
-        {
-            this.fireProgressChanged(this, currentSliceIndex++, nSlices);
-            
-            byte[] buffer = new byte[nBytes];
-            int nRead = readByteBuffer(stream, ifd, buffer);
-
-            // Check the whole buffer has been read
-            if (nRead != nBytes)
-            {
-                throw new IOException("Could read only " + nRead + " bytes over the " + nBytes + " expected");
-            }
-            
-            arrayList.add(UInt8Array2D.wrap(buffer, sizeX, sizeY));
-        }
-        
-        stream.close();
-        
-        // create a new instance of 3D array that stores each slice
-        this.fireProgressChanged(this, nSlices, nSlices);
+        // read each slice, and wrap into 2D array
+        ArrayList<UInt8Array> arrayList = readSlices(ifdList, region, nBytes, false,
+                buffer -> UInt8Array2D.wrap(buffer, sizeX, sizeY));
         return new SlicedUInt8Array3D(arrayList);
     }
     
-    private UInt16Array3D readImageStack_Gray16(Collection<ImageFileDirectory> ifdList) throws IOException
+    private UInt16Array3D readImageStack_Gray16(Collection<ImageFileDirectory> ifdList, int[] region) throws IOException
     {
         // read data type info
         ImageFileDirectory ifd0 = ifdList.iterator().next();
@@ -434,49 +507,22 @@ public class TiffImageDataReader extends AlgoStub
             throw new RuntimeException("Can only process UInt16 arrays");
         }
         
-        // Compute image size
-        int sizeX = ifd0.getValue(BaselineTags.ImageWidth.CODE);
-        int sizeY = ifd0.getValue(BaselineTags.ImageLength.CODE);
-        int sizeZ = ifdList.size();
+        // Compute image size, using region size if specified
+        int sizeX = region != null ? region[2] : ifd0.getValue(BaselineTags.ImageWidth.CODE);
+        int sizeY = region != null ? region[3] : ifd0.getValue(BaselineTags.ImageLength.CODE);
         
         // Compute size of buffer buffer for each plane
         int nPixels = sizeX * sizeY;
         int bytesPerPixels = 2;
         int nBytes = nPixels * bytesPerPixels;
 
-        // create the container
-        ArrayList<UInt16Array> arrayList = new ArrayList<>(sizeZ);
-        
-        RandomAccessFile stream = new RandomAccessFile(new File(this.filePath), "r");
-
-        // iterate over slices to create each 2D array
-        int nSlices = ifdList.size();
-        int currentSliceIndex = 0;
-        for (ImageFileDirectory ifd : ifdList)
-        {
-            this.fireProgressChanged(this, currentSliceIndex++, nSlices);
-            
-            byte[] buffer = new byte[nBytes];
-            int nRead = readByteBuffer(stream, ifd, buffer);
-
-            // Check the whole buffer has been read
-            if (nRead != nBytes)
-            {
-                throw new IOException(String.format("Could read only %d bytes over the %d expected", nRead, nBytes));
-            }
-            
-            short[] shortBuffer = convertToShortArray(buffer, this.byteOrder);
-            arrayList.add(UInt16Array2D.wrap(shortBuffer, sizeX, sizeY));
-        }
-        
-        stream.close();
-        
-        // create a new instance of 3D array that stores each slice
-        this.fireProgressChanged(this, nSlices, nSlices);
+        // read each slice, and convert into 2D array
+        ArrayList<UInt16Array> arrayList = readSlices(ifdList, region, nBytes, true,
+                buffer -> UInt16Array2D.wrap(convertToShortArray(buffer, this.byteOrder), sizeX, sizeY));
         return new SlicedUInt16Array3D(arrayList);
     }
     
-    private Int32Array3D readImageStack_Int32(Collection<ImageFileDirectory> ifdList) throws IOException
+    private Int32Array3D readImageStack_Int32(Collection<ImageFileDirectory> ifdList, int[] region) throws IOException
     {
         // read data type info
         ImageFileDirectory ifd0 = ifdList.iterator().next();
@@ -489,49 +535,22 @@ public class TiffImageDataReader extends AlgoStub
             throw new RuntimeException("Can only process Int32 arrays");
         }
         
-        // Compute image size
-        int sizeX = ifd0.getValue(BaselineTags.ImageWidth.CODE);
-        int sizeY = ifd0.getValue(BaselineTags.ImageLength.CODE);
-        int sizeZ = ifdList.size();
+        // Compute image size, using region size if specified
+        int sizeX = region != null ? region[2] : ifd0.getValue(BaselineTags.ImageWidth.CODE);
+        int sizeY = region != null ? region[3] : ifd0.getValue(BaselineTags.ImageLength.CODE);
         
         // Compute size of buffer buffer for each plane
         int nPixels = sizeX * sizeY;
         int bytesPerPixels = 4;
         int nBytes = nPixels * bytesPerPixels;
 
-        // create the container
-        ArrayList<Int32Array> arrayList = new ArrayList<>(sizeZ);
-        
-        RandomAccessFile stream = new RandomAccessFile(new File(this.filePath), "r");
-
-        // iterate over slices to create each 2D array
-        int nSlices = ifdList.size();
-        int currentSliceIndex = 0;
-        for (ImageFileDirectory ifd : ifdList)
-        {
-            this.fireProgressChanged(this, currentSliceIndex++, nSlices);
-            
-            byte[] buffer = new byte[nBytes];
-            int nRead = readByteBuffer(stream, ifd, buffer);
-
-            // Check the whole buffer has been read
-            if (nRead != nBytes)
-            {
-                throw new IOException(String.format("Could read only %d bytes over the %d expected", nRead, nBytes));
-            }
-            
-            int[] intBuffer = convertToIntArray(buffer, this.byteOrder);
-            arrayList.add(Int32Array2D.wrap(intBuffer, sizeX, sizeY));
-        }
-        
-        stream.close();
-        
-        // create a new instance of 3D array that stores each slice
-        this.fireProgressChanged(this, nSlices, nSlices);
+        // read each slice, and convert into 2D array
+        ArrayList<Int32Array> arrayList = readSlices(ifdList, region, nBytes, true,
+                buffer -> Int32Array2D.wrap(convertToIntArray(buffer, this.byteOrder), sizeX, sizeY));
         return new SlicedInt32Array3D(arrayList);
     }
     
-    private Float32Array3D readImageStack_Float32(Collection<ImageFileDirectory> ifdList) throws IOException
+    private Float32Array3D readImageStack_Float32(Collection<ImageFileDirectory> ifdList, int[] region) throws IOException
     {
         // read data type info
         ImageFileDirectory ifd0 = ifdList.iterator().next();
@@ -544,135 +563,120 @@ public class TiffImageDataReader extends AlgoStub
             throw new RuntimeException("Can only process Float32 arrays");
         }
         
-        // Compute image size
-        int sizeX = ifd0.getValue(BaselineTags.ImageWidth.CODE);
-        int sizeY = ifd0.getValue(BaselineTags.ImageLength.CODE);
-        int sizeZ = ifdList.size();
+        // Compute image size, using region size if specified
+        int sizeX = region != null ? region[2] : ifd0.getValue(BaselineTags.ImageWidth.CODE);
+        int sizeY = region != null ? region[3] : ifd0.getValue(BaselineTags.ImageLength.CODE);
         
         // Compute size of buffer buffer for each plane
         int nPixels = sizeX * sizeY;
         int bytesPerPixels = 4;
         int nBytes = nPixels * bytesPerPixels;
 
-        // create the container
-        ArrayList<Float32Array> arrayList = new ArrayList<>(sizeZ);
-        
-        RandomAccessFile stream = new RandomAccessFile(new File(this.filePath), "r");
-
-        // iterate over slices to create each 2D array
-        int nSlices = ifdList.size();
-        int currentSliceIndex = 0;
-        for (ImageFileDirectory ifd : ifdList)
-        {
-            this.fireProgressChanged(this, currentSliceIndex++, nSlices);
-            
-            byte[] buffer = new byte[nBytes];
-            int nRead = readByteBuffer(stream, ifd, buffer);
-
-            // Check the whole buffer has been read
-            if (nRead != nBytes)
-            {
-                throw new IOException(String.format("Could read only %d bytes over the %d expected", nRead, nBytes));
-            }
-            
-            float[] intBuffer = convertToFloatArray(buffer, this.byteOrder);
-            arrayList.add(Float32Array2D.wrap(intBuffer, sizeX, sizeY));
-        }
-        
-        stream.close();
-        
-        // create a new instance of 3D array that stores each slice
-        this.fireProgressChanged(this, nSlices, nSlices);
+        // read each slice, and convert into 2D array
+        ArrayList<Float32Array> arrayList = readSlices(ifdList, region, nBytes, true,
+                buffer -> Float32Array2D.wrap(convertToFloatArray(buffer, this.byteOrder), sizeX, sizeY));
         return new SlicedFloat32Array3D(arrayList);
     }
     
     /**
-     * Read an array of bytes into a pre-allocated buffer, by iterating over the
-     * strips, and returns the number of bytes read.
+     * Reads the data of each Image File Directory into a byte array, and
+     * converts each byte array into a slice using the specified function.
+     * 
+     * If an execution pool is set up, the slices are read and decoded in
+     * parallel. The order of the slices within the result corresponds to the
+     * order of the Image File Directories.
+     * 
+     * @param ifdList
+     *            the list of Image File Directories, one for each slice
+     * @param region
+     *            the region to read within each image, as (x0, y0, sizeX,
+     *            sizeY), or null to read the whole images
+     * @param nBytes
+     *            the number of bytes of each uncompressed slice
+     * @param copying
+     *            true if the converter copies the content of the byte array,
+     *            that can then be reused for decoding the following slices
+     * @param converter
+     *            the function that converts the byte array of a slice into a
+     *            slice
+     * @return the list of slices
+     * @throws IOException
+     *             if an error occurs, or if the data of one of the slices
+     *             could not be read entirely
      */
-    private static final int readByteBuffer(RandomAccessFile raf, ImageFileDirectory ifd, byte[] buffer)
-            throws IOException
+    private <T> ArrayList<T> readSlices(Collection<ImageFileDirectory> ifdList, int[] region, int nBytes,
+            boolean copying, Function<byte[], T> converter) throws IOException
     {
-        Entry compressionTag = ifd.getEntry(BaselineTags.Compression.CODE);
-        int compressionCode = compressionTag != null ? compressionTag.value : 1;
-
-        return switch (compressionCode)
+        ArrayList<ImageFileDirectory> ifds = new ArrayList<>(ifdList);
+        int nSlices = ifds.size();
+        
+        // the array of slices, filled by the tasks
+        ArrayList<T> arrayList = new ArrayList<>(nSlices);
+        for (int i = 0; i < nSlices; i++)
+        {
+            arrayList.add(null);
+        }
+        
+        try (RandomAccessFile raf = new RandomAccessFile(new File(this.filePath), "r"))
         {
-            case BaselineTags.Compression.NONE -> readByteArrayUncompressed(raf, ifd, buffer);
-            case BaselineTags.Compression.PACKBITS -> readByteArrayPackBits(raf, ifd, buffer);
-            default -> throw new RuntimeException(
-                    "Unsupported code for compression mode: " + compressionCode);
-        };
+            // positional reads on the channel can be shared by several threads
+            FileChannel channel = raf.getChannel();
+            int[] done = new int[] {0};
+            
+            // the byte arrays that can be reused by the tasks, when the
+            // converter copies the data. At most one buffer is kept for each
+            // thread, and the pool is released when this method returns.
+            ForkJoinPool pool = getExecutionPool();
+            int nBuffers = pool != null ? pool.getParallelism() + 1 : 1;
+            ArrayBlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(nBuffers);
+            
+            StripDecoder.forEach(pool, nSlices, index -> 
+            {
+                byte[] buffer = copying ? buffers.poll() : null;
+                if (buffer == null)
+                {
+                    buffer = new byte[nBytes];
+                }
+                int nRead = nBytes;
+                if (region == null)
+                {
+                    nRead = StripDecoder.readByteBuffer(channel, ifds.get(index), buffer, this.byteOrder, null);
+                }
+                else
+                {
+                    StripDecoder.readRegion(channel, ifds.get(index), region[0], region[1], region[2], region[3], buffer, this.byteOrder, null);
+                }
+                
+                // Check the whole buffer has been read
+                if (nRead != nBytes)
+                {
+                    throw new IOException(String.format("Could read only %d bytes over the %d expected", nRead, nBytes));
+                }
+                T slice = converter.apply(buffer);
+                if (copying)
+                {
+                    buffers.offer(buffer);
+                }
+                
+                synchronized (done)
+                {
+                    arrayList.set(index, slice);
+                    this.fireProgressChanged(this, ++done[0], nSlices);
+                }
+            });
+        }
+        
+        return arrayList;
     }
-
+    
     /**
      * Read an array of bytes into a pre-allocated buffer, by iterating over the
      * strips, and returns the number of bytes read.
      */
-    private static final int readByteArrayUncompressed(RandomAccessFile raf, ImageFileDirectory ifd, byte[] buffer)
+    private int readByteBuffer(FileChannel channel, ImageFileDirectory ifd, byte[] buffer)
             throws IOException
     {
-        // retrieve strips info
-        int[] stripOffsets = ifd.getIntArrayValue(BaselineTags.StripOffsets.CODE);
-        int[] stripByteCounts = ifd.getIntArrayValue(BaselineTags.StripByteCounts.CODE);
-        if (stripOffsets.length != stripByteCounts.length)
-        {
-            throw new RuntimeException("Strip offsets and strip byte counts arrays must have same length");
-        }
-        
-        int totalRead = 0;
-        int offset = 0;
-    
-        // read each strip successively
-        for (int i = 0; i < stripOffsets.length; i++)
-        {
-            raf.seek(stripOffsets[i] & 0xffffffffL);
-            int nRead = raf.read(buffer, offset, stripByteCounts[i]);
-            offset += nRead;
-            totalRead += nRead;
-        }
-    
-        return totalRead;
-    }
-
-    private static final int readByteArrayPackBits(RandomAccessFile raf, ImageFileDirectory ifd,
-            byte[] buffer) throws IOException
-    {
-        // retrieve strips info
-        int[] stripOffsets = ifd.getIntArrayValue(BaselineTags.StripOffsets.CODE);
-        int[] stripByteCounts = ifd.getIntArrayValue(BaselineTags.StripByteCounts.CODE);
-        if (stripOffsets.length != stripByteCounts.length)
-        {
-            throw new RuntimeException(
-                    "Strip offsets and strip byte counts arrays must have same length");
-        }
-
-        // Number of strips
-        int nStrips = stripOffsets.length;
-
-        // Compute the number of bytes per strip
-        byte[] compressedBytes = new byte[sum(stripByteCounts)];
-
-        // read each compressed strip
-        int offset = 0;
-        for (int i = 0; i < nStrips; i++)
-        {
-            raf.seek(stripOffsets[i] & 0xffffffffL);
-            int nRead = raf.read(compressedBytes, offset, stripByteCounts[i]);
-            offset += nRead;
-        }
-
-        return PackBits.uncompressPackBits(compressedBytes, buffer);
-    }
-
-    private static final int sum(int[] values)
-    {
-        int sum = 0;
-        for (int v : values)
-        {
-            sum += v;
-        }
-        return sum;
+        return StripDecoder.readByteBuffer(channel, ifd, buffer, this.byteOrder, getExecutionPool());
     }
 
     
@@ -689,7 +693,7 @@ public class TiffImageDataReader extends AlgoStub
     private static final int[] convertToIntArray(byte[] byteArray, ByteOrder order)
     {
         int[] intArray = new int[byteArray.length / 4];
-        ByteBuffer.wrap(byteArray).order(order).asIntBuffer().put(intArray);
+        ByteBuffer.wrap(byteArray).order(order).asIntBuffer().get(intArray);
         return intArray;
     }
 
@@ -0,0 +1,336 @@
+/**
+ *
+ */
+package net.sci.image.io.zarr;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A minimal parser and formatter for the JSON documents used to store the
+ * meta-data of Zarr arrays.
+ *
+ * Objects are parsed as instances of Map, arrays as instances of List, numbers
+ * as Double, and the literals true, false and null as Boolean.TRUE,
+ * Boolean.FALSE and null.
+ *
+ * @author dlegland
+ *
+ */
+class Json
+{
+    /**
+     * The text to parse.
+     */
+    private final String text;
+
+    /**
+     * The position of the next character to parse.
+     */
+    private int pos = 0;
+
+    /**
+     * Parses a JSON document.
+     *
+     * @param text
+     *            the text of the document
+     * @return the object corresponding to the document
+     * @throws IllegalArgumentException
+     *             if the text is not a valid JSON document
+     */
+    public static final Object parse(String text)
+    {
+        Json parser = new Json(text);
+        Object res = parser.parseValue();
+        parser.skipWhitespace();
+        if (parser.pos < text.length())
+        {
+            throw parser.error("Unexpected characters after JSON value");
+        }
+        return res;
+    }
+
+    /**
+     * Formats a value into a JSON string. The value may be a Map, a List, an
+     * array of int, a String, a Number, a Boolean, or null.
+     *
+     * @param value
+     *            the value to format
+     * @return the JSON representation of the value
+     */
+    public static final String format(Object value)
+    {
+        StringBuilder sb = new StringBuilder();
+        format(sb, value, "");
+        return sb.toString();
+    }
+
+    private static final void format(StringBuilder sb, Object value, String indent)
+    {
+        if (value == null)
+        {
+            sb.append("null");
+        }
+        else if (value instanceof Map<?, ?> map)
+        {
+            String indent2 = indent + "    ";
+            sb.append("{\n");
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                sb.append(indent2);
+                formatString(sb, entry.getKey().toString());
+                sb.append(": ");
+                format(sb, entry.getValue(), indent2);
+                sb.append(++i < map.size() ? ",\n" : "\n");
+            }
+            sb.append(indent).append("}");
+        }
+        else if (value instanceof List<?> list)
+        {
+            sb.append("[");
+            for (int i = 0; i < list.size(); i++)
+            {
+                if (i > 0) sb.append(", ");
+                format(sb, list.get(i), indent);
+            }
+            sb.append("]");
+        }
+        else if (value instanceof int[] array)
+        {
+            sb.append("[");
+            for (int i = 0; i < array.length; i++)
+            {
+                if (i > 0) sb.append(", ");
+                sb.append(array[i]);
+            }
+            sb.append("]");
+        }
+        else if (value instanceof String string)
+        {
+            formatString(sb, string);
+        }
+        else if (value instanceof Double || value instanceof Float)
+        {
+            double v = ((Number) value).doubleValue();
+            if (Double.isNaN(v))
+            {
+                // representation used by Zarr for fill values
+                sb.append("\"NaN\"");
+            }
+            else if (v == Math.rint(v) && Math.abs(v) < 1e15)
+            {
+                sb.append((long) v);
+            }
+            else
+            {
+                sb.append(String.format(Locale.US, "%s", v));
+            }
+        }
+        else
+        {
+            sb.append(value.toString());
+        }
+    }
+
+    private static final void formatString(StringBuilder sb, String string)
+    {
+        sb.append('"');
+        for (int i = 0; i < string.length(); i++)
+        {
+            char c = string.charAt(i);
+            switch (c)
+            {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\t' -> sb.append("\\t");
+                default ->
+                {
+                    if (c < 0x20)
+                    {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    }
+                    else
+                    {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    private Json(String text)
+    {
+        this.text = text;
+    }
+
+    private Object parseValue()
+    {
+        skipWhitespace();
+        if (pos >= text.length())
+        {
+            throw error("Unexpected end of JSON document");
+        }
+        char c = text.charAt(pos);
+        return switch (c)
+        {
+            case '{' -> parseObject();
+            case '[' -> parseArray();
+            case '"' -> parseString();
+            case 't' -> parseLiteral("true", Boolean.TRUE);
+            case 'f' -> parseLiteral("false", Boolean.FALSE);
+            case 'n' -> parseLiteral("null", null);
+            default -> parseNumber();
+        };
+    }
+
+    private Map<String, Object> parseObject()
+    {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}')
+        {
+            pos++;
+            return map;
+        }
+        while (true)
+        {
+            skipWhitespace();
+            if (peek() != '"')
+            {
+                throw error("Expected a string as object key");
+            }
+            String key = parseString();
+            skipWhitespace();
+            expect(':');
+            map.put(key, parseValue());
+            skipWhitespace();
+            char c = next();
+            if (c == '}') return map;
+            if (c != ',') throw error("Expected ',' or '}' within object");
+        }
+    }
+
+    private List<Object> parseArray()
+    {
+        List<Object> list = new ArrayList<Object>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']')
+        {
+            pos++;
+            return list;
+        }
+        while (true)
+        {
+            list.add(parseValue());
+            skipWhitespace();
+            char c = next();
+            if (c == ']') return list;
+            if (c != ',') throw error("Expected ',' or ']' within array");
+        }
+    }
+
+    private String parseString()
+    {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true)
+        {
+            char c = next();
+            if (c == '"') return sb.toString();
+            if (c != '\\')
+            {
+                sb.append(c);
+                continue;
+            }
+            char e = next();
+            switch (e)
+            {
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' ->
+                {
+                    if (pos + 4 > text.length()) throw error("Invalid unicode escape");
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> sb.append(e);
+            }
+        }
+    }
+
+    private Object parseLiteral(String literal, Object value)
+    {
+        if (!text.startsWith(literal, pos))
+        {
+            throw error("Invalid literal");
+        }
+        pos += literal.length();
+        return value;
+    }
+
+    private Double parseNumber()
+    {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0)
+        {
+            pos++;
+        }
+        if (start == pos)
+        {
+            throw error("Unexpected character");
+        }
+        try
+        {
+            return Double.parseDouble(text.substring(start, pos));
+        }
+        catch (NumberFormatException ex)
+        {
+            throw error("Invalid number");
+        }
+    }
+
+    private void skipWhitespace()
+    {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos)))
+        {
+            pos++;
+        }
+    }
+
+    private char peek()
+    {
+        if (pos >= text.length()) throw error("Unexpected end of JSON document");
+        return text.charAt(pos);
+    }
+
+    private char next()
+    {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(char c)
+    {
+        if (next() != c)
+        {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message)
+    {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
@@ -0,0 +1,390 @@
+/**
+ *
+ */
+package net.sci.image.io.zarr;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The meta-data of an array stored in Zarr (version 2) format, as stored within
+ * the ".zarray" file of the array directory.
+ *
+ * Only the data types of fixed size ("b1", "u1", "u2", "i2", "i4", "f4" and
+ * "f8"), and the "zlib" and "gzip" compressors are supported. Filters are not
+ * supported.
+ *
+ * The dimensions of Zarr arrays follow the order of the numpy arrays, that is
+ * the reverse of the order of the arrays of this library: the first dimension
+ * of an image (x) is the last numpy axis. The methods arraySizes() and
+ * arrayChunkSizes() return the dimensions in the order of the arrays of this
+ * library, whatever the memory layout of the chunks. The "order" field only
+ * describes the layout of the elements within each chunk, and is managed when
+ * the chunk data are read or written.
+ *
+ * @see <a href="https://zarr.readthedocs.io/en/stable/spec/v2.html">Zarr
+ *      storage specification version 2</a>
+ *
+ * @author dlegland
+ *
+ */
+public class ZarrArrayInfo
+{
+    // =============================================================
+    // Constants
+
+    /**
+     * The name of the file containing the meta-data of the array.
+     */
+    public static final String METADATA_FILE_NAME = ".zarray";
+
+
+    // =============================================================
+    // Class variables
+
+    /**
+     * The size of the array along each dimension, in numpy order.
+     */
+    public int[] shape;
+
+    /**
+     * The size of the chunks along each dimension, in numpy order.
+     */
+    public int[] chunks;
+
+    /**
+     * The kind of the data type: 'b' for boolean, 'u' for unsigned integer,
+     * 'i' for signed integer, 'f' for floating point.
+     */
+    public char dataKind = 'u';
+
+    /**
+     * The number of bytes of each element.
+     */
+    public int itemSize = 1;
+
+    /**
+     * The byte order of multi-byte elements.
+     */
+    public ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * The identifier of the compressor ("zlib" or "gzip"), or null if the
+     * chunks are not compressed.
+     */
+    public String compressor = null;
+
+    /**
+     * The compression level, or -1 if not specified.
+     */
+    public int compressionLevel = -1;
+
+    /**
+     * The value of the elements within chunks that are not stored.
+     */
+    public double fillValue = 0.0;
+
+    /**
+     * The layout of the elements within each chunk: 'C' if the last numpy
+     * dimension varies the fastest, 'F' if the first numpy dimension varies the
+     * fastest.
+     */
+    public char order = 'C';
+
+    /**
+     * The separator between the chunk indices within chunk file names.
+     */
+    public String dimensionSeparator = ".";
+
+
+    // =============================================================
+    // Static methods
+
+    /**
+     * Reads the meta-data of the Zarr array stored within the specified
+     * directory.
+     *
+     * @param directory
+     *            the directory containing the ".zarray" file
+     * @return the meta-data of the array
+     * @throws IOException
+     *             if the file could not be read, or describes an array that is
+     *             not supported
+     */
+    public static final ZarrArrayInfo read(File directory) throws IOException
+    {
+        File file = new File(directory, METADATA_FILE_NAME);
+        String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+        Map<?, ?> map;
+        try
+        {
+            if (!(Json.parse(text) instanceof Map<?, ?> obj))
+            {
+                throw new IOException("Zarr meta-data must be a JSON object: " + file);
+            }
+            map = obj;
+        }
+        catch (IllegalArgumentException ex)
+        {
+            throw new IOException("Could not parse Zarr meta-data in file " + file, ex);
+        }
+
+        Object format = map.get("zarr_format");
+        if (!(format instanceof Double version) || version.intValue() != 2)
+        {
+            throw new IOException("Only Zarr arrays with format version 2 are supported");
+        }
+
+        ZarrArrayInfo info = new ZarrArrayInfo();
+        info.shape = parseIntArray(map.get("shape"), "shape");
+        info.chunks = parseIntArray(map.get("chunks"), "chunks");
+        if (info.shape.length != info.chunks.length)
+        {
+            throw new IOException("Zarr shape and chunks must have the same length");
+        }
+        info.parseDataType(map.get("dtype"));
+
+        Object compressor = map.get("compressor");
+        if (compressor instanceof Map<?, ?> comp)
+        {
+            info.compressor = String.valueOf(comp.get("id"));
+            if (!info.compressor.equals("zlib") && !info.compressor.equals("gzip"))
+            {
+                throw new IOException("Unsupported Zarr compressor: " + info.compressor);
+            }
+            if (comp.get("level") instanceof Double level)
+            {
+                info.compressionLevel = level.intValue();
+            }
+        }
+        else if (compressor != null)
+        {
+            throw new IOException("Could not parse Zarr compressor: " + compressor);
+        }
+
+        Object filters = map.get("filters");
+        if (filters instanceof List<?> list && !list.isEmpty())
+        {
+            throw new IOException("Zarr filters are not supported");
+        }
+
+        Object fillValue = map.get("fill_value");
+        if (fillValue instanceof Double value)
+        {
+            info.fillValue = value;
+        }
+        else if (fillValue instanceof Boolean value)
+        {
+            info.fillValue = value ? 1.0 : 0.0;
+        }
+        else if (fillValue instanceof String value)
+        {
+            info.fillValue = switch (value)
+            {
+                case "NaN" -> Double.NaN;
+                case "Infinity" -> Double.POSITIVE_INFINITY;
+                case "-Infinity" -> Double.NEGATIVE_INFINITY;
+                default -> throw new IOException("Could not parse Zarr fill value: " + value);
+            };
+        }
+
+        Object order = map.get("order");
+        if (order != null)
+        {
+            if (!order.equals("C") && !order.equals("F"))
+            {
+                throw new IOException("Could not parse Zarr order: " + order);
+            }
+            info.order = ((String) order).charAt(0);
+        }
+
+        Object separator = map.get("dimension_separator");
+        if (separator != null)
+        {
+            if (!separator.equals(".") && !separator.equals("/"))
+            {
+                throw new IOException("Could not parse Zarr dimension separator: " + separator);
+            }
+            info.dimensionSeparator = (String) separator;
+        }
+
+        return info;
+    }
+
+    private static final int[] parseIntArray(Object value, String name) throws IOException
+    {
+        if (!(value instanceof List<?> list) || list.isEmpty())
+        {
+            throw new IOException("Zarr meta-data must contain a non empty \"" + name + "\" array");
+        }
+        int[] res = new int[list.size()];
+        for (int i = 0; i < res.length; i++)
+        {
+            if (!(list.get(i) instanceof Double v) || v < 0 || v > Integer.MAX_VALUE)
+            {
+                throw new IOException("Could not parse Zarr \"" + name + "\" array: " + list);
+            }
+            res[i] = v.intValue();
+        }
+        return res;
+    }
+
+    private void parseDataType(Object value) throws IOException
+    {
+        if (!(value instanceof String dtype) || dtype.length() < 3)
+        {
+            throw new IOException("Could not parse Zarr data type: " + value);
+        }
+
+        char endian = dtype.charAt(0);
+        this.dataKind = dtype.charAt(1);
+        try
+        {
+            this.itemSize = Integer.parseInt(dtype.substring(2));
+        }
+        catch (NumberFormatException ex)
+        {
+            throw new IOException("Could not parse Zarr data type: " + dtype);
+        }
+        this.byteOrder = endian == '>' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+
+        boolean supported = switch (this.dataKind)
+        {
+            case 'b' -> this.itemSize == 1;
+            case 'u' -> this.itemSize == 1 || this.itemSize == 2;
+            case 'i' -> this.itemSize == 2 || this.itemSize == 4;
+            case 'f' -> this.itemSize == 4 || this.itemSize == 8;
+            default -> false;
+        };
+        if (!supported || "<>|".indexOf(endian) < 0)
+        {
+            throw new IOException("Unsupported Zarr data type: " + dtype);
+        }
+    }
+
+
+    // =============================================================
+    // Methods
+
+    /**
+     * @return the number of dimensions of the array
+     */
+    public int dimensionality()
+    {
+        return this.shape.length;
+    }
+
+    /**
+     * @return the size of the array along each dimension, the first dimension
+     *         varying the fastest within chunks
+     */
+    public int[] arraySizes()
+    {
+        return toArrayOrder(this.shape);
+    }
+
+    /**
+     * @return the size of the chunks along each dimension, the first dimension
+     *         varying the fastest within chunks
+     */
+    public int[] arrayChunkSizes()
+    {
+        return toArrayOrder(this.chunks);
+    }
+
+    /**
+     * Converts dimensions given in numpy order into the order of arrays, by
+     * reversing them.
+     */
+    private static final int[] toArrayOrder(int[] dims)
+    {
+        int nd = dims.length;
+        int[] res = new int[nd];
+        for (int d = 0; d < nd; d++)
+        {
+            res[d] = dims[nd - 1 - d];
+        }
+        return res;
+    }
+
+    /**
+     * Returns the name of the file containing the chunk with the specified
+     * position within the grid of chunks.
+     *
+     * @param gridPos
+     *            the position of the chunk within the grid of chunks, in the
+     *            order of arrays (the first dimension varying the fastest)
+     * @return the name of the chunk file, relative to the array directory
+     */
+    public String chunkKey(int[] gridPos)
+    {
+        // chunk indices are given in numpy order
+        int nd = gridPos.length;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < nd; i++)
+        {
+            if (i > 0) sb.append(this.dimensionSeparator);
+            sb.append(gridPos[nd - 1 - i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the data type, using the numpy array protocol (e.g. "&lt;u2")
+     */
+    public String dataType()
+    {
+        char endian = this.itemSize == 1 ? '|' : (this.byteOrder == ByteOrder.BIG_ENDIAN ? '>' : '<');
+        return "" + endian + this.dataKind + this.itemSize;
+    }
+
+    /**
+     * Writes the meta-data into the ".zarray" file of the specified
+     * directory.
+     *
+     * @param directory
+     *            the directory of the array
+     * @throws IOException
+     *             if the file could not be written
+     */
+    public void write(File directory) throws IOException
+    {
+        File file = new File(directory, METADATA_FILE_NAME);
+        Files.write(file.toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the representation of the meta-data as a JSON document
+     */
+    public String toJson()
+    {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("zarr_format", 2.0);
+        map.put("shape", this.shape);
+        map.put("chunks", this.chunks);
+        map.put("dtype", dataType());
+        if (this.compressor != null)
+        {
+            Map<String, Object> comp = new LinkedHashMap<String, Object>();
+            comp.put("id", this.compressor);
+            comp.put("level", (double) (this.compressionLevel >= 0 ? this.compressionLevel : 6));
+            map.put("compressor", comp);
+        }
+        else
+        {
+            map.put("compressor", null);
+        }
+        map.put("fill_value", this.dataKind == 'b' ? Boolean.valueOf(this.fillValue != 0) : (Object) this.fillValue);
+        map.put("order", String.valueOf(this.order));
+        map.put("filters", null);
+        map.put("dimension_separator", this.dimensionSeparator);
+        return Json.format(map) + "\n";
+    }
+}
@@ -0,0 +1,400 @@
+/**
+ *
+ */
+package net.sci.image.io.zarr;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import net.sci.array.numeric.impl.ChunkStore;
+
+/**
+ * Reads and writes the chunk files of an array stored in Zarr format.
+ *
+ * Chunks are identified by their linear index within the grid of chunks, the
+ * first dimension varying the fastest, consistently with the ChunkStore class.
+ * The data of the chunks are exchanged in big-endian byte order, and are
+ * converted to the byte order of the Zarr array when needed. The elements are
+ * exchanged with the first dimension of the array varying the fastest, and are
+ * reordered when the chunks of the Zarr array are stored in "F" order. Chunks
+ * that are not stored are filled with the fill value of the array.
+ *
+ * @see ZarrArrayInfo
+ * @see net.sci.array.numeric.impl.ChunkStore
+ *
+ * @author dlegland
+ *
+ */
+public class ZarrChunkSource implements ChunkStore.Source
+{
+    // =============================================================
+    // Class variables
+
+    /**
+     * The directory containing the chunk files.
+     */
+    File directory;
+
+    /**
+     * The meta-data of the array.
+     */
+    ZarrArrayInfo info;
+
+    /**
+     * The number of chunks along each dimension, in the order of arrays.
+     */
+    int[] gridSizes;
+
+    /**
+     * The size of the chunks along each dimension, in the order of arrays.
+     */
+    int[] chunkSizes;
+
+    /**
+     * The number of bytes of each chunk.
+     */
+    int chunkByteCount;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Creates a new chunk source for the Zarr array stored within the
+     * specified directory.
+     *
+     * @param directory
+     *            the directory of the array
+     * @param info
+     *            the meta-data of the array
+     */
+    public ZarrChunkSource(File directory, ZarrArrayInfo info)
+    {
+        this.directory = directory;
+        this.info = info;
+
+        int[] sizes = info.arraySizes();
+        int[] chunkSizes = info.arrayChunkSizes();
+        this.chunkSizes = chunkSizes;
+        this.gridSizes = new int[sizes.length];
+        long count = info.itemSize;
+        for (int d = 0; d < sizes.length; d++)
+        {
+            this.gridSizes[d] = (sizes[d] + chunkSizes[d] - 1) / chunkSizes[d];
+            count *= chunkSizes[d];
+        }
+        if (count > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalArgumentException("Zarr chunk size is larger than maximal size for java arrays");
+        }
+        this.chunkByteCount = (int) count;
+    }
+
+
+    // =============================================================
+    // Methods
+
+    /**
+     * @return the number of chunks along each dimension, the first dimension
+     *         varying the fastest
+     */
+    public int[] gridSizes()
+    {
+        return this.gridSizes.clone();
+    }
+
+    /**
+     * @return the total number of chunks of the array
+     */
+    public int chunkCount()
+    {
+        long count = 1;
+        for (int n : this.gridSizes)
+        {
+            count *= n;
+        }
+        return (int) count;
+    }
+
+    /**
+     * @return the number of bytes of the data of each chunk
+     */
+    public int chunkByteCount()
+    {
+        return this.chunkByteCount;
+    }
+
+    /**
+     * Converts the linear index of a chunk into its position within the grid
+     * of chunks.
+     *
+     * @param index
+     *            the linear index of the chunk, the first dimension varying the
+     *            fastest
+     * @return the position of the chunk within the grid of chunks
+     */
+    public int[] gridPosition(int index)
+    {
+        int[] pos = new int[this.gridSizes.length];
+        for (int d = 0; d < pos.length; d++)
+        {
+            pos[d] = index % this.gridSizes[d];
+            index /= this.gridSizes[d];
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the file containing the data of the specified chunk.
+     *
+     * @param index
+     *            the linear index of the chunk
+     * @return the file of the chunk, that may not exist
+     */
+    public File chunkFile(int index)
+    {
+        return new File(this.directory, this.info.chunkKey(gridPosition(index)));
+    }
+
+    /**
+     * Reads the data of a chunk. If the chunk file does not exist, the chunk
+     * is filled with the fill value of the array.
+     *
+     * @param index
+     *            the linear index of the chunk, the first dimension varying the
+     *            fastest
+     * @param byteCount
+     *            the expected number of bytes of the chunk data
+     * @return the data of the chunk, in big-endian byte order, or null if the
+     *         chunk is not stored and the fill value is zero
+     * @throws IOException
+     *             if the chunk file could not be read or decompressed
+     */
+    @Override
+    public byte[] readChunk(int index, int byteCount) throws IOException
+    {
+        if (byteCount != this.chunkByteCount)
+        {
+            throw new IllegalArgumentException("Requested chunk size does not match Zarr chunk size");
+        }
+
+        File file = chunkFile(index);
+        if (!file.exists())
+        {
+            return createFillChunk();
+        }
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (this.info.compressor != null)
+        {
+            bytes = decompress(bytes);
+        }
+        if (bytes.length != this.chunkByteCount)
+        {
+            throw new IOException("Zarr chunk file " + file + " contains " + bytes.length + " bytes instead of " + this.chunkByteCount);
+        }
+        if (this.info.byteOrder == ByteOrder.LITTLE_ENDIAN)
+        {
+            swapBytes(bytes, this.info.itemSize);
+        }
+        if (this.info.order == 'F')
+        {
+            bytes = reorderElements(bytes, true);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the data of a chunk into its file, using the byte order and the
+     * compressor of the array. The directories of the chunk file are created
+     * when needed.
+     *
+     * @param index
+     *            the linear index of the chunk, the first dimension varying the
+     *            fastest
+     * @param data
+     *            the data of the chunk, in big-endian byte order. The array may
+     *            be modified by this method.
+     * @throws IOException
+     *             if the chunk file could not be written
+     */
+    public void writeChunk(int index, byte[] data) throws IOException
+    {
+        if (data.length != this.chunkByteCount)
+        {
+            throw new IllegalArgumentException("Data size does not match Zarr chunk size");
+        }
+        if (this.info.order == 'F')
+        {
+            data = reorderElements(data, false);
+        }
+        if (this.info.byteOrder == ByteOrder.LITTLE_ENDIAN)
+        {
+            swapBytes(data, this.info.itemSize);
+        }
+        byte[] bytes = this.info.compressor != null ? compress(data) : data;
+
+        File file = chunkFile(index);
+        File parent = file.getParentFile();
+        if (!parent.equals(this.directory))
+        {
+            Files.createDirectories(parent.toPath());
+        }
+        Files.write(file.toPath(), bytes);
+    }
+
+    private byte[] decompress(byte[] bytes) throws IOException
+    {
+        InputStream input = new ByteArrayInputStream(bytes);
+        try (InputStream stream = this.info.compressor.equals("gzip") ? new GZIPInputStream(input) : new InflaterInputStream(input))
+        {
+            return stream.readAllBytes();
+        }
+    }
+
+    private byte[] compress(byte[] data) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length / 2 + 64);
+        if (this.info.compressor.equals("gzip"))
+        {
+            try (OutputStream stream = new GZIPOutputStream(baos))
+            {
+                stream.write(data);
+            }
+        }
+        else
+        {
+            Deflater deflater = new Deflater(this.info.compressionLevel);
+            try (OutputStream stream = new DeflaterOutputStream(baos, deflater))
+            {
+                stream.write(data);
+            }
+            finally
+            {
+                deflater.end();
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Creates the data of a chunk filled with the fill value, or returns null
+     * if the fill value is zero.
+     */
+    private byte[] createFillChunk()
+    {
+        double value = this.info.fillValue;
+        if (value == 0.0 && Double.doubleToRawLongBits(value) == 0)
+        {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(this.chunkByteCount);
+        while (buffer.hasRemaining())
+        {
+            switch (this.info.dataKind)
+            {
+                case 'f' ->
+                {
+                    if (this.info.itemSize == 4) buffer.putFloat((float) value);
+                    else buffer.putDouble(value);
+                }
+                default ->
+                {
+                    long v = (long) value;
+                    switch (this.info.itemSize)
+                    {
+                        case 1 -> buffer.put((byte) v);
+                        case 2 -> buffer.putShort((short) v);
+                        default -> buffer.putInt((int) v);
+                    }
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Converts the layout of the elements of a chunk between the "F" order of
+     * the Zarr chunks, for which the last dimension of the array varies the
+     * fastest, and the order of arrays, for which the first dimension varies
+     * the fastest.
+     *
+     * @param bytes
+     *            the data of the chunk
+     * @param toArrayOrder
+     *            true to convert from the "F" order to the order of arrays,
+     *            false for the inverse conversion
+     * @return the data of the chunk with the elements in the new order
+     */
+    private byte[] reorderElements(byte[] bytes, boolean toArrayOrder)
+    {
+        int nd = this.chunkSizes.length;
+        int itemSize = this.info.itemSize;
+
+        // strides of each array dimension within the "F" layout
+        int[] strides = new int[nd];
+        int stride = 1;
+        for (int d = nd - 1; d >= 0; d--)
+        {
+            strides[d] = stride;
+            stride *= this.chunkSizes[d];
+        }
+
+        // iterate over the elements in array order, and keep the index of the
+        // element within the "F" layout
+        byte[] res = new byte[bytes.length];
+        int[] pos = new int[nd];
+        int index = 0;
+        int elementCount = bytes.length / itemSize;
+        for (int i = 0; i < elementCount; i++)
+        {
+            if (toArrayOrder)
+            {
+                System.arraycopy(bytes, index * itemSize, res, i * itemSize, itemSize);
+            }
+            else
+            {
+                System.arraycopy(bytes, i * itemSize, res, index * itemSize, itemSize);
+            }
+
+            // increment position, starting from the first dimension
+            for (int d = 0; d < nd; d++)
+            {
+                index += strides[d];
+                if (++pos[d] < this.chunkSizes[d]) break;
+                index -= strides[d] * pos[d];
+                pos[d] = 0;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Reverses the order of the bytes of each element.
+     */
+    private static final void swapBytes(byte[] bytes, int itemSize)
+    {
+        for (int i = 0; i < bytes.length; i += itemSize)
+        {
+            for (int j = 0, k = i + itemSize - 1; j < itemSize / 2; j++, k--)
+            {
+                byte tmp = bytes[i + j];
+                bytes[i + j] = bytes[k];
+                bytes[k] = tmp;
+            }
+        }
+    }
+}
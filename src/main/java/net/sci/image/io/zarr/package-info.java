@@ -0,0 +1,12 @@
+/**
+ * Utility classes for managing the Zarr (version 2) chunked directory format.
+ *
+ * A Zarr array is stored within a directory that contains a ".zarray" file
+ * describing the array in JSON format, and one file for each chunk of the
+ * array. The ZarrArrayInfo class manages the meta-data of the array, and the
+ * ZarrChunkSource class reads the chunks on demand.
+ *
+ * @author dlegland
+ *
+ */
+package net.sci.image.io.zarr;
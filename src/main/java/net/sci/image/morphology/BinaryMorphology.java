@@ -16,11 +16,15 @@ import net.sci.image.morphology.filtering.BinaryInnerGradient;
 import net.sci.image.morphology.filtering.BinaryOpening;
 import net.sci.image.morphology.filtering.BinaryOuterGradient;
 import net.sci.image.morphology.filtering.BinaryWhiteTopHat;
+import net.sci.image.morphology.filtering.DistanceMapBinaryDilation;
+import net.sci.image.morphology.filtering.DistanceMapBinaryErosion;
 import net.sci.image.morphology.reconstruction.BinaryFillHoles2D;
 import net.sci.image.morphology.reconstruction.BinaryFillHoles3D;
 import net.sci.image.morphology.reconstruction.BinaryKillBorders;
 import net.sci.image.morphology.reconstruction.RunLengthBinaryReconstruction2D;
 import net.sci.image.morphology.reconstruction.RunLengthBinaryReconstruction3D;
+import net.sci.image.morphology.strel.SlidingBallStrel3D;
+import net.sci.image.morphology.strel.SlidingDiskStrel;
 
 
 /**
@@ -29,17 +33,51 @@ import net.sci.image.morphology.reconstruction.RunLengthBinaryReconstruction3D;
  * images.
  * </p>
  * 
+ * <p>
+ * Dilations, erosions, openings and closings by disks or balls with large
+ * radius are computed by thresholding the Euclidean distance map of the
+ * background or of the foreground, whose computation time does not depend on
+ * the number of runs within the array. Other structuring elements, and small
+ * disks and balls, are processed using run-length encoded arrays.
+ * </p>
+ * 
  * @author dlegland
  */
 public class BinaryMorphology
 {
+    // =======================================================================
+    // Constants
+    
+    /**
+     * The minimum radius of disk structuring elements for computing 2D
+     * dilations and erosions from the distance map.
+     */
+    public static final double DISTANCE_MAP_MIN_RADIUS_2D = 10.0;
+    
+    /**
+     * The minimum radius of ball structuring elements for computing 3D
+     * dilations and erosions from the distance map.
+     */
+    public static final double DISTANCE_MAP_MIN_RADIUS_3D = 5.0;
+    
+    /**
+     * The minimum number of elements of arrays for computing dilations and
+     * erosions from the distance map. Smaller arrays are processed quickly
+     * by both methods, and do not need the memory of the distance map.
+     */
+    public static final long DISTANCE_MAP_MIN_ELEMENT_COUNT = 1L << 16;
+    
+    
     // =======================================================================
     // Static methods to perform common morphological operations
     
     /**
-     * Performs morphological dilation on the input binary array.
+     * Performs morphological dilation on the input binary array. Dilations
+     * by disks or balls with large radius are computed from the distance map
+     * of the background.
      * 
      * @see net.sci.image.morphology.filtering.BinaryDilation
+     * @see net.sci.image.morphology.filtering.DistanceMapBinaryDilation
      * 
      * @param array
      *            the binary input array to process
@@ -49,14 +87,21 @@ public class BinaryMorphology
      */
     public static final BinaryArray dilation(BinaryArray array, Strel strel)
     {
+        double radius = distanceMapRadius(array, strel);
+        if (radius > 0)
+        {
+            return new DistanceMapBinaryDilation(radius).process(array);
+        }
         return new BinaryDilation(strel).process(array);
     }
 
     /**
-     * Performs morphological erosion on the input binary array. 
-     * 
+     * Performs morphological erosion on the input binary array. Erosions by
+     * disks or balls with large radius are computed from the distance map of
+     * the foreground.
      * 
      * @see net.sci.image.morphology.filtering.BinaryErosion
+     * @see net.sci.image.morphology.filtering.DistanceMapBinaryErosion
      * 
      * @param array
      *            the binary input array to process
@@ -66,6 +111,11 @@ public class BinaryMorphology
      */
     public static final BinaryArray erosion(BinaryArray array, Strel strel)
     {
+        double radius = distanceMapRadius(array, strel);
+        if (radius > 0)
+        {
+            return new DistanceMapBinaryErosion(radius).process(array);
+        }
         return new BinaryErosion(strel).process(array);
     }
 
@@ -83,6 +133,12 @@ public class BinaryMorphology
      */
     public static final BinaryArray opening(BinaryArray array, Strel strel)
     {
+        double radius = distanceMapRadius(array, strel);
+        if (radius > 0)
+        {
+            BinaryArray res = new DistanceMapBinaryErosion(radius).process(array);
+            return new DistanceMapBinaryDilation(radius).process(res);
+        }
         return new BinaryOpening(strel).process(array);
     }
 
@@ -100,6 +156,12 @@ public class BinaryMorphology
      */
     public static final BinaryArray closing(BinaryArray array, Strel strel) 
     {
+        double radius = distanceMapRadius(array, strel);
+        if (radius > 0)
+        {
+            BinaryArray res = new DistanceMapBinaryDilation(radius).process(array);
+            return new DistanceMapBinaryErosion(radius).process(res);
+        }
         return new BinaryClosing(strel).process(array);
     }
     
@@ -268,6 +330,38 @@ public class BinaryMorphology
         }
     }
     
+    /**
+     * Returns the radius to use for computing dilations and erosions from the
+     * distance map, or 0 if the run-length based operators should be used.
+     * The distance map is used for disks and balls whose radius is large
+     * enough, within arrays with enough elements.
+     * 
+     * @param array
+     *            the binary array to process
+     * @param strel
+     *            the structuring element
+     * @return the radius of the disk or ball, or 0 if the distance map should
+     *         not be used
+     */
+    private static final double distanceMapRadius(BinaryArray array, Strel strel)
+    {
+        if (array.elementCount() < DISTANCE_MAP_MIN_ELEMENT_COUNT)
+        {
+            return 0;
+        }
+        
+        int nd = array.dimensionality();
+        if (nd == 2 && strel instanceof SlidingDiskStrel disk && disk.getRadius() >= DISTANCE_MAP_MIN_RADIUS_2D)
+        {
+            return disk.getRadius();
+        }
+        if (nd == 3 && strel instanceof SlidingBallStrel3D ball && ball.getRadius() >= DISTANCE_MAP_MIN_RADIUS_3D)
+        {
+            return ball.getRadius();
+        }
+        return 0;
+    }
+    
     /**
      * Private constructor to prevent instantiation.
      */
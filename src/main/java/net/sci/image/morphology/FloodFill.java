@@ -6,7 +6,6 @@ package net.sci.image.morphology;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-import java.util.ArrayList;
 
 import net.sci.array.Array2D;
 import net.sci.array.numeric.IntArray2D;
@@ -15,13 +14,15 @@ import net.sci.array.numeric.ScalarArray2D;
 import net.sci.array.numeric.ScalarArray3D;
 import net.sci.image.connectivity.Connectivity2D;
 import net.sci.image.connectivity.Connectivity3D;
+import net.sci.util.IntQueue;
 
 /**
  * <p>
  * Implements various flood-fill algorithms, for 2D and 3D arrays.
  * 
  * Rewritten from class ImageJ ij.process.FloodFiller, and updated for double
- * values and 3D arrays.
+ * values and 3D arrays. The coordinates of the positions to process are stored
+ * within a primitive queue, avoiding to create an object for each scan-line.
  * 
  * </p>
  * 
@@ -86,17 +87,17 @@ public class FloodFill
         // test if already the right value
         if (oldValue == value) return;
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor2D> stack = new ArrayList<Cursor2D>();
-        stack.add(new Cursor2D(x0, y0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor2D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
+            x0 = queue.remove();
+            y0 = queue.remove();
             
             // process only pixel of the same value
             if (array.getValue(x0, y0) != oldValue) continue;
@@ -128,7 +129,8 @@ public class FloodFill
                     double val = array.getValue(i, y0 - 1);
                     if (!inScanLine && val == oldValue)
                     {
-                        stack.add(new Cursor2D(i, y0 - 1));
+                        queue.add(i);
+                        queue.add(y0 - 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -147,7 +149,8 @@ public class FloodFill
                     double val = array.getValue(i, y0 + 1);
                     if (!inScanLine && val == oldValue)
                     {
-                        stack.add(new Cursor2D(i, y0 + 1));
+                        queue.add(i);
+                        queue.add(y0 + 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -186,17 +189,17 @@ public class FloodFill
         // test if already the right value
         if (oldValue == value) return;
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor2D> stack = new ArrayList<Cursor2D>();
-        stack.add(new Cursor2D(x0, y0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor2D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
+            x0 = queue.remove();
+            y0 = queue.remove();
             
             // process only pixel with the same value
             if (image.getValue(x0, y0) != oldValue) continue;
@@ -228,7 +231,8 @@ public class FloodFill
                     double val = image.getValue(i, y0 - 1);
                     if (!inScanLine && val == oldValue)
                     {
-                        stack.add(new Cursor2D(i, y0 - 1));
+                        queue.add(i);
+                        queue.add(y0 - 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -247,7 +251,8 @@ public class FloodFill
                     double val = image.getValue(i, y0 + 1);
                     if (!inScanLine && val == oldValue)
                     {
-                        stack.add(new Cursor2D(i, y0 + 1));
+                        queue.add(i);
+                        queue.add(y0 + 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -305,19 +310,19 @@ public class FloodFill
         // get old value
         S oldValue = source.get(x0, y0);
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor2D> stack = new ArrayList<Cursor2D>();
-        stack.add(new Cursor2D(x0, y0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
         
         boolean inScanLine;
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor2D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
+            x0 = queue.remove();
+            y0 = queue.remove();
             
             // process only pixel of the same value
             if (!source.get(x0, y0).equals(oldValue)) continue;
@@ -347,7 +352,8 @@ public class FloodFill
                     T lab = target.get(i, y0 - 1);
                     if (!inScanLine && val.equals(oldValue) && !lab.equals(value))
                     {
-                        stack.add(new Cursor2D(i, y0 - 1));
+                        queue.add(i);
+                        queue.add(y0 - 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && !val.equals(oldValue))
@@ -367,7 +373,8 @@ public class FloodFill
                     T lab = target.get(i, y0 + 1);
                     if (!inScanLine && val.equals(oldValue) && !lab.equals(value))
                     {
-                        stack.add(new Cursor2D(i, y0 + 1));
+                        queue.add(i);
+                        queue.add(y0 + 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && !val.equals(oldValue))
@@ -469,19 +476,19 @@ public class FloodFill
         // get old value
         double oldValue = input.getValue(x0, y0);
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor2D> stack = new ArrayList<Cursor2D>();
-        stack.add(new Cursor2D(x0, y0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
         
         boolean inScanLine;
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor2D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
+            x0 = queue.remove();
+            y0 = queue.remove();
             
             // process only pixel of the same value
             if (input.getValue(x0, y0) != oldValue) continue;
@@ -514,7 +521,8 @@ public class FloodFill
                     double lab = output.getValue(i, y0 - 1);
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor2D(i, y0 - 1));
+                        queue.add(i);
+                        queue.add(y0 - 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -534,7 +542,8 @@ public class FloodFill
                     double lab = output.getValue(i, y0 + 1);
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor2D(i, y0 + 1));
+                        queue.add(i);
+                        queue.add(y0 + 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -620,19 +629,19 @@ public class FloodFill
         // get old value
         int oldValue = input.getInt(x0, y0);
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor2D> stack = new ArrayList<Cursor2D>();
-        stack.add(new Cursor2D(x0, y0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
         
         boolean inScanLine;
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor2D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
+            x0 = queue.remove();
+            y0 = queue.remove();
             
             // process only pixel of the same value
             if (input.getInt(x0, y0) != oldValue) continue;
@@ -665,7 +674,8 @@ public class FloodFill
                     int lab = output.getInt(i, y0 - 1);
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor2D(i, y0 - 1));
+                        queue.add(i);
+                        queue.add(y0 - 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -685,7 +695,8 @@ public class FloodFill
                     int lab = output.getInt(i, y0 + 1);
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor2D(i, y0 + 1));
+                        queue.add(i);
+                        queue.add(y0 + 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -697,22 +708,6 @@ public class FloodFill
         }
     }
     
-    /**
-     * Defines a position within a 2D array. Needs to be a static class to be
-     * called by static methods.
-     */
-    private static class Cursor2D
-    {
-        int x;
-        int y;
-        
-        public Cursor2D(int x, int y)
-        {
-            this.x = x;
-            this.y = y;
-        }
-    }
-    
     /**
      * Replaces all the pixels in the 6-neighborhood of (x0,y0,z0) that have the
      * same values as the pixel in (x0,y0,z0) by the specified value. Should
@@ -770,18 +765,19 @@ public class FloodFill
         // test if already the right value
         if (oldValue == value) return;
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor3D> stack = new ArrayList<Cursor3D>();
-        stack.add(new Cursor3D(x0, y0, z0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
+        queue.add(z0);
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor3D p = stack.remove(stack.size() - 1);
-            int px = p.x;
-            int py = p.y;
-            int pz = p.z;
+            int px = queue.remove();
+            int py = queue.remove();
+            int pz = queue.remove();
             
             // process only pixel of the same value
             if (array.getValue(px, py, pz) != oldValue) continue;
@@ -813,7 +809,9 @@ public class FloodFill
                     double val = array.getValue(i, py - 1, pz);
                     if (!inScanLine && val == oldValue)
                     {
-                        stack.add(new Cursor3D(i, py - 1, pz));
+                        queue.add(i);
+                        queue.add(py - 1);
+                        queue.add(pz);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -832,7 +830,9 @@ public class FloodFill
                     double val = array.getValue(i, py + 1, pz);
                     if (!inScanLine && val == oldValue)
                     {
-                        stack.add(new Cursor3D(i, py + 1, pz));
+                        queue.add(i);
+                        queue.add(py + 1);
+                        queue.add(pz);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -851,7 +851,9 @@ public class FloodFill
                     double val = array.getValue(i, py, pz - 1);
                     if (!inScanLine && val == oldValue)
                     {
-                        stack.add(new Cursor3D(i, py, pz - 1));
+                        queue.add(i);
+                        queue.add(py);
+                        queue.add(pz - 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -870,7 +872,9 @@ public class FloodFill
                     double val = array.getValue(i, py, pz + 1);
                     if (!inScanLine && val == oldValue)
                     {
-                        stack.add(new Cursor3D(i, py, pz + 1));
+                        queue.add(i);
+                        queue.add(py);
+                        queue.add(pz + 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -911,18 +915,19 @@ public class FloodFill
         // test if already the right value
         if (oldValue == value) return;
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor3D> stack = new ArrayList<Cursor3D>();
-        stack.add(new Cursor3D(x0, y0, z0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
+        queue.add(z0);
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor3D p = stack.remove(stack.size() - 1);
-            int px = p.x;
-            int py = p.y;
-            int pz = p.z;
+            int px = queue.remove();
+            int py = queue.remove();
+            int pz = queue.remove();
             
             // process only pixel with the same value
             if (array.getValue(px, py, pz) != oldValue) continue;
@@ -959,7 +964,9 @@ public class FloodFill
                         double val = array.getValue(i, y2, z2);
                         if (!inScanLine && val == oldValue)
                         {
-                            stack.add(new Cursor3D(i, y2, z2));
+                            queue.add(i);
+                            queue.add(y2);
+                            queue.add(z2);
                             inScanLine = true;
                         }
                         else if (inScanLine && val != oldValue)
@@ -970,7 +977,7 @@ public class FloodFill
                 }
             } // end of iteration on neighbor lines
             
-        } // end of iteration on position stack
+        } // end of iteration on position queue
     }
     
     /**
@@ -1040,20 +1047,21 @@ public class FloodFill
         // get old value
         double oldValue = inputArray.getValue(x0, y0, z0);
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor3D> stack = new ArrayList<Cursor3D>();
-        stack.add(new Cursor3D(x0, y0, z0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
+        queue.add(z0);
         
         boolean inScanLine;
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor3D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
-            z0 = p.z;
+            x0 = queue.remove();
+            y0 = queue.remove();
+            z0 = queue.remove();
             
             // process only pixel of the same value
             if (inputArray.getValue(x0, y0, z0) != oldValue) continue;
@@ -1091,7 +1099,9 @@ public class FloodFill
                     
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor3D(i, y0 - 1, z0));
+                        queue.add(i);
+                        queue.add(y0 - 1);
+                        queue.add(z0);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -1112,7 +1122,9 @@ public class FloodFill
                     
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor3D(i, y0 + 1, z0));
+                        queue.add(i);
+                        queue.add(y0 + 1);
+                        queue.add(z0);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -1133,7 +1145,9 @@ public class FloodFill
                     
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor3D(i, y0, z0 - 1));
+                        queue.add(i);
+                        queue.add(y0);
+                        queue.add(z0 - 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -1154,7 +1168,9 @@ public class FloodFill
                     
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor3D(i, y0, z0 + 1));
+                        queue.add(i);
+                        queue.add(y0);
+                        queue.add(z0 + 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -1196,20 +1212,21 @@ public class FloodFill
         // get old value
         double oldValue = inputArray.getValue(x0, y0, z0);
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor3D> stack = new ArrayList<Cursor3D>();
-        stack.add(new Cursor3D(x0, y0, z0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
+        queue.add(z0);
         
         boolean inScanLine;
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor3D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
-            z0 = p.z;
+            x0 = queue.remove();
+            y0 = queue.remove();
+            z0 = queue.remove();
             
             // process only pixel of the same value
             if (inputArray.getValue(x0, y0, z0) != oldValue) continue;
@@ -1252,7 +1269,9 @@ public class FloodFill
                         
                         if (!inScanLine && val == oldValue && lab != value)
                         {
-                            stack.add(new Cursor3D(i, y2, z2));
+                            queue.add(i);
+                            queue.add(y2);
+                            queue.add(z2);
                             inScanLine = true;
                         }
                         else if (inScanLine && val != oldValue)
@@ -1333,20 +1352,21 @@ public class FloodFill
         // get old value
         int oldValue = inputArray.getInt(x0, y0, z0);
         
-        // initialize the stack with original position
-        ArrayList<Cursor3D> stack = new ArrayList<Cursor3D>();
-        stack.add(new Cursor3D(x0, y0, z0));
+        // initialize the queue with original position
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
+        queue.add(z0);
         
         boolean inScanLine;
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor3D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
-            z0 = p.z;
+            x0 = queue.remove();
+            y0 = queue.remove();
+            z0 = queue.remove();
             
             // process only pixel of the same value
             if (inputArray.getInt(x0, y0, z0) != oldValue) continue;
@@ -1384,7 +1404,9 @@ public class FloodFill
                     
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor3D(i, y0 - 1, z0));
+                        queue.add(i);
+                        queue.add(y0 - 1);
+                        queue.add(z0);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -1405,7 +1427,9 @@ public class FloodFill
                     
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor3D(i, y0 + 1, z0));
+                        queue.add(i);
+                        queue.add(y0 + 1);
+                        queue.add(z0);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -1426,7 +1450,9 @@ public class FloodFill
                     
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor3D(i, y0, z0 - 1));
+                        queue.add(i);
+                        queue.add(y0);
+                        queue.add(z0 - 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -1447,7 +1473,9 @@ public class FloodFill
                     
                     if (!inScanLine && val == oldValue && lab != value)
                     {
-                        stack.add(new Cursor3D(i, y0, z0 + 1));
+                        queue.add(i);
+                        queue.add(y0);
+                        queue.add(z0 + 1);
                         inScanLine = true;
                     }
                     else if (inScanLine && val != oldValue)
@@ -1489,20 +1517,21 @@ public class FloodFill
         // get old value
         int oldValue = inputArray.getInt(x0, y0, z0);
         
-        // initialize the stack with original pixel
-        ArrayList<Cursor3D> stack = new ArrayList<Cursor3D>();
-        stack.add(new Cursor3D(x0, y0, z0));
+        // initialize the queue with original pixel
+        IntQueue queue = new IntQueue();
+        queue.add(x0);
+        queue.add(y0);
+        queue.add(z0);
         
         boolean inScanLine;
         
-        // process all items in stack
-        while (!stack.isEmpty())
+        // process all items in queue
+        while (!queue.isEmpty())
         {
             // Extract current position
-            Cursor3D p = stack.remove(stack.size() - 1);
-            x0 = p.x;
-            y0 = p.y;
-            z0 = p.z;
+            x0 = queue.remove();
+            y0 = queue.remove();
+            z0 = queue.remove();
             
             // process only pixel of the same value
             if (inputArray.getValue(x0, y0, z0) != oldValue) continue;
@@ -1545,7 +1574,9 @@ public class FloodFill
                         
                         if (!inScanLine && val == oldValue && lab != value)
                         {
-                            stack.add(new Cursor3D(i, y2, z2));
+                            queue.add(i);
+                            queue.add(y2);
+                            queue.add(z2);
                             inScanLine = true;
                         }
                         else if (inScanLine && val != oldValue)
@@ -1559,24 +1590,6 @@ public class FloodFill
         }
     }
     
-    /**
-     * Defines a position within a 3D stack. Needs to be a static class in order to be
-     * called by static methods.
-     */
-    private static class Cursor3D
-    {
-        int x;
-        int y;
-        int z;
-        
-        public Cursor3D(int x, int y, int z)
-        {
-            this.x = x;
-            this.y = y;
-            this.z = z;
-        }
-    }
-    
     /**
      * Private constructor to prevent class instantiation.
      */
@@ -3,6 +3,9 @@
  */
 package net.sci.image.morphology;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
 import net.sci.algo.AlgoEvent;
 import net.sci.algo.AlgoListener;
 import net.sci.algo.AlgoStub;
@@ -10,6 +13,7 @@ import net.sci.array.Array;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.VectorArray;
 import net.sci.image.ImageArrayOperator;
+import net.sci.image.morphology.strel.Strel3D;
 
 /**
  * Base class for morphological filters, based on a structuring element.
@@ -19,6 +23,9 @@ import net.sci.image.ImageArrayOperator;
  * instances the process is applied on each channel / component image of the
  * vector image).
  * 
+ * If an execution pool is set up, it is lent to the structuring element while
+ * processing 3D arrays, so that the slices can be processed in parallel.
+ * 
  * @see Strel
  * 
  * @author dlegland
@@ -43,6 +50,53 @@ public abstract class MorphologicalFilter extends AlgoStub implements ImageArray
         return this.strel;
     }
     
+    /**
+     * Returns the structuring element of this filter as an instance of
+     * Strel3D, after registering this filter as listener.
+     * 
+     * @return the structuring element as an instance of Strel3D
+     */
+    protected Strel3D wrapStrel3d()
+    {
+        Strel3D strel3d = Strel3D.wrap(this.strel);
+        strel3d.addAlgoListener(this);
+        return strel3d;
+    }
+    
+    /**
+     * Applies an operation on a 3D structuring element. If this filter has an
+     * execution pool, the pool is used by the structuring element only for
+     * the duration of the operation, and the previous pool of the structuring
+     * element is restored afterwards.
+     * 
+     * @param <T>
+     *            the type of the result of the operation
+     * @param strel3d
+     *            the structuring element
+     * @param operation
+     *            the operation to apply on the structuring element
+     * @return the result of the operation
+     */
+    protected <T> T withExecutionPool(Strel3D strel3d, Function<Strel3D, T> operation)
+    {
+        ForkJoinPool pool = this.getExecutionPool();
+        if (pool == null || !(strel3d instanceof AlgoStub algo))
+        {
+            return operation.apply(strel3d);
+        }
+        
+        ForkJoinPool previousPool = algo.getExecutionPool();
+        algo.setExecutionPool(pool);
+        try
+        {
+            return operation.apply(strel3d);
+        }
+        finally
+        {
+            algo.setExecutionPool(previousPool);
+        }
+    }
+    
     /**
      * Default implementation for processing vector arrays, using marginal
      * processing of each channel.
@@ -51,9 +51,8 @@ public class Closing extends MorphologicalFilter
         }
         else if (nd == 3)
         {
-            Strel3D strel3d = Strel3D.wrap(this.strel);
-            strel3d.addAlgoListener(this);
-            return strel3d.closing(ScalarArray3D.wrapScalar3d(array));
+            Strel3D strel3d = wrapStrel3d();
+            return withExecutionPool(strel3d, s -> s.closing(ScalarArray3D.wrapScalar3d(array)));
         }
         else
         {
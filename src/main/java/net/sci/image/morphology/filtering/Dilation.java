@@ -52,9 +52,8 @@ public class Dilation extends MorphologicalFilter
         }
         else if (nd == 3)
         {
-            Strel3D strel3d = Strel3D.wrap(this.strel);
-            strel3d.addAlgoListener(this);
-            return strel3d.dilation(ScalarArray3D.wrapScalar3d(array));
+            Strel3D strel3d = wrapStrel3d();
+            return withExecutionPool(strel3d, s -> s.dilation(ScalarArray3D.wrapScalar3d(array)));
         }
         else
         {
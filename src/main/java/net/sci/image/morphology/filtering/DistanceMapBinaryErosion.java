@@ -0,0 +1,225 @@
+/**
+ *
+ */
+package net.sci.image.morphology.filtering;
+
+import net.sci.algo.AlgoEvent;
+import net.sci.algo.AlgoListener;
+import net.sci.algo.AlgoStub;
+import net.sci.array.Array;
+import net.sci.array.ArrayOperator;
+import net.sci.array.binary.BinaryArray;
+import net.sci.array.binary.BinaryArray2D;
+import net.sci.array.binary.BinaryArray3D;
+import net.sci.array.numeric.ScalarArray2D;
+import net.sci.array.numeric.ScalarArray3D;
+import net.sci.image.binary.distmap.SaitoToriwakiDistanceTransform2D;
+import net.sci.image.binary.distmap.SaitoToriwakiDistanceTransform3D;
+
+/**
+ * Computes erosion of a binary array by a disk or a ball, by thresholding the
+ * Euclidean distance map of the foreground.
+ *
+ * A foreground element belongs to the erosion if the distance to the nearest
+ * background element is larger than the radius of the disk or ball. Elements
+ * outside of the array are considered as foreground, as for the erosion with
+ * padding of the run-length based implementations. The result is the same as
+ * for the erosion by the <code>SlidingDiskStrel</code> or
+ * <code>SlidingBallStrel3D</code> with the same radius.
+ *
+ * @see DistanceMapBinaryDilation
+ * @see BallBinaryErosion
+ * @see BinaryErosion
+ * @see net.sci.image.binary.distmap.SaitoToriwakiDistanceTransform2D
+ * @see net.sci.image.binary.distmap.SaitoToriwakiDistanceTransform3D
+ *
+ * @author dlegland
+ */
+public class DistanceMapBinaryErosion extends AlgoStub implements ArrayOperator, AlgoListener
+{
+    // =============================================================
+    // Class variables
+
+    /**
+     * The radius of the disk or ball used for erosion.
+     */
+    double radius;
+
+
+    // =============================================================
+    // Constructor
+
+    /**
+     * Creates a new erosion operator from the radius of the disk or ball.
+     *
+     * @param radius
+     *            the radius of the disk or ball, in elements
+     */
+    public DistanceMapBinaryErosion(double radius)
+    {
+        if (radius <= 0)
+        {
+            throw new IllegalArgumentException("Requires a positive radius");
+        }
+        this.radius = radius;
+    }
+
+
+    // =============================================================
+    // Computation methods
+
+    /**
+     * Performs morphological erosion on a 2D binary array.
+     *
+     * @see #processBinary3d(BinaryArray3D)
+     *
+     * @param array
+     *            the array on which erosion should be applied
+     * @return the result of erosion as a new array
+     */
+    public BinaryArray2D processBinary2d(BinaryArray2D array)
+    {
+        // array dimensions
+        int sizeX = array.size(0);
+        int sizeY = array.size(1);
+
+        // create result array
+        BinaryArray2D res = BinaryArray2D.create(sizeX, sizeY);
+
+        // the distance map of a full array contains only values larger than
+        // the sum of array sizes, that can not be compared to large radius
+        double threshold = DistanceMapBinaryDilation.distanceThreshold(this.radius);
+        if (threshold >= sizeX + sizeY && array.trueElementCount() == array.elementCount())
+        {
+            res.fill(true);
+            return res;
+        }
+
+        // compute distance to nearest background element
+        fireStatusChanged(this, "Compute distance map");
+        SaitoToriwakiDistanceTransform2D algo = new SaitoToriwakiDistanceTransform2D();
+        algo.setMaxDistance(threshold);
+        algo.addAlgoListener(this);
+        ScalarArray2D<?> distMap = algo.process2d(array);
+
+        // keep elements far from background
+        fireStatusChanged(this, "Threshold distance map");
+        for (int y = 0; y < sizeY; y++)
+        {
+            fireProgressChanged(this, y, sizeY);
+            for (int x = 0; x < sizeX; x++)
+            {
+                if (distMap.getValue(x, y) > threshold)
+                {
+                    res.setBoolean(x, y, true);
+                }
+            }
+        }
+
+        fireProgressChanged(this, 1, 1);
+        return res;
+    }
+
+    /**
+     * Performs morphological erosion on a 3D binary array.
+     *
+     * @see #processBinary2d(BinaryArray2D)
+     *
+     * @param array
+     *            the array on which erosion should be applied
+     * @return the result of erosion as a new array
+     */
+    public BinaryArray3D processBinary3d(BinaryArray3D array)
+    {
+        // array dimensions
+        int sizeX = array.size(0);
+        int sizeY = array.size(1);
+        int sizeZ = array.size(2);
+
+        // create result array
+        BinaryArray3D res = BinaryArray3D.create(sizeX, sizeY, sizeZ);
+
+        // the distance map of a full array contains only values larger than
+        // the sum of array sizes, that can not be compared to large radius
+        double threshold = DistanceMapBinaryDilation.distanceThreshold(this.radius);
+        if (threshold >= sizeX + sizeY + sizeZ && array.trueElementCount() == array.elementCount())
+        {
+            res.fill(true);
+            return res;
+        }
+
+        // compute distance to nearest background element
+        fireStatusChanged(this, "Compute distance map");
+        SaitoToriwakiDistanceTransform3D algo = new SaitoToriwakiDistanceTransform3D();
+        algo.setMaxDistance(threshold);
+        algo.addAlgoListener(this);
+        ScalarArray3D<?> distMap = algo.process3d(array);
+
+        // keep elements far from background
+        fireStatusChanged(this, "Threshold distance map");
+        for (int z = 0; z < sizeZ; z++)
+        {
+            fireProgressChanged(this, z, sizeZ);
+            for (int y = 0; y < sizeY; y++)
+            {
+                for (int x = 0; x < sizeX; x++)
+                {
+                    if (distMap.getValue(x, y, z) > threshold)
+                    {
+                        res.setBoolean(x, y, z, true);
+                    }
+                }
+            }
+        }
+
+        fireProgressChanged(this, 1, 1);
+        return res;
+    }
+
+    public BinaryArray processBinary(BinaryArray array)
+    {
+        // switch to appropriate computing method according to dimensionality
+        int nd = array.dimensionality();
+        return switch (nd)
+        {
+            case 2 -> processBinary2d(BinaryArray2D.wrap(array));
+            case 3 -> processBinary3d(BinaryArray3D.wrap(array));
+            default -> throw new IllegalArgumentException(
+                    "Requires an array of dimensionality 2 or 3, not " + nd);
+        };
+    }
+
+    /**
+     * Default implementation that case the input array to a BinaryArray, and
+     * calls the processBinary method.
+     *
+     * @param array
+     *            the array to process
+     * @throws RuntimeException
+     *             if the input array is not an instance of BinaryArray
+     */
+    @Override
+    public <T> BinaryArray process(Array<T> array)
+    {
+        if (array instanceof BinaryArray)
+        {
+            return processBinary((BinaryArray) array);
+        }
+        else
+        {
+            throw new RuntimeException("Requires an instance of BinaryArray");
+        }
+    }
+
+    @Override
+    public void algoProgressChanged(AlgoEvent evt)
+    {
+        this.fireProgressChanged(evt);
+    }
+
+    @Override
+    public void algoStatusChanged(AlgoEvent evt)
+    {
+        this.fireStatusChanged(evt);
+    }
+}
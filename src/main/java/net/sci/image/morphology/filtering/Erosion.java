@@ -100,9 +100,8 @@ public class Erosion extends MorphologicalFilter
         }
         else if (nd == 3)
         {
-            Strel3D strel3d = Strel3D.wrap(this.strel);
-            strel3d.addAlgoListener(this);
-            return strel3d.erosion(ScalarArray3D.wrapScalar3d(array));
+            Strel3D strel3d = wrapStrel3d();
+            return withExecutionPool(strel3d, s -> s.erosion(ScalarArray3D.wrapScalar3d(array)));
         }
         else
         {
@@ -3,6 +3,7 @@
  */
 package net.sci.image.morphology.filtering;
 
+import net.sci.array.Arrays;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.ScalarArray2D;
 import net.sci.array.numeric.ScalarArray3D;
@@ -85,25 +86,27 @@ public class Gradient extends MorphologicalFilter
 
     private ScalarArray3D<?> processScalar3d(ScalarArray3D<?> array)
     {
-        Strel3D strel3d = Strel3D.wrap(this.strel);
-        strel3d.addAlgoListener(this);
+        Strel3D strel3d = wrapStrel3d();
         
         // First performs elementary operations
-        ScalarArray3D<?> result = strel3d.dilation(array);
-        ScalarArray3D<?> eroded = strel3d.erosion(array);
+        ScalarArray3D<?> result = withExecutionPool(strel3d, s -> s.dilation(array));
+        ScalarArray3D<?> eroded = withExecutionPool(strel3d, s -> s.erosion(array));
         
         // Compute subtraction of result from original array
-        for (int z = 0; z < array.size(2); z++)
+        processTiles(array.size(2), 0, Arrays.supportsConcurrentWrites(result), tile ->
         {
-            for (int y = 0; y < array.size(1); y++)
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                for (int x = 0; x < array.size(0); x++)
+                for (int y = 0; y < array.size(1); y++)
                 {
-                    double val = result.getValue(x, y, z) - eroded.getValue(x, y, z);
-                    result.setValue(x, y, z, val);
+                    for (int x = 0; x < array.size(0); x++)
+                    {
+                        double val = result.getValue(x, y, z) - eroded.getValue(x, y, z);
+                        result.setValue(x, y, z, val);
+                    }
                 }
             }
-        }
+        });
         return result;
     }
     
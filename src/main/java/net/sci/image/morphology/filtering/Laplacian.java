@@ -3,6 +3,7 @@
  */
 package net.sci.image.morphology.filtering;
 
+import net.sci.array.Arrays;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.ScalarArray2D;
 import net.sci.array.numeric.ScalarArray3D;
@@ -87,25 +88,27 @@ public class Laplacian extends MorphologicalFilter
 
     private ScalarArray3D<?> processScalar3d(ScalarArray3D<?> array)
     {
-        Strel3D strel3d = Strel3D.wrap(this.strel);
-        strel3d.addAlgoListener(this);
+        Strel3D strel3d = wrapStrel3d();
         
         // First performs elementary operators
-        ScalarArray3D<?> dil = strel3d.dilation(array);
-        ScalarArray3D<?> ero = strel3d.erosion(array);
+        ScalarArray3D<?> dil = withExecutionPool(strel3d, s -> s.dilation(array));
+        ScalarArray3D<?> ero = withExecutionPool(strel3d, s -> s.erosion(array));
         
         // Compute subtraction of result from original array
-        for (int z = 0; z < array.size(2); z++)
+        processTiles(array.size(2), 0, Arrays.supportsConcurrentWrites(dil), tile ->
         {
-            for (int y = 0; y < array.size(1); y++)
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                for (int x = 0; x < array.size(0); x++)
+                for (int y = 0; y < array.size(1); y++)
                 {
-                    double val = (dil.getValue(x, y, z) + ero.getValue(x, y, z)) / 2 - array.getValue(x, y, z);
-                    dil.setValue(x, y, z, val + this.shift);
+                    for (int x = 0; x < array.size(0); x++)
+                    {
+                        double val = (dil.getValue(x, y, z) + ero.getValue(x, y, z)) / 2 - array.getValue(x, y, z);
+                        dil.setValue(x, y, z, val + this.shift);
+                    }
                 }
             }
-        }
+        });
         
         return dil;
     }
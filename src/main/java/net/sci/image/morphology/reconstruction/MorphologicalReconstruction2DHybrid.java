@@ -6,9 +6,7 @@ package net.sci.image.morphology.reconstruction;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Deque;
 
 import net.sci.algo.AlgoStub;
 import net.sci.array.Arrays;
@@ -16,6 +14,7 @@ import net.sci.array.numeric.ScalarArray2D;
 import net.sci.image.connectivity.Connectivity2D;
 import net.sci.image.morphology.MorphologicalReconstruction;
 import net.sci.image.morphology.MorphologicalReconstruction.Type;
+import net.sci.util.IntQueue;
 
 /**
  * <p>
@@ -25,6 +24,11 @@ import net.sci.image.morphology.MorphologicalReconstruction.Type;
  * queue.
  * </p>
  * 
+ * <p>
+ * The queue stores the coordinates of the positions within a primitive ring
+ * buffer, avoiding to create an object for each queued position.
+ * </p>
+ * 
  * @author David Legland
  * @see MorphologicalReconstruction3DHybrid
  *
@@ -237,7 +241,7 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
         fireStatusChanged(this, "Morpho. Rec. Backward");
         
         // backward iteration
-        Deque<int[]> queue;
+        IntQueue queue;
         if (connectivity == Connectivity2D.C4)
         {
             queue = backwardScanC4(result, mask);
@@ -348,7 +352,7 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
      * Update result image using pixels in the lower-right neighborhood, using
      * the 4-adjacency.
      */
-    private Deque<int[]> backwardScanC4(ScalarArray2D<?> result, ScalarArray2D<?> mask)
+    private IntQueue backwardScanC4(ScalarArray2D<?> result, ScalarArray2D<?> mask)
     {
         int[][] offsets = new int[][] { { +1, 0}, { 0, +1} };
         
@@ -356,7 +360,7 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
         int sizeX = result.size(0);
         int sizeY = result.size(1);
         
-        Deque<int[]> queue = new ArrayDeque<int[]>();
+        IntQueue queue = new IntQueue();
         
         fireProgressChanged(this, 0, sizeY);
         
@@ -402,7 +406,8 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
                         // add to queue only if value is strictly greater
                         if (neighborValue > result.getValue(x2, y2) * sign)
                         {
-                            queue.add(new int[] { x2, y2});
+                            queue.add(x2);
+                            queue.add(y2);
                         }
                     }
                 }
@@ -418,7 +423,7 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
      * Update result image using pixels in the lower-right neighborhood, using
      * the 8-adjacency.
      */
-    private Deque<int[]> backwardScanC8(ScalarArray2D<?> result, ScalarArray2D<?> mask)
+    private IntQueue backwardScanC8(ScalarArray2D<?> result, ScalarArray2D<?> mask)
     {
         int[][] offsets = new int[][] { { +1, +1 }, { 0, +1 }, { -1, +1 }, { +1, 0 }, };
         
@@ -426,7 +431,7 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
         int sizeX = result.size(0);
         int sizeY = result.size(1);
         
-        Deque<int[]> queue = new ArrayDeque<int[]>();
+        IntQueue queue = new IntQueue();
         
         fireProgressChanged(this, 0, sizeY);
         
@@ -476,7 +481,8 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
                         // add to queue only if value is strictly greater
                         if (neighborValue > result.getValue(x2, y2) * sign)
                         {
-                            queue.add(new int[] { x2, y2});
+                            queue.add(x2);
+                            queue.add(y2);
                         }
                     }
                 }
@@ -491,7 +497,7 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
     /**
      * Update result image using next pixel in the queue, using the 4-adjacency.
      */
-    private void processQueueC4(ScalarArray2D<?> result, Deque<int[]> queue, ScalarArray2D<?> mask)
+    private void processQueueC4(ScalarArray2D<?> result, IntQueue queue, ScalarArray2D<?> mask)
     {
         Collection<int[]> offsets = Connectivity2D.C4.offsets();
         
@@ -504,9 +510,8 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
         
         while (!queue.isEmpty())
         {
-            int[] p = queue.removeFirst();
-            int x = p[0];
-            int y = p[1];
+            int x = queue.remove();
+            int y = queue.remove();
             value = result.getValue(x, y) * sign;
             
             // compare with each one of the four neighbors
@@ -538,7 +543,8 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
                     // add to queue only if value is strictly greater
                     if (neighborValue > result.getValue(x2, y2) * sign)
                     {
-                        queue.add(new int[] { x2, y2});
+                        queue.add(x2);
+                        queue.add(y2);
                     }
                 }
             }
@@ -548,7 +554,7 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
     /**
      * Update result image using next pixel in the queue, using the 8-adjacency.
      */
-    private void processQueueC8(ScalarArray2D<?> result, Deque<int[]> queue, ScalarArray2D<?> mask)
+    private void processQueueC8(ScalarArray2D<?> result, IntQueue queue, ScalarArray2D<?> mask)
     {
         Collection<int[]> offsets = Connectivity2D.C8.offsets();
         
@@ -564,9 +570,8 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
         
         while (!queue.isEmpty())
         {
-            int[] p = queue.removeFirst();
-            int x = p[0];
-            int y = p[1];
+            int x = queue.remove();
+            int y = queue.remove();
             value = result.getValue(x, y) * sign;
             
             // compute bounds of neighborhood
@@ -607,7 +612,8 @@ public class MorphologicalReconstruction2DHybrid extends AlgoStub implements Mor
                     // add to queue only if value is strictly greater
                     if (neighborValue > result.getValue(x2, y2) * sign)
                     {
-                        queue.add(new int[] { x2, y2});
+                        queue.add(x2);
+                        queue.add(y2);
                     }
                 }
             }
@@ -10,10 +10,9 @@ import net.sci.array.Arrays;
 import net.sci.array.numeric.ScalarArray3D;
 import net.sci.image.connectivity.Connectivity3D;
 import net.sci.image.morphology.MorphologicalReconstruction;
+import net.sci.util.IntQueue;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Deque;
 
 /**
  * <p>
@@ -27,6 +26,11 @@ import java.util.Deque;
  * the queue. It is intended to work on 3D images, using either the 6 or 26 connectivity.
  * </p>
  * 
+ * <p>
+ * The queue stores the coordinates of the voxels within a primitive ring
+ * buffer, avoiding to create an object for each queued voxel.
+ * </p>
+ * 
  * @author David Legland
  * @see MorphologicalReconstruction2DHybrid
  */
@@ -244,7 +248,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
         
         // Display current status
         fireStatusChanged(this, "Backward iteration");
-        Deque<int[]> queue = backwardScanInitQueue(result, mask);
+        IntQueue queue = backwardScanInitQueue(result, mask);
         
         // Display current status
         fireStatusChanged(this, "Process queue");
@@ -364,7 +368,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
         fireProgressChanged(this, sizeZ, sizeZ);
     }
     
-    private Deque<int[]> backwardScanInitQueue(ScalarArray3D<?> result, ScalarArray3D<?> mask)
+    private IntQueue backwardScanInitQueue(ScalarArray3D<?> result, ScalarArray3D<?> mask)
     {
         if (this.connectivity == Connectivity3D.C6)
         {
@@ -380,7 +384,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
      * Update result image using pixels in the lower right neighborhood, using
      * the 6-adjacency.
      */
-    private Deque<int[]> backwardScanInitQueueC6(ScalarArray3D<?> result, ScalarArray3D<?> mask)
+    private IntQueue backwardScanInitQueueC6(ScalarArray3D<?> result, ScalarArray3D<?> mask)
     {
         int[][] offsets = new int[][] { { +1, 0, 0 }, { 0, +1, 0 }, { 0, 0, +1 } };
         
@@ -392,7 +396,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
         // the maximal value around current pixel
         double value;
         
-        ArrayDeque<int[]> queue = new ArrayDeque<int[]>();
+        IntQueue queue = new IntQueue();
         
         // Iterate over voxels
         for (int z = sizeZ - 1; z >= 0; z--)
@@ -436,7 +440,9 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
                             // add to queue only if value is strictly greater
                             if (neighborValue > result.getValue(x2, y2, z2) * sign)
                             {
-                                queue.add(new int[] { x2, y2, z2});
+                                queue.add(x2);
+                                queue.add(y2);
+                                queue.add(z2);
                             }
                         }
                     }
@@ -452,7 +458,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
      * Update result image using pixels in the upper left neighborhood, using
      * the 26-adjacency.
      */
-    private Deque<int[]> backwardScanInitQueueC26(ScalarArray3D<?> result, ScalarArray3D<?> mask)
+    private IntQueue backwardScanInitQueueC26(ScalarArray3D<?> result, ScalarArray3D<?> mask)
     {
         int[][] offsets = new int[][] { 
             { +1, +1, +1 }, { 0, +1, +1 }, { -1, +1, +1 }, 
@@ -470,7 +476,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
         // the maximal value around current pixel
         double value;
         
-        ArrayDeque<int[]> queue = new ArrayDeque<int[]>();
+        IntQueue queue = new IntQueue();
         
         // Iterate over voxels
         for (int z = sizeZ - 1; z >= 0; z--)
@@ -523,7 +529,9 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
                             // add to queue only if value is strictly greater
                             if (neighborValue > result.getValue(x2, y2, z2) * sign)
                             {
-                                queue.add(new int[] { x2, y2, z2});
+                                queue.add(x2);
+                                queue.add(y2);
+                                queue.add(z2);
                             }
                         }
                     }
@@ -535,7 +543,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
         return queue;
     }
     
-    private void processQueue(ScalarArray3D<?> result, Deque<int[]> queue, ScalarArray3D<?> mask)
+    private void processQueue(ScalarArray3D<?> result, IntQueue queue, ScalarArray3D<?> mask)
     {
         if (this.connectivity == Connectivity3D.C6)
         {
@@ -550,7 +558,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
     /**
      * Update result image using next pixel in the queue, using the 6-adjacency.
      */
-    private void processQueueC6(ScalarArray3D<?> result, Deque<int[]> queue, ScalarArray3D<?> mask)
+    private void processQueueC6(ScalarArray3D<?> result, IntQueue queue, ScalarArray3D<?> mask)
     {
         Collection<int[]> offsets = Connectivity3D.C6.offsets();
         
@@ -564,10 +572,9 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
         
         while (!queue.isEmpty())
         {
-            int[] p = queue.removeFirst();
-            int x = p[0];
-            int y = p[1];
-            int z = p[2];
+            int x = queue.remove();
+            int y = queue.remove();
+            int z = queue.remove();
             value = result.getValue(x, y, z) * this.sign;
             
             // compare with each one of the neighbors
@@ -602,7 +609,9 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
                     // add to queue only if value is strictly greater
                     if (neighborValue > result.getValue(x2, y2, z2) * sign)
                     {
-                        queue.add(new int[] { x2, y2, z2});
+                        queue.add(x2);
+                        queue.add(y2);
+                        queue.add(z2);
                     }
                 }
             }
@@ -613,7 +622,7 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
      * Update result image using next pixel in the queue, using the
      * 26-adjacency.
      */
-    private void processQueueC26(ScalarArray3D<?> result, Deque<int[]> queue, ScalarArray3D<?> mask)
+    private void processQueueC26(ScalarArray3D<?> result, IntQueue queue, ScalarArray3D<?> mask)
     {
         Collection<int[]> offsets = Connectivity3D.C26.offsets();
         
@@ -627,10 +636,9 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
         
         while (!queue.isEmpty())
         {
-            int[] p = queue.removeFirst();
-            int x = p[0];
-            int y = p[1];
-            int z = p[2];
+            int x = queue.remove();
+            int y = queue.remove();
+            int z = queue.remove();
             value = result.getValue(x, y, z) * this.sign;
             
             // compute bounds of neighborhood
@@ -677,7 +685,9 @@ public class MorphologicalReconstruction3DHybrid extends AlgoStub implements Mor
                     // add to queue only if value is strictly greater
                     if (neighborValue > result.getValue(x2, y2, z2) * sign)
                     {
-                        queue.add(new int[] { x2, y2, z2});
+                        queue.add(x2);
+                        queue.add(y2);
+                        queue.add(z2);
                     }
                 }
             }
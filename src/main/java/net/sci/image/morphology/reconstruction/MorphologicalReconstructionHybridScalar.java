@@ -6,10 +6,8 @@ package net.sci.image.morphology.reconstruction;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Deque;
 
 import net.sci.algo.AlgoStub;
 import net.sci.array.Array;
@@ -21,6 +19,7 @@ import net.sci.array.numeric.ScalarArray;
 import net.sci.image.connectivity.Connectivity;
 import net.sci.image.morphology.MorphologicalReconstruction;
 import net.sci.image.morphology.MorphologicalReconstruction.Type;
+import net.sci.util.IntQueue;
 
 /**
  * <p>
@@ -37,6 +36,9 @@ import net.sci.image.morphology.MorphologicalReconstruction.Type;
  * <li>the elements in the queue are updated based on all neighbors, and adding
  * position of neighbors to the queue when appropriate.</li>
  * </ol>
+ * The coordinates of the queued positions are stored within a primitive ring
+ * buffer, and the coordinates of the neighbors are computed within a buffer
+ * array, avoiding to create an array for each visited position.
  * </p>
  * 
  * @see MorphologicalReconstruction2DHybrid
@@ -298,7 +300,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
         forwardScan_float(result, mask, conn);
 
         fireStatusChanged(this, "Morpho. Rec. Backward");
-        Deque<int[]> queue = backwardScan_float(result, mask, conn);
+        IntQueue queue = backwardScan_float(result, mask, conn);
         
         fireStatusChanged(this, "Morpho. Rec. Process Queue");
         processQueue_float(result, queue, mask, conn);
@@ -320,7 +322,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
         forwardScan_int(result, mask, conn);
 
         fireStatusChanged(this, "Morpho. Rec. Backward");
-        Deque<int[]> queue = backwardScan_int(result, mask, conn);
+        IntQueue queue = backwardScan_int(result, mask, conn);
         
         fireStatusChanged(this, "Morpho. Rec. Process Queue");
         processQueue_int(result, queue, mask, conn);
@@ -334,6 +336,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
     {
         // initializations
         int[] dims = mask.size();
+        int[] pos2 = new int[dims.length];
         int sign = reconstructionType.getSign();
         Collection<int[]> forwardOffsets = forwardOffsets(conn);
         
@@ -345,7 +348,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
             
             for (int[] offset : forwardOffsets)
             {
-                int[] pos2 = addCoords(pos, offset);
+                addCoords(pos, offset, pos2);
                 
                 // do not compare with neighbors outside bounds
                 if(isWithinBounds(pos2, dims))
@@ -370,6 +373,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
     {
         // initializations
         int[] dims = mask.size();
+        int[] pos2 = new int[dims.length];
         int sign = reconstructionType.getSign();
         Collection<int[]> forwardOffsets = forwardOffsets(conn);
         
@@ -381,7 +385,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
             
             for (int[] offset : forwardOffsets)
             {
-                int[] pos2 = addCoords(pos, offset);
+                addCoords(pos, offset, pos2);
                 
                 // do not compare with neighbors outside bounds
                 if(isWithinBounds(pos2, dims))
@@ -403,15 +407,16 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
      * Update result image using pixels in the lower-right neighborhood, and
      * returns the priority queue of positions to update.
      */
-    private Deque<int[]> backwardScan_float(ScalarArray<?> result, ScalarArray<?> mask, Connectivity conn) 
+    private IntQueue backwardScan_float(ScalarArray<?> result, ScalarArray<?> mask, Connectivity conn) 
     {
         // initializations
         int[] dims = mask.size();
+        int[] pos2 = new int[dims.length];
         int sign = reconstructionType.getSign();
         Collection<int[]> backwardOffsets = backwardOffsets(conn);
         
         // create the queue containing the positions that need update
-        Deque<int[]> queue = new ArrayDeque<>();
+        IntQueue queue = new IntQueue();
         
         // iterate on positions of target array
         ReverseOrderPositionIterator iter = new ReverseOrderPositionIterator(dims);
@@ -424,7 +429,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
             
             for (int[] offset : backwardOffsets)
             {
-                int[] pos2 = addCoords(pos, offset);
+                addCoords(pos, offset, pos2);
                 
                 // do not compare with neighbors outside bounds
                 if(isWithinBounds(pos2, dims))
@@ -448,7 +453,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
             // eventually add lower-right neighbors to queue
             for (int[] offset : backwardOffsets)
             {
-                int[] pos2 = addCoords(pos, offset);
+                addCoords(pos, offset, pos2);
                 
                 // check bounds
                 if(!isWithinBounds(pos2, dims))
@@ -463,7 +468,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
                 // Update result value only if value is strictly greater
                 if (value > result.getValue(pos2) * sign) 
                 {
-                    queue.add(pos2);
+                    addPosition(queue, pos2);
                 }
             }
         }
@@ -475,15 +480,16 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
      * Update result image using pixels in the lower-right neighborhood, and
      * returns the priority queue of positions to update.
      */
-    private Deque<int[]> backwardScan_int(IntArray<?> result, IntArray<?> mask, Connectivity conn) 
+    private IntQueue backwardScan_int(IntArray<?> result, IntArray<?> mask, Connectivity conn) 
     {
         // initializations
         int[] dims = mask.size();
+        int[] pos2 = new int[dims.length];
         int sign = reconstructionType.getSign();
         Collection<int[]> backwardOffsets = backwardOffsets(conn);
         
         // create the queue containing the positions that need update
-        Deque<int[]> queue = new ArrayDeque<>();
+        IntQueue queue = new IntQueue();
         
         // iterate on positions of target array
         ReverseOrderPositionIterator iter = new ReverseOrderPositionIterator(dims);
@@ -496,7 +502,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
             
             for (int[] offset : backwardOffsets)
             {
-                int[] pos2 = addCoords(pos, offset);
+                addCoords(pos, offset, pos2);
                 
                 // do not compare with neighbors outside bounds
                 if(isWithinBounds(pos2, dims))
@@ -520,7 +526,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
             // eventually add lower-right neighbors to queue
             for (int[] offset : backwardOffsets)
             {
-                int[] pos2 = addCoords(pos, offset);
+                addCoords(pos, offset, pos2);
                 
                 // check bounds
                 if(!isWithinBounds(pos2, dims))
@@ -535,7 +541,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
                 // Update result value only if value is strictly greater
                 if (value > result.getInt(pos2) * sign) 
                 {
-                    queue.add(pos2);
+                    addPosition(queue, pos2);
                 }
             }
         }
@@ -543,22 +549,26 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
         return queue;
     }
     
-    private void processQueue_float(ScalarArray<?> result, Deque<int[]> queue, ScalarArray<?> mask, Connectivity conn)
+    private void processQueue_float(ScalarArray<?> result, IntQueue queue, ScalarArray<?> mask, Connectivity conn)
     {
         int sign = reconstructionType.getSign();
         int[] dims = mask.size();
+        int[] pos2 = new int[dims.length];
         
         // the maximal value around current pixel
         double value;
         
+        Collection<int[]> offsets = conn.offsets();
+        int[] pos = new int[dims.length];
         while (!queue.isEmpty())
         {
-            int[] pos = queue.removeFirst();
+            removePosition(queue, pos);
             value = result.getValue(pos) * sign;
             
             // compare with each one of the neighbors
-            for (int[] pos2 : conn.neighbors(pos))
+            for (int[] offset : offsets)
             {
+                addCoords(pos, offset, pos2);
                 if(isWithinBounds(pos2, dims))
                 {
                     value = max(value, result.getValue(pos2) * sign);
@@ -576,8 +586,9 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
             result.setValue(pos, value * sign);
             
             // Eventually add each neighbor
-            for (int[] pos2 : conn.neighbors(pos))
+            for (int[] offset : offsets)
             {
+                addCoords(pos, offset, pos2);
                 if(!isWithinBounds(pos2, dims))
                 {
                     continue;
@@ -590,28 +601,32 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
                 // Update result value only if value is strictly greater
                 if (neighborValue > result.getValue(pos2) * sign)
                 {
-                    queue.add(pos2);
+                    addPosition(queue, pos2);
                 }
             }
         }
     }
     
-    private void processQueue_int(IntArray<?> result, Deque<int[]> queue, IntArray<?> mask, Connectivity conn)
+    private void processQueue_int(IntArray<?> result, IntQueue queue, IntArray<?> mask, Connectivity conn)
     {
         int sign = reconstructionType.getSign();
         int[] dims = mask.size();
+        int[] pos2 = new int[dims.length];
         
         // the maximal value around current pixel
         int value;
         
+        Collection<int[]> offsets = conn.offsets();
+        int[] pos = new int[dims.length];
         while (!queue.isEmpty())
         {
-            int[] pos = queue.removeFirst();
+            removePosition(queue, pos);
             value = result.getInt(pos) * sign;
             
             // compare with each one of the neighbors
-            for (int[] pos2 : conn.neighbors(pos))
+            for (int[] offset : offsets)
             {
+                addCoords(pos, offset, pos2);
                 if(isWithinBounds(pos2, dims))
                 {
                     value = max(value, result.getInt(pos2) * sign);
@@ -629,8 +644,9 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
             result.setInt(pos, value * sign);
             
             // Eventually add each neighbor
-            for (int[] pos2 : conn.neighbors(pos))
+            for (int[] offset : offsets)
             {
+                addCoords(pos, offset, pos2);
                 if(!isWithinBounds(pos2, dims))
                 {
                     continue;
@@ -643,7 +659,7 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
                 // Update result value only if value is strictly greater
                 if (neighborValue > result.getInt(pos2) * sign)
                 {
-                    queue.add(pos2);
+                    addPosition(queue, pos2);
                 }
             }
         }
@@ -701,15 +717,28 @@ public class MorphologicalReconstructionHybridScalar extends AlgoStub
         return res;
     }
 
-    private static final int[] addCoords(int[] pos, int[] offset)
+    private static final void addCoords(int[] pos, int[] offset, int[] res)
     {
-        int nd = pos.length;
-        int[] res = new int[nd];
-        for (int d = 0; d < nd; d++)
+        for (int d = 0; d < pos.length; d++)
         {
             res[d] = pos[d] + offset[d];
         }
-        return res;
+    }
+    
+    private static final void addPosition(IntQueue queue, int[] pos)
+    {
+        for (int d = 0; d < pos.length; d++)
+        {
+            queue.add(pos[d]);
+        }
+    }
+    
+    private static final void removePosition(IntQueue queue, int[] pos)
+    {
+        for (int d = 0; d < pos.length; d++)
+        {
+            pos[d] = queue.remove();
+        }
     }
     
     private static final boolean isWithinBounds(int[] pos, int[] dims)
@@ -136,6 +136,7 @@ public abstract class AbstractSeparableStrel3D extends AlgoStub implements Separ
     
     private void runDilation(ScalarArray3D<?> array, InPlaceStrel3D strel)
     {
+        shareExecutionPool(strel);
         strel.addAlgoListener(this);
         strel.inPlaceDilation3d(array);
         strel.removeAlgoListener(this);
@@ -143,11 +144,25 @@ public abstract class AbstractSeparableStrel3D extends AlgoStub implements Separ
     
     private void runErosion(ScalarArray3D<?> array, InPlaceStrel3D strel)
     {
+        shareExecutionPool(strel);
         strel.addAlgoListener(this);
         strel.inPlaceErosion3d(array);
         strel.removeAlgoListener(this);
     }
     
+    /**
+     * Propagates the execution pool of this structuring element to one of the
+     * structuring elements of its decomposition, so that the lines can be
+     * processed in parallel.
+     */
+    private void shareExecutionPool(InPlaceStrel3D strel)
+    {
+        if (this.getExecutionPool() != null && strel instanceof AlgoStub algo)
+        {
+            algo.setExecutionPool(this.getExecutionPool());
+        }
+    }
+    
     private String createStatusMessage(String opName, int i, int n)
     {
         return opName + " " + i + "/" + n;
@@ -3,6 +3,7 @@
  */
 package net.sci.image.morphology.strel;
 
+import net.sci.array.Arrays;
 import net.sci.array.numeric.ScalarArray3D;
 
 /**
@@ -10,6 +11,9 @@ import net.sci.array.numeric.ScalarArray3D;
  * in-place strel. The neighborhood of the resulting structuring element is
  * entirely located in the current slice.
  * 
+ * The slices are processed independently, in parallel if an execution pool
+ * is set up.
+ * 
  * @author dlegland
  */
 public class InPlaceStrel2DWrapper extends Strel2DWrapper implements InPlaceStrel3D
@@ -23,13 +27,15 @@ public class InPlaceStrel2DWrapper extends Strel2DWrapper implements InPlaceStre
     @Override
     public void inPlaceDilation3d(ScalarArray3D<?> array)
     {
-        int sizeZ = array.size(2);
-        for (int z = 0; z < sizeZ; z++)
+        InPlaceStrel2D strel = (InPlaceStrel2D) this.strel2d;
+        processTiles(array.size(2), 0, Arrays.supportsConcurrentWrites(array), tile ->
         {
-            // perform operation on current slice
-            this.fireProgressChanged(this, z, sizeZ);
-            ((InPlaceStrel2D) this.strel2d).inPlaceDilation2d(array.slice(z));
-        }
+            for (int z = tile.start(); z < tile.end(); z++)
+            {
+                // perform operation on current slice
+                strel.inPlaceDilation2d(array.slice(z));
+            }
+        });
         this.fireProgressChanged(this, 1, 1);
     }
 
@@ -37,13 +43,15 @@ public class InPlaceStrel2DWrapper extends Strel2DWrapper implements InPlaceStre
     @Override
     public void inPlaceErosion3d(ScalarArray3D<?> array)
     {
-        int sizeZ = array.size(2);
-        for (int z = 0; z < sizeZ; z++)
+        InPlaceStrel2D strel = (InPlaceStrel2D) this.strel2d;
+        processTiles(array.size(2), 0, Arrays.supportsConcurrentWrites(array), tile ->
         {
-            // perform operation on current slice
-            this.fireProgressChanged(this, z, sizeZ);
-            ((InPlaceStrel2D) this.strel2d).inPlaceErosion2d(array.slice(z));
-        }
+            for (int z = tile.start(); z < tile.end(); z++)
+            {
+                // perform operation on current slice
+                strel.inPlaceErosion2d(array.slice(z));
+            }
+        });
         this.fireProgressChanged(this, 1, 1);
     }
 
@@ -120,153 +120,10 @@ public class LinearDiagDownStrel extends AlgoStub implements InPlaceStrel2D
             return;
         }
 
-        if (array instanceof IntArray2D<?>)
-            inPlaceDilationInt((IntArray2D<?>) array);
+        if (array instanceof IntArray2D<?> intArray)
+            inPlaceFilterInt(intArray, LocalExtremum.Type.MAXIMUM, intArray.typeMin().intValue());
         else
-            inPlaceDilationFloat(array);
-    }
-
-    private void inPlaceDilationInt(IntArray2D<?> array)
-    {
-        // get image size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-
-        // retrieve minimum value allowed within array
-        final int defaultValue = array.typeMin().intValue();
-        
-        // create local histogram instance
-        LocalExtremumBufferInt localMax = new LocalExtremumBufferInt(size,
-                LocalExtremum.Type.MAXIMUM);
-
-        // Consider all diagonal lines with direction vector (+1,+1) that
-        // intersect image.
-        // Diagonal lines are identified by their intersection "d" with axis
-        // (-1,+1)
-        // Need to identify bounds for d
-        final int dmin = -(sizeX - 1);
-        final int dmax = sizeY - 1;
-
-        // Iterate on diagonal lines
-        for (int d = dmin; d < dmax; d++)
-        {
-            fireProgressChanged(this, d - dmin, dmax - dmin);
-
-            // reset local histogram
-            localMax.fill(defaultValue);
-
-            int xmin = Math.max(0, -d);
-            int xmax = Math.min(sizeX, sizeY - d);
-            int ymin = Math.max(0, d);
-            int ymax = Math.min(sizeY, d - sizeX);
-
-            int tmin = Math.max(xmin, d - ymin);
-            int tmax = Math.min(xmax, d - ymax);
-
-            // position on the line
-            int t = tmin;
-
-            // init local histogram image values after current pos
-            while (t < Math.min(tmin + this.offset, tmax))
-            {
-                localMax.add(array.getInt(t, t + d));
-                t++;
-            }
-
-            // process position that do not touch lower-right image boundary
-            while (t < tmax)
-            {
-                localMax.add(array.getInt(t, t + d));
-                int t2 = t - this.offset;
-                array.setInt(t2, t2 + d, localMax.getMax());
-                t++;
-            }
-
-            // process pixels at the end of the line
-            // and that do not touch the upper left image boundary
-            while (t < tmax + this.offset)
-            {
-                localMax.add(defaultValue);
-                int x = t - this.offset;
-                int y = t + d - this.offset;
-                if (x >= 0 && y >= 0 && x < sizeX && y < sizeY)
-                    array.setInt(x, y, localMax.getMax());
-                t++;
-            }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, dmax - dmin, dmax - dmin);
-    }
-
-    private void inPlaceDilationFloat(ScalarArray2D<?> array)
-    {
-        // get image size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-
-        // Consider all diagonal lines with direction vector (+1,+1) that
-        // intersect image.
-        // Diagonal lines are identified by their intersection "d" with axis
-        // (-1,+1)
-        // Need to identify bounds for d
-        int dmin = -(sizeX - 1);
-        int dmax = sizeY - 1;
-
-        // create local histogram instance
-        LocalExtremumBufferDouble localMax = new LocalExtremumBufferDouble(size,
-                LocalExtremum.Type.MAXIMUM);
-
-        // Iterate on diagonal lines
-        for (int d = dmin; d < dmax; d++)
-        {
-            fireProgressChanged(this, d - dmin, dmax - dmin);
-
-            // reset local histogram
-            localMax.fill(Double.NEGATIVE_INFINITY);
-
-            int xmin = Math.max(0, -d);
-            int xmax = Math.min(sizeX, sizeY - d);
-            int ymin = Math.max(0, d);
-            int ymax = Math.min(sizeY, d - sizeX);
-
-            int tmin = Math.max(xmin, d - ymin);
-            int tmax = Math.min(xmax, d - ymax);
-
-            // position on the line
-            int t = tmin;
-
-            // init local histogram image values after current pos
-            while (t < Math.min(tmin + this.offset, tmax))
-            {
-                localMax.add(array.getValue(t, t + d));
-                t++;
-            }
-
-            // process position that do not touch lower-right image boundary
-            while (t < tmax)
-            {
-                localMax.add(array.getValue(t, t + d));
-                int t2 = t - this.offset;
-                array.setValue(t2, t2 + d, localMax.getMax());
-                t++;
-            }
-
-            // process pixels at the end of the line
-            // and that do not touch the upper left image boundary
-            while (t < tmax + this.offset)
-            {
-                localMax.add(Double.NEGATIVE_INFINITY);
-                int x = t - this.offset;
-                int y = t + d - this.offset;
-                if (x >= 0 && y >= 0 && x < sizeX && y < sizeY)
-                    array.setValue(x, y, localMax.getMax());
-                t++;
-            }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, dmax - dmin, dmax - dmin);
+            inPlaceFilterFloat(array, LocalExtremum.Type.MAXIMUM, Double.NEGATIVE_INFINITY);
     }
 
     /*
@@ -285,82 +142,60 @@ public class LinearDiagDownStrel extends AlgoStub implements InPlaceStrel2D
             return;
         }
 
-        if (array instanceof IntArray2D<?>)
-            inPlaceErosionInt((IntArray2D<?>) array);
+        if (array instanceof IntArray2D<?> intArray)
+            inPlaceFilterInt(intArray, LocalExtremum.Type.MINIMUM, intArray.typeMax().intValue());
         else
-            inPlaceErosionFloat(array);
+            inPlaceFilterFloat(array, LocalExtremum.Type.MINIMUM, Double.POSITIVE_INFINITY);
     }
 
-    private void inPlaceErosionInt(IntArray2D<?> array)
+    /**
+     * Replaces each pixel by the extremum of the values within the
+     * structuring element, processing each diagonal line independently.
+     * 
+     * @param array
+     *            the array to process
+     * @param type
+     *            the type of extremum (maximum for dilation, minimum for
+     *            erosion)
+     * @param defaultValue
+     *            the value used for pixels outside of the array
+     */
+    private void inPlaceFilterInt(IntArray2D<?> array, LocalExtremum.Type type, int defaultValue)
     {
-        // retrieve maximum value allowed within array
-        final int defaultValue = array.typeMax().intValue(); 
-
-        // create local histogram instance
-        LocalExtremumBufferInt localMin = new LocalExtremumBufferInt(size,
-                LocalExtremum.Type.MINIMUM);
-
         // get image size
         final int sizeX = array.size(0);
         final int sizeY = array.size(1);
-        
+
+        // create the line filter, and the buffer for the values of a line
+        LocalExtremumLineFilter filter = new LocalExtremumLineFilter(size, type);
+        int[] line = new int[Math.min(sizeX, sizeY)];
+
+        // number of line elements before the reference element
+        final int before = this.size - this.offset - 1;
+
         // Consider all diagonal lines with direction vector (+1,+1) that
         // intersect image.
         // Diagonal lines are identified by their intersection "d" with axis
         // (-1,+1)
-        // Need to identify bounds for d
         final int dmin = -(sizeX - 1);
-        final int dmax = sizeY - 1;
-
-        // compute shifts
-        final int dt0 = this.offset;
+        final int dmax = sizeY;
 
         // Iterate on diagonal lines
         for (int d = dmin; d < dmax; d++)
         {
             fireProgressChanged(this, d - dmin, dmax - dmin);
 
-            // reset local histogram
-            localMin.fill(defaultValue);
-
+            // bounds of the x-coordinates of the line within image
             int xmin = Math.max(0, -d);
             int xmax = Math.min(sizeX, sizeY - d);
-            int ymin = Math.max(0, d);
-            int ymax = Math.min(sizeY, d - sizeX);
-
-            int tmin = Math.max(xmin, d - ymin);
-            int tmax = Math.min(xmax, d - ymax);
-
-            // position on the line
-            int t = tmin;
-
-            // init local histogram image values after current pos
-            while (t < Math.min(tmin + dt0, tmax))
+            for (int x = xmin; x < xmax; x++)
             {
-                localMin.add(array.getInt(t, t + d));
-                t++;
+                line[x - xmin] = array.getInt(x, x + d);
             }
-
-            // process position that do not touch lower-right image boundary
-            while (t < tmax)
+            filter.filter(line, xmax - xmin, before, defaultValue);
+            for (int x = xmin; x < xmax; x++)
             {
-                localMin.add(array.getInt(t, t + d));
-                array.setInt(t - dt0, t + d - dt0, localMin.getMax());
-                t++;
-            }
-
-            // process pixels at the end of the line
-            // and that do not touch the upper left image boundary
-            while (t < tmax + dt0)
-            {
-                localMin.add(defaultValue);
-                int x = t - dt0;
-                int y = t + d - dt0;
-                if (x >= 0 && y >= 0 && x < sizeX && y < sizeY)
-                {
-                    array.setInt(x, y, localMin.getMax());
-                }
-                t++;
+                array.setInt(x, x + d, line[x - xmin]);
             }
         }
 
@@ -368,71 +203,42 @@ public class LinearDiagDownStrel extends AlgoStub implements InPlaceStrel2D
         fireProgressChanged(this, dmax - dmin, dmax - dmin);
     }
 
-    private void inPlaceErosionFloat(ScalarArray2D<?> array)
+    private void inPlaceFilterFloat(ScalarArray2D<?> array, LocalExtremum.Type type, double defaultValue)
     {
         // get image size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
+        final int sizeX = array.size(0);
+        final int sizeY = array.size(1);
+
+        // create the line filter, and the buffer for the values of a line
+        LocalExtremumLineFilter filter = new LocalExtremumLineFilter(size, type);
+        double[] line = new double[Math.min(sizeX, sizeY)];
+
+        // number of line elements before the reference element
+        final int before = this.size - this.offset - 1;
 
         // Consider all diagonal lines with direction vector (+1,+1) that
         // intersect image.
         // Diagonal lines are identified by their intersection "d" with axis
         // (-1,+1)
-        // Need to identify bounds for d
-        int dmin = -(sizeX - 1);
-        int dmax = sizeY - 1;
-
-        // compute shifts
-        int dt0 = this.offset;
-
-        // create local histogram instance
-        LocalExtremumBufferDouble localMin = new LocalExtremumBufferDouble(size,
-                LocalExtremum.Type.MINIMUM);
+        final int dmin = -(sizeX - 1);
+        final int dmax = sizeY;
 
         // Iterate on diagonal lines
         for (int d = dmin; d < dmax; d++)
         {
             fireProgressChanged(this, d - dmin, dmax - dmin);
 
-            // reset local histogram
-            localMin.fill(Double.POSITIVE_INFINITY);
-
+            // bounds of the x-coordinates of the line within image
             int xmin = Math.max(0, -d);
             int xmax = Math.min(sizeX, sizeY - d);
-            int ymin = Math.max(0, d);
-            int ymax = Math.min(sizeY, d - sizeX);
-
-            int tmin = Math.max(xmin, d - ymin);
-            int tmax = Math.min(xmax, d - ymax);
-
-            // position on the line
-            int t = tmin;
-
-            // init local histogram image values after current pos
-            while (t < Math.min(tmin + dt0, tmax))
-            {
-                localMin.add(array.getValue(t, t + d));
-                t++;
-            }
-
-            // process position that do not touch lower-right image boundary
-            while (t < tmax)
+            for (int x = xmin; x < xmax; x++)
             {
-                localMin.add(array.getValue(t, t + d));
-                array.setValue(t - dt0, t + d - dt0, localMin.getMax());
-                t++;
+                line[x - xmin] = array.getValue(x, x + d);
             }
-
-            // process pixels at the end of the line
-            // and that do not touch the upper left image boundary
-            while (t < tmax + dt0)
+            filter.filter(line, xmax - xmin, before, defaultValue);
+            for (int x = xmin; x < xmax; x++)
             {
-                localMin.add(Double.POSITIVE_INFINITY);
-                int x = t - dt0;
-                int y = t + d - dt0;
-                if (x >= 0 && y >= 0 && x < sizeX && y < sizeY)
-                    array.setValue(x, y, localMin.getMax());
-                t++;
+                array.setValue(x, x + d, line[x - xmin]);
             }
         }
 
@@ -117,105 +117,10 @@ public class LinearHorizontalStrel extends AlgoStub implements InPlaceStrel2D
             return;
         }
 
-        if (array instanceof IntArray2D<?>)
-            inPlaceDilationInt((IntArray2D<?>) array);
+        if (array instanceof IntArray2D<?> intArray)
+            inPlaceFilterInt(intArray, LocalExtremum.Type.MAXIMUM, intArray.typeMin().intValue());
         else
-            inPlaceDilationFloat(array);
-    }
-
-    private void inPlaceDilationInt(IntArray2D<?> array)
-    {
-        // retrieve minimum value allowed within array
-        final int defaultValue = array.typeMin().intValue(); 
-
-        // create local histogram instance
-        LocalExtremumBufferInt localMax = new LocalExtremumBufferInt(size,
-                LocalExtremum.Type.MAXIMUM);
-
-        // get image size
-        final int sizeX = array.size(0);
-        final int sizeY = array.size(1);
-        
-        // shifts between reference position and last position
-        final int shift = this.size - this.offset - 1;
-
-        // Iterate on image rows
-        for (int y = 0; y < sizeY; y++)
-        {
-            fireProgressChanged(this, y, sizeY);
-
-            // init local histogram with background values
-            localMax.fill(defaultValue);
-
-            // add neighbor values
-            for (int x = 0; x < Math.min(shift, sizeX); x++)
-            {
-                localMax.add(array.getInt(x, y));
-            }
-
-            // iterate along "middle" values
-            for (int x = 0; x < sizeX - shift; x++)
-            {
-                localMax.add(array.getInt(x + shift, y));
-                array.setInt(x, y, localMax.getMax());
-            }
-
-            // process pixels at the end of the line
-            for (int x = Math.max(0, sizeX - shift); x < sizeX; x++)
-            {
-                localMax.add(defaultValue);
-                array.setInt(x, y, localMax.getMax());
-            }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, sizeY, sizeY);
-    }
-
-    private void inPlaceDilationFloat(ScalarArray2D<?> array)
-    {
-        // get image size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-
-        // shifts between reference position and last position
-        int shift = this.size - this.offset - 1;
-
-        // create local histogram instance
-        LocalExtremumBufferDouble localMax = new LocalExtremumBufferDouble(size,
-                LocalExtremum.Type.MAXIMUM);
-
-        // Iterate on image rows
-        for (int y = 0; y < sizeY; y++)
-        {
-            fireProgressChanged(this, y, sizeY);
-
-            // init local histogram with background values
-            localMax.fill(Double.NEGATIVE_INFINITY);
-
-            // add neighbor values
-            for (int x = 0; x < Math.min(shift, sizeX); x++)
-            {
-                localMax.add(array.getValue(x, y));
-            }
-
-            // iterate along "middle" values
-            for (int x = 0; x < sizeX - shift; x++)
-            {
-                localMax.add(array.getValue(x + shift, y));
-                array.setValue(x, y, localMax.getMax());
-            }
-
-            // process pixels at the end of the line
-            for (int x = Math.max(0, sizeX - shift); x < sizeX; x++)
-            {
-                localMax.add(Double.NEGATIVE_INFINITY);
-                array.setValue(x, y, localMax.getMax());
-            }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, sizeY, sizeY);
+            inPlaceFilterFloat(array, LocalExtremum.Type.MAXIMUM, Double.NEGATIVE_INFINITY);
     }
 
     /*
@@ -232,54 +137,47 @@ public class LinearHorizontalStrel extends AlgoStub implements InPlaceStrel2D
             return;
         }
 
-        if (array instanceof IntArray2D<?>)
-            inPlaceErosionInt((IntArray2D<?>) array);
+        if (array instanceof IntArray2D<?> intArray)
+            inPlaceFilterInt(intArray, LocalExtremum.Type.MINIMUM, intArray.typeMax().intValue());
         else
-            inPlaceErosionFloat(array);
+            inPlaceFilterFloat(array, LocalExtremum.Type.MINIMUM, Double.POSITIVE_INFINITY);
     }
 
-    private void inPlaceErosionInt(IntArray2D<?> array)
+    /**
+     * Replaces each pixel by the extremum of the values within the
+     * structuring element, processing each row independently.
+     * 
+     * @param array
+     *            the array to process
+     * @param type
+     *            the type of extremum (maximum for dilation, minimum for
+     *            erosion)
+     * @param defaultValue
+     *            the value used for pixels outside of the array
+     */
+    private void inPlaceFilterInt(IntArray2D<?> array, LocalExtremum.Type type, int defaultValue)
     {
-        // retrieve maximum value allowed within array
-        final int defaultValue = array.typeMax().intValue(); 
-
-        // create local histogram instance
-        LocalExtremumBufferInt localMin = new LocalExtremumBufferInt(size,
-                LocalExtremum.Type.MINIMUM);
-
         // get image size
         final int sizeX = array.size(0);
         final int sizeY = array.size(1);
         
-        // shifts between reference position and last position
-        final int shift = this.size - this.offset - 1;
+        // create the line filter, and the buffer for the values of a row
+        LocalExtremumLineFilter filter = new LocalExtremumLineFilter(size, type);
+        int[] line = new int[sizeX];
 
         // Iterate on image rows
         for (int y = 0; y < sizeY; y++)
         {
             fireProgressChanged(this, y, sizeY);
 
-            // reset local histogram
-            localMin.fill(defaultValue);
-
-            // init local histogram with neighbor values
-            for (int x = 0; x < Math.min(shift, sizeX); x++)
+            for (int x = 0; x < sizeX; x++)
             {
-                localMin.add(array.getInt(x, y));
+                line[x] = array.getInt(x, y);
             }
-
-            // iterate along "middle" values
-            for (int x = 0; x < sizeX - shift; x++)
+            filter.filter(line, sizeX, this.offset, defaultValue);
+            for (int x = 0; x < sizeX; x++)
             {
-                localMin.add(array.getInt(x + shift, y));
-                array.setInt(x, y, localMin.getMax());
-            }
-
-            // process pixels at the end of the line
-            for (int x = Math.max(0, sizeX - shift); x < sizeX; x++)
-            {
-                localMin.add(defaultValue);
-                array.setInt(x, y, localMin.getMax());
+                array.setInt(x, y, line[x]);
             }
         }
 
@@ -287,45 +185,29 @@ public class LinearHorizontalStrel extends AlgoStub implements InPlaceStrel2D
         fireProgressChanged(this, sizeY, sizeY);
     }
 
-    private void inPlaceErosionFloat(ScalarArray2D<?> array)
+    private void inPlaceFilterFloat(ScalarArray2D<?> array, LocalExtremum.Type type, double defaultValue)
     {
         // get image size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-
-        // shifts between reference position and last position
-        int shift = this.size - this.offset - 1;
-
-        // create local histogram instance
-        LocalExtremumBufferDouble localMin = new LocalExtremumBufferDouble(size,
-                LocalExtremum.Type.MINIMUM);
+        final int sizeX = array.size(0);
+        final int sizeY = array.size(1);
+        
+        // create the line filter, and the buffer for the values of a row
+        LocalExtremumLineFilter filter = new LocalExtremumLineFilter(size, type);
+        double[] line = new double[sizeX];
 
         // Iterate on image rows
         for (int y = 0; y < sizeY; y++)
         {
             fireProgressChanged(this, y, sizeY);
 
-            // reset local histogram
-            localMin.fill(Double.POSITIVE_INFINITY);
-
-            // init local histogram with neighbor values
-            for (int x = 0; x < Math.min(shift, sizeX); x++)
+            for (int x = 0; x < sizeX; x++)
             {
-                localMin.add(array.getValue(x, y));
+                line[x] = array.getValue(x, y);
             }
-
-            // iterate along "middle" values
-            for (int x = 0; x < sizeX - shift; x++)
-            {
-                localMin.add(array.getValue(x + shift, y));
-                array.setValue(x, y, localMin.getMax());
-            }
-
-            // process pixels at the end of the line
-            for (int x = Math.max(0, sizeX - shift); x < sizeX; x++)
+            filter.filter(line, sizeX, this.offset, defaultValue);
+            for (int x = 0; x < sizeX; x++)
             {
-                localMin.add(Double.POSITIVE_INFINITY);
-                array.setValue(x, y, localMin.getMax());
+                array.setValue(x, y, line[x]);
             }
         }
 
@@ -106,9 +106,8 @@ public class LinearVerticalStrel extends AlgoStub implements InPlaceStrel2D
     /*
      * (non-Javadoc)
      * 
-     * @see
-     * net.sci.image.morphology.strel.InPlaceStrel#inPlaceDilation(ij.process.
-     * ScalarArray2D<?>)
+     * @see net.sci.image.morphology.strel.InPlaceStrel#inPlaceDilation(
+     * ScalarArray2D)
      */
     @Override
     public void inPlaceDilation2d(ScalarArray2D<?> array)
@@ -119,113 +118,16 @@ public class LinearVerticalStrel extends AlgoStub implements InPlaceStrel2D
             return;
         }
 
-        if (array instanceof IntArray2D<?>)
-            inPlaceDilationInt((IntArray2D<?>) array);
+        if (array instanceof IntArray2D<?> intArray)
+            inPlaceFilterInt(intArray, LocalExtremum.Type.MAXIMUM, intArray.typeMin().intValue());
         else
-            inPlaceDilationFloat(array);
-    }
-
-    private void inPlaceDilationInt(IntArray2D<?> array)
-    {
-        // retrieve minimum value allowed within array
-        final int defaultValue = array.typeMin().intValue(); 
-
-        // create local histogram instance
-        LocalExtremumBufferInt localMax = new LocalExtremumBufferInt(size,
-                LocalExtremum.Type.MAXIMUM);
-
-        // get image size
-        final int sizeX = array.size(0);
-        final int sizeY = array.size(1);
-        
-        // shifts between reference position and last position
-        final int shift = this.size - this.offset - 1;
-
-        // Iterate on image columns
-        for (int x = 0; x < sizeX; x++)
-        {
-            fireProgressChanged(this, x, sizeX);
-
-            // reset local histogram
-            localMax.fill(defaultValue);
-
-            // init local histogram with neighbor values
-            for (int y = 0; y < Math.min(shift, sizeY); y++)
-            {
-                localMax.add(array.getInt(x, y));
-            }
-
-            // iterate along "middle" values
-            for (int y = 0; y < sizeY - shift; y++)
-            {
-                localMax.add(array.getInt(x, y + shift));
-                array.setInt(x, y, localMax.getMax());
-            }
-
-            // process pixels at the end of the line
-            for (int y = Math.max(0, sizeY - shift); y < sizeY; y++)
-            {
-                localMax.add(defaultValue);
-                array.setInt(x, y, localMax.getMax());
-            }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, sizeX, sizeX);
-    }
-
-    private void inPlaceDilationFloat(ScalarArray2D<?> array)
-    {
-        // get image size
-        int width = array.size(0);
-        int height = array.size(1);
-
-        // shifts between reference position and last position
-        int shift = this.size - this.offset - 1;
-
-        // create local histogram instance
-        LocalExtremumBufferDouble localMax = new LocalExtremumBufferDouble(size,
-                LocalExtremum.Type.MAXIMUM);
-
-        // Iterate on image columns
-        for (int x = 0; x < width; x++)
-        {
-            fireProgressChanged(this, x, width);
-
-            // reset local histogram
-            localMax.fill(Double.NEGATIVE_INFINITY);
-
-            // init local histogram with neighbor values
-            for (int y = 0; y < Math.min(shift, height); y++)
-            {
-                localMax.add(array.getValue(x, y));
-            }
-
-            // iterate along "middle" values
-            for (int y = 0; y < height - shift; y++)
-            {
-                localMax.add(array.getValue(x, y + shift));
-                array.setValue(x, y, localMax.getMax());
-            }
-
-            // process pixels at the end of the line
-            for (int y = Math.max(0, height - shift); y < height; y++)
-            {
-                localMax.add(Double.NEGATIVE_INFINITY);
-                array.setValue(x, y, localMax.getMax());
-            }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, width, width);
+            inPlaceFilterFloat(array, LocalExtremum.Type.MAXIMUM, Double.NEGATIVE_INFINITY);
     }
 
     /*
      * (non-Javadoc)
      * 
-     * @see
-     * net.sci.image.morphology.strel.InPlaceStrel#inPlaceErosion(ij.process.
-     * ScalarArray2D<?>)
+     * @see inra.ijpb.morphology.InPlaceStrel#inPlaceErosion(ScalarArray2D)
      */
     @Override
     public void inPlaceErosion2d(ScalarArray2D<?> array)
@@ -236,54 +138,47 @@ public class LinearVerticalStrel extends AlgoStub implements InPlaceStrel2D
             return;
         }
 
-        if (array instanceof IntArray2D<?>)
-            inPlaceErosionInt((IntArray2D<?>) array);
+        if (array instanceof IntArray2D<?> intArray)
+            inPlaceFilterInt(intArray, LocalExtremum.Type.MINIMUM, intArray.typeMax().intValue());
         else
-            inPlaceErosionFloat(array);
+            inPlaceFilterFloat(array, LocalExtremum.Type.MINIMUM, Double.POSITIVE_INFINITY);
     }
 
-    private void inPlaceErosionInt(IntArray2D<?> array)
+    /**
+     * Replaces each pixel by the extremum of the values within the
+     * structuring element, processing each column independently.
+     * 
+     * @param array
+     *            the array to process
+     * @param type
+     *            the type of extremum (maximum for dilation, minimum for
+     *            erosion)
+     * @param defaultValue
+     *            the value used for pixels outside of the array
+     */
+    private void inPlaceFilterInt(IntArray2D<?> array, LocalExtremum.Type type, int defaultValue)
     {
-        // retrieve maximum value allowed within array
-        final int defaultValue = array.typeMax().intValue(); 
-
-        // create local histogram instance
-        LocalExtremumBufferInt localMin = new LocalExtremumBufferInt(size,
-                LocalExtremum.Type.MINIMUM);
-
         // get image size
         final int sizeX = array.size(0);
         final int sizeY = array.size(1);
         
-        // shifts between reference position and last position
-        final int shift = this.size - this.offset - 1;
+        // create the line filter, and the buffer for the values of a column
+        LocalExtremumLineFilter filter = new LocalExtremumLineFilter(size, type);
+        int[] line = new int[sizeY];
 
         // Iterate on image columns
         for (int x = 0; x < sizeX; x++)
         {
             fireProgressChanged(this, x, sizeX);
 
-            // reset local histogram
-            localMin.fill(defaultValue);
-
-            // init local histogram with neighbor values
-            for (int y = 0; y < Math.min(shift, sizeY); y++)
+            for (int y = 0; y < sizeY; y++)
             {
-                localMin.add(array.getInt(x, y));
+                line[y] = array.getInt(x, y);
             }
-
-            // iterate along "middle" values
-            for (int y = 0; y < sizeY - shift; y++)
-            {
-                localMin.add(array.getInt(x, y + shift));
-                array.setInt(x, y, localMin.getMax());
-            }
-
-            // process pixels at the end of the line
-            for (int y = Math.max(0, sizeY - shift); y < sizeY; y++)
+            filter.filter(line, sizeY, this.offset, defaultValue);
+            for (int y = 0; y < sizeY; y++)
             {
-                localMin.add(defaultValue);
-                array.setInt(x, y, localMin.getMax());
+                array.setInt(x, y, line[y]);
             }
         }
 
@@ -291,50 +186,34 @@ public class LinearVerticalStrel extends AlgoStub implements InPlaceStrel2D
         fireProgressChanged(this, sizeX, sizeX);
     }
 
-    private void inPlaceErosionFloat(ScalarArray2D<?> array)
+    private void inPlaceFilterFloat(ScalarArray2D<?> array, LocalExtremum.Type type, double defaultValue)
     {
         // get image size
-        int width = array.size(0);
-        int height = array.size(1);
-
-        // shifts between reference position and last position
-        int shift = this.size - this.offset - 1;
-
-        // create local histogram instance
-        LocalExtremumBufferDouble localMin = new LocalExtremumBufferDouble(size,
-                LocalExtremum.Type.MINIMUM);
+        final int sizeX = array.size(0);
+        final int sizeY = array.size(1);
+        
+        // create the line filter, and the buffer for the values of a column
+        LocalExtremumLineFilter filter = new LocalExtremumLineFilter(size, type);
+        double[] line = new double[sizeY];
 
         // Iterate on image columns
-        for (int x = 0; x < width; x++)
+        for (int x = 0; x < sizeX; x++)
         {
-            fireProgressChanged(this, x, width);
-
-            // reset local histogram
-            localMin.fill(Double.POSITIVE_INFINITY);
-
-            // init local histogram with neighbor values
-            for (int y = 0; y < Math.min(shift, height); y++)
-            {
-                localMin.add(array.getValue(x, y));
-            }
+            fireProgressChanged(this, x, sizeX);
 
-            // iterate along "middle" values
-            for (int y = 0; y < height - shift; y++)
+            for (int y = 0; y < sizeY; y++)
             {
-                localMin.add(array.getValue(x, y + shift));
-                array.setValue(x, y, localMin.getMax());
+                line[y] = array.getValue(x, y);
             }
-
-            // process pixels at the end of the line
-            for (int y = Math.max(0, height - shift); y < height; y++)
+            filter.filter(line, sizeY, this.offset, defaultValue);
+            for (int y = 0; y < sizeY; y++)
             {
-                localMin.add(Double.POSITIVE_INFINITY);
-                array.setValue(x, y, localMin.getMax());
+                array.setValue(x, y, line[y]);
             }
         }
 
         // clear the progress bar
-        fireProgressChanged(this, width, width);
+        fireProgressChanged(this, sizeX, sizeX);
     }
 
     // ==================================================
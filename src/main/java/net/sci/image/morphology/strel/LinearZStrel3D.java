@@ -4,6 +4,7 @@
 package net.sci.image.morphology.strel;
 
 import net.sci.algo.AlgoStub;
+import net.sci.array.Arrays;
 import net.sci.array.binary.BinaryArray3D;
 import net.sci.array.numeric.ScalarArray3D;
 
@@ -100,103 +101,55 @@ public class LinearZStrel3D extends AlgoStub implements InPlaceStrel3D
     @Override
     public void inPlaceDilation3d(ScalarArray3D<?> array)
     {
-        // get image dimensions
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-        int sizeZ = array.size(2);
-
-        // shifts between reference position and last position
-        int shift = this.size - this.offset - 1;
-
-        // create local histogram instance
-        LocalExtremumBufferDouble localMax = new LocalExtremumBufferDouble(this.size,
-                LocalExtremum.Type.MAXIMUM);
-
-        // Iterate on image z-columns
-        for (int y = 0; y < sizeY; y++)
-        {
-            fireProgressChanged(this, y, sizeY);
-            for (int x = 0; x < sizeX; x++)
-            {
-                // init local histogram with background values
-                localMax.fill(Double.NEGATIVE_INFINITY);
-
-                // add neighbor values
-                for (int z = 0; z < Math.min(shift, sizeZ); z++)
-                {
-                    localMax.add(array.getValue(x, y, z));
-                }
-
-                // iterate along "middle" values
-                for (int z = 0; z < sizeZ - shift; z++)
-                {
-                    localMax.add(array.getValue(x, y, z + shift));
-                    array.setValue(x, y, z, localMax.getMax());
-                }
-
-                // process pixels at the end of the line
-                for (int z = Math.max(0, sizeZ - shift); z < sizeZ; z++)
-                {
-                    localMax.add(Double.NEGATIVE_INFINITY);
-                    array.setValue(x, y, z, localMax.getMax());
-                }
-            }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, sizeY, sizeY);
+        inPlaceFilter(array, LocalExtremum.Type.MAXIMUM, Double.NEGATIVE_INFINITY);
     }
 
     @Override
     public void inPlaceErosion3d(ScalarArray3D<?> array)
+    {
+        inPlaceFilter(array, LocalExtremum.Type.MINIMUM, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Replaces each voxel by the extremum of the values within the
+     * structuring element, processing each z-column independently. The
+     * z-columns are processed in parallel by blocks of y-coordinates if an
+     * execution pool is set up.
+     */
+    private void inPlaceFilter(ScalarArray3D<?> array, LocalExtremum.Type type, double defaultValue)
     {
         // get image dimensions
         int sizeX = array.size(0);
         int sizeY = array.size(1);
         int sizeZ = array.size(2);
 
-        // shifts between reference position and last position
-        int shift = this.size - this.offset - 1;
-
-        // create local histogram instance
-        LocalExtremumBufferDouble localMin = new LocalExtremumBufferDouble(this.size,
-                LocalExtremum.Type.MINIMUM);
-
         // Iterate on image z-columns
-        for (int y = 0; y < sizeY; y++)
+        processTiles(sizeY, 0, Arrays.supportsConcurrentWrites(array), tile ->
         {
-            fireProgressChanged(this, y, sizeY);
-            for (int x = 0; x < sizeX; x++)
-            {
-                // init local histogram with background values
-                localMin.fill(Double.POSITIVE_INFINITY);
-
-                // add neighbor values
-                for (int z = 0; z < Math.min(shift, sizeZ); z++)
-                {
-                    localMin.add(array.getValue(x, y, z));
-                }
-
-                // iterate along "middle" values
-                for (int z = 0; z < sizeZ - shift; z++)
-                {
-                    localMin.add(array.getValue(x, y, z + shift));
-                    array.setValue(x, y, z, localMin.getMax());
-                }
+            // create the line filter, and the buffer for the values of a z-column
+            LocalExtremumLineFilter filter = new LocalExtremumLineFilter(this.size, type);
+            double[] line = new double[sizeZ];
 
-                // process pixels at the end of the line
-                for (int z = Math.max(0, sizeZ - shift); z < sizeZ; z++)
+            for (int y = tile.start(); y < tile.end(); y++)
+            {
+                for (int x = 0; x < sizeX; x++)
                 {
-                    localMin.add(Double.POSITIVE_INFINITY);
-                    array.setValue(x, y, z, localMin.getMax());
+                    for (int z = 0; z < sizeZ; z++)
+                    {
+                        line[z] = array.getValue(x, y, z);
+                    }
+                    filter.filter(line, sizeZ, this.offset, defaultValue);
+                    for (int z = 0; z < sizeZ; z++)
+                    {
+                        array.setValue(x, y, z, line[z]);
+                    }
                 }
             }
-        }
+        });
 
         // clear the progress bar
         fireProgressChanged(this, sizeY, sizeY);
     }
-    
 
     // ==================================================
     // Methods implementing Strel3D
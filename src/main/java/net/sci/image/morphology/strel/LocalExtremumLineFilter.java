@@ -0,0 +1,265 @@
+package net.sci.image.morphology.strel;
+
+/**
+ * Computes the minimum or the maximum values within a sliding window along a
+ * line of values, using the van Herk / Gil-Werman algorithm. Used by the
+ * linear structuring elements for in-place erosions and dilations.
+ *
+ * The line is padded with a constant value, and split into blocks with the
+ * size of the window. For each block, the cumulative extrema from the
+ * beginning and from the end of the block are computed. The extremum within a
+ * window is obtained by combining the suffix extremum at the beginning of the
+ * window with the prefix extremum at the end of the window, as each window
+ * overlaps at most two blocks. This results in three comparisons per value,
+ * whatever the size of the window, whereas the circular buffers of the
+ * LocalExtremumBuffer classes need to rescan the whole window when the
+ * current extremum leaves it.
+ *
+ * The buffers are allocated once and reused for processing successive lines,
+ * so that a filter instance should not be shared between threads.
+ *
+ * @see LocalExtremumBufferInt
+ * @see LocalExtremumBufferDouble
+ * @see LinearHorizontalStrel
+ * @see LinearVerticalStrel
+ *
+ * @author dlegland
+ */
+public class LocalExtremumLineFilter implements LocalExtremum
+{
+    // ==================================================
+    // Class variables
+
+    /**
+     * The number of values within the sliding window.
+     */
+    int size;
+
+    /**
+     * The type of extremum to compute.
+     */
+    LocalExtremum.Type type;
+
+    /**
+     * The padded values, and the prefix and suffix extrema of the blocks, for
+     * integer values.
+     */
+    int[] intValues = new int[0];
+    int[] intPrefix = new int[0];
+    int[] intSuffix = new int[0];
+
+    /**
+     * The padded values, and the prefix and suffix extrema of the blocks, for
+     * floating point values.
+     */
+    double[] doubleValues = new double[0];
+    double[] doublePrefix = new double[0];
+    double[] doubleSuffix = new double[0];
+
+
+    // ==================================================
+    // Constructor
+
+    /**
+     * Creates a new filter from the size of the window and the type of
+     * extremum.
+     *
+     * @param size
+     *            the number of values within the sliding window
+     * @param type
+     *            the type of extremum (maximum or minimum)
+     */
+    public LocalExtremumLineFilter(int size, LocalExtremum.Type type)
+    {
+        if (size < 1)
+        {
+            throw new IllegalArgumentException("Requires a positive size");
+        }
+        this.size = size;
+        this.type = type;
+    }
+
+
+    // ==================================================
+    // Methods
+
+    /**
+     * Replaces each value of the line by the extremum of the values within
+     * the window [i - before ; i - before + size - 1]. Positions outside of
+     * the line are considered to contain the padding value.
+     *
+     * @param values
+     *            the array containing the values of the line, modified by this
+     *            method
+     * @param length
+     *            the number of values within the line
+     * @param before
+     *            the number of positions within the window before the current
+     *            position, between 0 and size-1
+     * @param padValue
+     *            the value of the positions outside of the line
+     */
+    public void filter(int[] values, int length, int before, int padValue)
+    {
+        if (this.size <= 1 || length == 0)
+        {
+            return;
+        }
+
+        // copy values within the padded buffer
+        int n = length + this.size - 1;
+        if (this.intValues.length < n)
+        {
+            this.intValues = new int[n];
+            this.intPrefix = new int[n];
+            this.intSuffix = new int[n];
+        }
+        int[] padded = this.intValues;
+        int[] g = this.intPrefix;
+        int[] h = this.intSuffix;
+        for (int i = 0; i < before; i++)
+        {
+            padded[i] = padValue;
+        }
+        System.arraycopy(values, 0, padded, before, length);
+        for (int i = before + length; i < n; i++)
+        {
+            padded[i] = padValue;
+        }
+
+        final int k = this.size;
+        if (this.type == LocalExtremum.Type.MAXIMUM)
+        {
+            for (int start = 0; start < n; start += k)
+            {
+                int end = Math.min(start + k, n) - 1;
+                g[start] = padded[start];
+                for (int i = start + 1; i <= end; i++)
+                {
+                    g[i] = Math.max(g[i - 1], padded[i]);
+                }
+                h[end] = padded[end];
+                for (int i = end - 1; i >= start; i--)
+                {
+                    h[i] = Math.max(h[i + 1], padded[i]);
+                }
+            }
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = Math.max(h[i], g[i + k - 1]);
+            }
+        }
+        else
+        {
+            for (int start = 0; start < n; start += k)
+            {
+                int end = Math.min(start + k, n) - 1;
+                g[start] = padded[start];
+                for (int i = start + 1; i <= end; i++)
+                {
+                    g[i] = Math.min(g[i - 1], padded[i]);
+                }
+                h[end] = padded[end];
+                for (int i = end - 1; i >= start; i--)
+                {
+                    h[i] = Math.min(h[i + 1], padded[i]);
+                }
+            }
+            for (int i = 0; i < length; i++)
+            {
+                values[i] = Math.min(h[i], g[i + k - 1]);
+            }
+        }
+    }
+
+    /**
+     * Replaces each value of the line by the extremum of the values within
+     * the window [i - before ; i - before + size - 1]. Positions outside of
+     * the line are considered to contain the padding value.
+     *
+     * @param values
+     *            the array containing the values of the line, modified by this
+     *            method
+     * @param length
+     *            the number of values within the line
+     * @param before
+     *            the number of positions within the window before the current
+     *            position, between 0 and size-1
+     * @param padValue
+     *            the value of the positions outside of the line
+     */
+    public void filter(double[] values, int length, int before, double padValue)
+    {
+        if (this.size <= 1 || length == 0)
+        {
+            return;
+        }
+
+        // copy values within the padded buffer
+        int n = length + this.size - 1;
+        if (this.doubleValues.length < n)
+        {
+            this.doubleValues = new double[n];
+            this.doublePrefix = new double[n];
+            this.doubleSuffix = new double[n];
+        }
+        double[] padded = this.doubleValues;
+        double[] g = this.doublePrefix;
+        double[] h = this.doubleSuffix;
+        for (int i = 0; i < before; i++)
+        {
+            padded[i] = padValue;
+        }
+        System.arraycopy(values, 0, padded, before, length);
+        for (int i = before + length; i < n; i++)
+        {
+            padded[i] = padValue;
+        }
+
+        final int k = this.size;
+        if (this.type == LocalExtremum.Type.MAXIMUM)
+        {
+            for (int start = 0; start < n; start += k)
+            {
+                int end = Math.min(start + k, n) - 1;
+                g[start] = padded[start];
+                for (int i = start + 1; i <= end; i++)
+                {
+                    g[i] = padded[i] > g[i - 1] ? padded[i] : g[i - 1];
+                }
+                h[end] = padded[end];
+                for (int i = end - 1; i >= start; i--)
+                {
+                    h[i] = padded[i] > h[i + 1] ? padded[i] : h[i + 1];
+                }
+            }
+            for (int i = 0; i < length; i++)
+            {
+                double v = g[i + k - 1];
+                values[i] = v > h[i] ? v : h[i];
+            }
+        }
+        else
+        {
+            for (int start = 0; start < n; start += k)
+            {
+                int end = Math.min(start + k, n) - 1;
+                g[start] = padded[start];
+                for (int i = start + 1; i <= end; i++)
+                {
+                    g[i] = padded[i] < g[i - 1] ? padded[i] : g[i - 1];
+                }
+                h[end] = padded[end];
+                for (int i = end - 1; i >= start; i--)
+                {
+                    h[i] = padded[i] < h[i + 1] ? padded[i] : h[i + 1];
+                }
+            }
+            for (int i = 0; i < length; i++)
+            {
+                double v = g[i + k - 1];
+                values[i] = v < h[i] ? v : h[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/**
+ *
+ */
+package net.sci.image.morphology.strel;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+import net.sci.array.numeric.ScalarArray;
+
+/**
+ * <p>
+ * Keeps an histogram of integer values within the neighborhood of a position,
+ * by storing the counts of values within an array of integers. Local
+ * Histogram is used by sliding structuring element implementations.
+ * </p>
+ *
+ * <p>
+ * The number of bins is chosen at creation: 256 bins for UInt8 arrays, 65536
+ * bins for UInt16 arrays. Floating point arrays can be processed by replacing
+ * each value by its rank within the sorted distinct values of the array (see
+ * the <code>sortedValues()</code> method). In addition to the count of each
+ * value, the histogram stores the total count within blocks of 256 bins, so
+ * that the extreme values can be recomputed by scanning at most two blocks
+ * and the array of block counts, whatever the number of bins.
+ * </p>
+ *
+ * @see LocalHistogramUInt8
+ * @see SlidingDiskStrel
+ * @see SlidingBallStrel3D
+ *
+ * @author dlegland
+ *
+ */
+public class LocalHistogramInt
+{
+    // ==================================================
+    // Static methods
+
+    /**
+     * Computes the sorted array of the distinct values within a scalar array.
+     * The values of the array can then be converted into integer ranks, that
+     * can be processed by a local histogram.
+     *
+     * @param array
+     *            the array to process
+     * @return the sorted array of distinct values
+     */
+    public static final double[] sortedValues(ScalarArray<?> array)
+    {
+        // retrieve all values
+        double[] values = new double[(int) array.elementCount()];
+        PrimitiveIterator.OfDouble iter = array.valueIterator();
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = iter.nextDouble();
+        }
+        Arrays.sort(values);
+
+        // remove duplicates, in place
+        int count = 0;
+        for (int i = 0; i < values.length; i++)
+        {
+            if (count == 0 || Double.compare(values[i], values[count - 1]) != 0)
+            {
+                values[count++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Returns the rank of a value within the array of sorted distinct values.
+     *
+     * @param sortedValues
+     *            the sorted array of distinct values
+     * @param value
+     *            a value within the array
+     * @return the index of the value within the array
+     */
+    public static final int rank(double[] sortedValues, double value)
+    {
+        int index = Arrays.binarySearch(sortedValues, value);
+        if (index < 0)
+        {
+            throw new IllegalArgumentException("Value " + value + " is not within the array of sorted values");
+        }
+        return index;
+    }
+
+
+    // ==================================================
+    // Class variables
+
+    /**
+     * An array to store the count of each value.
+     */
+    int[] valueCounts;
+
+    /**
+     * The number of values within each block of 256 bins.
+     */
+    int[] blockCounts;
+
+    /**
+     * The current maximum value, updated only when required. All the bins
+     * after the maximum value are empty.
+     */
+    int maxValue = 0;
+
+    /**
+     * The flag indicating that the maximum value needs to be recomputed.
+     */
+    boolean needUpdateMax = false;
+
+    /**
+     * The current minimum value, updated only when required. All the bins
+     * before the minimum value are empty.
+     */
+    int minValue = 0;
+
+    /**
+     * The flag indicating that the minimum value needs to be recomputed.
+     */
+    boolean needUpdateMin = false;
+
+
+    // ==================================================
+    // Constructors
+
+    /**
+     * Constructor from number of bins, histogram size and filling value.
+     *
+     * @param binCount
+     *            the number of bins, corresponding to the number of possible
+     *            values
+     * @param count
+     *            the number of values within the histogram
+     * @param value
+     *            the value that fills the histogram.
+     */
+    public LocalHistogramInt(int binCount, int count, int value)
+    {
+        this.valueCounts = new int[binCount];
+        this.blockCounts = new int[(binCount + 255) >> 8];
+        this.valueCounts[value] = count;
+        this.blockCounts[value >> 8] = count;
+
+        this.maxValue = value;
+        this.minValue = value;
+    }
+
+
+    // ==================================================
+    // Class methods
+
+    /**
+     * @return the number of bins of this histogram.
+     */
+    public int binCount()
+    {
+        return this.valueCounts.length;
+    }
+
+    /**
+     * Resets this local histogram by filling with the specified value, avoiding
+     * to create a new instance. Only the non empty blocks are cleared.
+     *
+     * @param count
+     *            the number of values within the histogram
+     * @param value
+     *            the value that fills the histogram.
+     */
+    public void reset(int count, int value)
+    {
+        for (int b = 0; b < this.blockCounts.length; b++)
+        {
+            if (this.blockCounts[b] > 0)
+            {
+                int end = Math.min((b + 1) << 8, this.valueCounts.length);
+                Arrays.fill(this.valueCounts, b << 8, end, 0);
+                this.blockCounts[b] = 0;
+            }
+        }
+        this.valueCounts[value] = count;
+        this.blockCounts[value >> 8] = count;
+
+        this.maxValue = value;
+        this.minValue = value;
+        this.needUpdateMax = false;
+        this.needUpdateMin = false;
+    }
+
+    public int getMaxInt()
+    {
+        if (needUpdateMax)
+        {
+            recomputeMaxValue();
+        }
+        return maxValue;
+    }
+
+    private void recomputeMaxValue()
+    {
+        needUpdateMax = false;
+
+        // scan the end of the block containing the previous maximum
+        int blockStart = maxValue & ~0xFF;
+        for (int v = maxValue; v >= blockStart; v--)
+        {
+            if (valueCounts[v] > 0)
+            {
+                maxValue = v;
+                return;
+            }
+        }
+
+        // find the last non empty block, and scan it
+        for (int b = (blockStart >> 8) - 1; b >= 0; b--)
+        {
+            if (blockCounts[b] > 0)
+            {
+                for (int v = (b << 8) + 255; v >= b << 8; v--)
+                {
+                    if (valueCounts[v] > 0)
+                    {
+                        maxValue = v;
+                        return;
+                    }
+                }
+            }
+        }
+        maxValue = 0;
+    }
+
+    public int getMinInt()
+    {
+        if (needUpdateMin)
+        {
+            recomputeMinValue();
+        }
+        return minValue;
+    }
+
+    private void recomputeMinValue()
+    {
+        needUpdateMin = false;
+        int binCount = valueCounts.length;
+
+        // scan the beginning of the block containing the previous minimum
+        int blockEnd = Math.min((minValue | 0xFF) + 1, binCount);
+        for (int v = minValue; v < blockEnd; v++)
+        {
+            if (valueCounts[v] > 0)
+            {
+                minValue = v;
+                return;
+            }
+        }
+
+        // find the first non empty block, and scan it
+        for (int b = (minValue >> 8) + 1; b < blockCounts.length; b++)
+        {
+            if (blockCounts[b] > 0)
+            {
+                int end = Math.min((b + 1) << 8, binCount);
+                for (int v = b << 8; v < end; v++)
+                {
+                    if (valueCounts[v] > 0)
+                    {
+                        minValue = v;
+                        return;
+                    }
+                }
+            }
+        }
+        minValue = binCount - 1;
+    }
+
+    public void replace(int oldValue, int newValue)
+    {
+        if (oldValue == newValue)
+        {
+            return;
+        }
+        increaseCount(newValue);
+        decreaseCount(oldValue);
+    }
+
+    private void decreaseCount(int value)
+    {
+        int count = valueCounts[value];
+        if (count <= 0)
+        {
+            throw new RuntimeException("Local histogram does not contain count for value " + value);
+        }
+
+        // decrease current count
+        valueCounts[value] = --count;
+        blockCounts[value >> 8]--;
+
+        // when extreme bin count reaches zero, min or max value need to
+        // be recomputed
+        if (count == 0)
+        {
+            if (value == maxValue)
+            {
+                needUpdateMax = true;
+            }
+            if (value == minValue)
+            {
+                needUpdateMin = true;
+            }
+        }
+    }
+
+    private void increaseCount(int value)
+    {
+        valueCounts[value]++;
+        blockCounts[value >> 8]++;
+
+        // when new value is outside current bounds, it can be automatically
+        // updated
+        if (value > maxValue)
+        {
+            maxValue = value;
+            needUpdateMax = false;
+        }
+        if (value < minValue)
+        {
+            minValue = value;
+            needUpdateMin = false;
+        }
+    }
+}
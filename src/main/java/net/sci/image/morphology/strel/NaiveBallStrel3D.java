@@ -4,6 +4,7 @@
 package net.sci.image.morphology.strel;
 
 import net.sci.algo.AlgoStub;
+import net.sci.array.Arrays;
 import net.sci.array.binary.BinaryArray3D;
 import net.sci.array.numeric.ScalarArray3D;
 
@@ -124,32 +125,35 @@ public class NaiveBallStrel3D extends AlgoStub implements Strel3D
         int sizeZ = array.size(2);
         ScalarArray3D<?> res = array.duplicate();
         
-        // iterate over the pixels of the array
-        for (int z = 0; z < sizeZ; z++)
+        // iterate over the pixels of the array, by slabs of z-slices
+        processTiles(sizeZ, 0, Arrays.supportsConcurrentWrites(res), tile ->
         {
-            for (int y = 0; y < sizeY; y++)
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                for (int x = 0; x < sizeX; x++)
+                for (int y = 0; y < sizeY; y++)
                 {
-                    double value = Double.NEGATIVE_INFINITY;
-                    
-                    // iterate over neighbors
-                    for (int[] shift : this.shiftArray)
+                    for (int x = 0; x < sizeX; x++)
                     {
-                        int x2 = x + shift[0];
-                        int y2 = y + shift[1];
-                        int z2 = z + shift[2];
-                        if (x2 < 0 || x2 >= sizeX) continue;
-                        if (y2 < 0 || y2 >= sizeY) continue;
-                        if (z2 < 0 || z2 >= sizeZ) continue;
+                        double value = Double.NEGATIVE_INFINITY;
                         
-                        value = Math.max(value, array.getValue(x2, y2, z2));
+                        // iterate over neighbors
+                        for (int[] shift : this.shiftArray)
+                        {
+                            int x2 = x + shift[0];
+                            int y2 = y + shift[1];
+                            int z2 = z + shift[2];
+                            if (x2 < 0 || x2 >= sizeX) continue;
+                            if (y2 < 0 || y2 >= sizeY) continue;
+                            if (z2 < 0 || z2 >= sizeZ) continue;
+                            
+                            value = Math.max(value, array.getValue(x2, y2, z2));
+                        }
+                        
+                        res.setValue(x, y, z, value);
                     }
-                    
-                    res.setValue(x, y, z, value);
                 }
             }
-        }
+        });
         return res;
     }
 
@@ -165,32 +169,35 @@ public class NaiveBallStrel3D extends AlgoStub implements Strel3D
         int sizeZ = array.size(2);
         ScalarArray3D<?> res = array.duplicate();
         
-        // iterate over the pixels of the array
-        for (int z = 0; z < sizeZ; z++)
+        // iterate over the pixels of the array, by slabs of z-slices
+        processTiles(sizeZ, 0, Arrays.supportsConcurrentWrites(res), tile ->
         {
-            for (int y = 0; y < sizeY; y++)
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                for (int x = 0; x < sizeX; x++)
+                for (int y = 0; y < sizeY; y++)
                 {
-                    double value = Double.POSITIVE_INFINITY;
-                    
-                    // iterate over neighbors
-                    for (int[] shift : this.shiftArray)
+                    for (int x = 0; x < sizeX; x++)
                     {
-                        int x2 = x + shift[0];
-                        int y2 = y + shift[1];
-                        int z2 = z + shift[2];
-                        if (x2 < 0 || x2 >= sizeX) continue;
-                        if (y2 < 0 || y2 >= sizeY) continue;
-                        if (z2 < 0 || z2 >= sizeZ) continue;
+                        double value = Double.POSITIVE_INFINITY;
                         
-                        value = Math.min(value, array.getValue(x2, y2, z2));
+                        // iterate over neighbors
+                        for (int[] shift : this.shiftArray)
+                        {
+                            int x2 = x + shift[0];
+                            int y2 = y + shift[1];
+                            int z2 = z + shift[2];
+                            if (x2 < 0 || x2 >= sizeX) continue;
+                            if (y2 < 0 || y2 >= sizeY) continue;
+                            if (z2 < 0 || z2 >= sizeZ) continue;
+                            
+                            value = Math.min(value, array.getValue(x2, y2, z2));
+                        }
+                        
+                        res.setValue(x, y, z, value);
                     }
-                    
-                    res.setValue(x, y, z, value);
                 }
             }
-        }
+        });
         
         return res;
     }
@@ -3,13 +3,35 @@
  */
 package net.sci.image.morphology.strel;
 
+import java.util.Arrays;
+
 import net.sci.algo.AlgoStub;
 import net.sci.array.binary.BinaryArray3D;
+import net.sci.array.numeric.Float32Array3D;
+import net.sci.array.numeric.Int16Array3D;
+import net.sci.array.numeric.Int32Array3D;
 import net.sci.array.numeric.IntArray3D;
 import net.sci.array.numeric.ScalarArray3D;
+import net.sci.array.numeric.UInt16Array3D;
 import net.sci.array.numeric.UInt8Array3D;
 
 /**
+ * A ball structuring element, whose dilations and erosions are computed by
+ * sliding a local histogram along the rows of the array. The histogram depends
+ * on the type of the array, as for the SlidingDiskStrel class. Except for the
+ * smallest radii, the ball is considered as the union of lines along the x
+ * axis, each line being processed with a constant number of operations per
+ * voxel. The line decomposition keeps 2*radius+1 result slices in memory, as
+ * float values for 8-bits, 16-bits and Float32 arrays, and as double values
+ * otherwise. When these slices would exceed a memory budget, the local
+ * histogram is used instead.
+ * 
+ * If an execution pool is set up, the array is split into slabs of slices
+ * processed in parallel. Each slab also reads the radius slices before and
+ * after it, and the line decomposition then keeps its result slices for each
+ * slab. The slabs are processed sequentially when the result slices of all
+ * the slabs would exceed the memory budget.
+ * 
  * <pre>{@code
     // Creates a 3D ball structuring element with radius 3
     Strel3D strel = new SlidingBallStrel3D(3);
@@ -29,6 +51,22 @@ import net.sci.array.numeric.UInt8Array3D;
  */
 public class SlidingBallStrel3D extends AlgoStub implements Strel3D
 {
+    // ==================================================
+    // Constants
+
+    /**
+     * The default radius from which dilations and erosions are computed as
+     * the union of lines.
+     */
+    public static final int DEFAULT_LINE_DECOMPOSITION_RADIUS = 2;
+
+    /**
+     * The default maximum number of bytes of the result slices kept in memory
+     * by the line decomposition.
+     */
+    public static final long DEFAULT_LINE_BUFFER_BYTE_BUDGET = 256L * 1024 * 1024;
+
+
     // ==================================================
     // Class variables
 
@@ -53,6 +91,18 @@ public class SlidingBallStrel3D extends AlgoStub implements Strel3D
     int[] yOffsets;
     int[] zOffsets;
 
+    /**
+     * The radius from which dilations and erosions are computed as the union
+     * of lines instead of using local histograms.
+     */
+    int lineDecompositionRadius = DEFAULT_LINE_DECOMPOSITION_RADIUS;
+
+    /**
+     * The maximum number of bytes of the result slices kept in memory by the
+     * line decomposition.
+     */
+    long lineBufferByteBudget = DEFAULT_LINE_BUFFER_BYTE_BUDGET;
+
     
     // ==================================================
     // Constructors
@@ -138,121 +188,116 @@ public class SlidingBallStrel3D extends AlgoStub implements Strel3D
     
 
     // ==================================================
-    // Implementation of the Strel2D interface
+    // Implementation of the Strel3D interface
 
     /* (non-Javadoc)
-     * @see net.sci.image.morphology.Strel2D#dilation(net.sci.array.scalar.ScalarArray3D)
+     * @see net.sci.image.morphology.Strel3D#dilation(net.sci.array.scalar.ScalarArray3D)
      */
     @Override
     public ScalarArray3D<?> dilation(ScalarArray3D<?> array)
     {
-        if (array instanceof UInt8Array3D || array instanceof BinaryArray3D)
+        if (useLines(array))
         {
-            return dilationUInt8((IntArray3D<?>) array);
+            return processLines(array, LocalExtremum.Type.MAXIMUM);
         }
-        return dilationScalar(array);
+        return processHistogram(array, LocalExtremum.Type.MAXIMUM);
     }
 
-    private ScalarArray3D<?> dilationScalar(ScalarArray3D<?> array)
+    /* (non-Javadoc)
+     * @see net.sci.image.morphology.Strel3D#erosion(net.sci.array.scalar.ScalarArray3D)
+     */
+    @Override
+    public ScalarArray3D<?> erosion(ScalarArray3D<?> array)
     {
-        // get array size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-        int sizeZ = array.size(2);
-        
-        // number of non zero elements 
-        int count = elementCount();
-        int nOffsets = this.xOffsets.length;
-        
-        // create local histogram instance
-        final double OUTSIDE = Double.NEGATIVE_INFINITY;
-        LocalHistogramDoubleHashMap localHisto = new LocalHistogramDoubleHashMap(count, OUTSIDE);
+        if (useLines(array))
+        {
+            return processLines(array, LocalExtremum.Type.MINIMUM);
+        }
+        return processHistogram(array, LocalExtremum.Type.MINIMUM);
+    }
 
-        // Allocate result
-        ScalarArray3D<?> res = array.duplicate();
+    /**
+     * Checks if the dilation or erosion of the array is computed using line
+     * decomposition, depending on the radius and on the memory required by
+     * the result slices of a single slab.
+     */
+    private boolean useLines(ScalarArray3D<?> array)
+    {
+        return this.intRadius >= this.lineDecompositionRadius
+                && lineBufferByteCount(array, 1) <= this.lineBufferByteBudget;
+    }
+    
+    /**
+     * Computes the number of bytes of the result slices kept in memory by the
+     * line decomposition, when the array is split into the specified number
+     * of slabs.
+     */
+    private long lineBufferByteCount(ScalarArray3D<?> array, int slabCount)
+    {
+        int sizeZ = array.size(2);
+        long slabLength = (sizeZ + slabCount - 1) / slabCount;
+        long sliceCount = slabCount * Math.min(2L * this.intRadius + 1, slabLength);
+        long bytesPerElement = SliceBuffer.usesFloats(array) ? 4 : 8;
+        return sliceCount * array.size(0) * array.size(1) * bytesPerElement;
+    }
 
-        // temp variables for updating local histogram
-        double vOld, vNew;
+    /**
+     * Computes the extremum within the neighborhood of each voxel using a
+     * local histogram adapted to the type of the array.
+     */
+    private ScalarArray3D<?> processHistogram(ScalarArray3D<?> array, LocalExtremum.Type type)
+    {
+        boolean max = type == LocalExtremum.Type.MAXIMUM;
+        if (array instanceof UInt8Array3D || array instanceof BinaryArray3D)
+        {
+            return processIntHistogram((IntArray3D<?>) array, 256, max ? 0 : 255, type);
+        }
+        if (array instanceof UInt16Array3D)
+        {
+            return processIntHistogram((IntArray3D<?>) array, 65536, max ? 0 : 65535, type);
+        }
         
-        // Iterate on image rows indexed by z and y
-        for (int z = 0; z < sizeZ; z++)
+        // other arrays are processed by the ranks of their values, with
+        // an additional rank for each end, used for outside voxels
+        int sizeX = array.size(0);
+        int sizeY = array.size(1);
+        int sizeZ = array.size(2);
+        double[] values = LocalHistogramInt.sortedValues(array);
+        Int32Array3D ranks = Int32Array3D.create(sizeX, sizeY, sizeZ);
+        processTiles(sizeZ, 0, tile ->
         {
-            fireProgressChanged(this, z, sizeZ);
-            
-            for (int y = 0; y < sizeY; y++)
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                // init local histogram with background values
-                localHisto.reset(count, OUTSIDE);
-
-                // update initialization with visible neighbors
-                for (int x = -intRadius; x < 0; x++)
+                for (int y = 0; y < sizeY; y++)
                 {
-                    // iterate over the list of offsets
-                    for (int i = 0; i < nOffsets; i++)
+                    for (int x = 0; x < sizeX; x++)
                     {
-                        int z2 = z + this.zOffsets[i];
-                        if (z2 < 0 || z2 >= sizeZ)
-                        {
-                            continue;
-                        }
-                        
-                        int y2 = y + this.yOffsets[i];
-                        if (y2 < 0 || y2 >= sizeY)
-                        {
-                            continue;
-                        }
-                        
-                        int x2 = x + this.xOffsets[i];
-                        if (x2 < 0 || x2 >= sizeX)
-                        {
-                            continue;
-                        }
-                        localHisto.replace(OUTSIDE, array.getValue(x2, y2, z2));
+                        ranks.setInt(x, y, z, LocalHistogramInt.rank(values, array.getValue(x, y, z)) + 1);
                     }
-                }   
-                
-                // iterate along "middle" values
-                for (int x = 0; x < sizeX; x++)
+                }
+            }
+        });
+        
+        IntArray3D<?> resRanks = processIntHistogram(ranks, values.length + 2, max ? 0 : values.length + 1, type);
+        
+        ScalarArray3D<?> res = array.duplicate();
+        processTiles(sizeZ, 0, tile ->
+        {
+            for (int z = tile.start(); z < tile.end(); z++)
+            {
+                for (int y = 0; y < sizeY; y++)
                 {
-                    // iterate over the list of offsets
-                    for (int i = 0; i < nOffsets; i++)
+                    for (int x = 0; x < sizeX; x++)
                     {
-                        int z2 = z + this.zOffsets[i];
-                        if (z2 < 0 || z2 >= sizeZ)
-                        {
-                            continue;
-                        }
-                        
-                        // current line offset
-                        int y2 = y + this.yOffsets[i];
-                        
-                        // We need to test values only for lines within array bounds
-                        if (y2 >= 0 && y2 < sizeY)
-                        {
-                            // old value
-                            int x2 = x - this.xOffsets[i] - 1;
-                            vOld = (x2 >= 0 && x2 < sizeX) ? array.getValue(x2, y2, z2) : OUTSIDE;
-                            
-                            // new value
-                            x2 = x + this.xOffsets[i];
-                            vNew = (x2 >= 0 && x2 < sizeX) ? array.getValue(x2, y2, z2) : OUTSIDE;
-                            
-                            localHisto.replace(vOld, vNew);
-                        }
+                        res.setValue(x, y, z, values[resRanks.getInt(x, y, z) - 1]);
                     }
-
-                    res.setValue(x, y, z, localHisto.getMaxValue());
                 }
             }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, sizeZ, sizeZ);
-        
+        });
         return res;
     }
     
-    private IntArray3D<?> dilationUInt8(IntArray3D<?> array)
+    private IntArray3D<?> processIntHistogram(IntArray3D<?> array, int binCount, int outside, LocalExtremum.Type type)
     {
         // get array size
         int sizeX = array.size(0);
@@ -263,87 +308,89 @@ public class SlidingBallStrel3D extends AlgoStub implements Strel3D
         int count = elementCount();
         int nOffsets = this.xOffsets.length;
         
-        // create local histogram instance
-        final int OUTSIDE = 0;
-        LocalHistogramUInt8 localHisto = new LocalHistogramUInt8(count, OUTSIDE);
+        boolean max = type == LocalExtremum.Type.MAXIMUM;
 
         // Allocate result
         IntArray3D<?> res = array.duplicate();
 
-        // temp variables for updating local histogram
-        int vOld, vNew;
-        
-        // Iterate on image rows indexed by z and y
-        for (int z = 0; z < sizeZ; z++)
+        // Iterate on image rows indexed by z and y, by slabs of z-slices
+        processTiles(sizeZ, 0, net.sci.array.Arrays.supportsConcurrentWrites(res), tile ->
         {
-            fireProgressChanged(this, z, sizeZ);
+            // create local histogram instance
+            LocalHistogramInt localHisto = new LocalHistogramInt(binCount, count, outside);
             
-            for (int y = 0; y < sizeY; y++)
+            // temp variables for updating local histogram
+            int vOld, vNew;
+            
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                // init local histogram with background values
-                localHisto.reset(count, OUTSIDE);
-
-                // update initialization with visible neighbors
-                for (int x = -intRadius; x < 0; x++)
+                for (int y = 0; y < sizeY; y++)
                 {
-                    // iterate over the list of offsets
-                    for (int i = 0; i < nOffsets; i++)
+                    // init local histogram with background values
+                    localHisto.reset(count, outside);
+
+                    // update initialization with visible neighbors
+                    for (int x = -intRadius; x < 0; x++)
                     {
-                        int z2 = z + this.zOffsets[i];
-                        if (z2 < 0 || z2 >= sizeZ)
-                        {
-                            continue;
-                        }
-                        
-                        int y2 = y + this.yOffsets[i];
-                        if (y2 < 0 || y2 >= sizeY)
+                        // iterate over the list of offsets
+                        for (int i = 0; i < nOffsets; i++)
                         {
-                            continue;
-                        }
-                        
-                        int x2 = x + this.xOffsets[i];
-                        if (x2 < 0 || x2 >= sizeX)
-                        {
-                            continue;
+                            int z2 = z + this.zOffsets[i];
+                            if (z2 < 0 || z2 >= sizeZ)
+                            {
+                                continue;
+                            }
+                            
+                            int y2 = y + this.yOffsets[i];
+                            if (y2 < 0 || y2 >= sizeY)
+                            {
+                                continue;
+                            }
+                            
+                            int x2 = x + this.xOffsets[i];
+                            if (x2 < 0 || x2 >= sizeX)
+                            {
+                                continue;
+                            }
+                            localHisto.replace(outside, array.getInt(x2, y2, z2));
                         }
-                        localHisto.replace(OUTSIDE, array.getInt(x2, y2, z2));
                     }
-                }   
-                
-                // iterate along "middle" values
-                for (int x = 0; x < sizeX; x++)
-                {
-                    // iterate over the list of offsets
-                    for (int i = 0; i < nOffsets; i++)
+                    
+                    // iterate along "middle" values
+                    for (int x = 0; x < sizeX; x++)
                     {
-                        int z2 = z + this.zOffsets[i];
-                        if (z2 < 0 || z2 >= sizeZ)
+                        // iterate over the list of offsets
+                        for (int i = 0; i < nOffsets; i++)
                         {
-                            continue;
-                        }
-                        
-                        // current line offset
-                        int y2 = y + this.yOffsets[i];
-                        
-                        // We need to test values only for lines within array bounds
-                        if (y2 >= 0 && y2 < sizeY)
-                        {
-                            // old value
-                            int x2 = x - this.xOffsets[i] - 1;
-                            vOld = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2, z2) : OUTSIDE;
+                            int z2 = z + this.zOffsets[i];
+                            if (z2 < 0 || z2 >= sizeZ)
+                            {
+                                continue;
+                            }
                             
-                            // new value
-                            x2 = x + this.xOffsets[i];
-                            vNew = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2, z2) : OUTSIDE;
+                            // current line offset
+                            int y2 = y + this.yOffsets[i];
                             
-                            localHisto.replace(vOld, vNew);
+                            // We need to test values only for lines within array bounds
+                            if (y2 >= 0 && y2 < sizeY)
+                            {
+                                // old value
+                                int x2 = x - this.xOffsets[i] - 1;
+                                vOld = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2, z2) : outside;
+                                
+                                // new value
+                                x2 = x + this.xOffsets[i];
+                                vNew = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2, z2) : outside;
+                                
+                                localHisto.replace(vOld, vNew);
+                            }
                         }
-                    }
 
-                    res.setInt(x, y, z, localHisto.getMaxInt());
+                        res.setInt(x, y, z, max ? localHisto.getMaxInt() : localHisto.getMinInt());
+                    }
                 }
             }
-        }
+        });
 
         // clear the progress bar
         fireProgressChanged(this, sizeZ, sizeZ);
@@ -351,217 +398,114 @@ public class SlidingBallStrel3D extends AlgoStub implements Strel3D
         return res;
     }
 
-    /* (non-Javadoc)
-     * @see net.sci.image.morphology.Strel2D#erosion(net.sci.array.scalar.ScalarArray3D)
+    /**
+     * Computes the extremum within the neighborhood of each voxel by
+     * considering the ball as the union of lines along the x axis. Each row of
+     * the array is filtered once for each distinct line length, with constant
+     * time per voxel, and the filtered row is combined with the result rows
+     * corresponding to the lines with this length. The result slices that can
+     * still be modified are kept within a circular buffer.
      */
-    @Override
-    public ScalarArray3D<?> erosion(ScalarArray3D<?> array)
-    {
-        if (array instanceof UInt8Array3D || array instanceof BinaryArray3D)
-        {
-            return erosionUInt8((IntArray3D<?>) array);
-        }
-        return erosionScalar(array);
-    }
-
-    private ScalarArray3D<?> erosionScalar(ScalarArray3D<?> array)
+    private ScalarArray3D<?> processLines(ScalarArray3D<?> array, LocalExtremum.Type type)
     {
         // get array size
         int sizeX = array.size(0);
         int sizeY = array.size(1);
         int sizeZ = array.size(2);
         
-        // number of non zero elements 
-        int count = elementCount();
-        int nOffsets = this.xOffsets.length;
+        boolean max = type == LocalExtremum.Type.MAXIMUM;
+        final double outside = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
         
-        // create local histogram instance
-        final double OUTSIDE = Double.NEGATIVE_INFINITY;
-        LocalHistogramDoubleHashMap localHisto = new LocalHistogramDoubleHashMap(count, OUTSIDE);
+        // identify the lines with each half-width
+        int[][] lineIndices = SlidingDiskStrel.lineIndicesByHalfWidth(this.xOffsets, this.intRadius);
 
         // Allocate result
         ScalarArray3D<?> res = array.duplicate();
-
-        // temp variables for updating local histogram
-        double vOld, vNew;
         
-        // Iterate on image rows indexed by z and y
-        for (int z = 0; z < sizeZ; z++)
+        // process slabs in parallel only if the result slices of all the slabs
+        // fit within the memory budget
+        boolean parallel = net.sci.array.Arrays.supportsConcurrentWrites(res)
+                && lineBufferByteCount(array, getThreadCount()) <= this.lineBufferByteBudget;
+        boolean floats = SliceBuffer.usesFloats(array);
+        
+        // each slab of result slices is computed from the input slices within
+        // the slab and within the halo around the slab
+        processTiles(sizeZ, this.intRadius, parallel, tile ->
         {
-            fireProgressChanged(this, z, sizeZ);
+            int zStart = tile.start();
+            int zEnd = tile.end();
+            
+            // circular buffer of result slices, initialized with outside values
+            int nSlices = Math.min(2 * this.intRadius + 1, tile.length());
+            SliceBuffer extrema = new SliceBuffer(nSlices, sizeY, sizeX, floats, outside);
             
-            for (int y = 0; y < sizeY; y++)
+            // create one line filter for each half-width of line
+            LocalExtremumLineFilter[] filters = new LocalExtremumLineFilter[this.intRadius + 1];
+            for (int dx = 0; dx <= this.intRadius; dx++)
             {
-                // init local histogram with background values
-                localHisto.reset(count, OUTSIDE);
-
-                // update initialization with visible neighbors
-                for (int x = -intRadius; x < 0; x++)
+                if (lineIndices[dx].length > 0)
                 {
-                    // iterate over the list of offsets
-                    for (int i = 0; i < nOffsets; i++)
-                    {
-                        int z2 = z + this.zOffsets[i];
-                        if (z2 < 0 || z2 >= sizeZ)
-                        {
-                            continue;
-                        }
-                        
-                        int y2 = y + this.yOffsets[i];
-                        if (y2 < 0 || y2 >= sizeY)
-                        {
-                            continue;
-                        }
-                        
-                        int x2 = x + this.xOffsets[i];
-                        if (x2 < 0 || x2 >= sizeX)
-                        {
-                            continue;
-                        }
-                        localHisto.replace(OUTSIDE, array.getValue(x2, y2, z2));
-                    }
-                }   
-                
-                // iterate along "middle" values
-                for (int x = 0; x < sizeX; x++)
-                {
-                    // iterate over the list of offsets
-                    for (int i = 0; i < nOffsets; i++)
-                    {
-                        int z2 = z + this.zOffsets[i];
-                        if (z2 < 0 || z2 >= sizeZ)
-                        {
-                            continue;
-                        }
-                        
-                        // current line offset
-                        int y2 = y + this.yOffsets[i];
-                        
-                        // We need to test values only for lines within array bounds
-                        if (y2 >= 0 && y2 < sizeY)
-                        {
-                            // old value
-                            int x2 = x - this.xOffsets[i] - 1;
-                            vOld = (x2 >= 0 && x2 < sizeX) ? array.getValue(x2, y2, z2) : OUTSIDE;
-                            
-                            // new value
-                            x2 = x + this.xOffsets[i];
-                            vNew = (x2 >= 0 && x2 < sizeX) ? array.getValue(x2, y2, z2) : OUTSIDE;
-                            
-                            localHisto.replace(vOld, vNew);
-                        }
-                    }
-
-                    res.setValue(x, y, z, localHisto.getMinValue());
+                    filters[dx] = new LocalExtremumLineFilter(2 * dx + 1, type);
                 }
             }
-        }
-
-        // clear the progress bar
-        fireProgressChanged(this, sizeZ, sizeZ);
-        
-        return res;
-    }
-    
-    private IntArray3D<?> erosionUInt8(IntArray3D<?> array)
-    {
-        // get array size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-        int sizeZ = array.size(2);
-        
-        // number of non zero elements 
-        int count = elementCount();
-        int nOffsets = this.xOffsets.length;
-        
-        // create local histogram instance
-        final int OUTSIDE = 255;
-        LocalHistogramUInt8 localHisto = new LocalHistogramUInt8(count, OUTSIDE);
-
-        // Allocate result
-        IntArray3D<?> res = array.duplicate();
-
-        // temp variables for updating local histogram
-        int vOld, vNew;
-        
-        // Iterate on image rows indexed by z and y
-        for (int z = 0; z < sizeZ; z++)
-        {
-            fireProgressChanged(this, z, sizeZ);
+            double[] row = new double[sizeX];
+            double[] line = new double[sizeX];
             
-            for (int y = 0; y < sizeY; y++)
+            // iterate over the slices of the input array
+            for (int z2 = tile.haloStart(); z2 < tile.haloEnd(); z2++)
             {
-                // init local histogram with background values
-                localHisto.reset(count, OUTSIDE);
-
-                // update initialization with visible neighbors
-                for (int x = -intRadius; x < 0; x++)
+                for (int y2 = 0; y2 < sizeY; y2++)
                 {
-                    // iterate over the list of offsets
-                    for (int i = 0; i < nOffsets; i++)
+                    for (int x = 0; x < sizeX; x++)
                     {
-                        int z2 = z + this.zOffsets[i];
-                        if (z2 < 0 || z2 >= sizeZ)
-                        {
-                            continue;
-                        }
-                        
-                        int y2 = y + this.yOffsets[i];
-                        if (y2 < 0 || y2 >= sizeY)
-                        {
-                            continue;
-                        }
-                        
-                        int x2 = x + this.xOffsets[i];
-                        if (x2 < 0 || x2 >= sizeX)
-                        {
-                            continue;
-                        }
-                        localHisto.replace(OUTSIDE, array.getInt(x2, y2, z2));
+                        row[x] = array.getValue(x, y2, z2);
                     }
-                }   
-                
-                // iterate along "middle" values
-                for (int x = 0; x < sizeX; x++)
-                {
-                    // iterate over the list of offsets
-                    for (int i = 0; i < nOffsets; i++)
+                    
+                    for (int dx = 0; dx < filters.length; dx++)
                     {
-                        int z2 = z + this.zOffsets[i];
-                        if (z2 < 0 || z2 >= sizeZ)
+                        if (filters[dx] == null)
                         {
                             continue;
                         }
                         
-                        // current line offset
-                        int y2 = y + this.yOffsets[i];
+                        // filter current row with the line
+                        System.arraycopy(row, 0, line, 0, sizeX);
+                        filters[dx].filter(line, sizeX, dx, outside);
                         
-                        // We need to test values only for lines within array bounds
-                        if (y2 >= 0 && y2 < sizeY)
+                        // combine with the result rows whose neighborhood contains the line
+                        for (int i : lineIndices[dx])
                         {
-                            // old value
-                            int x2 = x - this.xOffsets[i] - 1;
-                            vOld = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2, z2) : OUTSIDE;
-                            
-                            // new value
-                            x2 = x + this.xOffsets[i];
-                            vNew = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2, z2) : OUTSIDE;
-                            
-                            localHisto.replace(vOld, vNew);
+                            int y = y2 - this.yOffsets[i];
+                            int z = z2 - this.zOffsets[i];
+                            if (y >= 0 && y < sizeY && z >= zStart && z < zEnd)
+                            {
+                                extrema.combine(z, y, line, max);
+                            }
                         }
                     }
-
-                    res.setInt(x, y, z, localHisto.getMinInt());
+                }
+                
+                // the result slice that does not depend on the next slices is complete
+                int z = z2 - this.intRadius;
+                if (z >= zStart && z < zEnd)
+                {
+                    extrema.flush(res, z);
                 }
             }
-        }
+            
+            // copy remaining result slices
+            for (int z = Math.max(tile.haloEnd() - this.intRadius, zStart); z < zEnd; z++)
+            {
+                extrema.flush(res, z);
+            }
+        });
 
         // clear the progress bar
         fireProgressChanged(this, sizeZ, sizeZ);
         
         return res;
     }
-
+    
     /* (non-Javadoc)
      * @see net.sci.image.morphology.Strel#reverse()
      */
@@ -659,6 +603,50 @@ public class SlidingBallStrel3D extends AlgoStub implements Strel3D
     // ==================================================
     // Specific methods
     
+    /**
+     * @return the radius of this structuring element, in voxels.
+     */
+    public double getRadius()
+    {
+        return this.radius;
+    }
+    
+    /**
+     * Changes the radius from which dilations and erosions are computed as
+     * the union of lines instead of using local histograms. Both methods give
+     * the same results.
+     * 
+     * @param radius
+     *            the minimum radius for using line decomposition
+     */
+    public void setLineDecompositionRadius(int radius)
+    {
+        this.lineDecompositionRadius = radius;
+    }
+    
+    /**
+     * Changes the maximum number of bytes of the result slices kept in memory
+     * by the line decomposition. Above this budget, slabs are processed
+     * sequentially, or the local histogram is used if the result slices of a
+     * single slab exceed the budget.
+     * 
+     * @param byteBudget
+     *            the maximum number of bytes of the result slices
+     */
+    public void setLineBufferByteBudget(long byteBudget)
+    {
+        this.lineBufferByteBudget = byteBudget;
+    }
+    
+    /**
+     * @return the radius from which dilations and erosions are computed as
+     *         the union of lines.
+     */
+    public int getLineDecompositionRadius()
+    {
+        return this.lineDecompositionRadius;
+    }
+    
     /**
      * @return the number of non zero elements within this structuring element.
      */
@@ -673,4 +661,117 @@ public class SlidingBallStrel3D extends AlgoStub implements Strel3D
     }
     
 
+    
+    /**
+     * The circular buffer of result slices used by the line decomposition.
+     * Slices are stored as float values for arrays whose values are exactly
+     * represented by floats, and as double values otherwise.
+     */
+    private static final class SliceBuffer
+    {
+        /**
+         * Checks if the values of the array are exactly represented by float
+         * values.
+         */
+        static final boolean usesFloats(ScalarArray3D<?> array)
+        {
+            return array instanceof UInt8Array3D || array instanceof UInt16Array3D || array instanceof Int16Array3D
+                    || array instanceof BinaryArray3D || array instanceof Float32Array3D;
+        }
+        
+        final float[][][] floats;
+        final double[][][] doubles;
+        final double outside;
+        
+        SliceBuffer(int nSlices, int sizeY, int sizeX, boolean useFloats, double outside)
+        {
+            this.outside = outside;
+            if (useFloats)
+            {
+                this.floats = new float[nSlices][sizeY][sizeX];
+                this.doubles = null;
+                for (float[][] slice : this.floats)
+                {
+                    for (float[] row : slice)
+                    {
+                        Arrays.fill(row, (float) outside);
+                    }
+                }
+            }
+            else
+            {
+                this.floats = null;
+                this.doubles = new double[nSlices][sizeY][sizeX];
+                for (double[][] slice : this.doubles)
+                {
+                    for (double[] row : slice)
+                    {
+                        Arrays.fill(row, outside);
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Combines a filtered line with the result row at the specified
+         * position.
+         */
+        void combine(int z, int y, double[] line, boolean max)
+        {
+            if (this.doubles != null)
+            {
+                SlidingDiskStrel.combine(this.doubles[z % this.doubles.length][y], line, max);
+                return;
+            }
+            
+            float[] row = this.floats[z % this.floats.length][y];
+            if (max)
+            {
+                for (int x = 0; x < row.length; x++)
+                {
+                    if (line[x] > row[x]) row[x] = (float) line[x];
+                }
+            }
+            else
+            {
+                for (int x = 0; x < row.length; x++)
+                {
+                    if (line[x] < row[x]) row[x] = (float) line[x];
+                }
+            }
+        }
+        
+        /**
+         * Copies a result slice into the result array, and resets the buffer
+         * slice.
+         */
+        void flush(ScalarArray3D<?> res, int z)
+        {
+            if (this.doubles != null)
+            {
+                double[][] slice = this.doubles[z % this.doubles.length];
+                for (int y = 0; y < slice.length; y++)
+                {
+                    double[] row = slice[y];
+                    for (int x = 0; x < row.length; x++)
+                    {
+                        res.setValue(x, y, z, row[x]);
+                    }
+                    Arrays.fill(row, this.outside);
+                }
+                return;
+            }
+            
+            float[][] slice = this.floats[z % this.floats.length];
+            for (int y = 0; y < slice.length; y++)
+            {
+                float[] row = slice[y];
+                for (int x = 0; x < row.length; x++)
+                {
+                    res.setValue(x, y, z, row[x]);
+                }
+                Arrays.fill(row, (float) this.outside);
+            }
+        }
+    }
 }
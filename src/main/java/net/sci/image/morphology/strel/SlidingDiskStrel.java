@@ -3,13 +3,24 @@
  */
 package net.sci.image.morphology.strel;
 
+import java.util.Arrays;
+
 import net.sci.algo.AlgoStub;
 import net.sci.array.binary.BinaryArray2D;
+import net.sci.array.numeric.Int32Array2D;
 import net.sci.array.numeric.IntArray2D;
 import net.sci.array.numeric.ScalarArray2D;
+import net.sci.array.numeric.UInt16Array2D;
 import net.sci.array.numeric.UInt8Array2D;
 
 /**
+ * A disk structuring element, whose dilations and erosions are computed by
+ * sliding a local histogram along the rows of the array. The histogram depends
+ * on the type of the array: UInt8 and UInt16 arrays use counting histograms,
+ * and other arrays are processed by the ranks of their values. Except for the
+ * smallest radii, the disk is considered as the union of horizontal lines,
+ * each line being processed with a constant number of operations per pixel.
+ * 
  * <pre>{@code
     // Creates a disk structuring element with radius 6
     Strel2D strel = new SlidingDiskStrel(6);
@@ -29,6 +40,16 @@ import net.sci.array.numeric.UInt8Array2D;
  */
 public class SlidingDiskStrel extends AlgoStub implements Strel2D
 {
+    // ==================================================
+    // Constants
+
+    /**
+     * The default radius from which dilations and erosions are computed as
+     * the union of horizontal lines.
+     */
+    public static final int DEFAULT_LINE_DECOMPOSITION_RADIUS = 2;
+
+
     // ==================================================
     // Class variables
 
@@ -55,6 +76,12 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
     int[] xOffsets;
     int[] yOffsets;
     
+    /**
+     * The radius from which dilations and erosions are computed as the union
+     * of horizontal lines instead of using local histograms.
+     */
+    int lineDecompositionRadius = DEFAULT_LINE_DECOMPOSITION_RADIUS;
+    
     // ==================================================
     // Constructors
 
@@ -95,6 +122,36 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
     // ==================================================
     // Specific methods
     
+    /**
+     * @return the radius of this structuring element, in pixels.
+     */
+    public double getRadius()
+    {
+        return this.radius;
+    }
+    
+    /**
+     * Changes the radius from which dilations and erosions are computed as
+     * the union of horizontal lines instead of using local histograms. Both
+     * methods give the same results.
+     * 
+     * @param radius
+     *            the minimum radius for using line decomposition
+     */
+    public void setLineDecompositionRadius(int radius)
+    {
+        this.lineDecompositionRadius = radius;
+    }
+    
+    /**
+     * @return the radius from which dilations and erosions are computed as
+     *         the union of horizontal lines.
+     */
+    public int getLineDecompositionRadius()
+    {
+        return this.lineDecompositionRadius;
+    }
+    
     /**
      * @return the number of non zero elements within this structuring element.
      */
@@ -118,14 +175,70 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
     @Override
     public ScalarArray2D<?> dilation(ScalarArray2D<?> array)
     {
-        if (array instanceof UInt8Array2D || array instanceof BinaryArray2D)
+        if (this.intRadius >= this.lineDecompositionRadius)
         {
-            return dilationUInt8((IntArray2D<?>) array);
+            return processLines(array, LocalExtremum.Type.MAXIMUM);
         }
-        return dilationScalar(array);
+        return processHistogram(array, LocalExtremum.Type.MAXIMUM);
     }
 
-    private IntArray2D<?> dilationUInt8(IntArray2D<?> array)
+    /* (non-Javadoc)
+     * @see net.sci.image.morphology.Strel2D#erosion(net.sci.array.scalar.ScalarArray2D)
+     */
+    @Override
+    public ScalarArray2D<?> erosion(ScalarArray2D<?> array)
+    {
+        if (this.intRadius >= this.lineDecompositionRadius)
+        {
+            return processLines(array, LocalExtremum.Type.MINIMUM);
+        }
+        return processHistogram(array, LocalExtremum.Type.MINIMUM);
+    }
+
+    /**
+     * Computes the extremum within the neighborhood of each pixel using a
+     * local histogram adapted to the type of the array.
+     */
+    private ScalarArray2D<?> processHistogram(ScalarArray2D<?> array, LocalExtremum.Type type)
+    {
+        boolean max = type == LocalExtremum.Type.MAXIMUM;
+        if (array instanceof UInt8Array2D || array instanceof BinaryArray2D)
+        {
+            return processIntHistogram((IntArray2D<?>) array, 256, max ? 0 : 255, type);
+        }
+        if (array instanceof UInt16Array2D)
+        {
+            return processIntHistogram((IntArray2D<?>) array, 65536, max ? 0 : 65535, type);
+        }
+        
+        // other arrays are processed by the ranks of their values, with
+        // an additional rank for each end, used for outside pixels
+        int sizeX = array.size(0);
+        int sizeY = array.size(1);
+        double[] values = LocalHistogramInt.sortedValues(array);
+        Int32Array2D ranks = Int32Array2D.create(sizeX, sizeY);
+        for (int y = 0; y < sizeY; y++)
+        {
+            for (int x = 0; x < sizeX; x++)
+            {
+                ranks.setInt(x, y, LocalHistogramInt.rank(values, array.getValue(x, y)) + 1);
+            }
+        }
+        
+        IntArray2D<?> resRanks = processIntHistogram(ranks, values.length + 2, max ? 0 : values.length + 1, type);
+        
+        ScalarArray2D<?> res = array.duplicate();
+        for (int y = 0; y < sizeY; y++)
+        {
+            for (int x = 0; x < sizeX; x++)
+            {
+                res.setValue(x, y, values[resRanks.getInt(x, y) - 1]);
+            }
+        }
+        return res;
+    }
+    
+    private IntArray2D<?> processIntHistogram(IntArray2D<?> array, int binCount, int outside, LocalExtremum.Type type)
     {
         // get array size
         int sizeX = array.size(0);
@@ -136,8 +249,8 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
         int nOffsets = this.xOffsets.length;
         
         // create local histogram instance
-        final int OUTSIDE = 0;
-        LocalHistogramUInt8 localHisto = new LocalHistogramUInt8(count, OUTSIDE);
+        LocalHistogramInt localHisto = new LocalHistogramInt(binCount, count, outside);
+        boolean max = type == LocalExtremum.Type.MAXIMUM;
 
         // Allocate result
         IntArray2D<?> res = array.duplicate();
@@ -151,7 +264,7 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
             fireProgressChanged(this, y, sizeY);
 
             // init local histogram with background values
-            localHisto.reset(count, OUTSIDE);
+            localHisto.reset(count, outside);
 
             // update initialization with visible neighbors
             for (int x = -intRadius; x < 0; x++)
@@ -170,7 +283,7 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
                     {
                         continue;
                     }
-                    localHisto.replace(OUTSIDE, array.getInt(x2, y2));
+                    localHisto.replace(outside, array.getInt(x2, y2));
                 }
             }   
 
@@ -188,17 +301,17 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
                     {
                         // old value
                         int x2 = x - this.xOffsets[i] - 1;
-                        vOld = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2) : OUTSIDE;
+                        vOld = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2) : outside;
 
                         // new value
                         x2 = x + this.xOffsets[i];
-                        vNew = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2) : OUTSIDE;
+                        vNew = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2) : outside;
 
                         localHisto.replace(vOld, vNew);
                     }
                 }
 
-                res.setInt(x, y, localHisto.getMaxInt());
+                res.setInt(x, y, max ? localHisto.getMaxInt() : localHisto.getMinInt());
             }
         }
 
@@ -208,80 +321,93 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
         return res;
     }
     
-    private ScalarArray2D<?> dilationScalar(ScalarArray2D<?> array)
+    /**
+     * Computes the extremum within the neighborhood of each pixel by
+     * considering the disk as the union of horizontal lines. Each row of the
+     * array is filtered once for each distinct line length, with constant time
+     * per pixel, and the filtered row is combined with the result rows
+     * corresponding to the lines with this length. The result rows that can
+     * still be modified are kept within a circular buffer.
+     */
+    private ScalarArray2D<?> processLines(ScalarArray2D<?> array, LocalExtremum.Type type)
     {
         // get array size
         int sizeX = array.size(0);
         int sizeY = array.size(1);
         
-        // number of non zero elements 
-        int count = elementCount();
-        int nOffsets = this.xOffsets.length;
+        boolean max = type == LocalExtremum.Type.MAXIMUM;
+        final double outside = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
         
-        // create local histogram instance
-        final double OUTSIDE = Double.NEGATIVE_INFINITY;
-        LocalHistogramDoubleHashMap localHisto = new LocalHistogramDoubleHashMap(count, OUTSIDE);
+        // create one line filter for each half-width of line, and identify
+        // the lines with each half-width
+        LocalExtremumLineFilter[] filters = new LocalExtremumLineFilter[this.intRadius + 1];
+        int[][] lineIndices = lineIndicesByHalfWidth(this.xOffsets, this.intRadius);
+        for (int dx = 0; dx <= this.intRadius; dx++)
+        {
+            if (lineIndices[dx].length > 0)
+            {
+                filters[dx] = new LocalExtremumLineFilter(2 * dx + 1, type);
+            }
+        }
 
+        // circular buffer of result rows, initialized with outside values
+        int nRows = 2 * this.intRadius + 1;
+        double[][] extrema = new double[nRows][sizeX];
+        for (double[] row : extrema)
+        {
+            Arrays.fill(row, outside);
+        }
+        
         // Allocate result
         ScalarArray2D<?> res = array.duplicate();
-
-        // temp variables for updating local histogram
-        double vOld, vNew;
+        double[] row = new double[sizeX];
+        double[] line = new double[sizeX];
         
-        // Iterate on image rows
-        for (int y = 0; y < sizeY; y++)
+        // iterate over the rows of the input array
+        for (int y2 = 0; y2 < sizeY; y2++)
         {
-            fireProgressChanged(this, y, sizeY);
-
-            // init local histogram with background values
-            localHisto.reset(count, OUTSIDE);
-
-            // initialize histogram with values on the right of current position
-            for (int x = -intRadius; x < 0; x++)
+            fireProgressChanged(this, y2, sizeY);
+            
+            for (int x = 0; x < sizeX; x++)
             {
-                for (int i = 0; i < nOffsets; i++)
+                row[x] = array.getValue(x, y2);
+            }
+            
+            for (int dx = 0; dx < filters.length; dx++)
+            {
+                if (filters[dx] == null)
                 {
-                    int y2 = y + this.yOffsets[i];
-                    if (y2 < 0 || y2 >= sizeY)
-                    {
-                        continue;
-                    }
-
-                    int x2 = x + this.xOffsets[i];
-                    if (x2 < 0 || x2 >= sizeX)
-                    {
-                        continue;
-                    }
-                    localHisto.replace(OUTSIDE, array.getValue(x2, y2));
+                    continue;
                 }
-            }   
-
-            // iterate along "middle" values
-            for (int x = 0; x < sizeX; x++)
-            {
-                for (int i = 0; i < nOffsets; i++)
+                
+                // filter current row with the line
+                System.arraycopy(row, 0, line, 0, sizeX);
+                filters[dx].filter(line, sizeX, dx, outside);
+                
+                // combine with the result rows whose neighborhood contains the line
+                for (int i : lineIndices[dx])
                 {
-                    // current line offset
-                    int y2 = y + this.yOffsets[i];
-                    
-                    // We need to test values only for lines within array bounds
-                    if (y2 >= 0 && y2 < sizeY)
+                    int y = y2 - this.yOffsets[i];
+                    if (y >= 0 && y < sizeY)
                     {
-                        // old value
-                        int x2 = x - this.xOffsets[i] - 1;
-                        vOld = (x2 >= 0 && x2 < sizeX) ? array.getValue(x2, y2) : OUTSIDE;
-                        
-                        // new value
-                        x2 = x + this.xOffsets[i];
-                        vNew = (x2 >= 0 && x2 < sizeX) ? array.getValue(x2, y2) : OUTSIDE;
-                        
-                        localHisto.replace(vOld, vNew);
+                        combine(extrema[y % nRows], line, max);
                     }
                 }
-
-                res.setValue(x, y, localHisto.getMaxValue());
+            }
+            
+            // the result row that does not depend on the next rows is complete
+            int y = y2 - this.intRadius;
+            if (y >= 0)
+            {
+                flushRow(res, y, extrema[y % nRows], outside);
             }
         }
+        
+        // copy remaining result rows
+        for (int y = Math.max(sizeY - this.intRadius, 0); y < sizeY; y++)
+        {
+            flushRow(res, y, extrema[y % nRows], outside);
+        }
 
         // clear the progress bar
         fireProgressChanged(this, sizeY, sizeY);
@@ -289,184 +415,66 @@ public class SlidingDiskStrel extends AlgoStub implements Strel2D
         return res;
     }
     
-    /* (non-Javadoc)
-     * @see net.sci.image.morphology.Strel2D#erosion(net.sci.array.scalar.ScalarArray2D)
+    /**
+     * Groups the indices of the lines of a structuring element according to
+     * their half-width.
+     * 
+     * @param halfWidths
+     *            the half-width of each line
+     * @param maxHalfWidth
+     *            the largest half-width
+     * @return for each half-width, the indices of the lines with this
+     *         half-width
      */
-    @Override
-    public ScalarArray2D<?> erosion(ScalarArray2D<?> array)
+    static final int[][] lineIndicesByHalfWidth(int[] halfWidths, int maxHalfWidth)
     {
-        if (array instanceof UInt8Array2D || array instanceof BinaryArray2D)
+        int[] counts = new int[maxHalfWidth + 1];
+        for (int dx : halfWidths)
+        {
+            counts[dx]++;
+        }
+        int[][] indices = new int[maxHalfWidth + 1][];
+        for (int dx = 0; dx <= maxHalfWidth; dx++)
         {
-            return erosionUInt8((IntArray2D<?>) array);
+            indices[dx] = new int[counts[dx]];
+            counts[dx] = 0;
         }
-        return erosionScalar(array);
+        for (int i = 0; i < halfWidths.length; i++)
+        {
+            int dx = halfWidths[i];
+            indices[dx][counts[dx]++] = i;
+        }
+        return indices;
     }
-
-    private IntArray2D<?> erosionUInt8(IntArray2D<?> array)
-    {
-        // get array size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-    
-        // number of non zero elements 
-        int count = elementCount();
-        int nOffsets = this.xOffsets.length;
-    
-        // create local histogram instance
-        final int OUTSIDE = 255;
-        LocalHistogramUInt8 localHisto = new LocalHistogramUInt8(count, OUTSIDE);
     
-        // Allocate result
-        IntArray2D<?> res = array.duplicate();
-    
-        // temp variables for updating local histogram
-        int vOld, vNew;
-    
-        // Iterate on image rows indexed by z and y
-        for (int y = 0; y < sizeY; y++)
+    static final void combine(double[] extrema, double[] line, boolean max)
+    {
+        if (max)
         {
-            fireProgressChanged(this, y, sizeY);
-    
-            // init local histogram with background values
-            localHisto.reset(count, OUTSIDE);
-    
-            // update initialization with visible neighbors
-            for (int x = -intRadius; x < 0; x++)
+            for (int x = 0; x < extrema.length; x++)
             {
-                // iterate over the list of offsets
-                for (int i = 0; i < nOffsets; i++)
-                {
-                    int y2 = y + this.yOffsets[i];
-                    if (y2 < 0 || y2 >= sizeY)
-                    {
-                        continue;
-                    }
-    
-                    int x2 = x + this.xOffsets[i];
-                    if (x2 < 0 || x2 >= sizeX)
-                    {
-                        continue;
-                    }
-                    localHisto.replace(OUTSIDE, array.getInt(x2, y2));
-                }
-            }   
-    
-            // iterate along "middle" values
-            for (int x = 0; x < sizeX; x++)
+                if (line[x] > extrema[x]) extrema[x] = line[x];
+            }
+        }
+        else
+        {
+            for (int x = 0; x < extrema.length; x++)
             {
-                // iterate over the list of offsets
-                for (int i = 0; i < nOffsets; i++)
-                {
-    
-                    // current line offset
-                    int y2 = y + this.yOffsets[i];
-    
-                    // We need to test values only for lines within array bounds
-                    if (y2 >= 0 && y2 < sizeY)
-                    {
-                        // old value
-                        int x2 = x - this.xOffsets[i] - 1;
-                        vOld = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2) : OUTSIDE;
-    
-                        // new value
-                        x2 = x + this.xOffsets[i];
-                        vNew = (x2 >= 0 && x2 < sizeX) ? array.getInt(x2, y2) : OUTSIDE;
-    
-                        localHisto.replace(vOld, vNew);
-                    }
-                }
-    
-                res.setInt(x, y, localHisto.getMinInt());
+                if (line[x] < extrema[x]) extrema[x] = line[x];
             }
         }
-    
-        // clear the progress bar
-        fireProgressChanged(this, sizeY, sizeY);
-    
-        return res;
     }
-
-    private ScalarArray2D<?> erosionScalar(ScalarArray2D<?> array)
+    
+    /**
+     * Copies a result row into the result array, and resets the buffer row.
+     */
+    private static final void flushRow(ScalarArray2D<?> res, int y, double[] extrema, double outside)
     {
-        // get array size
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-        
-        final double OUTSIDE = Double.POSITIVE_INFINITY; 
-        
-        // number of non zero elements 
-        int count = elementCount();
-        int nOffsets = this.xOffsets.length;
-        
-        // create local histogram instance
-        LocalHistogramDoubleHashMap localHisto = new LocalHistogramDoubleHashMap(count, OUTSIDE);
-
-        // Allocate result
-        ScalarArray2D<?> res = array.duplicate();
-
-        // temp variables for updating local histogram
-        double vOld, vNew;
-        
-        // Iterate on image rows
-        for (int y = 0; y < sizeY; y++)
+        for (int x = 0; x < extrema.length; x++)
         {
-            fireProgressChanged(this, y, sizeY);
-
-            // init local histogram with background values
-            localHisto.reset(count, OUTSIDE);
-
-            // initialize histogram with values on the right of current position
-            for (int x = -intRadius; x < 0; x++)
-            {
-                for (int i = 0; i < nOffsets; i++)
-                {
-                    int y2 = y + this.yOffsets[i];
-                    if (y2 < 0 || y2 >= sizeY)
-                    {
-                        continue;
-                    }
-
-                    int x2 = x + this.xOffsets[i];
-                    if (x2 < 0 || x2 >= sizeX)
-                    {
-                        continue;
-                    }
-                    
-                    localHisto.replace(OUTSIDE, array.getValue(x2, y2));
-                }
-            }   
-
-            // iterate along "middle" values
-            for (int x = 0; x < sizeX; x++)
-            {
-                for (int i = 0; i < nOffsets; i++)
-                {
-                    // current line offset
-                    int y2 = y + this.yOffsets[i];
-                    
-                    // We need to test values only for lines within array bounds
-                    if (y2 >= 0 && y2 < sizeY)
-                    {
-                        // old value
-                        int x2 = x - this.xOffsets[i] - 1;
-                        vOld = (x2 >= 0 && x2 < sizeX) ? array.getValue(x2, y2) : OUTSIDE;
-                        
-                        // new value
-                        x2 = x + this.xOffsets[i];
-                        vNew = (x2 >= 0 && x2 < sizeX) ? array.getValue(x2, y2) : OUTSIDE;
-                        
-                        localHisto.replace(vOld, vNew);
-                    }
-                }
-
-                res.setValue(x, y, localHisto.getMinValue());
-            }
+            res.setValue(x, y, extrema[x]);
         }
-
-        // clear the progress bar
-        fireProgressChanged(this, sizeY, sizeY);
-        
-        return res;
+        Arrays.fill(extrema, outside);
     }
     
     /* (non-Javadoc)
@@ -3,7 +3,10 @@
  */
 package net.sci.image.morphology.strel;
 
+import java.util.function.Function;
+
 import net.sci.algo.AlgoStub;
+import net.sci.array.Arrays;
 import net.sci.array.binary.BinaryArray2D;
 import net.sci.array.binary.BinaryArray3D;
 import net.sci.array.numeric.ScalarArray2D;
@@ -14,6 +17,9 @@ import net.sci.array.numeric.ScalarArray3D;
  * This allows to apply morphological operations based on 2D structuring
  * elements also on 3D images.
  * 
+ * The slices are processed independently, in parallel if an execution pool
+ * is set up.
+ * 
  * @author dlegland
  *
  */
@@ -89,52 +95,61 @@ public class Strel2DWrapper extends AlgoStub implements Strel3D
     @Override
     public ScalarArray3D<?> dilation(ScalarArray3D<?> array)
     {
-        ScalarArray3D<?> result = array.duplicate();
-        int sizeX = array.size(0);
-        int sizeY = array.size(1);
-        int sizeZ = array.size(2);
-        for (int z = 0; z < sizeZ; z++)
-        {
-            // perform operation on current slice
-            this.fireProgressChanged(this, z, sizeZ);
-            ScalarArray2D<?> resZ = strel2d.dilation(array.slice(z));
-            
-            // copy 2D result into 3D array
-            for (int y = 0; y < sizeY; y++)
-            {
-                for (int x = 0; x < sizeX; x++)
-                {
-                    result.setValue(x, y, z, resZ.getValue(x, y));
-                }
-            }
-        }
-        
-        this.fireProgressChanged(this, 1, 1);
-        return result;
+        return processSlices(array, strel2d::dilation);
     }
 
     @Override
     public ScalarArray3D<?> erosion(ScalarArray3D<?> array)
+    {
+        return processSlices(array, strel2d::erosion);
+    }
+
+    /**
+     * Computes the opening of each slice with the 2D structuring element,
+     * which is equivalent to the opening of the 3D array.
+     */
+    @Override
+    public ScalarArray3D<?> opening(ScalarArray3D<?> array)
+    {
+        return processSlices(array, strel2d::opening);
+    }
+
+    /**
+     * Computes the closing of each slice with the 2D structuring element,
+     * which is equivalent to the closing of the 3D array.
+     */
+    @Override
+    public ScalarArray3D<?> closing(ScalarArray3D<?> array)
+    {
+        return processSlices(array, strel2d::closing);
+    }
+    
+    /**
+     * Applies a 2D operation on each slice of the array, and copies the
+     * results into a new 3D array.
+     */
+    private ScalarArray3D<?> processSlices(ScalarArray3D<?> array, Function<ScalarArray2D<?>, ScalarArray2D<?>> operation)
     {
         ScalarArray3D<?> result = array.duplicate();
         int sizeX = array.size(0);
         int sizeY = array.size(1);
-        int sizeZ = array.size(2);
-        for (int z = 0; z < sizeZ; z++)
+        processTiles(array.size(2), 0, Arrays.supportsConcurrentWrites(result), tile ->
         {
-            // perform operation on current slice
-            this.fireProgressChanged(this, z, sizeZ);
-            ScalarArray2D<?> resZ = strel2d.erosion(array.slice(z));
-            
-            // copy 2D result into 3D array
-            for (int y = 0; y < sizeY; y++)
+            for (int z = tile.start(); z < tile.end(); z++)
             {
-                for (int x = 0; x < sizeX; x++)
+                // perform operation on current slice
+                ScalarArray2D<?> resZ = operation.apply(array.slice(z));
+                
+                // copy 2D result into 3D array
+                for (int y = 0; y < sizeY; y++)
                 {
-                    result.setValue(x, y, z, resZ.getValue(x, y));
+                    for (int x = 0; x < sizeX; x++)
+                    {
+                        result.setValue(x, y, z, resZ.getValue(x, y));
+                    }
                 }
             }
-        }
+        });
         
         this.fireProgressChanged(this, 1, 1);
         return result;
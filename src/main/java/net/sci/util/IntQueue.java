@@ -0,0 +1,165 @@
+/**
+ *
+ */
+package net.sci.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A first-in first-out queue of int values, stored within a growable ring
+ * buffer. Contrary to a <code>Deque&lt;int[]&gt;</code>, no object is created
+ * when values are added, making it suitable for algorithms that queue a large
+ * number of positions, like morphological reconstruction or flood-fill.
+ *
+ * Positions are usually stored by adding their coordinates one after the
+ * other, and are retrieved by removing the same number of values, in the same
+ * order.
+ *
+ * <pre>{@code
+    IntQueue queue = new IntQueue();
+    queue.add(x);
+    queue.add(y);
+    ...
+    while (!queue.isEmpty())
+    {
+        int x = queue.remove();
+        int y = queue.remove();
+        ...
+    }
+ * }</pre>
+ *
+ * @author dlegland
+ *
+ */
+public class IntQueue
+{
+    // =============================================================
+    // Class variables
+
+    /**
+     * The buffer containing the values. Its length is always a power of two,
+     * so that the indices can be wrapped using a bit mask.
+     */
+    int[] buffer;
+
+    /**
+     * The index of the first value within the buffer.
+     */
+    int head = 0;
+
+    /**
+     * The number of values within the queue.
+     */
+    int size = 0;
+
+
+    // =============================================================
+    // Constructors
+
+    /**
+     * Creates a new empty queue with a default initial capacity.
+     */
+    public IntQueue()
+    {
+        this(256);
+    }
+
+    /**
+     * Creates a new empty queue that can contain the specified number of
+     * values before growing.
+     *
+     * @param capacity
+     *            the initial capacity of the queue
+     */
+    public IntQueue(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Requires a positive capacity");
+        }
+        this.buffer = new int[Integer.highestOneBit(Math.min(capacity, 1 << 30) * 2 - 1)];
+    }
+
+
+    // =============================================================
+    // Methods
+
+    /**
+     * Adds a value at the end of the queue, increasing the capacity of the
+     * queue if necessary.
+     *
+     * @param value
+     *            the value to add
+     */
+    public void add(int value)
+    {
+        if (this.size == this.buffer.length)
+        {
+            grow();
+        }
+        this.buffer[(this.head + this.size) & (this.buffer.length - 1)] = value;
+        this.size++;
+    }
+
+    /**
+     * Removes the value at the beginning of the queue, and returns it.
+     *
+     * @return the first value of the queue
+     * @throws NoSuchElementException
+     *             if the queue is empty
+     */
+    public int remove()
+    {
+        if (this.size == 0)
+        {
+            throw new NoSuchElementException("The queue is empty");
+        }
+        int value = this.buffer[this.head];
+        this.head = (this.head + 1) & (this.buffer.length - 1);
+        this.size--;
+        return value;
+    }
+
+    /**
+     * @return true if the queue does not contain any value
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * @return the number of values within the queue
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Removes all the values from the queue, keeping its capacity.
+     */
+    public void clear()
+    {
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Doubles the capacity of the buffer, and moves the values such that the
+     * first value is at the beginning of the new buffer.
+     */
+    private void grow()
+    {
+        int n = this.buffer.length;
+        if (n >= 1 << 30)
+        {
+            throw new IllegalStateException("Can not increase the capacity of the queue");
+        }
+        int[] newBuffer = new int[n * 2];
+        System.arraycopy(this.buffer, this.head, newBuffer, 0, n - this.head);
+        System.arraycopy(this.buffer, 0, newBuffer, n - this.head, this.head);
+        this.buffer = newBuffer;
+        this.head = 0;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ *
+ */
+package net.sci.array.binary;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * @author dlegland
+ *
+ */
+public class PackedBinaryArray2DTest
+{
+    /**
+     * Test method for {@link net.sci.array.binary.PackedBinaryArray2D#setBoolean(int, int, boolean)}.
+     */
+    @Test
+    public final void testSetBoolean()
+    {
+        // use a size that does not fit an integer number of words
+        PackedBinaryArray2D array = new PackedBinaryArray2D(13, 11);
+        array.fillBooleans((x, y) -> (x + y) % 3 == 0);
+
+        for (int y = 0; y < 11; y++)
+        {
+            for (int x = 0; x < 13; x++)
+            {
+                assertEquals((x + y) % 3 == 0, array.getBoolean(x, y));
+            }
+        }
+
+        array.setBoolean(12, 10, false);
+        assertFalse(array.getBoolean(12, 10));
+        assertTrue(array.getBoolean(11, 10));
+        assertFalse(array.getBoolean(10, 10));
+    }
+
+    /**
+     * Test method for {@link net.sci.array.binary.PackedBinaryArray#trueElementCount()}.
+     */
+    @Test
+    public final void testTrueElementCount()
+    {
+        PackedBinaryArray2D array = new PackedBinaryArray2D(100, 30);
+        array.fillBooleans((x, y) -> x < 10);
+
+        assertEquals(300, array.trueElementCount());
+
+        array.fill(true);
+        assertEquals(3000, array.trueElementCount());
+    }
+
+    /**
+     * Test method for {@link net.sci.array.binary.PackedBinaryArray2D#complement()}.
+     */
+    @Test
+    public final void testComplement()
+    {
+        PackedBinaryArray2D array = new PackedBinaryArray2D(13, 11);
+        array.fillBooleans((x, y) -> x < 4);
+
+        PackedBinaryArray2D res = array.complement();
+
+        assertEquals(13 * 11 - 4 * 11, res.trueElementCount());
+        assertFalse(res.getBoolean(3, 10));
+        assertTrue(res.getBoolean(4, 10));
+    }
+
+    /**
+     * Test method for {@link net.sci.array.binary.PackedBinaryArray2D#iterator()}.
+     */
+    @Test
+    public final void testIterator()
+    {
+        PackedBinaryArray2D array = new PackedBinaryArray2D(13, 11);
+        array.fillBooleans((x, y) -> y == 5);
+
+        int count = 0;
+        BinaryArray.Iterator iter = array.iterator();
+        while (iter.hasNext())
+        {
+            iter.forward();
+            if (iter.getBoolean()) count++;
+        }
+        assertEquals(13, count);
+    }
+
+    /**
+     * Test method for {@link net.sci.array.binary.PackedBinaryArrayFactory#create(int[])}.
+     */
+    @Test
+    public final void testFactory()
+    {
+        BinaryArray array = PackedBinaryArray.packedFactory.create(8, 6);
+        assertTrue(array instanceof PackedBinaryArray2D);
+
+        array = PackedBinaryArray.packedFactory.create(8, 6, 4);
+        assertTrue(array instanceof PackedBinaryArray3D);
+
+        array = PackedBinaryArray.packedFactory.create(8, 6, 4, 2);
+        assertTrue(array instanceof PackedBinaryArrayND);
+
+        array = PackedBinaryArray.packedFactory.create(new int[] {8, 6, 4, 2}, Binary.TRUE);
+        assertEquals(8 * 6 * 4 * 2, array.trueElementCount());
+    }
+
+    /**
+     * Checks that a buffer with more words than required by the array
+     * dimensions is rejected.
+     * 
+     * Test method for {@link net.sci.array.binary.PackedBinaryArray2D#PackedBinaryArray2D(int, int, long[])}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testConstructor_oversizedWords()
+    {
+        // 10 x 10 elements fit within two words
+        new PackedBinaryArray2D(10, 10, new long[3]);
+    }
+
+    /**
+     * Test method for {@link net.sci.array.binary.PackedBinaryArray3D#PackedBinaryArray3D(int, int, int, long[])}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testConstructor_oversizedWords_3d()
+    {
+        // 10 x 10 x 2 elements fit within four words
+        new PackedBinaryArray3D(10, 10, 2, new long[5]);
+    }
+
+    /**
+     * Test method for {@link net.sci.array.binary.PackedBinaryArrayND#PackedBinaryArrayND(int[], long[])}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testConstructor_oversizedWords_nd()
+    {
+        // 10 x 10 x 2 elements fit within four words
+        new PackedBinaryArrayND(new int[] {10, 10, 2}, new long[5]);
+    }
+
+    /**
+     * Checks that a buffer with the exact number of words is accepted, and that
+     * all the words are used for storing array data.
+     */
+    @Test
+    public final void testConstructor_exactWords()
+    {
+        PackedBinaryArray2D array = new PackedBinaryArray2D(10, 10, new long[2]);
+        array.fill(true);
+        assertEquals(100, array.trueElementCount());
+        assertEquals(0, array.complement().trueElementCount());
+    }
+}
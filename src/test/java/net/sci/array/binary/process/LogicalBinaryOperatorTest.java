@@ -13,6 +13,8 @@ import net.sci.array.binary.BinaryArray2D;
 import net.sci.array.binary.BinaryArray3D;
 import net.sci.array.binary.BufferedBinaryArray2D;
 import net.sci.array.binary.BufferedBinaryArray3D;
+import net.sci.array.binary.PackedBinaryArray;
+import net.sci.array.binary.PackedBinaryArray3D;
 import net.sci.array.binary.RunLengthBinaryArray2D;
 import net.sci.array.binary.RunLengthBinaryArray3D;
 
@@ -79,6 +81,29 @@ public class LogicalBinaryOperatorTest
         assertFalse(res.getBoolean(7, 5, 3));
     }
 
+    /**
+     * Test method for {@link net.sci.array.binary.process.LogicalBinaryOperator#process(net.sci.array.binary.BinaryArray, net.sci.array.binary.BinaryArray)}.
+     */
+    @Test
+    public final void testProcess_3d_Packed()
+    {
+        // initialize demo arrays, with a size that does not fit an integer number of words
+        PackedBinaryArray3D array1 = new PackedBinaryArray3D(9, 7, 5);
+        array1.fillBooleans((x,y,z) -> x >= 4);
+        PackedBinaryArray3D array2 = new PackedBinaryArray3D(9, 7, 5);
+        array2.fillBooleans((x,y,z) -> y >= 3);
+        
+        // use operator whose value for (false, false) is true
+        LogicalBinaryOperator op = new LogicalBinaryOperator((a,b) -> !a || b);
+        BinaryArray3D res = (BinaryArray3D) op.process(array1, array2);
+        
+        assertTrue(res instanceof PackedBinaryArray);
+        assertTrue(res.getBoolean(0, 0, 0));
+        assertFalse(res.getBoolean(8, 0, 0));
+        assertTrue(res.getBoolean(8, 6, 4));
+        assertEquals(9 * 7 * 5 - 5 * 3 * 5, res.trueElementCount());
+    }
+
     /**
      * Test method for {@link net.sci.array.binary.process.LogicalBinaryOperator#process(net.sci.array.binary.BinaryArray, net.sci.array.binary.BinaryArray, net.sci.array.binary.BinaryArray)}.
      */
@@ -8,6 +8,7 @@ import org.junit.runners.Suite;
 	// generic classes
     BufferedGenericArray2DTest.class,
     BufferedGenericArray3DTest.class,
+    DefaultCursorTest.class,
     DefaultPositionIteratorTest.class,
     ReverseOrderPositionIteratorTest.class,
     })
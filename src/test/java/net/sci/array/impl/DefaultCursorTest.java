@@ -0,0 +1,92 @@
+/**
+ * 
+ */
+package net.sci.array.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import net.sci.array.Cursor;
+import net.sci.array.numeric.UInt8Array3D;
+
+/**
+ * @author dlegland
+ *
+ */
+public class DefaultCursorTest
+{
+    /**
+     * Test method for {@link net.sci.array.impl.DefaultCursor#forward()}.
+     */
+    @Test
+    public final void testForward_2d()
+    {
+        int[] dims = new int[]{4,3};
+        DefaultCursor cursor = new DefaultCursor(dims);
+        int count = 0;
+        while(cursor.hasNext())
+        {
+            cursor.forward();
+            count++;
+        }
+        assertEquals(12, count);
+        assertEquals(3, cursor.get(0));
+        assertEquals(2, cursor.get(1));
+    }
+
+    /**
+     * Test method for {@link net.sci.array.impl.DefaultCursor#forward()}.
+     */
+    @Test
+    public final void testForward_3d()
+    {
+        int[] dims = new int[]{4, 3, 2};
+        DefaultCursor cursor = new DefaultCursor(dims);
+        int count = 0;
+        while(cursor.hasNext())
+        {
+            cursor.forward();
+            // check consistency of linear index with coordinates
+            int[] pos = cursor.position();
+            assertEquals(pos[0] + 4 * (pos[1] + 3 * pos[2]), cursor.index());
+            count++;
+        }
+        assertEquals(24, count);
+    }
+
+    /**
+     * Test method for {@link net.sci.array.impl.DefaultCursor#reset()}.
+     */
+    @Test
+    public final void testReset()
+    {
+        DefaultCursor cursor = new DefaultCursor(new int[] {3, 2});
+        cursor.forward();
+        cursor.forward();
+        cursor.reset();
+        cursor.forward();
+        
+        assertEquals(0, cursor.index());
+        assertEquals(0, cursor.get(0));
+        assertEquals(0, cursor.get(1));
+    }
+
+    /**
+     * Checks that the values accessed through a cursor are the same as the
+     * values accessed through coordinates.
+     */
+    @Test
+    public final void testGetValue_UInt8Array3D()
+    {
+        UInt8Array3D array = UInt8Array3D.create(5, 4, 3);
+        array.fillInts((x, y, z) -> x + 10 * y + 100 * z);
+        
+        Cursor cursor = array.cursor();
+        while(cursor.hasNext())
+        {
+            cursor.forward();
+            assertEquals(array.getValue(cursor.position()), array.getValue(cursor), 0.01);
+        }
+    }
+}
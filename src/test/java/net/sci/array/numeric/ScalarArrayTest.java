@@ -7,6 +7,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.PrimitiveIterator;
 import java.util.function.Function;
 
 import org.junit.Test;
@@ -105,6 +106,70 @@ public class ScalarArrayTest
         assertEquals(50, result.getValue(new int[] {49, 49}), .001);
     }
     
+    /**
+     * Test method for {@link net.sci.array.numeric.ScalarArray#mapValues(java.util.function.DoubleUnaryOperator)}.
+     */
+    @Test
+    public final void testMapValues()
+    {
+        UInt8Array2D array = UInt8Array2D.create(8, 6);
+        array.fillValues((x,y) -> (double) x + 10 * y);
+        
+        ScalarArray<UInt8> result = array.mapValues(Math::sqrt);
+        
+        assertTrue(result instanceof UInt8Array);
+        assertEquals(8, result.size(0));
+        assertEquals(6, result.size(1));
+        assertEquals(2, result.getValue(new int[] {4, 0}), .001);
+        assertEquals(7, result.getValue(new int[] {7, 4}), .001);
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.ScalarArray#mapValues(ScalarArray, java.util.function.DoubleBinaryOperator, ScalarArray)}.
+     */
+    @Test
+    public final void testMapValues_binary()
+    {
+        Float32Array2D array1 = Float32Array2D.create(8, 6);
+        array1.fillValues((x,y) -> (double) x);
+        UInt8Array2D array2 = UInt8Array2D.create(8, 6);
+        array2.fillValues((x,y) -> y * 10.0);
+        Float32Array2D output = Float32Array2D.create(8, 6);
+        
+        array1.mapValues(array2, (a, b) -> a + b, output);
+        
+        assertEquals(0, output.getValue(0, 0), .001);
+        assertEquals(7, output.getValue(7, 0), .001);
+        assertEquals(50, output.getValue(0, 5), .001);
+        assertEquals(57, output.getValue(7, 5), .001);
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.ScalarArray#valueIterator()}.
+     */
+    @Test
+    public final void testValueIterator_UInt8()
+    {
+        UInt8Array1D array = UInt8Array1D.create(10);
+        for (int i = 0; i < 10; i++)
+        {
+            array.setInt(i, i * 25);
+        }
+        
+        double sum = 0;
+        int count = 0;
+        PrimitiveIterator.OfDouble iter = array.valueIterator();
+        while (iter.hasNext())
+        {
+            sum += iter.nextDouble();
+            count++;
+        }
+        
+        assertEquals(10, count);
+        assertEquals(1125.0, sum, .001);
+        assertEquals(225.0, array.maxValue(), .001);
+    }
+    
     /**
      * Test method for {@link net.sci.array.Array#reshapeView(int[], java.util.function.Function)}.
      */
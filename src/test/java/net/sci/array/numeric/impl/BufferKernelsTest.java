@@ -0,0 +1,217 @@
+/**
+ * 
+ */
+package net.sci.array.numeric.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.Float32Array2D;
+import net.sci.array.numeric.Float32VectorArray2D;
+import net.sci.array.numeric.Float64Array2D;
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.UInt16Array2D;
+import net.sci.array.numeric.UInt8Array2D;
+import net.sci.array.numeric.impl.BufferKernels.Operation;
+import net.sci.array.numeric.process.ArrayMath;
+import net.sci.array.numeric.process.ArrayStatistics;
+import net.sci.array.numeric.process.Histogram;
+import net.sci.array.numeric.process.MathBinaryOperator;
+import net.sci.array.numeric.process.VectorArrayL2Norm;
+
+/**
+ * @author dlegland
+ *
+ */
+public class BufferKernelsTest
+{
+    /**
+     * Checks that the values written into a UInt8 buffer are rounded and
+     * clamped in the same way as with the setValue() method.
+     */
+    @Test
+    public final void testAffine_UInt8Rounding()
+    {
+        Float32Array2D array = Float32Array2D.create(3000, 2);
+        array.fillValues((x, y) -> (x - 1000) * 0.25);
+        UInt8Array2D res = UInt8Array2D.create(3000, 2);
+        
+        BufferKernels.affine(array, 1.0, 0.0, res);
+        
+        for (int x = 0; x < 3000; x++)
+        {
+            double v = array.getValue(x, 1);
+            UInt8Array2D exp = UInt8Array2D.create(1, 1);
+            exp.setValue(0, 0, v);
+            assertEquals(exp.getInt(0, 0), res.getInt(x, 1));
+        }
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.process.ArrayMath#divide(ScalarArray, double, ScalarArray)}.
+     */
+    @Test
+    public final void testArrayMath_divide_UInt16()
+    {
+        UInt16Array2D array = UInt16Array2D.create(50, 40);
+        array.fillInts((x, y) -> x * 100 + y);
+        
+        ScalarArray<?> res = ArrayMath.divide(array, 3.0);
+        
+        assertEquals(Math.round(4935 / 3.0), res.getValue(new int[] {49, 35}), 0.01);
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.process.ArrayStatistics}.
+     */
+    @Test
+    public final void testArrayStatistics_UInt8()
+    {
+        UInt8Array2D array = UInt8Array2D.create(100, 30);
+        array.fillInts((x, y) -> x + y);
+        
+        assertEquals(0.0, ArrayStatistics.min(array), 0.01);
+        assertEquals(128.0, ArrayStatistics.max(array), 0.01);
+        assertEquals(64.0, ArrayStatistics.mean(array), 0.01);
+        assertEquals(64.0 * 3000, ArrayStatistics.sum(array), 0.01);
+        
+        // compare variance with the generic computation
+        double var = 0;
+        for (int y = 0; y < 30; y++)
+        {
+            for (int x = 0; x < 100; x++)
+            {
+                double v = x + y - 64.0;
+                var += v * v;
+            }
+        }
+        assertEquals(var / 2999.0, ArrayStatistics.var(array), 1e-6);
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.process.MathBinaryOperator#processScalar(ScalarArray, ScalarArray, ScalarArray)}.
+     */
+    @Test
+    public final void testMathBinaryOperator_Float32()
+    {
+        Float32Array2D array1 = Float32Array2D.create(300, 200);
+        array1.fillValues((x, y) -> x * 1.0);
+        Float32Array2D array2 = Float32Array2D.create(300, 200);
+        array2.fillValues((x, y) -> y * 0.5);
+        Float32Array2D res = Float32Array2D.create(300, 200);
+        
+        MathBinaryOperator.ofDouble((a, b) -> a - b).processScalar(array1, array2, res);
+        
+        assertEquals(0.0, res.getValue(0, 0), 1e-6);
+        assertEquals(299.0 - 99.5, res.getValue(299, 199), 1e-6);
+        assertEquals(120.0 - 75.0, res.getValue(120, 150), 1e-6);
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.process.Histogram#process(net.sci.array.Array)}.
+     */
+    @Test
+    public final void testHistogram_UInt8()
+    {
+        UInt8Array2D array = UInt8Array2D.create(256, 4);
+        array.fillInts((x, y) -> x);
+        
+        Histogram.Result res = new Histogram(new double[] {0, 255}, 256).process(array);
+        
+        for (int i = 0; i < 256; i++)
+        {
+            assertEquals(4, res.counts()[i]);
+        }
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.process.VectorArrayL2Norm#processVector(net.sci.array.numeric.VectorArray)}.
+     */
+    @Test
+    public final void testVectorArrayL2Norm()
+    {
+        Float32VectorArray2D array = Float32VectorArray2D.create(20, 10, 2);
+        for (int y = 0; y < 10; y++)
+        {
+            for (int x = 0; x < 20; x++)
+            {
+                array.setValue(x, y, 0, x * 3.0);
+                array.setValue(x, y, 1, x * 4.0);
+            }
+        }
+        
+        ScalarArray<?> res = new VectorArrayL2Norm().processVector(array);
+        
+        assertEquals(0.0, res.getValue(new int[] {0, 0}), 1e-6);
+        assertEquals(50.0, res.getValue(new int[] {10, 5}), 1e-6);
+    }
+    
+    /**
+     * Processes the same arrays with the kernel based on the Vector API and
+     * with the scalar kernel, and checks that the results are the same. The
+     * number of elements is chosen such that the last values do not fill a
+     * whole vector.
+     */
+    @Test
+    public final void testKernels_vectorAndScalar()
+    {
+        BufferKernels.Kernel vectorKernel = BufferKernels.loadKernel();
+        assumeTrue("Requires the jdk.incubator.vector module", vectorKernel != BufferKernels.scalarKernel);
+        
+        Float64Array2D array1 = Float64Array2D.create(1003, 3);
+        array1.fillValues((x, y) -> (x - 500) * 0.37 + y);
+        Float64Array2D array2 = Float64Array2D.create(1003, 3);
+        array2.fillValues((x, y) -> (x % 17) - 8.5 + y * 0.25);
+        
+        BufferKernels.Kernel initialKernel = BufferKernels.kernel;
+        try
+        {
+            for (Operation op : Operation.values())
+            {
+                ScalarArray<?> res1 = Float64Array2D.create(1003, 3);
+                ScalarArray<?> res2 = Float64Array2D.create(1003, 3);
+                BufferKernels.kernel = vectorKernel;
+                BufferKernels.combine(array1, array2, op, res1, 0, 3009);
+                BufferKernels.kernel = BufferKernels.scalarKernel;
+                BufferKernels.combine(array1, array2, op, res2, 0, 3009);
+                assertSameValues(res2, res1);
+            }
+            
+            UInt8Array2D res1 = UInt8Array2D.create(1003, 3);
+            UInt8Array2D res2 = UInt8Array2D.create(1003, 3);
+            BufferKernels.kernel = vectorKernel;
+            BufferKernels.affine(array1, 0.3, 100.0, res1);
+            double min1 = BufferKernels.min(array1);
+            double max1 = BufferKernels.max(array2);
+            BufferKernels.kernel = BufferKernels.scalarKernel;
+            BufferKernels.affine(array1, 0.3, 100.0, res2);
+            assertSameValues(res2, res1);
+            assertEquals(BufferKernels.min(array1), min1, 0.0);
+            assertEquals(BufferKernels.max(array2), max1, 0.0);
+            
+            Float64Array2D res3 = Float64Array2D.create(1003, 3);
+            Float64Array2D res4 = Float64Array2D.create(1003, 3);
+            BufferKernels.kernel = vectorKernel;
+            BufferKernels.divide(array1, 3.0, res3);
+            BufferKernels.clamp(res3, -20.0, 30.0, res3);
+            BufferKernels.kernel = BufferKernels.scalarKernel;
+            BufferKernels.divide(array1, 3.0, res4);
+            BufferKernels.clamp(res4, -20.0, 30.0, res4);
+            assertSameValues(res4, res3);
+        }
+        finally
+        {
+            BufferKernels.kernel = initialKernel;
+        }
+    }
+    
+    private static final void assertSameValues(ScalarArray<?> expected, ScalarArray<?> array)
+    {
+        for (int[] pos : expected.positions())
+        {
+            assertEquals(expected.getValue(pos), array.getValue(pos), 0.0);
+        }
+    }
+}
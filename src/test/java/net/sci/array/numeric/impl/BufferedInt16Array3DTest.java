@@ -65,4 +65,21 @@ public class BufferedInt16Array3DTest
 		assertEquals(60, count);
 	}
 
+    @Test
+    public final void testMapValues_binary()
+    {
+        BufferedInt16Array3D array1 = new BufferedInt16Array3D(5, 4, 3);
+        array1.fillInts((x, y, z) -> x * 1000 - 2000);
+        BufferedInt16Array3D array2 = new BufferedInt16Array3D(5, 4, 3);
+        array2.fillInts((x, y, z) -> z * 20000);
+        BufferedInt16Array3D res = new BufferedInt16Array3D(5, 4, 3);
+        
+        array1.mapValues(array2, (a, b) -> a + b, res);
+        
+        // results are clamped to the range of Int16
+        assertEquals(-2000, res.getInt(0, 0, 0));
+        assertEquals(19000, res.getInt(1, 3, 1));
+        assertEquals(32767, res.getInt(4, 0, 2));
+    }
+
 }
@@ -82,6 +82,22 @@ public class BufferedUInt8Array2DTest
 		assertEquals(30, count);
 	}
 
+    @Test
+    public final void testMapValues()
+    {
+        BufferedUInt8Array2D array = new BufferedUInt8Array2D(6, 5);
+        array.fillInts((x, y) -> x * 50);
+        BufferedUInt8Array2D res = new BufferedUInt8Array2D(6, 5);
+        
+        array.mapValues(v -> v + 10.4, res);
+        
+        // values above 127 are read as unsigned, and results are clamped
+        assertEquals(10, res.getInt(0, 0));
+        assertEquals(160, res.getInt(3, 2));
+        assertEquals(210, res.getInt(4, 2));
+        assertEquals(255, res.getInt(5, 4));
+    }
+
 	@Test
 	public final void testGetFactory()
 	{
@@ -0,0 +1,103 @@
+/**
+ * 
+ */
+package net.sci.array.numeric.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.UInt8Array3D;
+import net.sci.array.numeric.process.ChunkwiseOperator;
+import net.sci.image.filtering.BoxFilter;
+
+/**
+ * @author dlegland
+ *
+ */
+public class ChunkedUInt8Array3DTest
+{
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.ChunkedUInt8Array3D#getInt(int, int, int)}.
+     */
+    @Test
+    public final void testGetInt()
+    {
+        ChunkedUInt8Array3D array = new ChunkedUInt8Array3D(10, 8, 6, new int[] {4, 4, 4});
+        array.fillInts((x, y, z) -> x + 10 * y + 30 * z % 50);
+        
+        assertEquals(0, array.getInt(0, 0, 0));
+        assertEquals(9 + 70 + 0, array.getInt(9, 7, 5));
+        assertEquals(3 + 40 + 30, array.getInt(3, 4, 1));
+    }
+    
+    /**
+     * Checks that the values are preserved when chunks are evicted and
+     * compressed.
+     */
+    @Test
+    public final void testSetInt_evictChunks()
+    {
+        // budget for only two decompressed chunks
+        ChunkedUInt8Array3D array = new ChunkedUInt8Array3D(10, 8, 6, new int[] {4, 4, 4}, ChunkStore.Compression.DEFLATE, 2 * 64);
+        array.fillInts((x, y, z) -> x + 10 * y + 20 * z);
+        
+        assertTrue(array.chunkStore().decompressedByteCount() <= 2 * 64);
+        for (int z = 0; z < 6; z++)
+        {
+            for (int y = 0; y < 8; y++)
+            {
+                for (int x = 0; x < 10; x++)
+                {
+                    assertEquals(Math.min(x + 10 * y + 20 * z, 255), array.getInt(x, y, z));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.ChunkedUInt8Array3D#duplicate()}.
+     */
+    @Test
+    public final void testDuplicate()
+    {
+        ChunkedUInt8Array3D array = new ChunkedUInt8Array3D(10, 8, 6, new int[] {4, 4, 4});
+        array.fillValue(100);
+        
+        ChunkedUInt8Array3D dup = array.duplicate();
+        array.setInt(2, 2, 2, 20);
+        
+        assertEquals(100, dup.getInt(2, 2, 2));
+        assertEquals(20, array.getInt(2, 2, 2));
+    }
+    
+    /**
+     * Checks that processing a chunked array chunk by chunk gives the same
+     * result as processing the whole array.
+     */
+    @Test
+    public final void testChunkwiseOperator_BoxFilter()
+    {
+        ChunkedUInt8Array3D array = new ChunkedUInt8Array3D(12, 10, 8, new int[] {5, 5, 5});
+        array.fillInts((x, y, z) -> (x * 7 + y * 13 + z * 29) % 200);
+        
+        BoxFilter filter = new BoxFilter(new int[] {3, 3, 3});
+        UInt8Array3D exp = (UInt8Array3D) filter.processScalar(array);
+        
+        ChunkwiseOperator op = new ChunkwiseOperator(filter, new int[] {1, 1, 1});
+        ChunkedUInt8Array3D res = new ChunkedUInt8Array3D(12, 10, 8, new int[] {5, 5, 5});
+        op.processScalar(array, res);
+        
+        for (int z = 0; z < 8; z++)
+        {
+            for (int y = 0; y < 10; y++)
+            {
+                for (int x = 0; x < 12; x++)
+                {
+                    assertEquals(exp.getInt(x, y, z), res.getInt(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -5,8 +5,10 @@ package net.sci.array.numeric.impl;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -132,4 +134,60 @@ public class FileMappedUInt16Array3DTest
         assertEquals( 45.0, array.getValue(5, 4, 0), .01);
         assertEquals(345.0, array.getValue(5, 4, 3), .01);
     }
+
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.FileMappedUInt16Array3D#getValue(int[])}.
+     */
+    @Test
+    public final void testGetValue_smallCache() throws IOException
+    {
+        File file = File.createTempFile("fileMapped", ".raw");
+        file.deleteOnExit();
+        String fileName = file.getPath();
+        
+        // create file content
+        FileMappedUInt16Array3D array0 = new FileMappedUInt16Array3D(fileName, 0, 6, 5, 4, ByteOrder.BIG_ENDIAN, true);
+        array0.fillInts((x, y, z) -> x + 10 * y + 100 * z);
+        array0.close();
+
+        FileMappedUInt16Array3D array = new FileMappedUInt16Array3D(fileName, 0, 6, 5, 4);
+        array.setCacheCapacity(2);
+        array.setReadAhead(1);
+        
+        // iterate along z-axis several times
+        for (int i = 0; i < 3; i++)
+        {
+            for (int z = 0; z < 4; z++)
+            {
+                assertEquals(z * 100 + 45.0, array.getValue(5, 4, z), .01);
+            }
+        }
+        array.close();
+    }
+
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.FileMappedUInt16Array3D#setShort(int, int, int, short)}.
+     * 
+     * @throws IOException
+     *             in case of I/O problem.
+     */
+    @Test
+    public final void testSetInt_writable() throws IOException
+    {
+        File file = File.createTempFile("fileMapped", ".raw");
+        file.deleteOnExit();
+        String fileName = file.getPath();
+        
+        FileMappedUInt16Array3D array = new FileMappedUInt16Array3D(fileName, 0, 6, 5, 4, ByteOrder.LITTLE_ENDIAN, true);
+        array.fillInts((x, y, z) -> x + 10 * y + 100 * z + 40000);
+        array.close();
+        
+        assertEquals(6 * 5 * 4 * 2, file.length());
+        
+        FileMappedUInt16Array3D array2 = new FileMappedUInt16Array3D(fileName, 0, 6, 5, 4, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(40000, array2.getInt(0, 0, 0));
+        assertEquals(40345, array2.getInt(5, 4, 3));
+        assertEquals(40345.0, array2.getValue(new int[] {5, 4, 3}), .01);
+        array2.close();
+    }
 }
@@ -0,0 +1,74 @@
+/**
+ * 
+ */
+package net.sci.array.numeric.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.Float32Array2D;
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.UInt8Array2D;
+
+/**
+ * @author dlegland
+ *
+ */
+public class LazyScalarArrayTest
+{
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.LazyScalarArray#materialize()}.
+     */
+    @Test
+    public final void testMaterialize_chain()
+    {
+        UInt8Array2D array = UInt8Array2D.create(8, 6);
+        array.fillInts((x, y) -> x * 10 + y);
+        
+        LazyScalarArray<?> lazy = array.lazy().plus(5).times(2).min(100);
+        ScalarArray<?> res = lazy.materialize();
+        
+        assertTrue(res instanceof UInt8Array2D);
+        assertEquals(8, res.size(0));
+        assertEquals(6, res.size(1));
+        assertEquals(10, res.getValue(new int[] {0, 0}), 0.01);
+        assertEquals(2 * (30 + 2 + 5), res.getValue(new int[] {3, 2}), 0.01);
+        assertEquals(100, res.getValue(new int[] {7, 5}), 0.01);
+    }
+    
+    /**
+     * Checks that intermediate values are not converted to the type of the
+     * source array.
+     */
+    @Test
+    public final void testGetValue_noIntermediateClamping()
+    {
+        UInt8Array2D array = UInt8Array2D.create(4, 3);
+        array.fillValue(200);
+        
+        LazyScalarArray<?> lazy = array.lazy().plus(100).minus(150);
+        
+        assertEquals(150, lazy.getValue(new int[] {2, 1}), 0.01);
+        assertEquals(150, lazy.materialize().getValue(new int[] {2, 1}), 0.01);
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.LazyScalarArray#writeTo(ScalarArray)}.
+     */
+    @Test
+    public final void testWriteTo_combine()
+    {
+        UInt8Array2D array1 = UInt8Array2D.create(8, 6);
+        array1.fillInts((x, y) -> x);
+        UInt8Array2D array2 = UInt8Array2D.create(8, 6);
+        array2.fillInts((x, y) -> y);
+        
+        Float32Array2D target = Float32Array2D.create(8, 6);
+        array1.lazy().times(0.5).combine(array2, (v1, v2) -> v1 - v2).writeTo(target);
+        
+        assertEquals(0.0, target.getValue(0, 0), 0.01);
+        assertEquals(3.5 - 5.0, target.getValue(7, 5), 0.01);
+    }
+}
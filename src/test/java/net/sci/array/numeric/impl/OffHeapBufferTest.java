@@ -0,0 +1,47 @@
+/**
+ * 
+ */
+package net.sci.array.numeric.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * @author dlegland
+ *
+ */
+public class OffHeapBufferTest
+{
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.OffHeapBuffer#getDouble(long)}.
+     */
+    @Test
+    public final void testPutDouble()
+    {
+        OffHeapBuffer buffer = new OffHeapBuffer(100, 8);
+        for (int i = 0; i < 100; i++)
+        {
+            buffer.putDouble(i, i * 0.5);
+        }
+        
+        assertEquals(100, buffer.elementCount());
+        assertEquals(0.0, buffer.getDouble(0), 0.01);
+        assertEquals(49.5, buffer.getDouble(99), 0.01);
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.OffHeapBuffer#duplicate()}.
+     */
+    @Test
+    public final void testDuplicate()
+    {
+        OffHeapBuffer buffer = new OffHeapBuffer(100, 2);
+        buffer.putShort(50, (short) 1234);
+        
+        OffHeapBuffer dup = buffer.duplicate();
+        buffer.putShort(50, (short) 0);
+        
+        assertEquals(1234, dup.getShort(50));
+    }
+}
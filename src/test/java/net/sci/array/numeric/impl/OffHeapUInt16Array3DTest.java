@@ -0,0 +1,106 @@
+/**
+ * 
+ */
+package net.sci.array.numeric.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.UInt16;
+import net.sci.array.numeric.UInt16Array;
+import net.sci.array.numeric.UInt16Array3D;
+import net.sci.image.filtering.BoxFilter;
+
+/**
+ * @author dlegland
+ *
+ */
+public class OffHeapUInt16Array3DTest
+{
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.OffHeapUInt16Array3D#getShort(int, int, int)}.
+     */
+    @Test
+    public final void testSetInt()
+    {
+        OffHeapUInt16Array3D array = new OffHeapUInt16Array3D(5, 4, 3);
+        array.fillInts((x, y, z) -> x + 10 * y + 100 * z);
+        
+        assertEquals(0, array.getInt(0, 0, 0));
+        assertEquals(234, array.getInt(4, 3, 2));
+        
+        array.setInt(4, 3, 2, 70000);
+        assertEquals(UInt16.MAX_INT, array.getInt(4, 3, 2));
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.OffHeapUInt16Array3D#iterator()}.
+     */
+    @Test
+    public final void testIterator()
+    {
+        OffHeapUInt16Array3D array = new OffHeapUInt16Array3D(5, 4, 3);
+        array.fillValue(1000);
+        
+        int count = 0;
+        double sum = 0;
+        for (UInt16 val : array) 
+        {
+            sum += val.value();
+            count++;
+        }
+        
+        assertEquals(60, count);
+        assertEquals(60_000.0, sum, 0.1);
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.OffHeapUInt16Array3D#duplicate()}.
+     */
+    @Test
+    public final void testDuplicate()
+    {
+        OffHeapUInt16Array3D array = new OffHeapUInt16Array3D(5, 4, 3);
+        array.fillValue(1000);
+        
+        OffHeapUInt16Array3D dup = array.duplicate();
+        array.setInt(2, 2, 2, 20);
+        
+        assertEquals(1000, dup.getInt(2, 2, 2));
+        assertEquals(20, array.getInt(2, 2, 2));
+    }
+    
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.OffHeapUInt16Array3D#newInstance(int...)}.
+     */
+    @Test
+    public final void testNewInstance()
+    {
+        OffHeapUInt16Array3D array = new OffHeapUInt16Array3D(5, 4, 3);
+        
+        UInt16Array res = array.newInstance(6, 5, 4);
+        assertTrue(res instanceof OffHeapUInt16Array3D);
+        assertEquals(4, res.size(2));
+        assertSame(array.factory(), new OffHeapUInt16Array3D(2, 2, 2).factory());
+    }
+    
+    /**
+     * Checks that an operator can use the off-heap factory to create its result.
+     */
+    @Test
+    public final void testBoxFilter_OffHeapFactory()
+    {
+        UInt16Array3D array = UInt16Array3D.create(10, 8, 6);
+        array.fillValue(500);
+        
+        BoxFilter filter = new BoxFilter(new int[] {3, 3, 3});
+        filter.setFactory(new OffHeapUInt16ArrayFactory());
+        UInt16Array res = (UInt16Array) filter.processScalar(array);
+        
+        assertTrue(res instanceof OffHeapUInt16Array3D);
+        assertEquals(500, res.getInt(new int[] {5, 4, 3}));
+    }
+}
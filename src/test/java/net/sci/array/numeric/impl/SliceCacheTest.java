@@ -0,0 +1,158 @@
+/**
+ * 
+ */
+package net.sci.array.numeric.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.UInt8Array2D;
+
+/**
+ * @author dlegland
+ *
+ */
+public class SliceCacheTest
+{
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.SliceCache#get(int)}.
+     */
+    @Test
+    public final void testGet_LeastRecentlyUsedEviction()
+    {
+        AtomicInteger loadCount = new AtomicInteger(0);
+        SliceCache<UInt8Array2D> cache = new SliceCache<UInt8Array2D>(5, 2, index -> {
+            loadCount.incrementAndGet();
+            UInt8Array2D slice = UInt8Array2D.create(3, 2);
+            slice.fillInt(index);
+            return slice;
+        });
+        
+        UInt8Array2D slice0 = cache.get(0);
+        cache.get(1);
+        assertEquals(2, loadCount.get());
+        assertSame(slice0, cache.get(0));
+        assertEquals(2, loadCount.get());
+        
+        // slice 1 is the least recently used one
+        cache.get(2);
+        assertEquals(3, loadCount.get());
+        assertTrue(cache.isCached(0));
+        assertFalse(cache.isCached(1));
+        assertTrue(cache.isCached(2));
+        
+        assertEquals(1, cache.get(1).getInt(2, 1));
+        assertEquals(4, loadCount.get());
+    }
+
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.SliceCache#prefetch(int, java.util.concurrent.Executor)}.
+     */
+    @Test
+    public final void testPrefetch()
+    {
+        AtomicInteger loadCount = new AtomicInteger(0);
+        SliceCache<UInt8Array2D> cache = new SliceCache<UInt8Array2D>(10, 4, index -> {
+            loadCount.incrementAndGet();
+            UInt8Array2D slice = UInt8Array2D.create(3, 2);
+            slice.fillInt(index);
+            return slice;
+        });
+        
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            for (int z = 1; z <= 3; z++)
+            {
+                assertTrue(cache.prefetch(z, pool));
+            }
+            
+            // slices are loaded only once, either by prefetching or on demand
+            for (int z = 1; z <= 3; z++)
+            {
+                assertEquals(z, cache.get(z).getInt(1, 1));
+            }
+            assertEquals(3, loadCount.get());
+            assertFalse(cache.prefetch(2, pool));
+            assertFalse(cache.prefetch(10, pool));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks that slices are prefetched in the direction of the last accesses.
+     * 
+     * Test method for {@link net.sci.array.numeric.impl.SliceCache#getAndPrefetch(int)}.
+     */
+    @Test
+    public final void testGetAndPrefetch_backward()
+    {
+        SliceCache<UInt8Array2D> cache = new SliceCache<UInt8Array2D>(10, 2, index -> {
+            UInt8Array2D slice = UInt8Array2D.create(3, 2);
+            slice.fillInt(index);
+            return slice;
+        });
+        // load prefetched slices within the calling thread
+        cache.setExecutor(Runnable::run);
+        cache.setPrefetchWindow(2);
+        assertEquals(3, cache.capacity());
+        
+        assertEquals(9, cache.getAndPrefetch(9).getInt(1, 1));
+        assertEquals(8, cache.getAndPrefetch(8).getInt(1, 1));
+        assertTrue(cache.isCached(7));
+        assertTrue(cache.isCached(6));
+        assertFalse(cache.isCached(5));
+    }
+
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.SliceCache#loadAll()}.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public final void testLoadAll() throws IOException
+    {
+        SliceCache<UInt8Array2D> cache = new SliceCache<UInt8Array2D>(6, 2, index -> {
+            UInt8Array2D slice = UInt8Array2D.create(3, 2);
+            slice.fillInt(index);
+            return slice;
+        });
+        
+        List<UInt8Array2D> slices = cache.loadAll();
+        assertEquals(6, slices.size());
+        for (int z = 0; z < 6; z++)
+        {
+            assertEquals(z, slices.get(z).getInt(2, 1));
+        }
+    }
+
+    /**
+     * Test method for {@link net.sci.array.numeric.impl.VirtualUInt8Array3D#getInt(int, int, int)}.
+     */
+    @Test
+    public final void testVirtualUInt8Array3D_getInt()
+    {
+        VirtualUInt8Array3D array = new VirtualUInt8Array3D(4, 3, 10, index -> {
+            UInt8Array2D slice = UInt8Array2D.create(4, 3);
+            slice.fillInts((x, y) -> x + 4 * y + 12 * index);
+            return slice;
+        });
+        
+        assertEquals(0, array.getInt(0, 0, 0));
+        assertEquals(11 + 12 * 7, array.getInt(3, 2, 7));
+        assertEquals(5 + 12 * 9, array.getInt(new int[] {1, 1, 9}));
+        assertFalse(array.isModifiable());
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ *
+ */
+package net.sci.array.numeric.process;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.UInt8Array3D;
+import net.sci.array.numeric.impl.BufferKernels;
+import net.sci.array.numeric.impl.SlicedUInt8Array3D;
+
+/**
+ * @author dlegland
+ *
+ */
+public class HistogramTest
+{
+    /**
+     * Compares the histogram computed from the buffer of a buffered array with
+     * the histogram computed by iterating the values of an array with the
+     * same values, for a range such that some values fall on bin edges.
+     *
+     * Test method for {@link net.sci.array.numeric.process.Histogram#process(net.sci.array.Array)}.
+     */
+    @Test
+    public final void testProcess_bufferedAndGeneric_binEdges()
+    {
+        UInt8Array3D array = UInt8Array3D.create(16, 16, 1);
+        array.fillInts((x, y, z) -> x + y * 16);
+        SlicedUInt8Array3D sliced = new SlicedUInt8Array3D(16, 16, 1);
+        sliced.fillInts((x, y, z) -> x + y * 16);
+        assertTrue(BufferKernels.isBuffered(array));
+        assertFalse(BufferKernels.isBuffered(sliced));
+
+        Histogram algo = new Histogram(new double[] {10, 200}, 22);
+        Histogram.Result res1 = algo.process(array);
+        Histogram.Result res2 = algo.process(sliced);
+
+        // the value 105 falls on the edge between bins 10 and 11
+        assertArrayEquals(res2.counts, res1.counts);
+    }
+}
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertEquals;
 
 import org.junit.Test;
 
+import net.sci.array.binary.PackedBinaryArray2D;
 import net.sci.array.color.RGB8;
 import net.sci.array.color.RGB8Array2D;
 import net.sci.array.color.RGB8Array3D;
@@ -191,4 +192,38 @@ public class MathBinaryOperatorTest
         assertEquals( 4.0, res.getValue(4, 0, 2), 0.01);
         assertEquals(30.0, res.getValue(0, 3, 2), 0.01);
         assertEquals(34.0, res.getValue(4, 3, 2), 0.01);    }
+
+    /**
+     * Checks that packed binary outputs, whose rows share 64-bits words, are
+     * correctly computed when several threads are requested.
+     * 
+     * Test method for {@link net.sci.array.numeric.process.MathBinaryOperator#processScalar(net.sci.array.scalar.ScalarArray, net.sci.array.scalar.ScalarArray, net.sci.array.scalar.ScalarArray)}.
+     */
+    @Test
+    public final void test_processScalar_packedBinary_2d_parallel()
+    {
+        // initialize demo arrays
+        UInt8Array2D array1 = UInt8Array2D.create(10, 200);
+        array1.fillValues((x,y) -> (double) ((x + y) % 3));
+        UInt8Array2D array2 = UInt8Array2D.create(10, 200);
+        array2.fillValues((x,y) -> (double) ((x * y) % 2));
+        // allocate output array
+        PackedBinaryArray2D res = new PackedBinaryArray2D(10, 200);
+        // create operator
+        MathBinaryOperator op = new MathBinaryOperator((a,b) -> a > 0 && b > 0 ? 1.0 : 0.0);
+        op.setThreadCount(4);
+        
+        // process
+        op.processScalar(array1, array2, res);
+        
+        // check validity
+        for (int y = 0; y < 200; y++)
+        {
+            for (int x = 0; x < 10; x++)
+            {
+                boolean exp = (x + y) % 3 > 0 && (x * y) % 2 > 0;
+                assertEquals(exp, res.getBoolean(x, y));
+            }
+        }
+    }
 }
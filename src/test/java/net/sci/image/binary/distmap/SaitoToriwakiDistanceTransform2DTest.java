@@ -87,4 +87,27 @@ public class SaitoToriwakiDistanceTransform2DTest
         assertEquals(Math.hypot(4, 6), result.getValue(12, 8), 0.001);
     }
 
+    /**
+     * Test method for {@link net.sci.image.binary.distmap.SaitoToriwakiDistanceTransform2D#setMaxDistance(double)}.
+     */
+    @Test
+    public void test_process2d_maxDistance()
+    {
+        // Create a white image, with a black pixel in the middle
+        BinaryArray2D array = BinaryArray2D.create(13, 9);
+        array.fill(true);
+        array.setBoolean(6, 4, false);
+
+        SaitoToriwakiDistanceTransform2D algo = new SaitoToriwakiDistanceTransform2D();
+        algo.setMaxDistance(3.0);
+        ScalarArray2D<?> result = algo.process2d(array);
+        
+        // small distances are computed exactly
+        assertEquals(0.0, result.getValue(6, 4), 0.001);
+        assertEquals(Math.hypot(2, 2), result.getValue(8, 6), 0.001);
+        assertEquals(3.0, result.getValue(3, 4), 0.001);
+        // larger distances are only greater than the maximum distance
+        assertTrue(result.getValue(2, 4) > 3.0);
+        assertTrue(result.getValue(0, 0) > 3.0);
+    }
 }
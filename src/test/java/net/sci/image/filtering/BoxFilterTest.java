@@ -5,11 +5,15 @@ import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import net.sci.algo.AlgoEvent;
+import net.sci.algo.AlgoListener;
+
 import net.sci.array.Array;
 import net.sci.array.Array2D;
 import net.sci.array.color.RGB8;
 import net.sci.array.color.RGB8Array2D;
 import net.sci.array.impl.GenericArray2D;
+import net.sci.array.numeric.Float32Array3D;
 import net.sci.array.numeric.ScalarArray;
 import net.sci.array.numeric.UInt8Array2D;
 import net.sci.array.numeric.UInt8Array3D;
@@ -92,4 +96,52 @@ public class BoxFilterTest
         Vector2D v_4_3 = result.get(4, 3);
         assertTrue(new Vector2D(2, -1).almostEquals(v_4_3, 0.01));
     }
+
+    /**
+     * Checks that the result obtained with several threads is the same as the
+     * result of sequential processing, and that progress events are fired.
+     */
+    @Test
+    public void testProcessScalar3d_parallel()
+    {
+        Float32Array3D array = Float32Array3D.create(20, 15, 10);
+        array.fillValues((x, y, z) -> Math.sin(x * 0.3) + Math.cos(y * 0.7 + z * 0.1) * 100);
+        
+        BoxFilter filter = new BoxFilter(new int[] {5, 3, 3});
+        Float32Array3D expected = Float32Array3D.create(20, 15, 10);
+        filter.processScalar3d(array, expected);
+        
+        filter.setThreadCount(4);
+        int[] eventCount = new int[] {0};
+        filter.addAlgoListener(new AlgoListener()
+        {
+            @Override
+            public void algoProgressChanged(AlgoEvent evt)
+            {
+                synchronized (eventCount)
+                {
+                    eventCount[0]++;
+                }
+            }
+
+            @Override
+            public void algoStatusChanged(AlgoEvent evt)
+            {
+            }
+        });
+        Float32Array3D result = Float32Array3D.create(20, 15, 10);
+        filter.processScalar3d(array, result);
+        
+        assertTrue(eventCount[0] > 0);
+        for (int z = 0; z < 10; z++)
+        {
+            for (int y = 0; y < 15; y++)
+            {
+                for (int x = 0; x < 20; x++)
+                {
+                    assertEquals(expected.getFloat(x, y, z), result.getFloat(x, y, z), 0.0);
+                }
+            }
+        }
+    }
 }
@@ -94,4 +94,31 @@ public class MedianFilterBoxSlidingTest
         // test middle (1 case)
         assertEquals(200, result.getInt(3, 3, 3));
     }
+
+    /**
+     * Checks that the result obtained with several threads is the same as the
+     * result of sequential processing.
+     */
+    @Test
+    public final void testProcessScalar2d_UInt8_parallel()
+    {
+        UInt8Array2D array = UInt8Array2D.create(30, 25);
+        array.fillInts((x,y) -> (x * 37 + y * 91) % 256);
+        
+        MedianFilterBoxSliding algo = new MedianFilterBoxSliding(new int[] {5, 5});
+        UInt8Array2D expected = array.duplicate();
+        algo.processScalar2d(array, expected);
+        
+        algo.setThreadCount(3);
+        UInt8Array2D result = array.duplicate();
+        algo.processScalar2d(array, result);
+        
+        for (int y = 0; y < 25; y++)
+        {
+            for (int x = 0; x < 30; x++)
+            {
+                assertEquals(expected.getInt(x, y), result.getInt(x, y));
+            }
+        }
+    }
 }
@@ -6,9 +6,13 @@ package net.sci.image.io;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 
 import org.junit.Test;
 
+import net.sci.array.numeric.UInt8Array3D;
+
 /**
  * 
  */
@@ -32,4 +36,52 @@ public class FileListUInt8ImageSeriesTest
         assertEquals( 81, array.getInt(150, 100, 24));
     }
     
+    /**
+     * Test method for {@link net.sci.image.io.FileListUInt8ImageSeries#setPrefetchWindow(int)}.
+     */
+    @Test
+    public final void testSetPrefetchWindow()
+    {
+        File[] fileList = sortedFileList();
+        FileListUInt8ImageSeries array = new FileListUInt8ImageSeries(fileList, 512, 512);
+        array.setCacheCapacity(2);
+        array.setPrefetchWindow(4);
+        
+        // cache capacity is increased to keep prefetched slices
+        assertEquals(4, array.getPrefetchWindow());
+        assertEquals(5, array.cache.capacity());
+        
+        for (int z = 0; z < fileList.length; z++)
+        {
+            assertEquals(array.slice(z).getInt(200, 89), array.getInt(200, 89, z));
+        }
+        assertEquals(81, array.getInt(150, 100, 24));
+    }
+    
+    /**
+     * Test method for {@link net.sci.image.io.FileListUInt8ImageSeries#loadAll()}.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public final void testLoadAll() throws IOException
+    {
+        File[] fileList = sortedFileList();
+        FileListUInt8ImageSeries array = new FileListUInt8ImageSeries(fileList, 512, 512);
+        
+        UInt8Array3D res = array.loadAll();
+        assertEquals(512, res.size(0));
+        assertEquals(512, res.size(1));
+        assertEquals(fileList.length, res.size(2));
+        assertEquals(172, res.getInt(200, 89, 0));
+        assertEquals( 81, res.getInt(150, 100, 24));
+    }
+    
+    private File[] sortedFileList()
+    {
+        File dirFile = new File(getClass().getResource("/images/slices").getFile());
+        File[] fileList = dirFile.listFiles(file -> file.getName().endsWith(".tif"));
+        Arrays.sort(fileList);
+        return fileList;
+    }
 }
@@ -1,12 +1,19 @@
 package net.sci.image.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
 
+import net.sci.algo.AlgoEvent;
+import net.sci.algo.AlgoListener;
 import net.sci.array.numeric.Float32Array;
+import net.sci.array.numeric.Float32Array3D;
 import net.sci.array.numeric.Float64Array;
 import net.sci.array.numeric.Int16Array;
 import net.sci.array.numeric.Int32Array;
@@ -413,4 +420,52 @@ public class ImageBinaryDataReaderTest
         
         assertEquals(234.0, array.getValue(new int[]{4, 3, 2}), .01);
     }
+
+    /**
+     * Reads a 3D Float32 array whose slices are larger than the buffer used
+     * for bulk reads, and checks the progress events.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testReadImage_3D_Float32_lsb_largeSlices() throws IOException
+    {
+        int sizeX = 700, sizeY = 500, sizeZ = 3;
+        ByteBuffer bb = ByteBuffer.allocate(sizeX * sizeY * sizeZ * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < sizeX * sizeY * sizeZ; i++)
+        {
+            bb.putFloat(i * 0.5f);
+        }
+        File file = File.createTempFile("float32Ramp", ".raw");
+        Files.write(file.toPath(), bb.array());
+        
+        ArrayList<AlgoEvent> events = new ArrayList<>();
+        ImageBinaryDataReader reader = new ImageBinaryDataReader(file, ByteOrder.LITTLE_ENDIAN);
+        reader.addAlgoListener(new AlgoListener()
+        {
+            @Override
+            public void algoProgressChanged(AlgoEvent evt)
+            {
+                events.add(evt);
+            }
+
+            @Override
+            public void algoStatusChanged(AlgoEvent evt)
+            {
+            }
+        });
+        Float32Array3D array = reader.readFloat32Array3D(sizeX, sizeY, sizeZ);
+        reader.close();
+        file.delete();
+        
+        assertEquals(0.0, array.getValue(0, 0, 0), 0.0);
+        assertEquals((sizeX * 300 + 650) * 0.5, array.getValue(650, 300, 0), 0.0);
+        assertEquals((sizeX * sizeY * 2 + sizeX * 499 + 699) * 0.5, array.getValue(699, 499, 2), 0.0);
+        
+        // progress is reported in bytes, over the whole array
+        assertTrue(events.size() >= sizeZ);
+        AlgoEvent last = events.get(events.size() - 1);
+        assertEquals(sizeX * sizeY * sizeZ * 4.0, last.getTotalProgress(), 0.0);
+        assertEquals(last.getTotalProgress(), last.getCurrentProgress(), 0.0);
+    }
 }
@@ -0,0 +1,72 @@
+/**
+ * 
+ */
+package net.sci.image.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+import net.sci.array.Array;
+import net.sci.array.color.RGB8;
+import net.sci.array.color.RGB8Array2D;
+import net.sci.array.numeric.UInt16Array2D;
+
+/**
+ * @author dlegland
+ *
+ */
+public class ImageIOImageReaderTest
+{
+    /**
+     * Test method for {@link net.sci.image.io.ImageIOImageReader#convertToArray(BufferedImage)}.
+     */
+    @Test
+    public final void testConvertToArray_Gray16()
+    {
+        BufferedImage bufImg = new BufferedImage(6, 4, BufferedImage.TYPE_USHORT_GRAY);
+        bufImg.getRaster().setSample(5, 3, 0, 40000);
+        
+        Array<?> array = ImageIOImageReader.convertToArray(bufImg);
+        assertTrue(array instanceof UInt16Array2D);
+        assertEquals(40000, ((UInt16Array2D) array).getInt(5, 3));
+    }
+
+    /**
+     * Test method for {@link net.sci.image.io.ImageIOImageReader#convertToArray(BufferedImage)}.
+     */
+    @Test
+    public final void testConvertToArray_SubImage()
+    {
+        BufferedImage bufImg = new BufferedImage(10, 8, BufferedImage.TYPE_3BYTE_BGR);
+        bufImg.setRGB(6, 5, new java.awt.Color(1, 2, 3).getRGB());
+        
+        RGB8Array2D array = (RGB8Array2D) ImageIOImageReader.convertToArray(bufImg.getSubimage(4, 2, 5, 5));
+        assertEquals(5, array.size(0));
+        RGB8 rgb = array.get(2, 3);
+        assertEquals(1, rgb.getSample(0));
+        assertEquals(2, rgb.getSample(1));
+        assertEquals(3, rgb.getSample(2));
+    }
+
+    /**
+     * Test method for {@link net.sci.image.io.ImageIOImageReader#convertColorRaster(java.awt.image.WritableRaster, int[], int)}.
+     */
+    @Test
+    public final void testConvertColorRaster_SubImage()
+    {
+        BufferedImage bufImg = new BufferedImage(10, 8, BufferedImage.TYPE_3BYTE_BGR);
+        bufImg.setRGB(6, 5, new java.awt.Color(1, 2, 3).getRGB());
+        
+        int[] codes = new int[3 + 5 * 5];
+        ImageIOImageReader.convertColorRaster(bufImg.getSubimage(4, 2, 5, 5).getRaster(), codes, 3);
+        RGB8 rgb = new RGB8(codes[3 + 3 * 5 + 2]);
+        assertEquals(1, rgb.getSample(0));
+        assertEquals(2, rgb.getSample(1));
+        assertEquals(3, rgb.getSample(2));
+        assertEquals(0, codes[3]);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * 
+ */
+package net.sci.image.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+import net.sci.array.Array3D;
+import net.sci.array.color.RGB8;
+import net.sci.array.color.RGB8Array3D;
+import net.sci.array.numeric.UInt8Array3D;
+
+/**
+ * @author dlegland
+ *
+ */
+public class ImageIOSeriesReaderTest
+{
+    /**
+     * Test method for {@link net.sci.image.io.ImageIOSeriesReader#readImageStack()}.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public final void testReadImageStack_Gray8() throws IOException
+    {
+        File dir = Files.createTempDirectory("pngSeries").toFile();
+        try
+        {
+            for (int z = 0; z < 4; z++)
+            {
+                BufferedImage bufImg = new BufferedImage(30, 20, BufferedImage.TYPE_BYTE_GRAY);
+                for (int y = 0; y < 20; y++)
+                {
+                    for (int x = 0; x < 30; x++)
+                    {
+                        bufImg.getRaster().setSample(x, y, 0, x + y + 50 * z);
+                    }
+                }
+                ImageIO.write(bufImg, "png", new File(dir, String.format("slice%02d.png", z)));
+            }
+            
+            Array3D<?> array = new ImageIOSeriesReader(dir).readImageStack();
+            assertTrue(array instanceof UInt8Array3D);
+            UInt8Array3D res = (UInt8Array3D) array;
+            assertEquals(30, res.size(0));
+            assertEquals(20, res.size(1));
+            assertEquals(4, res.size(2));
+            assertEquals(29 + 19 + 150, res.getInt(29, 19, 3));
+            assertEquals(5 + 7 + 50, res.getInt(5, 7, 1));
+        }
+        finally
+        {
+            for (File file : dir.listFiles()) file.delete();
+            dir.delete();
+        }
+    }
+
+    /**
+     * Test method for {@link net.sci.image.io.ImageIOSeriesReader#readImageStack()}.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public final void testReadImageStack_RGB8() throws IOException
+    {
+        File dir = Files.createTempDirectory("pngSeries").toFile();
+        try
+        {
+            for (int z = 0; z < 3; z++)
+            {
+                BufferedImage bufImg = new BufferedImage(10, 8, BufferedImage.TYPE_3BYTE_BGR);
+                bufImg.setRGB(2, 3, new java.awt.Color(200, 100, 10 * z).getRGB());
+                ImageIO.write(bufImg, "png", new File(dir, "slice" + z + ".png"));
+            }
+            
+            Array3D<?> array = new ImageIOSeriesReader(dir).readImageStack();
+            assertTrue(array instanceof RGB8Array3D);
+            RGB8 rgb = ((RGB8Array3D) array).get(2, 3, 2);
+            assertEquals(200, rgb.getSample(0));
+            assertEquals(100, rgb.getSample(1));
+            assertEquals(20, rgb.getSample(2));
+        }
+        finally
+        {
+            for (File file : dir.listFiles()) file.delete();
+            dir.delete();
+        }
+    }
+}
@@ -3,12 +3,31 @@
  */
 package net.sci.image.io;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
 
 import org.junit.Test;
 
+import net.sci.array.numeric.Float32Array2D;
+import net.sci.array.numeric.ScalarArray2D;
+import net.sci.array.numeric.ScalarArray3D;
+import net.sci.array.numeric.UInt16Array2D;
 import net.sci.array.numeric.UInt8Array2D;
+import net.sci.array.numeric.UInt8Array3D;
 import net.sci.image.Image;
 
 /**
@@ -39,4 +58,160 @@ public class MetaImageWriterTest
 		
 	}
 
+	/**
+	 * Writes a compressed 3D image, and reads it again.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWriteImage_compressed_UInt8_3D() throws IOException
+	{
+		UInt8Array3D array = UInt8Array3D.create(60, 50, 40);
+		array.fillValues((x, y, z) -> (double) ((x * 3 + y * 7 + z * z) % 200));
+		
+		File outputFile = File.createTempFile("testWriteCompressed", ".mhd");
+		MetaImageWriter writer = new MetaImageWriter(outputFile);
+		writer.setCompressed(true);
+		writer.setCompressionLevel(9);
+		writer.writeImage(new Image(array));
+		
+		File dataFile = new File(outputFile.getPath().replace(".mhd", ".zraw"));
+		assertTrue(dataFile.exists());
+		MetaImageInfo info = MetaImageReader.readFileInfo(outputFile);
+		assertTrue(info.compressedData);
+		assertEquals(dataFile.length(), info.compressedDataSize);
+		
+		Image image = new MetaImageReader(outputFile).readImage();
+		ScalarArray3D<?> data = (ScalarArray3D<?>) image.getData();
+		assertEquals(40, data.size(2));
+		for (int z = 0; z < 40; z++)
+		{
+			for (int y = 0; y < 50; y++)
+			{
+				for (int x = 0; x < 60; x++)
+				{
+					assertEquals(array.getValue(x, y, z), data.getValue(x, y, z), 0.0);
+				}
+			}
+		}
+		
+		outputFile.delete();
+		dataFile.delete();
+	}
+	
+	/**
+	 * Writes a compressed 2D image with 16-bits values, and reads it again.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWriteImage_compressed_UInt16_2D() throws IOException
+	{
+		UInt16Array2D array = UInt16Array2D.create(30, 20);
+		array.fillValues((x, y) -> (double) (x * 1000 + y));
+		
+		File outputFile = File.createTempFile("testWriteCompressed", ".mhd");
+		MetaImageWriter writer = new MetaImageWriter(outputFile);
+		writer.setCompressed(true);
+		writer.writeImage(new Image(array));
+		
+		ScalarArray2D<?> data = (ScalarArray2D<?>) new MetaImageReader(outputFile).readImage().getData();
+		for (int y = 0; y < 20; y++)
+		{
+			for (int x = 0; x < 30; x++)
+			{
+				assertEquals(array.getValue(x, y), data.getValue(x, y), 0.0);
+			}
+		}
+		
+		outputFile.delete();
+		new File(outputFile.getPath().replace(".mhd", ".zraw")).delete();
+	}
+	
+	/**
+	 * Reads a compressed file with local data and little-endian float values,
+	 * as written by ITK.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testReadImage_compressed_local_Float32() throws IOException
+	{
+		int sizeX = 25, sizeY = 16;
+		ByteBuffer bb = ByteBuffer.allocate(sizeX * sizeY * 4).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < sizeX * sizeY; i++)
+		{
+			bb.putFloat(i * 0.5f - 10.0f);
+		}
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (DeflaterOutputStream dos = new DeflaterOutputStream(compressed))
+		{
+			dos.write(bb.array());
+		}
+		
+		File file = File.createTempFile("testReadCompressed", ".mha");
+		try (FileOutputStream fos = new FileOutputStream(file))
+		{
+			PrintStream ps = new PrintStream(fos);
+			ps.print("ObjectType = Image\nNDims = 2\nDimSize = 25 16\nElementType = MET_FLOAT\n");
+			ps.print("BinaryDataByteOrderMSB = False\nCompressedData = True\n");
+			ps.print("CompressedDataSize = " + compressed.size() + "\nElementDataFile = LOCAL\n");
+			ps.flush();
+			fos.write(compressed.toByteArray());
+		}
+		
+		Image image = new MetaImageReader(file).readImage();
+		assertTrue(image.getData() instanceof Float32Array2D);
+		Float32Array2D data = (Float32Array2D) image.getData();
+		for (int y = 0; y < sizeY; y++)
+		{
+			for (int x = 0; x < sizeX; x++)
+			{
+				assertEquals((y * sizeX + x) * 0.5 - 10.0, data.getValue(x, y), 0.0);
+			}
+		}
+		file.delete();
+	}
+	
+	/**
+	 * Compresses data by blocks in parallel, and checks the result can be
+	 * decoded as a single zlib stream.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testParallelDeflaterOutputStream() throws Exception
+	{
+		byte[] data = new byte[500_000];
+		Random random = new Random(42);
+		for (int i = 0; i < data.length; i++)
+		{
+			data[i] = (byte) (random.nextInt(8) + (i / 1000));
+		}
+		
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		ParallelDeflaterOutputStream stream = new ParallelDeflaterOutputStream(baos, Deflater.BEST_SPEED, pool, 1 << 15);
+		stream.write(data, 0, 1234);
+		for (int i = 1234; i < 5000; i++)
+		{
+			stream.write(data[i]);
+		}
+		stream.write(data, 5000, data.length - 5000);
+		stream.close();
+		pool.shutdown();
+		assertEquals(baos.size(), stream.getCompressedSize());
+		
+		Inflater inflater = new Inflater();
+		inflater.setInput(baos.toByteArray());
+		byte[] res = new byte[data.length];
+		int n = 0;
+		while (!inflater.finished())
+		{
+			n += inflater.inflate(res, n, res.length - n);
+		}
+		inflater.end();
+		assertEquals(data.length, n);
+		assertArrayEquals(data, res);
+	}
 }
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.junit.Test;
@@ -26,6 +27,8 @@ import net.sci.array.numeric.impl.FileMappedFloat32Array3D;
 import net.sci.array.numeric.impl.FileMappedUInt16Array3D;
 import net.sci.image.Image;
 import net.sci.image.ImageAxis;
+import net.sci.image.io.tiff.BaselineTags;
+import net.sci.image.io.tiff.Entry;
 import net.sci.image.io.tiff.ImagejMetadata;
 
 public class TiffImageReaderTest
@@ -581,6 +584,56 @@ public class TiffImageReaderTest
         assertEquals(40, array3.size(1));
     }
 
+    /**
+     * Test method for {@link net.sci.image.io.TiffImageReader#readHyperstack(int[], int[])}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void test_readHyperstack_subset() throws Exception
+    {
+        // create an hyperstack with 2 channels, 3 slices and 2 frames
+        UInt16Array3D array = UInt16Array3D.create(20, 15, 12);
+        array.fillValues((x,y,i) -> (double) (i * 100 + x + y));
+        String description = "ImageJ=1.54m\nimages=12\nchannels=2\nslices=3\nframes=2\nhyperstack=true\n";
+        
+        File file = File.createTempFile("hyperstack", ".tif");
+        try (TiffImageWriter writer = new TiffImageWriter(file))
+        {
+            writer.useImagejDescription(false);
+            writer.addCustomTag(new Entry(BaselineTags.ImageDescription.CODE, Entry.Type.ASCII, 1, 0).setValue(description));
+            writer.writeImage(new Image(array));
+        }
+        
+        TiffImageReader reader = new TiffImageReader(file);
+        
+        // whole hyperstack: dimensions are X, Y, C, Z, T
+        ScalarArray<?> all = (ScalarArray<?>) reader.readImage().getData();
+        assertEquals(5, all.dimensionality());
+        assertEquals(1 + 2 * (2 + 3 * 1), all.getValue(new int[] {0, 0, 1, 2, 1}) / 100, 0.01);
+        
+        // second channel of second frame
+        Image image = reader.readHyperstack(new int[] {1}, new int[] {1});
+        ScalarArray<?> data = (ScalarArray<?>) image.getData();
+        assertEquals(3, data.dimensionality());
+        assertEquals(3, data.size(2));
+        for (int z = 0; z < 3; z++)
+        {
+            int index = 1 + 2 * (z + 3 * 1);
+            assertEquals(index * 100 + 7 + 4, data.getValue(new int[] {7, 4, z}), 0.01);
+        }
+        
+        // both channels of the first frame, read on demand
+        Image image2 = reader.readVirtualHyperstack(null, new int[] {0});
+        ScalarArray<?> data2 = (ScalarArray<?>) image2.getData();
+        assertEquals(4, data2.dimensionality());
+        assertEquals(2, data2.size(2));
+        assertEquals(3, data2.size(3));
+        assertEquals((1 + 2 * 2) * 100 + 5, data2.getValue(new int[] {5, 0, 1, 2}), 0.01);
+        
+        file.delete();
+    }
+    
     private static final void assertSameColor(Color color, int r, int g, int b)
     {
         assertEquals(r, (int) (color.red() * 255));
@@ -4,13 +4,20 @@
 package net.sci.image.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Map;
 
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+
 import org.junit.Test;
 
 import net.sci.array.binary.BinaryArray2D;
@@ -24,10 +31,13 @@ import net.sci.array.numeric.Float64Array2D;
 import net.sci.array.numeric.Float64Vector;
 import net.sci.array.numeric.Float64VectorArray2D;
 import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.ScalarArray3D;
 import net.sci.array.numeric.UInt16Array2D;
+import net.sci.array.numeric.UInt16Array3D;
 import net.sci.array.numeric.UInt8Array2D;
 import net.sci.array.numeric.UInt8Array3D;
 import net.sci.array.numeric.VectorArray;
+import net.sci.array.numeric.impl.VirtualUInt16Array3D;
 import net.sci.image.Image;
 import net.sci.image.io.tiff.BaselineTags;
 import net.sci.image.io.tiff.Entry;
@@ -458,4 +468,180 @@ public class TiffImageWriterTest
         boolean b = outputFile.delete();
         assertTrue(b);
     }
+    
+    /**
+     * Writes a 3D image with PackBits compression.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void test_writeImage_UInt8_3D_PackBits() throws Exception
+    {
+        UInt8Array3D array = UInt8Array3D.create(300, 80, 5);
+        array.fillValues((x,y,z) -> (double) (x < 150 ? 20 * z : (x * 7 + y * 3) % 256));
+        
+        File outputFile = File.createTempFile("testWriteTiff", ".tif");
+        try(TiffImageWriter writer = new TiffImageWriter(outputFile))
+        {
+            writer.setCompression(BaselineTags.Compression.PACKBITS);
+            writer.writeImage(new Image(array));
+        }
+        
+        ScalarArray3D<?> array2 = (ScalarArray3D<?>) new TiffImageReader(outputFile).readImage().getData();
+        assertArrayEquals(array, array2);
+        assertTrue(outputFile.length() < 300 * 80 * 5);
+        outputFile.delete();
+    }
+    
+    /**
+     * Writes a 2D image with Deflate compression.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void test_writeImage_UInt16_Deflate() throws Exception
+    {
+        UInt16Array2D array = UInt16Array2D.create(200, 150);
+        array.fillInts((x,y) -> x * 300 + y);
+        
+        File outputFile = File.createTempFile("testWriteTiff", ".tif");
+        try(TiffImageWriter writer = new TiffImageWriter(outputFile))
+        {
+            writer.setCompression(BaselineTags.Compression.DEFLATE).setCompressionLevel(9);
+            writer.writeImage(new Image(array));
+        }
+        
+        Image image2 = new TiffImageReader(outputFile).readImage();
+        assertEquals(2, image2.getDimension());
+        ScalarArray<?> array2 = (ScalarArray<?>) image2.getData();
+        for (int y = 0; y < 150; y++)
+        {
+            for (int x = 0; x < 200; x++)
+            {
+                assertEquals(x * 300 + y, array2.getValue(new int[] {x, y}), 0.0);
+            }
+        }
+        outputFile.delete();
+    }
+    
+    /**
+     * Writes a stack slice by slice using LZW compression, and reads it using
+     * both the TiffImageReader and the TIFF reader of the JDK.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void test_writeSlice_UInt16_LZW() throws Exception
+    {
+        UInt16Array3D array = UInt16Array3D.create(250, 120, 4);
+        array.fillValues((x,y,z) -> (double) (((x * 13 + y * y * 7 + z * 1000) ^ (x * y)) % 65536));
+        
+        File outputFile = File.createTempFile("testWriteTiff", ".tif");
+        try(TiffImageWriter writer = new TiffImageWriter(outputFile))
+        {
+            writer.setCompression(BaselineTags.Compression.LZW);
+            writer.startStack(new Image(array.slice(0)), 4);
+            for (int z = 0; z < 4; z++)
+            {
+                writer.writeSlice(array.slice(z));
+            }
+            writer.endStack();
+        }
+        
+        ScalarArray3D<?> array2 = (ScalarArray3D<?>) new TiffImageReader(outputFile).readImage().getData();
+        assertArrayEquals(array, array2);
+        
+        try (ImageInputStream iis = ImageIO.createImageInputStream(outputFile))
+        {
+            Iterator<javax.imageio.ImageReader> readers = ImageIO.getImageReaders(iis);
+            javax.imageio.ImageReader reader = readers.next();
+            reader.setInput(iis);
+            assertEquals(4, reader.getNumImages(true));
+            BufferedImage bufImg = reader.read(3);
+            for (int y = 0; y < 120; y++)
+            {
+                for (int x = 0; x < 250; x++)
+                {
+                    assertEquals(array.getValue(x, y, 3), bufImg.getRaster().getSample(x, y, 0), 0.0);
+                }
+            }
+            reader.dispose();
+        }
+        outputFile.delete();
+    }
+    
+    /**
+     * Checks that finishing a stack with less slices than declared throws an
+     * exception.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void test_endStack_missingSlices() throws Exception
+    {
+        UInt8Array3D array = UInt8Array3D.create(20, 10, 4);
+        
+        File outputFile = File.createTempFile("testWriteTiff", ".tif");
+        try(TiffImageWriter writer = new TiffImageWriter(outputFile))
+        {
+            writer.startStack(new Image(array.slice(0)), 4);
+            for (int z = 0; z < 3; z++)
+            {
+                writer.writeSlice(array.slice(z));
+            }
+            writer.endStack();
+            fail("An exception should have been thrown");
+        }
+        catch (IOException ex)
+        {
+            // expected behavior
+        }
+        finally
+        {
+            outputFile.delete();
+        }
+    }
+    
+    /**
+     * Writes a compressed stack, and reads it as a virtual stack whose slices
+     * are decoded on demand.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void test_readVirtualImage_UInt16_Deflate() throws Exception
+    {
+        UInt16Array3D array = UInt16Array3D.create(60, 40, 5);
+        array.fillValues((x,y,z) -> (double) ((x * 31 + y * 17 + z * 1000) % 65536));
+        
+        File outputFile = File.createTempFile("testWriteTiff", ".tif");
+        try(TiffImageWriter writer = new TiffImageWriter(outputFile))
+        {
+            writer.setCompression(BaselineTags.Compression.DEFLATE);
+            writer.writeImage(new Image(array));
+        }
+        
+        ScalarArray3D<?> array2 = (ScalarArray3D<?>) new TiffImageReader(outputFile).readVirtualImage().getData();
+        assertTrue(array2 instanceof VirtualUInt16Array3D);
+        assertFalse(array2.isModifiable());
+        assertArrayEquals(array, array2);
+        outputFile.delete();
+    }
+
+    private static final void assertArrayEquals(ScalarArray3D<?> expected, ScalarArray3D<?> array)
+    {
+        assertEquals(expected.size(0), array.size(0));
+        assertEquals(expected.size(1), array.size(1));
+        assertEquals(expected.size(2), array.size(2));
+        for (int z = 0; z < expected.size(2); z++)
+        {
+            for (int y = 0; y < expected.size(1); y++)
+            {
+                for (int x = 0; x < expected.size(0); x++)
+                {
+                    assertEquals(expected.getValue(x, y, z), array.getValue(x, y, z), 0.0);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,271 @@
+/**
+ *
+ */
+package net.sci.image.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import net.sci.array.Array;
+import net.sci.array.numeric.Float64Array2D;
+import net.sci.array.numeric.Int16Array;
+import net.sci.array.numeric.UInt16Array3D;
+import net.sci.array.numeric.UInt8Array3D;
+import net.sci.array.numeric.impl.ChunkedArray;
+import net.sci.array.numeric.impl.ChunkedUInt16Array3D;
+import net.sci.image.Image;
+import net.sci.image.io.zarr.ZarrArrayInfo;
+
+/**
+ * @author dlegland
+ *
+ */
+public class ZarrImageWriterTest
+{
+    /**
+     * Writes a 3D UInt16 image with chunks that do not divide the image size,
+     * and reads it back as a chunked array.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_writeImage_UInt16_3D() throws IOException
+    {
+        UInt16Array3D array = UInt16Array3D.create(50, 40, 30);
+        array.fillValues((x, y, z) -> (double) ((x * 7 + y * 13 + z * 1000) % 65536));
+        File dir = Files.createTempDirectory("zarrWriter").toFile();
+
+        try
+        {
+            ZarrImageWriter writer = new ZarrImageWriter(dir);
+            writer.setChunkSizes(new int[] {16, 16, 16});
+            writer.writeImage(new Image(array));
+
+            // dimensions of zarr array are in numpy order
+            ZarrArrayInfo info = ZarrArrayInfo.read(dir);
+            assertEquals(30, info.shape[0]);
+            assertEquals(50, info.shape[2]);
+            assertEquals("<u2", info.dataType());
+            assertTrue(new File(dir, "1.2.3").exists());
+
+            Image image = Image.readImage(dir);
+            Array<?> data = image.getData();
+            assertTrue(data instanceof ChunkedUInt16Array3D);
+            assertTrue(data instanceof ChunkedArray);
+
+            UInt16Array3D res = (UInt16Array3D) data;
+            assertEquals(50, res.size(0));
+            assertEquals(40, res.size(1));
+            assertEquals(30, res.size(2));
+            for (int z = 0; z < 30; z++)
+            {
+                for (int y = 0; y < 40; y++)
+                {
+                    for (int x = 0; x < 50; x++)
+                    {
+                        assertEquals(array.getInt(x, y, z), res.getInt(x, y, z));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * Writes a 2D Float64 image with raw chunks, and reads it back.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_writeImage_Float64_2D_raw() throws IOException
+    {
+        Float64Array2D array = Float64Array2D.create(30, 20);
+        array.fillValues((x, y) -> x * 0.5 - y * 1.25);
+        File dir = Files.createTempDirectory("zarrWriter").toFile();
+
+        try
+        {
+            ZarrImageWriter writer = new ZarrImageWriter(dir);
+            writer.setChunkSizes(new int[] {8, 8});
+            writer.setCompressor(null);
+            writer.writeImage(new Image(array));
+
+            // raw chunks are stored uncompressed
+            assertEquals(8 * 8 * 8, new File(dir, "0.0").length());
+
+            Float64Array2D res = (Float64Array2D) new ZarrImageReader(dir).readImageData();
+            for (int y = 0; y < 20; y++)
+            {
+                for (int x = 0; x < 30; x++)
+                {
+                    assertEquals(array.getValue(x, y), res.getValue(x, y), 0.0);
+                }
+            }
+        }
+        finally
+        {
+            deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * Reads a Zarr array written by another application, with big-endian
+     * data, nested chunk directories, missing chunks and a non-zero fill
+     * value.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImage_Int16_nested() throws IOException
+    {
+        File dir = Files.createTempDirectory("zarrReader").toFile();
+        try
+        {
+            String json = "{\"zarr_format\": 2, \"shape\": [3, 5], \"chunks\": [2, 4], "
+                    + "\"dtype\": \">i2\", \"compressor\": null, \"fill_value\": -7, "
+                    + "\"order\": \"C\", \"filters\": null, \"dimension_separator\": \"/\"}";
+            Files.write(new File(dir, ".zarray").toPath(), json.getBytes(StandardCharsets.UTF_8));
+
+            // only the first chunk is stored: rows 0-1, columns 0-3
+            ByteBuffer bb = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+            for (int i = 0; i < 8; i++)
+            {
+                bb.putShort((short) (i * 100 - 300));
+            }
+            new File(dir, "0").mkdir();
+            Files.write(new File(dir, "0/0").toPath(), bb.array());
+
+            Int16Array res = (Int16Array) new ZarrImageReader(dir).readImageData();
+            assertEquals(5, res.size(0));
+            assertEquals(3, res.size(1));
+            assertEquals(-300, res.getValue(new int[] {0, 0}), 0.0);
+            assertEquals(-200, res.getValue(new int[] {1, 0}), 0.0);
+            assertEquals(100, res.getValue(new int[] {0, 1}), 0.0);
+            assertEquals(-7, res.getValue(new int[] {4, 0}), 0.0);
+            assertEquals(-7, res.getValue(new int[] {0, 2}), 0.0);
+        }
+        finally
+        {
+            deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * Reads a 3D Zarr array whose chunks are stored in "F" order. The numpy
+     * array has shape (2, 3, 4), and the element at numpy position (i, j, k)
+     * equals 100*i + 10*j + k. Chunks have shape (1, 3, 2), and the elements
+     * of each chunk are stored with the first numpy index varying the fastest.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImage_UInt8_3D_orderF() throws IOException
+    {
+        File dir = Files.createTempDirectory("zarrReader").toFile();
+        try
+        {
+            String json = "{\"zarr_format\": 2, \"shape\": [2, 3, 4], \"chunks\": [1, 3, 2], "
+                    + "\"dtype\": \"|u1\", \"compressor\": null, \"fill_value\": 0, "
+                    + "\"order\": \"F\", \"filters\": null}";
+            Files.write(new File(dir, ".zarray").toPath(), json.getBytes(StandardCharsets.UTF_8));
+
+            // write the chunks, using numpy indices for chunk keys
+            for (int ci = 0; ci < 2; ci++)
+            {
+                for (int ck = 0; ck < 2; ck++)
+                {
+                    byte[] bytes = new byte[6];
+                    for (int lk = 0; lk < 2; lk++)
+                    {
+                        for (int lj = 0; lj < 3; lj++)
+                        {
+                            bytes[lj + 3 * lk] = (byte) (100 * ci + 10 * lj + (2 * ck + lk));
+                        }
+                    }
+                    Files.write(new File(dir, ci + ".0." + ck).toPath(), bytes);
+                }
+            }
+
+            UInt8Array3D res = (UInt8Array3D) new ZarrImageReader(dir).readImageData();
+            assertEquals(4, res.size(0));
+            assertEquals(3, res.size(1));
+            assertEquals(2, res.size(2));
+            for (int z = 0; z < 2; z++)
+            {
+                for (int y = 0; y < 3; y++)
+                {
+                    for (int x = 0; x < 4; x++)
+                    {
+                        assertEquals(100 * z + 10 * y + x, res.getInt(x, y, z));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * Reads a 2D Zarr array stored in "F" order as a single chunk. The numpy
+     * array has shape (2, 3), and its elements are stored column by column.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImage_Int16_2D_orderF() throws IOException
+    {
+        File dir = Files.createTempDirectory("zarrReader").toFile();
+        try
+        {
+            String json = "{\"zarr_format\": 2, \"shape\": [2, 3], \"chunks\": [2, 3], "
+                    + "\"dtype\": \"<i2\", \"compressor\": null, \"fill_value\": 0, "
+                    + "\"order\": \"F\", \"filters\": null}";
+            Files.write(new File(dir, ".zarray").toPath(), json.getBytes(StandardCharsets.UTF_8));
+
+            // numpy array [[1, 2, 3], [4, 5, 6]], stored as 1, 4, 2, 5, 3, 6
+            ByteBuffer bb = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            for (int v : new int[] {1, 4, 2, 5, 3, 6})
+            {
+                bb.putShort((short) v);
+            }
+            Files.write(new File(dir, "0.0").toPath(), bb.array());
+
+            Int16Array res = (Int16Array) new ZarrImageReader(dir).readImageData();
+            assertEquals(3, res.size(0));
+            assertEquals(2, res.size(1));
+            assertEquals(1, res.getValue(new int[] {0, 0}), 0.0);
+            assertEquals(2, res.getValue(new int[] {1, 0}), 0.0);
+            assertEquals(3, res.getValue(new int[] {2, 0}), 0.0);
+            assertEquals(4, res.getValue(new int[] {0, 1}), 0.0);
+            assertEquals(6, res.getValue(new int[] {2, 1}), 0.0);
+        }
+        finally
+        {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static final void deleteRecursively(File dir) throws IOException
+    {
+        try (Stream<java.nio.file.Path> paths = Files.walk(dir.toPath()))
+        {
+            paths.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+}
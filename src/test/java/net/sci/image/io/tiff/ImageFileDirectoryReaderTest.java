@@ -0,0 +1,86 @@
+/**
+ * 
+ */
+package net.sci.image.io.tiff;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.UInt8Array2D;
+import net.sci.image.io.TiffImageReader;
+
+/**
+ * @author dlegland
+ *
+ */
+public class ImageFileDirectoryReaderTest
+{
+    /**
+     * Reads a small BigTIFF file, with 64-bits offsets, generated on the fly.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void test_readImageFileDirectories_BigTiff() throws IOException
+    {
+        int sizeX = 10;
+        int sizeY = 6;
+        int nEntries = 9;
+        long dataOffset = 16 + 8 + nEntries * 20 + 8;
+        
+        ByteBuffer bb = ByteBuffer.allocate((int) dataOffset + sizeX * sizeY).order(ByteOrder.LITTLE_ENDIAN);
+        // header
+        bb.put((byte) 'I').put((byte) 'I').putShort((short) 43).putShort((short) 8).putShort((short) 0).putLong(16);
+        // image file directory
+        bb.putLong(nEntries);
+        putShortEntry(bb, BaselineTags.ImageWidth.CODE, sizeX);
+        putShortEntry(bb, BaselineTags.ImageLength.CODE, sizeY);
+        putShortEntry(bb, BaselineTags.BitsPerSample.CODE, 8);
+        putShortEntry(bb, BaselineTags.Compression.CODE, BaselineTags.Compression.NONE);
+        putShortEntry(bb, BaselineTags.PhotometricInterpretation.CODE, 1);
+        putLong8Entry(bb, BaselineTags.StripOffsets.CODE, dataOffset);
+        putShortEntry(bb, BaselineTags.SamplesPerPixel.CODE, 1);
+        putShortEntry(bb, BaselineTags.RowsPerStrip.CODE, sizeY);
+        putLong8Entry(bb, BaselineTags.StripByteCounts.CODE, sizeX * sizeY);
+        bb.putLong(0);
+        // image data
+        for (int i = 0; i < sizeX * sizeY; i++)
+        {
+            bb.put((byte) (i * 3));
+        }
+        
+        File file = File.createTempFile("bigtiff", ".tif");
+        file.deleteOnExit();
+        Files.write(file.toPath(), bb.array());
+        
+        ArrayList<ImageFileDirectory> ifds = new ImageFileDirectoryReader(file).readImageFileDirectories();
+        assertEquals(1, ifds.size());
+        ImageFileDirectory ifd = ifds.get(0);
+        assertEquals(sizeX, ifd.getValue(BaselineTags.ImageWidth.CODE));
+        assertEquals(dataOffset, ifd.getLongArrayValue(BaselineTags.StripOffsets.CODE)[0]);
+        
+        UInt8Array2D array = (UInt8Array2D) new TiffImageReader(file).readImageData(0);
+        assertEquals(sizeX, array.size(0));
+        assertEquals(sizeY, array.size(1));
+        assertEquals(3 * (2 + 4 * sizeX), array.getInt(2, 4));
+    }
+    
+    private static final void putShortEntry(ByteBuffer bb, int code, int value)
+    {
+        bb.putShort((short) code).putShort((short) Entry.Type.SHORT.code()).putLong(1);
+        bb.putShort((short) value).putShort((short) 0).putInt(0);
+    }
+    
+    private static final void putLong8Entry(ByteBuffer bb, int code, long value)
+    {
+        bb.putShort((short) code).putShort((short) Entry.Type.LONG8.code()).putLong(1).putLong(value);
+    }
+}
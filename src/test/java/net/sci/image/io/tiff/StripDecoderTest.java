@@ -0,0 +1,324 @@
+/**
+ *
+ */
+package net.sci.image.io.tiff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.ScalarArray2D;
+import net.sci.array.numeric.ScalarArray3D;
+import net.sci.image.Image;
+import net.sci.image.io.TiffImageReader;
+
+/**
+ * @author dlegland
+ *
+ */
+public class StripDecoderTest
+{
+    /**
+     * Reads an UInt8 image compressed with LZW, split into several strips.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImage_UInt8_LZW() throws IOException
+    {
+        BufferedImage bufImg = createImage(BufferedImage.TYPE_BYTE_GRAY, 200, 150, 0);
+        File file = writeTiff("LZW", bufImg);
+
+        Image image = new TiffImageReader(file).readImage();
+
+        ScalarArray2D<?> data = (ScalarArray2D<?>) image.getData();
+        assertEquals(200, data.size(0));
+        assertEquals(150, data.size(1));
+        assertImageEquals(bufImg, data);
+    }
+
+    /**
+     * Reads an UInt16 image compressed with Deflate.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImage_UInt16_Deflate() throws IOException
+    {
+        BufferedImage bufImg = createImage(BufferedImage.TYPE_USHORT_GRAY, 200, 150, 0);
+        File file = writeTiff("Deflate", bufImg);
+
+        Image image = new TiffImageReader(file).readImage();
+
+        ScalarArray2D<?> data = (ScalarArray2D<?>) image.getData();
+        assertImageEquals(bufImg, data);
+    }
+
+    /**
+     * Reads a stack of UInt8 images compressed with LZW, decoded in parallel.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImageStack_UInt8_LZW() throws IOException
+    {
+        BufferedImage[] slices = new BufferedImage[6];
+        for (int z = 0; z < slices.length; z++)
+        {
+            slices[z] = createImage(BufferedImage.TYPE_BYTE_GRAY, 120, 100, z);
+        }
+        File file = writeTiff("LZW", slices);
+
+        Image image = new TiffImageReader(file).readImage();
+
+        ScalarArray3D<?> data = (ScalarArray3D<?>) image.getData();
+        assertEquals(6, data.size(2));
+        for (int z = 0; z < slices.length; z++)
+        {
+            assertImageEquals(slices[z], data.slice(z));
+        }
+    }
+
+    /**
+     * Reads an UInt8 image organized into tiles, compressed with LZW. The size
+     * of the image is not a multiple of the tile size.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImage_UInt8_Tiled_LZW() throws IOException
+    {
+        BufferedImage bufImg = createImage(BufferedImage.TYPE_BYTE_GRAY, 200, 150, 0);
+        File file = writeTiledTiff("LZW", 64, 48, bufImg);
+
+        TiffImageReader reader = new TiffImageReader(file);
+        assertTrue(reader.getImageFileDirectories().iterator().next().isTiled());
+        Image image = reader.readImage();
+
+        ScalarArray2D<?> data = (ScalarArray2D<?>) image.getData();
+        assertEquals(200, data.size(0));
+        assertEquals(150, data.size(1));
+        assertImageEquals(bufImg, data);
+    }
+
+    /**
+     * Reads a region within an UInt16 image organized into tiles.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImageDataRegion_UInt16_Tiled_Deflate() throws IOException
+    {
+        BufferedImage bufImg = createImage(BufferedImage.TYPE_USHORT_GRAY, 200, 150, 0);
+        File file = writeTiledTiff("Deflate", 32, 32, bufImg);
+
+        TiffImageReader reader = new TiffImageReader(file);
+        ScalarArray2D<?> data = (ScalarArray2D<?>) reader.readImageDataRegion(new int[] {50, 20}, new int[] {100, 70});
+
+        assertEquals(100, data.size(0));
+        assertEquals(70, data.size(1));
+        WritableRaster raster = bufImg.getRaster();
+        for (int y = 0; y < 70; y++)
+        {
+            for (int x = 0; x < 100; x++)
+            {
+                assertEquals(raster.getSample(x + 50, y + 20, 0), data.getValue(x, y), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Reads a 3D region within a stack of LZW-compressed images organized into
+     * strips.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void test_readImageDataRegion_UInt8_Stack_LZW() throws IOException
+    {
+        BufferedImage[] slices = new BufferedImage[6];
+        for (int z = 0; z < slices.length; z++)
+        {
+            slices[z] = createImage(BufferedImage.TYPE_BYTE_GRAY, 120, 100, z);
+        }
+        File file = writeTiff("LZW", slices);
+
+        TiffImageReader reader = new TiffImageReader(file);
+        ScalarArray3D<?> data = (ScalarArray3D<?>) reader.readImageDataRegion(new int[] {10, 30, 2}, new int[] {50, 40, 3});
+
+        assertEquals(50, data.size(0));
+        assertEquals(40, data.size(1));
+        assertEquals(3, data.size(2));
+        for (int z = 0; z < 3; z++)
+        {
+            WritableRaster raster = slices[z + 2].getRaster();
+            for (int y = 0; y < 40; y++)
+            {
+                for (int x = 0; x < 50; x++)
+                {
+                    assertEquals(raster.getSample(x + 10, y + 30, 0), data.getValue(x, y, z), 0.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reverts horizontal differencing on two rows of 16-bits samples.
+     */
+    @Test
+    public void test_Predictor_horizontal_UInt16()
+    {
+        short[] values = new short[] {100, 300, 200, 1000, 5, 7, 9, 11};
+        ByteBuffer bb = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        for (int r = 0; r < 2; r++)
+        {
+            bb.putShort(values[4 * r]);
+            for (int i = 1; i < 4; i++)
+            {
+                bb.putShort((short) (values[4 * r + i] - values[4 * r + i - 1]));
+            }
+        }
+
+        byte[] buffer = bb.array();
+        StripDecoder.Predictor predictor = new StripDecoder.Predictor(ExtensionTags.Predictor.HORIZONTAL_DIFFERENCING, 4, 1, 2, ByteOrder.LITTLE_ENDIAN);
+        predictor.decode(buffer, 0, buffer.length);
+
+        ByteBuffer res = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < values.length; i++)
+        {
+            assertEquals(values[i], res.getShort());
+        }
+    }
+
+    /**
+     * Reverts the floating point predictor on a row of big-endian float
+     * values.
+     */
+    @Test
+    public void test_Predictor_floatingPoint_Float32()
+    {
+        float[] values = new float[] {1.5f, -2.25f, 1000.0f};
+        int n = values.length;
+
+        // encode: split bytes into planes (most significant first), then
+        // apply byte differencing
+        byte[] raw = new byte[4 * n];
+        ByteBuffer.wrap(raw).order(ByteOrder.BIG_ENDIAN).asFloatBuffer().put(values);
+        byte[] buffer = new byte[4 * n];
+        for (int i = 0; i < n; i++)
+        {
+            for (int b = 0; b < 4; b++)
+            {
+                buffer[b * n + i] = raw[4 * i + b];
+            }
+        }
+        for (int i = buffer.length - 1; i > 0; i--)
+        {
+            buffer[i] -= buffer[i - 1];
+        }
+
+        StripDecoder.Predictor predictor = new StripDecoder.Predictor(ExtensionTags.Predictor.FLOATING_POINT, n, 1, 4, ByteOrder.BIG_ENDIAN);
+        predictor.decode(buffer, 0, buffer.length);
+
+        float[] res = new float[n];
+        ByteBuffer.wrap(buffer).order(ByteOrder.BIG_ENDIAN).asFloatBuffer().get(res);
+        for (int i = 0; i < n; i++)
+        {
+            assertEquals(values[i], res[i], 0.0);
+        }
+    }
+
+    private static final BufferedImage createImage(int type, int sizeX, int sizeY, int seed)
+    {
+        BufferedImage image = new BufferedImage(sizeX, sizeY, type);
+        WritableRaster raster = image.getRaster();
+        int maxValue = type == BufferedImage.TYPE_BYTE_GRAY ? 256 : 65536;
+        for (int y = 0; y < sizeY; y++)
+        {
+            for (int x = 0; x < sizeX; x++)
+            {
+                raster.setSample(x, y, 0, ((x * 7 + y * y * 3 + seed * 11) ^ (x * y)) % maxValue);
+            }
+        }
+        return image;
+    }
+
+    private static final File writeTiff(String compression, BufferedImage... images) throws IOException
+    {
+        File file = File.createTempFile("stripDecoder", ".tif");
+        file.deleteOnExit();
+        file.delete();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("tiff").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionType(compression);
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(file))
+        {
+            writer.setOutput(ios);
+            writer.prepareWriteSequence(null);
+            for (BufferedImage image : images)
+            {
+                writer.writeToSequence(new IIOImage(image, null, null), param);
+            }
+            writer.endWriteSequence();
+        }
+        finally
+        {
+            writer.dispose();
+        }
+        return file;
+    }
+
+    private static final File writeTiledTiff(String compression, int tileWidth, int tileHeight, BufferedImage image) throws IOException
+    {
+        File file = File.createTempFile("stripDecoder", ".tif");
+        file.deleteOnExit();
+        file.delete();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("tiff").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionType(compression);
+        param.setTilingMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setTiling(tileWidth, tileHeight, 0, 0);
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(file))
+        {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        }
+        finally
+        {
+            writer.dispose();
+        }
+        return file;
+    }
+
+    private static final void assertImageEquals(BufferedImage expected, ScalarArray2D<?> array)
+    {
+        WritableRaster raster = expected.getRaster();
+        for (int y = 0; y < expected.getHeight(); y++)
+        {
+            for (int x = 0; x < expected.getWidth(); x++)
+            {
+                assertEquals(raster.getSample(x, y, 0), array.getValue(x, y), 0.0);
+            }
+        }
+    }
+}
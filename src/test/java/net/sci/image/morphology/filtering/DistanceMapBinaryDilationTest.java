@@ -0,0 +1,115 @@
+/**
+ * 
+ */
+package net.sci.image.morphology.filtering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sci.array.binary.BinaryArray2D;
+import net.sci.array.binary.BinaryArray3D;
+import net.sci.image.morphology.strel.SlidingBallStrel3D;
+import net.sci.image.morphology.strel.SlidingDiskStrel;
+
+/**
+ * @author dlegland
+ *
+ */
+public class DistanceMapBinaryDilationTest
+{
+    /**
+     * Test method for {@link net.sci.image.morphology.filtering.DistanceMapBinaryDilation#processBinary2d(net.sci.array.binary.BinaryArray2D)}.
+     */
+    @Test
+    public final void testProcessBinary2d_singlePixel()
+    {
+        BinaryArray2D array = BinaryArray2D.create(9, 9);
+        array.setBoolean(4, 4, true);
+        
+        DistanceMapBinaryDilation op = new DistanceMapBinaryDilation(2);
+        BinaryArray2D res = op.processBinary2d(array);
+        
+        assertEquals(array.size(0), res.size(0));
+        assertEquals(array.size(1), res.size(1));
+        
+        assertTrue(res.getBoolean(2, 4));
+        assertTrue(res.getBoolean(6, 4));
+        assertTrue(res.getBoolean(3, 2));
+        assertTrue(res.getBoolean(5, 6));
+        assertFalse(res.getBoolean(2, 2));
+        assertFalse(res.getBoolean(6, 6));
+        assertFalse(res.getBoolean(1, 4));
+        assertFalse(res.getBoolean(4, 7));
+    }
+
+    /**
+     * Test method for {@link net.sci.image.morphology.filtering.DistanceMapBinaryDilation#processBinary2d(net.sci.array.binary.BinaryArray2D)}.
+     */
+    @Test
+    public final void testProcessBinary2d_compareWithRunLength()
+    {
+        Random random = new Random(123);
+        BinaryArray2D array = BinaryArray2D.create(60, 45);
+        array.fillBooleans((x, y) -> random.nextDouble() < 0.02);
+        
+        for (double radius : new double[] {1.0, 2.3, 4.0, 7.5})
+        {
+            BinaryArray2D exp = new BinaryDilation(new SlidingDiskStrel(radius)).processBinary2d(array);
+            BinaryArray2D res = new DistanceMapBinaryDilation(radius).processBinary2d(array);
+            
+            for (int y = 0; y < array.size(1); y++)
+            {
+                for (int x = 0; x < array.size(0); x++)
+                {
+                    assertEquals(exp.getBoolean(x, y), res.getBoolean(x, y));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link net.sci.image.morphology.filtering.DistanceMapBinaryDilation#processBinary2d(net.sci.array.binary.BinaryArray2D)}.
+     */
+    @Test
+    public final void testProcessBinary2d_emptyArray_largeRadius()
+    {
+        BinaryArray2D array = BinaryArray2D.create(10, 8);
+        
+        BinaryArray2D res = new DistanceMapBinaryDilation(30).processBinary2d(array);
+        
+        assertEquals(0, res.trueElementCount());
+    }
+
+    /**
+     * Test method for {@link net.sci.image.morphology.filtering.DistanceMapBinaryDilation#processBinary3d(net.sci.array.binary.BinaryArray3D)}.
+     */
+    @Test
+    public final void testProcessBinary3d_compareWithRunLength()
+    {
+        Random random = new Random(123);
+        BinaryArray3D array = BinaryArray3D.create(20, 17, 15);
+        array.fillBooleans((x, y, z) -> random.nextDouble() < 0.01);
+        
+        for (double radius : new double[] {1.0, 2.3, 4.0})
+        {
+            BinaryArray3D exp = new BinaryDilation(new SlidingBallStrel3D(radius)).processBinary3d(array);
+            BinaryArray3D res = new DistanceMapBinaryDilation(radius).processBinary3d(array);
+            
+            for (int z = 0; z < array.size(2); z++)
+            {
+                for (int y = 0; y < array.size(1); y++)
+                {
+                    for (int x = 0; x < array.size(0); x++)
+                    {
+                        assertEquals(exp.getBoolean(x, y, z), res.getBoolean(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * 
+ */
+package net.sci.image.morphology.filtering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sci.array.binary.BinaryArray2D;
+import net.sci.array.binary.BinaryArray3D;
+import net.sci.image.morphology.strel.SlidingBallStrel3D;
+import net.sci.image.morphology.strel.SlidingDiskStrel;
+
+/**
+ * @author dlegland
+ *
+ */
+public class DistanceMapBinaryErosionTest
+{
+    /**
+     * Test method for {@link net.sci.image.morphology.filtering.DistanceMapBinaryErosion#processBinary2d(net.sci.array.binary.BinaryArray2D)}.
+     */
+    @Test
+    public final void testProcessBinary2d_square()
+    {
+        BinaryArray2D array = BinaryArray2D.create(12, 12);
+        array.fillBooleans((x, y) -> x >= 2 && x < 10 && y >= 2 && y < 10);
+        
+        DistanceMapBinaryErosion op = new DistanceMapBinaryErosion(2);
+        BinaryArray2D res = op.processBinary2d(array);
+        
+        assertEquals(array.size(0), res.size(0));
+        assertEquals(array.size(1), res.size(1));
+        
+        assertTrue(res.getBoolean(4, 4));
+        assertTrue(res.getBoolean(7, 7));
+        assertFalse(res.getBoolean(3, 5));
+        assertFalse(res.getBoolean(8, 5));
+        assertFalse(res.getBoolean(0, 0));
+    }
+
+    /**
+     * Elements outside of the array are considered as foreground.
+     * 
+     * Test method for {@link net.sci.image.morphology.filtering.DistanceMapBinaryErosion#processBinary2d(net.sci.array.binary.BinaryArray2D)}.
+     */
+    @Test
+    public final void testProcessBinary2d_fullArray()
+    {
+        BinaryArray2D array = BinaryArray2D.create(10, 8);
+        array.fill(true);
+        
+        BinaryArray2D res = new DistanceMapBinaryErosion(30).processBinary2d(array);
+        
+        assertEquals(array.elementCount(), res.trueElementCount());
+    }
+
+    /**
+     * Test method for {@link net.sci.image.morphology.filtering.DistanceMapBinaryErosion#processBinary2d(net.sci.array.binary.BinaryArray2D)}.
+     */
+    @Test
+    public final void testProcessBinary2d_compareWithRunLength()
+    {
+        Random random = new Random(123);
+        BinaryArray2D array = BinaryArray2D.create(60, 45);
+        array.fillBooleans((x, y) -> random.nextDouble() < 0.99);
+        
+        for (double radius : new double[] {1.0, 2.3, 4.0, 7.5})
+        {
+            BinaryArray2D exp = new BinaryErosion(new SlidingDiskStrel(radius)).processBinary2d(array);
+            BinaryArray2D res = new DistanceMapBinaryErosion(radius).processBinary2d(array);
+            
+            for (int y = 0; y < array.size(1); y++)
+            {
+                for (int x = 0; x < array.size(0); x++)
+                {
+                    assertEquals(exp.getBoolean(x, y), res.getBoolean(x, y));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link net.sci.image.morphology.filtering.DistanceMapBinaryErosion#processBinary3d(net.sci.array.binary.BinaryArray3D)}.
+     */
+    @Test
+    public final void testProcessBinary3d_compareWithRunLength()
+    {
+        Random random = new Random(123);
+        BinaryArray3D array = BinaryArray3D.create(20, 17, 15);
+        array.fillBooleans((x, y, z) -> random.nextDouble() < 0.995);
+        
+        for (double radius : new double[] {1.0, 2.3, 4.0})
+        {
+            BinaryArray3D exp = new BinaryErosion(new SlidingBallStrel3D(radius)).processBinary3d(array);
+            BinaryArray3D res = new DistanceMapBinaryErosion(radius).processBinary3d(array);
+            
+            for (int z = 0; z < array.size(2); z++)
+            {
+                for (int y = 0; y < array.size(1); y++)
+                {
+                    for (int x = 0; x < array.size(0); x++)
+                    {
+                        assertEquals(exp.getBoolean(x, y, z), res.getBoolean(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+}
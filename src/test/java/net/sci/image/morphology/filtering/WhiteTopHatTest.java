@@ -0,0 +1,72 @@
+/**
+ *
+ */
+package net.sci.image.morphology.filtering;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.ScalarArray;
+import net.sci.array.numeric.UInt8Array3D;
+import net.sci.image.morphology.Strel;
+import net.sci.image.morphology.strel.SlidingBallStrel3D;
+import net.sci.image.morphology.strel.SquareStrel;
+
+/**
+ * @author dlegland
+ *
+ */
+public class WhiteTopHatTest
+{
+    /**
+     * Checks that the results obtained with several threads are the same as
+     * the results of sequential processing, for a 3D strel and for a 2D strel
+     * applied on each slice.
+     *
+     * Test method for {@link net.sci.image.morphology.filtering.WhiteTopHat#processScalar(net.sci.array.numeric.ScalarArray)}.
+     */
+    @Test
+    public final void testProcessScalar_3d_parallel()
+    {
+        Random random = new Random(123);
+        UInt8Array3D array = UInt8Array3D.create(20, 15, 12);
+        array.fillInts((x, y, z) -> random.nextInt(256));
+
+        for (Strel strel : new Strel[] {new SlidingBallStrel3D(2.0), new SquareStrel(5)})
+        {
+            ScalarArray<?> res1 = new WhiteTopHat(strel).processScalar(array);
+
+            WhiteTopHat filter = new WhiteTopHat(strel);
+            filter.setThreadCount(4);
+            ScalarArray<?> res2 = filter.processScalar(array);
+
+            for (int[] pos : array.positions())
+            {
+                assertEquals(res1.getValue(pos), res2.getValue(pos), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Checks that the execution pool of the filter is not kept by the
+     * structuring element after processing.
+     *
+     * Test method for {@link net.sci.image.morphology.filtering.WhiteTopHat#processScalar(net.sci.array.numeric.ScalarArray)}.
+     */
+    @Test
+    public final void testProcessScalar_3d_strelPoolRestored()
+    {
+        UInt8Array3D array = UInt8Array3D.create(10, 10, 10);
+        array.setInt(5, 5, 5, 200);
+        SlidingBallStrel3D strel = new SlidingBallStrel3D(2.0);
+
+        WhiteTopHat filter = new WhiteTopHat(strel);
+        filter.setThreadCount(4);
+        filter.processScalar(array);
+
+        assertNull(strel.getExecutionPool());
+    }
+}
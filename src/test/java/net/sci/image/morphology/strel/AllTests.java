@@ -10,6 +10,8 @@ import net.sci.image.morphology.filtering.BoxDilationNaiveTest;
     // Utility  classes
     LocalHistogramDoubleTreeMapTest.class,
     LocalHistogramDoubleHashMapTest.class,
+    LocalHistogramIntTest.class,
+    LocalExtremumLineFilterTest.class,
     
 	// 2D structuring element classes
     BoxDilationNaiveTest.class,
@@ -6,6 +6,8 @@ package net.sci.image.morphology.strel;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 import net.sci.array.numeric.ScalarArray3D;
@@ -62,6 +64,53 @@ public class CubeStrel3DTest
         assertEquals(result.getValue(14, 14, 14), 255, .01);
     }
     
+    /**
+     * Dilates a single voxel with a cube larger than the distance to the
+     * array borders.
+     */
+    @Test
+    public final void testDilation_LargeRadius()
+    {
+        UInt8Array3D array = UInt8Array3D.create(60, 60, 60);
+        array.setValue(10, 30, 50, 255);
+        Strel3D se = CubeStrel3D.fromRadius(25);
+        
+        ScalarArray3D<?> result = se.dilation(array);
+        
+        assertEquals(255, result.getValue(0, 5, 25), .01);
+        assertEquals(255, result.getValue(35, 55, 59), .01);
+        assertEquals(0, result.getValue(36, 30, 50), .01);
+        assertEquals(0, result.getValue(10, 4, 50), .01);
+        assertEquals(0, result.getValue(10, 56, 50), .01);
+        assertEquals(0, result.getValue(10, 30, 24), .01);
+    }
+    
+    /**
+     * Checks that the result obtained with several threads is the same as the
+     * result of sequential processing.
+     */
+    @Test
+    public final void testDilationErosion_parallel()
+    {
+        Random random = new Random(123);
+        UInt8Array3D array = UInt8Array3D.create(20, 15, 12);
+        array.fillInts((x, y, z) -> random.nextInt(256));
+        
+        CubeStrel3D strel = CubeStrel3D.fromRadius(2);
+        ScalarArray3D<?> dil1 = strel.dilation(array);
+        ScalarArray3D<?> ero1 = strel.erosion(array);
+        
+        strel.setThreadCount(4);
+        ScalarArray3D<?> dil2 = strel.dilation(array);
+        ScalarArray3D<?> ero2 = strel.erosion(array);
+        
+        for (int[] pos : array.positions())
+        {
+            assertEquals(dil1.getValue(pos), dil2.getValue(pos), 0.0);
+            assertEquals(ero1.getValue(pos), ero2.getValue(pos), 0.0);
+        }
+    }
+    
     private final static UInt8Array3D createSingleVoxelArray()
     {
         UInt8Array3D array = UInt8Array3D.create(21,  21,  21);
@@ -0,0 +1,95 @@
+/**
+ * 
+ */
+package net.sci.image.morphology.strel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author dlegland
+ *
+ */
+public class LocalExtremumLineFilterTest
+{
+    /**
+     * Compares the result of the filter on integer values with a direct
+     * computation, for windows smaller and larger than the line.
+     */
+    @Test
+    public void testFilter_Int()
+    {
+        Random random = new Random(1234);
+        int length = 37;
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++)
+        {
+            values[i] = random.nextInt(1000) - 500;
+        }
+
+        for (int size : new int[] {2, 3, 5, 8, 36, 37, 50})
+        {
+            for (int before : new int[] {0, size / 2, size - 1})
+            {
+                for (LocalExtremum.Type type : LocalExtremum.Type.values())
+                {
+                    int pad = type == LocalExtremum.Type.MAXIMUM ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+                    int[] res = values.clone();
+                    new LocalExtremumLineFilter(size, type).filter(res, length, before, pad);
+
+                    for (int i = 0; i < length; i++)
+                    {
+                        int exp = pad;
+                        for (int j = Math.max(i - before, 0); j < Math.min(i - before + size, length); j++)
+                        {
+                            exp = type == LocalExtremum.Type.MAXIMUM ? Math.max(exp, values[j]) : Math.min(exp, values[j]);
+                        }
+                        assertEquals(exp, res[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes several lines with different lengths using the same filter,
+     * and compares with a direct computation.
+     */
+    @Test
+    public void testFilter_Double_reusedBuffers()
+    {
+        Random random = new Random(4321);
+        int size = 7;
+        int before = 2;
+        LocalExtremumLineFilter filter = new LocalExtremumLineFilter(size, LocalExtremum.Type.MAXIMUM);
+
+        for (int length : new int[] {20, 3, 45, 1, 12})
+        {
+            double[] values = new double[length + 5];
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = random.nextGaussian();
+            }
+            double[] res = values.clone();
+            filter.filter(res, length, before, Double.NEGATIVE_INFINITY);
+
+            for (int i = 0; i < length; i++)
+            {
+                double exp = Double.NEGATIVE_INFINITY;
+                for (int j = Math.max(i - before, 0); j < Math.min(i - before + size, length); j++)
+                {
+                    exp = Math.max(exp, values[j]);
+                }
+                assertEquals(exp, res[i], 0.0);
+            }
+            // values after the end of the line are not modified
+            for (int i = length; i < values.length; i++)
+            {
+                assertEquals(values[i], res[i], 0.0);
+            }
+        }
+    }
+}
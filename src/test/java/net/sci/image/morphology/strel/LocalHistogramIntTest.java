@@ -0,0 +1,80 @@
+/**
+ * 
+ */
+package net.sci.image.morphology.strel;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import net.sci.array.numeric.Float32Array2D;
+
+/**
+ * @author dlegland
+ *
+ */
+public class LocalHistogramIntTest
+{
+    /**
+     * Test method for {@link net.sci.image.morphology.strel.LocalHistogramInt#getMaxInt()}.
+     */
+    @Test
+    public final void testGetMaxInt_UInt16()
+    {
+        LocalHistogramInt localHisto = new LocalHistogramInt(65536, 3, 0);
+        localHisto.replace(0, 60000);
+        localHisto.replace(0, 5);
+        localHisto.replace(0, 1000);
+        
+        assertEquals(60000, localHisto.getMaxInt());
+
+        // the new maximum is within another block
+        localHisto.replace(60000, 5);
+        assertEquals(1000, localHisto.getMaxInt());
+
+        localHisto.replace(1000, 4);
+        assertEquals(5, localHisto.getMaxInt());
+    }
+    
+    /**
+     * Test method for {@link net.sci.image.morphology.strel.LocalHistogramInt#getMinInt()}.
+     */
+    @Test
+    public final void testGetMinInt_UInt16()
+    {
+        LocalHistogramInt localHisto = new LocalHistogramInt(65536, 3, 65535);
+        localHisto.replace(65535, 10);
+        localHisto.replace(65535, 30000);
+        localHisto.replace(65535, 20);
+        
+        assertEquals(10, localHisto.getMinInt());
+
+        localHisto.replace(10, 40000);
+        assertEquals(20, localHisto.getMinInt());
+
+        localHisto.replace(20, 50000);
+        assertEquals(30000, localHisto.getMinInt());
+        
+        // after reset, the histogram contains only the filling value
+        localHisto.reset(3, 65535);
+        assertEquals(65535, localHisto.getMinInt());
+        assertEquals(65535, localHisto.getMaxInt());
+    }
+    
+    /**
+     * Test method for {@link net.sci.image.morphology.strel.LocalHistogramInt#sortedValues(net.sci.array.numeric.ScalarArray)}.
+     */
+    @Test
+    public final void testSortedValues()
+    {
+        Float32Array2D array = Float32Array2D.create(3, 2);
+        array.fillValues((x, y) -> (x + y) * 1.5);
+        
+        double[] values = LocalHistogramInt.sortedValues(array);
+        
+        assertEquals(4, values.length);
+        assertEquals(0.0, values[0], 0.0);
+        assertEquals(4.5, values[3], 0.0);
+        assertEquals(2, LocalHistogramInt.rank(values, 3.0));
+    }
+}
@@ -5,9 +5,14 @@ package net.sci.image.morphology.strel;
 
 import static org.junit.Assert.*;
 
+import java.util.Random;
+
 import org.junit.Test;
 
+import net.sci.array.numeric.Float32Array3D;
+import net.sci.array.numeric.Float64Array3D;
 import net.sci.array.numeric.ScalarArray3D;
+import net.sci.array.numeric.UInt16Array3D;
 import net.sci.array.numeric.UInt8Array3D;
 
 /**
@@ -118,4 +123,134 @@ public class SlidingBallStrel3DTest
         assertEquals(eroded.getValue(3, 3, 3), 255, .01);
     }
     
+    /**
+     * Compares the results of the histogram and of the line decomposition
+     * methods with the extrema computed over the shifts of the structuring
+     * element, for a Float32 array.
+     */
+    @Test
+    public final void testDilationErosion_Float32_LineDecomposition()
+    {
+        Random random = new Random(123);
+        Float32Array3D array = Float32Array3D.create(12, 11, 10);
+        array.fillValues((x, y, z) -> random.nextGaussian());
+        
+        SlidingBallStrel3D strel = new SlidingBallStrel3D(3);
+        int[][] shifts = strel.shifts();
+        strel.setLineDecompositionRadius(100);
+        ScalarArray3D<?> dil1 = strel.dilation(array);
+        ScalarArray3D<?> ero1 = strel.erosion(array);
+        strel.setLineDecompositionRadius(0);
+        ScalarArray3D<?> dil2 = strel.dilation(array);
+        ScalarArray3D<?> ero2 = strel.erosion(array);
+        
+        for (int z = 0; z < 10; z++)
+        {
+            for (int y = 0; y < 11; y++)
+            {
+                for (int x = 0; x < 12; x++)
+                {
+                    double vmax = Double.NEGATIVE_INFINITY;
+                    double vmin = Double.POSITIVE_INFINITY;
+                    for (int[] shift : shifts)
+                    {
+                        int x2 = x + shift[0];
+                        int y2 = y + shift[1];
+                        int z2 = z + shift[2];
+                        if (x2 >= 0 && x2 < 12 && y2 >= 0 && y2 < 11 && z2 >= 0 && z2 < 10)
+                        {
+                            vmax = Math.max(vmax, array.getValue(x2, y2, z2));
+                            vmin = Math.min(vmin, array.getValue(x2, y2, z2));
+                        }
+                    }
+                    assertEquals(vmax, dil1.getValue(x, y, z), 0.0);
+                    assertEquals(vmax, dil2.getValue(x, y, z), 0.0);
+                    assertEquals(vmin, ero1.getValue(x, y, z), 0.0);
+                    assertEquals(vmin, ero2.getValue(x, y, z), 0.0);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks that the results obtained with several threads are the same as
+     * the results of sequential processing, for both the line decomposition
+     * and the histogram methods. The number of slices is chosen such that the
+     * slabs are thinner than the ball.
+     */
+    @Test
+    public final void testDilationErosion_Float32_parallel()
+    {
+        Random random = new Random(456);
+        Float32Array3D array = Float32Array3D.create(13, 11, 17);
+        array.fillValues((x, y, z) -> random.nextGaussian());
+        
+        for (int lineRadius : new int[] {0, 100})
+        {
+            SlidingBallStrel3D strel = new SlidingBallStrel3D(3);
+            strel.setLineDecompositionRadius(lineRadius);
+            ScalarArray3D<?> dil1 = strel.dilation(array);
+            ScalarArray3D<?> ero1 = strel.erosion(array);
+            
+            strel.setThreadCount(4);
+            ScalarArray3D<?> dil2 = strel.dilation(array);
+            ScalarArray3D<?> ero2 = strel.erosion(array);
+            
+            for (int z = 0; z < 17; z++)
+            {
+                for (int y = 0; y < 11; y++)
+                {
+                    for (int x = 0; x < 13; x++)
+                    {
+                        assertEquals(dil1.getValue(x, y, z), dil2.getValue(x, y, z), 0.0);
+                        assertEquals(ero1.getValue(x, y, z), ero2.getValue(x, y, z), 0.0);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks that the results do not depend on the memory budget of the line
+     * decomposition, for arrays whose result slices are stored as float
+     * values (UInt16) or as double values (Float64).
+     */
+    @Test
+    public final void testDilationErosion_lineBufferByteBudget()
+    {
+        Random random = new Random(789);
+        UInt16Array3D array16 = UInt16Array3D.create(13, 11, 17);
+        array16.fillInts((x, y, z) -> random.nextInt(65536));
+        Float64Array3D array64 = Float64Array3D.create(13, 11, 17);
+        array64.fillValues((x, y, z) -> random.nextGaussian());
+        
+        for (ScalarArray3D<?> array : new ScalarArray3D<?>[] {array16, array64})
+        {
+            // reference results computed with local histograms
+            SlidingBallStrel3D strel = new SlidingBallStrel3D(3);
+            strel.setLineDecompositionRadius(100);
+            ScalarArray3D<?> dil1 = strel.dilation(array);
+            ScalarArray3D<?> ero1 = strel.erosion(array);
+            
+            // budget for a single slab, several threads
+            strel.setLineDecompositionRadius(0);
+            strel.setLineBufferByteBudget(7L * 13 * 11 * 8);
+            strel.setThreadCount(4);
+            ScalarArray3D<?> dil2 = strel.dilation(array);
+            ScalarArray3D<?> ero2 = strel.erosion(array);
+            
+            // budget too small for line decomposition
+            strel.setLineBufferByteBudget(0);
+            ScalarArray3D<?> dil3 = strel.dilation(array);
+            ScalarArray3D<?> ero3 = strel.erosion(array);
+            
+            for (int[] pos : array.positions())
+            {
+                assertEquals(dil1.getValue(pos), dil2.getValue(pos), 0.0);
+                assertEquals(ero1.getValue(pos), ero2.getValue(pos), 0.0);
+                assertEquals(dil1.getValue(pos), dil3.getValue(pos), 0.0);
+                assertEquals(ero1.getValue(pos), ero3.getValue(pos), 0.0);
+            }
+        }
+    }
 }
@@ -5,10 +5,13 @@ package net.sci.image.morphology.strel;
 
 import static org.junit.Assert.*;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 import net.sci.array.numeric.Float32Array2D;
 import net.sci.array.numeric.ScalarArray2D;
+import net.sci.array.numeric.UInt16Array2D;
 import net.sci.array.numeric.UInt8Array2D;
 
 /**
@@ -107,4 +110,54 @@ public class SlidingDiskStrelTest
         assertEquals(eroded.getValue(3, 3),    0.0, 0.1);
         assertEquals(eroded.getValue(4, 3), 1000.0, 0.1);
     }
+    /**
+     * Compares the results of the histogram and of the line decomposition
+     * methods with the extrema computed over the shifts of the structuring
+     * element, for UInt16 and Float32 arrays.
+     */
+    @Test
+    public final void testDilationErosion_LineDecomposition()
+    {
+        Random random = new Random(123);
+        UInt16Array2D array16 = UInt16Array2D.create(30, 25);
+        array16.fillInts((x, y) -> random.nextInt(65536));
+        Float32Array2D array32 = Float32Array2D.create(30, 25);
+        array32.fillValues((x, y) -> random.nextGaussian());
+        
+        SlidingDiskStrel strel = new SlidingDiskStrel(5);
+        int[][] shifts = strel.shifts();
+        for (ScalarArray2D<?> array : new ScalarArray2D<?>[] {array16, array32})
+        {
+            strel.setLineDecompositionRadius(100);
+            ScalarArray2D<?> dil1 = strel.dilation(array);
+            ScalarArray2D<?> ero1 = strel.erosion(array);
+            strel.setLineDecompositionRadius(0);
+            ScalarArray2D<?> dil2 = strel.dilation(array);
+            ScalarArray2D<?> ero2 = strel.erosion(array);
+            
+            for (int y = 0; y < 25; y++)
+            {
+                for (int x = 0; x < 30; x++)
+                {
+                    double vmax = Double.NEGATIVE_INFINITY;
+                    double vmin = Double.POSITIVE_INFINITY;
+                    for (int[] shift : shifts)
+                    {
+                        int x2 = x + shift[0];
+                        int y2 = y + shift[1];
+                        if (x2 >= 0 && x2 < 30 && y2 >= 0 && y2 < 25)
+                        {
+                            vmax = Math.max(vmax, array.getValue(x2, y2));
+                            vmin = Math.min(vmin, array.getValue(x2, y2));
+                        }
+                    }
+                    assertEquals(vmax, dil1.getValue(x, y), 0.0);
+                    assertEquals(vmax, dil2.getValue(x, y), 0.0);
+                    assertEquals(vmin, ero1.getValue(x, y), 0.0);
+                    assertEquals(vmin, ero2.getValue(x, y), 0.0);
+                }
+            }
+        }
+    }
+    
 }
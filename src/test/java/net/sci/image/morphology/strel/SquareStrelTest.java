@@ -5,6 +5,8 @@ package net.sci.image.morphology.strel;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 import net.sci.array.binary.BinaryArray2D;
@@ -178,6 +180,42 @@ public class SquareStrelTest
         }
     }
     
+    /**
+     * Computes dilation and erosion with a large square, and compares with
+     * the extrema computed over the neighborhood of each pixel.
+     */
+    @Test
+    public void testDilationErosion_LargeRadius()
+    {
+        UInt8Array2D array = UInt8Array2D.create(60, 50);
+        Random random = new Random(42);
+        array.fillInts((x, y) -> random.nextInt(256));
+        int radius = 20;
+        Strel2D strel = SquareStrel.fromRadius(radius);
+        
+        ScalarArray2D<?> dil = strel.dilation(array);
+        ScalarArray2D<?> ero = strel.erosion(array);
+        
+        for (int y = 0; y < 50; y++)
+        {
+            for (int x = 0; x < 60; x++)
+            {
+                int vmax = 0;
+                int vmin = 255;
+                for (int y2 = Math.max(y - radius, 0); y2 <= Math.min(y + radius, 49); y2++)
+                {
+                    for (int x2 = Math.max(x - radius, 0); x2 <= Math.min(x + radius, 59); x2++)
+                    {
+                        vmax = Math.max(vmax, array.getInt(x2, y2));
+                        vmin = Math.min(vmin, array.getInt(x2, y2));
+                    }
+                }
+                assertEquals(vmax, dil.getValue(x, y), 0.01);
+                assertEquals(vmin, ero.getValue(x, y), 0.01);
+            }
+        }
+    }
+    
     @Test
     public void testOpening()
     {
@@ -0,0 +1,79 @@
+/**
+ *
+ */
+package net.sci.util;
+
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+/**
+ * @author dlegland
+ *
+ */
+public class IntQueueTest
+{
+    /**
+     * Test method for {@link net.sci.util.IntQueue#add(int)}.
+     */
+    @Test
+    public final void testAddRemove()
+    {
+        IntQueue queue = new IntQueue();
+        assertTrue(queue.isEmpty());
+
+        queue.add(3);
+        queue.add(5);
+        queue.add(7);
+
+        assertEquals(3, queue.size());
+        assertEquals(3, queue.remove());
+        assertEquals(5, queue.remove());
+        assertEquals(7, queue.remove());
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Adds and removes values such that the buffer grows while the values
+     * are wrapped around the end of the buffer, and checks the order is kept.
+     *
+     * Test method for {@link net.sci.util.IntQueue#add(int)}.
+     */
+    @Test
+    public final void testAdd_growWhileWrapped()
+    {
+        IntQueue queue = new IntQueue(4);
+        int next = 0;
+        int expected = 0;
+        for (int i = 0; i < 100; i++)
+        {
+            // add three values, remove two
+            queue.add(next++);
+            queue.add(next++);
+            queue.add(next++);
+            assertEquals(expected++, queue.remove());
+            assertEquals(expected++, queue.remove());
+        }
+
+        assertEquals(100, queue.size());
+        while (!queue.isEmpty())
+        {
+            assertEquals(expected++, queue.remove());
+        }
+        assertEquals(next, expected);
+    }
+
+    /**
+     * Test method for {@link net.sci.util.IntQueue#remove()}.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public final void testRemove_empty()
+    {
+        IntQueue queue = new IntQueue();
+        queue.add(1);
+        queue.remove();
+        queue.remove();
+    }
+}
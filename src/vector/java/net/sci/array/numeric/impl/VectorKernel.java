@@ -0,0 +1,178 @@
+/**
+ *
+ */
+package net.sci.array.numeric.impl;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of the kernel of BufferKernels based on the Vector API.
+ *
+ * This class is compiled separately with the
+ * <code>jdk.incubator.vector</code> module, and is loaded by reflection only
+ * when this module is available at runtime. The values that do not fill a
+ * whole vector are processed with the same loops as the scalar kernel, so
+ * that both kernels give the same results.
+ *
+ * @see BufferKernels
+ *
+ * @author dlegland
+ */
+final class VectorKernel implements BufferKernels.Kernel
+{
+    /**
+     * The preferred shape of vectors for the current platform.
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Creates a new kernel. Called by reflection from BufferKernels.
+     */
+    VectorKernel()
+    {
+    }
+
+    @Override
+    public void combine(BufferKernels.Operation op, double[] values1, double[] values2, int count)
+    {
+        int bound = SPECIES.loopBound(count);
+        int step = SPECIES.length();
+        switch (op)
+        {
+            case ADD -> {
+                for (int i = 0; i < bound; i += step)
+                {
+                    DoubleVector v1 = DoubleVector.fromArray(SPECIES, values1, i);
+                    v1.add(DoubleVector.fromArray(SPECIES, values2, i)).intoArray(values1, i);
+                }
+            }
+            case SUBTRACT -> {
+                for (int i = 0; i < bound; i += step)
+                {
+                    DoubleVector v1 = DoubleVector.fromArray(SPECIES, values1, i);
+                    v1.sub(DoubleVector.fromArray(SPECIES, values2, i)).intoArray(values1, i);
+                }
+            }
+            case MULTIPLY -> {
+                for (int i = 0; i < bound; i += step)
+                {
+                    DoubleVector v1 = DoubleVector.fromArray(SPECIES, values1, i);
+                    v1.mul(DoubleVector.fromArray(SPECIES, values2, i)).intoArray(values1, i);
+                }
+            }
+            case DIVIDE -> {
+                for (int i = 0; i < bound; i += step)
+                {
+                    DoubleVector v1 = DoubleVector.fromArray(SPECIES, values1, i);
+                    v1.div(DoubleVector.fromArray(SPECIES, values2, i)).intoArray(values1, i);
+                }
+            }
+            case MIN -> {
+                for (int i = 0; i < bound; i += step)
+                {
+                    DoubleVector v1 = DoubleVector.fromArray(SPECIES, values1, i);
+                    v1.min(DoubleVector.fromArray(SPECIES, values2, i)).intoArray(values1, i);
+                }
+            }
+            case MAX -> {
+                for (int i = 0; i < bound; i += step)
+                {
+                    DoubleVector v1 = DoubleVector.fromArray(SPECIES, values1, i);
+                    v1.max(DoubleVector.fromArray(SPECIES, values2, i)).intoArray(values1, i);
+                }
+            }
+        }
+
+        // process remaining values
+        for (int i = bound; i < count; i++)
+        {
+            values1[i] = op.applyAsDouble(values1[i], values2[i]);
+        }
+    }
+
+    @Override
+    public void affine(double[] values, int count, double a, double b)
+    {
+        // use a multiplication followed by an addition rather than a fused
+        // multiply-add, to keep the rounding of the scalar kernel
+        int bound = SPECIES.loopBound(count);
+        for (int i = 0; i < bound; i += SPECIES.length())
+        {
+            DoubleVector.fromArray(SPECIES, values, i).mul(a).add(b).intoArray(values, i);
+        }
+        for (int i = bound; i < count; i++)
+        {
+            values[i] = values[i] * a + b;
+        }
+    }
+
+    @Override
+    public void divide(double[] values, int count, double value)
+    {
+        int bound = SPECIES.loopBound(count);
+        for (int i = 0; i < bound; i += SPECIES.length())
+        {
+            DoubleVector.fromArray(SPECIES, values, i).div(value).intoArray(values, i);
+        }
+        for (int i = bound; i < count; i++)
+        {
+            values[i] = values[i] / value;
+        }
+    }
+
+    @Override
+    public void clamp(double[] values, int count, double lower, double upper)
+    {
+        int bound = SPECIES.loopBound(count);
+        for (int i = 0; i < bound; i += SPECIES.length())
+        {
+            DoubleVector.fromArray(SPECIES, values, i).max(lower).min(upper).intoArray(values, i);
+        }
+        for (int i = bound; i < count; i++)
+        {
+            values[i] = Math.min(Math.max(values[i], lower), upper);
+        }
+    }
+
+    @Override
+    public double min(double[] values, int count, double min)
+    {
+        int bound = SPECIES.loopBound(count);
+        if (bound > 0)
+        {
+            DoubleVector acc = DoubleVector.broadcast(SPECIES, min);
+            for (int i = 0; i < bound; i += SPECIES.length())
+            {
+                acc = acc.min(DoubleVector.fromArray(SPECIES, values, i));
+            }
+            min = acc.reduceLanes(VectorOperators.MIN);
+        }
+        for (int i = bound; i < count; i++)
+        {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    @Override
+    public double max(double[] values, int count, double max)
+    {
+        int bound = SPECIES.loopBound(count);
+        if (bound > 0)
+        {
+            DoubleVector acc = DoubleVector.broadcast(SPECIES, max);
+            for (int i = 0; i < bound; i += SPECIES.length())
+            {
+                acc = acc.max(DoubleVector.fromArray(SPECIES, values, i));
+            }
+            max = acc.reduceLanes(VectorOperators.MAX);
+        }
+        for (int i = bound; i < count; i++)
+        {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+}